@@ -37,6 +37,7 @@ import org.cloudbus.cloudsim.container.utils.IDs;
 import org.cloudbus.cloudsim.container.vmSelectionPolicies.PowerContainerVmSelectionPolicy;
 import org.cloudbus.cloudsim.container.vmSelectionPolicies.PowerContainerVmSelectionPolicyMaximumUsage;
 import org.cloudbus.cloudsim.core.CloudSim;
+import org.cloudbus.cloudsim.power.models.PowerModelTabulated;
 
 import java.io.FileNotFoundException;
 import java.text.DecimalFormat;
@@ -331,7 +332,9 @@ public class ContainerCloudSimExample1 {
                     new ContainerVmRamProvisionerSimple(ConstantsExamples.HOST_RAM[hostType]),
                     new ContainerVmBwProvisionerSimple(1000000L), 1000000L, peList,
                     new ContainerVmSchedulerTimeSharedOverSubscription(peList),
-                    ConstantsExamples.HOST_POWER[hostType]));
+                    ConstantsExamples.HOST_POWER_TABULATED
+                            ? PowerModelTabulated.getInstance(ConstantsExamples.HOST_POWER[hostType])
+                            : ConstantsExamples.HOST_POWER[hostType]));
         }
 
         return hostList;
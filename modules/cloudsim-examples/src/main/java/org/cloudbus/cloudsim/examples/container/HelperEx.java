@@ -18,6 +18,7 @@ import org.cloudbus.cloudsim.container.schedulers.ContainerCloudletSchedulerDyna
 import org.cloudbus.cloudsim.container.schedulers.ContainerSchedulerTimeSharedOverSubscription;
 import org.cloudbus.cloudsim.container.schedulers.ContainerVmSchedulerTimeSharedOverSubscription;
 import org.cloudbus.cloudsim.container.utils.IDs;
+import org.cloudbus.cloudsim.power.models.PowerModelTabulated;
 import org.cloudbus.cloudsim.util.MathUtil;
 
 import java.io.*;
@@ -138,7 +139,10 @@ public class HelperEx {
 //            hostList.add(new PowerContainerHost(i, new ContainerVmRamProvisionerSimple(ConstantsExamples.HOST_RAM[hostType]),
 //                    new ContainerVmBwProvisionerSimple(1000000L), 1000000L, peList, new ContainerVmSchedulerTimeSharedOverSubscription(peList), ConstantsExamples.HOST_POWER[hostType]));
             hostList.add(new PowerContainerHostUtilizationHistory(IDs.pollId(ContainerHost.class), new ContainerVmRamProvisionerSimple(ConstantsExamples.HOST_RAM[hostType]),
-                    new ContainerVmBwProvisionerSimple(1000000L), 1000000L, peList, new ContainerVmSchedulerTimeSharedOverSubscription(peList), ConstantsExamples.HOST_POWER[hostType]));
+                    new ContainerVmBwProvisionerSimple(1000000L), 1000000L, peList, new ContainerVmSchedulerTimeSharedOverSubscription(peList),
+                    ConstantsExamples.HOST_POWER_TABULATED
+                            ? PowerModelTabulated.getInstance(ConstantsExamples.HOST_POWER[hostType])
+                            : ConstantsExamples.HOST_POWER[hostType]));
         }
 
         return hostList;
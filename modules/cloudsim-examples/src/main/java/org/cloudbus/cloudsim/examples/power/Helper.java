@@ -33,6 +33,7 @@ import org.cloudbus.cloudsim.power.PowerHost;
 import org.cloudbus.cloudsim.power.PowerHostUtilizationHistory;
 import org.cloudbus.cloudsim.power.PowerVm;
 import org.cloudbus.cloudsim.power.PowerVmAllocationPolicyMigrationAbstract;
+import org.cloudbus.cloudsim.power.models.PowerModelTabulated;
 import org.cloudbus.cloudsim.provisioners.BwProvisionerSimple;
 import org.cloudbus.cloudsim.provisioners.PeProvisionerSimple;
 import org.cloudbus.cloudsim.provisioners.RamProvisionerSimple;
@@ -105,7 +106,9 @@ public class Helper {
 					Constants.HOST_STORAGE,
 					peList,
 					new VmSchedulerTimeSharedOverSubscription(peList),
-					Constants.HOST_POWER[hostType]));
+					Constants.HOST_POWER_TABULATED
+							? PowerModelTabulated.getInstance(Constants.HOST_POWER[hostType])
+							: Constants.HOST_POWER[hostType]));
 		}
 		return hostList;
 	}
@@ -388,6 +391,17 @@ public class Helper {
 			Log.printLine(String.format("Total simulation time: %.2f sec", totalSimulationTime));
 			Log.printLine(String.format("Energy consumption: %.2f kWh", energy));
 			Log.printLine(String.format("Number of VM migrations: %d", numberOfMigrations));
+			if (datacenter.getAdaptiveSchedulingInterval() != null) {
+				Log.printLine(String.format(
+						"Skipped scheduling intervals: %d",
+						datacenter.getAdaptiveSchedulingInterval().getSkippedIntervals()));
+				// computed from the predicted utilization of the hosts, not from the utilization
+				// that a fixed scheduling interval would have seen
+				Log.printLine(String.format(
+						"Utilization-drift energy of the adaptive scheduling interval: %.2f kWh"
+								+ " (estimate from the predicted utilization, not an error bound)",
+						datacenter.getAdaptiveSchedulingInterval().getUtilizationDriftEnergy() / (3600 * 1000)));
+			}
 			Log.printLine(String.format("SLA: %.5f%%", sla * 100));
 			Log.printLine(String.format(
 					"SLA perf degradation due to migration: %.2f%%",
@@ -2,6 +2,7 @@ package org.cloudbus.cloudsim.examples.power.planetlab;
 
 import java.io.File;
 import java.io.FileNotFoundException;
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -10,6 +11,7 @@ import org.cloudbus.cloudsim.UtilizationModel;
 import org.cloudbus.cloudsim.UtilizationModelNull;
 import org.cloudbus.cloudsim.UtilizationModelPlanetLabInMemory;
 import org.cloudbus.cloudsim.examples.power.Constants;
+import org.cloudbus.cloudsim.util.UtilizationTraceStore;
 
 /**
  * A helper class for the running examples for the PlanetLab workload.
@@ -28,7 +30,8 @@ import org.cloudbus.cloudsim.examples.power.Constants;
 public class PlanetLabHelper {
 
 	/**
-	 * Creates the cloudlet list planet lab.
+	 * Creates the cloudlet list planet lab. The traces of the input folder are read through a
+	 * {@link UtilizationTraceStore}, so that they are parsed only once and shared between runs.
 	 * 
 	 * @param brokerId the broker id
 	 * @param inputFolderName the input folder name
@@ -46,6 +49,14 @@ public class PlanetLabHelper {
 		File inputFolder = new File(inputFolderName);
 		File[] files = inputFolder.listFiles();
 
+		UtilizationTraceStore traceStore = null;
+		try {
+			traceStore = UtilizationTraceStore.open(inputFolderName);
+		} catch (IOException e) {
+			e.printStackTrace();
+			System.exit(0);
+		}
+
 		for (int i = 0; i < files.length; i++) {
 			Cloudlet cloudlet = null;
 			try {
@@ -56,7 +67,7 @@ public class PlanetLabHelper {
 						fileSize,
 						outputSize,
 						new UtilizationModelPlanetLabInMemory(
-								files[i].getAbsolutePath(),
+								traceStore.getTrace(files[i].getName()),
 								Constants.SCHEDULING_INTERVAL), utilizationModelNull, utilizationModelNull);
 			} catch (Exception e) {
 				e.printStackTrace();
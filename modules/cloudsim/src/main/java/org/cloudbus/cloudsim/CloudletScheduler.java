@@ -8,9 +8,11 @@
 
 package org.cloudbus.cloudsim;
 
+import java.util.AbstractList;
 import java.util.ArrayList;
 import java.util.List;
 import org.cloudbus.cloudsim.network.datacenter.NetworkCloudletSpaceSharedScheduler;
+import org.cloudbus.cloudsim.util.MathUtil;
 
 
 /**
@@ -29,8 +31,31 @@ public abstract class CloudletScheduler {
 	/** The previous time. */
 	private double previousTime;
 
-	/** The list of current mips share available for the VM using the scheduler. */
-	private List<Double> currentMipsShare;
+	/** The current mips share available for the VM using the scheduler, 
+         * with the MIPS of each PE. It is a copy owned by the scheduler. */
+	private double[] currentMipsShare;
+
+	/** The list view of {@link #currentMipsShare} returned by {@link #getCurrentMipsShare()}. */
+	private final List<Double> currentMipsShareView = new AbstractList<Double>() {
+
+		@Override
+		public Double get(int index) {
+			return currentMipsShare[index];
+		}
+
+		@Override
+		public Double set(int index, Double mips) {
+			double previous = currentMipsShare[index];
+			currentMipsShare[index] = mips;
+			return previous;
+		}
+
+		@Override
+		public int size() {
+			return currentMipsShare == null ? 0 : currentMipsShare.length;
+		}
+
+	};
 
 	/** The list of cloudlet waiting to be executed on the VM. */
 	protected List<? extends ResCloudlet> cloudletWaitingList;
@@ -75,6 +100,24 @@ public abstract class CloudletScheduler {
 	 */
 	public abstract double updateVmProcessing(double currentTime, List<Double> mipsShare);
 
+	/**
+	 * Updates the processing of cloudlets running under management of this scheduler,
+	 * given the MIPS share as a primitive array. This is the method called by the VMs.
+	 * The default implementation adapts the call to {@link #updateVmProcessing(double, List)};
+	 * the schedulers of CloudSim override it so that no list is created on each update, unless
+	 * a subclass of them overrides the list overload.
+	 * 
+	 * @param currentTime current simulation time
+	 * @param mipsShare MIPS share of each Pe available to the scheduler
+	 * @return the predicted completion time of the earliest finishing cloudlet, 
+         * or 0 if there is no next events
+	 * @pre currentTime >= 0
+	 * @post $none
+	 */
+	public double updateVmProcessingWithArray(double currentTime, double[] mipsShare) {
+		return updateVmProcessing(currentTime, MathUtil.arrayToList(mipsShare));
+	}
+
 	/**
 	 * Receives an cloudlet to be executed in the VM managed by this scheduler.
 	 * 
@@ -200,6 +243,19 @@ public abstract class CloudletScheduler {
 	 */
 	public abstract List<Double> getCurrentRequestedMips();
 
+	/**
+	 * Gets the current requested mips as a primitive array.
+	 * The returned array may be reused by the scheduler on the next call,
+	 * thus callers that need to keep it must copy it.
+	 * 
+	 * @return the current mips
+	 * @see #getCurrentRequestedMips()
+	 */
+	public double[] getCurrentRequestedMipsArray() {
+		List<Double> currentRequestedMips = getCurrentRequestedMips();
+		return currentRequestedMips == null ? null : MathUtil.listToArray(currentRequestedMips);
+	}
+
 	/**
 	 * Gets the total current available mips for the Cloudlet.
 	 * 
@@ -274,15 +330,44 @@ public abstract class CloudletScheduler {
 	 * @param currentMipsShare the new current mips share
 	 */
 	protected void setCurrentMipsShare(List<Double> currentMipsShare) {
-		this.currentMipsShare = currentMipsShare;
+		this.currentMipsShare = currentMipsShare == null ? null : MathUtil.listToArray(currentMipsShare);
+	}
+
+	/**
+	 * Sets the current mips share. The values are copied, reusing the
+	 * current array when the number of PEs doesn't change.
+	 * 
+	 * @param currentMipsShare the new current mips share
+	 */
+	protected void setCurrentMipsShare(double[] currentMipsShare) {
+		if (currentMipsShare == null) {
+			this.currentMipsShare = null;
+		} else if (this.currentMipsShare == null || this.currentMipsShare.length != currentMipsShare.length) {
+			this.currentMipsShare = currentMipsShare.clone();
+		} else {
+			System.arraycopy(currentMipsShare, 0, this.currentMipsShare, 0, currentMipsShare.length);
+		}
 	}
 
 	/**
-	 * Gets the current mips share.
+	 * Gets the current mips share. The returned list is a view of the share
+	 * kept by the scheduler: it is the same list on every call and setting one
+	 * of its elements changes the share.
 	 * 
 	 * @return the current mips share
+	 * @see #getCurrentMipsShareArray()
 	 */
 	public List<Double> getCurrentMipsShare() {
+		return currentMipsShare == null ? null : currentMipsShareView;
+	}
+
+	/**
+	 * Gets the current mips share without copying it. The returned array
+	 * must not be modified.
+	 * 
+	 * @return the current mips share
+	 */
+	public double[] getCurrentMipsShareArray() {
 		return currentMipsShare;
 	}
 
@@ -8,11 +8,14 @@
 package org.cloudbus.cloudsim;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
 import org.cloudbus.cloudsim.core.CloudSim;
+import org.cloudbus.cloudsim.util.MathUtil;
+import org.cloudbus.cloudsim.util.OverrideCheck;
 
 /**
  * CloudletSchedulerDynamicWorkload implements a policy of scheduling performed by a virtual machine
@@ -30,11 +33,19 @@ import org.cloudbus.cloudsim.core.CloudSim;
  */
 public class CloudletSchedulerDynamicWorkload extends CloudletSchedulerTimeShared {
 
+	/** Tells if a subclass overrides {@link #updateVmProcessing(double, List)}. */
+	private static final OverrideCheck UPDATE_PROCESSING = new OverrideCheck(
+			CloudletSchedulerDynamicWorkload.class, "updateVmProcessing", double.class, List.class);
+
+	/** Tells if a subclass overrides {@link #getCurrentRequestedMips()}. */
+	private static final OverrideCheck REQUESTED_MIPS = new OverrideCheck(
+			CloudletSchedulerDynamicWorkload.class, "getCurrentRequestedMips");
+
 	/** The individual MIPS capacity of each PE allocated to the VM using the scheduler,
          * considering that all PEs have the same capacity. 
          * @todo Despite of the class considers that all PEs have the same capacity,
          * it accepts a list of PEs with different MIPS at the method 
-         * {@link #updateVmProcessing(double, java.util.List) }
+         * {@link #updateVmProcessingWithArray(double, double[]) }
          */
 	private double mips;
 
@@ -55,6 +66,13 @@ public class CloudletSchedulerDynamicWorkload extends CloudletSchedulerTimeShare
          */
 	private List<Double> cacheCurrentRequestedMips;
 
+	/** The time when the {@link #currentRequestedMipsArray} was computed. */
+	private double currentRequestedMipsArrayTime;
+
+	/** The last current requested MIPS of each PE, reused by the
+         * {@link #getCurrentRequestedMipsArray()}. */
+	private double[] currentRequestedMipsArray;
+
 	/**
 	 * Instantiates a new VM scheduler
 	 * 
@@ -74,10 +92,35 @@ public class CloudletSchedulerDynamicWorkload extends CloudletSchedulerTimeShare
 		setTotalMips(getNumberOfPes() * getMips());
 		setUnderAllocatedMips(new HashMap<String, Double>());
 		setCachePreviousTime(-1);
+		currentRequestedMipsArrayTime = -1;
 	}
 
 	@Override
 	public double updateVmProcessing(double currentTime, List<Double> mipsShare) {
+		double[] share = MathUtil.listToArray(mipsShare);
+		if (UPDATE_PROCESSING.isOverriddenBy(this)) {
+			return updateProcessing(currentTime, share);
+		}
+		return updateVmProcessingWithArray(currentTime, share);
+	}
+
+	@Override
+	public double updateVmProcessingWithArray(double currentTime, double[] mipsShare) {
+		if (UPDATE_PROCESSING.isOverriddenBy(this)) {
+			return updateVmProcessing(currentTime, MathUtil.arrayToList(mipsShare));
+		}
+		return updateProcessing(currentTime, mipsShare);
+	}
+
+	/**
+	 * Updates the processing of the cloudlets, whichever overload was called.
+	 * 
+	 * @param currentTime current simulation time
+	 * @param mipsShare MIPS share of each Pe available to the scheduler
+	 * @return the predicted completion time of the earliest finishing cloudlet, or 0 if there is no
+	 *         next events
+	 */
+	private double updateProcessing(double currentTime, double[] mipsShare) {
 		setCurrentMipsShare(mipsShare);
 
 		double timeSpan = currentTime - getPreviousTime();
@@ -169,6 +212,26 @@ public class CloudletSchedulerDynamicWorkload extends CloudletSchedulerTimeShare
 		return currentMips;
 	}
 
+	@Override
+	public double[] getCurrentRequestedMipsArray() {
+		if (REQUESTED_MIPS.isOverriddenBy(this)) {
+			return super.getCurrentRequestedMipsArray();
+		}
+		if (currentRequestedMipsArray != null && currentRequestedMipsArray.length == getNumberOfPes()
+				&& currentRequestedMipsArrayTime == getPreviousTime()) {
+			return currentRequestedMipsArray;
+		}
+		if (currentRequestedMipsArray == null || currentRequestedMipsArray.length != getNumberOfPes()) {
+			currentRequestedMipsArray = new double[getNumberOfPes()];
+		}
+		double totalMips = getTotalUtilizationOfCpu(getPreviousTime()) * getTotalMips();
+		double mipsForPe = totalMips / getNumberOfPes();
+		Arrays.fill(currentRequestedMipsArray, mipsForPe);
+
+		currentRequestedMipsArrayTime = getPreviousTime();
+		return currentRequestedMipsArray;
+	}
+
 	@Override
 	public double getTotalCurrentRequestedMipsForCloudlet(ResCloudlet rcl, double time) {
 		return rcl.getCloudlet().getUtilizationOfCpu(time) * getTotalMips();
@@ -176,6 +239,19 @@ public class CloudletSchedulerDynamicWorkload extends CloudletSchedulerTimeShare
 
 	@Override
 	public double getTotalCurrentAvailableMipsForCloudlet(ResCloudlet rcl, List<Double> mipsShare) {
+		return getTotalCurrentAvailableMipsForCloudlet(rcl,
+				mipsShare == null ? null : MathUtil.listToArray(mipsShare));
+	}
+
+	/**
+	 * Gets the total current available mips for the Cloudlet.
+	 * 
+	 * @param rcl the rcl
+	 * @param mipsShare the mips share
+	 * @return the total current mips
+	 * @see #getTotalCurrentAvailableMipsForCloudlet(ResCloudlet, List)
+	 */
+	protected double getTotalCurrentAvailableMipsForCloudlet(ResCloudlet rcl, double[] mipsShare) {
 		double totalCurrentMips = 0.0;
 		if (mipsShare != null) {
 			int neededPEs = rcl.getNumberOfPes();
@@ -193,7 +269,7 @@ public class CloudletSchedulerDynamicWorkload extends CloudletSchedulerTimeShare
 	@Override
 	public double getTotalCurrentAllocatedMipsForCloudlet(ResCloudlet rcl, double time) {
 		double totalCurrentRequestedMips = getTotalCurrentRequestedMipsForCloudlet(rcl, time);
-		double totalCurrentAvailableMips = getTotalCurrentAvailableMipsForCloudlet(rcl, getCurrentMipsShare());
+		double totalCurrentAvailableMips = getTotalCurrentAvailableMipsForCloudlet(rcl, getCurrentMipsShareArray());
 		if (totalCurrentRequestedMips > totalCurrentAvailableMips) {
 			return totalCurrentAvailableMips;
 		}
@@ -229,13 +305,13 @@ public class CloudletSchedulerDynamicWorkload extends CloudletSchedulerTimeShare
 
 	/**
 	 * Gets the total current mips available for the VM using the scheduler.
-         * The total is computed from the {@link #getCurrentMipsShare()}
+         * The total is computed from the {@link #getCurrentMipsShareArray()}
 	 * 
 	 * @return the total current mips
 	 */
 	public int getTotalCurrentMips() {
 		int totalCurrentMips = 0;
-		for (double mips : getCurrentMipsShare()) {
+		for (double mips : getCurrentMipsShareArray()) {
 			totalCurrentMips += mips;
 		}
 		return totalCurrentMips;
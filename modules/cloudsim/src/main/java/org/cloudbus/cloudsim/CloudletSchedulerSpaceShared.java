@@ -12,6 +12,8 @@ import java.util.ArrayList;
 import java.util.List;
 
 import org.cloudbus.cloudsim.core.CloudSim;
+import org.cloudbus.cloudsim.util.MathUtil;
+import org.cloudbus.cloudsim.util.OverrideCheck;
 
 /**
  * CloudletSchedulerSpaceShared implements a policy of scheduling performed by a virtual machine
@@ -26,9 +28,18 @@ import org.cloudbus.cloudsim.core.CloudSim;
  * @since CloudSim Toolkit 1.0
  */
 public class CloudletSchedulerSpaceShared extends CloudletScheduler {
+
+	/** Tells if a subclass overrides {@link #updateVmProcessing(double, List)}. */
+	private static final OverrideCheck UPDATE_PROCESSING = new OverrideCheck(
+			CloudletSchedulerSpaceShared.class, "updateVmProcessing", double.class, List.class);
+
+	/** Tells if a subclass overrides {@link #getCurrentRequestedMips()}. */
+	private static final OverrideCheck REQUESTED_MIPS = new OverrideCheck(
+			CloudletSchedulerSpaceShared.class, "getCurrentRequestedMips");
+
 	/** The number of PEs currently available for the VM using the scheduler,
          * according to the mips share provided to it by
-         * {@link #updateVmProcessing(double, java.util.List)} method. */
+         * {@link #updateVmProcessingWithArray(double, double[])} method. */
 	protected int currentCpus;
 
 	/** The number of used PEs. */
@@ -49,12 +60,36 @@ public class CloudletSchedulerSpaceShared extends CloudletScheduler {
 
 	@Override
 	public double updateVmProcessing(double currentTime, List<Double> mipsShare) {
+		double[] share = MathUtil.listToArray(mipsShare);
+		if (UPDATE_PROCESSING.isOverriddenBy(this)) {
+			return updateProcessing(currentTime, share);
+		}
+		return updateVmProcessingWithArray(currentTime, share);
+	}
+
+	@Override
+	public double updateVmProcessingWithArray(double currentTime, double[] mipsShare) {
+		if (UPDATE_PROCESSING.isOverriddenBy(this)) {
+			return updateVmProcessing(currentTime, MathUtil.arrayToList(mipsShare));
+		}
+		return updateProcessing(currentTime, mipsShare);
+	}
+
+	/**
+	 * Updates the processing of the cloudlets, whichever overload was called.
+	 * 
+	 * @param currentTime current simulation time
+	 * @param mipsShare MIPS share of each Pe available to the scheduler
+	 * @return the predicted completion time of the earliest finishing cloudlet, or 0 if there is no
+	 *         next events
+	 */
+	private double updateProcessing(double currentTime, double[] mipsShare) {
 		setCurrentMipsShare(mipsShare);
 		double timeSpam = currentTime - getPreviousTime(); // time since last update
 		double capacity = 0.0;
 		int cpus = 0;
 
-		for (Double mips : mipsShare) { // count the CPUs available to the VMM
+		for (double mips : mipsShare) { // count the CPUs available to the VMM
 			capacity += mips;
 			if (mips > 0) {
 				cpus++;
@@ -264,7 +299,7 @@ public class CloudletSchedulerSpaceShared extends CloudletScheduler {
 				// calculate the expected time for cloudlet completion
 				double capacity = 0.0;
 				int cpus = 0;
-				for (Double mips : getCurrentMipsShare()) {
+				for (double mips : getCurrentMipsShareArray()) {
 					capacity += mips;
 					if (mips > 0) {
 						cpus++;
@@ -317,7 +352,7 @@ public class CloudletSchedulerSpaceShared extends CloudletScheduler {
 		// calculate the expected time for cloudlet completion
 		double capacity = 0.0;
 		int cpus = 0;
-		for (Double mips : getCurrentMipsShare()) {
+		for (double mips : getCurrentMipsShareArray()) {
 			capacity += mips;
 			if (mips > 0) {
 				cpus++;
@@ -412,14 +447,25 @@ public class CloudletSchedulerSpaceShared extends CloudletScheduler {
 	@Override
 	public List<Double> getCurrentRequestedMips() {
 		List<Double> mipsShare = new ArrayList<Double>();
-		if (getCurrentMipsShare() != null) {
-			for (Double mips : getCurrentMipsShare()) {
+		if (getCurrentMipsShareArray() != null) {
+			for (double mips : getCurrentMipsShareArray()) {
 				mipsShare.add(mips);
 			}
 		}
 		return mipsShare;
 	}
 
+	@Override
+	public double[] getCurrentRequestedMipsArray() {
+		if (REQUESTED_MIPS.isOverriddenBy(this)) {
+			return super.getCurrentRequestedMipsArray();
+		}
+		if (getCurrentMipsShareArray() != null) {
+			return getCurrentMipsShareArray();
+		}
+		return new double[0];
+	}
+
 	@Override
 	public double getTotalCurrentAvailableMipsForCloudlet(ResCloudlet rcl, List<Double> mipsShare) {
                 /*@todo The param rcl is not being used.*/
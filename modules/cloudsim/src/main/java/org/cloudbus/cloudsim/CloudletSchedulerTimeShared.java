@@ -11,6 +11,8 @@ import java.util.ArrayList;
 import java.util.List;
 
 import org.cloudbus.cloudsim.core.CloudSim;
+import org.cloudbus.cloudsim.util.MathUtil;
+import org.cloudbus.cloudsim.util.OverrideCheck;
 
 /**
  * CloudletSchedulerTimeShared implements a policy of scheduling performed by a virtual machine
@@ -23,11 +25,23 @@ import org.cloudbus.cloudsim.core.CloudSim;
  * @since CloudSim Toolkit 1.0
  */
 public class CloudletSchedulerTimeShared extends CloudletScheduler {
+
+	/** Tells if a subclass overrides {@link #updateVmProcessing(double, List)}. */
+	private static final OverrideCheck UPDATE_PROCESSING = new OverrideCheck(
+			CloudletSchedulerTimeShared.class, "updateVmProcessing", double.class, List.class);
+
+	/** Tells if a subclass overrides {@link #getCurrentRequestedMips()}. */
+	private static final OverrideCheck REQUESTED_MIPS = new OverrideCheck(
+			CloudletSchedulerTimeShared.class, "getCurrentRequestedMips");
+
 	/** The number of PEs currently available for the VM using the scheduler,
          * according to the mips share provided to it by
-         * {@link #updateVmProcessing(double, java.util.List)} method. */
+         * {@link #updateVmProcessingWithArray(double, double[])} method. */
 	protected int currentCPUs;
 
+	/** The requested mips, as this scheduler doesn't request any. */
+	private static final double[] NO_REQUESTED_MIPS = new double[0];
+
 	/**
 	 * Creates a new CloudletSchedulerTimeShared object. This method must be invoked before starting
 	 * the actual simulation.
@@ -42,6 +56,30 @@ public class CloudletSchedulerTimeShared extends CloudletScheduler {
 
 	@Override
 	public double updateVmProcessing(double currentTime, List<Double> mipsShare) {
+		double[] share = MathUtil.listToArray(mipsShare);
+		if (UPDATE_PROCESSING.isOverriddenBy(this)) {
+			return updateProcessing(currentTime, share);
+		}
+		return updateVmProcessingWithArray(currentTime, share);
+	}
+
+	@Override
+	public double updateVmProcessingWithArray(double currentTime, double[] mipsShare) {
+		if (UPDATE_PROCESSING.isOverriddenBy(this)) {
+			return updateVmProcessing(currentTime, MathUtil.arrayToList(mipsShare));
+		}
+		return updateProcessing(currentTime, mipsShare);
+	}
+
+	/**
+	 * Updates the processing of the cloudlets, whichever overload was called.
+	 * 
+	 * @param currentTime current simulation time
+	 * @param mipsShare MIPS share of each Pe available to the scheduler
+	 * @return the predicted completion time of the earliest finishing cloudlet, or 0 if there is no
+	 *         next events
+	 */
+	private double updateProcessing(double currentTime, double[] mipsShare) {
 		setCurrentMipsShare(mipsShare);
 		double timeSpam = currentTime - getPreviousTime();
 
@@ -92,9 +130,20 @@ public class CloudletSchedulerTimeShared extends CloudletScheduler {
 	 * @return the capacity of each PE
 	 */
 	protected double getCapacity(List<Double> mipsShare) {
+		return getCapacity(MathUtil.listToArray(mipsShare));
+	}
+
+	/**
+	 * Gets the individual MIPS capacity available for each PE available for the scheduler,
+         * considering that all PEs have the same capacity.
+	 * 
+	 * @param mipsShare MIPS share of each PE available to the scheduler
+	 * @return the capacity of each PE
+	 */
+	protected double getCapacity(double[] mipsShare) {
 		double capacity = 0.0;
 		int cpus = 0;
-		for (Double mips : mipsShare) {
+		for (double mips : mipsShare) {
 			capacity += mips;
 			if (mips > 0.0) {
 				cpus++;
@@ -231,7 +280,7 @@ public class CloudletSchedulerTimeShared extends CloudletScheduler {
 
 			double remainingLength = rgl.getRemainingCloudletLength();
 			double estimatedFinishTime = CloudSim.clock()
-					+ (remainingLength / (getCapacity(getCurrentMipsShare()) * rgl.getNumberOfPes()));
+					+ (remainingLength / (getCapacity(getCurrentMipsShareArray()) * rgl.getNumberOfPes()));
 
 			return estimatedFinishTime;
 		}
@@ -251,11 +300,11 @@ public class CloudletSchedulerTimeShared extends CloudletScheduler {
 
 		// use the current capacity to estimate the extra amount of
 		// time to file transferring. It must be added to the cloudlet length
-		double extraSize = getCapacity(getCurrentMipsShare()) * fileTransferTime;
+		double extraSize = getCapacity(getCurrentMipsShareArray()) * fileTransferTime;
 		long length = (long) (cloudlet.getCloudletLength() + extraSize);
 		cloudlet.setCloudletLength(length);
 
-		return cloudlet.getCloudletLength() / getCapacity(getCurrentMipsShare());
+		return cloudlet.getCloudletLength() / getCapacity(getCurrentMipsShareArray());
 	}
 
 	@Override
@@ -321,10 +370,18 @@ public class CloudletSchedulerTimeShared extends CloudletScheduler {
 		return mipsShare;
 	}
 
+	@Override
+	public double[] getCurrentRequestedMipsArray() {
+		if (REQUESTED_MIPS.isOverriddenBy(this)) {
+			return super.getCurrentRequestedMipsArray();
+		}
+		return NO_REQUESTED_MIPS;
+	}
+
 	@Override
 	public double getTotalCurrentAvailableMipsForCloudlet(ResCloudlet rcl, List<Double> mipsShare) {
             /*@todo It isn't being used any the the given parameters.*/
-            return getCapacity(getCurrentMipsShare());
+            return getCapacity(getCurrentMipsShareArray());
 	}
 
 	@Override
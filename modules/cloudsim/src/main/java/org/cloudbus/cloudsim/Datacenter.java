@@ -8,10 +8,12 @@
 package org.cloudbus.cloudsim;
 
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
 
 import org.cloudbus.cloudsim.core.CloudSim;
 import org.cloudbus.cloudsim.core.CloudSimTags;
@@ -59,6 +61,14 @@ public class Datacenter extends SimEntity {
 	/** The scheduling delay to process each datacenter received event. */
 	private double schedulingInterval;
 
+	/** The pool where the hosts are updated in parallel at each processing step,
+	 * or null if they are updated sequentially (the default).
+	 * @see #processHosts(java.util.List, org.cloudbus.cloudsim.Datacenter.HostFunction) */
+	private ForkJoinPool hostUpdatePool;
+
+	/** The minimum number of hosts a datacenter has to have for them to be updated in parallel. */
+	private static final int MIN_HOSTS_FOR_PARALLEL_UPDATE = 64;
+
 	/**
 	 * Allocates a new Datacenter object.
 	 * 
@@ -216,6 +226,10 @@ public class Datacenter extends SimEntity {
 				processVmCreate(ev, true);
 				break;
 
+			case CloudSimTags.VM_CREATE_BATCH:
+				processVmCreateBatch(ev);
+				break;
+
 			case CloudSimTags.VM_DESTROY:
 				processVmDestroy(ev, false);
 				break;
@@ -456,16 +470,67 @@ public class Datacenter extends SimEntity {
 		}
 
 		if (result) {
-			getVmList().add(vm);
+			addCreatedVm(vm);
+		}
+
+	}
+
+	/**
+	 * Process the event for an User/Broker who wants to create a list of VMs in this Datacenter.
+	 * The VMs are placed together by {@link VmAllocationPolicy#allocateHostsForVms(List)}
+	 * and a single acknowledgement is sent back to the user of the VMs, as
+	 * {@link #processVmCreate(SimEvent, boolean)} does, whose data has a row for each VM, in the
+	 * order of the list, with the same values as the data of a {@link CloudSimTags#VM_CREATE_ACK}.
+	 * If the list has VMs of several users, each user gets the rows of its own VMs.
+	 * 
+	 * @param ev information about the event just happened, whose data is the list of VMs
+	 * @pre ev != null
+	 * @post $none
+	 */
+	protected void processVmCreateBatch(SimEvent ev) {
+		@SuppressWarnings("unchecked")
+		List<Vm> vmList = (List<Vm>) ev.getData();
+
+		boolean[] results = getVmAllocationPolicy().allocateHostsForVms(vmList);
 
-			if (vm.isBeingInstantiated()) {
-				vm.setBeingInstantiated(false);
+		Map<Integer, List<int[]>> dataByUser = new LinkedHashMap<Integer, List<int[]>>();
+		for (int i = 0; i < vmList.size(); i++) {
+			Vm vm = vmList.get(i);
+			List<int[]> data = dataByUser.get(vm.getUserId());
+			if (data == null) {
+				data = new ArrayList<int[]>();
+				dataByUser.put(vm.getUserId(), data);
 			}
+			data.add(new int[] { getId(), vm.getId(), results[i] ? CloudSimTags.TRUE : CloudSimTags.FALSE });
+		}
+		for (Map.Entry<Integer, List<int[]>> entry : dataByUser.entrySet()) {
+			int[][] data = entry.getValue().toArray(new int[entry.getValue().size()][]);
+			send(entry.getKey(), CloudSim.getMinTimeBetweenEvents(), CloudSimTags.VM_CREATE_BATCH_ACK, data);
+		}
 
-			vm.updateVmProcessing(CloudSim.clock(), getVmAllocationPolicy().getHost(vm).getVmScheduler()
-					.getAllocatedMipsForVm(vm));
+		for (int i = 0; i < vmList.size(); i++) {
+			if (results[i]) {
+				addCreatedVm(vmList.get(i));
+			}
 		}
+	}
 
+	/**
+	 * Adds a VM that was placed on a host to this Datacenter, and starts its processing.
+	 * 
+	 * @param vm the VM
+	 * @pre vm != null
+	 * @post $none
+	 */
+	protected void addCreatedVm(Vm vm) {
+		getVmList().add(vm);
+
+		if (vm.isBeingInstantiated()) {
+			vm.setBeingInstantiated(false);
+		}
+
+		vm.updateVmProcessingWithArray(CloudSim.clock(), getVmAllocationPolicy().getHost(vm).getVmScheduler()
+				.getAllocatedMipsArrayForVm(vm));
 	}
 
 	/**
@@ -514,7 +579,7 @@ public class Datacenter extends SimEntity {
 		}
 
 		@SuppressWarnings("unchecked")
-		Map<String, Object> migrate = (HashMap<String, Object>) tmp;
+		Map<String, Object> migrate = (Map<String, Object>) tmp;
 
 		Vm vm = (Vm) migrate.get("vm");
 		Host host = (Host) migrate.get("host");
@@ -895,12 +960,16 @@ public class Datacenter extends SimEntity {
 		// simulation step is skipped and schedulers are not properly initialized
 		if (CloudSim.clock() < 0.111 || CloudSim.clock() > getLastProcessTime() + CloudSim.getMinTimeBetweenEvents()) {
 			List<? extends Host> list = getVmAllocationPolicy().getHostList();
+			final double currentTime = CloudSim.clock();
+			// for each host, inform VMs to update processing
+			double[] times = processHosts(list, new HostFunction<Host>() {
+				@Override
+				public double apply(Host host) {
+					return host.updateVmsProcessing(currentTime);
+				}
+			});
 			double smallerTime = Double.MAX_VALUE;
-			// for each host...
-			for (int i = 0; i < list.size(); i++) {
-				Host host = list.get(i);
-				// inform VMs to update processing
-				double time = host.updateVmsProcessing(CloudSim.clock());
+			for (double time : times) {
 				// what time do we expect that the next cloudlet will finish?
 				if (time < smallerTime) {
 					smallerTime = time;
@@ -917,6 +986,122 @@ public class Datacenter extends SimEntity {
 		}
 	}
 
+	/**
+	 * Applies a function to each host, in parallel if a {@link #getHostUpdatePool() host update pool}
+	 * was set and the datacenter has enough hosts, or sequentially otherwise.
+	 * When the hosts are processed in parallel, each worker processes a contiguous range of
+	 * hosts and its {@link Log} messages are deferred, being printed afterwards in the order
+	 * of the hosts. Thus, the output is the same as the one of a sequential run.
+	 * 
+	 * @param <T> the type of the hosts
+	 * @param hosts the hosts to process
+	 * @param function the function to apply to each host
+	 * @return the results of the function, in the order of the hosts
+	 * @pre the function only changes the state of the host it is applied to
+	 * (including its VMs and their cloudlets)
+	 */
+	protected <T extends Host> double[] processHosts(List<T> hosts, HostFunction<? super T> function) {
+		double[] results = new double[hosts.size()];
+		ForkJoinPool pool = getHostUpdatePool();
+		if (pool == null || hosts.size() < MIN_HOSTS_FOR_PARALLEL_UPDATE) {
+			for (int i = 0; i < hosts.size(); i++) {
+				results[i] = function.apply(hosts.get(i));
+			}
+			return results;
+		}
+
+		String[] output = Log.isDisabled() ? null : new String[hosts.size()];
+		int grain = Math.max(1, hosts.size() / (pool.getParallelism() * 8));
+		pool.invoke(new ProcessHostsAction<T>(hosts, function, results, output, 0, hosts.size(), grain));
+		if (output != null) {
+			for (String text : output) {
+				if (text != null) {
+					Log.print(text);
+				}
+			}
+		}
+		return results;
+	}
+
+	/**
+	 * A computation applied to each host of the datacenter.
+	 * 
+	 * @param <T> the type of the hosts
+	 * @see Datacenter#processHosts(java.util.List, org.cloudbus.cloudsim.Datacenter.HostFunction)
+	 */
+	protected interface HostFunction<T extends Host> {
+
+		/**
+		 * Applies the function to a host.
+		 * 
+		 * @param host the host
+		 * @return the result for the host
+		 */
+		double apply(T host);
+	}
+
+	/**
+	 * The task that applies a {@link HostFunction} to a range of hosts, splitting the range
+	 * between several tasks while it has more hosts than the grain.
+	 * 
+	 * @param <T> the type of the hosts
+	 */
+	private static final class ProcessHostsAction<T extends Host> extends RecursiveAction {
+
+		private static final long serialVersionUID = 1L;
+
+		private final List<T> hosts;
+
+		private final HostFunction<? super T> function;
+
+		private final double[] results;
+
+		/** The deferred log output of each range, stored at the position of its first host,
+		 * or null if the log is disabled. */
+		private final String[] output;
+
+		private final int from;
+
+		private final int to;
+
+		private final int grain;
+
+		ProcessHostsAction(List<T> hosts, HostFunction<? super T> function, double[] results,
+				String[] output, int from, int to, int grain) {
+			this.hosts = hosts;
+			this.function = function;
+			this.results = results;
+			this.output = output;
+			this.from = from;
+			this.to = to;
+			this.grain = grain;
+		}
+
+		@Override
+		protected void compute() {
+			if (to - from > grain) {
+				int middle = (from + to) >>> 1;
+				invokeAll(
+						new ProcessHostsAction<T>(hosts, function, results, output, from, middle, grain),
+						new ProcessHostsAction<T>(hosts, function, results, output, middle, to, grain));
+				return;
+			}
+
+			if (output != null) {
+				Log.startDeferring();
+			}
+			try {
+				for (int i = from; i < to; i++) {
+					results[i] = function.apply(hosts.get(i));
+				}
+			} finally {
+				if (output != null) {
+					output[from] = Log.stopDeferring();
+				}
+			}
+		}
+	}
+
 	/**
 	 * Verifies if some cloudlet inside this Datacenter already finished. 
          * If yes, send it to the User/Broker
@@ -1198,4 +1383,25 @@ public class Datacenter extends SimEntity {
 		this.schedulingInterval = schedulingInterval;
 	}
 
+	/**
+	 * Gets the pool where the hosts are updated in parallel.
+	 * 
+	 * @return the host update pool, or null if the hosts are updated sequentially
+	 */
+	public ForkJoinPool getHostUpdatePool() {
+		return hostUpdatePool;
+	}
+
+	/**
+	 * Sets the pool where the hosts are updated in parallel at each processing step.
+	 * The hosts of a datacenter are independent during the update, but
+	 * objects shared between hosts, such as a utilization model used by cloudlets
+	 * of different hosts, have to be thread-safe when the update is parallel.
+	 * 
+	 * @param hostUpdatePool the host update pool, or null to update the hosts sequentially
+	 */
+	public void setHostUpdatePool(ForkJoinPool hostUpdatePool) {
+		this.hostUpdatePool = hostUpdatePool;
+	}
+
 }
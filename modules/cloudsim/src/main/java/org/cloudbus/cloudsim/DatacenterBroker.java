@@ -54,6 +54,10 @@ public class DatacenterBroker extends SimEntity {
 	/** The number of requests to create VM. */
 	protected int vmsRequested;
 
+	/** Whether the VMs are requested to a datacenter in a single {@link CloudSimTags#VM_CREATE_BATCH}
+         * event rather than in a {@link CloudSimTags#VM_CREATE_ACK} event per VM. It is false by default. */
+	protected boolean vmCreationBatched;
+
 	/** The number of acknowledges (ACKs) sent in response to
          * VM creation requests. */
 	protected int vmsAcks;
@@ -161,6 +165,10 @@ public class DatacenterBroker extends SimEntity {
 			case CloudSimTags.VM_CREATE_ACK:
 				processVmCreate(ev);
 				break;
+			// VM batch creation answer
+			case CloudSimTags.VM_CREATE_BATCH_ACK:
+				processVmCreateBatch(ev);
+				break;
 			// A finished cloudlet returned
 			case CloudSimTags.CLOUDLET_RETURN:
 				processCloudletReturn(ev);
@@ -221,10 +229,35 @@ public class DatacenterBroker extends SimEntity {
 	 */
 	protected void processVmCreate(SimEvent ev) {
 		int[] data = (int[]) ev.getData();
-		int datacenterId = data[0];
-		int vmId = data[1];
-		int result = data[2];
+		processVmCreateAck(data[0], data[1], data[2]);
+	}
 
+	/**
+	 * Process the ack received due to a request for the creation of a list of VMs,
+	 * which has the result of the creation of each VM.
+	 * 
+	 * @param ev a SimEvent object
+	 * @pre ev != null
+	 * @post $none
+	 */
+	protected void processVmCreateBatch(SimEvent ev) {
+		int[][] data = (int[][]) ev.getData();
+		for (int[] ack : data) {
+			processVmCreateAck(ack[0], ack[1], ack[2]);
+		}
+	}
+
+	/**
+	 * Process the result of the creation of a VM, whether it was acknowledged alone
+	 * or with the other VMs of a batch.
+	 * 
+	 * @param datacenterId the id of the datacenter that was requested to create the VM
+	 * @param vmId the id of the VM
+	 * @param result {@link CloudSimTags#TRUE} if the VM was created, {@link CloudSimTags#FALSE} otherwise
+	 * @pre $none
+	 * @post $none
+	 */
+	protected void processVmCreateAck(int datacenterId, int vmId, int result) {
 		if (result == CloudSimTags.TRUE) {
 			getVmsToDatacentersMap().put(vmId, datacenterId);
 			getVmsCreatedList().add(VmList.getById(getVmList(), vmId));
@@ -325,14 +358,22 @@ public class DatacenterBroker extends SimEntity {
 		// send as much vms as possible for this datacenter before trying the next one
 		int requestedVms = 0;
 		String datacenterName = CloudSim.getEntityName(datacenterId);
+		List<Vm> batch = new ArrayList<Vm>();
 		for (Vm vm : getVmList()) {
 			if (!getVmsToDatacentersMap().containsKey(vm.getId())) {
 				Log.printLine(CloudSim.clock() + ": " + getName() + ": Trying to Create VM #" + vm.getId()
 						+ " in " + datacenterName);
-				sendNow(datacenterId, CloudSimTags.VM_CREATE_ACK, vm);
+				if (isVmCreationBatched()) {
+					batch.add(vm);
+				} else {
+					sendNow(datacenterId, CloudSimTags.VM_CREATE_ACK, vm);
+				}
 				requestedVms++;
 			}
 		}
+		if (!batch.isEmpty()) {
+			sendNow(datacenterId, CloudSimTags.VM_CREATE_BATCH, batch);
+		}
 
 		getDatacenterRequestedIdsList().add(datacenterId);
 
@@ -542,6 +583,30 @@ public class DatacenterBroker extends SimEntity {
 		this.vmsRequested = vmsRequested;
 	}
 
+	/**
+	 * Checks if the VMs are requested to a datacenter in a single event, which lets
+	 * its {@link VmAllocationPolicy} place them together.
+	 * 
+	 * @return true if the VM creation is batched, false if each VM is requested in its own event
+	 */
+	public boolean isVmCreationBatched() {
+		return vmCreationBatched;
+	}
+
+	/**
+	 * Sets whether the VMs are requested to a datacenter in a single event. Batching is off by
+	 * default, as it requires datacenters that handle {@link CloudSimTags#VM_CREATE_BATCH}, as
+	 * {@link Datacenter} does: the broker waits forever for the acknowledgement of a datacenter
+	 * that ignores the event. Also, the batch is handled by
+	 * {@link Datacenter#processVmCreateBatch(SimEvent)}, so subclasses that override
+	 * {@link Datacenter#processVmCreate(SimEvent, boolean)} do not see the VMs of a batch.
+	 * 
+	 * @param vmCreationBatched true to batch the VM creation, false to request each VM in its own event
+	 */
+	public void setVmCreationBatched(boolean vmCreationBatched) {
+		this.vmCreationBatched = vmCreationBatched;
+	}
+
 	/**
 	 * Gets the vms acks.
 	 * 
@@ -8,6 +8,7 @@
 
 package org.cloudbus.cloudsim;
 
+import java.util.BitSet;
 import java.util.List;
 
 import org.cloudbus.cloudsim.core.CloudSim;
@@ -43,6 +44,29 @@ public class DatacenterCharacteristics {
 	/** The hosts owned by the datacenter. */
 	private List<? extends Host> hostList;
 
+	/** The number of hosts of the {@link #hostList} whose aggregates are kept
+	 * by the fields below. When the list changes its size, or a host is replaced or has PEs
+	 * added or removed, the aggregates are rebuilt. */
+	private int registeredHosts = -1;
+
+	/** The hosts having at least one {@link Pe#FREE} PE, by their position in the {@link #hostList}. */
+	private final BitSet hostsWithFreePe = new BitSet();
+
+	/** The total number of PEs of the hosts. */
+	private int numberOfPes;
+
+	/** The total number of {@link Pe#FREE} PEs of the hosts. */
+	private int numberOfFreePes;
+
+	/** The total number of {@link Pe#BUSY} PEs of the hosts. */
+	private int numberOfBusyPes;
+
+	/** The number of failed hosts. */
+	private int numberOfFailedHosts;
+
+	/** The total MIPS of the hosts. */
+	private int totalMips;
+
 	/** The time zone, defined as the difference from GMT. */
 	private double timeZone;
 
@@ -160,7 +184,12 @@ public class DatacenterCharacteristics {
 	 * @post $none
 	 */
 	public Host getHostWithFreePe() {
-		return HostList.getHostWithFreePe(getHostList());
+		checkHostAggregates();
+		int index = hostsWithFreePe.nextSetBit(0);
+		if (index < 0) {
+			return null;
+		}
+		return getHostList().get(index);
 	}
 
 	/**
@@ -267,16 +296,15 @@ public class DatacenterCharacteristics {
                             of a Datacenter*/
 			case DatacenterCharacteristics.TIME_SHARED:
 			case DatacenterCharacteristics.OTHER_POLICY_SAME_RATING:
-				mips = getMipsOfOnePe() * HostList.getNumberOfPes(getHostList());
+				mips = getMipsOfOnePe() * getNumberOfPes();
 			break;
 
 			// Assuming all PEs in a given PM have the same rating.
 			// But different PMs in a Cluster can have different rating
 			case DatacenterCharacteristics.SPACE_SHARED:
 			case DatacenterCharacteristics.OTHER_POLICY_DIFFERENT_RATING:
-				for (Host host : getHostList()) {
-					mips += host.getTotalMips();
-				}
+				checkHostAggregates();
+				mips = totalMips;
 			break;
 
 			default:
@@ -341,7 +369,8 @@ public class DatacenterCharacteristics {
 	 * @post $result >= 0
 	 */
 	public int getNumberOfPes() {
-		return HostList.getNumberOfPes(getHostList());
+		checkHostAggregates();
+		return numberOfPes;
 	}
 
 	/**
@@ -352,7 +381,8 @@ public class DatacenterCharacteristics {
 	 * @post $result >= 0
 	 */
 	public int getNumberOfFreePes() {
-		return HostList.getNumberOfFreePes(getHostList());
+		checkHostAggregates();
+		return numberOfFreePes;
 	}
 
 	/**
@@ -363,7 +393,8 @@ public class DatacenterCharacteristics {
 	 * @post $result >= 0
 	 */
 	public int getNumberOfBusyPes() {
-		return HostList.getNumberOfBusyPes(getHostList());
+		checkHostAggregates();
+		return numberOfBusyPes;
 	}
 
 	/**
@@ -410,13 +441,103 @@ public class DatacenterCharacteristics {
 	 * @return current number of failed PMs the Datacenter has.
 	 */
 	public int getNumberOfFailedHosts() {
-		int numberOfFailedHosts = 0;
-		for (Host host : getHostList()) {
+		checkHostAggregates();
+		return numberOfFailedHosts;
+	}
+
+	/**
+	 * Rebuilds the aggregates of the hosts if hosts were added to, removed from or replaced in
+	 * the host list since they were computed, or if PEs were added to or removed from a host.
+	 * The changes of the status and MIPS of the PEs are notified by the hosts instead.
+	 */
+	private void checkHostAggregates() {
+		List<? extends Host> hosts = getHostList();
+		if (hosts == null || hosts.size() != registeredHosts) {
+			updateHostAggregates();
+			return;
+		}
+		for (int i = 0; i < hosts.size(); i++) {
+			Host host = hosts.get(i);
+			if (!host.isRegisteredIn(this, i)) {
+				updateHostAggregates();
+				return;
+			}
+			// a host whose PE list changed rebuilds the aggregates itself
+			host.checkPeList();
+		}
+	}
+
+	/**
+	 * Computes the aggregates of all the hosts, registering this object in each host
+	 * so that the hosts keep the aggregates up to date afterwards.
+	 */
+	void updateHostAggregates() {
+		hostsWithFreePe.clear();
+		numberOfPes = 0;
+		numberOfFreePes = 0;
+		numberOfBusyPes = 0;
+		numberOfFailedHosts = 0;
+		totalMips = 0;
+		List<? extends Host> hosts = getHostList();
+		if (hosts == null) {
+			registeredHosts = -1;
+			return;
+		}
+		registeredHosts = hosts.size();
+		for (int i = 0; i < hosts.size(); i++) {
+			Host host = hosts.get(i);
+			host.setCharacteristics(this, i);
+			numberOfPes += host.getNumberOfPes();
+			numberOfFreePes += host.getNumberOfFreePes();
+			numberOfBusyPes += host.getNumberOfBusyPes();
+			totalMips += host.getTotalMips();
+			if (host.getNumberOfFreePes() > 0) {
+				hostsWithFreePe.set(i);
+			}
 			if (host.isFailed()) {
 				numberOfFailedHosts++;
 			}
 		}
-		return numberOfFailedHosts;
+	}
+
+	/**
+	 * Updates the aggregates when the status of a PE of a host changes.
+	 * 
+	 * @param hostIndex the position of the host in the host list
+	 * @param previousStatus the previous status of the PE
+	 * @param status the new status of the PE
+	 * @param hostFreePes the number of free PEs the host has now
+	 */
+	void updatePeStatus(int hostIndex, int previousStatus, int status, int hostFreePes) {
+		if (previousStatus == Pe.FREE) {
+			numberOfFreePes--;
+		} else if (previousStatus == Pe.BUSY) {
+			numberOfBusyPes--;
+		}
+		if (status == Pe.FREE) {
+			numberOfFreePes++;
+		} else if (status == Pe.BUSY) {
+			numberOfBusyPes++;
+		}
+		hostsWithFreePe.set(hostIndex, hostFreePes > 0);
+	}
+
+	/**
+	 * Updates the total MIPS when the MIPS of a PE of a host changes.
+	 * 
+	 * @param delta the change of the total MIPS
+	 */
+	void updateTotalMips(int delta) {
+		totalMips += delta;
+	}
+
+	/**
+	 * Updates the number of failed hosts when a host fails or recovers.
+	 * 
+	 * @param delta the change of the number of failed hosts
+	 */
+	void updateFailedHosts(int delta) {
+		numberOfFailedHosts += delta;
 	}
 
 	/**
@@ -576,6 +697,7 @@ public class DatacenterCharacteristics {
 	 */
 	protected <T extends Host> void setHostList(List<T> hostList) {
 		this.hostList = hostList;
+		updateHostAggregates();
 	}
 
 	/**
@@ -7,7 +7,10 @@
 
 package org.cloudbus.cloudsim;
 
+import java.lang.ref.WeakReference;
 import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Iterator;
 import java.util.List;
 
 import org.cloudbus.cloudsim.core.CloudSim;
@@ -55,9 +58,34 @@ public class Host {
 	/** The VMs migrating in. */
 	private final List<Vm> vmsMigratingIn = new ArrayList<Vm>();
 
+	/** The PEs with the {@link Pe#FREE} status, by their position in the {@link #peList}. */
+	private final BitSet freePes = new BitSet();
+
+	/** The number of PEs with the {@link Pe#FREE} status. */
+	private int numberOfFreePes;
+
+	/** The number of PEs with the {@link Pe#BUSY} status. */
+	private int numberOfBusyPes;
+
+	/** The total MIPS of the PEs. */
+	private int totalMips;
+
+	/** The number of PEs of the {@link #peList} whose status and MIPS are kept by the fields
+	 * above. When the list changes its size, the PEs are registered again. */
+	private int registeredPes;
+
+	/** The characteristics of the datacenter that keep the aggregates of this host, or null. */
+	private DatacenterCharacteristics characteristics;
+
+	/** The position of the host in the host list of the {@link #characteristics}. */
+	private int characteristicsIndex;
+
 	/** The datacenter where the host is placed. */
 	private Datacenter datacenter;
 
+	/** The capacity indexes that keep this host, held weakly so that unused indexes can be collected. */
+	private final List<WeakReference<HostCapacityIndex>> capacityIndexes = new ArrayList<WeakReference<HostCapacityIndex>>(1);
+
 	/**
 	 * Instantiates a new host.
 	 * 
@@ -104,8 +132,8 @@ public class Host {
 		double smallerTime = Double.MAX_VALUE;
 
 		for (Vm vm : getVmList()) {
-			double time = vm.updateVmProcessing(
-                                currentTime, getVmScheduler().getAllocatedMipsForVm(vm));
+			double time = vm.updateVmProcessingWithArray(
+                                currentTime, getVmScheduler().getAllocatedMipsArrayForVm(vm));
 			if (time > 0.0 && time < smallerTime) {
 				smallerTime = time;
 			}
@@ -141,8 +169,8 @@ public class Host {
 				System.exit(0);
 			}
 
-			getVmScheduler().getVmsMigratingIn().add(vm.getUid());
-			if (!getVmScheduler().allocatePesForVm(vm, vm.getCurrentRequestedMips())) {
+			getVmScheduler().getVmKeysMigratingIn().add(vm.getKey());
+			if (!getVmScheduler().allocatePesForVmWithArray(vm, vm.getCurrentRequestedMipsArray())) {
 				Log.printLine("[VmScheduler.addMigratingInVm] Allocation of VM #" + vm.getId() + " to Host #"
 						+ getId() + " failed by MIPS");
 				System.exit(0);
@@ -166,7 +194,7 @@ public class Host {
 		vmDeallocate(vm);
 		getVmsMigratingIn().remove(vm);
 		getVmList().remove(vm);
-		getVmScheduler().getVmsMigratingIn().remove(vm.getUid());
+		getVmScheduler().getVmKeysMigratingIn().remove(vm.getKey());
 		vm.setInMigration(false);
 	}
 
@@ -179,12 +207,10 @@ public class Host {
 			if (!getVmList().contains(vm)) {
 				getVmList().add(vm);
 			}
-			if (!getVmScheduler().getVmsMigratingIn().contains(vm.getUid())) {
-				getVmScheduler().getVmsMigratingIn().add(vm.getUid());
-			}
+			getVmScheduler().getVmKeysMigratingIn().add(vm.getKey());
 			getRamProvisioner().allocateRamForVm(vm, vm.getCurrentRequestedRam());
 			getBwProvisioner().allocateBwForVm(vm, vm.getCurrentRequestedBw());
-			getVmScheduler().allocatePesForVm(vm, vm.getCurrentRequestedMips());
+			getVmScheduler().allocatePesForVmWithArray(vm, vm.getCurrentRequestedMipsArray());
 			setStorage(getStorage() - vm.getSize());
 		}
 	}
@@ -231,7 +257,7 @@ public class Host {
 			return false;
 		}
 
-		if (!getVmScheduler().allocatePesForVm(vm, vm.getCurrentRequestedMips())) {
+		if (!getVmScheduler().allocatePesForVmWithArray(vm, vm.getCurrentRequestedMipsArray())) {
 			Log.printConcatLine("[VmScheduler.vmCreate] Allocation of VM #", vm.getId(), " to Host #", getId(),
 					" failed by MIPS");
 			getRamProvisioner().deallocateRamForVm(vm);
@@ -294,6 +320,7 @@ public class Host {
 		getRamProvisioner().deallocateRamForAllVms();
 		getBwProvisioner().deallocateBwForAllVms();
 		getVmScheduler().deallocatePesForAllVms();
+		notifyCapacityIndexes();
 	}
 
 	/**
@@ -324,12 +351,39 @@ public class Host {
 	}
 
 	/**
-	 * Gets the free pes number.
+	 * Gets the free pes number. The number is kept up to date as the status
+	 * of the PEs changes, thus the PEs are not traversed.
 	 * 
 	 * @return the free pes number
 	 */
 	public int getNumberOfFreePes() {
-		return PeList.getNumberOfFreePes(getPeList());
+		checkPeList();
+		return numberOfFreePes;
+	}
+
+	/**
+	 * Gets the busy pes number.
+	 * 
+	 * @return the busy pes number
+	 */
+	public int getNumberOfBusyPes() {
+		checkPeList();
+		return numberOfBusyPes;
+	}
+
+	/**
+	 * Gets the first PE with the {@link Pe#FREE} status.
+	 * 
+	 * @param <T> the generic type
+	 * @return the first free PE, or null if there is no free PE
+	 */
+	public <T extends Pe> T getFreePe() {
+		checkPeList();
+		int index = freePes.nextSetBit(0);
+		if (index < 0) {
+			return null;
+		}
+		return this.<T> getPeList().get(index);
 	}
 
 	/**
@@ -338,7 +392,114 @@ public class Host {
 	 * @return the total mips
 	 */
 	public int getTotalMips() {
-		return PeList.getTotalMips(getPeList());
+		checkPeList();
+		return totalMips;
+	}
+
+	/**
+	 * Registers the PEs again if PEs were added to or removed from the PE list
+	 * since they were registered.
+	 * 
+	 * @return true, if the PEs were registered again
+	 */
+	boolean checkPeList() {
+		if (peList == null || peList.size() == registeredPes) {
+			return false;
+		}
+		registerPes();
+		if (characteristics != null) {
+			characteristics.updateHostAggregates();
+		}
+		notifyCapacityIndexes();
+		return true;
+	}
+
+	/**
+	 * Checks if the aggregates of this host are kept by some datacenter characteristics,
+	 * at a given position of their host list.
+	 * 
+	 * @param characteristics the characteristics
+	 * @param characteristicsIndex the position of the host in their host list
+	 * @return true, if the host is registered there
+	 */
+	boolean isRegisteredIn(DatacenterCharacteristics characteristics, int characteristicsIndex) {
+		return this.characteristics == characteristics && this.characteristicsIndex == characteristicsIndex;
+	}
+
+	/**
+	 * Updates the PE counters of the host when the status of one of its PEs changes.
+	 * 
+	 * @param peIndex the position of the PE in the {@link #peList}
+	 * @param previousStatus the previous status of the PE
+	 * @param status the new status of the PE
+	 */
+	void updatePeStatus(int peIndex, int previousStatus, int status) {
+		if (previousStatus == Pe.FREE) {
+			freePes.clear(peIndex);
+			numberOfFreePes--;
+		} else if (previousStatus == Pe.BUSY) {
+			numberOfBusyPes--;
+		}
+		if (status == Pe.FREE) {
+			freePes.set(peIndex);
+			numberOfFreePes++;
+		} else if (status == Pe.BUSY) {
+			numberOfBusyPes++;
+		}
+		if (characteristics != null) {
+			characteristics.updatePeStatus(characteristicsIndex, previousStatus, status, numberOfFreePes);
+		}
+	}
+
+	/**
+	 * Updates the total MIPS of the host when the MIPS of one of its PEs changes.
+	 */
+	void updatePeMips() {
+		int previousTotalMips = totalMips;
+		totalMips = PeList.getTotalMips(getPeList());
+		if (characteristics != null) {
+			characteristics.updateTotalMips(totalMips - previousTotalMips);
+		}
+		notifyCapacityIndexes();
+	}
+
+	/**
+	 * Sets the datacenter characteristics that keep the aggregates of this host.
+	 * 
+	 * @param characteristics the characteristics, or null
+	 * @param characteristicsIndex the position of the host in the host list of the characteristics
+	 */
+	void setCharacteristics(DatacenterCharacteristics characteristics, int characteristicsIndex) {
+		this.characteristics = characteristics;
+		this.characteristicsIndex = characteristicsIndex;
+	}
+
+	/**
+	 * Adds a capacity index that keeps this host, to be told when the available resources
+	 * of the host change.
+	 * 
+	 * @param index the capacity index
+	 */
+	void addCapacityIndex(HostCapacityIndex index) {
+		capacityIndexes.add(new WeakReference<HostCapacityIndex>(index));
+	}
+
+	/**
+	 * Tells the capacity indexes that keep this host that its available resources may have changed,
+	 * so that they read the host again before their next search. The host calls it when it allocates
+	 * or deallocates resources for VMs, when its storage changes and when its PEs change; subclasses
+	 * that change the allocations by other means must call it too.
+	 */
+	protected void notifyCapacityIndexes() {
+		Iterator<WeakReference<HostCapacityIndex>> iterator = capacityIndexes.iterator();
+		while (iterator.hasNext()) {
+			HostCapacityIndex index = iterator.next().get();
+			if (index == null) {
+				iterator.remove();
+			} else {
+				index.markChanged(this);
+			}
+		}
 	}
 
 	/**
@@ -351,7 +512,9 @@ public class Host {
 	 * @post $none
 	 */
 	public boolean allocatePesForVm(Vm vm, List<Double> mipsShare) {
-		return getVmScheduler().allocatePesForVm(vm, mipsShare);
+		boolean result = getVmScheduler().allocatePesForVm(vm, mipsShare);
+		notifyCapacityIndexes();
+		return result;
 	}
 
 	/**
@@ -363,6 +526,7 @@ public class Host {
 	 */
 	public void deallocatePesForVm(Vm vm) {
 		getVmScheduler().deallocatePesForVm(vm);
+		notifyCapacityIndexes();
 	}
 
 	/**
@@ -522,13 +686,49 @@ public class Host {
 	}
 
 	/**
-	 * Sets the pe list.
+	 * Sets the pe list. The host starts keeping track of the status of the PEs.
 	 * 
 	 * @param <T> the generic type
 	 * @param peList the new pe list
+	 * @pre each PE belongs to a single host
 	 */
 	protected <T extends Pe> void setPeList(List<T> peList) {
+		if (this.peList != null) {
+			for (Pe pe : this.peList) {
+				pe.setHost(null, 0);
+			}
+		}
 		this.peList = peList;
+		registerPes();
+		if (characteristics != null) {
+			characteristics.updateHostAggregates();
+		}
+		notifyCapacityIndexes();
+	}
+
+	/**
+	 * Registers the host in each PE of the PE list and counts the PEs by status.
+	 */
+	private void registerPes() {
+		freePes.clear();
+		numberOfFreePes = 0;
+		numberOfBusyPes = 0;
+		totalMips = 0;
+		registeredPes = 0;
+		if (peList != null) {
+			for (int i = 0; i < peList.size(); i++) {
+				Pe pe = peList.get(i);
+				pe.setHost(this, i);
+				if (pe.getStatus() == Pe.FREE) {
+					freePes.set(i);
+					numberOfFreePes++;
+				} else if (pe.getStatus() == Pe.BUSY) {
+					numberOfBusyPes++;
+				}
+			}
+			totalMips = PeList.getTotalMips(peList);
+			registeredPes = peList.size();
+		}
 	}
 
 	/**
@@ -549,6 +749,7 @@ public class Host {
 	 */
 	protected void setStorage(long storage) {
 		this.storage = storage;
+		notifyCapacityIndexes();
 	}
 
 	/**
@@ -571,7 +772,7 @@ public class Host {
 	 */
 	public boolean setFailed(String resName, boolean failed) {
 		// all the PEs are failed (or recovered, depending on fail)
-		this.failed = failed;
+		updateFailed(failed);
 		PeList.setStatusFailed(getPeList(), resName, getId(), failed);
 		return true;
 	}
@@ -584,11 +785,24 @@ public class Host {
 	 */
 	public boolean setFailed(boolean failed) {
 		// all the PEs are failed (or recovered, depending on fail)
-		this.failed = failed;
+		updateFailed(failed);
 		PeList.setStatusFailed(getPeList(), failed);
 		return true;
 	}
 
+	/**
+	 * Sets the failed attribute, updating the number of failed hosts of the datacenter.
+	 * 
+	 * @param failed the failed
+	 */
+	private void updateFailed(boolean failed) {
+		boolean previouslyFailed = this.failed;
+		this.failed = failed;
+		if (characteristics != null && previouslyFailed != failed) {
+			characteristics.updateFailedHosts(failed ? 1 : -1);
+		}
+	}
+
 	/**
 	 * Sets the particular Pe status on the host.
 	 * 
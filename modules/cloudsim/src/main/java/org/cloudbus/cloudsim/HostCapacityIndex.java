@@ -0,0 +1,590 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * An index of the residual capacities of a list of hosts, to find the host that can place
+ * a VM and has the best score for it without checking every host.
+ *
+ * The residual capacity of a host is a vector of its available MIPS, RAM, bandwidth and storage,
+ * and of the MIPS of its PEs, each one divided by the greatest capacity of the hosts in that
+ * dimension, so that the dimensions are comparable, and of the sum of the first four of them. The index is a balanced tree whose leaves are
+ * the hosts, where each node keeps the component-wise minimum and maximum of the residual capacities
+ * of its hosts, and the greatest of the smaller residual capacity of each host in each pair of the
+ * MIPS, RAM, bandwidth and storage, which tells when the hosts left with one resource are not
+ * those left with another. A search skips the nodes that cannot place the VM and those whose
+ * {@link Objective#getLowerBound(double[], double[], int, double[]) score bound} cannot improve
+ * the best host found, thus it usually visits a logarithmic number of nodes. The host it finds is the
+ * one a scan of the host list would find: the suitable host with the lowest score, the first one on ties.
+ *
+ * The leaves are either in the order of the host list, which suits searches for the first host, or
+ * clustered as a k-d tree, each node splitting its hosts at the median of the dimension where they
+ * differ the most, so that the boxes of the nodes are tight and bound the scores well. As the hosts
+ * change, their leaves stay where they are and the boxes grow: the clusters are rebuilt, in
+ * O(n log n) time, once as many hosts were updated as there are hosts.
+ *
+ * The residual capacities are read from the hosts when they are {@link #update(int) updated}.
+ * The hosts also tell the index when their available resources change, and {@link #updateChanged()}
+ * reads only those hosts again, so that an index kept current costs logarithmic time per changed host
+ * rather than linear time per search. {@link #updateAll()} reads all the hosts again, for changes
+ * the hosts cannot see, such as those made to their provisioners directly.
+ * An index must not be used by several threads at the same time.
+ *
+ * @since CloudSim Toolkit 4.0
+ */
+public class HostCapacityIndex {
+
+	/** The dimension of the available MIPS. */
+	public static final int MIPS = 0;
+
+	/** The dimension of the available RAM. */
+	public static final int RAM = 1;
+
+	/** The dimension of the available bandwidth. */
+	public static final int BW = 2;
+
+	/** The dimension of the available storage. */
+	public static final int STORAGE = 3;
+
+	/** The dimension of the MIPS of a PE, which a VM needs for each of its PEs. */
+	public static final int PE_MIPS = 4;
+
+	/** The dimension of the sum of the available MIPS, RAM, bandwidth and storage. */
+	public static final int SUM = 5;
+
+	/** The number of dimensions. */
+	public static final int DIMENSIONS = 6;
+
+	/** The pairs of dimensions whose smaller residual capacity is kept by the nodes. */
+	private static final int[][] PAIRS = { { MIPS, RAM }, { MIPS, BW }, { MIPS, STORAGE }, { RAM, BW },
+			{ RAM, STORAGE }, { BW, STORAGE } };
+
+	/** The hosts. */
+	private final List<? extends Host> hostList;
+
+	/** Whether the leaves are clustered as a k-d tree rather than in the order of the host list. */
+	private final boolean clustered;
+
+	/** The number of leaves of the tree, the smallest power of two not below the number of hosts. */
+	private final int leaves;
+
+	/** The residual capacities of each host, as of its last update. */
+	private final double[] residuals;
+
+	/** The index of the host of each leaf, -1 if none. */
+	private final int[] leafHosts;
+
+	/** The leaf of each host. */
+	private final int[] hostLeaves;
+
+	/** The index of each host in the host list. */
+	private final Map<Host, Integer> hostIndexes = new HashMap<Host, Integer>();
+
+	/** The indexes of the hosts that told the index their available resources changed. */
+	private final BitSet changedHosts = new BitSet();
+
+	/** The component-wise minimum of the residual capacities of the hosts of each node. */
+	private final double[] min;
+
+	/** The component-wise maximum of the residual capacities of the hosts of each node. */
+	private final double[] max;
+
+	/** The greatest of the smaller residual capacity of each host of each node, in each of the {@link #PAIRS}. */
+	private final double[] pairMax;
+
+	/** The lowest index of the hosts of each node, {@link Integer#MAX_VALUE} if none. */
+	private final int[] minIndex;
+
+	/** The factor of each dimension, the inverse of the greatest capacity of the hosts in that dimension. */
+	private final double[] scale = new double[SUM];
+
+	/** The number of host updates since the leaves were clustered. */
+	private int updatesSinceClustering;
+
+	/** The best score found by the current search. */
+	private double bestScore;
+
+	/** The index of the best host found by the current search, -1 if none. */
+	private int bestIndex;
+
+	/**
+	 * Creates the index of a list of hosts, with the leaves in the order of the host list.
+	 *
+	 * @param hostList the hosts, which must not change, each host appearing once
+	 */
+	public HostCapacityIndex(List<? extends Host> hostList) {
+		this(hostList, false);
+	}
+
+	/**
+	 * Creates the index of a list of hosts.
+	 *
+	 * @param hostList the hosts, which must not change, each host appearing once
+	 * @param clustered whether the leaves are clustered by residual capacity, which bounds the scores
+	 *            better, rather than in the order of the host list, which finds the first hosts faster
+	 */
+	public HostCapacityIndex(List<? extends Host> hostList, boolean clustered) {
+		this.hostList = hostList;
+		this.clustered = clustered;
+		int size = hostList.size();
+		int leaves = 1;
+		while (leaves < size) {
+			leaves *= 2;
+		}
+		this.leaves = leaves;
+		residuals = new double[size * DIMENSIONS];
+		leafHosts = new int[leaves];
+		hostLeaves = new int[size];
+		min = new double[2 * leaves * DIMENSIONS];
+		max = new double[2 * leaves * DIMENSIONS];
+		pairMax = new double[2 * leaves * PAIRS.length];
+		minIndex = new int[2 * leaves];
+
+		double[] capacity = new double[DIMENSIONS];
+		for (Host host : hostList) {
+			capacity[MIPS] = Math.max(capacity[MIPS], host.getTotalMips());
+			capacity[RAM] = Math.max(capacity[RAM], host.getRamProvisioner().getRam());
+			capacity[BW] = Math.max(capacity[BW], host.getBwProvisioner().getBw());
+			capacity[STORAGE] = Math.max(capacity[STORAGE], host.getStorage());
+			capacity[PE_MIPS] = Math.max(capacity[PE_MIPS], host.getVmScheduler().getPeCapacity());
+		}
+		for (int k = 0; k < SUM; k++) {
+			scale[k] = capacity[k] > 0 ? 1 / capacity[k] : 1;
+		}
+		for (int i = 0; i < leaves; i++) {
+			leafHosts[i] = i < size ? i : -1;
+		}
+		for (int i = 0; i < size; i++) {
+			Host host = hostList.get(i);
+			if (!hostIndexes.containsKey(host)) {
+				hostIndexes.put(host, i);
+				host.addCapacityIndex(this);
+			}
+		}
+		updateAll();
+	}
+
+	/**
+	 * Reads the residual capacities of all the hosts again, in linear time,
+	 * or in O(n log n) time when the leaves are clustered again.
+	 */
+	public void updateAll() {
+		changedHosts.clear();
+		for (int i = 0; i < hostList.size(); i++) {
+			readHost(i);
+		}
+		updatesSinceClustering += hostList.size();
+		build();
+	}
+
+	/**
+	 * Reads the residual capacities of the hosts that told the index they changed since they were
+	 * last read, and updates those whose residual capacity did change, each in logarithmic time.
+	 * The other hosts are not read.
+	 *
+	 * @return the number of hosts whose residual capacity changed
+	 */
+	public int updateChanged() {
+		int changed = 0;
+		for (int i = changedHosts.nextSetBit(0); i >= 0; i = changedHosts.nextSetBit(i + 1)) {
+			if (readHost(i)) {
+				updatesSinceClustering++;
+				updateLeaf(i, true);
+				changed++;
+			}
+		}
+		changedHosts.clear();
+		return changed;
+	}
+
+	/**
+	 * Records that the available resources of a host may have changed, to be read again by
+	 * the next {@link #updateChanged()}.
+	 *
+	 * @param host the host
+	 */
+	void markChanged(Host host) {
+		Integer index = hostIndexes.get(host);
+		if (index != null) {
+			changedHosts.set(index);
+		}
+	}
+
+	/**
+	 * Reads the residual capacity of a host again, after VMs were created on or destroyed from it.
+	 *
+	 * @param index the index of the host in the host list
+	 */
+	public void update(int index) {
+		changedHosts.clear(index);
+		readHost(index);
+		updatesSinceClustering++;
+		updateLeaf(index, true);
+	}
+
+	/**
+	 * Removes a host from the searches until it is {@link #update(int) updated} again.
+	 *
+	 * @param index the index of the host in the host list
+	 */
+	public void disable(int index) {
+		updateLeaf(index, false);
+	}
+
+	/**
+	 * Gets the demand of a VM, in the dimensions of the residual capacities.
+	 *
+	 * @param vm the VM
+	 * @return the demand of the VM
+	 */
+	public double[] getDemand(Vm vm) {
+		double[] demand = new double[DIMENSIONS];
+		demand[MIPS] = vm.getCurrentRequestedTotalMips() * scale[MIPS];
+		demand[RAM] = vm.getCurrentRequestedRam() * scale[RAM];
+		demand[BW] = vm.getCurrentRequestedBw() * scale[BW];
+		demand[STORAGE] = vm.getSize() * scale[STORAGE];
+		demand[PE_MIPS] = vm.getCurrentRequestedMaxMips() * scale[PE_MIPS];
+		demand[SUM] = demand[MIPS] + demand[RAM] + demand[BW] + demand[STORAGE];
+		return demand;
+	}
+
+	/**
+	 * Gets the residual capacity of a host in a dimension, as of its last update.
+	 *
+	 * @param index the index of the host in the host list
+	 * @param dimension the dimension
+	 * @return the residual capacity, divided by the greatest capacity of the hosts in the dimension
+	 */
+	public double getResidual(int index, int dimension) {
+		return residuals[index * DIMENSIONS + dimension];
+	}
+
+	/**
+	 * Finds the host with the lowest score among those that can place a VM.
+	 *
+	 * @param vm the VM
+	 * @param objective the score of the hosts
+	 * @return the index of the host in the host list, or -1 if no host can place the VM
+	 */
+	public int find(Vm vm, Objective objective) {
+		if (clustered && updatesSinceClustering >= hostList.size()) {
+			build();
+		}
+		double[] demand = getDemand(vm);
+		bestScore = Double.POSITIVE_INFINITY;
+		bestIndex = -1;
+		if (hostList.size() > 0) {
+			search(1, vm, demand, objective);
+		}
+		return bestIndex;
+	}
+
+	/**
+	 * Searches the hosts of a node, the most promising child first.
+	 *
+	 * @param node the node
+	 * @param vm the VM
+	 * @param demand the demand of the VM
+	 * @param objective the score of the hosts
+	 */
+	private void search(int node, Vm vm, double[] demand, Objective objective) {
+		if (node >= leaves) {
+			int index = leafHosts[node - leaves];
+			Host host = hostList.get(index);
+			if (host.isSuitableForVm(vm) && host.getStorage() >= vm.getSize()) {
+				double score = objective.getScore(residuals, index * DIMENSIONS, demand);
+				if (score < bestScore || score == bestScore && index < bestIndex) {
+					bestScore = score;
+					bestIndex = index;
+				}
+			}
+			return;
+		}
+		int left = 2 * node;
+		int right = left + 1;
+		double leftBound = getBound(left, demand, objective);
+		double rightBound = getBound(right, demand, objective);
+		if (rightBound < leftBound || rightBound == leftBound && minIndex[right] < minIndex[left]) {
+			searchIfPromising(right, rightBound, vm, demand, objective);
+			searchIfPromising(left, leftBound, vm, demand, objective);
+		} else {
+			searchIfPromising(left, leftBound, vm, demand, objective);
+			searchIfPromising(right, rightBound, vm, demand, objective);
+		}
+	}
+
+	/**
+	 * Searches the hosts of a node if one of them may be better than the best host found.
+	 *
+	 * @param node the node
+	 * @param bound the lower bound of the scores of the hosts of the node, infinite if none can place the VM
+	 * @param vm the VM
+	 * @param demand the demand of the VM
+	 * @param objective the score of the hosts
+	 */
+	private void searchIfPromising(int node, double bound, Vm vm, double[] demand, Objective objective) {
+		if (bound == Double.POSITIVE_INFINITY || bound > bestScore
+				|| bound == bestScore && minIndex[node] > bestIndex) {
+			return;
+		}
+		search(node, vm, demand, objective);
+	}
+
+	/**
+	 * Gets the lower bound of the scores of the hosts of a node.
+	 *
+	 * @param node the node
+	 * @param demand the demand of the VM
+	 * @param objective the score of the hosts
+	 * @return the lower bound, infinite if no host of the node can place the VM
+	 */
+	private double getBound(int node, double[] demand, Objective objective) {
+		int offset = node * DIMENSIONS;
+		for (int k = 0; k < DIMENSIONS; k++) {
+			if (max[offset + k] < demand[k]) {
+				return Double.POSITIVE_INFINITY;
+			}
+		}
+		int pairOffset = node * PAIRS.length;
+		for (int p = 0; p < PAIRS.length; p++) {
+			if (pairMax[pairOffset + p] < Math.min(demand[PAIRS[p][0]], demand[PAIRS[p][1]])) {
+				return Double.POSITIVE_INFINITY;
+			}
+		}
+		return objective.getLowerBound(min, max, offset, demand);
+	}
+
+	/**
+	 * Reads the residual capacity of a host.
+	 *
+	 * @param index the index of the host in the host list
+	 * @return true if the residual capacity changed since it was last read
+	 */
+	private boolean readHost(int index) {
+		Host host = hostList.get(index);
+		int offset = index * DIMENSIONS;
+		boolean changed = setResidual(offset + MIPS, host.getVmScheduler().getAvailableMips() * scale[MIPS]);
+		changed |= setResidual(offset + RAM, host.getRamProvisioner().getAvailableRam() * scale[RAM]);
+		changed |= setResidual(offset + BW, host.getBwProvisioner().getAvailableBw() * scale[BW]);
+		changed |= setResidual(offset + STORAGE, host.getStorage() * scale[STORAGE]);
+		changed |= setResidual(offset + PE_MIPS, host.getVmScheduler().getPeCapacity() * scale[PE_MIPS]);
+		residuals[offset + SUM] = residuals[offset + MIPS] + residuals[offset + RAM] + residuals[offset + BW]
+				+ residuals[offset + STORAGE];
+		return changed;
+	}
+
+	/**
+	 * Sets a residual capacity of a host.
+	 *
+	 * @param position the position of the residual capacity in {@link #residuals}
+	 * @param residual the residual capacity
+	 * @return true if the residual capacity changed
+	 */
+	private boolean setResidual(int position, double residual) {
+		if (residuals[position] == residual) {
+			return false;
+		}
+		residuals[position] = residual;
+		return true;
+	}
+
+	/**
+	 * Builds the tree from the residual capacities of the hosts, clustering the leaves again
+	 * if they are clustered and enough hosts were updated.
+	 */
+	private void build() {
+		if (clustered && updatesSinceClustering >= hostList.size()) {
+			cluster(1, 0, hostList.size());
+			updatesSinceClustering = 0;
+		}
+		for (int leaf = 0; leaf < leaves; leaf++) {
+			int index = leafHosts[leaf];
+			if (index != -1) {
+				hostLeaves[index] = leaf;
+			}
+			setLeaf(leaf, index, true);
+		}
+		for (int node = leaves - 1; node > 0; node--) {
+			merge(node);
+		}
+	}
+
+	/**
+	 * Orders the hosts of the leaves of a node as a k-d tree: the hosts of the left child are those
+	 * with the lowest residual capacities in the dimension where the hosts of the node differ the most.
+	 *
+	 * @param node the node
+	 * @param from the first leaf of the node
+	 * @param to the leaf after the last leaf of the node that has a host
+	 */
+	private void cluster(int node, int from, int to) {
+		if (to - from <= 1) {
+			return;
+		}
+		int dimension = 0;
+		double widestSpread = -1;
+		for (int k = 0; k < DIMENSIONS; k++) {
+			double lowest = Double.POSITIVE_INFINITY;
+			double highest = Double.NEGATIVE_INFINITY;
+			for (int leaf = from; leaf < to; leaf++) {
+				double residual = residuals[leafHosts[leaf] * DIMENSIONS + k];
+				lowest = Math.min(lowest, residual);
+				highest = Math.max(highest, residual);
+			}
+			if (highest - lowest > widestSpread) {
+				widestSpread = highest - lowest;
+				dimension = k;
+			}
+		}
+		int depth = 31 - Integer.numberOfLeadingZeros(node);
+		int middle = from + (leaves >> (depth + 1));
+		if (middle < to) {
+			select(from, to, middle, dimension);
+		}
+		cluster(2 * node, from, Math.min(middle, to));
+		cluster(2 * node + 1, middle, to);
+	}
+
+	/**
+	 * Partially sorts the hosts of a range of leaves in a dimension, so that the hosts before a leaf
+	 * have residual capacities not above those of the hosts from that leaf.
+	 *
+	 * @param from the first leaf of the range
+	 * @param to the leaf after the last leaf of the range
+	 * @param nth the leaf that splits the range
+	 * @param dimension the dimension
+	 */
+	private void select(int from, int to, int nth, int dimension) {
+		int lo = from;
+		int hi = to - 1;
+		while (lo < hi) {
+			double pivot = residuals[leafHosts[(lo + hi) >>> 1] * DIMENSIONS + dimension];
+			int i = lo;
+			int j = hi;
+			while (i <= j) {
+				while (residuals[leafHosts[i] * DIMENSIONS + dimension] < pivot) {
+					i++;
+				}
+				while (residuals[leafHosts[j] * DIMENSIONS + dimension] > pivot) {
+					j--;
+				}
+				if (i <= j) {
+					int host = leafHosts[i];
+					leafHosts[i++] = leafHosts[j];
+					leafHosts[j--] = host;
+				}
+			}
+			if (nth <= j) {
+				hi = j;
+			} else if (nth >= i) {
+				lo = i;
+			} else {
+				return;
+			}
+		}
+	}
+
+	/**
+	 * Updates the leaf of a host and its ancestors.
+	 *
+	 * @param index the index of the host in the host list
+	 * @param enabled whether the host can be found by the searches
+	 */
+	private void updateLeaf(int index, boolean enabled) {
+		int leaf = hostLeaves[index];
+		setLeaf(leaf, index, enabled);
+		for (int node = (leaves + leaf) / 2; node > 0; node /= 2) {
+			merge(node);
+		}
+	}
+
+	/**
+	 * Sets the values of a leaf from the residual capacities of its host.
+	 *
+	 * @param leaf the leaf
+	 * @param index the index of the host of the leaf in the host list, -1 if none
+	 * @param enabled whether the host can be found by the searches
+	 */
+	private void setLeaf(int leaf, int index, boolean enabled) {
+		int node = leaves + leaf;
+		int offset = node * DIMENSIONS;
+		int pairOffset = node * PAIRS.length;
+		if (index == -1 || !enabled) {
+			Arrays.fill(min, offset, offset + DIMENSIONS, Double.POSITIVE_INFINITY);
+			Arrays.fill(max, offset, offset + DIMENSIONS, Double.NEGATIVE_INFINITY);
+			Arrays.fill(pairMax, pairOffset, pairOffset + PAIRS.length, Double.NEGATIVE_INFINITY);
+			minIndex[node] = Integer.MAX_VALUE;
+			return;
+		}
+		System.arraycopy(residuals, index * DIMENSIONS, min, offset, DIMENSIONS);
+		System.arraycopy(residuals, index * DIMENSIONS, max, offset, DIMENSIONS);
+		for (int p = 0; p < PAIRS.length; p++) {
+			pairMax[pairOffset + p] = Math.min(min[offset + PAIRS[p][0]], min[offset + PAIRS[p][1]]);
+		}
+		minIndex[node] = index;
+	}
+
+	/**
+	 * Computes the values of a node from those of its children.
+	 *
+	 * @param node the node
+	 */
+	private void merge(int node) {
+		int offset = node * DIMENSIONS;
+		int left = 2 * node * DIMENSIONS;
+		int right = left + DIMENSIONS;
+		for (int k = 0; k < DIMENSIONS; k++) {
+			min[offset + k] = Math.min(min[left + k], min[right + k]);
+			max[offset + k] = Math.max(max[left + k], max[right + k]);
+		}
+		int pairOffset = node * PAIRS.length;
+		int leftPairs = 2 * node * PAIRS.length;
+		int rightPairs = leftPairs + PAIRS.length;
+		for (int p = 0; p < PAIRS.length; p++) {
+			pairMax[pairOffset + p] = Math.max(pairMax[leftPairs + p], pairMax[rightPairs + p]);
+		}
+		minIndex[node] = Math.min(minIndex[2 * node], minIndex[2 * node + 1]);
+	}
+
+	/**
+	 * The score of the hosts for a VM, the best host having the lowest score.
+	 */
+	public interface Objective {
+
+		/**
+		 * Gets the score of a host.
+		 *
+		 * @param residual the residual capacities, the host being at the offset
+		 * @param offset the position of the first dimension of the host
+		 * @param demand the demand of the VM
+		 * @return the score of the host
+		 */
+		double getScore(double[] residual, int offset, double[] demand);
+
+		/**
+		 * Gets a lower bound of the scores of the hosts whose residual capacities are in a box,
+		 * all of them being at least the demand of the VM.
+		 *
+		 * @param min the component-wise minimum of the residual capacities, the box being at the offset
+		 * @param max the component-wise maximum of the residual capacities, the box being at the offset
+		 * @param offset the position of the first dimension of the box
+		 * @param demand the demand of the VM
+		 * @return the lower bound of the scores
+		 */
+		double getLowerBound(double[] min, double[] max, int offset, double[] demand);
+
+	}
+
+}
@@ -68,8 +68,9 @@ public class HostDynamicWorkload extends Host {
 		}
 
 		for (Vm vm : getVmList()) {
-			getVmScheduler().allocatePesForVm(vm, vm.getCurrentRequestedMips());
+			getVmScheduler().allocatePesForVmWithArray(vm, vm.getCurrentRequestedMipsArray());
 		}
+		notifyCapacityIndexes();
 
 		for (Vm vm : getVmList()) {
 			double totalRequestedMips = vm.getCurrentRequestedTotalMips();
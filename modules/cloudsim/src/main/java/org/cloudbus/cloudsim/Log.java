@@ -32,8 +32,18 @@ public class Log {
          the call for any print method has no effect. */
 	private static boolean disabled;
 	
-	/** Buffer to avoid creating new string builder upon every print. */
-	private static StringBuilder buffer = new StringBuilder();		    
+	/** Buffer to avoid creating new string builder upon every print.
+	 * Each thread has its own buffer, as hosts may be updated in parallel. */
+	private static final ThreadLocal<StringBuilder> buffer = new ThreadLocal<StringBuilder>() {
+		@Override
+		protected StringBuilder initialValue() {
+			return new StringBuilder();
+		}
+	};
+
+	/** The output kept by the threads that are deferring their messages.
+	 * @see #startDeferring() */
+	private static final ThreadLocal<StringBuilder> deferredOutput = new ThreadLocal<StringBuilder>();
 
 	/**
 	 * Prints a message.
@@ -42,6 +52,11 @@ public class Log {
 	 */
 	public static void print(String message) {
 		if (!isDisabled()) {
+			StringBuilder deferred = deferredOutput.get();
+			if (deferred != null) {
+				deferred.append(message);
+				return;
+			}
 			try {
 				getOutput().write(message.getBytes());
 			} catch (IOException e) {
@@ -89,6 +104,7 @@ public class Log {
 	 */
 	public static void printConcat(Object... messages) {
 		if (!isDisabled()) {
+			StringBuilder buffer = Log.buffer.get();
 			buffer.setLength(0); // Clear the buffer		    
 			for(int i = 0 ; i < messages.length ; i ++) {
 				buffer.append(String.valueOf(messages[i]));
@@ -104,6 +120,7 @@ public class Log {
 	 */
 	public static void printConcatLine(Object... messages) {
 		if (!isDisabled()) {
+			StringBuilder buffer = Log.buffer.get();
 			buffer.setLength(0); // Clear the buffer		    
 			for(int i = 0 ; i < messages.length ; i ++) {
 				buffer.append(String.valueOf(messages[i]));
@@ -151,6 +168,31 @@ public class Log {
 		}
 	}
 
+	/**
+	 * Starts keeping the messages printed by the current thread instead of
+	 * writing them to the output. This way, threads working in parallel can
+	 * have their messages printed afterwards in a deterministic order.
+	 * 
+	 * @see #stopDeferring()
+	 */
+	public static void startDeferring() {
+		deferredOutput.set(new StringBuilder());
+	}
+
+	/**
+	 * Stops keeping the messages printed by the current thread, which are
+	 * written to the output again.
+	 * 
+	 * @return the messages printed by the current thread since
+	 * {@link #startDeferring()} was called, or an empty string if
+	 * the thread was not deferring its messages
+	 */
+	public static String stopDeferring() {
+		StringBuilder deferred = deferredOutput.get();
+		deferredOutput.remove();
+		return deferred == null ? "" : deferred.toString();
+	}
+
 	/**
 	 * Sets the output stream.
 	 * 
@@ -44,6 +44,12 @@ public class Pe {
 	/** The pe provisioner. */
 	private PeProvisioner peProvisioner;
 
+	/** The host that owns the Pe and keeps track of its status, or null. */
+	private Host host;
+
+	/** The position of the Pe in the list of PEs of the {@link #host}. */
+	private int hostIndex;
+
 	/**
 	 * Instantiates a new Pe object.
 	 * 
@@ -90,6 +96,16 @@ public class Pe {
 		getPeProvisioner().setMips(d);
 	}
 
+	/**
+	 * Tells the host that owns the Pe, if any, that the MIPS of the Pe changed.
+	 * The {@link PeProvisioner} of the Pe calls it when its MIPS are set.
+	 */
+	public void updateMips() {
+		if (host != null) {
+			host.updatePeMips();
+		}
+	}
+
 	/**
 	 * Gets the MIPS Rating of this Pe.
 	 * 
@@ -145,14 +161,31 @@ public class Pe {
 	}
 
 	/**
-	 * Sets Pe status to either <tt>Pe.FREE</tt> or <tt>Pe.BUSY</tt>
+	 * Sets Pe status to either <tt>Pe.FREE</tt> or <tt>Pe.BUSY</tt>.
+	 * The host that owns the Pe, if any, is notified of the change.
 	 * 
 	 * @param status Pe status, <tt>true</tt> if it is FREE, <tt>false</tt> if BUSY.
 	 * @pre $none
 	 * @post $none
 	 */
 	public void setStatus(int status) {
+		int previousStatus = this.status;
 		this.status = status;
+		if (host != null && previousStatus != status) {
+			host.updatePeStatus(hostIndex, previousStatus, status);
+		}
+	}
+
+	/**
+	 * Sets the host that owns the Pe, which is notified when the status
+	 * or the MIPS of the Pe change.
+	 * 
+	 * @param host the host, or null
+	 * @param hostIndex the position of the Pe in the list of PEs of the host
+	 */
+	void setHost(Host host, int hostIndex) {
+		this.host = host;
+		this.hostIndex = hostIndex;
 	}
 
 	/**
@@ -161,7 +194,14 @@ public class Pe {
 	 * @param peProvisioner the new pe provisioner
 	 */
 	protected void setPeProvisioner(PeProvisioner peProvisioner) {
+		if (this.peProvisioner != null && this.peProvisioner.getPe() == this) {
+			this.peProvisioner.setPe(null);
+		}
 		this.peProvisioner = peProvisioner;
+		if (peProvisioner != null) {
+			peProvisioner.setPe(this);
+		}
+		updateMips();
 	}
 
 	/**
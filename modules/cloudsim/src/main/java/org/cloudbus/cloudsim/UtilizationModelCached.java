@@ -0,0 +1,103 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim;
+
+import org.cloudbus.cloudsim.core.CloudSim;
+
+/**
+ * A utilization model that keeps the last utilization computed by another model,
+ * so that asking several times for the utilization at the same time doesn't
+ * compute it again. The kept utilization is dropped when the simulation clock
+ * advances, thus the decorated model is asked again at each simulation step.
+ * The schedulers, hosts, VMs and policies ask for the utilization of a cloudlet
+ * several times per step, so decorating an expensive model of a cloudlet, as in
+ * {@code cloudlet.setUtilizationModelCpu(new UtilizationModelCached(model))},
+ * saves computing it again.
+ *
+ * <p>Caching is opt-in, as it is only correct for a decorated model that is
+ * deterministic: it must return the same utilization when it is asked again for
+ * the same time at the same simulation clock, and computing it must have no side
+ * effect that the simulation depends on, such as recording each request.
+ * A model that draws a new random value at each request would otherwise see
+ * fewer requests, and so give different results, than without the cache.</p>
+ *
+ * <p>The kept utilization is published as one immutable entry, so a model shared
+ * by cloudlets that are processed by several threads never returns a utilization
+ * kept for another time or clock. Two threads may still both compute the
+ * utilization for the same time.</p>
+ *
+ * @since CloudSim Toolkit 4.0
+ */
+public class UtilizationModelCached implements UtilizationModel {
+
+	/** The decorated utilization model. */
+	private final UtilizationModel utilizationModel;
+
+	/** The kept utilization, null if there is none. */
+	private volatile Entry cached;
+
+	/**
+	 * Instantiates a new cached utilization model.
+	 *
+	 * @param utilizationModel the utilization model to decorate
+	 */
+	public UtilizationModelCached(UtilizationModel utilizationModel) {
+		this.utilizationModel = utilizationModel;
+	}
+
+	@Override
+	public double getUtilization(double time) {
+		double clock = CloudSim.clock();
+		Entry entry = cached;
+		if (entry == null || time != entry.time || clock != entry.clock) {
+			entry = new Entry(time, clock, utilizationModel.getUtilization(time));
+			cached = entry;
+		}
+		return entry.utilization;
+	}
+
+	/**
+	 * Gets the decorated utilization model.
+	 *
+	 * @return the utilization model
+	 */
+	public UtilizationModel getUtilizationModel() {
+		return utilizationModel;
+	}
+
+	/**
+	 * A utilization kept with the time and the simulation clock it was computed for.
+	 */
+	private static final class Entry {
+
+		/** The time of the utilization. */
+		private final double time;
+
+		/** The simulation clock when the utilization was computed. */
+		private final double clock;
+
+		/** The utilization. */
+		private final double utilization;
+
+		/**
+		 * Instantiates a new entry.
+		 *
+		 * @param time the time of the utilization
+		 * @param clock the simulation clock
+		 * @param utilization the utilization
+		 */
+		private Entry(double time, double clock, double utilization) {
+			this.time = time;
+			this.clock = clock;
+			this.utilization = utilization;
+		}
+
+	}
+
+}
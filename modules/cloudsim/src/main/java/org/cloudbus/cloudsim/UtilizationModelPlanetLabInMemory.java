@@ -4,6 +4,9 @@ import java.io.BufferedReader;
 import java.io.FileReader;
 import java.io.IOException;
 
+import org.cloudbus.cloudsim.util.UtilizationTrace;
+import org.cloudbus.cloudsim.util.UtilizationTraceStore;
+
 /**
  * Defines the resource utilization model based on 
  * a <a href="https://www.planet-lab.org">PlanetLab</a>
@@ -14,8 +17,13 @@ public class UtilizationModelPlanetLabInMemory implements UtilizationModel {
 	/** The scheduling interval. */
 	private double schedulingInterval;
 
-	/** The data (5 min * 288 = 24 hours). */
-	private final double[] data; 
+	/** The data (5 min * 288 = 24 hours). When the model is backed by a
+	 * {@link #trace}, it is only created if {@link #getData()} is called. */
+	private double[] data; 
+
+	/** The trace of a {@link UtilizationTraceStore} the samples are read from,
+	 * or null if the samples were read into the {@link #data} array. */
+	private final UtilizationTrace trace;
 	
 	/**
 	 * Instantiates a new PlanetLab resource utilization model from a trace file.
@@ -28,6 +36,7 @@ public class UtilizationModelPlanetLabInMemory implements UtilizationModel {
 	public UtilizationModelPlanetLabInMemory(String inputPath, double schedulingInterval)
 			throws NumberFormatException,
 			IOException {
+		trace = null;
 		data = new double[289];
 		setSchedulingInterval(schedulingInterval);
 		BufferedReader input = new BufferedReader(new FileReader(inputPath));
@@ -51,6 +60,7 @@ public class UtilizationModelPlanetLabInMemory implements UtilizationModel {
 	public UtilizationModelPlanetLabInMemory(String inputPath, double schedulingInterval, int dataSamples)
 			throws NumberFormatException,
 			IOException {
+		trace = null;
 		setSchedulingInterval(schedulingInterval);
 		data = new double[dataSamples];
 		BufferedReader input = new BufferedReader(new FileReader(inputPath));
@@ -62,15 +72,29 @@ public class UtilizationModelPlanetLabInMemory implements UtilizationModel {
 		input.close();
 	}
 
+	/**
+	 * Instantiates a new PlanetLab resource utilization model backed by a trace
+	 * of a {@link UtilizationTraceStore}. The samples are read from the store
+	 * as needed instead of being copied into the model, and the last sample is repeated
+	 * once at the end of the trace, as done when reading a trace file.
+	 * 
+	 * @param trace the trace
+	 * @param schedulingInterval the time between samples
+	 */
+	public UtilizationModelPlanetLabInMemory(UtilizationTrace trace, double schedulingInterval) {
+		this.trace = trace;
+		setSchedulingInterval(schedulingInterval);
+	}
+
 	@Override
 	public double getUtilization(double time) {
 		if (time % getSchedulingInterval() == 0) {
-			return data[(int) time / (int) getSchedulingInterval()];
+			return getSample((int) time / (int) getSchedulingInterval());
 		}
 		int time1 = (int) Math.floor(time / getSchedulingInterval());
 		int time2 = (int) Math.ceil(time / getSchedulingInterval());
-		double utilization1 = data[time1];
-		double utilization2 = data[time2];
+		double utilization1 = getSample(time1);
+		double utilization2 = getSample(time2);
 		double delta = (utilization2 - utilization1) / ((time2 - time1) * getSchedulingInterval());
 		double utilization = utilization1 + delta * (time - time1 * getSchedulingInterval());
 		return utilization;
@@ -95,7 +119,37 @@ public class UtilizationModelPlanetLabInMemory implements UtilizationModel {
 		return schedulingInterval;
 	}
 	
+	/**
+	 * Gets a sample of the trace.
+	 * 
+	 * @param index the index of the sample
+	 * @return the utilization
+	 */
+	private double getSample(int index) {
+		if (trace == null) {
+			return data[index];
+		}
+		if (index == trace.size()) {
+			return trace.get(index - 1);
+		}
+		return trace.get(index);
+	}
+
+	/**
+	 * Gets the utilization samples. When the model is backed by a trace store,
+	 * the samples are copied into an array the first time this method is called.
+	 * 
+	 * @return the samples
+	 */
 	public double[] getData(){
+		if (data == null && trace != null) {
+			int n = trace.size() + 1;
+			data = new double[n];
+			for (int i = 0; i < n - 1; i++) {
+				data[i] = trace.get(i);
+			}
+			data[n - 1] = data[n - 2];
+		}
 		return data;
 	}
 }
@@ -0,0 +1,507 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim;
+
+import java.io.BufferedInputStream;
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.nio.channels.Channels;
+import java.util.Arrays;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Defines the resource utilization model based on
+ * a <a href="https://www.planet-lab.org">PlanetLab</a>
+ * datacenter trace file, as {@link UtilizationModelPlanetLabInMemory} does,
+ * but streaming the samples from the file instead of loading the whole trace.
+ *
+ * The samples are kept in a window of two chunks. When the simulation moves past the
+ * first sample of a chunk, the chunk that follows it is read in background into the
+ * other half of the window, so that it is usually ready when the simulation gets there.
+ * Until then, the other half keeps the previous chunk, which the interpolation
+ * between the last sample of that chunk and the first one of the new chunk needs.
+ * Thus, the memory used by the model is proportional to the window size instead of the
+ * trace length, and {@link #getUtilization(double)} doesn't allocate objects. The file
+ * is only open while a chunk is being read.
+ *
+ * Moving backwards beyond the window is supported, but the chunk has to be read again.
+ * After the end of the trace, the utilization is the one of the last sample.
+ *
+ * @since CloudSim Toolkit 4.0
+ */
+public class UtilizationModelPlanetLabStreaming implements UtilizationModel {
+
+	/** The default number of samples kept in memory. */
+	public static final int DEFAULT_WINDOW_SIZE = 1024;
+
+	/** The time in seconds after which an idle thread of the {@link #readAheadExecutor} ends. */
+	private static final long READ_AHEAD_KEEP_ALIVE = 10;
+
+	/** The executor reading the chunks ahead of the simulation, shared by all the models. */
+	private static ExecutorService readAheadExecutor;
+
+	/** The path of the trace file. */
+	private final String inputPath;
+
+	/** The scheduling interval. */
+	private double schedulingInterval;
+
+	/** The number of samples of each chunk. */
+	private final int chunkSize;
+
+	/** The two halves of the window. */
+	private final double[][] chunks;
+
+	/** The index of the chunk held by each half of the window, or -1 if it is empty. */
+	private final int[] chunkIndexes = {-1, -1};
+
+	/** The half of the window that was accessed last. */
+	private int current;
+
+	/** The read of a chunk in progress, or null. */
+	private Future<?> pendingRead;
+
+	/** The half of the window the {@link #pendingRead} is filling. */
+	private int pendingHalf;
+
+	/** The index of the chunk the {@link #pendingRead} is reading. */
+	private int pendingChunk;
+
+	/** The index of the sample from which the chunk after the current one is read ahead,
+	 * or {@link Integer#MAX_VALUE} if it is not to be read. */
+	private int readAheadIndex = Integer.MAX_VALUE;
+
+	/** The number of chunks read, including the ones read ahead. */
+	private int chunkReads;
+
+	/** The position in the file where each chunk starts, for the chunks known so far.
+	 * The fields below are also written by the reads in background, and only
+	 * read by the simulation after waiting for the pending read. */
+	private long[] chunkOffsets = new long[16];
+
+	/** The line of the file where each chunk starts, for the chunks known so far. */
+	private int[] chunkLines = new int[16];
+
+	/** The number of known chunk positions. */
+	private int knownChunkOffsets = 1;
+
+	/** The number of samples of the trace, or -1 while the end of the file wasn't reached. */
+	private int length = -1;
+
+	/** The last sample of the trace, once its end was reached. */
+	private double lastSample;
+
+	/**
+	 * Instantiates a new PlanetLab resource utilization model streaming
+	 * a trace file through a window of the {@link #DEFAULT_WINDOW_SIZE default size}.
+	 *
+	 * @param inputPath The path of a PlanetLab datacenter trace.
+	 * @param schedulingInterval the time between samples
+	 * @throws FileNotFoundException if the trace file cannot be read
+	 */
+	public UtilizationModelPlanetLabStreaming(String inputPath, double schedulingInterval)
+			throws FileNotFoundException {
+		this(inputPath, schedulingInterval, DEFAULT_WINDOW_SIZE);
+	}
+
+	/**
+	 * Instantiates a new PlanetLab resource utilization model streaming a trace file.
+	 *
+	 * @param inputPath The path of a PlanetLab datacenter trace.
+	 * @param schedulingInterval the time between samples
+	 * @param windowSize the number of samples kept in memory
+	 * @throws FileNotFoundException if the trace file cannot be read
+	 * @pre windowSize >= 2
+	 */
+	public UtilizationModelPlanetLabStreaming(String inputPath, double schedulingInterval, int windowSize)
+			throws FileNotFoundException {
+		if (!new File(inputPath).canRead()) {
+			throw new FileNotFoundException(inputPath);
+		}
+		this.inputPath = inputPath;
+		setSchedulingInterval(schedulingInterval);
+		chunkSize = Math.max(1, windowSize / 2);
+		chunks = new double[2][chunkSize];
+		chunkLines[0] = 1;
+	}
+
+	@Override
+	public double getUtilization(double time) {
+		if (time % getSchedulingInterval() == 0) {
+			return getSample((int) time / (int) getSchedulingInterval());
+		}
+		int time1 = (int) Math.floor(time / getSchedulingInterval());
+		int time2 = (int) Math.ceil(time / getSchedulingInterval());
+		double utilization1 = getSample(time1);
+		double utilization2 = getSample(time2);
+		double delta = (utilization2 - utilization1) / ((time2 - time1) * getSchedulingInterval());
+		double utilization = utilization1 + delta * (time - time1 * getSchedulingInterval());
+		return utilization;
+	}
+
+	/**
+	 * Gets a sample of the trace.
+	 *
+	 * @param index the index of the sample
+	 * @return the utilization
+	 */
+	private double getSample(int index) {
+		int chunk = index / chunkSize;
+		if (chunkIndexes[current] == chunk) {
+			if (index >= readAheadIndex) {
+				readAheadIndex = Integer.MAX_VALUE;
+				readAhead(chunk + 1, 1 - current);
+			}
+			return chunks[current][index - chunk * chunkSize];
+		}
+		return getSampleFromOtherChunk(index, chunk);
+	}
+
+	/**
+	 * Gets a sample that is not in the chunk accessed last, switching to the other half
+	 * of the window (reading the chunk if it is not there). The chunk accessed last stays
+	 * in the window, and the next chunk is only read ahead over it when a sample after the
+	 * first one of the new chunk is accessed.
+	 *
+	 * @param index the index of the sample
+	 * @param chunk the chunk of the sample
+	 * @return the utilization
+	 */
+	private double getSampleFromOtherChunk(int index, int chunk) {
+		awaitPendingRead();
+		if (length >= 0 && index >= length) {
+			return lastSample;
+		}
+
+		int other = 1 - current;
+		if (chunkIndexes[other] != chunk) {
+			chunkReads++;
+			try {
+				readChunk(chunk, chunks[other]);
+			} catch (IOException e) {
+				throw new IllegalStateException("Cannot read the utilization trace " + inputPath, e);
+			}
+			chunkIndexes[other] = chunk;
+		}
+		current = other;
+
+		int next = chunk + 1;
+		readAheadIndex = Integer.MAX_VALUE;
+		if (chunkIndexes[1 - current] != next && (length < 0 || (long) next * chunkSize < length)) {
+			readAheadIndex = chunk * chunkSize + 1;
+		}
+		return getSample(index);
+	}
+
+	/**
+	 * Starts reading a chunk in background.
+	 *
+	 * @param chunk the chunk to read
+	 * @param half the half of the window to fill
+	 */
+	private void readAhead(final int chunk, int half) {
+		final double[] buffer = chunks[half];
+		chunkIndexes[half] = -1;
+		chunkReads++;
+		pendingHalf = half;
+		pendingChunk = chunk;
+		pendingRead = getReadAheadExecutor().submit(new Callable<Void>() {
+			@Override
+			public Void call() throws IOException {
+				readChunk(chunk, buffer);
+				return null;
+			}
+		});
+	}
+
+	/**
+	 * Waits for the read in background to finish, if there is one.
+	 */
+	private void awaitPendingRead() {
+		if (pendingRead == null) {
+			return;
+		}
+		try {
+			pendingRead.get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Interrupted while reading the utilization trace " + inputPath, e);
+		} catch (ExecutionException e) {
+			throw new IllegalStateException("Cannot read the utilization trace " + inputPath, e.getCause());
+		} finally {
+			pendingRead = null;
+		}
+		chunkIndexes[pendingHalf] = pendingChunk;
+	}
+
+	/**
+	 * Reads a chunk of the trace file. If the position of the chunk is not known yet,
+	 * the file is read from the last known chunk position.
+	 *
+	 * @param chunk the chunk to read
+	 * @param buffer the array to fill with the samples of the chunk; after
+	 * the end of the trace, it is filled with the last sample
+	 * @throws IOException if the trace file cannot be read
+	 */
+	private void readChunk(int chunk, double[] buffer) throws IOException {
+		if (length >= 0 && (long) chunk * chunkSize >= length) {
+			Arrays.fill(buffer, lastSample);
+			return;
+		}
+
+		int from = Math.min(chunk, knownChunkOffsets - 1);
+		RandomAccessFile file = new RandomAccessFile(inputPath, "r");
+		try {
+			TraceReader reader = new TraceReader(
+					Channels.newInputStream(file.getChannel().position(chunkOffsets[from])),
+					inputPath, chunkOffsets[from], chunkLines[from]);
+			for (int c = from; c <= chunk; c++) {
+				int count = 0;
+				while (count < chunkSize) {
+					int value = reader.readValue();
+					if (value < 0) {
+						break;
+					}
+					buffer[count++] = value / 100.0;
+				}
+
+				boolean end = count < chunkSize || reader.isAtEnd();
+				if (end) {
+					length = c * chunkSize + count;
+					if (count > 0) {
+						lastSample = buffer[count - 1];
+					}
+					Arrays.fill(buffer, count, chunkSize, lastSample);
+					if (c < chunk) {
+						Arrays.fill(buffer, lastSample);
+					}
+					return;
+				}
+				setChunkOffset(c + 1, reader.getPosition(), reader.getLine());
+			}
+		} finally {
+			file.close();
+		}
+	}
+
+	/**
+	 * Records the position where a chunk starts.
+	 *
+	 * @param chunk the chunk
+	 * @param offset the position of its first sample in the file
+	 * @param line the line of its first sample in the file
+	 */
+	private void setChunkOffset(int chunk, long offset, int line) {
+		if (chunk < knownChunkOffsets) {
+			return;
+		}
+		if (chunk == chunkOffsets.length) {
+			chunkOffsets = Arrays.copyOf(chunkOffsets, chunkOffsets.length * 2);
+			chunkLines = Arrays.copyOf(chunkLines, chunkOffsets.length);
+		}
+		chunkOffsets[chunk] = offset;
+		chunkLines[chunk] = line;
+		knownChunkOffsets = chunk + 1;
+	}
+
+	/**
+	 * Gets the executor reading the chunks ahead of the simulation.
+	 * Its threads are daemons, so that they don't keep the JVM running, and they end
+	 * when they have been idle for {@link #READ_AHEAD_KEEP_ALIVE} seconds.
+	 *
+	 * @return the executor
+	 */
+	private static synchronized ExecutorService getReadAheadExecutor() {
+		if (readAheadExecutor == null) {
+			int threads = Math.max(2, Runtime.getRuntime().availableProcessors());
+			ThreadPoolExecutor executor = new ThreadPoolExecutor(threads, threads,
+					READ_AHEAD_KEEP_ALIVE, TimeUnit.SECONDS, new LinkedBlockingQueue<Runnable>(),
+					new ThreadFactory() {
+						@Override
+						public Thread newThread(Runnable runnable) {
+							Thread thread = new Thread(runnable, "CloudSim utilization trace read-ahead");
+							thread.setDaemon(true);
+							return thread;
+						}
+					});
+			executor.allowCoreThreadTimeOut(true);
+			readAheadExecutor = executor;
+		}
+		return readAheadExecutor;
+	}
+
+	/**
+	 * Shuts down the executor reading the chunks ahead of the simulation, after the reads
+	 * in progress. It is created again if a model reads ahead afterwards.
+	 */
+	public static synchronized void shutdownReadAhead() {
+		if (readAheadExecutor != null) {
+			readAheadExecutor.shutdown();
+			readAheadExecutor = null;
+		}
+	}
+
+	/**
+	 * Sets the scheduling interval.
+	 *
+	 * @param schedulingInterval the new scheduling interval
+	 */
+	public void setSchedulingInterval(double schedulingInterval) {
+		this.schedulingInterval = schedulingInterval;
+	}
+
+	/**
+	 * Gets the scheduling interval.
+	 *
+	 * @return the scheduling interval
+	 */
+	public double getSchedulingInterval() {
+		return schedulingInterval;
+	}
+
+	/**
+	 * Gets the number of samples kept in memory.
+	 *
+	 * @return the window size
+	 */
+	public int getWindowSize() {
+		return chunkSize * 2;
+	}
+
+	/**
+	 * Gets the number of chunks read from the file so far, including the ones read ahead.
+	 *
+	 * @return the number of chunks read
+	 */
+	int getChunkReads() {
+		return chunkReads;
+	}
+
+	/**
+	 * Reads the integer percentages of a trace file, one per line,
+	 * keeping track of the position and line in the file. The values are
+	 * separated by white space; any other character is an error.
+	 */
+	private static final class TraceReader {
+
+		/** The buffered input. */
+		private final InputStream input;
+
+		/** The path of the file, for the errors. */
+		private final String path;
+
+		/** The position in the file of the next byte to read. */
+		private long position;
+
+		/** The line in the file of the next byte to read. */
+		private int line;
+
+		/** The byte read ahead, or -2 if there is none. */
+		private int next = -2;
+
+		TraceReader(InputStream input, String path, long position, int line) {
+			this.input = new BufferedInputStream(input);
+			this.path = path;
+			this.position = position;
+			this.line = line;
+		}
+
+		/**
+		 * Reads the next value.
+		 *
+		 * @return the value, or -1 at the end of the file
+		 * @throws IOException if the file cannot be read or has a character that is
+		 *             neither a digit nor white space
+		 */
+		int readValue() throws IOException {
+			int c = skipSeparators();
+			if (c < 0) {
+				return -1;
+			}
+			int value = 0;
+			while (c >= '0' && c <= '9') {
+				value = value * 10 + (c - '0');
+				read();
+				c = peek();
+			}
+			return value;
+		}
+
+		/**
+		 * Checks if there is no other value in the file.
+		 *
+		 * @return true, if only separators are left
+		 * @throws IOException if the file cannot be read or has a character that is
+		 *             neither a digit nor white space
+		 */
+		boolean isAtEnd() throws IOException {
+			return skipSeparators() < 0;
+		}
+
+		/**
+		 * Gets the position in the file of the next value.
+		 *
+		 * @return the position
+		 */
+		long getPosition() {
+			return position;
+		}
+
+		/**
+		 * Gets the line in the file of the next value.
+		 *
+		 * @return the line, from 1
+		 */
+		int getLine() {
+			return line;
+		}
+
+		private int skipSeparators() throws IOException {
+			int c = peek();
+			while (c >= 0 && (c < '0' || c > '9')) {
+				if (c != ' ' && c != '\t' && c != '\r' && c != '\n') {
+					throw new IOException("Unexpected character '" + (char) c + "' at line " + line + " of "
+							+ path + ", the utilization must be an integer percentage per line");
+				}
+				read();
+				c = peek();
+			}
+			return c;
+		}
+
+		private int peek() throws IOException {
+			if (next == -2) {
+				next = input.read();
+			}
+			return next;
+		}
+
+		private void read() throws IOException {
+			int c = peek();
+			if (c >= 0) {
+				position++;
+			}
+			if (c == '\n') {
+				line++;
+			}
+			next = -2;
+		}
+	}
+
+}
@@ -12,7 +12,8 @@ import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.ObjectInputStream;
 import java.io.ObjectOutputStream;
-import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.Random;
 
@@ -36,11 +37,21 @@ public class UtilizationModelStochastic implements UtilizationModel {
          * each value is the utilization percentage in that time. */
 	private Map<Double, Double> history;
 
+	/** The maximum number of entries of the {@link #history}. When it is exceeded,
+	 * the entries for the oldest times are dropped. */
+	private int historyLimit = Integer.MAX_VALUE;
+
+	/** The time of the last utilization returned, NaN if there is none. */
+	private double lastTime = Double.NaN;
+
+	/** The last utilization returned. */
+	private double lastUtilization;
+
 	/**
 	 * Instantiates a new utilization model stochastic.
 	 */
 	public UtilizationModelStochastic() {
-		setHistory(new HashMap<Double, Double>());
+		setHistory(new LinkedHashMap<Double, Double>());
 		setRandomGenerator(new Random());
 	}
 
@@ -50,21 +61,78 @@ public class UtilizationModelStochastic implements UtilizationModel {
 	 * @param seed the seed
 	 */
 	public UtilizationModelStochastic(long seed) {
-		setHistory(new HashMap<Double, Double>());
+		setHistory(new LinkedHashMap<Double, Double>());
 		setRandomGenerator(new Random(seed));
 	}
 
+	/**
+	 * Instantiates a new utilization model stochastic that keeps
+	 * a bounded utilization history.
+	 * 
+	 * @param seed the seed
+	 * @param historyLimit the maximum number of times kept in the history
+	 * @see #setHistoryLimit(int)
+	 */
+	public UtilizationModelStochastic(long seed, int historyLimit) {
+		this(seed);
+		setHistoryLimit(historyLimit);
+	}
+
 	@Override
 	public double getUtilization(double time) {
-		if (getHistory().containsKey(time)) {
-			return getHistory().get(time);
+		// the same time is usually asked several times in a row
+		if (time == lastTime) {
+			return lastUtilization;
 		}
 
-		double utilization = getRandomGenerator().nextDouble();
-		getHistory().put(time, utilization);
+		Double utilization = getHistory().get(time);
+		if (utilization == null) {
+			utilization = getRandomGenerator().nextDouble();
+			getHistory().put(time, utilization);
+			trimHistory();
+		}
+		lastTime = time;
+		lastUtilization = utilization;
 		return utilization;
 	}
 
+	/**
+	 * Removes the oldest entries of the history while it exceeds the {@link #historyLimit}.
+	 */
+	private void trimHistory() {
+		if (getHistory().size() <= historyLimit) {
+			return;
+		}
+		Iterator<Double> iterator = getHistory().keySet().iterator();
+		while (getHistory().size() > historyLimit && iterator.hasNext()) {
+			iterator.next();
+			iterator.remove();
+		}
+	}
+
+	/**
+	 * Sets the maximum number of times kept in the utilization history.
+	 * The history is unbounded by default, so that {@link #saveHistory(String)}
+	 * stores all the utilization values generated. When the limit is exceeded,
+	 * the entries for the oldest times are dropped, and a new random utilization
+	 * is generated if one of those times is asked again.
+	 * 
+	 * @param historyLimit the history limit
+	 */
+	public void setHistoryLimit(int historyLimit) {
+		this.historyLimit = historyLimit;
+		trimHistory();
+	}
+
+	/**
+	 * Gets the maximum number of times kept in the utilization history.
+	 * 
+	 * @return the history limit
+	 */
+	public int getHistoryLimit() {
+		return historyLimit;
+	}
+
 	/**
 	 * Gets the utilization history.
 	 * 
@@ -81,6 +149,7 @@ public class UtilizationModelStochastic implements UtilizationModel {
 	 */
 	protected void setHistory(Map<Double, Double> history) {
 		this.history = history;
+		lastTime = Double.NaN;
 	}
 
 	/**
@@ -106,7 +175,7 @@ public class UtilizationModelStochastic implements UtilizationModel {
 	public void loadHistory(String filename) throws Exception {
 		FileInputStream fis = new FileInputStream(filename);
 		ObjectInputStream ois = new ObjectInputStream(fis);
-		setHistory((Map<Double, Double>) ois.readObject());
+		setHistory(new LinkedHashMap<Double, Double>((Map<Double, Double>) ois.readObject()));
 		ois.close();
 	}
 
@@ -8,9 +8,13 @@
 package org.cloudbus.cloudsim;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.LinkedList;
 import java.util.List;
 
+import org.cloudbus.cloudsim.util.MathUtil;
+import org.cloudbus.cloudsim.util.OverrideCheck;
+
 /**
  * Represents a Virtual Machine (VM) that runs inside a Host, sharing a hostList with other VMs. It processes
  * cloudlets. This processing happens according to a policy, defined by the CloudletScheduler. Each
@@ -22,6 +26,10 @@ import java.util.List;
  */
 public class Vm {
 
+	/** Tells if a subclass overrides {@link #updateVmProcessing(double, List)}. */
+	private static final OverrideCheck UPDATE_VM_PROCESSING = new OverrideCheck(Vm.class,
+			"updateVmProcessing", double.class, List.class);
+
 	/** The VM unique id. */
 	private int id;
 
@@ -145,10 +153,46 @@ public class Vm {
 	 *         next events
 	 * @pre currentTime >= 0
 	 * @post $none
+	 * @see #updateVmProcessingWithArray(double, double[])
 	 */
 	public double updateVmProcessing(double currentTime, List<Double> mipsShare) {
+		double[] share = mipsShare == null ? null : MathUtil.listToArray(mipsShare);
+		if (UPDATE_VM_PROCESSING.isOverriddenBy(this)) {
+			return processCloudlets(currentTime, share);
+		}
+		return updateVmProcessingWithArray(currentTime, share);
+	}
+
+	/**
+	 * Updates the processing of cloudlets running on this VM, given the MIPS share as a
+	 * primitive array. This is the method called by the hosts; if a subclass overrides
+	 * {@link #updateVmProcessing(double, List)}, the call is forwarded to it.
+	 * 
+	 * @param currentTime current simulation time
+	 * @param mipsShare MIPS share of each Pe available to the scheduler
+	 * @return time predicted completion time of the earliest finishing cloudlet, or 0 if there is no
+	 *         next events
+	 * @pre currentTime >= 0
+	 * @post $none
+	 */
+	public double updateVmProcessingWithArray(double currentTime, double[] mipsShare) {
+		if (UPDATE_VM_PROCESSING.isOverriddenBy(this)) {
+			return updateVmProcessing(currentTime, MathUtil.arrayToList(mipsShare));
+		}
+		return processCloudlets(currentTime, mipsShare);
+	}
+
+	/**
+	 * Updates the processing of cloudlets running on this VM.
+	 * 
+	 * @param currentTime current simulation time
+	 * @param mipsShare MIPS share of each Pe available to the scheduler
+	 * @return time predicted completion time of the earliest finishing cloudlet, or 0 if there is no
+	 *         next events
+	 */
+	private double processCloudlets(double currentTime, double[] mipsShare) {
 		if (mipsShare != null) {
-			return getCloudletScheduler().updateVmProcessing(currentTime, mipsShare);
+			return getCloudletScheduler().updateVmProcessingWithArray(currentTime, mipsShare);
 		}
 		return 0.0;
 	}
@@ -169,6 +213,22 @@ public class Vm {
 		return currentRequestedMips;
 	}
 
+	/**
+	 * Gets the current requested mips as a primitive array.
+	 * The array may be reused by the cloudlet scheduler, thus it has to be copied to be kept.
+	 * 
+	 * @return the current requested mips of each PE
+	 * @see #getCurrentRequestedMips()
+	 */
+	public double[] getCurrentRequestedMipsArray() {
+		if (isBeingInstantiated()) {
+			double[] currentRequestedMips = new double[getNumberOfPes()];
+			Arrays.fill(currentRequestedMips, getMips());
+			return currentRequestedMips;
+		}
+		return getCloudletScheduler().getCurrentRequestedMipsArray();
+	}
+
 	/**
 	 * Gets the current requested total mips.
 	 * 
@@ -271,6 +331,56 @@ public class Vm {
 		return userId + "-" + vmId;
 	}
 
+	/**
+	 * Converts the numeric key of a VM into its string uid.
+	 * 
+	 * @param key the VM key
+	 * @return string uid
+	 * @see #getKey(int, int)
+	 */
+	public static String getUid(long key) {
+		return getUid((int) (key >> 32), (int) key);
+	}
+
+	/**
+	 * Gets the numeric key of the VM, that packs the user id and the VM id into a long.
+	 * As the {@link #getUid() uid}, it uniquely identifies the VM, but it can be
+	 * used to index the tables of schedulers and provisioners without hashing Strings.
+	 * 
+	 * @return the VM key
+	 */
+	public long getKey() {
+		return getKey(getUserId(), getId());
+	}
+
+	/**
+	 * Generates the numeric key of a VM.
+	 * 
+	 * @param userId the user id
+	 * @param vmId the vm id
+	 * @return the VM key
+	 * @see #getKey()
+	 */
+	public static long getKey(int userId, int vmId) {
+		return ((long) userId << 32) | (vmId & 0xFFFFFFFFL);
+	}
+
+	/**
+	 * Converts a string identifier generated by {@link #getUid(int, int)}
+	 * into the numeric key of the same VM.
+	 * 
+	 * @param uid the string uid of the VM
+	 * @return the VM key
+	 * @see #getKey()
+	 */
+	public static long getKey(String uid) {
+		// the user id may be negative, thus the separator is searched after the first char
+		int separator = uid.indexOf('-', 1);
+		return getKey(
+				Integer.parseInt(uid.substring(0, separator)),
+				Integer.parseInt(uid.substring(separator + 1)));
+	}
+
 	/**
 	 * Gets the VM id.
 	 * 
@@ -58,17 +58,34 @@ public abstract class VmAllocationPolicy {
 	 */
 	public abstract boolean allocateHostForVm(Vm vm, Host host);
 
+	/**
+	 * Allocates hosts for a list of VMs requested together, such as all the VMs
+	 * a broker submits to a {@link Datacenter} at once when
+	 * {@link DatacenterBroker#setVmCreationBatched(boolean) batching} is on. The default implementation allocates
+	 * a host for each VM in the order of the list, by {@link #allocateHostForVm(Vm)};
+	 * policies can override it to sort, group or place the whole list together.
+	 * 
+	 * @param vmList the VMs to allocate hosts to
+	 * @return whether a host could be allocated for each VM, in the order of the list
+	 * @pre vmList != null
+	 * @post $result.length == vmList.size()
+	 */
+	public boolean[] allocateHostsForVms(List<? extends Vm> vmList) {
+		boolean[] results = new boolean[vmList.size()];
+		int i = 0;
+		for (Vm vm : vmList) {
+			results[i++] = allocateHostForVm(vm);
+		}
+		return results;
+	}
+
 	/**
 	 * Optimize allocation of the VMs according to current utilization.
 	 * 
 	 * @param vmList the vm list
-	 * @return the array list< hash map< string, object>>
-         * 
-         * @todo It returns a list of maps, where each map key is a string 
-         * and stores an object. What in fact are the keys and values of this
-         * Map? Neither this class or its subclasses implement the method
-         * or have clear documentation. The only sublcass is the {@link VmAllocationPolicySimple}. 
-         * 
+	 * @return the migrations to perform, each map having the VM to migrate at the key "vm"
+	 * and its destination host at the key "host", such as a {@link VmMigration};
+	 * or null if there are no migrations
 	 */
 	public abstract List<Map<String, Object>> optimizeAllocation(List<? extends Vm> vmList);
 
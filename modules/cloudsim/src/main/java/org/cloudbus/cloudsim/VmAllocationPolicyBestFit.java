@@ -0,0 +1,46 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim;
+
+import java.util.List;
+
+/**
+ * VmAllocationPolicyBestFit is a VmAllocationPolicy that places a VM on the host that
+ * would have the least capacity left, as the sum over the MIPS, RAM, bandwidth and storage of
+ * the capacity left divided by the greatest capacity of the hosts, which is the
+ * {@link HostCapacityIndex#SUM sum of the residual capacities} minus that of the demands.
+ * With {@link #allocateHostsForVms(List)}, it is the Best Fit Decreasing heuristic.
+ *
+ * @since CloudSim Toolkit 4.0
+ */
+public class VmAllocationPolicyBestFit extends VmAllocationPolicyBinPacking {
+
+	/**
+	 * Creates a new VmAllocationPolicyBestFit object.
+	 *
+	 * @param list the list of hosts
+	 * @pre $none
+	 * @post $none
+	 */
+	public VmAllocationPolicyBestFit(List<? extends Host> list) {
+		super(list, true);
+	}
+
+	@Override
+	protected double getScore(double[] residual, int offset, double[] demand) {
+		return residual[offset + HostCapacityIndex.SUM] - demand[HostCapacityIndex.SUM];
+	}
+
+	@Override
+	protected double getLowerBound(double[] min, double[] max, int offset, double[] demand) {
+		int sum = HostCapacityIndex.SUM;
+		return Math.max(min[offset + sum], demand[sum]) - demand[sum];
+	}
+
+}
@@ -0,0 +1,289 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.cloudbus.cloudsim.core.CloudSim;
+import org.cloudbus.cloudsim.util.LongObjectHashMap;
+
+/**
+ * VmAllocationPolicyBinPacking is the base of the VmAllocationPolicies that place VMs as
+ * multi-dimensional bin packing, considering the MIPS, RAM, bandwidth and storage of the hosts
+ * together. Each policy of the family defines the score of a host for a VM, from the residual
+ * capacity of the host and the demand of the VM, both divided by the greatest capacity of the hosts in
+ * each dimension; the VM is placed on the suitable host with the lowest score, the first one in the
+ * host list on ties.
+ *
+ * The hosts are found by a {@link HostCapacityIndex} rather than by checking each of them, so that
+ * a placement usually takes logarithmic time in the number of hosts to search. The index is updated
+ * when the policy creates or destroys a VM. Before each placement, the available MIPS, RAM,
+ * bandwidth and storage of every host are also read and compared with those in the index, which
+ * takes linear time but only a few reads per host, and the hosts changed by other means, such as
+ * VMs created directly on them or resized, are updated in the index.
+ *
+ * @since CloudSim Toolkit 4.0
+ */
+public abstract class VmAllocationPolicyBinPacking extends VmAllocationPolicy {
+
+	/** The number of dimensions of the residual capacities that the scores consider,
+         * from {@link HostCapacityIndex#MIPS} to {@link HostCapacityIndex#STORAGE}. */
+	protected static final int SCORED_DIMENSIONS = HostCapacityIndex.STORAGE + 1;
+
+	/** The map between each VM and its allocated host.
+         * The map key is a VM key and the value is the allocated host for that VM. */
+	private final LongObjectHashMap<Host> vmTable = new LongObjectHashMap<Host>();
+
+	/** The index of the residual capacities of the hosts. */
+	private final HostCapacityIndex capacityIndex;
+
+	/** The index of each host in {@link #getHostList() }. */
+	private final Map<Host, Integer> hostIndexes = new HashMap<Host, Integer>();
+
+	/** The score of the hosts given to the capacity index. */
+	private final HostCapacityIndex.Objective objective = new HostCapacityIndex.Objective() {
+
+		@Override
+		public double getScore(double[] residual, int offset, double[] demand) {
+			return VmAllocationPolicyBinPacking.this.getScore(residual, offset, demand);
+		}
+
+		@Override
+		public double getLowerBound(double[] min, double[] max, int offset, double[] demand) {
+			return VmAllocationPolicyBinPacking.this.getLowerBound(min, max, offset, demand);
+		}
+
+	};
+
+	/**
+	 * Creates a new VmAllocationPolicyBinPacking object.
+	 *
+	 * @param list the list of hosts
+	 * @param clustered whether the capacity index clusters the hosts by residual capacity,
+	 *            which suits the policies that score the hosts, rather than keeping the order
+	 *            of the host list, which suits the first fit policy
+	 * @pre $none
+	 * @post $none
+	 */
+	public VmAllocationPolicyBinPacking(List<? extends Host> list, boolean clustered) {
+		super(list);
+		List<Host> hostList = getHostList();
+		for (int i = 0; i < hostList.size(); i++) {
+			if (!hostIndexes.containsKey(hostList.get(i))) {
+				hostIndexes.put(hostList.get(i), i);
+			}
+		}
+		capacityIndex = new HostCapacityIndex(getHostList(), clustered);
+	}
+
+	/**
+	 * Gets the score of a host for a VM, the VM being placed on the host with the lowest score.
+	 *
+	 * @param residual the residual capacities, divided by the greatest capacity of the hosts,
+	 *            the host being at the offset
+	 * @param offset the position of the first dimension of the host
+	 * @param demand the demand of the VM, divided by the greatest capacity of the hosts
+	 * @return the score of the host
+	 */
+	protected abstract double getScore(double[] residual, int offset, double[] demand);
+
+	/**
+	 * Gets a lower bound of the scores of the hosts whose residual capacities are in a box,
+	 * all of them being at least the demand of the VM. The tighter the bound, the fewer hosts
+	 * are checked.
+	 *
+	 * @param min the component-wise minimum of the residual capacities, the box being at the offset
+	 * @param max the component-wise maximum of the residual capacities, the box being at the offset
+	 * @param offset the position of the first dimension of the box
+	 * @param demand the demand of the VM, divided by the greatest capacity of the hosts
+	 * @return the lower bound of the scores
+	 */
+	protected abstract double getLowerBound(double[] min, double[] max, int offset, double[] demand);
+
+	/**
+	 * Allocates the suitable host with the lowest score for a given VM.
+	 * The hosts that fail to create the VM are left out of the next searches
+	 * until one of them creates it.
+	 *
+	 * @param vm {@inheritDoc}
+	 * @return {@inheritDoc}
+	 * @pre $none
+	 * @post $none
+	 */
+	@Override
+	public boolean allocateHostForVm(Vm vm) {
+		if (getVmKeyTable().containsKey(vm.getKey())) { // if this vm was already created
+			return false;
+		}
+		updateCapacityIndex();
+		boolean result = false;
+		List<Integer> failedHosts = new ArrayList<Integer>();
+		while (true) {
+			int idx = capacityIndex.find(vm, objective);
+			if (idx == -1) {
+				break;
+			}
+			Host host = getHostList().get(idx);
+			if (host.vmCreate(vm)) {
+				getVmKeyTable().put(vm.getKey(), host);
+				capacityIndex.update(idx);
+				result = true;
+				break;
+			}
+			capacityIndex.disable(idx);
+			failedHosts.add(idx);
+		}
+		for (int idx : failedHosts) {
+			capacityIndex.update(idx);
+		}
+		return result;
+	}
+
+	/**
+	 * Allocates hosts for a list of VMs, from the greatest to the smallest VM
+	 * according to {@link #getVmComparator()}, as the decreasing variants of
+	 * the bin packing heuristics do.
+	 *
+	 * @param vmList {@inheritDoc}
+	 * @return {@inheritDoc}
+	 */
+	@Override
+	public boolean[] allocateHostsForVms(List<? extends Vm> vmList) {
+		updateCapacityIndex();
+		final Vm[] vms = vmList.toArray(new Vm[vmList.size()]);
+		Integer[] order = new Integer[vms.length];
+		for (int i = 0; i < vms.length; i++) {
+			order[i] = i;
+		}
+		final Comparator<Vm> comparator = getVmComparator();
+		Arrays.sort(order, new Comparator<Integer>() {
+
+			@Override
+			public int compare(Integer a, Integer b) {
+				return comparator.compare(vms[a], vms[b]);
+			}
+
+		});
+		boolean[] results = new boolean[vms.length];
+		for (int i : order) {
+			results[i] = allocateHostForVm(vms[i]);
+		}
+		return results;
+	}
+
+	/**
+	 * Gets the order in which {@link #allocateHostsForVms(List)} places the VMs:
+	 * by decreasing sum of their demands, divided by the greatest capacity of the hosts.
+	 *
+	 * @return the comparator of the VMs
+	 */
+	protected Comparator<Vm> getVmComparator() {
+		return new Comparator<Vm>() {
+
+			@Override
+			public int compare(Vm a, Vm b) {
+				return Double.compare(getSize(b), getSize(a));
+			}
+
+		};
+	}
+
+	/**
+	 * Gets the sum of the demands of a VM, divided by the greatest capacity of the hosts.
+	 *
+	 * @param vm the VM
+	 * @return the size of the VM
+	 */
+	protected double getSize(Vm vm) {
+		return capacityIndex.getDemand(vm)[HostCapacityIndex.SUM];
+	}
+
+	@Override
+	public boolean allocateHostForVm(Vm vm, Host host) {
+		if (host.vmCreate(vm)) { // if vm has been succesfully created in the host
+			getVmKeyTable().put(vm.getKey(), host);
+			updateCapacityIndex(host);
+
+			Log.formatLine(
+					"%.2f: VM #" + vm.getId() + " has been allocated to the host #" + host.getId(),
+					CloudSim.clock());
+			return true;
+		}
+
+		return false;
+	}
+
+	@Override
+	public void deallocateHostForVm(Vm vm) {
+		Host host = getVmKeyTable().remove(vm.getKey());
+		if (host != null) {
+			host.vmDestroy(vm);
+			updateCapacityIndex(host);
+		}
+	}
+
+	@Override
+	public Host getHost(Vm vm) {
+		return getVmKeyTable().get(vm.getKey());
+	}
+
+	@Override
+	public Host getHost(int vmId, int userId) {
+		return getVmKeyTable().get(Vm.getKey(userId, vmId));
+	}
+
+	@Override
+	public List<Map<String, Object>> optimizeAllocation(List<? extends Vm> vmList) {
+		return null;
+	}
+
+	/**
+	 * Gets the vm table.
+	 *
+	 * @return the vm table
+	 */
+	public LongObjectHashMap<Host> getVmKeyTable() {
+		return vmTable;
+	}
+
+	/**
+	 * Gets the index of the residual capacities of the hosts.
+	 *
+	 * @return the capacity index
+	 */
+	protected HostCapacityIndex getCapacityIndex() {
+		return capacityIndex;
+	}
+
+	/**
+	 * Reads the residual capacities of the hosts that changed since they were last read
+	 * again. Changes the hosts cannot see need {@link HostCapacityIndex#updateAll()}.
+	 */
+	protected void updateCapacityIndex() {
+		capacityIndex.updateChanged();
+	}
+
+	/**
+	 * Reads the residual capacity of a host again.
+	 *
+	 * @param host the host
+	 */
+	protected void updateCapacityIndex(Host host) {
+		Integer idx = hostIndexes.get(host);
+		if (idx != null) {
+			capacityIndex.update(idx);
+		}
+	}
+
+}
@@ -0,0 +1,52 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim;
+
+import java.util.List;
+
+/**
+ * VmAllocationPolicyDotProduct is a VmAllocationPolicy that places a VM on the host whose
+ * residual capacity has the greatest dot product with the demand of the VM, over the MIPS, RAM,
+ * bandwidth and storage divided by the greatest capacity of the hosts, so that the VMs go to the
+ * hosts with much capacity left in the dimensions they need most.
+ *
+ * @since CloudSim Toolkit 4.0
+ */
+public class VmAllocationPolicyDotProduct extends VmAllocationPolicyBinPacking {
+
+	/**
+	 * Creates a new VmAllocationPolicyDotProduct object.
+	 *
+	 * @param list the list of hosts
+	 * @pre $none
+	 * @post $none
+	 */
+	public VmAllocationPolicyDotProduct(List<? extends Host> list) {
+		super(list, true);
+	}
+
+	@Override
+	protected double getScore(double[] residual, int offset, double[] demand) {
+		double product = 0;
+		for (int k = 0; k < SCORED_DIMENSIONS; k++) {
+			product += demand[k] * residual[offset + k];
+		}
+		return -product;
+	}
+
+	@Override
+	protected double getLowerBound(double[] min, double[] max, int offset, double[] demand) {
+		double product = 0;
+		for (int k = 0; k < SCORED_DIMENSIONS; k++) {
+			product += demand[k] * max[offset + k];
+		}
+		return -product;
+	}
+
+}
@@ -0,0 +1,43 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim;
+
+import java.util.List;
+
+/**
+ * VmAllocationPolicyFirstFit is a VmAllocationPolicy that places a VM on the first host of the
+ * host list that can place it, considering its MIPS, RAM, bandwidth and storage.
+ * With {@link #allocateHostsForVms(List)}, it is the First Fit Decreasing heuristic.
+ *
+ * @since CloudSim Toolkit 4.0
+ */
+public class VmAllocationPolicyFirstFit extends VmAllocationPolicyBinPacking {
+
+	/**
+	 * Creates a new VmAllocationPolicyFirstFit object.
+	 *
+	 * @param list the list of hosts
+	 * @pre $none
+	 * @post $none
+	 */
+	public VmAllocationPolicyFirstFit(List<? extends Host> list) {
+		super(list, false);
+	}
+
+	@Override
+	protected double getScore(double[] residual, int offset, double[] demand) {
+		return 0;
+	}
+
+	@Override
+	protected double getLowerBound(double[] min, double[] max, int offset, double[] demand) {
+		return 0;
+	}
+
+}
@@ -0,0 +1,54 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim;
+
+import java.util.List;
+
+/**
+ * VmAllocationPolicyL2Norm is a VmAllocationPolicy that places a VM on the host whose residual
+ * capacity is the closest to the demand of the VM, as the squared L2 norm of their difference over
+ * the MIPS, RAM, bandwidth and storage divided by the greatest capacity of the hosts, so that the
+ * hosts are filled evenly in all dimensions.
+ *
+ * @since CloudSim Toolkit 4.0
+ */
+public class VmAllocationPolicyL2Norm extends VmAllocationPolicyBinPacking {
+
+	/**
+	 * Creates a new VmAllocationPolicyL2Norm object.
+	 *
+	 * @param list the list of hosts
+	 * @pre $none
+	 * @post $none
+	 */
+	public VmAllocationPolicyL2Norm(List<? extends Host> list) {
+		super(list, true);
+	}
+
+	@Override
+	protected double getScore(double[] residual, int offset, double[] demand) {
+		double distance = 0;
+		for (int k = 0; k < SCORED_DIMENSIONS; k++) {
+			double difference = residual[offset + k] - demand[k];
+			distance += difference * difference;
+		}
+		return distance;
+	}
+
+	@Override
+	protected double getLowerBound(double[] min, double[] max, int offset, double[] demand) {
+		double distance = 0;
+		for (int k = 0; k < SCORED_DIMENSIONS; k++) {
+			double difference = Math.max(min[offset + k], demand[k]) - demand[k];
+			distance += difference * difference;
+		}
+		return distance;
+	}
+
+}
@@ -14,6 +14,10 @@ import java.util.List;
 import java.util.Map;
 
 import org.cloudbus.cloudsim.core.CloudSim;
+import org.cloudbus.cloudsim.util.IndexedIntMaxHeap;
+import org.cloudbus.cloudsim.util.LongLongHashMap;
+import org.cloudbus.cloudsim.util.LongObjectHashMap;
+import org.cloudbus.cloudsim.util.UidMapView;
 
 /**
  * VmAllocationPolicySimple is an VmAllocationPolicy that chooses, as the host for a VM, the host
@@ -27,16 +31,24 @@ import org.cloudbus.cloudsim.core.CloudSim;
 public class VmAllocationPolicySimple extends VmAllocationPolicy {
 
 	/** The map between each VM and its allocated host.
-         * The map key is a VM UID and the value is the allocated host for that VM. */
-	private Map<String, Host> vmTable;
+         * The map key is a VM key and the value is the allocated host for that VM. */
+	private LongObjectHashMap<Host> vmTable;
 
 	/** The map between each VM and the number of Pes used. 
-         * The map key is a VM UID and the value is the number of used Pes for that VM. */
-	private Map<String, Integer> usedPes;
+         * The map key is a VM key and the value is the number of used Pes for that VM. */
+	private LongLongHashMap usedPes;
 
 	/** The number of free Pes for each host from {@link #getHostList() }. */
 	private List<Integer> freePes;
 
+	/** The indexes of the hosts in {@link #getHostList() }, keyed by the number of free Pes
+         * of each host, so that the host with most free Pes is found in constant time
+         * and kept up to date in logarithmic time. */
+	private IndexedIntMaxHeap freePesHeap;
+
+	/** The index of each host in {@link #getHostList() }. */
+	private Map<Host, Integer> hostIndexes;
+
 	/**
 	 * Creates a new VmAllocationPolicySimple object.
 	 * 
@@ -47,18 +59,25 @@ public class VmAllocationPolicySimple extends VmAllocationPolicy {
 	public VmAllocationPolicySimple(List<? extends Host> list) {
 		super(list);
 
-		setFreePes(new ArrayList<Integer>());
+		List<Integer> freePes = new ArrayList<Integer>();
+		hostIndexes = new HashMap<Host, Integer>();
 		for (Host host : getHostList()) {
-			getFreePes().add(host.getNumberOfPes());
-
+			if (!hostIndexes.containsKey(host)) {
+				hostIndexes.put(host, freePes.size());
+			}
+			freePes.add(host.getNumberOfPes());
 		}
+		setFreePes(freePes);
 
-		setVmTable(new HashMap<String, Host>());
-		setUsedPes(new HashMap<String, Integer>());
+		setVmKeyTable(new LongObjectHashMap<Host>());
+		setUsedPesKeyMap(new LongLongHashMap());
 	}
 
 	/**
 	 * Allocates the host with less PEs in use for a given VM.
+	 * The hosts are tried from the one with most free PEs, the first one in the host list on ties,
+	 * until one of them creates the VM. The hosts that fail to create it leave the
+	 * {@link #freePesHeap} while the next ones are tried, so that each try takes logarithmic time.
 	 * 
 	 * @param vm {@inheritDoc}
 	 * @return {@inheritDoc}
@@ -67,42 +86,29 @@ public class VmAllocationPolicySimple extends VmAllocationPolicy {
 	 */
 	@Override
 	public boolean allocateHostForVm(Vm vm) {
+		if (getVmKeyTable().containsKey(vm.getKey())) { // if this vm was already created
+			return false;
+		}
 		int requiredPes = vm.getNumberOfPes();
 		boolean result = false;
-		int tries = 0;
-		List<Integer> freePesTmp = new ArrayList<Integer>();
-		for (Integer freePes : getFreePes()) {
-			freePesTmp.add(freePes);
+		List<Integer> failedHosts = new ArrayList<Integer>();
+		// we still trying until we find a host or until we try all of them
+		while (!freePesHeap.isEmpty()) {
+			// we want the host with less pes in use
+			int idx = freePesHeap.peek();
+			Host host = getHostList().get(idx);
+			if (host.vmCreate(vm)) { // if vm were succesfully created in the host
+				getVmKeyTable().put(vm.getKey(), host);
+				getUsedPesKeyMap().put(vm.getKey(), requiredPes);
+				setFreePes(idx, getFreePes().get(idx) - requiredPes);
+				result = true;
+				break;
+			}
+			freePesHeap.remove(idx);
+			failedHosts.add(idx);
 		}
-
-		if (!getVmTable().containsKey(vm.getUid())) { // if this vm was not created
-			do {// we still trying until we find a host or until we try all of them
-				int moreFree = Integer.MIN_VALUE;
-				int idx = -1;
-
-				// we want the host with less pes in use
-				for (int i = 0; i < freePesTmp.size(); i++) {
-					if (freePesTmp.get(i) > moreFree) {
-						moreFree = freePesTmp.get(i);
-						idx = i;
-					}
-				}
-
-				Host host = getHostList().get(idx);
-				result = host.vmCreate(vm);
-
-				if (result) { // if vm were succesfully created in the host
-					getVmTable().put(vm.getUid(), host);
-					getUsedPes().put(vm.getUid(), requiredPes);
-					getFreePes().set(idx, getFreePes().get(idx) - requiredPes);
-					result = true;
-					break;
-				} else {
-					freePesTmp.set(idx, Integer.MIN_VALUE);
-				}
-				tries++;
-			} while (!result && tries < getFreePes().size());
-
+		for (int idx : failedHosts) {
+			freePesHeap.add(idx, getFreePes().get(idx));
 		}
 
 		return result;
@@ -110,23 +116,23 @@ public class VmAllocationPolicySimple extends VmAllocationPolicy {
 
 	@Override
 	public void deallocateHostForVm(Vm vm) {
-		Host host = getVmTable().remove(vm.getUid());
-		int idx = getHostList().indexOf(host);
-		int pes = getUsedPes().remove(vm.getUid());
+		Host host = getVmKeyTable().remove(vm.getKey());
+		int pes = (int) getUsedPesKeyMap().remove(vm.getKey(), 0);
 		if (host != null) {
+			int idx = getHostIndex(host);
 			host.vmDestroy(vm);
-			getFreePes().set(idx, getFreePes().get(idx) + pes);
+			setFreePes(idx, getFreePes().get(idx) + pes);
 		}
 	}
 
 	@Override
 	public Host getHost(Vm vm) {
-		return getVmTable().get(vm.getUid());
+		return getVmKeyTable().get(vm.getKey());
 	}
 
 	@Override
 	public Host getHost(int vmId, int userId) {
-		return getVmTable().get(Vm.getUid(userId, vmId));
+		return getVmKeyTable().get(Vm.getKey(userId, vmId));
 	}
 
 	/**
@@ -134,7 +140,7 @@ public class VmAllocationPolicySimple extends VmAllocationPolicy {
 	 * 
 	 * @return the vm table
 	 */
-	public Map<String, Host> getVmTable() {
+	public LongObjectHashMap<Host> getVmKeyTable() {
 		return vmTable;
 	}
 
@@ -143,16 +149,40 @@ public class VmAllocationPolicySimple extends VmAllocationPolicy {
 	 * 
 	 * @param vmTable the vm table
 	 */
-	protected void setVmTable(Map<String, Host> vmTable) {
+	protected void setVmKeyTable(LongObjectHashMap<Host> vmTable) {
 		this.vmTable = vmTable;
 	}
 
+	/**
+	 * Gets the vm table, as a live view of {@link #getVmKeyTable()}.
+	 * 
+	 * @return the vm table, keyed by uid
+	 * @deprecated Use {@link #getVmKeyTable()}, which is keyed by the numeric keys.
+	 */
+	@Deprecated
+	public Map<String, Host> getVmTable() {
+		return UidMapView.of(getVmKeyTable());
+	}
+
+	/**
+	 * Sets the vm table.
+	 * 
+	 * @param vmTable the vm table, keyed by uid
+	 * @deprecated Use {@link #setVmKeyTable(LongObjectHashMap)}.
+	 */
+	@Deprecated
+	protected void setVmTable(Map<String, Host> vmTable) {
+		LongObjectHashMap<Host> keyTable = new LongObjectHashMap<Host>();
+		UidMapView.of(keyTable).putAll(vmTable);
+		setVmKeyTable(keyTable);
+	}
+
 	/**
 	 * Gets the used pes.
 	 * 
 	 * @return the used pes
 	 */
-	protected Map<String, Integer> getUsedPes() {
+	protected LongLongHashMap getUsedPesKeyMap() {
 		return usedPes;
 	}
 
@@ -161,10 +191,34 @@ public class VmAllocationPolicySimple extends VmAllocationPolicy {
 	 * 
 	 * @param usedPes the used pes
 	 */
-	protected void setUsedPes(Map<String, Integer> usedPes) {
+	protected void setUsedPesKeyMap(LongLongHashMap usedPes) {
 		this.usedPes = usedPes;
 	}
 
+	/**
+	 * Gets the used pes, as a live view of {@link #getUsedPesKeyMap()}.
+	 * 
+	 * @return the used pes, keyed by uid
+	 * @deprecated Use {@link #getUsedPesKeyMap()}, which is keyed by the numeric keys.
+	 */
+	@Deprecated
+	protected Map<String, Integer> getUsedPes() {
+		return UidMapView.ofIntegers(getUsedPesKeyMap());
+	}
+
+	/**
+	 * Sets the used pes.
+	 * 
+	 * @param usedPes the used pes, keyed by uid
+	 * @deprecated Use {@link #setUsedPesKeyMap(LongLongHashMap)}.
+	 */
+	@Deprecated
+	protected void setUsedPes(Map<String, Integer> usedPes) {
+		LongLongHashMap keyTable = new LongLongHashMap();
+		UidMapView.ofIntegers(keyTable).putAll(usedPes);
+		setUsedPesKeyMap(keyTable);
+	}
+
 	/**
 	 * Gets the free pes.
 	 * 
@@ -175,12 +229,39 @@ public class VmAllocationPolicySimple extends VmAllocationPolicy {
 	}
 
 	/**
-	 * Sets the free pes.
+	 * Sets the free pes. The number of free pes of a host must then be changed
+	 * by {@link #setFreePes(int, int)}, which keeps the hosts ordered by free pes.
 	 * 
 	 * @param freePes the new free pes
 	 */
 	protected void setFreePes(List<Integer> freePes) {
 		this.freePes = freePes;
+		freePesHeap = new IndexedIntMaxHeap(freePes.size());
+		for (int i = 0; i < freePes.size(); i++) {
+			freePesHeap.add(i, freePes.get(i));
+		}
+	}
+
+	/**
+	 * Sets the number of free pes of a host.
+	 * 
+	 * @param idx the index of the host in the host list
+	 * @param pes the number of free pes of the host
+	 */
+	protected void setFreePes(int idx, int pes) {
+		getFreePes().set(idx, pes);
+		freePesHeap.setKey(idx, pes);
+	}
+
+	/**
+	 * Gets the index of a host in the host list.
+	 * 
+	 * @param host the host
+	 * @return the index of the host, or -1 if it is not in the host list
+	 */
+	protected int getHostIndex(Host host) {
+		Integer idx = hostIndexes.get(host);
+		return idx == null ? -1 : idx;
 	}
 
 	@Override
@@ -192,12 +273,12 @@ public class VmAllocationPolicySimple extends VmAllocationPolicy {
 	@Override
 	public boolean allocateHostForVm(Vm vm, Host host) {
 		if (host.vmCreate(vm)) { // if vm has been succesfully created in the host
-			getVmTable().put(vm.getUid(), host);
+			getVmKeyTable().put(vm.getKey(), host);
 
 			int requiredPes = vm.getNumberOfPes();
-			int idx = getHostList().indexOf(host);
-			getUsedPes().put(vm.getUid(), requiredPes);
-			getFreePes().set(idx, getFreePes().get(idx) - requiredPes);
+			int idx = getHostIndex(host);
+			getUsedPesKeyMap().put(vm.getKey(), requiredPes);
+			setFreePes(idx, getFreePes().get(idx) - requiredPes);
 
 			Log.formatLine(
 					"%.2f: VM #" + vm.getId() + " has been allocated to the host #" + host.getId(),
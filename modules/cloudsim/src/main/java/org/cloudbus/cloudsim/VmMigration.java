@@ -0,0 +1,133 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * A VmMigration is an entry of the migration plan returned by
+ * {@link VmAllocationPolicy#optimizeAllocation(java.util.List)}: a VM and the host
+ * it has to be migrated to. It is also a read-only map with the keys "vm" and "host",
+ * which is how the entries of a migration plan are read by the datacenters.
+ *
+ * @since CloudSim Toolkit 4.0
+ */
+public class VmMigration extends AbstractMap<String, Object> {
+
+	/** The key of the VM to migrate, in the map view. */
+	public static final String VM = "vm";
+
+	/** The key of the destination host, in the map view. */
+	public static final String HOST = "host";
+
+	/** The VM to migrate. */
+	private final Vm vm;
+
+	/** The host the VM is migrated to. */
+	private final Host host;
+
+	/**
+	 * Creates a new VmMigration.
+	 *
+	 * @param vm the VM to migrate
+	 * @param host the host the VM is migrated to
+	 * @pre vm != null
+	 * @pre host != null
+	 */
+	public VmMigration(Vm vm, Host host) {
+		this.vm = vm;
+		this.host = host;
+	}
+
+	/**
+	 * Gets the VM to migrate.
+	 *
+	 * @return the VM
+	 */
+	public Vm getVm() {
+		return vm;
+	}
+
+	/**
+	 * Gets the host the VM is migrated to.
+	 *
+	 * @param <T> the type of the host
+	 * @return the destination host
+	 */
+	@SuppressWarnings("unchecked")
+	public <T extends Host> T getHost() {
+		return (T) host;
+	}
+
+	@Override
+	public Object get(Object key) {
+		if (VM.equals(key)) {
+			return vm;
+		} else if (HOST.equals(key)) {
+			return host;
+		}
+		return null;
+	}
+
+	@Override
+	public boolean containsKey(Object key) {
+		return VM.equals(key) || HOST.equals(key);
+	}
+
+	@Override
+	public int size() {
+		return 2;
+	}
+
+	@Override
+	public Set<Map.Entry<String, Object>> entrySet() {
+		return new AbstractSet<Map.Entry<String, Object>>() {
+
+			@Override
+			public Iterator<Map.Entry<String, Object>> iterator() {
+				return new Iterator<Map.Entry<String, Object>>() {
+
+					private int next;
+
+					@Override
+					public boolean hasNext() {
+						return next < 2;
+					}
+
+					@Override
+					public Map.Entry<String, Object> next() {
+						if (!hasNext()) {
+							throw new NoSuchElementException();
+						}
+						String key = next++ == 0 ? VM : HOST;
+						return new AbstractMap.SimpleImmutableEntry<String, Object>(key, get(key));
+					}
+
+					@Override
+					public void remove() {
+						throw new UnsupportedOperationException();
+					}
+
+				};
+			}
+
+			@Override
+			public int size() {
+				return 2;
+			}
+
+		};
+	}
+
+}
@@ -7,12 +7,15 @@
 
 package org.cloudbus.cloudsim;
 
-import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
 import org.cloudbus.cloudsim.lists.PeList;
+import org.cloudbus.cloudsim.util.LongHashSet;
+import org.cloudbus.cloudsim.util.LongObjectHashMap;
+import org.cloudbus.cloudsim.util.UidListView;
+import org.cloudbus.cloudsim.util.UidMapView;
+import org.cloudbus.cloudsim.util.MathUtil;
 
 /**
  * VmScheduler is an abstract class that represents the policy used by a Virtual Machine Monitor (VMM) 
@@ -30,12 +33,14 @@ public abstract class VmScheduler {
 	/** The PEs of the host where the scheduler is associated. */
 	private List<? extends Pe> peList;
 
-	/** The map of VMs to PEs, where each key is a VM id and each value is 
-         * a list of PEs allocated to that VM. */
-	private Map<String, List<Pe>> peMap;
+	/** The map of VMs to PEs, where each key is a VM key and each value is 
+         * a list of PEs allocated to that VM. 
+         * @see Vm#getKey() */
+	private LongObjectHashMap<List<Pe>> peMap;
 
-	/** The map of VMs to MIPS, were each key is a VM id and each value is 
+	/** The map of VMs to MIPS, were each key is a VM key and each value is 
          * the currently allocated MIPS from the respective PE to that VM. 
+         * The arrays are owned by the scheduler and may be reused across allocations.
          * The PEs where the MIPS capacity is get are defined
          * in the {@link #peMap}.
          * 
@@ -44,16 +49,16 @@ public abstract class VmScheduler {
          * may be confused with this one. So, the name of this one
          * may be changed to something such as allocatedMipsMap
          */
-	private Map<String, List<Double>> mipsMap;
+	private LongObjectHashMap<double[]> mipsMap;
 
 	/** The total available MIPS that can be allocated on demand for VMs. */
 	private double availableMips;
 
-	/** The VMs migrating in the host (arriving). It is the list of VM ids */
-	private List<String> vmsMigratingIn;
+	/** The VMs migrating in the host (arriving). It is the set of VM keys */
+	private LongHashSet vmsMigratingIn;
 
-	/** The VMs migrating out the host (departing). It is the list of VM ids */
-	private List<String> vmsMigratingOut;
+	/** The VMs migrating out the host (departing). It is the set of VM keys */
+	private LongHashSet vmsMigratingOut;
 
 	/**
 	 * Creates a new VmScheduler.
@@ -64,11 +69,11 @@ public abstract class VmScheduler {
 	 */
 	public VmScheduler(List<? extends Pe> pelist) {
 		setPeList(pelist);
-		setPeMap(new HashMap<String, List<Pe>>());
-		setMipsMap(new HashMap<String, List<Double>>());
+		setPeKeyMap(new LongObjectHashMap<List<Pe>>());
+		setMipsKeyMap(new LongObjectHashMap<double[]>());
 		setAvailableMips(PeList.getTotalMips(getPeList()));
-		setVmsMigratingIn(new ArrayList<String>());
-		setVmsMigratingOut(new ArrayList<String>());
+		setVmKeysMigratingIn(new LongHashSet());
+		setVmKeysMigratingOut(new LongHashSet());
 	}
 
 	/**
@@ -82,6 +87,24 @@ public abstract class VmScheduler {
 	 */
 	public abstract boolean allocatePesForVm(Vm vm, List<Double> mipsShare);
 
+	/**
+	 * Requests the allocation of PEs for a VM, given the MIPS share as a primitive array.
+	 * This is the method called by the hosts.
+	 * The default implementation adapts the request to {@link #allocatePesForVm(Vm, List)};
+	 * the schedulers of CloudSim override it so that no list is created, unless a subclass
+	 * of them overrides the list overload.
+	 * The scheduler copies the values it needs, so the array can be reused by the caller.
+	 * 
+	 * @param vm the vm
+	 * @param mipsShare the MIPS share to be allocated to each virtual PE of the VM
+	 * @return $true if this policy allows a new VM in the host, $false otherwise
+	 * @pre $none
+	 * @post $none
+	 */
+	public boolean allocatePesForVmWithArray(Vm vm, double[] mipsShare) {
+		return allocatePesForVm(vm, MathUtil.arrayToList(mipsShare));
+	}
+
 	/**
 	 * Releases PEs allocated to a VM. After that, the PEs may be used
          * on demand by other VMs.
@@ -100,7 +123,7 @@ public abstract class VmScheduler {
 	 * @post $none
 	 */
 	public void deallocatePesForAllVms() {
-		getMipsMap().clear();
+		getMipsKeyMap().clear();
 		setAvailableMips(PeList.getTotalMips(getPeList()));
 		for (Pe pe : getPeList()) {
 			pe.getPeProvisioner().deallocateMipsForAllVms();
@@ -114,7 +137,7 @@ public abstract class VmScheduler {
 	 * @return the pes allocated for the given vm
 	 */
 	public List<Pe> getPesAllocatedForVM(Vm vm) {
-		return getPeMap().get(vm.getUid());
+		return getPeKeyMap().get(vm.getKey());
 	}
 
 	/**
@@ -126,7 +149,21 @@ public abstract class VmScheduler {
 	 * @post $none
 	 */
 	public List<Double> getAllocatedMipsForVm(Vm vm) {
-		return getMipsMap().get(vm.getUid());
+		return MathUtil.arrayToList(getAllocatedMipsArrayForVm(vm));
+	}
+
+	/**
+	 * Returns the MIPS share of each host's Pe that is allocated to a given VM,
+	 * without copying it to a list. The returned array belongs to the scheduler
+	 * and must not be modified nor kept after the next allocation.
+	 * 
+	 * @param vm the vm
+	 * @return the amount of MIPS of each pe that is available to the VM, or null
+	 *         if the VM has no PE allocated
+	 * @see #getAllocatedMipsForVm(Vm)
+	 */
+	public double[] getAllocatedMipsArrayForVm(Vm vm) {
+		return getMipsKeyMap().get(vm.getKey());
 	}
 
 	/**
@@ -137,7 +174,7 @@ public abstract class VmScheduler {
 	 */
 	public double getTotalAllocatedMipsForVm(Vm vm) {
 		double allocated = 0;
-		List<Double> mipsMap = getAllocatedMipsForVm(vm);
+		double[] mipsMap = getAllocatedMipsArrayForVm(vm);
 		if (mipsMap != null) {
 			for (double mips : mipsMap) {
 				allocated += mips;
@@ -212,7 +249,7 @@ public abstract class VmScheduler {
 	 * 
 	 * @return the mips map
 	 */
-	protected Map<String, List<Double>> getMipsMap() {
+	protected LongObjectHashMap<double[]> getMipsKeyMap() {
 		return mipsMap;
 	}
 
@@ -221,10 +258,35 @@ public abstract class VmScheduler {
 	 * 
 	 * @param mipsMap the mips map
 	 */
-	protected void setMipsMap(Map<String, List<Double>> mipsMap) {
+	protected void setMipsKeyMap(LongObjectHashMap<double[]> mipsMap) {
 		this.mipsMap = mipsMap;
 	}
 
+	/**
+	 * Gets the mips map, as a view of {@link #getMipsKeyMap()}. The lists of the view are
+	 * copies of the allocated MIPS: they are stored back only when put into the view.
+	 * 
+	 * @return the mips map, keyed by uid
+	 * @deprecated Use {@link #getMipsKeyMap()}, which is keyed by {@link Vm#getKey()}.
+	 */
+	@Deprecated
+	protected Map<String, List<Double>> getMipsMap() {
+		return UidMapView.ofMips(getMipsKeyMap());
+	}
+
+	/**
+	 * Sets the mips map.
+	 * 
+	 * @param mipsMap the mips map, keyed by uid
+	 * @deprecated Use {@link #setMipsKeyMap(LongObjectHashMap)}.
+	 */
+	@Deprecated
+	protected void setMipsMap(Map<String, List<Double>> mipsMap) {
+		LongObjectHashMap<double[]> mipsKeyMap = new LongObjectHashMap<double[]>();
+		UidMapView.ofMips(mipsKeyMap).putAll(mipsMap);
+		setMipsKeyMap(mipsKeyMap);
+	}
+
 	/**
 	 * Gets the free mips.
 	 * 
@@ -246,9 +308,9 @@ public abstract class VmScheduler {
 	/**
 	 * Gets the vms migrating out.
 	 * 
-	 * @return the vms in migration
+	 * @return the keys of the vms in migration
 	 */
-	public List<String> getVmsMigratingOut() {
+	public LongHashSet getVmKeysMigratingOut() {
 		return vmsMigratingOut;
 	}
 
@@ -257,16 +319,41 @@ public abstract class VmScheduler {
 	 * 
 	 * @param vmsInMigration the new vms migrating out
 	 */
-	protected void setVmsMigratingOut(List<String> vmsInMigration) {
+	protected void setVmKeysMigratingOut(LongHashSet vmsInMigration) {
 		vmsMigratingOut = vmsInMigration;
 	}
 
+	/**
+	 * Gets the vms migrating out, as a live view of {@link #getVmKeysMigratingOut()}.
+	 * 
+	 * @return the uids of the vms in migration
+	 * @deprecated Use {@link #getVmKeysMigratingOut()}, which holds the {@link Vm#getKey() keys}
+	 *             of the vms.
+	 */
+	@Deprecated
+	public List<String> getVmsMigratingOut() {
+		return UidListView.of(getVmKeysMigratingOut());
+	}
+
+	/**
+	 * Sets the vms migrating out.
+	 * 
+	 * @param vmsInMigration the uids of the vms migrating out
+	 * @deprecated Use {@link #setVmKeysMigratingOut(LongHashSet)}.
+	 */
+	@Deprecated
+	protected void setVmsMigratingOut(List<String> vmsInMigration) {
+		LongHashSet vmKeys = new LongHashSet();
+		UidListView.of(vmKeys).addAll(vmsInMigration);
+		setVmKeysMigratingOut(vmKeys);
+	}
+
 	/**
 	 * Gets the vms migrating in.
 	 * 
-	 * @return the vms migrating in
+	 * @return the keys of the vms migrating in
 	 */
-	public List<String> getVmsMigratingIn() {
+	public LongHashSet getVmKeysMigratingIn() {
 		return vmsMigratingIn;
 	}
 
@@ -275,16 +362,41 @@ public abstract class VmScheduler {
 	 * 
 	 * @param vmsMigratingIn the new vms migrating in
 	 */
-	protected void setVmsMigratingIn(List<String> vmsMigratingIn) {
+	protected void setVmKeysMigratingIn(LongHashSet vmsMigratingIn) {
 		this.vmsMigratingIn = vmsMigratingIn;
 	}
 
+	/**
+	 * Gets the vms migrating in, as a live view of {@link #getVmKeysMigratingIn()}.
+	 * 
+	 * @return the uids of the vms migrating in
+	 * @deprecated Use {@link #getVmKeysMigratingIn()}, which holds the {@link Vm#getKey() keys}
+	 *             of the vms.
+	 */
+	@Deprecated
+	public List<String> getVmsMigratingIn() {
+		return UidListView.of(getVmKeysMigratingIn());
+	}
+
+	/**
+	 * Sets the vms migrating in.
+	 * 
+	 * @param vmsMigratingIn the uids of the vms migrating in
+	 * @deprecated Use {@link #setVmKeysMigratingIn(LongHashSet)}.
+	 */
+	@Deprecated
+	protected void setVmsMigratingIn(List<String> vmsMigratingIn) {
+		LongHashSet vmKeys = new LongHashSet();
+		UidListView.of(vmKeys).addAll(vmsMigratingIn);
+		setVmKeysMigratingIn(vmKeys);
+	}
+
 	/**
 	 * Gets the pe map.
 	 * 
 	 * @return the pe map
 	 */
-	public Map<String, List<Pe>> getPeMap() {
+	public LongObjectHashMap<List<Pe>> getPeKeyMap() {
 		return peMap;
 	}
 
@@ -293,8 +405,32 @@ public abstract class VmScheduler {
 	 * 
 	 * @param peMap the pe map
 	 */
-	protected void setPeMap(Map<String, List<Pe>> peMap) {
+	protected void setPeKeyMap(LongObjectHashMap<List<Pe>> peMap) {
 		this.peMap = peMap;
 	}
 
+	/**
+	 * Gets the pe map, as a live view of {@link #getPeKeyMap()}.
+	 * 
+	 * @return the pe map, keyed by vm uid
+	 * @deprecated Use {@link #getPeKeyMap()}, which is keyed by {@link Vm#getKey()}.
+	 */
+	@Deprecated
+	public Map<String, List<Pe>> getPeMap() {
+		return UidMapView.of(getPeKeyMap());
+	}
+
+	/**
+	 * Sets the pe map.
+	 * 
+	 * @param peMap the pe map, keyed by vm uid
+	 * @deprecated Use {@link #setPeKeyMap(LongObjectHashMap)}.
+	 */
+	@Deprecated
+	protected void setPeMap(Map<String, List<Pe>> peMap) {
+		LongObjectHashMap<List<Pe>> peKeyMap = new LongObjectHashMap<List<Pe>>();
+		UidMapView.of(peKeyMap).putAll(peMap);
+		setPeKeyMap(peKeyMap);
+	}
+
 }
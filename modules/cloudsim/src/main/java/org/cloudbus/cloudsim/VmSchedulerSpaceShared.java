@@ -9,10 +9,12 @@
 package org.cloudbus.cloudsim;
 
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
-import java.util.Map;
+
+import org.cloudbus.cloudsim.util.LongObjectHashMap;
+import org.cloudbus.cloudsim.util.MathUtil;
+import org.cloudbus.cloudsim.util.OverrideCheck;
 
 /**
  * VmSchedulerSpaceShared is a VMM allocation policy that allocates one or more PEs from a host to a 
@@ -28,9 +30,13 @@ import java.util.Map;
  */
 public class VmSchedulerSpaceShared extends VmScheduler {
 
-	/** A map between each VM and its allocated PEs, where the key is a VM ID and
+	/** Tells if a subclass overrides {@link #allocatePesForVm(Vm, List)}. */
+	private static final OverrideCheck ALLOCATE_PES = new OverrideCheck(VmSchedulerSpaceShared.class,
+			"allocatePesForVm", Vm.class, List.class);
+
+	/** A map between each VM and its allocated PEs, where the key is a VM key and
          * the value a list of PEs allocated to VM. */
-	private Map<String, List<Pe>> peAllocationMap;
+	private LongObjectHashMap<List<Pe>> peAllocationMap;
 
 	/** The list of free PEs yet available in the host. */
 	private List<Pe> freePes;
@@ -42,15 +48,38 @@ public class VmSchedulerSpaceShared extends VmScheduler {
 	 */
 	public VmSchedulerSpaceShared(List<? extends Pe> pelist) {
 		super(pelist);
-		setPeAllocationMap(new HashMap<String, List<Pe>>());
+		setPeAllocationMap(new LongObjectHashMap<List<Pe>>());
 		setFreePes(new ArrayList<Pe>());
 		getFreePes().addAll(pelist);
 	}
 
 	@Override
 	public boolean allocatePesForVm(Vm vm, List<Double> mipsShare) {
+		double[] share = MathUtil.listToArray(mipsShare);
+		if (ALLOCATE_PES.isOverriddenBy(this)) {
+			return allocatePes(vm, share);
+		}
+		return allocatePesForVmWithArray(vm, share);
+	}
+
+	@Override
+	public boolean allocatePesForVmWithArray(Vm vm, double[] mipsShare) {
+		if (ALLOCATE_PES.isOverriddenBy(this)) {
+			return allocatePesForVm(vm, MathUtil.arrayToList(mipsShare));
+		}
+		return allocatePes(vm, mipsShare);
+	}
+
+	/**
+	 * Allocates PEs for a VM, whichever overload was called.
+	 * 
+	 * @param vm the vm
+	 * @param mipsShare the MIPS share to be allocated to each virtual PE of the VM
+	 * @return true, if successful
+	 */
+	private boolean allocatePes(Vm vm, double[] mipsShare) {
 		// if there is no enough free PEs, fails
-		if (getFreePes().size() < mipsShare.size()) {
+		if (getFreePes().size() < mipsShare.length) {
 			return false;
 		}
 
@@ -58,7 +87,7 @@ public class VmSchedulerSpaceShared extends VmScheduler {
 		Iterator<Pe> peIterator = getFreePes().iterator();
 		Pe pe = peIterator.next();
 		double totalMips = 0;
-		for (Double mips : mipsShare) {
+		for (double mips : mipsShare) {
 			if (mips <= pe.getMips()) {
 				selectedPes.add(pe);
 				if (!peIterator.hasNext()) {
@@ -68,30 +97,27 @@ public class VmSchedulerSpaceShared extends VmScheduler {
 				totalMips += mips;
 			}
 		}
-		if (mipsShare.size() > selectedPes.size()) {
+		if (mipsShare.length > selectedPes.size()) {
 			return false;
 		}
 
 		getFreePes().removeAll(selectedPes);
 
-		getPeAllocationMap().put(vm.getUid(), selectedPes);
-		getMipsMap().put(vm.getUid(), mipsShare);
+		getPeAllocationMap().put(vm.getKey(), selectedPes);
+		getMipsKeyMap().put(vm.getKey(), mipsShare.clone());
 		setAvailableMips(getAvailableMips() - totalMips);
 		return true;
 	}
 
 	@Override
 	public void deallocatePesForVm(Vm vm) {
-		getFreePes().addAll(getPeAllocationMap().get(vm.getUid()));
-		getPeAllocationMap().remove(vm.getUid());
+		getFreePes().addAll(getPeAllocationMap().remove(vm.getKey()));
 
 		double totalMips = 0;
-		for (double mips : getMipsMap().get(vm.getUid())) {
+		for (double mips : getMipsKeyMap().remove(vm.getKey())) {
 			totalMips += mips;
 		}
 		setAvailableMips(getAvailableMips() + totalMips);
-
-		getMipsMap().remove(vm.getUid());
 	}
 
 	/**
@@ -99,7 +125,7 @@ public class VmSchedulerSpaceShared extends VmScheduler {
 	 * 
 	 * @param peAllocationMap the pe allocation map
 	 */
-	protected void setPeAllocationMap(Map<String, List<Pe>> peAllocationMap) {
+	protected void setPeAllocationMap(LongObjectHashMap<List<Pe>> peAllocationMap) {
 		this.peAllocationMap = peAllocationMap;
 	}
 
@@ -108,7 +134,7 @@ public class VmSchedulerSpaceShared extends VmScheduler {
 	 * 
 	 * @return the pe allocation map
 	 */
-	protected Map<String, List<Pe>> getPeAllocationMap() {
+	protected LongObjectHashMap<List<Pe>> getPeAllocationMap() {
 		return peAllocationMap;
 	}
 
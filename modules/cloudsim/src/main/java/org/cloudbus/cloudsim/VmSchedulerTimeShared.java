@@ -7,15 +7,18 @@
 
 package org.cloudbus.cloudsim;
 
-import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.Iterator;
+import java.util.Arrays;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.ListIterator;
 import java.util.Map;
 
 import org.cloudbus.cloudsim.lists.PeList;
 import org.cloudbus.cloudsim.provisioners.PeProvisioner;
+import org.cloudbus.cloudsim.util.LongObjectHashMap;
+import org.cloudbus.cloudsim.util.MathUtil;
+import org.cloudbus.cloudsim.util.OverrideCheck;
+import org.cloudbus.cloudsim.util.UidMapView;
 
 /**
  * VmSchedulerTimeShared is a Virtual Machine Monitor (VMM) allocation policy that allocates one or more PEs 
@@ -31,14 +34,36 @@ import org.cloudbus.cloudsim.provisioners.PeProvisioner;
  */
 public class VmSchedulerTimeShared extends VmScheduler {
 
-	/** The map of requested mips, where each key is a VM
-         * and each value is a list of MIPS requested by that VM. 
+	/** Tells if a subclass overrides {@link #allocatePesForVm(Vm, List)}. */
+	private static final OverrideCheck ALLOCATE_PES = new OverrideCheck(VmSchedulerTimeShared.class,
+			"allocatePesForVm", Vm.class, List.class);
+
+	/** Tells if a subclass overrides {@link #allocatePesForVm(String, List)}. */
+	private static final OverrideCheck ALLOCATE_PES_BY_UID = new OverrideCheck(VmSchedulerTimeShared.class,
+			"allocatePesForVm", String.class, List.class);
+
+	/** The map of requested mips, where each key is a VM key
+         * and each value is the MIPS requested by each virtual PE of that VM. 
          */
-	private Map<String, List<Double>> mipsMapRequested;
+	private LongObjectHashMap<double[]> mipsMapRequested;
 
 	/** The number of host's PEs in use. */
 	private int pesInUse;
 
+	/** The placement of each VM's MIPS on the PEs made by the last 
+         * {@link #updatePeProvisioning()}, in the order of the {@link #getMipsKeyMap()}. */
+	private ProvisionedVm[] provisionedVms;
+
+	/** The number of VMs in {@link #provisionedVms}, or -1 if the PEs have to be
+         * provisioned from scratch. */
+	private int provisionedVmCount;
+
+	/** The index of the PE where the placement of the next VM would start. */
+	private int provisionedEndPe;
+
+	/** The MIPS available in the PE where the placement of the next VM would start. */
+	private double provisionedEndAvailableMips;
+
 	/**
 	 * Instantiates a new vm time-shared scheduler.
 	 * 
@@ -46,39 +71,90 @@ public class VmSchedulerTimeShared extends VmScheduler {
 	 */
 	public VmSchedulerTimeShared(List<? extends Pe> pelist) {
 		super(pelist);
-		setMipsMapRequested(new HashMap<String, List<Double>>());
+		setRequestedMipsKeyMap(new LongObjectHashMap<double[]>());
+		provisionedVms = new ProvisionedVm[0];
+		provisionedVmCount = -1;
 	}
 
 	@Override
 	public boolean allocatePesForVm(Vm vm, List<Double> mipsShareRequested) {
+		double[] share = MathUtil.listToArray(mipsShareRequested);
+		if (ALLOCATE_PES.isOverriddenBy(this)) {
+			return allocatePes(vm, share);
+		}
+		return allocatePesForVmWithArray(vm, share);
+	}
+
+	@Override
+	public boolean allocatePesForVmWithArray(Vm vm, double[] mipsShareRequested) {
+		if (ALLOCATE_PES.isOverriddenBy(this)) {
+			return allocatePesForVm(vm, MathUtil.arrayToList(mipsShareRequested));
+		}
+		return allocatePes(vm, mipsShareRequested);
+	}
+
+	/**
+	 * Allocates PEs for a VM, whichever overload was called.
+	 * 
+	 * @param vm the vm
+	 * @param mipsShareRequested the mips share requested by each virtual PE of the vm
+	 * @return true, if successful
+	 */
+	private boolean allocatePes(Vm vm, double[] mipsShareRequested) {
 		/*
 		 * @todo add the same to RAM and BW provisioners
 		 */
+		long vmKey = vm.getKey();
 		if (vm.isInMigration()) {
-			if (!getVmsMigratingIn().contains(vm.getUid()) && !getVmsMigratingOut().contains(vm.getUid())) {
-				getVmsMigratingOut().add(vm.getUid());
+			if (!getVmKeysMigratingIn().contains(vmKey)) {
+				getVmKeysMigratingOut().add(vmKey);
 			}
 		} else {
-			if (getVmsMigratingOut().contains(vm.getUid())) {
-				getVmsMigratingOut().remove(vm.getUid());
-			}
+			getVmKeysMigratingOut().remove(vmKey);
 		}
-		boolean result = allocatePesForVm(vm.getUid(), mipsShareRequested);
+		boolean result = allocatePesForVmKey(vmKey, mipsShareRequested);
 		updatePeProvisioning();
 		return result;
 	}
 
 	/**
-	 * Allocate PEs for a vm.
+	 * Allocate PEs for a vm. If a subclass overrides this overload, the scheduler calls it
+	 * instead of {@link #allocatePesForVm(long, double[])}.
 	 * 
 	 * @param vmUid the vm uid
 	 * @param mipsShareRequested the list of mips share requested by the vm
 	 * @return true, if successful
 	 */
 	protected boolean allocatePesForVm(String vmUid, List<Double> mipsShareRequested) {
+		return allocatePesForVm(Vm.getKey(vmUid), MathUtil.listToArray(mipsShareRequested));
+	}
+
+	/**
+	 * Allocates PEs for a vm through {@link #allocatePesForVm(long, double[])}, or through
+	 * {@link #allocatePesForVm(String, List)} if a subclass overrides it.
+	 * 
+	 * @param vmKey the vm key
+	 * @param mipsShareRequested the mips share requested by each virtual PE of the vm
+	 * @return true, if successful
+	 */
+	private boolean allocatePesForVmKey(long vmKey, double[] mipsShareRequested) {
+		if (ALLOCATE_PES_BY_UID.isOverriddenBy(this)) {
+			return allocatePesForVm(Vm.getUid(vmKey), MathUtil.arrayToList(mipsShareRequested));
+		}
+		return allocatePesForVm(vmKey, mipsShareRequested);
+	}
+
+	/**
+	 * Allocate PEs for a vm.
+	 * 
+	 * @param vmKey the vm key
+	 * @param mipsShareRequested the mips share requested by each virtual PE of the vm
+	 * @return true, if successful
+	 */
+	protected boolean allocatePesForVm(long vmKey, double[] mipsShareRequested) {
 		double totalRequestedMips = 0;
 		double peMips = getPeCapacity();
-		for (Double mips : mipsShareRequested) {
+		for (double mips : mipsShareRequested) {
 			// each virtual PE of a VM must require not more than the capacity of a physical PE
 			if (mips > peMips) {
 				return false;
@@ -91,27 +167,30 @@ public class VmSchedulerTimeShared extends VmScheduler {
 			return false;
 		}
 
-		getMipsMapRequested().put(vmUid, mipsShareRequested);
-		setPesInUse(getPesInUse() + mipsShareRequested.size());
+		getRequestedMipsKeyMap().put(vmKey, mipsShareRequested.clone());
+		setPesInUse(getPesInUse() + mipsShareRequested.length);
 
-		if (getVmsMigratingIn().contains(vmUid)) {
+		boolean migratingOut = getVmKeysMigratingOut().contains(vmKey);
+		boolean migratingIn = getVmKeysMigratingIn().contains(vmKey);
+		if (migratingIn) {
 			// the destination host only experience 10% of the migrating VM's MIPS
 			totalRequestedMips *= 0.1;
 		}
 
-		List<Double> mipsShareAllocated = new ArrayList<Double>();
-		for (Double mipsRequested : mipsShareRequested) {
-			if (getVmsMigratingOut().contains(vmUid)) {
+		double[] mipsShareAllocated = new double[mipsShareRequested.length];
+		for (int i = 0; i < mipsShareRequested.length; i++) {
+			double mipsRequested = mipsShareRequested[i];
+			if (migratingOut) {
 				// performance degradation due to migration = 10% MIPS
 				mipsRequested *= 0.9;
-			} else if (getVmsMigratingIn().contains(vmUid)) {
+			} else if (migratingIn) {
 				// the destination host only experience 10% of the migrating VM's MIPS
 				mipsRequested *= 0.1;
 			}
-			mipsShareAllocated.add(mipsRequested);
+			mipsShareAllocated[i] = mipsRequested;
 		}
 
-		getMipsMap().put(vmUid, mipsShareAllocated);
+		getMipsKeyMap().put(vmKey, mipsShareAllocated);
 		setAvailableMips(getAvailableMips() - totalRequestedMips);
 
 		return true;
@@ -119,64 +198,144 @@ public class VmSchedulerTimeShared extends VmScheduler {
 
 	/**
 	 * Update allocation of VMs on PEs.
-         * @too The method is too long and may be refactored to make clearer its
-         * responsibility.
+	 * The MIPS of the VMs are placed one after another on the PEs, in the order of the
+	 * {@link #getMipsKeyMap()}. As the placement of a VM only depends on the VMs before it,
+	 * just the VMs from the first one that changed since the last update are placed again,
+	 * and only the PEs from where that VM started are released. The result is the same
+	 * as placing all the VMs from scratch.
 	 */
 	protected void updatePeProvisioning() {
-		getPeMap().clear();
-		for (Pe pe : getPeList()) {
-			pe.getPeProvisioner().deallocateMipsForAllVms();
+		LongObjectHashMap<double[]> mipsMap = getMipsKeyMap();
+		int previousCount = provisionedVmCount;
+		int first = 0;
+		int unchanged = Math.min(previousCount, mipsMap.size());
+		while (first < unchanged
+				&& provisionedVms[first].isPlacementOf(mipsMap.keyAt(first), mipsMap.valueAt(first))) {
+			first++;
+		}
+		if (first == previousCount && first == mipsMap.size()) {
+			return;
 		}
 
-		Iterator<Pe> peIterator = getPeList().iterator();
+		int peIndex;
+		double availableMips;
+		if (first == 0) {
+			getPeKeyMap().clear();
+			for (Pe pe : getPeList()) {
+				pe.getPeProvisioner().deallocateMipsForAllVms();
+			}
+			peIndex = 0;
+			availableMips = getPeList().get(0).getPeProvisioner().getAvailableMips();
+		} else if (first == previousCount) {
+			peIndex = provisionedEndPe;
+			availableMips = provisionedEndAvailableMips;
+		} else {
+			peIndex = provisionedVms[first].startPe;
+			availableMips = provisionedVms[first].startAvailableMips;
+			releasePes(first, previousCount, peIndex);
+		}
+
+		// if the placement fails, the next update starts from scratch
+		provisionedVmCount = -1;
+		if (provisionedVms.length < mipsMap.size()) {
+			provisionedVms = Arrays.copyOf(provisionedVms, Math.max(mipsMap.size(), provisionedVms.length * 2));
+		}
+
+		ListIterator<Pe> peIterator = getPeList().listIterator(peIndex);
 		Pe pe = peIterator.next();
 		PeProvisioner peProvisioner = pe.getPeProvisioner();
-		double availableMips = peProvisioner.getAvailableMips();
 
-		for (Map.Entry<String, List<Double>> entry : getMipsMap().entrySet()) {
-			String vmUid = entry.getKey();
-			getPeMap().put(vmUid, new LinkedList<Pe>());
+		for (int i = first; i < mipsMap.size(); i++) {
+			long vmKey = mipsMap.keyAt(i);
+			if (provisionedVms[i] == null) {
+				provisionedVms[i] = new ProvisionedVm();
+			}
+			ProvisionedVm provisionedVm = provisionedVms[i];
+			provisionedVm.start(vmKey, mipsMap.valueAt(i), peIndex, availableMips);
+			List<Pe> vmPes = new LinkedList<Pe>();
+			getPeKeyMap().put(vmKey, vmPes);
 
-			for (double mips : entry.getValue()) {
+			for (double mips : mipsMap.valueAt(i)) {
 				while (mips >= 0.1) {
 					if (availableMips >= mips) {
-						peProvisioner.allocateMipsForVm(vmUid, mips);
-						getPeMap().get(vmUid).add(pe);
+						peProvisioner.allocateMipsForVm(vmKey, mips);
+						provisionedVm.add(peIndex, mips);
+						vmPes.add(pe);
 						availableMips -= mips;
 						break;
 					} else {
-						peProvisioner.allocateMipsForVm(vmUid, availableMips);
-						getPeMap().get(vmUid).add(pe);
+						peProvisioner.allocateMipsForVm(vmKey, availableMips);
+						provisionedVm.add(peIndex, availableMips);
+						vmPes.add(pe);
 						mips -= availableMips;
 						if (mips <= 0.1) {
 							break;
 						}
 						if (!peIterator.hasNext()) {
-							Log.printConcatLine("There is no enough MIPS (", mips, ") to accommodate VM ", vmUid);
+							Log.printConcatLine("There is no enough MIPS (", mips, ") to accommodate VM ",
+									Vm.getUid((int) (vmKey >>> 32), (int) vmKey));
 							// System.exit(0);
 						}
 						pe = peIterator.next();
+						peIndex++;
 						peProvisioner = pe.getPeProvisioner();
 						availableMips = peProvisioner.getAvailableMips();
 					}
 				}
 			}
 		}
+
+		provisionedVmCount = mipsMap.size();
+		provisionedEndPe = peIndex;
+		provisionedEndAvailableMips = availableMips;
+	}
+
+	/**
+	 * Releases the PEs used by a range of the VMs placed by the last {@link #updatePeProvisioning()},
+	 * leaving the PEs as they were before the first VM of the range was placed.
+	 * 
+	 * @param first the position of the first VM to release
+	 * @param count the number of VMs placed
+	 * @param startPe the index of the PE where the first VM to release was placed from
+	 */
+	private void releasePes(int first, int count, int startPe) {
+		for (int i = first; i < count; i++) {
+			getPeKeyMap().remove(provisionedVms[i].vmKey);
+		}
+		for (int i = startPe; i < getPeList().size(); i++) {
+			getPeList().get(i).getPeProvisioner().deallocateMipsForAllVms();
+		}
+
+		// the start PE may be shared with the last VMs before the range,
+		// whose allocations are made again in the same order
+		int from = first;
+		while (from > 0 && provisionedVms[from].startPe == startPe) {
+			from--;
+		}
+		PeProvisioner peProvisioner = getPeList().get(startPe).getPeProvisioner();
+		for (int i = from; i < first; i++) {
+			ProvisionedVm provisionedVm = provisionedVms[i];
+			for (int j = 0; j < provisionedVm.size; j++) {
+				if (provisionedVm.pes[j] == startPe) {
+					peProvisioner.allocateMipsForVm(provisionedVm.vmKey, provisionedVm.mips[j]);
+				}
+			}
+		}
 	}
 
 	@Override
 	public void deallocatePesForVm(Vm vm) {
-		getMipsMapRequested().remove(vm.getUid());
+		getRequestedMipsKeyMap().remove(vm.getKey());
 		setPesInUse(0);
-		getMipsMap().clear();
+		getMipsKeyMap().clear();
 		setAvailableMips(PeList.getTotalMips(getPeList()));
 
 		for (Pe pe : getPeList()) {
 			pe.getPeProvisioner().deallocateMipsForVm(vm);
 		}
 
-		for (Map.Entry<String, List<Double>> entry : getMipsMapRequested().entrySet()) {
-			allocatePesForVm(entry.getKey(), entry.getValue());
+		for (int i = 0; i < getRequestedMipsKeyMap().size(); i++) {
+			allocatePesForVmKey(getRequestedMipsKeyMap().keyAt(i), getRequestedMipsKeyMap().valueAt(i));
 		}
 
 		updatePeProvisioning();
@@ -191,8 +350,9 @@ public class VmSchedulerTimeShared extends VmScheduler {
 	@Override
 	public void deallocatePesForAllVms() {
 		super.deallocatePesForAllVms();
-		getMipsMapRequested().clear();
+		getRequestedMipsKeyMap().clear();
 		setPesInUse(0);
+		provisionedVmCount = -1;
 	}
 
 	/**
@@ -229,7 +389,7 @@ public class VmSchedulerTimeShared extends VmScheduler {
 	 * 
 	 * @return the mips map requested
 	 */
-	protected Map<String, List<Double>> getMipsMapRequested() {
+	protected LongObjectHashMap<double[]> getRequestedMipsKeyMap() {
 		return mipsMapRequested;
 	}
 
@@ -238,8 +398,107 @@ public class VmSchedulerTimeShared extends VmScheduler {
 	 * 
 	 * @param mipsMapRequested the mips map requested
 	 */
-	protected void setMipsMapRequested(Map<String, List<Double>> mipsMapRequested) {
+	protected void setRequestedMipsKeyMap(LongObjectHashMap<double[]> mipsMapRequested) {
 		this.mipsMapRequested = mipsMapRequested;
 	}
 
+	/**
+	 * Gets the mips map requested, as a view of {@link #getRequestedMipsKeyMap()}. The lists
+	 * of the view are copies of the requested MIPS: they are stored back only when put into the view.
+	 * 
+	 * @return the mips map requested, keyed by uid
+	 * @deprecated Use {@link #getRequestedMipsKeyMap()}, which is keyed by the numeric keys.
+	 */
+	@Deprecated
+	protected Map<String, List<Double>> getMipsMapRequested() {
+		return UidMapView.ofMips(getRequestedMipsKeyMap());
+	}
+
+	/**
+	 * Sets the mips map requested.
+	 * 
+	 * @param mipsMapRequested the mips map requested, keyed by uid
+	 * @deprecated Use {@link #setRequestedMipsKeyMap(LongObjectHashMap)}.
+	 */
+	@Deprecated
+	protected void setMipsMapRequested(Map<String, List<Double>> mipsMapRequested) {
+		LongObjectHashMap<double[]> requestedMipsKeyMap = new LongObjectHashMap<double[]>();
+		UidMapView.ofMips(requestedMipsKeyMap).putAll(mipsMapRequested);
+		setRequestedMipsKeyMap(requestedMipsKeyMap);
+	}
+
+	/**
+	 * The placement of the MIPS of a VM on the PEs, recorded by the {@link #updatePeProvisioning()}.
+	 */
+	private static final class ProvisionedVm {
+
+		/** The VM key. */
+		long vmKey;
+
+		/** A copy of the MIPS share that was placed. */
+		double[] mipsShare = new double[0];
+
+		/** The index of the PE where the placement started. */
+		int startPe;
+
+		/** The MIPS available in that PE before the placement. */
+		double startAvailableMips;
+
+		/** The index of the PE of each allocation made to the VM. */
+		int[] pes = new int[4];
+
+		/** The MIPS of each allocation made to the VM. */
+		double[] mips = new double[4];
+
+		/** The number of allocations made to the VM. */
+		int size;
+
+		/**
+		 * Starts recording a new placement.
+		 * 
+		 * @param vmKey the VM key
+		 * @param mipsShare the MIPS share being placed
+		 * @param startPe the index of the PE where the placement starts
+		 * @param startAvailableMips the MIPS available in that PE
+		 */
+		void start(long vmKey, double[] mipsShare, int startPe, double startAvailableMips) {
+			this.vmKey = vmKey;
+			if (this.mipsShare.length != mipsShare.length) {
+				this.mipsShare = new double[mipsShare.length];
+			}
+			System.arraycopy(mipsShare, 0, this.mipsShare, 0, mipsShare.length);
+			this.startPe = startPe;
+			this.startAvailableMips = startAvailableMips;
+			size = 0;
+		}
+
+		/**
+		 * Records an allocation made to the VM.
+		 * 
+		 * @param pe the index of the PE
+		 * @param allocatedMips the MIPS allocated from that PE
+		 */
+		void add(int pe, double allocatedMips) {
+			if (size == pes.length) {
+				pes = Arrays.copyOf(pes, size * 2);
+				mips = Arrays.copyOf(mips, size * 2);
+			}
+			pes[size] = pe;
+			mips[size] = allocatedMips;
+			size++;
+		}
+
+		/**
+		 * Checks whether this is the placement of a given VM and MIPS share.
+		 * 
+		 * @param vmKey the VM key
+		 * @param mipsShare the MIPS share
+		 * @return true, if the VM and its MIPS share are the ones placed
+		 */
+		boolean isPlacementOf(long vmKey, double[] mipsShare) {
+			return this.vmKey == vmKey && Arrays.equals(this.mipsShare, mipsShare);
+		}
+
+	}
+
 }
@@ -7,11 +7,7 @@
 
 package org.cloudbus.cloudsim;
 
-import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
-import java.util.Map.Entry;
 
 import org.cloudbus.cloudsim.lists.PeList;
 
@@ -42,50 +38,46 @@ public class VmSchedulerTimeSharedOverSubscription extends VmSchedulerTimeShared
          * It cannot be allocated more CPU capacity for each virtual PE than the MIPS 
          * capacity of a single physical PE.
 	 * 
-	 * @param vmUid the vm uid
-	 * @param mipsShareRequested the list of mips share requested
+	 * @param vmKey the vm key
+	 * @param mipsShareRequested the mips share requested by each virtual PE
 	 * @return true, if successful
 	 */
 	@Override
-	protected boolean allocatePesForVm(String vmUid, List<Double> mipsShareRequested) {
+	protected boolean allocatePesForVm(long vmKey, double[] mipsShareRequested) {
 		double totalRequestedMips = 0;
 
 		// if the requested mips is bigger than the capacity of a single PE, we cap
 		// the request to the PE's capacity
-		List<Double> mipsShareRequestedCapped = new ArrayList<Double>();
+		double[] mipsShareRequestedCapped = new double[mipsShareRequested.length];
 		double peMips = getPeCapacity();
-		for (Double mips : mipsShareRequested) {
-			if (mips > peMips) {
-				mipsShareRequestedCapped.add(peMips);
-				totalRequestedMips += peMips;
-			} else {
-				mipsShareRequestedCapped.add(mips);
-				totalRequestedMips += mips;
-			}
+		for (int i = 0; i < mipsShareRequested.length; i++) {
+			double mips = Math.min(mipsShareRequested[i], peMips);
+			mipsShareRequestedCapped[i] = mips;
+			totalRequestedMips += mips;
 		}
 
-		getMipsMapRequested().put(vmUid, mipsShareRequested);
-		setPesInUse(getPesInUse() + mipsShareRequested.size());
+		getRequestedMipsKeyMap().put(vmKey, mipsShareRequested.clone());
+		setPesInUse(getPesInUse() + mipsShareRequested.length);
 
-		if (getVmsMigratingIn().contains(vmUid)) {
+		boolean migratingOut = getVmKeysMigratingOut().contains(vmKey);
+		boolean migratingIn = getVmKeysMigratingIn().contains(vmKey);
+		if (migratingIn) {
 			// the destination host only experience 10% of the migrating VM's MIPS
 			totalRequestedMips *= 0.1;
 		}
 
 		if (getAvailableMips() >= totalRequestedMips) {
-			List<Double> mipsShareAllocated = new ArrayList<Double>();
-			for (Double mipsRequested : mipsShareRequestedCapped) {
-				if (getVmsMigratingOut().contains(vmUid)) {
+			for (int i = 0; i < mipsShareRequestedCapped.length; i++) {
+				if (migratingOut) {
 					// performance degradation due to migration = 10% MIPS
-					mipsRequested *= 0.9;
-				} else if (getVmsMigratingIn().contains(vmUid)) {
+					mipsShareRequestedCapped[i] *= 0.9;
+				} else if (migratingIn) {
 					// the destination host only experience 10% of the migrating VM's MIPS
-					mipsRequested *= 0.1;
+					mipsShareRequestedCapped[i] *= 0.1;
 				}
-				mipsShareAllocated.add(mipsRequested);
 			}
 
-			getMipsMap().put(vmUid, mipsShareAllocated);
+			getMipsKeyMap().put(vmKey, mipsShareRequestedCapped);
 			setAvailableMips(getAvailableMips() - totalRequestedMips);
 		} else {
 			redistributeMipsDueToOverSubscription();
@@ -103,27 +95,17 @@ public class VmSchedulerTimeSharedOverSubscription extends VmSchedulerTimeShared
 		// proportionally
 		double totalRequiredMipsByAllVms = 0;
 
-		Map<String, List<Double>> mipsMapCapped = new HashMap<String, List<Double>>();
-		for (Entry<String, List<Double>> entry : getMipsMapRequested().entrySet()) {
+		// requests bigger than the capacity of a single PE are capped to the PE's capacity
+		double peMips = getPeCapacity();
+		for (int i = 0; i < getRequestedMipsKeyMap().size(); i++) {
 
 			double requiredMipsByThisVm = 0.0;
-			String vmId = entry.getKey();
-			List<Double> mipsShareRequested = entry.getValue();
-			List<Double> mipsShareRequestedCapped = new ArrayList<Double>();
-			double peMips = getPeCapacity();
-			for (Double mips : mipsShareRequested) {
-				if (mips > peMips) {
-					mipsShareRequestedCapped.add(peMips);
-					requiredMipsByThisVm += peMips;
-				} else {
-					mipsShareRequestedCapped.add(mips);
-					requiredMipsByThisVm += mips;
-				}
+			long vmKey = getRequestedMipsKeyMap().keyAt(i);
+			for (double mips : getRequestedMipsKeyMap().valueAt(i)) {
+				requiredMipsByThisVm += Math.min(mips, peMips);
 			}
 
-			mipsMapCapped.put(vmId, mipsShareRequestedCapped);
-
-			if (getVmsMigratingIn().contains(entry.getKey())) {
+			if (getVmKeysMigratingIn().contains(vmKey)) {
 				// the destination host only experience 10% of the migrating VM's MIPS
 				requiredMipsByThisVm *= 0.1;
 			}
@@ -134,21 +116,24 @@ public class VmSchedulerTimeSharedOverSubscription extends VmSchedulerTimeShared
 		double scalingFactor = totalAvailableMips / totalRequiredMipsByAllVms;
 
 		// Clear the old MIPS allocation
-		getMipsMap().clear();
+		getMipsKeyMap().clear();
 
 		// Update the actual MIPS allocated to the VMs
-		for (Entry<String, List<Double>> entry : mipsMapCapped.entrySet()) {
-			String vmUid = entry.getKey();
-			List<Double> requestedMips = entry.getValue();
-
-			List<Double> updatedMipsAllocation = new ArrayList<Double>();
-			for (Double mips : requestedMips) {
-				if (getVmsMigratingOut().contains(vmUid)) {
+		for (int i = 0; i < getRequestedMipsKeyMap().size(); i++) {
+			long vmKey = getRequestedMipsKeyMap().keyAt(i);
+			double[] requestedMips = getRequestedMipsKeyMap().valueAt(i);
+			boolean migratingOut = getVmKeysMigratingOut().contains(vmKey);
+			boolean migratingIn = getVmKeysMigratingIn().contains(vmKey);
+
+			double[] updatedMipsAllocation = new double[requestedMips.length];
+			for (int j = 0; j < requestedMips.length; j++) {
+				double mips = Math.min(requestedMips[j], peMips);
+				if (migratingOut) {
 					// the original amount is scaled
 					mips *= scalingFactor;
 					// performance degradation due to migration = 10% MIPS
 					mips *= 0.9;
-				} else if (getVmsMigratingIn().contains(vmUid)) {
+				} else if (migratingIn) {
 					// the destination host only experiences 10% of the migrating VM's MIPS
 					mips *= 0.1;
 					// the final 10% of the requested MIPS are scaled
@@ -157,11 +142,11 @@ public class VmSchedulerTimeSharedOverSubscription extends VmSchedulerTimeShared
 					mips *= scalingFactor;
 				}
 
-				updatedMipsAllocation.add(Math.floor(mips));
+				updatedMipsAllocation[j] = Math.floor(mips);
 			}
 
 			// add in the new map
-			getMipsMap().put(vmUid, updatedMipsAllocation);
+			getMipsKeyMap().put(vmKey, updatedMipsAllocation);
 
 		}
 
@@ -2,7 +2,10 @@ package org.cloudbus.cloudsim.container.containerPlacementPolicies;
 
 import org.cloudbus.cloudsim.container.core.ContainerVm;
 
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
+import java.util.NoSuchElementException;
 import java.util.Set;
 
 /**
@@ -19,4 +22,47 @@ public abstract class ContainerPlacementPolicy {
      */
     public abstract ContainerVm getContainerVm(List<ContainerVm> vmList, Object obj, Set<? extends ContainerVm> excludedVmList);
 
+    /**
+     * Gets the VMs one after another, in the order they are chosen by {@link #getContainerVm} when each
+     * chosen VM is excluded before choosing the next one, which is how the VMs are tried until one is
+     * suitable. The policies ordering the VMs by a value override it, so that the VMs are not all
+     * scanned again for each try.
+     *
+     * @param vmList         the VM list
+     * @param obj            the object to place
+     * @param excludedVmList the excluded VMs
+     * @return the VMs, in the order they are chosen
+     */
+    public Iterator<ContainerVm> getContainerVms(final List<ContainerVm> vmList, final Object obj, Set<? extends ContainerVm> excludedVmList) {
+        final Set<ContainerVm> excludedVms = new HashSet<>(excludedVmList);
+        return new Iterator<ContainerVm>() {
+
+            private ContainerVm next;
+
+            @Override
+            public boolean hasNext() {
+                if (next == null) {
+                    next = getContainerVm(vmList, obj, excludedVms);
+                }
+                return next != null;
+            }
+
+            @Override
+            public ContainerVm next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                ContainerVm containerVm = next;
+                excludedVms.add(containerVm);
+                next = null;
+                return containerVm;
+            }
+
+            @Override
+            public void remove() {
+                throw new UnsupportedOperationException();
+            }
+        };
+    }
+
 }
@@ -2,7 +2,9 @@ package org.cloudbus.cloudsim.container.containerPlacementPolicies;
 
 
 import org.cloudbus.cloudsim.container.core.ContainerVm;
+import org.cloudbus.cloudsim.container.utils.OrderedSelection;
 
+import java.util.Iterator;
 import java.util.List;
 import java.util.Set;
 
@@ -26,4 +28,15 @@ public class ContainerPlacementPolicyFirstFit extends ContainerPlacementPolicy {
         return containerVm;
     }
 
+    @Override
+    public Iterator<ContainerVm> getContainerVms(List<ContainerVm> vmList, Object obj, Set<? extends ContainerVm> excludedVmList) {
+        // the same value for all the vms keeps them in the order of the list
+        return new OrderedSelection<ContainerVm>(vmList, excludedVmList, false) {
+            @Override
+            protected double getValue(ContainerVm containerVm) {
+                return 0;
+            }
+        };
+    }
+
 }
@@ -1,7 +1,9 @@
 package org.cloudbus.cloudsim.container.containerPlacementPolicies;
 
 import org.cloudbus.cloudsim.container.core.ContainerVm;
+import org.cloudbus.cloudsim.container.utils.OrderedSelection;
 
+import java.util.Iterator;
 import java.util.List;
 import java.util.Set;
 
@@ -28,4 +30,15 @@ public class ContainerPlacementPolicyLeastFull extends ContainerPlacementPolicy{
            }
         return selectedVm;
     }
+
+    @Override
+    public Iterator<ContainerVm> getContainerVms(List<ContainerVm> vmList, Object obj, Set<? extends ContainerVm> excludedVmList) {
+        return new OrderedSelection<ContainerVm>(vmList, excludedVmList, false) {
+            @Override
+            protected double getValue(ContainerVm containerVm) {
+                double containerUsage = containerVm.getContainerScheduler().getAvailableMips();
+                return containerUsage < Double.MAX_VALUE ? containerUsage : Double.NaN;
+            }
+        };
+    }
 }
@@ -1,7 +1,9 @@
 package org.cloudbus.cloudsim.container.containerPlacementPolicies;
 
 import org.cloudbus.cloudsim.container.core.ContainerVm;
+import org.cloudbus.cloudsim.container.utils.OrderedSelection;
 
+import java.util.Iterator;
 import java.util.List;
 import java.util.Set;
 
@@ -31,4 +33,15 @@ public class ContainerPlacementPolicyMostFull extends ContainerPlacementPolicy {
 
         return selectedVm;
     }
+
+    @Override
+    public Iterator<ContainerVm> getContainerVms(List<ContainerVm> vmList, Object obj, Set<? extends ContainerVm> excludedVmList) {
+        return new OrderedSelection<ContainerVm>(vmList, excludedVmList, true) {
+            @Override
+            protected double getValue(ContainerVm containerVm) {
+                double containerUsage = containerVm.getContainerScheduler().getAvailableMips();
+                return containerUsage > Double.MIN_VALUE ? containerUsage : Double.NaN;
+            }
+        };
+    }
 }
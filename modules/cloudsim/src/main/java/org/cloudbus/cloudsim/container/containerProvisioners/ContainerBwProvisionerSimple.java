@@ -3,10 +3,8 @@
  */
 package org.cloudbus.cloudsim.container.containerProvisioners;
 
-import java.util.HashMap;
-import java.util.Map;
-
 import org.cloudbus.cloudsim.container.core.Container;
+import org.cloudbus.cloudsim.util.LongLongHashMap;
 
 /**
  * ContainerBwProvisionerSimple is a class that implements a simple best effort allocation policy: if there
@@ -20,7 +18,7 @@ public class ContainerBwProvisionerSimple extends ContainerBwProvisioner {
     /**
      * The container Bw table.
      */
-    private Map<String, Long> containerBwTable;
+    private LongLongHashMap containerBwTable;
 
     /**
      * Instantiates a new container bw provisioner simple.
@@ -29,7 +27,7 @@ public class ContainerBwProvisionerSimple extends ContainerBwProvisioner {
      */
     public ContainerBwProvisionerSimple(long containerBw) {
         super(containerBw);
-        setContainerBwTable(new HashMap<String, Long>());
+        setContainerBwTable(new LongLongHashMap());
     }
 
     /**
@@ -45,7 +43,7 @@ public class ContainerBwProvisionerSimple extends ContainerBwProvisioner {
         deallocateBwForContainer(container);
         if (getAvailableVmBw() >= bw) {
             setAvailableVmBw(getAvailableVmBw() - bw);
-            getContainerBwTable().put(container.getUid(), bw);
+            getContainerBwTable().put(container.getKey(), bw);
             container.setCurrentAllocatedBw(getAllocatedBwForContainer(container));
             return true;
         }
@@ -62,10 +60,7 @@ public class ContainerBwProvisionerSimple extends ContainerBwProvisioner {
      */
     @Override
     public long getAllocatedBwForContainer(Container container) {
-        if (getContainerBwTable().containsKey(container.getUid())) {
-            return getContainerBwTable().get(container.getUid());
-        }
-        return 0;
+        return getContainerBwTable().get(container.getKey(), 0);
     }
 
     /**
@@ -74,8 +69,8 @@ public class ContainerBwProvisionerSimple extends ContainerBwProvisioner {
      */
     @Override
     public void deallocateBwForContainer(Container container) {
-        if (getContainerBwTable().containsKey(container.getUid())) {
-            long amountFreed = getContainerBwTable().remove(container.getUid());
+        if (getContainerBwTable().containsKey(container.getKey())) {
+            long amountFreed = getContainerBwTable().remove(container.getKey(), 0);
             setAvailableVmBw(getAvailableVmBw() + amountFreed);
             container.setCurrentAllocatedBw(0);
         }
@@ -111,14 +106,14 @@ public class ContainerBwProvisionerSimple extends ContainerBwProvisioner {
     /**
      * @return the containerBwTable
      */
-    protected Map<String, Long> getContainerBwTable() {
+    protected LongLongHashMap getContainerBwTable() {
         return containerBwTable;
     }
 
     /**
      * @param containerBwTable the containerBwTable to set
      */
-    protected void setContainerBwTable(Map<String, Long> containerBwTable) {
+    protected void setContainerBwTable(LongLongHashMap containerBwTable) {
         this.containerBwTable = containerBwTable;
     }
 
@@ -2,6 +2,7 @@ package org.cloudbus.cloudsim.container.containerProvisioners;
 
 import java.util.List;
 
+import org.cloudbus.cloudsim.Vm;
 import org.cloudbus.cloudsim.container.core.Container;
 
 
@@ -49,7 +50,22 @@ public abstract class ContainerPeProvisioner {
 	 * @pre $none
 	 * @post $none
 	 */
-	public abstract boolean allocateMipsForContainer(String containerUid, double mips);
+	public boolean allocateMipsForContainer(String containerUid, double mips) {
+		return allocateMipsForContainer(Vm.getKey(containerUid), mips);
+	}
+
+	/**
+	 * Allocates MIPS for a given container.
+	 * 
+	 * @param containerKey the container key
+	 * @param mips the mips
+	 * 
+	 * @return $true if the MIPS could be allocated; $false otherwise
+	 * 
+	 * @pre $none
+	 * @post $none
+	 */
+	public abstract boolean allocateMipsForContainer(long containerKey, double mips);
 
 	/**
 	 * Allocates MIPS for a given container.
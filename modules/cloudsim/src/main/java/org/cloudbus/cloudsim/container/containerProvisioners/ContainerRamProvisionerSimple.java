@@ -1,9 +1,7 @@
 package org.cloudbus.cloudsim.container.containerProvisioners;
 
-import java.util.HashMap;
-import java.util.Map;
-
 import org.cloudbus.cloudsim.container.core.Container;
+import org.cloudbus.cloudsim.util.LongObjectHashMap;
 
 /**
  * @author sareh
@@ -12,14 +10,14 @@ public class ContainerRamProvisionerSimple extends ContainerRamProvisioner {
     /**
      * The RAM table.
      */
-    private Map<String, Float> containerRamTable;
+    private LongObjectHashMap<Float> containerRamTable;
 
     /**
      * @param availableRam the available ram
      */
     public ContainerRamProvisionerSimple(float availableRam) {
         super(availableRam);
-        setContainerRamTable(new HashMap<String, Float>());
+        setContainerRamTable(new LongObjectHashMap<Float>());
     }
 
     /**
@@ -41,7 +39,7 @@ public class ContainerRamProvisionerSimple extends ContainerRamProvisioner {
 
         if (getAvailableVmRam() >= ram) {
             setAvailableVmRam(getAvailableVmRam() - ram);
-            getContainerRamTable().put(container.getUid(), ram);
+            getContainerRamTable().put(container.getKey(), ram);
             container.setCurrentAllocatedRam(getAllocatedRamForContainer(container));
             return true;
         }
@@ -58,8 +56,8 @@ public class ContainerRamProvisionerSimple extends ContainerRamProvisioner {
      */
     @Override
     public float getAllocatedRamForContainer(Container container) {
-        if (getContainerRamTable().containsKey(container.getUid())) {
-            return getContainerRamTable().get(container.getUid());
+        if (getContainerRamTable().containsKey(container.getKey())) {
+            return getContainerRamTable().get(container.getKey());
         }
         return 0;
     }
@@ -70,8 +68,8 @@ public class ContainerRamProvisionerSimple extends ContainerRamProvisioner {
      */
     @Override
     public void deallocateRamForContainer(Container container) {
-        if (getContainerRamTable().containsKey(container.getUid())) {
-            float amountFreed = getContainerRamTable().remove(container.getUid());
+        if (getContainerRamTable().containsKey(container.getKey())) {
+            float amountFreed = getContainerRamTable().remove(container.getKey());
             setAvailableVmRam(getAvailableVmRam() + amountFreed);
             container.setCurrentAllocatedRam(0);
         }
@@ -110,14 +108,14 @@ public class ContainerRamProvisionerSimple extends ContainerRamProvisioner {
      *
      * @return the containerRamTable
      */
-    protected Map<String, Float> getContainerRamTable() {
+    protected LongObjectHashMap<Float> getContainerRamTable() {
         return containerRamTable;
     }
 
     /**
      * @param containerRamTable the containerRamTable to set
      */
-    protected void setContainerRamTable(Map<String, Float> containerRamTable) {
+    protected void setContainerRamTable(LongObjectHashMap<Float> containerRamTable) {
         this.containerRamTable = containerRamTable;
     }
 
@@ -3,12 +3,12 @@
  */
 package org.cloudbus.cloudsim.container.containerProvisioners;
 
-import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.Arrays;
 import java.util.List;
-import java.util.Map;
 
 import org.cloudbus.cloudsim.container.core.Container;
+import org.cloudbus.cloudsim.util.LongObjectHashMap;
+import org.cloudbus.cloudsim.util.MathUtil;
 
 /**
  * @author Sareh Fotuhi Piraghaj
@@ -18,7 +18,7 @@ public class CotainerPeProvisionerSimple extends ContainerPeProvisioner {
     /**
      * The pe table.
      */
-    private Map<String, List<Double>> peTable;
+    private LongObjectHashMap<double[]> peTable;
     /**
      * @param mips
      */
@@ -31,7 +31,7 @@ public class CotainerPeProvisionerSimple extends ContainerPeProvisioner {
      */
     public CotainerPeProvisionerSimple(double availableMips) {
         super(availableMips);
-        setPeTable(new HashMap<String, ArrayList<Double>>());
+        setPeTable(new LongObjectHashMap<double[]>());
     }
 
     /* (non-Javadoc)
@@ -41,30 +41,29 @@ public class CotainerPeProvisionerSimple extends ContainerPeProvisioner {
     public boolean allocateMipsForContainer(Container container, double mips) {
         // TODO Auto-generated method stub
 
-        return allocateMipsForContainer(container.getUid(), mips);
+        return allocateMipsForContainer(container.getKey(), mips);
     }
 
     /* (non-Javadoc)
      * @see ContainerVmPeProvisioner#allocateMipsForContainer(java.lang.String, double)
      */
     @Override
-    public boolean allocateMipsForContainer(String containerUid, double mips) {
+    public boolean allocateMipsForContainer(long containerKey, double mips) {
         if (getAvailableMips() < mips) {
             return false;
         }
 
-        List<Double> allocatedMips;
+        double[] allocatedMips = getPeTable().get(containerKey);
 
-        if (getPeTable().containsKey(containerUid)) {
-            allocatedMips = getPeTable().get(containerUid);
+        if (allocatedMips == null) {
+            allocatedMips = new double[]{mips};
         } else {
-            allocatedMips = new ArrayList<>();
+            allocatedMips = Arrays.copyOf(allocatedMips, allocatedMips.length + 1);
+            allocatedMips[allocatedMips.length - 1] = mips;
         }
-
-        allocatedMips.add(mips);
+        getPeTable().put(containerKey, allocatedMips);
 
         setAvailableMips(getAvailableMips() - mips);
-        getPeTable().put(containerUid, allocatedMips);
 
         return true;
     }
@@ -85,7 +84,7 @@ public class CotainerPeProvisionerSimple extends ContainerPeProvisioner {
 
         setAvailableMips(getAvailableMips() + getTotalAllocatedMipsForContainer(container) - totalMipsToAllocate);
 
-        getPeTable().put(container.getUid(), mips);
+        getPeTable().put(container.getKey(), MathUtil.listToArray(mips));
 
         return true;
     }
@@ -105,10 +104,7 @@ public class CotainerPeProvisionerSimple extends ContainerPeProvisioner {
      */
     @Override
     public List<Double> getAllocatedMipsForContainer(Container container) {
-        if (getPeTable().containsKey(container.getUid())) {
-            return getPeTable().get(container.getUid());
-        }
-        return null;
+        return MathUtil.arrayToList(getPeTable().get(container.getKey()));
     }
 
     /* (non-Javadoc)
@@ -116,9 +112,10 @@ public class CotainerPeProvisionerSimple extends ContainerPeProvisioner {
      */
     @Override
     public double getTotalAllocatedMipsForContainer(Container container) {
-        if (getPeTable().containsKey(container.getUid())) {
+        double[] allocatedMips = getPeTable().get(container.getKey());
+        if (allocatedMips != null) {
             double totalAllocatedMips = 0.0;
-            for (double mips : getPeTable().get(container.getUid())) {
+            for (double mips : allocatedMips) {
                 totalAllocatedMips += mips;
             }
             return totalAllocatedMips;
@@ -132,11 +129,9 @@ public class CotainerPeProvisionerSimple extends ContainerPeProvisioner {
     @Override
     public double getAllocatedMipsForContainerByVirtualPeId(Container container,
                                                             int peId) {
-        if (getPeTable().containsKey(container.getUid())) {
-            try {
-                return getPeTable().get(container.getUid()).get(peId);
-            } catch (Exception e) {
-            }
+        double[] allocatedMips = getPeTable().get(container.getKey());
+        if (allocatedMips != null && peId >= 0 && peId < allocatedMips.length) {
+            return allocatedMips[peId];
         }
         return 0;
     }
@@ -146,11 +141,11 @@ public class CotainerPeProvisionerSimple extends ContainerPeProvisioner {
      */
     @Override
     public void deallocateMipsForContainer(Container container) {
-        if (getPeTable().containsKey(container.getUid())) {
-            for (double mips : getPeTable().get(container.getUid())) {
+        double[] allocatedMips = getPeTable().remove(container.getKey());
+        if (allocatedMips != null) {
+            for (double mips : allocatedMips) {
                 setAvailableMips(getAvailableMips() + mips);
             }
-            getPeTable().remove(container.getUid());
         }
     }
 
@@ -159,7 +154,7 @@ public class CotainerPeProvisionerSimple extends ContainerPeProvisioner {
      *
      * @return the peTable
      */
-    protected Map<String, List<Double>> getPeTable() {
+    protected LongObjectHashMap<double[]> getPeTable() {
         return peTable;
     }
 
@@ -168,9 +163,8 @@ public class CotainerPeProvisionerSimple extends ContainerPeProvisioner {
      *
      * @param peTable the peTable to set
      */
-    @SuppressWarnings("unchecked")
-    protected void setPeTable(Map<String, ? extends List<Double>> peTable) {
-        this.peTable = (Map<String, List<Double>>) peTable;
+    protected void setPeTable(LongObjectHashMap<double[]> peTable) {
+        this.peTable = peTable;
     }
 
 
@@ -1,9 +1,7 @@
 package org.cloudbus.cloudsim.container.containerVmProvisioners;
 
 import org.cloudbus.cloudsim.container.core.ContainerVm;
-
-import java.util.HashMap;
-import java.util.Map;
+import org.cloudbus.cloudsim.util.LongLongHashMap;
 
 /**
  * Created by sareh on 10/07/15.
@@ -13,7 +11,7 @@ public class ContainerVmBwProvisionerSimple extends ContainerVmBwProvisioner {
     /**
      * The bw table.
      */
-    private Map<String, Long> bwTable;
+    private LongLongHashMap bwTable;
 
     /**
      * Instantiates a new bw provisioner simple.
@@ -22,7 +20,7 @@ public class ContainerVmBwProvisionerSimple extends ContainerVmBwProvisioner {
      */
     public ContainerVmBwProvisionerSimple(long bw) {
         super(bw);
-        setBwTable(new HashMap<String, Long>());
+        setBwTable(new LongLongHashMap());
     }
 
 
@@ -32,7 +30,7 @@ public class ContainerVmBwProvisionerSimple extends ContainerVmBwProvisioner {
 
         if (getAvailableBw() >= bw) {
             setAvailableBw(getAvailableBw() - bw);
-            getBwTable().put(containerVm.getUid(), bw);
+            getBwTable().put(containerVm.getKey(), bw);
             containerVm.setCurrentAllocatedBw(getAllocatedBwForContainerVm(containerVm));
             return true;
         }
@@ -43,16 +41,13 @@ public class ContainerVmBwProvisionerSimple extends ContainerVmBwProvisioner {
 
     @Override
     public long getAllocatedBwForContainerVm(ContainerVm containerVm) {
-        if (getBwTable().containsKey(containerVm.getUid())) {
-            return getBwTable().get(containerVm.getUid());
-        }
-        return 0;
+        return getBwTable().get(containerVm.getKey(), 0);
     }
 
     @Override
     public void deallocateBwForContainerVm(ContainerVm containerVm) {
-        if (getBwTable().containsKey(containerVm.getUid())) {
-            long amountFreed = getBwTable().remove(containerVm.getUid());
+        if (getBwTable().containsKey(containerVm.getKey())) {
+            long amountFreed = getBwTable().remove(containerVm.getKey(), 0);
             setAvailableBw(getAvailableBw() + amountFreed);
             containerVm.setCurrentAllocatedBw(0);
         }
@@ -86,7 +81,7 @@ public class ContainerVmBwProvisionerSimple extends ContainerVmBwProvisioner {
      *
      * @return the bw table
      */
-    protected Map<String, Long> getBwTable() {
+    protected LongLongHashMap getBwTable() {
         return bwTable;
     }
 
@@ -95,7 +90,7 @@ public class ContainerVmBwProvisionerSimple extends ContainerVmBwProvisioner {
      *
      * @param bwTable the bw table
      */
-    protected void setBwTable(Map<String, Long> bwTable) {
+    protected void setBwTable(LongLongHashMap bwTable) {
         this.bwTable = bwTable;
     }
 }
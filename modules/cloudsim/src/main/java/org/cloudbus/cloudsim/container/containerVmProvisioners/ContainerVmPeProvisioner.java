@@ -1,5 +1,6 @@
 package org.cloudbus.cloudsim.container.containerVmProvisioners;
 
+import org.cloudbus.cloudsim.Vm;
 import org.cloudbus.cloudsim.container.core.ContainerVm;
 
 import java.util.List;
@@ -53,7 +54,22 @@ public abstract class ContainerVmPeProvisioner {
      * @pre $none
      * @post $none
      */
-    public abstract boolean allocateMipsForContainerVm(String containerVmUid, double mips);
+    public boolean allocateMipsForContainerVm(String containerVmUid, double mips) {
+        return allocateMipsForContainerVm(Vm.getKey(containerVmUid), mips);
+    }
+
+    /**
+     * Allocates MIPS for a given VM.
+     *
+     * @param containerVmKey the VM key
+     * @param mips the mips
+     *
+     * @return $true if the MIPS could be allocated; $false otherwise
+     *
+     * @pre $none
+     * @post $none
+     */
+    public abstract boolean allocateMipsForContainerVm(long containerVmKey, double mips);
 
     /**
      * Allocates MIPS for a given VM.
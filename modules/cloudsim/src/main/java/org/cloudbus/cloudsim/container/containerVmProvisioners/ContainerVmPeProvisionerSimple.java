@@ -2,11 +2,11 @@ package org.cloudbus.cloudsim.container.containerVmProvisioners;
 
 
 import org.cloudbus.cloudsim.container.core.ContainerVm;
+import org.cloudbus.cloudsim.util.LongObjectHashMap;
+import org.cloudbus.cloudsim.util.MathUtil;
 
-import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.Arrays;
 import java.util.List;
-import java.util.Map;
 
 /**
  * Created by sareh on 10/07/15.
@@ -15,7 +15,7 @@ public class ContainerVmPeProvisionerSimple extends ContainerVmPeProvisioner {
 
 
     /** The pe table. */
-    private Map<String, List<Double>> peTable;
+    private LongObjectHashMap<double[]> peTable;
 
     /**
      * Creates the PeProvisionerSimple object.
@@ -27,7 +27,7 @@ public class ContainerVmPeProvisionerSimple extends ContainerVmPeProvisioner {
      */
     public ContainerVmPeProvisionerSimple(double availableMips) {
         super(availableMips);
-        setPeTable(new HashMap<String, ArrayList<Double>>());
+        setPeTable(new LongObjectHashMap<double[]>());
     }
 
 
@@ -36,27 +36,26 @@ public class ContainerVmPeProvisionerSimple extends ContainerVmPeProvisioner {
     @Override
     public boolean allocateMipsForContainerVm(ContainerVm containerVm, double mips) {
 
-        return allocateMipsForContainerVm(containerVm.getUid(), mips);
+        return allocateMipsForContainerVm(containerVm.getKey(), mips);
     }
 
     @Override
-    public boolean allocateMipsForContainerVm(String containerVmUid, double mips) {
+    public boolean allocateMipsForContainerVm(long containerVmKey, double mips) {
         if (getAvailableMips() < mips) {
             return false;
         }
 
-        List<Double> allocatedMips;
+        double[] allocatedMips = getPeTable().get(containerVmKey);
 
-        if (getPeTable().containsKey(containerVmUid)) {
-            allocatedMips = getPeTable().get(containerVmUid);
+        if (allocatedMips == null) {
+            allocatedMips = new double[]{mips};
         } else {
-            allocatedMips = new ArrayList<>();
+            allocatedMips = Arrays.copyOf(allocatedMips, allocatedMips.length + 1);
+            allocatedMips[allocatedMips.length - 1] = mips;
         }
-
-        allocatedMips.add(mips);
+        getPeTable().put(containerVmKey, allocatedMips);
 
         setAvailableMips(getAvailableMips() - mips);
-        getPeTable().put(containerVmUid, allocatedMips);
 
         return true;
     }
@@ -74,24 +73,22 @@ public class ContainerVmPeProvisionerSimple extends ContainerVmPeProvisioner {
 
         setAvailableMips(getAvailableMips() + getTotalAllocatedMipsForContainerVm(containerVm)- totalMipsToAllocate);
 
-        getPeTable().put(containerVm.getUid(), mips);
+        getPeTable().put(containerVm.getKey(), MathUtil.listToArray(mips));
 
         return true;
     }
 
     @Override
     public List<Double> getAllocatedMipsForContainerVm(ContainerVm containerVm) {
-        if (getPeTable().containsKey(containerVm.getUid())) {
-            return getPeTable().get(containerVm.getUid());
-        }
-        return null;
+        return MathUtil.arrayToList(getPeTable().get(containerVm.getKey()));
     }
 
     @Override
     public double getTotalAllocatedMipsForContainerVm(ContainerVm containerVm) {
-        if (getPeTable().containsKey( containerVm.getUid())) {
+        double[] allocatedMips = getPeTable().get(containerVm.getKey());
+        if (allocatedMips != null) {
             double totalAllocatedMips = 0.0;
-            for (double mips : getPeTable().get(containerVm.getUid())) {
+            for (double mips : allocatedMips) {
                 totalAllocatedMips += mips;
             }
             return totalAllocatedMips;
@@ -101,22 +98,20 @@ public class ContainerVmPeProvisionerSimple extends ContainerVmPeProvisioner {
 
     @Override
     public double getAllocatedMipsForContainerVmByVirtualPeId(ContainerVm containerVm, int peId) {
-        if (getPeTable().containsKey(containerVm.getUid())) {
-            try {
-                return getPeTable().get(containerVm.getUid()).get(peId);
-            } catch (Exception e) {
-            }
+        double[] allocatedMips = getPeTable().get(containerVm.getKey());
+        if (allocatedMips != null && peId >= 0 && peId < allocatedMips.length) {
+            return allocatedMips[peId];
         }
         return 0;
     }
 
     @Override
     public void deallocateMipsForContainerVm(ContainerVm containerVm) {
-        if (getPeTable().containsKey(containerVm.getUid())) {
-            for (double mips : getPeTable().get(containerVm.getUid())) {
+        double[] allocatedMips = getPeTable().remove(containerVm.getKey());
+        if (allocatedMips != null) {
+            for (double mips : allocatedMips) {
                 setAvailableMips(getAvailableMips() + mips);
             }
-            getPeTable().remove(containerVm.getUid());
         }
     }
 
@@ -130,7 +125,7 @@ public class ContainerVmPeProvisionerSimple extends ContainerVmPeProvisioner {
      *
      * @return the peTable
      */
-    protected Map<String, List<Double>> getPeTable() {
+    protected LongObjectHashMap<double[]> getPeTable() {
         return peTable;
     }
 
@@ -139,8 +134,7 @@ public class ContainerVmPeProvisionerSimple extends ContainerVmPeProvisioner {
      *
      * @param peTable the peTable to set
      */
-    @SuppressWarnings("unchecked")
-    protected void setPeTable(Map<String, ? extends List<Double>> peTable) {
-        this.peTable = (Map<String, List<Double>>) peTable;
+    protected void setPeTable(LongObjectHashMap<double[]> peTable) {
+        this.peTable = peTable;
     }
 }
@@ -1,9 +1,7 @@
 package org.cloudbus.cloudsim.container.containerVmProvisioners;
 
 import org.cloudbus.cloudsim.container.core.ContainerVm;
-
-import java.util.HashMap;
-import java.util.Map;
+import org.cloudbus.cloudsim.util.LongObjectHashMap;
 
 /**
  * Created by sareh on 10/07/15.
@@ -13,14 +11,14 @@ public class ContainerVmRamProvisionerSimple extends ContainerVmRamProvisioner {
     /**
      * The RAM table.
      */
-    private Map<String, Float> containerVmRamTable;
+    private LongObjectHashMap<Float> containerVmRamTable;
 
     /**
      * @param availableRam the available ram
      */
     public ContainerVmRamProvisionerSimple(int availableRam) {
         super(availableRam);
-        setContainerVmRamTable(new HashMap<String, Float>());
+        setContainerVmRamTable(new LongObjectHashMap<Float>());
     }
 
     @Override
@@ -35,7 +33,7 @@ public class ContainerVmRamProvisionerSimple extends ContainerVmRamProvisioner {
 
         if (getAvailableRam() >= ram) {
             setAvailableRam(getAvailableRam() - ram);
-            getContainerVmRamTable().put(containerVm.getUid(), ram);
+            getContainerVmRamTable().put(containerVm.getKey(), ram);
             containerVm.setCurrentAllocatedRam(getAllocatedRamForContainerVm(containerVm));
             return true;
         }
@@ -47,16 +45,16 @@ public class ContainerVmRamProvisionerSimple extends ContainerVmRamProvisioner {
 
     @Override
     public float getAllocatedRamForContainerVm(ContainerVm containerVm) {
-        if (getContainerVmRamTable().containsKey(containerVm.getUid())) {
-            return getContainerVmRamTable().get(containerVm.getUid());
+        if (getContainerVmRamTable().containsKey(containerVm.getKey())) {
+            return getContainerVmRamTable().get(containerVm.getKey());
         }
         return 0;
     }
 
     @Override
     public void deallocateRamForContainerVm(ContainerVm containerVm) {
-        if (getContainerVmRamTable().containsKey(containerVm.getUid())) {
-            float amountFreed = getContainerVmRamTable().remove(containerVm.getUid());
+        if (getContainerVmRamTable().containsKey(containerVm.getKey())) {
+            float amountFreed = getContainerVmRamTable().remove(containerVm.getKey());
             setAvailableRam(getAvailableRam() + amountFreed);
             containerVm.setCurrentAllocatedRam(0);
         }
@@ -85,14 +83,14 @@ public class ContainerVmRamProvisionerSimple extends ContainerVmRamProvisioner {
     /**
      * @return the containerVmRamTable
      */
-    protected Map<String, Float> getContainerVmRamTable() {
+    protected LongObjectHashMap<Float> getContainerVmRamTable() {
         return containerVmRamTable;
     }
 
     /**
      * @param containerVmRamTable the containerVmRamTable to set
      */
-    protected void setContainerVmRamTable(Map<String, Float> containerVmRamTable) {
+    protected void setContainerVmRamTable(LongObjectHashMap<Float> containerVmRamTable) {
         this.containerVmRamTable = containerVmRamTable;
     }
 
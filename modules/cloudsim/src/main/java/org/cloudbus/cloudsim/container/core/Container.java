@@ -2,9 +2,12 @@ package org.cloudbus.cloudsim.container.core;
 
 import org.cloudbus.cloudsim.container.schedulers.ContainerCloudletScheduler;
 import org.cloudbus.cloudsim.*;
+import org.cloudbus.cloudsim.util.DoubleRingBuffer;
 import org.cloudbus.cloudsim.util.MathUtil;
+import org.cloudbus.cloudsim.util.OverrideCheck;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.LinkedList;
 import java.util.List;
 
@@ -13,6 +16,12 @@ import java.util.List;
  */
 public class Container {
 
+    /**
+     * Tells if a subclass overrides {@link #updateContainerProcessing(double, List)}.
+     */
+    private static final OverrideCheck UPDATE_CONTAINER_PROCESSING =
+            new OverrideCheck(Container.class, "updateContainerProcessing", double.class, List.class);
+
     /**
      * The id.
      */
@@ -117,7 +126,7 @@ public class Container {
     /**
      * The utilization history.
      */
-    private final List<Double> utilizationHistory = new LinkedList<Double>();
+    private final DoubleRingBuffer utilizationHistory = new DoubleRingBuffer(HISTORY_LENGTH);
 
     /**
      * The previous time.
@@ -182,10 +191,46 @@ public class Container {
      * next events
      * @pre currentTime >= 0
      * @post $none
+     * @see #updateContainerProcessingWithArray(double, double[])
      */
     public double updateContainerProcessing(double currentTime, List<Double> mipsShare) {
+        double[] share = mipsShare == null ? null : MathUtil.listToArray(mipsShare);
+        if (UPDATE_CONTAINER_PROCESSING.isOverriddenBy(this)) {
+            return processCloudlets(currentTime, share);
+        }
+        return updateContainerProcessingWithArray(currentTime, share);
+    }
+
+    /**
+     * Updates the processing of cloudlets running on this Container, given the MIPS share as a
+     * primitive array. This is the method called by the VMs; if a subclass overrides
+     * {@link #updateContainerProcessing(double, List)}, the call is forwarded to it.
+     *
+     * @param currentTime current simulation time
+     * @param mipsShare   MIPS share of each Pe available to the scheduler
+     * @return time predicted completion time of the earliest finishing cloudlet, or 0 if there is no
+     * next events
+     * @pre currentTime >= 0
+     * @post $none
+     */
+    public double updateContainerProcessingWithArray(double currentTime, double[] mipsShare) {
+        if (UPDATE_CONTAINER_PROCESSING.isOverriddenBy(this)) {
+            return updateContainerProcessing(currentTime, MathUtil.arrayToList(mipsShare));
+        }
+        return processCloudlets(currentTime, mipsShare);
+    }
+
+    /**
+     * Updates the processing of cloudlets running on this Container.
+     *
+     * @param currentTime current simulation time
+     * @param mipsShare   MIPS share of each Pe available to the scheduler
+     * @return time predicted completion time of the earliest finishing cloudlet, or 0 if there is no
+     * next events
+     */
+    private double processCloudlets(double currentTime, double[] mipsShare) {
         if (mipsShare != null) {
-            return getContainerCloudletScheduler().updateContainerProcessing(currentTime, mipsShare);
+            return getContainerCloudletScheduler().updateContainerProcessingWithArray(currentTime, mipsShare);
         }
         return 0.0;
     }
@@ -198,7 +243,7 @@ public class Container {
      */
     public double getCurrentRequestedTotalMips() {
         double totalRequestedMips = 0;
-        for (double mips : getCurrentRequestedMips()) {
+        for (double mips : getCurrentRequestedMipsArray()) {
             totalRequestedMips += mips;
         }
         return totalRequestedMips;
@@ -211,7 +256,7 @@ public class Container {
      */
     public double getCurrentRequestedMaxMips() {
         double maxMips = 0;
-        for (double mips : getCurrentRequestedMips()) {
+        for (double mips : getCurrentRequestedMipsArray()) {
             if (mips > maxMips) {
                 maxMips = mips;
             }
@@ -294,6 +339,27 @@ public class Container {
         return userId + "-" + containerId;
     }
 
+    /**
+     * Gets the numeric key of the container, that packs the user id and the container id into a long.
+     * It identifies the container in the tables of schedulers and provisioners without hashing Strings.
+     *
+     * @return the container key
+     */
+    public long getKey() {
+        return getKey(getUserId(), getId());
+    }
+
+    /**
+     * Generates the numeric key of a container.
+     *
+     * @param userId the user id
+     * @param containerId   the container id
+     * @return the container key
+     */
+    public static long getKey(int userId, int containerId) {
+        return Vm.getKey(userId, containerId);
+    }
+
     /**
      * Gets the id.
      *
@@ -653,20 +719,7 @@ public class Container {
      * @return the utilization mean in MIPS
      */
     public double getUtilizationMad() {
-        double mad = 0;
-        if (!getUtilizationHistory().isEmpty()) {
-            int n = HISTORY_LENGTH;
-            if (HISTORY_LENGTH > getUtilizationHistory().size()) {
-                n = getUtilizationHistory().size();
-            }
-            double median = MathUtil.median(getUtilizationHistory());
-            double[] deviationSum = new double[n];
-            for (int i = 0; i < n; i++) {
-                deviationSum[i] = Math.abs(median - getUtilizationHistory().get(i));
-            }
-            mad = MathUtil.median(deviationSum);
-        }
-        return mad;
+        return MathUtil.mad(getUtilizationHistoryBuffer().toDoubleArray());
     }
 
     /**
@@ -675,18 +728,7 @@ public class Container {
      * @return the utilization mean in MIPS
      */
     public double getUtilizationMean() {
-        double mean = 0;
-        if (!getUtilizationHistory().isEmpty()) {
-            int n = HISTORY_LENGTH;
-            if (HISTORY_LENGTH > getUtilizationHistory().size()) {
-                n = getUtilizationHistory().size();
-            }
-            for (int i = 0; i < n; i++) {
-                mean += getUtilizationHistory().get(i);
-            }
-            mean /= n;
-        }
-        return mean * getMips();
+        return getUtilizationHistoryBuffer().getMean() * getMips();
     }
 
     /**
@@ -695,20 +737,7 @@ public class Container {
      * @return the utilization variance in MIPS
      */
     public double getUtilizationVariance() {
-        double mean = getUtilizationMean();
-        double variance = 0;
-        if (!getUtilizationHistory().isEmpty()) {
-            int n = HISTORY_LENGTH;
-            if (HISTORY_LENGTH > getUtilizationHistory().size()) {
-                n = getUtilizationHistory().size();
-            }
-            for (int i = 0; i < n; i++) {
-                double tmp = getUtilizationHistory().get(i) * getMips() - mean;
-                variance += tmp * tmp;
-            }
-            variance /= n;
-        }
-        return variance;
+        return getUtilizationHistoryBuffer().getVariance() * getMips() * getMips();
     }
 
     /**
@@ -717,10 +746,7 @@ public class Container {
      * @param utilization the utilization
      */
     public void addUtilizationHistoryValue(final double utilization) {
-        getUtilizationHistory().add(0, utilization);
-        if (getUtilizationHistory().size() > HISTORY_LENGTH) {
-            getUtilizationHistory().remove(HISTORY_LENGTH);
-        }
+        getUtilizationHistoryBuffer().addFirst(utilization);
     }
 
 
@@ -733,6 +759,16 @@ public class Container {
         return utilizationHistory;
     }
 
+    /**
+     * Gets the utilization history as the ring buffer that holds it, the most recent
+     * value first, whose statistics are computed without boxing the values.
+     *
+     * @return the utilization history
+     */
+    protected DoubleRingBuffer getUtilizationHistoryBuffer() {
+        return utilizationHistory;
+    }
+
     /**
      * Gets the previous time.
      *
@@ -789,6 +825,21 @@ public class Container {
         return getContainerCloudletScheduler().getCurrentRequestedMips();
     }
 
+    /**
+     * Gets the current requested mips as a primitive array. The array may be
+     * reused by the cloudlet scheduler, thus it has to be copied to be kept.
+     *
+     * @return the current requested mips of each PE
+     */
+    public double[] getCurrentRequestedMipsArray() {
+        if (isBeingInstantiated()) {
+            double[] currentRequestedMips = new double[getNumberOfPes()];
+            Arrays.fill(currentRequestedMips, getMips());
+            return currentRequestedMips;
+        }
+        return getContainerCloudletScheduler().getCurrentRequestedMipsArray();
+    }
+
     public double getWorkloadMips() {
         return workloadMips;
     }
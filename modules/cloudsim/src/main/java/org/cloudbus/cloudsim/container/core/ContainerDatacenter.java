@@ -306,7 +306,7 @@ public class ContainerDatacenter extends SimEntity {
                     if (container.isBeingInstantiated()) {
                         container.setBeingInstantiated(false);
                     }
-                    container.updateContainerProcessing(CloudSim.clock(), getContainerAllocationPolicy().getContainerVm(container).getContainerScheduler().getAllocatedMipsForContainer(container));
+                    container.updateContainerProcessingWithArray(CloudSim.clock(), getContainerAllocationPolicy().getContainerVm(container).getContainerScheduler().getAllocatedMipsArrayForContainer(container));
                 } else {
                     data[0] = -1;
                     //notAssigned.add(container);
@@ -516,8 +516,8 @@ public class ContainerDatacenter extends SimEntity {
                 containerVm.setBeingInstantiated(false);
             }
 
-            containerVm.updateVmProcessing(CloudSim.clock(), getVmAllocationPolicy().getHost(containerVm).getContainerVmScheduler()
-                    .getAllocatedMipsForContainerVm(containerVm));
+            containerVm.updateVmProcessingWithArray(CloudSim.clock(), getVmAllocationPolicy().getHost(containerVm).getContainerVmScheduler()
+                    .getAllocatedMipsArrayForContainerVm(containerVm));
         }
 
     }
@@ -108,7 +108,7 @@ public class ContainerHost {
         double smallerTime = Double.MAX_VALUE;
 
         for (ContainerVm containerVm : getVmList()) {
-            double time = containerVm.updateVmProcessing(currentTime, getContainerVmScheduler().getAllocatedMipsForContainerVm(containerVm));
+            double time = containerVm.updateVmProcessingWithArray(currentTime, getContainerVmScheduler().getAllocatedMipsArrayForContainerVm(containerVm));
             if (time > 0.0 && time < smallerTime) {
                 smallerTime = time;
             }
@@ -145,8 +145,8 @@ public class ContainerHost {
                 System.exit(0);
             }
 
-            getContainerVmScheduler().getVmsMigratingIn().add(containerVm.getUid());
-            if (!getContainerVmScheduler().allocatePesForVm(containerVm, containerVm.getCurrentRequestedMips())) {
+            getContainerVmScheduler().getVmKeysMigratingIn().add(containerVm.getKey());
+            if (!getContainerVmScheduler().allocatePesForVmWithArray(containerVm, containerVm.getCurrentRequestedMipsArray())) {
                 Log.printConcatLine("[VmScheduler.addMigratingInContainerVm] Allocation of VM #", containerVm.getId(), " to Host #",
                         getId(), " failed by MIPS");
                 System.exit(0);
@@ -170,7 +170,7 @@ public class ContainerHost {
             containerVmDeallocate(vm);
             getVmsMigratingIn().remove(vm);
             getVmList().remove(vm);
-            getContainerVmScheduler().getVmsMigratingIn().remove(vm.getUid());
+            getContainerVmScheduler().getVmKeysMigratingIn().remove(vm.getKey());
             vm.setInMigration(false);
         }
 
@@ -182,12 +182,10 @@ public class ContainerHost {
             if (!getVmList().contains(containerVm)) {
                 getVmList().add(containerVm);
             }
-            if (!getContainerVmScheduler().getVmsMigratingIn().contains(containerVm.getUid())) {
-                getContainerVmScheduler().getVmsMigratingIn().add(containerVm.getUid());
-            }
+            getContainerVmScheduler().getVmKeysMigratingIn().add(containerVm.getKey());
             getContainerVmRamProvisioner().allocateRamForContainerVm(containerVm, containerVm.getCurrentRequestedRam());
             getContainerVmBwProvisioner().allocateBwForContainerVm(containerVm, containerVm.getCurrentRequestedBw());
-            getContainerVmScheduler().allocatePesForVm(containerVm, containerVm.getCurrentRequestedMips());
+            getContainerVmScheduler().allocatePesForVmWithArray(containerVm, containerVm.getCurrentRequestedMipsArray());
             setStorage(getStorage() - containerVm.getSize());
         }
     }
@@ -235,7 +233,7 @@ public class ContainerHost {
             return false;
         }
 
-        if (!getContainerVmScheduler().allocatePesForVm(vm, vm.getCurrentRequestedMips())) {
+        if (!getContainerVmScheduler().allocatePesForVmWithArray(vm, vm.getCurrentRequestedMipsArray())) {
             Log.printConcatLine("[VmScheduler.containerVmCreate] Allocation of VM #", vm.getId(), " to Host #", getId(),
                     " failed by MIPS");
             getContainerVmRamProvisioner().deallocateRamForContainerVm(vm);
@@ -65,7 +65,7 @@ public class ContainerHostDynamicWorkload extends ContainerHost{
             }
 
             for (ContainerVm  containerVm : getVmList()) {
-                getContainerVmScheduler().allocatePesForVm(containerVm, containerVm.getCurrentRequestedMips());
+                getContainerVmScheduler().allocatePesForVmWithArray(containerVm, containerVm.getCurrentRequestedMipsArray());
             }
 
             for (ContainerVm  containerVm : getVmList()) {
@@ -6,10 +6,14 @@ import org.cloudbus.cloudsim.container.containerProvisioners.ContainerRamProvisi
 import org.cloudbus.cloudsim.container.lists.ContainerPeList;
 import org.cloudbus.cloudsim.container.schedulers.ContainerScheduler;
 import org.cloudbus.cloudsim.Log;
+import org.cloudbus.cloudsim.Vm;
 import org.cloudbus.cloudsim.VmStateHistoryEntry;
 import org.cloudbus.cloudsim.core.CloudSim;
+import org.cloudbus.cloudsim.util.MathUtil;
+import org.cloudbus.cloudsim.util.OverrideCheck;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.LinkedList;
 import java.util.List;
 
@@ -27,6 +31,12 @@ import java.util.List;
  */
 public class ContainerVm {
 
+    /**
+     * Tells if a subclass overrides {@link #updateVmProcessing(double, List)}.
+     */
+    private static final OverrideCheck UPDATE_VM_PROCESSING =
+            new OverrideCheck(ContainerVm.class, "updateVmProcessing", double.class, List.class);
+
     /**
      * The user id.
      */
@@ -235,8 +245,44 @@ public class ContainerVm {
      * next events
      * @pre currentTime >= 0
      * @post $none
+     * @see #updateVmProcessingWithArray(double, double[])
      */
     public double updateVmProcessing(double currentTime, List<Double> mipsShare) {
+        double[] share = mipsShare == null ? null : MathUtil.listToArray(mipsShare);
+        if (UPDATE_VM_PROCESSING.isOverriddenBy(this)) {
+            return processContainers(currentTime, share);
+        }
+        return updateVmProcessingWithArray(currentTime, share);
+    }
+
+    /**
+     * Updates the processing of containers running on this VM, given the MIPS share as a
+     * primitive array. This is the method called by the hosts; if a subclass overrides
+     * {@link #updateVmProcessing(double, List)}, the call is forwarded to it.
+     *
+     * @param currentTime current simulation time
+     * @param mipsShare   MIPS share of each Pe available to the scheduler
+     * @return time predicted completion time of the earliest finishing cloudlet, or 0 if there is no
+     * next events
+     * @pre currentTime >= 0
+     * @post $none
+     */
+    public double updateVmProcessingWithArray(double currentTime, double[] mipsShare) {
+        if (UPDATE_VM_PROCESSING.isOverriddenBy(this)) {
+            return updateVmProcessing(currentTime, MathUtil.arrayToList(mipsShare));
+        }
+        return processContainers(currentTime, mipsShare);
+    }
+
+    /**
+     * Updates the processing of containers running on this VM.
+     *
+     * @param currentTime current simulation time
+     * @param mipsShare   MIPS share of each Pe available to the scheduler
+     * @return time predicted completion time of the earliest finishing cloudlet, or 0 if there is no
+     * next events
+     */
+    private double processContainers(double currentTime, double[] mipsShare) {
 //        Log.printLine("Vm: update Vms Processing at " + currentTime);
         if (mipsShare != null && !getContainerList().isEmpty()) {
             double smallerTime = Double.MAX_VALUE;
@@ -244,7 +290,7 @@ public class ContainerVm {
 //            Log.printLine("The VM list size is:...." + getContainerList().size());
 
             for (Container container : getContainerList()) {
-                double time = container.updateContainerProcessing(currentTime, getContainerScheduler().getAllocatedMipsForContainer(container));
+                double time = container.updateContainerProcessingWithArray(currentTime, getContainerScheduler().getAllocatedMipsArrayForContainer(container));
                 if (time > 0.0 && time < smallerTime) {
                     smallerTime = time;
                 }
@@ -265,6 +311,15 @@ public class ContainerVm {
      * @return the current requested mips
      */
     public List<Double> getCurrentRequestedMips() {
+        return MathUtil.arrayToList(getCurrentRequestedMipsArray());
+    }
+
+    /**
+     * Gets the current requested mips as a primitive array.
+     *
+     * @return the current requested mips of each PE
+     */
+    public double[] getCurrentRequestedMipsArray() {
 
         double requestedMipsTemp = 0;
 
@@ -275,8 +330,8 @@ public class ContainerVm {
         } else {
             for (Container contianer : getContainerList()) {
 
-                List<Double> containerCurrentRequestedMips = contianer.getCurrentRequestedMips();
-                requestedMipsTemp += containerCurrentRequestedMips.get(0) * containerCurrentRequestedMips.size();
+                double[] containerCurrentRequestedMips = contianer.getCurrentRequestedMipsArray();
+                requestedMipsTemp += containerCurrentRequestedMips[0] * containerCurrentRequestedMips.length;
 //                Log.formatLine(
 //                        " [Container #%d] utilization is %.2f",
 //                        contianer.getId() ,
@@ -286,11 +341,8 @@ public class ContainerVm {
 //            Log.formatLine("Total mips usage is %.2f", requestedMipsTemp);
         }
 
-        List<Double> currentRequestedMips = new ArrayList<>(getNumberOfPes());
-
-        for (int i = 0; i < getNumberOfPes(); i++) {
-            currentRequestedMips.add(requestedMipsTemp);
-        }
+        double[] currentRequestedMips = new double[getNumberOfPes()];
+        Arrays.fill(currentRequestedMips, requestedMipsTemp);
         //Log.printLine("Vm: get Current requested Mips" + currentRequestedMips);
         return currentRequestedMips;
     }
@@ -302,7 +354,7 @@ public class ContainerVm {
      */
     public double getCurrentRequestedTotalMips() {
         double totalRequestedMips = 0;
-        for (double mips : getCurrentRequestedMips()) {
+        for (double mips : getCurrentRequestedMipsArray()) {
             totalRequestedMips += mips;
         }
         //Log.printLine("Container: get Current totalRequestedMips" + totalRequestedMips);
@@ -316,7 +368,7 @@ public class ContainerVm {
      */
     public double getCurrentRequestedMaxMips() {
         double maxMips = 0;
-        for (double mips : getCurrentRequestedMips()) {
+        for (double mips : getCurrentRequestedMipsArray()) {
             if (mips > maxMips) {
                 maxMips = mips;
             }
@@ -432,6 +484,27 @@ public class ContainerVm {
         return userId + "-" + vmId;
     }
 
+    /**
+     * Gets the numeric key of the VM, that packs the user id and the VM id into a long.
+     * It identifies the VM in the tables of schedulers and provisioners without hashing Strings.
+     *
+     * @return the VM key
+     */
+    public long getKey() {
+        return getKey(getUserId(), getId());
+    }
+
+    /**
+     * Generates the numeric key of a VM.
+     *
+     * @param userId the user id
+     * @param vmId   the VM id
+     * @return the VM key
+     */
+    public static long getKey(int userId, int vmId) {
+        return Vm.getKey(userId, vmId);
+    }
+
     /**
      * Gets the id.
      *
@@ -767,8 +840,8 @@ public class ContainerVm {
                 System.exit(0);
             }
 
-            getContainerScheduler().getContainersMigratingIn().add(container.getUid());
-            if (!getContainerScheduler().allocatePesForContainer(container, container.getCurrentRequestedMips())) {
+            getContainerScheduler().getContainerKeysMigratingIn().add(container.getKey());
+            if (!getContainerScheduler().allocatePesForContainerWithArray(container, container.getCurrentRequestedMipsArray())) {
                 Log.printLine(String.format("[ContainerScheduler.addMigratingInContainer] Allocation of VM #%d to Host #%d failed by MIPS", container.getId(), getId()));
                 System.exit(0);
             }
@@ -788,7 +861,7 @@ public class ContainerVm {
 //        Log.printLine("The VM list size is:...." + getContainerList().size());
 
         for (Container container : getContainerList()) {
-            double time = container.updateContainerProcessing(currentTime, getContainerScheduler().getAllocatedMipsForContainer(container));
+            double time = container.updateContainerProcessingWithArray(currentTime, getContainerScheduler().getAllocatedMipsArrayForContainer(container));
             if (time > 0.0 && time < smallerTime) {
                 smallerTime = time;
             }
@@ -815,7 +888,7 @@ public class ContainerVm {
         getContainersMigratingIn().remove(container);
         getContainerList().remove(container);
         Log.printLine("ContainerVm# "+getId()+"removeMigratingInContainer:......" + container.getId() + "   Is deleted from the list");
-        getContainerScheduler().getContainersMigratingIn().remove(container.getUid());
+        getContainerScheduler().getContainerKeysMigratingIn().remove(container.getKey());
         container.setInMigration(false);
     }
 
@@ -828,16 +901,47 @@ public class ContainerVm {
             if (!getContainerList().contains(container)) {
                 getContainerList().add(container);
             }
-            if (!getContainerScheduler().getContainersMigratingIn().contains(container.getUid())) {
-                getContainerScheduler().getContainersMigratingIn().add(container.getUid());
-            }
+            getContainerScheduler().getContainerKeysMigratingIn().add(container.getKey());
             getContainerRamProvisioner().allocateRamForContainer(container, container.getCurrentRequestedRam());
             getContainerBwProvisioner().allocateBwForContainer(container, container.getCurrentRequestedBw());
-            getContainerScheduler().allocatePesForContainer(container, container.getCurrentRequestedMips());
+            getContainerScheduler().allocatePesForContainerWithArray(container, container.getCurrentRequestedMipsArray());
             setSize(getSize() - container.getSize());
         }
     }
 
+    /**
+     * Allocates the resources of the containers of the VM again, from their current requests.
+     * The containers migrating in are allocated first and then the others, in the order of the
+     * container list, as when all the containers are destroyed and created again, but the container
+     * list is kept. The containers other than the ones migrating in get this VM back, as the
+     * checks of placements on other VMs may have cleared it.
+     *
+     * @return true if the resources of all the containers could be allocated
+     */
+    public boolean reallocateContainers() {
+        containerDeallocateAll();
+        for (Container container : getContainersMigratingIn()) {
+            getContainerRamProvisioner().allocateRamForContainer(container, container.getCurrentRequestedRam());
+            getContainerBwProvisioner().allocateBwForContainer(container, container.getCurrentRequestedBw());
+            getContainerScheduler().allocatePesForContainerWithArray(container, container.getCurrentRequestedMipsArray());
+        }
+        for (Container container : getContainerList()) {
+            if (getContainersMigratingIn().contains(container)) {
+                continue;
+            }
+            if (!getContainerRamProvisioner().allocateRamForContainer(container, container.getCurrentRequestedRam())
+                    || !getContainerBwProvisioner().allocateBwForContainer(container, container.getCurrentRequestedBw())
+                    || !getContainerScheduler().allocatePesForContainerWithArray(container,
+                            container.getCurrentRequestedMipsArray())) {
+                Log.printConcatLine("[ContainerScheduler.reallocateContainers] Allocation of Container #",
+                        container.getId(), " to VM #", getId(), " failed");
+                return false;
+            }
+            container.setVm(this);
+        }
+        return true;
+    }
+
     /**
      * Checks if is suitable for container.
      *
@@ -1209,7 +1313,7 @@ public class ContainerVm {
             return false;
         }
 
-        if (!getContainerScheduler().allocatePesForContainer(container, container.getCurrentRequestedMips())) {
+        if (!getContainerScheduler().allocatePesForContainerWithArray(container, container.getCurrentRequestedMipsArray())) {
             Log.printConcatLine("[ContainerScheduler.ContainerCreate] Allocation of Container #", container.getId(), " to VM #", getId(),
                     " failed by MIPS");
             getContainerRamProvisioner().deallocateRamForContainer(container);
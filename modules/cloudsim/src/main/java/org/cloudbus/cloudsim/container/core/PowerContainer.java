@@ -1,11 +1,12 @@
 package org.cloudbus.cloudsim.container.core;
 
+import java.util.List;
+
 import org.cloudbus.cloudsim.container.schedulers.ContainerCloudletScheduler;
 import org.cloudbus.cloudsim.core.CloudSim;
+import org.cloudbus.cloudsim.util.DoubleRingBuffer;
 import org.cloudbus.cloudsim.util.MathUtil;
 
-import java.util.LinkedList;
-import java.util.List;
 
 /**
  * Created by sareh on 23/07/15.
@@ -16,7 +17,7 @@ public class PowerContainer extends Container{
         public static final int HISTORY_LENGTH = 30;
 
         /** The utilization history. */
-        private final List<Double> utilizationHistory = new LinkedList<Double>();
+        private final DoubleRingBuffer utilizationHistory = new DoubleRingBuffer(HISTORY_LENGTH);
 
 
         /** The previous time. */
@@ -64,8 +65,8 @@ public class PowerContainer extends Container{
          * @post $none
          */
         @Override
-        public double updateContainerProcessing(final double currentTime, final List<Double> mipsShare) {
-            double time = super.updateContainerProcessing(currentTime, mipsShare);
+        public double updateContainerProcessingWithArray(final double currentTime, final double[] mipsShare) {
+            double time = super.updateContainerProcessingWithArray(currentTime, mipsShare);
             if (currentTime > getPreviousTime() && (currentTime - 0.2) % getSchedulingInterval() == 0) {
                 double utilization = getTotalUtilizationOfCpu(getContainerCloudletScheduler().getPreviousTime());
                 if (CloudSim.clock() != 0 || utilization != 0) {
@@ -82,20 +83,7 @@ public class PowerContainer extends Container{
          * @return the utilization mean in MIPS
          */
         public double getUtilizationMad() {
-            double mad = 0;
-            if (!getUtilizationHistory().isEmpty()) {
-                int n = HISTORY_LENGTH;
-                if (HISTORY_LENGTH > getUtilizationHistory().size()) {
-                    n = getUtilizationHistory().size();
-                }
-                double median = MathUtil.median(getUtilizationHistory());
-                double[] deviationSum = new double[n];
-                for (int i = 0; i < n; i++) {
-                    deviationSum[i] = Math.abs(median - getUtilizationHistory().get(i));
-                }
-                mad = MathUtil.median(deviationSum);
-            }
-            return mad;
+            return MathUtil.mad(getUtilizationHistoryBuffer().toDoubleArray());
         }
 
         /**
@@ -104,18 +92,7 @@ public class PowerContainer extends Container{
          * @return the utilization mean in MIPS
          */
         public double getUtilizationMean() {
-            double mean = 0;
-            if (!getUtilizationHistory().isEmpty()) {
-                int n = HISTORY_LENGTH;
-                if (HISTORY_LENGTH > getUtilizationHistory().size()) {
-                    n = getUtilizationHistory().size();
-                }
-                for (int i = 0; i < n; i++) {
-                    mean += getUtilizationHistory().get(i);
-                }
-                mean /= n;
-            }
-            return mean * getMips();
+            return getUtilizationHistoryBuffer().getMean() * getMips();
         }
 
         /**
@@ -124,20 +101,7 @@ public class PowerContainer extends Container{
          * @return the utilization variance in MIPS
          */
         public double getUtilizationVariance() {
-            double mean = getUtilizationMean();
-            double variance = 0;
-            if (!getUtilizationHistory().isEmpty()) {
-                int n = HISTORY_LENGTH;
-                if (HISTORY_LENGTH > getUtilizationHistory().size()) {
-                    n = getUtilizationHistory().size();
-                }
-                for (int i = 0; i < n; i++) {
-                    double tmp = getUtilizationHistory().get(i) * getMips() - mean;
-                    variance += tmp * tmp;
-                }
-                variance /= n;
-            }
-            return variance;
+            return getUtilizationHistoryBuffer().getVariance() * getMips() * getMips();
         }
 
         /**
@@ -146,10 +110,7 @@ public class PowerContainer extends Container{
          * @param utilization the utilization
          */
         public void addUtilizationHistoryValue(final double utilization) {
-            getUtilizationHistory().add(0, utilization);
-            if (getUtilizationHistory().size() > HISTORY_LENGTH) {
-                getUtilizationHistory().remove(HISTORY_LENGTH);
-            }
+            getUtilizationHistoryBuffer().addFirst(utilization);
         }
 
         /**
@@ -161,6 +122,16 @@ public class PowerContainer extends Container{
             return utilizationHistory;
         }
 
+        /**
+         * Gets the utilization history as the ring buffer that holds it, the most recent
+         * value first, whose statistics are computed without boxing the values.
+         *
+         * @return the utilization history
+         */
+        public DoubleRingBuffer getUtilizationHistoryBuffer() {
+            return utilizationHistory;
+        }
+
         /**
          * Gets the previous time.
          *
@@ -184,7 +155,7 @@ public class PowerContainer extends Container{
             double[] utilizationHistoryList = new double[PowerContainer.HISTORY_LENGTH];
 //            if any thing happens check if you need to have mips and the trim
             for (int i = 0; i < getUtilizationHistory().size(); i++) {
-                utilizationHistoryList[i] += getUtilizationHistory().get(i) * getMips();
+                utilizationHistoryList[i] += getUtilizationHistoryBuffer().getDouble(i) * getMips();
             }
 
             return MathUtil.trimZeroTail(utilizationHistoryList);
@@ -11,6 +11,7 @@ import org.cloudbus.cloudsim.core.CloudSim;
 import org.cloudbus.cloudsim.core.CloudSimTags;
 import org.cloudbus.cloudsim.core.SimEvent;
 import org.cloudbus.cloudsim.core.predicates.PredicateType;
+import org.cloudbus.cloudsim.power.AdaptiveSchedulingInterval;
 
 import java.io.IOException;
 import java.util.ArrayList;
@@ -58,6 +59,11 @@ public class PowerContainerDatacenter extends ContainerDatacenter {
     private CostumeCSVWriter containerMigrationWriter;
     private CostumeCSVWriter datacenterEnergyWriter;
 
+    /**
+     * The adaptive scheduling interval, or null if the scheduling interval is fixed.
+     */
+    private AdaptiveSchedulingInterval<PowerContainerHost> adaptiveSchedulingInterval;
+
     /**
      * Instantiates a new datacenter.
      *
@@ -121,12 +127,14 @@ public class PowerContainerDatacenter extends ContainerDatacenter {
             System.out.print(currentTime + " ");
 
             double minTime = updateCloudetProcessingWithoutSchedulingFutureEventsForce();
+            boolean migrationsStarted = false;
 
             if (!isDisableVmMigrations()) {
                 List<Map<String, Object>> migrationMap = getVmAllocationPolicy().optimizeAllocation(
                         getContainerVmList());
                 int previousMigrationCount = getVmMigrationCount();
                 if (migrationMap != null) {
+                    migrationsStarted = !migrationMap.isEmpty();
                     for (Map<String, Object> migrate : migrationMap) {
                         ContainerVm vm = (ContainerVm) migrate.get("vm");
                         PowerContainerHost targetHost = (PowerContainerHost) migrate.get("host");
@@ -174,13 +182,33 @@ public class PowerContainerDatacenter extends ContainerDatacenter {
             // schedules an event to the next time
             if (minTime != Double.MAX_VALUE) {
                 CloudSim.cancelAll(getId(), new PredicateType(CloudSimTags.VM_DATACENTER_EVENT));
-                send(getId(), getSchedulingInterval(), CloudSimTags.VM_DATACENTER_EVENT);
+                send(getId(), getNextSchedulingInterval(currentTime, minTime, migrationsStarted), CloudSimTags.VM_DATACENTER_EVENT);
             }
 
             setLastProcessTime(currentTime);
         }
     }
 
+    /**
+     * Gets the time to the next wake-up of the datacenter. It is the scheduling interval, unless the
+     * adaptive scheduling interval is enabled and no VM is migrating.
+     *
+     * @param currentTime       the current time
+     * @param minTime           the expected time of completion of the next cloudlet
+     * @param migrationsStarted whether migrations were started at the current time
+     * @return the time to the next wake-up
+     */
+    protected double getNextSchedulingInterval(double currentTime, double minTime, boolean migrationsStarted) {
+        if (getAdaptiveSchedulingInterval() == null) {
+            return getSchedulingInterval();
+        }
+        return getAdaptiveSchedulingInterval().getNextInterval(
+                this.<PowerContainerHost>getHostList(),
+                currentTime,
+                minTime,
+                !migrationsStarted && !isInMigration());
+    }
+
     /**
      * Update cloudet processing without scheduling future events.
      *
@@ -233,10 +261,21 @@ public class PowerContainerDatacenter extends ContainerDatacenter {
             for (PowerContainerHost host : this.<PowerContainerHost>getHostList()) {
                 double previousUtilizationOfCpu = host.getPreviousUtilizationOfCpu();
                 double utilizationOfCpu = host.getUtilizationOfCpu();
-                double timeFrameHostEnergy = host.getEnergyLinearInterpolation(
-                        previousUtilizationOfCpu,
-                        utilizationOfCpu,
-                        timeDiff);
+                double timeFrameHostEnergy;
+                if (getAdaptiveSchedulingInterval() == null) {
+                    timeFrameHostEnergy = host.getEnergyLinearInterpolation(
+                            previousUtilizationOfCpu,
+                            utilizationOfCpu,
+                            timeDiff);
+                } else {
+                    // the utilization at the skipped wake-ups is accounted for
+                    timeFrameHostEnergy = getAdaptiveSchedulingInterval().getEnergy(
+                            host,
+                            previousUtilizationOfCpu,
+                            utilizationOfCpu,
+                            getLastProcessTime(),
+                            currentTime);
+                }
                 timeFrameDatacenterEnergy += timeFrameHostEnergy;
 
                 Log.printLine();
@@ -396,6 +435,51 @@ public class PowerContainerDatacenter extends ContainerDatacenter {
         this.disableVmMigrations = disableVmMigrations;
     }
 
+    /**
+     * Enables the adaptive scheduling interval, which skips the wake-ups at which the utilization of
+     * the hosts, as predicted from the utilization of the cloudlets of their containers, does not
+     * change by more than a threshold.
+     *
+     * @param utilizationThreshold the change of the utilization of a host that ends a stretched interval
+     * @param maxSkippedIntervals  the maximum number of consecutive wake-ups that are skipped
+     * @see AdaptiveSchedulingInterval
+     */
+    public void setAdaptiveSchedulingInterval(double utilizationThreshold, int maxSkippedIntervals) {
+        adaptiveSchedulingInterval = new AdaptiveSchedulingInterval<PowerContainerHost>(
+                getSchedulingInterval(),
+                utilizationThreshold,
+                maxSkippedIntervals) {
+
+            @Override
+            protected double getPredictedUtilization(PowerContainerHost host, double time) {
+                double utilizationMips = 0;
+                for (ContainerVm vm : host.getVmList()) {
+                    double vmUtilizationMips = 0;
+                    for (Container container : vm.getContainerList()) {
+                        vmUtilizationMips += container.getTotalUtilizationOfCpuMips(time);
+                    }
+                    utilizationMips += Math.min(vmUtilizationMips, vm.getTotalMips());
+                }
+                return Math.min(utilizationMips / host.getTotalMips(), 1);
+            }
+
+            @Override
+            protected double getPower(PowerContainerHost host, double utilization) {
+                return host.getPower(utilization);
+            }
+
+        };
+    }
+
+    /**
+     * Gets the adaptive scheduling interval.
+     *
+     * @return the adaptive scheduling interval, or null if the scheduling interval is fixed
+     */
+    public AdaptiveSchedulingInterval<PowerContainerHost> getAdaptiveSchedulingInterval() {
+        return adaptiveSchedulingInterval;
+    }
+
     /**
      * Checks if is cloudlet submited.
      *
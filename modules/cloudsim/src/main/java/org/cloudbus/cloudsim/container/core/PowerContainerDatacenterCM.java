@@ -65,6 +65,7 @@ public class PowerContainerDatacenterCM extends PowerContainerDatacenter {
             System.out.print(currentTime + " ");
 
             double minTime = updateCloudetProcessingWithoutSchedulingFutureEventsForce();
+            boolean migrationsStarted = false;
 
             if (!isDisableMigrations()) {
                 List<Map<String, Object>> migrationMap = getVmAllocationPolicy().optimizeAllocation(
@@ -72,6 +73,7 @@ public class PowerContainerDatacenterCM extends PowerContainerDatacenter {
                 int previousContainerMigrationCount = getContainerMigrationCount();
                 int previousVmMigrationCount = getVmMigrationCount();
                 if (migrationMap != null) {
+                    migrationsStarted = !migrationMap.isEmpty();
                     List<ContainerVm> vmList = new ArrayList<ContainerVm>();
                     for (Map<String, Object> migrate : migrationMap) {
                         if (migrate.containsKey("container")) {
@@ -220,7 +222,7 @@ public class PowerContainerDatacenterCM extends PowerContainerDatacenter {
             // schedules an event to the next time
             if (minTime != Double.MAX_VALUE) {
                 CloudSim.cancelAll(getId(), new PredicateType(CloudSimTags.VM_DATACENTER_EVENT));
-                send(getId(), getSchedulingInterval(), CloudSimTags.VM_DATACENTER_EVENT);
+                send(getId(), getNextSchedulingInterval(currentTime, minTime, migrationsStarted), CloudSimTags.VM_DATACENTER_EVENT);
             }
 
             setLastProcessTime(currentTime);
@@ -266,8 +268,8 @@ public class PowerContainerDatacenterCM extends PowerContainerDatacenter {
                     containerVm.setBeingInstantiated(false);
                 }
 
-                containerVm.updateVmProcessing(CloudSim.clock(), getVmAllocationPolicy().getHost(containerVm).getContainerVmScheduler()
-                        .getAllocatedMipsForContainerVm(containerVm));
+                containerVm.updateVmProcessingWithArray(CloudSim.clock(), getVmAllocationPolicy().getHost(containerVm).getContainerVmScheduler()
+                        .getAllocatedMipsArrayForContainerVm(containerVm));
             }
 
         } else {
@@ -5,6 +5,7 @@ import org.cloudbus.cloudsim.container.containerVmProvisioners.ContainerVmPe;
 import org.cloudbus.cloudsim.container.containerVmProvisioners.ContainerVmRamProvisioner;
 import org.cloudbus.cloudsim.container.schedulers.ContainerVmScheduler;
 import org.cloudbus.cloudsim.power.models.PowerModel;
+import org.cloudbus.cloudsim.util.DoubleRingBuffer;
 import org.cloudbus.cloudsim.util.MathUtil;
 
 import java.util.List;
@@ -45,8 +46,9 @@ public class PowerContainerHostUtilizationHistory extends PowerContainerHost {
         double[] utilizationHistory = new double[PowerContainerVm.HISTORY_LENGTH];
         double hostMips = getTotalMips();
         for (PowerContainerVm vm : this.<PowerContainerVm>getVmList()) {
-            for (int i = 0; i < vm.getUtilizationHistory().size(); i++) {
-                utilizationHistory[i] += vm.getUtilizationHistory().get(i) * vm.getMips() / hostMips;
+            DoubleRingBuffer vmUtilization = vm.getUtilizationHistoryBuffer();
+            for (int i = 0; i < vmUtilization.size(); i++) {
+                utilizationHistory[i] += vmUtilization.getDouble(i) * vm.getMips() / hostMips;
             }
         }
         return MathUtil.trimZeroTail(utilizationHistory);
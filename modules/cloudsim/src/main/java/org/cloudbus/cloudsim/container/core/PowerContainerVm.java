@@ -5,9 +5,9 @@ import org.cloudbus.cloudsim.container.containerProvisioners.ContainerPe;
 import org.cloudbus.cloudsim.container.containerProvisioners.ContainerRamProvisioner;
 import org.cloudbus.cloudsim.container.schedulers.ContainerScheduler;
 import org.cloudbus.cloudsim.core.CloudSim;
+import org.cloudbus.cloudsim.util.DoubleRingBuffer;
 import org.cloudbus.cloudsim.util.MathUtil;
 
-import java.util.LinkedList;
 import java.util.List;
 
 /**
@@ -23,7 +23,7 @@ public class PowerContainerVm extends ContainerVm {
     /**
      * The utilization history.
      */
-    private final List<Double> utilizationHistory = new LinkedList<Double>();
+    private final DoubleRingBuffer utilizationHistory = new DoubleRingBuffer(HISTORY_LENGTH);
 
     /**
      * The previous time.
@@ -80,8 +80,8 @@ public class PowerContainerVm extends ContainerVm {
 
 
     @Override
-    public double updateVmProcessing(final double currentTime, final List<Double> mipsShare) {
-        double time = super.updateVmProcessing(currentTime, mipsShare);
+    public double updateVmProcessingWithArray(final double currentTime, final double[] mipsShare) {
+        double time = super.updateVmProcessingWithArray(currentTime, mipsShare);
         if (currentTime > getPreviousTime() && (currentTime - 0.2) % getSchedulingInterval() == 0) {
             double utilization = 0;
 
@@ -107,20 +107,7 @@ public class PowerContainerVm extends ContainerVm {
      * @return the utilization mean in MIPS
      */
     public double getUtilizationMad() {
-        double mad = 0;
-        if (!getUtilizationHistory().isEmpty()) {
-            int n = HISTORY_LENGTH;
-            if (HISTORY_LENGTH > getUtilizationHistory().size()) {
-                n = getUtilizationHistory().size();
-            }
-            double median = MathUtil.median(getUtilizationHistory());
-            double[] deviationSum = new double[n];
-            for (int i = 0; i < n; i++) {
-                deviationSum[i] = Math.abs(median - getUtilizationHistory().get(i));
-            }
-            mad = MathUtil.median(deviationSum);
-        }
-        return mad;
+        return MathUtil.mad(getUtilizationHistoryBuffer().toDoubleArray());
     }
 
     /**
@@ -129,18 +116,7 @@ public class PowerContainerVm extends ContainerVm {
      * @return the utilization mean in MIPS
      */
     public double getUtilizationMean() {
-        double mean = 0;
-        if (!getUtilizationHistory().isEmpty()) {
-            int n = HISTORY_LENGTH;
-            if (HISTORY_LENGTH > getUtilizationHistory().size()) {
-                n = getUtilizationHistory().size();
-            }
-            for (int i = 0; i < n; i++) {
-                mean += getUtilizationHistory().get(i);
-            }
-            mean /= n;
-        }
-        return mean * getMips();
+        return getUtilizationHistoryBuffer().getMean() * getMips();
     }
 
     /**
@@ -149,20 +125,7 @@ public class PowerContainerVm extends ContainerVm {
      * @return the utilization variance in MIPS
      */
     public double getUtilizationVariance() {
-        double mean = getUtilizationMean();
-        double variance = 0;
-        if (!getUtilizationHistory().isEmpty()) {
-            int n = HISTORY_LENGTH;
-            if (HISTORY_LENGTH > getUtilizationHistory().size()) {
-                n = getUtilizationHistory().size();
-            }
-            for (int i = 0; i < n; i++) {
-                double tmp = getUtilizationHistory().get(i) * getMips() - mean;
-                variance += tmp * tmp;
-            }
-            variance /= n;
-        }
-        return variance;
+        return getUtilizationHistoryBuffer().getVariance() * getMips() * getMips();
     }
 
     /**
@@ -171,10 +134,7 @@ public class PowerContainerVm extends ContainerVm {
      * @param utilization the utilization
      */
     public void addUtilizationHistoryValue(final double utilization) {
-        getUtilizationHistory().add(0, utilization);
-        if (getUtilizationHistory().size() > HISTORY_LENGTH) {
-            getUtilizationHistory().remove(HISTORY_LENGTH);
-        }
+        getUtilizationHistoryBuffer().addFirst(utilization);
     }
 
     /**
@@ -186,6 +146,16 @@ public class PowerContainerVm extends ContainerVm {
         return utilizationHistory;
     }
 
+    /**
+     * Gets the utilization history as the ring buffer that holds it, the most recent
+     * value first, whose statistics are computed without boxing the values.
+     *
+     * @return the utilization history
+     */
+    public DoubleRingBuffer getUtilizationHistoryBuffer() {
+        return utilizationHistory;
+    }
+
     /**
      * Gets the previous time.
      *
@@ -226,7 +196,7 @@ public class PowerContainerVm extends ContainerVm {
         double[] utilizationHistoryList = new double[PowerContainerVm.HISTORY_LENGTH];
 //            if any thing happens check if you need to have mips and the trim
         for (int i = 0; i < getUtilizationHistory().size(); i++) {
-            utilizationHistoryList[i] += getUtilizationHistory().get(i) * getMips();
+            utilizationHistoryList[i] += getUtilizationHistoryBuffer().getDouble(i) * getMips();
         }
 
         return MathUtil.trimZeroTail(utilizationHistoryList);
@@ -2,7 +2,10 @@ package org.cloudbus.cloudsim.container.hostSelectionPolicies;
 
 import org.cloudbus.cloudsim.container.core.ContainerHost;
 
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
+import java.util.NoSuchElementException;
 import java.util.Set;
 
 /**
@@ -18,4 +21,47 @@ public abstract class HostSelectionPolicy {
      */
     public abstract ContainerHost getHost(List<ContainerHost> hostList, Object obj, Set<? extends ContainerHost> excludedHostList);
 
+    /**
+     * Gets the hosts one after another, in the order they are chosen by {@link #getHost} when each
+     * chosen host is excluded before choosing the next one, which is how the hosts are tried until one
+     * is suitable. The policies ordering the hosts by a value override it, so that the hosts are not all
+     * scanned again for each try.
+     *
+     * @param hostList         the host list
+     * @param obj              the object to place
+     * @param excludedHostList the excluded hosts
+     * @return the hosts, in the order they are chosen
+     */
+    public Iterator<ContainerHost> getHosts(final List<ContainerHost> hostList, final Object obj, Set<? extends ContainerHost> excludedHostList) {
+        final Set<ContainerHost> excludedHosts = new HashSet<>(excludedHostList);
+        return new Iterator<ContainerHost>() {
+
+            private ContainerHost next;
+
+            @Override
+            public boolean hasNext() {
+                if (next == null) {
+                    next = getHost(hostList, obj, excludedHosts);
+                }
+                return next != null;
+            }
+
+            @Override
+            public ContainerHost next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                ContainerHost host = next;
+                excludedHosts.add(host);
+                next = null;
+                return host;
+            }
+
+            @Override
+            public void remove() {
+                throw new UnsupportedOperationException();
+            }
+        };
+    }
+
 }
@@ -1,7 +1,9 @@
 package org.cloudbus.cloudsim.container.hostSelectionPolicies;
 
 import org.cloudbus.cloudsim.container.core.ContainerHost;
+import org.cloudbus.cloudsim.container.utils.OrderedSelection;
 
+import java.util.Iterator;
 import java.util.List;
 import java.util.Set;
 
@@ -21,4 +23,15 @@ public class HostSelectionPolicyFirstFit extends HostSelectionPolicy {
         }
     return host;
     }
+
+    @Override
+    public Iterator<ContainerHost> getHosts(List<ContainerHost> hostList, Object obj, Set<? extends ContainerHost> excludedHostList) {
+        // the same value for all the hosts keeps them in the order of the list
+        return new OrderedSelection<ContainerHost>(hostList, excludedHostList, false) {
+            @Override
+            protected double getValue(ContainerHost host) {
+                return 0;
+            }
+        };
+    }
 }
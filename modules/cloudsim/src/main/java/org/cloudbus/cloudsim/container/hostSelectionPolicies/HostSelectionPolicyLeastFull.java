@@ -2,7 +2,9 @@ package org.cloudbus.cloudsim.container.hostSelectionPolicies;
 
 import org.cloudbus.cloudsim.container.core.ContainerHost;
 import org.cloudbus.cloudsim.container.core.PowerContainerHostUtilizationHistory;
+import org.cloudbus.cloudsim.container.utils.OrderedSelection;
 
+import java.util.Iterator;
 import java.util.List;
 import java.util.Set;
 
@@ -33,4 +35,18 @@ public class HostSelectionPolicyLeastFull extends HostSelectionPolicy{
 
         return selectedHost;
     }
+
+    @Override
+    public Iterator<ContainerHost> getHosts(List<ContainerHost> hostList, Object obj, Set<? extends ContainerHost> excludedHostList) {
+        return new OrderedSelection<ContainerHost>(hostList, excludedHostList, false) {
+            @Override
+            protected double getValue(ContainerHost host) {
+                if (!(host instanceof PowerContainerHostUtilizationHistory)) {
+                    return Double.NaN;
+                }
+                double hostUtilization = ((PowerContainerHostUtilizationHistory) host).getUtilizationOfCpu();
+                return hostUtilization < Double.MAX_VALUE ? hostUtilization : Double.NaN;
+            }
+        };
+    }
 }
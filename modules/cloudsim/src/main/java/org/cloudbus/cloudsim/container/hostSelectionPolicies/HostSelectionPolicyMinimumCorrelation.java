@@ -1,8 +1,9 @@
 package org.cloudbus.cloudsim.container.hostSelectionPolicies;
 
 import org.cloudbus.cloudsim.container.core.*;
-import org.cloudbus.cloudsim.container.utils.Correlation;
+import org.cloudbus.cloudsim.container.utils.HostCorrelationKernel;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Set;
 
@@ -11,8 +12,18 @@ import java.util.Set;
  */
 public class HostSelectionPolicyMinimumCorrelation extends HostSelectionPolicy {
 
+    /**
+     * The minimum utilization history length of the hosts that can be selected.
+     */
+    public static final int MIN_HISTORY_LENGTH = 6;
+
     private HostSelectionPolicy fallbackPolicy;
 
+    /**
+     * The kernel that computes the correlations, which keeps the host histories between placements.
+     */
+    private final HostCorrelationKernel correlationKernel = new HostCorrelationKernel();
+
     /**
      * Instantiates a new power vm selection policy maximum correlation.
      *
@@ -34,31 +45,28 @@ public class HostSelectionPolicyMinimumCorrelation extends HostSelectionPolicy {
 
             utilizationHistory = ((PowerContainerVm) obj).getUtilizationHistoryList();
         }
-        Correlation correlation = new Correlation();
-        double minCor = Double.MAX_VALUE;
-        ContainerHost selectedHost = null;
+        List<PowerContainerHostUtilizationHistory> candidateHosts = new ArrayList<>();
         for (ContainerHost host : hostList) {
             if (excludedHostList.contains(host)) {
                 continue;
             }
             if (host instanceof PowerContainerHostUtilizationHistory) {
-                double[] hostUtilization = ((PowerContainerHostUtilizationHistory) host).getUtilizationHistory();
-                if (hostUtilization.length > 5) {
-
-                    double cor = correlation.getCor(hostUtilization, utilizationHistory);
-                    if (cor < minCor) {
-                        minCor = cor;
-                        selectedHost = host;
-
-                    }
-                }
-
+                candidateHosts.add((PowerContainerHostUtilizationHistory) host);
             }
         }
-        if (selectedHost == null) {
+        int index = getCorrelationKernel().getMinimumCorrelationIndex(
+                candidateHosts, utilizationHistory, MIN_HISTORY_LENGTH);
+        return index == -1 ? null : candidateHosts.get(index);
+    }
 
-        }
-        return selectedHost;
+    /**
+     * Gets the kernel that computes the correlations. Its parallelism can be raised
+     * to score large numbers of hosts in several threads.
+     *
+     * @return the correlation kernel
+     */
+    public HostCorrelationKernel getCorrelationKernel() {
+        return correlationKernel;
     }
 
 
@@ -2,8 +2,10 @@ package org.cloudbus.cloudsim.container.hostSelectionPolicies;
 
 import org.cloudbus.cloudsim.container.core.ContainerHost;
 import org.cloudbus.cloudsim.container.core.PowerContainerHostUtilizationHistory;
+import org.cloudbus.cloudsim.container.utils.OrderedSelection;
 import org.cloudbus.cloudsim.core.CloudSim;
 
+import java.util.Iterator;
 import java.util.List;
 import java.util.Set;
 
@@ -48,5 +50,21 @@ public class HostSelectionPolicyMostFull extends HostSelectionPolicy {
 
     }
 
+    @Override
+    public Iterator<ContainerHost> getHosts(List<ContainerHost> hostList, Object obj, Set<? extends ContainerHost> excludedHostList) {
+        if (CloudSim.clock() > 1.0) {
+            return new OrderedSelection<ContainerHost>(hostList, excludedHostList, true) {
+                @Override
+                protected double getValue(ContainerHost host) {
+                    if (!(host instanceof PowerContainerHostUtilizationHistory)) {
+                        return Double.NaN;
+                    }
+                    double hostUtilization = ((PowerContainerHostUtilizationHistory) host).getUtilizationOfCpu();
+                    return hostUtilization > Double.MIN_VALUE ? hostUtilization : Double.NaN;
+                }
+            };
+        }
+        return new HostSelectionPolicyFirstFit().getHosts(hostList, obj, excludedHostList);
+    }
 
 }
@@ -21,9 +21,10 @@ public abstract class PowerContainerVmAllocationPolicyMigrationAbstract extends
     private PowerContainerVmSelectionPolicy vmSelectionPolicy;
 
     /**
-     * The saved allocation.
+     * The VMs of each host, other than the ones migrating in, when the
+     * optimization of the allocation started.
      */
-    private final List<Map<String, Object>> savedAllocation = new ArrayList<Map<String, Object>>();
+    private final Map<ContainerHost, List<ContainerVm>> savedAllocation = new HashMap<>();
 
     /**
      * The utilization history.
@@ -523,40 +524,77 @@ public abstract class PowerContainerVmAllocationPolicyMigrationAbstract extends
     }
 
     /**
-     * Save allocation.
+     * Save allocation. Only the lists of VMs of the hosts are copied.
      */
     protected void saveAllocation() {
         getSavedAllocation().clear();
         for (ContainerHost host : getContainerHostList()) {
+            List<ContainerVm> vms = new ArrayList<>(host.getVmList().size());
             for (ContainerVm vm : host.getVmList()) {
-                if (host.getVmsMigratingIn().contains(vm)) {
-                    continue;
+                if (!host.getVmsMigratingIn().contains(vm)) {
+                    vms.add(vm);
                 }
-                Map<String, Object> map = new HashMap<String, Object>();
-                map.put("host", host);
-                map.put("vm", vm);
-                getSavedAllocation().add(map);
             }
+            getSavedAllocation().put(host, vms);
         }
     }
 
     /**
-     * Restore allocation.
+     * Restore allocation. Only the hosts whose VMs were changed by the plan have their
+     * VMs destroyed and created again; the VMs checked on the other hosts just get their host back.
      */
     protected void restoreAllocation() {
+        List<ContainerHost> changedHosts = new ArrayList<>();
         for (ContainerHost host : getContainerHostList()) {
+            if (isAllocationChanged(host)) {
+                changedHosts.add(host);
+            }
+        }
+        for (ContainerHost host : changedHosts) {
             host.containerVmDestroyAll();
             host.reallocateMigratingInContainerVms();
         }
-        for (Map<String, Object> map : getSavedAllocation()) {
-            ContainerVm vm = (ContainerVm) map.get("vm");
-            PowerContainerHost host = (PowerContainerHost) map.get("host");
-            if (!host.containerVmCreate(vm)) {
-                Log.printConcatLine("Couldn't restore VM #", vm.getId(), " on host #", host.getId());
-                System.exit(0);
+        for (ContainerHost host : changedHosts) {
+            for (ContainerVm vm : getSavedAllocation().get(host)) {
+                if (!host.containerVmCreate(vm)) {
+                    Log.printConcatLine("Couldn't restore VM #", vm.getId(), " on host #", host.getId());
+                    System.exit(0);
+                }
+                getVmKeyTable().put(vm.getKey(), host);
+            }
+        }
+        for (ContainerHost host : getContainerHostList()) {
+            List<ContainerVm> vms = getSavedAllocation().get(host);
+            if (vms != null) {
+                for (ContainerVm vm : vms) {
+                    vm.setHost(host);
+                }
+            }
+        }
+    }
+
+    /**
+     * Checks if the VMs of a host, other than the ones migrating in, are not the saved ones anymore.
+     *
+     * @param host the host
+     * @return true if VMs were placed on the host or removed from it
+     */
+    protected boolean isAllocationChanged(ContainerHost host) {
+        List<ContainerVm> savedVms = getSavedAllocation().get(host);
+        if (savedVms == null) {
+            return false;
+        }
+        int i = 0;
+        for (ContainerVm vm : host.getVmList()) {
+            if (host.getVmsMigratingIn().contains(vm)) {
+                continue;
+            }
+            if (i == savedVms.size() || savedVms.get(i) != vm) {
+                return true;
             }
-            getVmTable().put(vm.getUid(), host);
+            i++;
         }
+        return i != savedVms.size();
     }
 
     /**
@@ -614,9 +652,9 @@ public abstract class PowerContainerVmAllocationPolicyMigrationAbstract extends
     /**
      * Gets the saved allocation.
      *
-     * @return the saved allocation
+     * @return the VMs of each host, other than the ones migrating in, when the allocation was saved
      */
-    protected List<Map<String, Object>> getSavedAllocation() {
+    protected Map<ContainerHost, List<ContainerVm>> getSavedAllocation() {
         return savedAllocation;
     }
 
@@ -16,6 +16,7 @@ import org.cloudbus.cloudsim.container.vmSelectionPolicies.PowerContainerVmSelec
 import org.cloudbus.cloudsim.Log;
 import org.cloudbus.cloudsim.core.CloudSim;
 import org.cloudbus.cloudsim.util.ExecutionTimeMeasurer;
+import org.cloudbus.cloudsim.util.OverrideCheck;
 
 import java.util.*;
 
@@ -26,11 +27,32 @@ import java.util.*;
 
 public abstract class PowerContainerVmAllocationPolicyMigrationAbstractContainerAdded extends PowerContainerVmAllocationPolicyMigrationAbstract {
 
+    /**
+     * Tells if a subclass overrides {@link #getPowerAfterContainerAllocation(PowerContainerHost, Container, ContainerVm)}.
+     */
+    private static final OverrideCheck POWER_AFTER_ALLOCATION =
+            new OverrideCheck(PowerContainerVmAllocationPolicyMigrationAbstractContainerAdded.class,
+                    "getPowerAfterContainerAllocation", PowerContainerHost.class, Container.class, ContainerVm.class);
+
+    /**
+     * Tells if a subclass overrides
+     * {@link #getMaxUtilizationAfterContainerAllocation(PowerContainerHost, Container, ContainerVm)}.
+     */
+    private static final OverrideCheck MAX_UTILIZATION_AFTER_ALLOCATION =
+            new OverrideCheck(PowerContainerVmAllocationPolicyMigrationAbstractContainerAdded.class,
+                    "getMaxUtilizationAfterContainerAllocation", PowerContainerHost.class, Container.class,
+                    ContainerVm.class);
+
     private ContainerDatacenter datacenter;
     /**
      * The container selection policy.
      */
     private PowerContainerSelectionPolicy containerSelectionPolicy;
+    /**
+     * The containers of each saved VM, other than the ones migrating in, when the
+     * optimization of the allocation started.
+     */
+    private final Map<ContainerVm, List<Container>> savedContainers = new HashMap<>();
     protected int numberOfVmTypes;
     protected int[] vmPes;
     protected float[] vmRam;
@@ -438,30 +460,31 @@ public abstract class PowerContainerVmAllocationPolicyMigrationAbstractContainer
 
     }
 
-    //    This method should be re written!
+    /**
+     * Finds the Vm, among the Vms created on the under utilized hosts, that a container is placed on.
+     * The Vms are grouped by host once, rather than scanning every entry for every host, and each host
+     * is only tried with its own Vms. The utilization and power of each host are read once for all the
+     * Vms tried on it, since trying a container on a Vm does not change them.
+     *
+     * @param container the container
+     * @param createdVm the maps of each created "vm" and its "host"
+     * @return the map of the chosen "vm" and "host", which are null if the container cannot be placed
+     */
     protected Map<String, Object> findAvailableHostForContainer(Container
                                                                         container, List<Map<String, Object>> createdVm){
 
         double minPower = Double.MAX_VALUE;
         PowerContainerHost allocatedHost = null;
         ContainerVm allocatedVm = null;
-        List<ContainerHost> underUtilizedHostList = new ArrayList<>();
-        List<ContainerVm> vmList = new ArrayList<>();
-        for(Map<String, Object> map:createdVm){
-            underUtilizedHostList.add((ContainerHost) map.get("host"));
-
-        }
+        Map<ContainerHost, List<ContainerVm>> createdVms = getCreatedVmsByHost(createdVm);
+        List<ContainerHost> underUtilizedHostList = new ArrayList<>(createdVms.keySet());
         ContainerHostList.sortByCpuUtilization(underUtilizedHostList);
         for (ContainerHost host1 : underUtilizedHostList) {
 
             PowerContainerHost host = (PowerContainerHost) host1;
-            for(Map<String, Object> map:createdVm){
-                if((ContainerHost) map.get("host")== host1){
-                vmList.add((ContainerVm) map.get("vm"));
-                }
-
-            }
-            for (ContainerVm vm : vmList) {
+            double hostPower = host.getPower();
+            double hostUtilizationMips = getUtilizationOfCpuMips(host);
+            for (ContainerVm vm : createdVms.get(host1)) {
 //                if vm is not created no need for checking!
 
                 if (vm.isSuitableForContainer(container)) {
@@ -469,14 +492,14 @@ public abstract class PowerContainerVmAllocationPolicyMigrationAbstractContainer
                     if (!isVmOverUtilized(vm)) {
                         continue;
                     }
-                    if (getUtilizationOfCpuMips(host) != 0 && isHostOverUtilizedAfterContainerAllocation(host, vm, container)) {
+                    if (hostUtilizationMips != 0 && isHostOverUtilizedAfterContainerAllocation(host, vm, container)) {
                         continue;
                     }
 
                     try {
-                        double powerAfterAllocation = getPowerAfterContainerAllocation(host, container, vm);
+                        double powerAfterAllocation = getPowerAfterContainerAllocation(host, container, vm, hostUtilizationMips);
                         if (powerAfterAllocation != -1) {
-                            double powerDiff = powerAfterAllocation - host.getPower();
+                            double powerDiff = powerAfterAllocation - hostPower;
                             if (powerDiff < minPower) {
                                 minPower = powerDiff;
                                 allocatedHost = host;
@@ -554,6 +577,9 @@ public abstract class PowerContainerVmAllocationPolicyMigrationAbstractContainer
             if (excludedHosts.contains(host)) {
                 continue;
             }
+            // trying the container on a vm of the host changes neither the utilization nor the power of the host
+            double hostPower = host.getPower();
+            double hostUtilizationMips = getUtilizationOfCpuMips(host);
             for (ContainerVm vm : host.getVmList()) {
                 if (checkForVM) {
                     if (vm.isInWaiting()) {
@@ -565,14 +591,14 @@ public abstract class PowerContainerVmAllocationPolicyMigrationAbstractContainer
                     if (!isVmOverUtilized(vm)) {
                         continue;
                     }
-                    if (getUtilizationOfCpuMips(host) != 0 && isHostOverUtilizedAfterContainerAllocation(host, vm, container)) {
+                    if (hostUtilizationMips != 0 && isHostOverUtilizedAfterContainerAllocation(host, vm, container)) {
                         continue;
                     }
 
                     try {
-                        double powerAfterAllocation = getPowerAfterContainerAllocation(host, container, vm);
+                        double powerAfterAllocation = getPowerAfterContainerAllocation(host, container, vm, hostUtilizationMips);
                         if (powerAfterAllocation != -1) {
-                            double powerDiff = powerAfterAllocation - host.getPower();
+                            double powerDiff = powerAfterAllocation - hostPower;
                             if (powerDiff < minPower) {
                                 minPower = powerDiff;
                                 allocatedHost = host;
@@ -614,9 +640,34 @@ public abstract class PowerContainerVmAllocationPolicyMigrationAbstractContainer
      * @return the power after allocation
      */
     protected double getPowerAfterContainerAllocation(PowerContainerHost host, Container container, ContainerVm vm) {
+        return powerAfterContainerAllocation(host, container, vm, getUtilizationOfCpuMips(host));
+    }
+
+    /**
+     * Gets the power after allocation, the current utilization of the host being already known.
+     * It calls {@link #getPowerAfterContainerAllocation(PowerContainerHost, Container, ContainerVm)}
+     * when a subclass overrides it.
+     *
+     * @param host                the host
+     * @param container           the container
+     * @param vm                  the vm
+     * @param hostUtilizationMips the utilization of the CPU of the host in MIPS
+     * @return the power after allocation
+     */
+    protected double getPowerAfterContainerAllocation(PowerContainerHost host, Container container, ContainerVm vm,
+            double hostUtilizationMips) {
+        if (POWER_AFTER_ALLOCATION.isOverriddenBy(this)) {
+            return getPowerAfterContainerAllocation(host, container, vm);
+        }
+        return powerAfterContainerAllocation(host, container, vm, hostUtilizationMips);
+    }
+
+    private double powerAfterContainerAllocation(PowerContainerHost host, Container container, ContainerVm vm,
+            double hostUtilizationMips) {
         double power = 0;
         try {
-            power = host.getPowerModel().getPower(getMaxUtilizationAfterContainerAllocation(host, container, vm));
+            power = host.getPowerModel().getPower(
+                    getMaxUtilizationAfterContainerAllocation(host, container, vm, hostUtilizationMips));
         } catch (Exception e) {
             e.printStackTrace();
             System.exit(0);
@@ -633,16 +684,59 @@ public abstract class PowerContainerVmAllocationPolicyMigrationAbstractContainer
      * @return the power after allocation
      */
     protected double getMaxUtilizationAfterContainerAllocation(PowerContainerHost host, Container container, ContainerVm containerVm) {
+        return maxUtilizationAfterContainerAllocation(host, container, containerVm, getUtilizationOfCpuMips(host));
+    }
+
+    /**
+     * Gets the utilization after allocation, the current utilization of the host being already known.
+     * It calls {@link #getMaxUtilizationAfterContainerAllocation(PowerContainerHost, Container, ContainerVm)}
+     * when a subclass overrides it.
+     *
+     * @param host                the host
+     * @param container           the container
+     * @param containerVm         the vm
+     * @param hostUtilizationMips the utilization of the CPU of the host in MIPS
+     * @return the utilization after allocation
+     */
+    protected double getMaxUtilizationAfterContainerAllocation(PowerContainerHost host, Container container,
+            ContainerVm containerVm, double hostUtilizationMips) {
+        if (MAX_UTILIZATION_AFTER_ALLOCATION.isOverriddenBy(this)) {
+            return getMaxUtilizationAfterContainerAllocation(host, container, containerVm);
+        }
+        return maxUtilizationAfterContainerAllocation(host, container, containerVm, hostUtilizationMips);
+    }
+
+    private double maxUtilizationAfterContainerAllocation(PowerContainerHost host, Container container,
+            ContainerVm containerVm, double hostUtilizationMips) {
         double requestedTotalMips = container.getCurrentRequestedTotalMips();
         if (requestedTotalMips > containerVm.getMips()) {
             requestedTotalMips = containerVm.getMips();
         }
-        double hostUtilizationMips = getUtilizationOfCpuMips(host);
         double hostPotentialUtilizationMips = hostUtilizationMips + requestedTotalMips;
         double pePotentialUtilization = hostPotentialUtilizationMips / host.getTotalMips();
         return pePotentialUtilization;
     }
 
+    /**
+     * Groups the created vms by host.
+     *
+     * @param createdVm the maps of each created "vm" and its "host"
+     * @return the vms of each host, in the order of the hosts
+     */
+    protected static Map<ContainerHost, List<ContainerVm>> getCreatedVmsByHost(List<Map<String, Object>> createdVm) {
+        Map<ContainerHost, List<ContainerVm>> createdVms = new LinkedHashMap<>();
+        for (Map<String, Object> map : createdVm) {
+            ContainerHost host = (ContainerHost) map.get("host");
+            List<ContainerVm> vmList = createdVms.get(host);
+            if (vmList == null) {
+                vmList = new ArrayList<>();
+                createdVms.put(host, vmList);
+            }
+            vmList.add((ContainerVm) map.get("vm"));
+        }
+        return createdVms;
+    }
+
     /**
      * Gets the utilization of the CPU in MIPS for the current potentially allocated VMs.
      *
@@ -676,90 +770,168 @@ public abstract class PowerContainerVmAllocationPolicyMigrationAbstractContainer
 
 
     /**
-     * Save allocation.
+     * Save allocation. Only the VMs having containers other than the ones migrating in are saved,
+     * the other VMs of a host being removed when its allocation is restored.
      */
     @Override
     protected void saveAllocation() {
         getSavedAllocation().clear();
+        getSavedContainers().clear();
+        int savedContainersNumber = 0;
         for (ContainerHost host : getContainerHostList()) {
+            List<ContainerVm> vms = new ArrayList<>();
             for (ContainerVm vm : host.getVmList()) {
                 if (host.getVmsMigratingIn().contains(vm)) {
                     continue;
                 }
-                for (Container container : vm.getContainerList()) {
-                    if (vm.getContainersMigratingIn().contains(container)) {
-                        continue;
-                    }
-                    Map<String, Object> map = new HashMap<String, Object>();
-                    map.put("host", host);
-                    map.put("vm", vm);
-                    map.put("container", container);
-                    getSavedAllocation().add(map);
+                List<Container> containers = getContainersNotMigratingIn(vm);
+                if (!containers.isEmpty()) {
+                    vms.add(vm);
+                    getSavedContainers().put(vm, containers);
+                    savedContainersNumber += containers.size();
                 }
             }
+            getSavedAllocation().put(host, vms);
         }
-        Log.printLine(String.format("The length of the saved map is ....%d", getSavedAllocation().size()));
+        Log.printLine(String.format("The length of the saved map is ....%d", savedContainersNumber));
 
     }
 
-
     /**
-     * Restore allocation.
+     * Restore allocation. Only the hosts whose VMs were changed by the plan have their VMs destroyed
+     * and created again, along with the containers of those VMs, and only the VMs whose containers
+     * were changed have their containers destroyed and created again. The resources of the containers
+     * are only allocated when they are created, unlike those of the VMs, which the hosts allocate again
+     * at each update, so the other VMs {@link ContainerVm#reallocateContainers() allocate} the resources
+     * of their containers again in place.
      */
+    @Override
     protected void restoreAllocation() {
+        Set<ContainerVm> rebuiltVms = new HashSet<>();
+        List<ContainerHost> changedHosts = new ArrayList<>();
+        for (ContainerHost host : getContainerHostList()) {
+            if (isAllocationChanged(host)) {
+                changedHosts.add(host);
+                rebuiltVms.addAll(host.getVmList());
+            }
+        }
+        for (ContainerHost host : getContainerHostList()) {
+            for (ContainerVm vm : host.getVmList()) {
+                if (!getSavedContainers().containsKey(vm) || isContainerAllocationChanged(vm)) {
+                    rebuiltVms.add(vm);
+                }
+            }
+        }
+        Set<ContainerVm> reallocatedVms = new HashSet<>();
         for (ContainerHost host : getContainerHostList()) {
             for (ContainerVm vm : host.getVmList()) {
-                vm.containerDestroyAll();
-                vm.reallocateMigratingInContainers();
+                if (rebuiltVms.contains(vm)) {
+                    vm.containerDestroyAll();
+                    vm.reallocateMigratingInContainers();
+                } else {
+                    reallocatedVms.add(vm);
+                }
             }
+        }
 
+        for (ContainerHost host : changedHosts) {
             host.containerVmDestroyAll();
             host.reallocateMigratingInContainerVms();
         }
-        for (Map<String, Object> map : getSavedAllocation()) {
-            PowerContainerVm vm = (PowerContainerVm) map.get("vm");
+        for (ContainerHost host : getContainerHostList()) {
+            for (ContainerVm vm : getSavedAllocation().get(host)) {
+                if (!host.getVmList().contains(vm)) {
+                    if (!host.containerVmCreate(vm)) {
+                        Log.printConcatLine("Couldn't restore VM #", vm.getId(), " on host #", host.getId());
+                        System.exit(0);
+                    }
 
-            PowerContainerHost host = (PowerContainerHost) map.get("host");
-            if (!host.getVmList().contains(vm)) {
-                if (!host.containerVmCreate(vm)) {
-                    Log.printConcatLine("Couldn't restore VM #", vm.getId(), " on host #", host.getId());
-                    System.exit(0);
+                    getVmKeyTable().put(vm.getKey(), host);
+                } else {
+                    vm.setHost(host);
                 }
-
-                getVmTable().put(vm.getUid(), host);
             }
-//            vm.containerDestroyAll();
-//            vm.reallocateMigratingInContainers();
         }
-//        List<ContainerVm > restoredVms = new ArrayList<>();
-        for (Map<String, Object> map : getSavedAllocation()) {
-            PowerContainerVm vm = (PowerContainerVm) map.get("vm");
-            if (map.get("container") != null && map.containsKey("container")) {
-                Container container = (Container) map.get("container");
-//                Log.print(container);
-
-                if (!vm.getContainerList().contains(container)) {
-                    if (!vm.containerCreate(container)) {
-                        Log.printConcatLine("Couldn't restore Container #", container.getId(), " on vm #", vm.getId());
+        for (ContainerHost host : getContainerHostList()) {
+            for (ContainerVm vm : getSavedAllocation().get(host)) {
+                if (reallocatedVms.contains(vm)) {
+                    if (!vm.reallocateContainers()) {
+                        Log.printConcatLine("Couldn't restore the containers of VM #", vm.getId());
                         System.exit(0);
                     }
-                } else {
-
-                    Log.print("The Container is in the VM already");
+                    continue;
                 }
+                for (Container container : getSavedContainers().get(vm)) {
+                    if (!vm.getContainerList().contains(container)) {
+                        if (!vm.containerCreate(container)) {
+                            Log.printConcatLine("Couldn't restore Container #", container.getId(), " on vm #", vm.getId());
+                            System.exit(0);
+                        }
+                    } else {
 
-                if (container.getVm() == null) {
-                    Log.print("The Vm is null");
+                        Log.print("The Container is in the VM already");
+                    }
+
+                    if (container.getVm() == null) {
+                        Log.print("The Vm is null");
 
+                    }
+                    ((PowerContainerAllocationPolicy) getDatacenter().getContainerAllocationPolicy()).
+                            getContainerKeyTable().put(container.getKey(), vm);
                 }
-                ((PowerContainerAllocationPolicy) getDatacenter().getContainerAllocationPolicy()).
-                        getContainerTable().put(container.getUid(), vm);
-//            container.setVm(vm);
+            }
+        }
+        getSavedContainers().clear();
+
+    }
 
+    /**
+     * Checks if the containers of a VM, other than the ones migrating in, are not the saved ones anymore.
+     *
+     * @param vm the VM
+     * @return true if containers were placed on the VM or removed from it
+     */
+    protected boolean isContainerAllocationChanged(ContainerVm vm) {
+        List<Container> savedContainers = getSavedContainers().get(vm);
+        if (savedContainers == null) {
+            return false;
+        }
+        int i = 0;
+        for (Container container : vm.getContainerList()) {
+            if (vm.getContainersMigratingIn().contains(container)) {
+                continue;
+            }
+            if (i == savedContainers.size() || savedContainers.get(i) != container) {
+                return true;
             }
+            i++;
         }
+        return i != savedContainers.size();
+    }
 
+    /**
+     * Gets the containers of a VM, other than the ones migrating in.
+     *
+     * @param vm the VM
+     * @return the containers of the VM
+     */
+    private static List<Container> getContainersNotMigratingIn(ContainerVm vm) {
+        List<Container> containers = new ArrayList<>(vm.getContainerList().size());
+        for (Container container : vm.getContainerList()) {
+            if (!vm.getContainersMigratingIn().contains(container)) {
+                containers.add(container);
+            }
+        }
+        return containers;
+    }
 
+    /**
+     * Gets the saved containers.
+     *
+     * @return the containers of each saved VM, other than the ones migrating in, when the allocation was saved
+     */
+    protected Map<ContainerVm, List<Container>> getSavedContainers() {
+        return savedContainers;
     }
 
     protected List<ContainerVm> createVms(ContainerHost host, boolean vmStatus) {
@@ -34,14 +34,18 @@ public abstract class PowerContainerVmAllocationPolicyMigrationAbstractContainer
         if(excludedHosts.size() == getContainerHostList().size()){
             return map;}
         excludedHost1.addAll(excludedHosts);
+        // the hosts in the order the policy chooses them, each host that is tried being excluded
+        Iterator<ContainerHost> hosts = getHostSelectionPolicy().getHosts(getContainerHostList(), container, excludedHost1);
         while (true) {
             if(getContainerHostList().size()==0){
                 return map;
             }
-            ContainerHost host = getHostSelectionPolicy().getHost(getContainerHostList(), container, excludedHost1);
+            ContainerHost host = hosts.hasNext() ? hosts.next() : null;
             boolean findVm = false;
             List<ContainerVm> vmList = host.getVmList();
             PowerContainerVmList.sortByCpuUtilization(vmList);
+            // trying the container on a vm of the host does not change the utilization of the host
+            boolean isHostUsed = getUtilizationOfCpuMips((PowerContainerHost) host) != 0;
             for (int i = 0; i < vmList.size(); i++) {
                 ContainerVm vm = vmList.get(vmList.size() - 1 - i);
                 if(checkForVM){
@@ -57,7 +61,7 @@ public abstract class PowerContainerVmAllocationPolicyMigrationAbstractContainer
                     if (!isVmOverUtilized(vm)) {
                         continue;
                     }
-                    if (getUtilizationOfCpuMips((PowerContainerHost) host) != 0 && isHostOverUtilizedAfterContainerAllocation((PowerContainerHost) host, vm, container)) {
+                    if (isHostUsed && isHostOverUtilizedAfterContainerAllocation((PowerContainerHost) host, vm, container)) {
                         continue;
                     }
                     vm.containerCreate(container);
@@ -225,25 +229,18 @@ public abstract class PowerContainerVmAllocationPolicyMigrationAbstractContainer
     ContainerVm allocatedVm = null;
     Map<String, Object> map = new HashMap<>();
     Set<ContainerHost> excludedHost1 = new HashSet<>();
-    List<ContainerHost> underUtilizedHostList = new ArrayList<>();
-    for(Map<String, Object> map1:createdVm){
-        ContainerHost host=(ContainerHost) map1.get("host");
-        if(!underUtilizedHostList.contains(host)){
-            underUtilizedHostList.add(host);}
-
-    }
+    Map<ContainerHost, List<ContainerVm>> createdVms = getCreatedVmsByHost(createdVm);
+    List<ContainerHost> underUtilizedHostList = new ArrayList<>(createdVms.keySet());
+    Iterator<ContainerHost> hosts = getHostSelectionPolicy().getHosts(underUtilizedHostList, container, excludedHost1);
 
 
     while (true) {
 
-        ContainerHost host = getHostSelectionPolicy().getHost(underUtilizedHostList, container, excludedHost1);
+        ContainerHost host = hosts.hasNext() ? hosts.next() : null;
+        // copied, since the vms are sorted below
         List<ContainerVm> vmList = new ArrayList<>();
-
-        for(Map<String, Object> map2:createdVm){
-            if(map2.get("host")== host){
-                vmList.add((ContainerVm) map2.get("vm"));
-            }
-
+        if (host != null) {
+            vmList.addAll(createdVms.get(host));
         }
 
 
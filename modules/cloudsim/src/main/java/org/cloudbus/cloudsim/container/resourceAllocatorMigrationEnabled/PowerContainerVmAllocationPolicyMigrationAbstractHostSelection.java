@@ -42,8 +42,10 @@ public class PowerContainerVmAllocationPolicyMigrationAbstractHostSelection exte
         Boolean find = false;
         Set<ContainerHost> excludedHost1 = new HashSet<>();
         excludedHost1.addAll(excludedHosts);
+        // the hosts in the order the policy chooses them, each host that is tried being excluded
+        Iterator<ContainerHost> hosts = getHostSelectionPolicy().getHosts(getContainerHostList(), vm, excludedHost1);
         while (!find) {
-            ContainerHost host = getHostSelectionPolicy().getHost(getContainerHostList(), vm, excludedHost1);
+            ContainerHost host = hosts.hasNext() ? hosts.next() : null;
             if (host == null) {
                 return allocatedHost;
             }
@@ -28,9 +28,11 @@ public class ContainerAllocationPolicyRS extends  PowerContainerAllocationPolicy
         Set<ContainerVm> excludedVmList = new HashSet<>();
         int tries = 0;
         boolean found = false;
+        // the vms in the order the policy chooses them, each vm that is tried being excluded
+        Iterator<ContainerVm> containerVms = getContainerPlacementPolicy().getContainerVms(getContainerVmList(), container, excludedVmList);
         do{
 
-            ContainerVm containerVm = getContainerPlacementPolicy().getContainerVm(getContainerVmList(), container,excludedVmList);
+            ContainerVm containerVm = containerVms.hasNext() ? containerVms.next() : null;
             if(containerVm == null){
 
                 return null;
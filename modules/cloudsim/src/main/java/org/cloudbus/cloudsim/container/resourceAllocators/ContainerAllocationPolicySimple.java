@@ -8,9 +8,11 @@ import org.cloudbus.cloudsim.container.core.Container;
 import org.cloudbus.cloudsim.container.core.ContainerVm;
 import org.cloudbus.cloudsim.Log;
 import org.cloudbus.cloudsim.core.CloudSim;
+import org.cloudbus.cloudsim.util.LongLongHashMap;
+import org.cloudbus.cloudsim.util.LongObjectHashMap;
+import org.cloudbus.cloudsim.util.UidMapView;
 
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -20,10 +22,10 @@ import java.util.Map;
  */
 public class ContainerAllocationPolicySimple extends ContainerAllocationPolicy {
 	/** The vm table. */
-	private Map<String, ContainerVm> containerVmTable;
+	private LongObjectHashMap<ContainerVm> containerVmTable;
 
 	/** The used pes. */
-	private Map<String, Integer> usedPes;
+	private LongLongHashMap usedPes;
 
 	/** The free pes. */
 	private List<Integer> freePes;
@@ -36,8 +38,8 @@ public class ContainerAllocationPolicySimple extends ContainerAllocationPolicy {
 	public ContainerAllocationPolicySimple() {
 		super();
 		setFreePes(new ArrayList<Integer>());
-		setContainerVmTable(new HashMap<String, ContainerVm>());
-		setUsedPes(new HashMap<String, Integer>());
+		setContainerVmTable(new LongObjectHashMap<ContainerVm>());
+		setUsedPesKeyMap(new LongLongHashMap());
 	}
 
 
@@ -57,7 +59,7 @@ public class ContainerAllocationPolicySimple extends ContainerAllocationPolicy {
 			freePesTmp.add(freePes);
 		}
 
-		if (!getContainerVmTable().containsKey(container.getUid())) { // if this vm was not created
+		if (!getContainerVmTable().containsKey(container.getKey())) { // if this vm was not created
 			do {// we still trying until we find a host or until we try all of them
 				int moreFree = Integer.MIN_VALUE;
 				int idx = -1;
@@ -74,8 +76,8 @@ public class ContainerAllocationPolicySimple extends ContainerAllocationPolicy {
 				result = containerVm.containerCreate(container);
 
 				if (result) { // if vm were succesfully created in the host
-					getContainerVmTable().put(container.getUid(), containerVm);
-					getUsedPes().put(container.getUid(), requiredPes);
+					getContainerVmTable().put(container.getKey(), containerVm);
+					getUsedPesKeyMap().put(container.getKey(), requiredPes);
 					getFreePes().set(idx, getFreePes().get(idx) - requiredPes);
 					result = true;
 					break;
@@ -95,11 +97,11 @@ public class ContainerAllocationPolicySimple extends ContainerAllocationPolicy {
 	@Override
 	public boolean allocateVmForContainer(Container container, ContainerVm containerVm) {
 		if (containerVm.containerCreate(container)) { // if vm has been succesfully created in the host
-			getContainerVmTable().put(container.getUid(), containerVm);
+			getContainerVmTable().put(container.getKey(), containerVm);
 
 			int requiredPes = container.getNumberOfPes();
 			int idx = getContainerVmList().indexOf(container);
-			getUsedPes().put(container.getUid(), requiredPes);
+			getUsedPesKeyMap().put(container.getKey(), requiredPes);
 			getFreePes().set(idx, getFreePes().get(idx) - requiredPes);
 
 			Log.formatLine(
@@ -120,9 +122,9 @@ public class ContainerAllocationPolicySimple extends ContainerAllocationPolicy {
 	@Override
 	public void deallocateVmForContainer(Container container) {
 
-		ContainerVm containerVm = getContainerVmTable().remove(container.getUid());
+		ContainerVm containerVm = getContainerVmTable().remove(container.getKey());
 		int idx = getContainerVmList().indexOf(containerVm);
-		int pes = getUsedPes().remove(container.getUid());
+		int pes = (int) getUsedPesKeyMap().remove(container.getKey(), 0);
 		if (containerVm != null) {
 			containerVm.containerDestroy(container);
 			getFreePes().set(idx, getFreePes().get(idx) + pes);
@@ -132,30 +134,54 @@ public class ContainerAllocationPolicySimple extends ContainerAllocationPolicy {
 
 	@Override
 	public ContainerVm getContainerVm(Container container) {
-		return getContainerVmTable().get(container.getUid());
+		return getContainerVmTable().get(container.getKey());
 	}
 
 	@Override
 	public ContainerVm getContainerVm(int containerId, int userId) {
-		return getContainerVmTable().get(Container.getUid(userId, containerId));
+		return getContainerVmTable().get(Container.getKey(userId, containerId));
 	}
 
-	protected Map<String, ContainerVm> getContainerVmTable() {
+	protected LongObjectHashMap<ContainerVm> getContainerVmTable() {
 		return containerVmTable;
 	}
 
-	protected void setContainerVmTable(Map<String, ContainerVm> containerVmTable) {
+	protected void setContainerVmTable(LongObjectHashMap<ContainerVm> containerVmTable) {
 		this.containerVmTable = containerVmTable;
 	}
 
-	protected Map<String, Integer> getUsedPes() {
+	protected LongLongHashMap getUsedPesKeyMap() {
 		return usedPes;
 	}
 
-	protected void setUsedPes(Map<String, Integer> usedPes) {
+	protected void setUsedPesKeyMap(LongLongHashMap usedPes) {
 		this.usedPes = usedPes;
 	}
 
+	/**
+	 * Gets the used pes, as a live view of {@link #getUsedPesKeyMap()}.
+	 * 
+	 * @return the used pes, keyed by uid
+	 * @deprecated Use {@link #getUsedPesKeyMap()}, which is keyed by the numeric keys.
+	 */
+	@Deprecated
+	protected Map<String, Integer> getUsedPes() {
+		return UidMapView.ofIntegers(getUsedPesKeyMap());
+	}
+
+	/**
+	 * Sets the used pes.
+	 * 
+	 * @param usedPes the used pes, keyed by uid
+	 * @deprecated Use {@link #setUsedPesKeyMap(LongLongHashMap)}.
+	 */
+	@Deprecated
+	protected void setUsedPes(Map<String, Integer> usedPes) {
+		LongLongHashMap keyTable = new LongLongHashMap();
+		UidMapView.ofIntegers(keyTable).putAll(usedPes);
+		setUsedPesKeyMap(keyTable);
+	}
+
 	protected List<Integer> getFreePes() {
 		return freePes;
 	}
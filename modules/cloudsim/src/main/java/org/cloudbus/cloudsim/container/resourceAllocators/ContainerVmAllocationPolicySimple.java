@@ -5,9 +5,11 @@ import org.cloudbus.cloudsim.container.core.ContainerHost;
 import org.cloudbus.cloudsim.container.core.ContainerVm;
 import org.cloudbus.cloudsim.Log;
 import org.cloudbus.cloudsim.core.CloudSim;
+import org.cloudbus.cloudsim.util.LongLongHashMap;
+import org.cloudbus.cloudsim.util.LongObjectHashMap;
+import org.cloudbus.cloudsim.util.UidMapView;
 
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -19,12 +21,12 @@ public class ContainerVmAllocationPolicySimple extends ContainerVmAllocationPoli
     /**
      * The vm table.
      */
-    private Map<String, ContainerHost> vmTable;
+    private LongObjectHashMap<ContainerHost> vmTable;
 
     /**
      * The used pes.
      */
-    private Map<String, Integer> usedPes;
+    private LongLongHashMap usedPes;
 
     /**
      * The free pes.
@@ -47,8 +49,8 @@ public class ContainerVmAllocationPolicySimple extends ContainerVmAllocationPoli
 
         }
 
-        setVmTable(new HashMap<String, ContainerHost>());
-        setUsedPes(new HashMap<String, Integer>());
+        setVmKeyTable(new LongObjectHashMap<ContainerHost>());
+        setUsedPesKeyMap(new LongLongHashMap());
     }
 
     @Override
@@ -61,7 +63,7 @@ public class ContainerVmAllocationPolicySimple extends ContainerVmAllocationPoli
             freePesTmp.add(freePes);
         }
 
-        if (!getVmTable().containsKey(containerVm.getUid())) { // if this vm was not created
+        if (!getVmKeyTable().containsKey(containerVm.getKey())) { // if this vm was not created
             do {// we still trying until we find a host or until we try all of them
                 int moreFree = Integer.MIN_VALUE;
                 int idx = -1;
@@ -78,8 +80,8 @@ public class ContainerVmAllocationPolicySimple extends ContainerVmAllocationPoli
                 result = host.containerVmCreate(containerVm);
 
                 if (result) { // if vm were succesfully created in the host
-                    getVmTable().put(containerVm.getUid(), host);
-                    getUsedPes().put(containerVm.getUid(), requiredPes);
+                    getVmKeyTable().put(containerVm.getKey(), host);
+                    getUsedPesKeyMap().put(containerVm.getKey(), requiredPes);
                     getFreePes().set(idx, getFreePes().get(idx) - requiredPes);
                     result = true;
                     break;
@@ -98,11 +100,11 @@ public class ContainerVmAllocationPolicySimple extends ContainerVmAllocationPoli
     @Override
     public boolean allocateHostForVm(ContainerVm containerVm, ContainerHost host) {
         if (host.containerVmCreate(containerVm)) { // if vm has been succesfully created in the host
-            getVmTable().put(containerVm.getUid(), host);
+            getVmKeyTable().put(containerVm.getKey(), host);
 
             int requiredPes = containerVm.getNumberOfPes();
             int idx = getContainerHostList().indexOf(host);
-            getUsedPes().put(containerVm.getUid(), requiredPes);
+            getUsedPesKeyMap().put(containerVm.getKey(), requiredPes);
             getFreePes().set(idx, getFreePes().get(idx) - requiredPes);
 
             Log.formatLine(
@@ -122,9 +124,9 @@ public class ContainerVmAllocationPolicySimple extends ContainerVmAllocationPoli
 
     @Override
     public void deallocateHostForVm(ContainerVm containerVm) {
-        ContainerHost host = getVmTable().remove(containerVm.getUid());
+        ContainerHost host = getVmKeyTable().remove(containerVm.getKey());
         int idx = getContainerHostList().indexOf(host);
-        int pes = getUsedPes().remove(containerVm.getUid());
+        int pes = (int) getUsedPesKeyMap().remove(containerVm.getKey(), 0);
         if (host != null) {
             host.containerVmDestroy(containerVm);
             getFreePes().set(idx, getFreePes().get(idx) + pes);
@@ -133,12 +135,12 @@ public class ContainerVmAllocationPolicySimple extends ContainerVmAllocationPoli
 
     @Override
     public ContainerHost getHost(ContainerVm containerVm) {
-        return getVmTable().get(containerVm.getUid());
+        return getVmKeyTable().get(containerVm.getKey());
     }
 
     @Override
     public ContainerHost getHost(int vmId, int userId) {
-        return getVmTable().get(ContainerVm.getUid(userId, vmId));
+        return getVmKeyTable().get(ContainerVm.getKey(userId, vmId));
     }
 
     @Override
@@ -147,22 +149,70 @@ public class ContainerVmAllocationPolicySimple extends ContainerVmAllocationPoli
     }
 
 
-    public Map<String, ContainerHost> getVmTable() {
+    public LongObjectHashMap<ContainerHost> getVmKeyTable() {
         return vmTable;
     }
 
-    public void setVmTable(Map<String, ContainerHost> vmTable) {
+    public void setVmKeyTable(LongObjectHashMap<ContainerHost> vmTable) {
         this.vmTable = vmTable;
     }
 
-    public Map<String, Integer> getUsedPes() {
+    public LongLongHashMap getUsedPesKeyMap() {
         return usedPes;
     }
 
-    public void setUsedPes(Map<String, Integer> usedPes) {
+    public void setUsedPesKeyMap(LongLongHashMap usedPes) {
         this.usedPes = usedPes;
     }
 
+    /**
+     * Gets the vm table, as a live view of {@link #getVmKeyTable()}.
+     *
+     * @return the vm table, keyed by uid
+     * @deprecated Use {@link #getVmKeyTable()}, which is keyed by the numeric keys.
+     */
+    @Deprecated
+    public Map<String, ContainerHost> getVmTable() {
+        return UidMapView.of(getVmKeyTable());
+    }
+
+    /**
+     * Sets the vm table.
+     *
+     * @param vmTable the vm table, keyed by uid
+     * @deprecated Use {@link #setVmKeyTable(LongObjectHashMap)}.
+     */
+    @Deprecated
+    public void setVmTable(Map<String, ContainerHost> vmTable) {
+        LongObjectHashMap<ContainerHost> keyTable = new LongObjectHashMap<>();
+        UidMapView.of(keyTable).putAll(vmTable);
+        setVmKeyTable(keyTable);
+    }
+
+    /**
+     * Gets the used pes, as a live view of {@link #getUsedPesKeyMap()}.
+     *
+     * @return the used pes, keyed by uid
+     * @deprecated Use {@link #getUsedPesKeyMap()}, which is keyed by the numeric keys.
+     */
+    @Deprecated
+    public Map<String, Integer> getUsedPes() {
+        return UidMapView.ofIntegers(getUsedPesKeyMap());
+    }
+
+    /**
+     * Sets the used pes.
+     *
+     * @param usedPes the used pes, keyed by uid
+     * @deprecated Use {@link #setUsedPesKeyMap(LongLongHashMap)}.
+     */
+    @Deprecated
+    public void setUsedPes(Map<String, Integer> usedPes) {
+        LongLongHashMap keyTable = new LongLongHashMap();
+        UidMapView.ofIntegers(keyTable).putAll(usedPes);
+        setUsedPesKeyMap(keyTable);
+    }
+
     public List<Integer> getFreePes() {
         return freePes;
     }
@@ -4,8 +4,9 @@ import org.cloudbus.cloudsim.container.core.Container;
 import org.cloudbus.cloudsim.container.core.ContainerVm;
 import org.cloudbus.cloudsim.Log;
 import org.cloudbus.cloudsim.core.CloudSim;
+import org.cloudbus.cloudsim.util.LongObjectHashMap;
+import org.cloudbus.cloudsim.util.UidMapView;
 
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -15,7 +16,7 @@ import java.util.Map;
 public abstract class PowerContainerAllocationPolicy extends ContainerAllocationPolicy{
 
         /** The container table. */
-        private final Map<String, ContainerVm> containerTable = new HashMap<>();
+        private final LongObjectHashMap<ContainerVm> containerTable = new LongObjectHashMap<>();
 
         /**
          * Instantiates a new power vm allocation policy abstract.
@@ -47,7 +48,7 @@ public abstract class PowerContainerAllocationPolicy extends ContainerAllocation
                 return false;
             }
             if (containerVm.containerCreate(container)) { // if vm has been succesfully created in the host
-                getContainerTable().put(container.getUid(), containerVm);
+                getContainerKeyTable().put(container.getKey(), containerVm);
 //                container.setVm(containerVm);
                 Log.formatLine(
                         "%.2f: Container #" + container.getId() + " has been allocated to the VM #" + containerVm.getId(),
@@ -82,7 +83,7 @@ public abstract class PowerContainerAllocationPolicy extends ContainerAllocation
          */
         @Override
         public void deallocateVmForContainer(Container container) {
-            ContainerVm containerVm = getContainerTable().remove(container.getUid());
+            ContainerVm containerVm = getContainerKeyTable().remove(container.getKey());
             if (containerVm != null) {
                 containerVm.containerDestroy(container);
             }
@@ -94,7 +95,7 @@ public abstract class PowerContainerAllocationPolicy extends ContainerAllocation
          */
         @Override
         public ContainerVm getContainerVm(Container container) {
-            return getContainerTable().get(container.getUid());
+            return getContainerKeyTable().get(container.getKey());
         }
 
         /*
@@ -103,7 +104,7 @@ public abstract class PowerContainerAllocationPolicy extends ContainerAllocation
          */
         @Override
         public ContainerVm getContainerVm(int containerId, int userId) {
-            return getContainerTable().get(Container.getUid(userId, containerId));
+            return getContainerKeyTable().get(Container.getKey(userId, containerId));
         }
 
         /**
@@ -111,10 +112,21 @@ public abstract class PowerContainerAllocationPolicy extends ContainerAllocation
          *
          * @return the vm table
          */
-        public Map<String, ContainerVm> getContainerTable() {
+        public LongObjectHashMap<ContainerVm> getContainerKeyTable() {
             return containerTable;
         }
 
+        /**
+         * Gets the container table, as a live view of {@link #getContainerKeyTable()}.
+         *
+         * @return the container table, keyed by uid
+         * @deprecated Use {@link #getContainerKeyTable()}, which is keyed by the numeric keys.
+         */
+        @Deprecated
+        public Map<String, ContainerVm> getContainerTable() {
+            return UidMapView.of(getContainerKeyTable());
+        }
+
     }
 
 
@@ -5,9 +5,10 @@ import org.cloudbus.cloudsim.Log;
 import org.cloudbus.cloudsim.container.core.ContainerHost;
 import org.cloudbus.cloudsim.container.core.ContainerVm;
 import org.cloudbus.cloudsim.core.CloudSim;
+import org.cloudbus.cloudsim.util.LongObjectHashMap;
+import org.cloudbus.cloudsim.util.UidMapView;
 
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 /**
@@ -16,7 +17,7 @@ import java.util.Map;
 public abstract  class PowerContainerVmAllocationAbstract extends ContainerVmAllocationPolicy{
 
         /** The vm table. */
-        private final Map<String, ContainerHost> vmTable = new HashMap<String, ContainerHost>();
+        private final LongObjectHashMap<ContainerHost> vmTable = new LongObjectHashMap<ContainerHost>();
 
         /**
          * Instantiates a new power vm allocation policy abstract.
@@ -48,7 +49,7 @@ public abstract  class PowerContainerVmAllocationAbstract extends ContainerVmAll
                 return false;
             }
             if (host.containerVmCreate(containerVm)) { // if vm has been succesfully created in the host
-                getVmTable().put(containerVm.getUid(), host);
+                getVmKeyTable().put(containerVm.getKey(), host);
                 Log.formatLine(
                         "%.2f: VM #" + containerVm.getId() + " has been allocated to the host #" + host.getId(),
                         CloudSim.clock());
@@ -81,7 +82,7 @@ public abstract  class PowerContainerVmAllocationAbstract extends ContainerVmAll
          */
         @Override
         public void deallocateHostForVm(ContainerVm containerVm) {
-            ContainerHost host = getVmTable().remove(containerVm.getUid());
+            ContainerHost host = getVmKeyTable().remove(containerVm.getKey());
             if (host != null) {
                 host.containerVmDestroy(containerVm);
             }
@@ -93,7 +94,7 @@ public abstract  class PowerContainerVmAllocationAbstract extends ContainerVmAll
          */
         @Override
         public ContainerHost getHost(ContainerVm vm) {
-            return getVmTable().get(vm.getUid());
+            return getVmKeyTable().get(vm.getKey());
         }
 
         /*
@@ -102,7 +103,7 @@ public abstract  class PowerContainerVmAllocationAbstract extends ContainerVmAll
          */
         @Override
         public ContainerHost getHost(int vmId, int userId) {
-            return getVmTable().get(ContainerVm.getUid(userId, vmId));
+            return getVmKeyTable().get(ContainerVm.getKey(userId, vmId));
         }
 
         /**
@@ -110,10 +111,21 @@ public abstract  class PowerContainerVmAllocationAbstract extends ContainerVmAll
          *
          * @return the vm table
          */
-        public Map<String, ContainerHost> getVmTable() {
+        public LongObjectHashMap<ContainerHost> getVmKeyTable() {
             return vmTable;
         }
 
+        /**
+         * Gets the vm table, as a live view of {@link #getVmKeyTable()}.
+         *
+         * @return the vm table, keyed by uid
+         * @deprecated Use {@link #getVmKeyTable()}, which is keyed by the numeric keys.
+         */
+        @Deprecated
+        public Map<String, ContainerHost> getVmTable() {
+            return UidMapView.of(getVmKeyTable());
+        }
+
     public List<ContainerVm> getOverUtilizedVms() {
         List<ContainerVm> vmList = new ArrayList<ContainerVm>();
         for (ContainerHost host : getContainerHostList()) {
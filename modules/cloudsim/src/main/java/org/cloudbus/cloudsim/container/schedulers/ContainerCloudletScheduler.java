@@ -2,7 +2,9 @@ package org.cloudbus.cloudsim.container.schedulers;
 
 import org.cloudbus.cloudsim.Cloudlet;
 import org.cloudbus.cloudsim.ResCloudlet;
+import org.cloudbus.cloudsim.util.MathUtil;
 
+import java.util.AbstractList;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -13,8 +15,30 @@ public abstract class ContainerCloudletScheduler {
         /** The previous time. */
         private double previousTime;
 
-        /** The current mips share. */
-        private List<Double> currentMipsShare;
+        /** The current mips share, with the MIPS of each PE. It is a copy owned by the scheduler. */
+        private double[] currentMipsShare;
+
+        /** The list view of {@link #currentMipsShare} returned by {@link #getCurrentMipsShare()}. */
+        private final List<Double> currentMipsShareView = new AbstractList<Double>() {
+
+            @Override
+            public Double get(int index) {
+                return currentMipsShare[index];
+            }
+
+            @Override
+            public Double set(int index, Double mips) {
+                double previous = currentMipsShare[index];
+                currentMipsShare[index] = mips;
+                return previous;
+            }
+
+            @Override
+            public int size() {
+                return currentMipsShare == null ? 0 : currentMipsShare.length;
+            }
+
+        };
 
         /** The cloudlet waiting list. */
         protected List<? extends ResCloudlet> cloudletWaitingList;
@@ -59,6 +83,24 @@ public abstract class ContainerCloudletScheduler {
          */
         public abstract double updateContainerProcessing(double currentTime, List<Double> mipsShare);
 
+        /**
+         * Updates the processing of cloudlets running under management of this scheduler,
+         * given the MIPS share as a primitive array. This is the method called by the containers.
+         * The default implementation adapts the call to {@link #updateContainerProcessing(double, List)};
+         * the schedulers of CloudSim override it so that no list is created on each update, unless
+         * a subclass of them overrides the list overload.
+         *
+         * @param currentTime current simulation time
+         * @param mipsShare MIPS share of each processor available to the scheduler
+         * @return time predicted completion time of the earliest finishing cloudlet, or 0 if there is no
+         *         next events
+         * @pre currentTime >= 0
+         * @post $none
+         */
+        public double updateContainerProcessingWithArray(double currentTime, double[] mipsShare) {
+            return updateContainerProcessing(currentTime, MathUtil.arrayToList(mipsShare));
+        }
+
         /**
          * Receives an cloudlet to be executed in the VM managed by this scheduler.
          *
@@ -180,6 +222,17 @@ public abstract class ContainerCloudletScheduler {
          */
         public abstract List<Double> getCurrentRequestedMips();
 
+        /**
+         * Gets the current requested mips as a primitive array. The returned array
+         * may be reused by the scheduler on the next call.
+         *
+         * @return the current mips
+         */
+        public double[] getCurrentRequestedMipsArray() {
+            List<Double> currentRequestedMips = getCurrentRequestedMips();
+            return currentRequestedMips == null ? null : MathUtil.listToArray(currentRequestedMips);
+        }
+
         /**
          * Gets the total current mips for the Cloudlet.
          *
@@ -245,15 +298,41 @@ public abstract class ContainerCloudletScheduler {
          * @param currentMipsShare the new current mips share
          */
         protected void setCurrentMipsShare(List<Double> currentMipsShare) {
-            this.currentMipsShare = currentMipsShare;
+            this.currentMipsShare = currentMipsShare == null ? null : MathUtil.listToArray(currentMipsShare);
+        }
+
+        /**
+         * Sets the current mips share. The values are copied, reusing the
+         * current array when the number of PEs doesn't change.
+         *
+         * @param currentMipsShare the new current mips share
+         */
+        protected void setCurrentMipsShare(double[] currentMipsShare) {
+            if (currentMipsShare == null) {
+                this.currentMipsShare = null;
+            } else if (this.currentMipsShare == null || this.currentMipsShare.length != currentMipsShare.length) {
+                this.currentMipsShare = currentMipsShare.clone();
+            } else {
+                System.arraycopy(currentMipsShare, 0, this.currentMipsShare, 0, currentMipsShare.length);
+            }
         }
 
         /**
-         * Gets the current mips share.
+         * Gets the current mips share. The returned list is a view of the share kept by the scheduler:
+         * it is the same list on every call and setting one of its elements changes the share.
          *
          * @return the current mips share
          */
         public List<Double> getCurrentMipsShare() {
+            return currentMipsShare == null ? null : currentMipsShareView;
+        }
+
+        /**
+         * Gets the current mips share without copying it. The returned array must not be modified.
+         *
+         * @return the current mips share
+         */
+        public double[] getCurrentMipsShareArray() {
             return currentMipsShare;
         }
 
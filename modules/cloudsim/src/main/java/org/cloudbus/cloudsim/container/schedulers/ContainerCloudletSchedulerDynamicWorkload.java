@@ -7,7 +7,10 @@ import org.cloudbus.cloudsim.Cloudlet;
 import org.cloudbus.cloudsim.Consts;
 import org.cloudbus.cloudsim.ResCloudlet;
 import org.cloudbus.cloudsim.core.CloudSim;
+import org.cloudbus.cloudsim.util.MathUtil;
+import org.cloudbus.cloudsim.util.OverrideCheck;
 
+import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
 import java.util.HashMap;
@@ -15,6 +18,14 @@ import java.util.ArrayList;
 
 public class ContainerCloudletSchedulerDynamicWorkload extends ContainerCloudletSchedulerTimeShared {
 
+        /** Tells if a subclass overrides {@link #updateContainerProcessing(double, List)}. */
+        private static final OverrideCheck UPDATE_PROCESSING = new OverrideCheck(
+                ContainerCloudletSchedulerDynamicWorkload.class, "updateContainerProcessing", double.class, List.class);
+
+        /** Tells if a subclass overrides {@link #getCurrentRequestedMips()}. */
+        private static final OverrideCheck REQUESTED_MIPS = new OverrideCheck(
+                ContainerCloudletSchedulerDynamicWorkload.class, "getCurrentRequestedMips");
+
         /** The mips. */
         private double mips;
 
@@ -33,6 +44,12 @@ public class ContainerCloudletSchedulerDynamicWorkload extends ContainerCloudlet
         /** The cache current requested mips. */
         private List<Double> cacheCurrentRequestedMips;
 
+        /** The time when the {@link #currentRequestedMipsArray} was computed. */
+        private double currentRequestedMipsArrayTime;
+
+        /** The last current requested MIPS of each PE, reused by {@link #getCurrentRequestedMipsArray()}. */
+        private double[] currentRequestedMipsArray;
+
         /**
          * Instantiates a new vM scheduler time shared.
          *
@@ -46,20 +63,35 @@ public class ContainerCloudletSchedulerDynamicWorkload extends ContainerCloudlet
             setTotalMips(getNumberOfPes() * getMips());
             setUnderAllocatedMips(new HashMap<String, Double>());
             setCachePreviousTime(-1);
+            currentRequestedMipsArrayTime = -1;
+        }
+
+        @Override
+        public double updateContainerProcessing(double currentTime, List<Double> mipsShare) {
+            double[] share = MathUtil.listToArray(mipsShare);
+            if (UPDATE_PROCESSING.isOverriddenBy(this)) {
+                return updateProcessing(currentTime, share);
+            }
+            return updateContainerProcessingWithArray(currentTime, share);
+        }
+
+        @Override
+        public double updateContainerProcessingWithArray(double currentTime, double[] mipsShare) {
+            if (UPDATE_PROCESSING.isOverriddenBy(this)) {
+                return updateContainerProcessing(currentTime, MathUtil.arrayToList(mipsShare));
+            }
+            return updateProcessing(currentTime, mipsShare);
         }
 
         /**
-         * Updates the processing of cloudlets running under management of this scheduler.
+         * Updates the processing of the cloudlets, whichever overload was called.
          *
          * @param currentTime current simulation time
-         * @param mipsShare array with MIPS share of each Pe available to the scheduler
+         * @param mipsShare   MIPS share of each processor available to the scheduler
          * @return time predicted completion time of the earliest finishing cloudlet, or 0 if there is
-         *         no next events
-         * @pre currentTime >= 0
-         * @post $none
+         * no next events
          */
-        @Override
-        public double updateContainerProcessing(double currentTime, List<Double> mipsShare) {
+        private double updateProcessing(double currentTime, double[] mipsShare) {
             setCurrentMipsShare(mipsShare);
 
             double timeSpan = currentTime - getPreviousTime();
@@ -187,6 +219,25 @@ public class ContainerCloudletSchedulerDynamicWorkload extends ContainerCloudlet
             return currentMips;
         }
 
+        @Override
+        public double[] getCurrentRequestedMipsArray() {
+            if (REQUESTED_MIPS.isOverriddenBy(this)) {
+                return super.getCurrentRequestedMipsArray();
+            }
+            if (currentRequestedMipsArray != null && currentRequestedMipsArray.length == getNumberOfPes()
+                    && currentRequestedMipsArrayTime == getPreviousTime()) {
+                return currentRequestedMipsArray;
+            }
+            if (currentRequestedMipsArray == null || currentRequestedMipsArray.length != getNumberOfPes()) {
+                currentRequestedMipsArray = new double[getNumberOfPes()];
+            }
+            double totalMips = getTotalUtilizationOfCpu(getPreviousTime()) * getTotalMips();
+            Arrays.fill(currentRequestedMipsArray, totalMips / getNumberOfPes());
+
+            currentRequestedMipsArrayTime = getPreviousTime();
+            return currentRequestedMipsArray;
+        }
+
         /**
          * Gets the current mips.
          *
@@ -208,6 +259,18 @@ public class ContainerCloudletSchedulerDynamicWorkload extends ContainerCloudlet
          */
         @Override
         public double getTotalCurrentAvailableMipsForCloudlet(ResCloudlet rcl, List<Double> mipsShare) {
+            return getTotalCurrentAvailableMipsForCloudlet(rcl,
+                    mipsShare == null ? null : MathUtil.listToArray(mipsShare));
+        }
+
+        /**
+         * Gets the total current mips for the clouddlet.
+         *
+         * @param rcl the rcl
+         * @param mipsShare the mips share of each PE
+         * @return the total current mips
+         */
+        protected double getTotalCurrentAvailableMipsForCloudlet(ResCloudlet rcl, double[] mipsShare) {
             double totalCurrentMips = 0.0;
             if (mipsShare != null) {
                 int neededPEs = rcl.getNumberOfPes();
@@ -232,7 +295,7 @@ public class ContainerCloudletSchedulerDynamicWorkload extends ContainerCloudlet
         @Override
         public double getTotalCurrentAllocatedMipsForCloudlet(ResCloudlet rcl, double time) {
             double totalCurrentRequestedMips = getTotalCurrentRequestedMipsForCloudlet(rcl, time);
-            double totalCurrentAvailableMips = getTotalCurrentAvailableMipsForCloudlet(rcl, getCurrentMipsShare());
+            double totalCurrentAvailableMips = getTotalCurrentAvailableMipsForCloudlet(rcl, getCurrentMipsShareArray());
             if (totalCurrentRequestedMips > totalCurrentAvailableMips) {
                 return totalCurrentAvailableMips;
             }
@@ -271,7 +334,7 @@ public class ContainerCloudletSchedulerDynamicWorkload extends ContainerCloudlet
          */
         public int getTotalCurrentMips() {
             int totalCurrentMips = 0;
-            for (double mips : getCurrentMipsShare()) {
+            for (double mips : getCurrentMipsShareArray()) {
                 totalCurrentMips += mips;
             }
             return totalCurrentMips;
@@ -4,6 +4,8 @@ import org.cloudbus.cloudsim.Cloudlet;
 import org.cloudbus.cloudsim.Consts;
 import org.cloudbus.cloudsim.ResCloudlet;
 import org.cloudbus.cloudsim.core.CloudSim;
+import org.cloudbus.cloudsim.util.MathUtil;
+import org.cloudbus.cloudsim.util.OverrideCheck;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -13,11 +15,26 @@ import java.util.List;
  */
 public class ContainerCloudletSchedulerTimeShared extends ContainerCloudletScheduler {
 
+    /**
+     * Tells if a subclass overrides {@link #updateContainerProcessing(double, List)}.
+     */
+    private static final OverrideCheck UPDATE_PROCESSING = new OverrideCheck(
+            ContainerCloudletSchedulerTimeShared.class, "updateContainerProcessing", double.class, List.class);
+
+    /** Tells if a subclass overrides {@link #getCurrentRequestedMips()}. */
+    private static final OverrideCheck REQUESTED_MIPS = new OverrideCheck(
+            ContainerCloudletSchedulerTimeShared.class, "getCurrentRequestedMips");
+
     /**
      * The current cp us.
      */
     protected int currentCPUs;
 
+    /**
+     * The requested mips, as this scheduler doesn't request any.
+     */
+    private static final double[] NO_REQUESTED_MIPS = new double[0];
+
     /**
      * Creates a new ContainerCloudletSchedulerTimeShared object. This method must be invoked before starting
      * the actual simulation.
@@ -30,18 +47,32 @@ public class ContainerCloudletSchedulerTimeShared extends ContainerCloudletSched
         currentCPUs = 0;
     }
 
+    @Override
+    public double updateContainerProcessing(double currentTime, List<Double> mipsShare) {
+        double[] share = MathUtil.listToArray(mipsShare);
+        if (UPDATE_PROCESSING.isOverriddenBy(this)) {
+            return updateProcessing(currentTime, share);
+        }
+        return updateContainerProcessingWithArray(currentTime, share);
+    }
+
+    @Override
+    public double updateContainerProcessingWithArray(double currentTime, double[] mipsShare) {
+        if (UPDATE_PROCESSING.isOverriddenBy(this)) {
+            return updateContainerProcessing(currentTime, MathUtil.arrayToList(mipsShare));
+        }
+        return updateProcessing(currentTime, mipsShare);
+    }
+
     /**
-     * Updates the processing of cloudlets running under management of this scheduler.
+     * Updates the processing of the cloudlets, whichever overload was called.
      *
      * @param currentTime current simulation time
-     * @param mipsShare   array with MIPS share of each processor available to the scheduler
+     * @param mipsShare   MIPS share of each processor available to the scheduler
      * @return time predicted completion time of the earliest finishing cloudlet, or 0 if there is
      * no next events
-     * @pre currentTime >= 0
-     * @post $none
      */
-    @Override
-    public double updateContainerProcessing(double currentTime, List<Double> mipsShare) {
+    private double updateProcessing(double currentTime, double[] mipsShare) {
         setCurrentMipsShare(mipsShare);
         double timeSpam = currentTime - getPreviousTime();
 
@@ -91,9 +122,19 @@ public class ContainerCloudletSchedulerTimeShared extends ContainerCloudletSched
      * @return the capacity
      */
     protected double getCapacity(List<Double> mipsShare) {
+        return getCapacity(MathUtil.listToArray(mipsShare));
+    }
+
+    /**
+     * Gets the capacity.
+     *
+     * @param mipsShare the mips share of each PE
+     * @return the capacity
+     */
+    protected double getCapacity(double[] mipsShare) {
         double capacity = 0.0;
         int cpus = 0;
-        for (Double mips : mipsShare) {
+        for (double mips : mipsShare) {
             capacity += mips;
             if (mips > 0.0) {
                 cpus++;
@@ -261,7 +302,7 @@ public class ContainerCloudletSchedulerTimeShared extends ContainerCloudletSched
 
             double remainingLength = rgl.getRemainingCloudletLength();
             double estimatedFinishTime = CloudSim.clock()
-                    + (remainingLength / (getCapacity(getCurrentMipsShare()) * rgl.getNumberOfPes()));
+                    + (remainingLength / (getCapacity(getCurrentMipsShareArray()) * rgl.getNumberOfPes()));
 
             return estimatedFinishTime;
         }
@@ -291,11 +332,11 @@ public class ContainerCloudletSchedulerTimeShared extends ContainerCloudletSched
 
         // use the current capacity to estimate the extra amount of
         // time to file transferring. It must be added to the cloudlet length
-        double extraSize = getCapacity(getCurrentMipsShare()) * fileTransferTime;
+        double extraSize = getCapacity(getCurrentMipsShareArray()) * fileTransferTime;
         long length = (long) (cloudlet.getCloudletLength() + extraSize);
         cloudlet.setCloudletLength(length);
 
-        return cloudlet.getCloudletLength() / getCapacity(getCurrentMipsShare());
+        return cloudlet.getCloudletLength() / getCapacity(getCurrentMipsShareArray());
     }
 
     /*
@@ -408,6 +449,14 @@ public class ContainerCloudletSchedulerTimeShared extends ContainerCloudletSched
         return new ArrayList<>();
     }
 
+    @Override
+    public double[] getCurrentRequestedMipsArray() {
+        if (REQUESTED_MIPS.isOverriddenBy(this)) {
+            return super.getCurrentRequestedMipsArray();
+        }
+        return NO_REQUESTED_MIPS;
+    }
+
     /*
      * (non-Javadoc)
      * @see cloudsim.CloudletScheduler#getTotalCurrentAvailableMipsForCloudlet(cloudsim.ResCloudlet,
@@ -415,7 +464,7 @@ public class ContainerCloudletSchedulerTimeShared extends ContainerCloudletSched
      */
     @Override
     public double getTotalCurrentAvailableMipsForCloudlet(ResCloudlet rcl, List<Double> mipsShare) {
-        return getCapacity(getCurrentMipsShare());
+        return getCapacity(getCurrentMipsShareArray());
     }
 
     /*
@@ -4,9 +4,12 @@ import org.cloudbus.cloudsim.container.containerProvisioners.ContainerPe;
 import org.cloudbus.cloudsim.container.lists.ContainerPeList;
 import org.cloudbus.cloudsim.container.core.Container;
 import org.cloudbus.cloudsim.Log;
+import org.cloudbus.cloudsim.util.LongHashSet;
+import org.cloudbus.cloudsim.util.LongObjectHashMap;
+import org.cloudbus.cloudsim.util.MathUtil;
+import org.cloudbus.cloudsim.util.UidListView;
+import org.cloudbus.cloudsim.util.UidMapView;
 
-import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -18,19 +21,19 @@ public abstract class  ContainerScheduler {
     private List<? extends ContainerPe> peList;
 
     /** The map of VMs to PEs. */
-    private Map<String, List<ContainerPe>> peMap;
+    private LongObjectHashMap<List<ContainerPe>> peMap;
 
     /** The MIPS that are currently allocated to the VMs. */
-    private Map<String, List<Double>> mipsMap;
+    private LongObjectHashMap<double[]> mipsMap;
 
     /** The total available mips. */
     private double availableMips;
 
     /** The VMs migrating in. */
-    private List<String> containersMigratingIn;
+    private LongHashSet containersMigratingIn;
 
     /** The VMs migrating out. */
-    private List<String> containersMigratingOut;
+    private LongHashSet containersMigratingOut;
 
 
     /**
@@ -42,11 +45,11 @@ public abstract class  ContainerScheduler {
      */
     public ContainerScheduler(List<? extends ContainerPe> pelist) {
         setPeList(pelist);
-        setPeMap(new HashMap<String, List<ContainerPe>>());
-        setMipsMap(new HashMap<String, List<Double>>());
+        setPeKeyMap(new LongObjectHashMap<List<ContainerPe>>());
+        setMipsKeyMap(new LongObjectHashMap<double[]>());
         setAvailableMips(ContainerPeList.getTotalMips(getPeList()));
-        setContainersMigratingIn(new ArrayList<String>());
-        setContainersMigratingOut(new ArrayList<String>());
+        setContainerKeysMigratingIn(new LongHashSet());
+        setContainerKeysMigratingOut(new LongHashSet());
 
     }
 
@@ -61,6 +64,20 @@ public abstract class  ContainerScheduler {
      */
     public abstract boolean allocatePesForContainer(Container container, List<Double> mipsShare);
 
+    /**
+     * Allocates PEs for a container, given the MIPS share as a primitive array. This is the method
+     * called by the VMs. By default, the request is adapted to
+     * {@link #allocatePesForContainer(Container, List)}; the schedulers of CloudSim override it so
+     * that no list is created, unless a subclass of them overrides the list overload.
+     *
+     * @param container the container
+     * @param mipsShare the mips share of each virtual PE
+     * @return $true if this policy allows a new container in the host, $false otherwise
+     */
+    public boolean allocatePesForContainerWithArray(Container container, double[] mipsShare) {
+        return allocatePesForContainer(container, MathUtil.arrayToList(mipsShare));
+    }
+
     /**
      * Releases PEs allocated to a VM.
      *
@@ -77,7 +94,7 @@ public abstract class  ContainerScheduler {
      * @post $none
      */
     public void deallocatePesForAllContainers() {
-        getMipsMap().clear();
+        getMipsKeyMap().clear();
         setAvailableMips(ContainerPeList.getTotalMips(getPeList()));
         for (ContainerPe pe : getPeList()) {
              pe.getContainerPeProvisioner().deallocateMipsForAllContainers();
@@ -91,7 +108,7 @@ public abstract class  ContainerScheduler {
      * @return the pes allocated for container
      */
     public List<ContainerPe> getPesAllocatedForVM(Container container) {
-        return getPeMap().get(container.getUid());
+        return getPeKeyMap().get(container.getKey());
     }
 
     /**
@@ -103,7 +120,18 @@ public abstract class  ContainerScheduler {
      * @post $none
      */
     public List<Double> getAllocatedMipsForContainer(Container container) {
-        return getMipsMap().get(container.getUid());
+        return MathUtil.arrayToList(getAllocatedMipsArrayForContainer(container));
+    }
+
+    /**
+     * Returns the MIPS share of each Pe that is allocated to a given container, without
+     * copying it. The array belongs to the scheduler and must not be modified.
+     *
+     * @param container the container
+     * @return the amount of MIPS of each pe that is available to the container, or null
+     */
+    public double[] getAllocatedMipsArrayForContainer(Container container) {
+        return getMipsKeyMap().get(container.getKey());
     }
 
     /**
@@ -114,7 +142,7 @@ public abstract class  ContainerScheduler {
      */
     public double getTotalAllocatedMipsForContainer(Container container) {
         double allocated = 0;
-        List<Double> mipsMap = getAllocatedMipsForContainer(container);
+        double[] mipsMap = getAllocatedMipsArrayForContainer(container);
         if (mipsMap != null) {
             for (double mips : mipsMap) {
                 allocated += mips;
@@ -184,7 +212,7 @@ public abstract class  ContainerScheduler {
      *
      * @return the mips map
      */
-    protected Map<String, List<Double>> getMipsMap() {
+    protected LongObjectHashMap<double[]> getMipsKeyMap() {
         return mipsMap;
     }
 
@@ -193,10 +221,35 @@ public abstract class  ContainerScheduler {
      *
      * @param mipsMap the mips map
      */
-    protected void setMipsMap(Map<String, List<Double>> mipsMap) {
+    protected void setMipsKeyMap(LongObjectHashMap<double[]> mipsMap) {
         this.mipsMap = mipsMap;
     }
 
+    /**
+     * Gets the mips map, as a view of {@link #getMipsKeyMap()}. The lists of the view are
+     * copies of the allocated MIPS: they are stored back only when put into the view.
+     *
+     * @return the mips map, keyed by uid
+     * @deprecated Use {@link #getMipsKeyMap()}, which is keyed by the numeric keys.
+     */
+    @Deprecated
+    protected Map<String, List<Double>> getMipsMap() {
+        return UidMapView.ofMips(getMipsKeyMap());
+    }
+
+    /**
+     * Sets the mips map.
+     *
+     * @param mipsMap the mips map, keyed by uid
+     * @deprecated Use {@link #setMipsKeyMap(LongObjectHashMap)}.
+     */
+    @Deprecated
+    protected void setMipsMap(Map<String, List<Double>> mipsMap) {
+        LongObjectHashMap<double[]> mipsKeyMap = new LongObjectHashMap<double[]>();
+        UidMapView.ofMips(mipsKeyMap).putAll(mipsMap);
+        setMipsKeyMap(mipsKeyMap);
+    }
+
     /**
      * Gets the free mips.
      *
@@ -221,7 +274,7 @@ public abstract class  ContainerScheduler {
      *
      * @return the containers in migration
      */
-    public List<String> getContainersMigratingOut() {
+    public LongHashSet getContainerKeysMigratingOut() {
         return containersMigratingOut;
     }
 
@@ -230,16 +283,40 @@ public abstract class  ContainerScheduler {
      *
      * @param containersInMigration the new containers migrating out
      */
-    protected void setContainersMigratingOut(List<String> containersInMigration) {
+    protected void setContainerKeysMigratingOut(LongHashSet containersInMigration) {
         containersMigratingOut = containersInMigration;
     }
 
+    /**
+     * Gets the containers in migration, as a live view of {@link #getContainerKeysMigratingOut()}.
+     *
+     * @return the uids of the containers in migration
+     * @deprecated Use {@link #getContainerKeysMigratingOut()}, which holds the keys of the containers.
+     */
+    @Deprecated
+    public List<String> getContainersMigratingOut() {
+        return UidListView.of(getContainerKeysMigratingOut());
+    }
+
+    /**
+     * Sets the containers in migration.
+     *
+     * @param uids the uids of the containers in migration
+     * @deprecated Use {@link #setContainerKeysMigratingOut(LongHashSet)}.
+     */
+    @Deprecated
+    protected void setContainersMigratingOut(List<String> uids) {
+        LongHashSet keys = new LongHashSet();
+        UidListView.of(keys).addAll(uids);
+        setContainerKeysMigratingOut(keys);
+    }
+
     /**
      * Gets the containers migrating in.
      *
      * @return the containers migrating in
      */
-    public List<String> getContainersMigratingIn() {
+    public LongHashSet getContainerKeysMigratingIn() {
         return containersMigratingIn;
     }
 
@@ -248,16 +325,40 @@ public abstract class  ContainerScheduler {
      *
      * @param containersMigratingIn the new containers migrating in
      */
-    protected void setContainersMigratingIn(List<String> containersMigratingIn) {
+    protected void setContainerKeysMigratingIn(LongHashSet containersMigratingIn) {
         this.containersMigratingIn = containersMigratingIn;
     }
 
+    /**
+     * Gets the containers migrating in, as a live view of {@link #getContainerKeysMigratingIn()}.
+     *
+     * @return the uids of the containers migrating in
+     * @deprecated Use {@link #getContainerKeysMigratingIn()}, which holds the keys of the containers.
+     */
+    @Deprecated
+    public List<String> getContainersMigratingIn() {
+        return UidListView.of(getContainerKeysMigratingIn());
+    }
+
+    /**
+     * Sets the containers migrating in.
+     *
+     * @param uids the uids of the containers migrating in
+     * @deprecated Use {@link #setContainerKeysMigratingIn(LongHashSet)}.
+     */
+    @Deprecated
+    protected void setContainersMigratingIn(List<String> uids) {
+        LongHashSet keys = new LongHashSet();
+        UidListView.of(keys).addAll(uids);
+        setContainerKeysMigratingIn(keys);
+    }
+
     /**
      * Gets the pe map.
      *
      * @return the pe map
      */
-    public Map<String, List<ContainerPe>> getPeMap() {
+    public LongObjectHashMap<List<ContainerPe>> getPeKeyMap() {
         return peMap;
     }
 
@@ -266,10 +367,34 @@ public abstract class  ContainerScheduler {
      *
      * @param peMap the pe map
      */
-    protected void setPeMap(Map<String, List<ContainerPe>> peMap) {
+    protected void setPeKeyMap(LongObjectHashMap<List<ContainerPe>> peMap) {
         this.peMap = peMap;
     }
 
+    /**
+     * Gets the pe map, as a live view of {@link #getPeKeyMap()}.
+     *
+     * @return the pe map, keyed by uid
+     * @deprecated Use {@link #getPeKeyMap()}, which is keyed by the numeric keys.
+     */
+    @Deprecated
+    public Map<String, List<ContainerPe>> getPeMap() {
+        return UidMapView.of(getPeKeyMap());
+    }
+
+    /**
+     * Sets the pe map.
+     *
+     * @param peMap the pe map, keyed by uid
+     * @deprecated Use {@link #setPeKeyMap(LongObjectHashMap)}.
+     */
+    @Deprecated
+    protected void setPeMap(Map<String, List<ContainerPe>> peMap) {
+        LongObjectHashMap<List<ContainerPe>> peKeyMap = new LongObjectHashMap<>();
+        UidMapView.of(peKeyMap).putAll(peMap);
+        setPeKeyMap(peKeyMap);
+    }
+
 
 
 
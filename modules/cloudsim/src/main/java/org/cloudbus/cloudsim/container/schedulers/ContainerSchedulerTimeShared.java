@@ -5,6 +5,11 @@ import org.cloudbus.cloudsim.container.lists.ContainerPeList;
 import org.cloudbus.cloudsim.container.containerProvisioners.ContainerPeProvisioner;
 import org.cloudbus.cloudsim.container.core.Container;
 import org.cloudbus.cloudsim.Log;
+import org.cloudbus.cloudsim.Vm;
+import org.cloudbus.cloudsim.util.LongObjectHashMap;
+import org.cloudbus.cloudsim.util.MathUtil;
+import org.cloudbus.cloudsim.util.OverrideCheck;
+import org.cloudbus.cloudsim.util.UidMapView;
 
 import java.util.*;
 
@@ -12,10 +17,18 @@ import java.util.*;
  * Created by sareh on 9/07/15.
  */
 public class ContainerSchedulerTimeShared extends ContainerScheduler {
+    /** Tells if a subclass overrides {@link #allocatePesForContainer(Container, List)}. */
+    private static final OverrideCheck ALLOCATE_PES = new OverrideCheck(ContainerSchedulerTimeShared.class,
+            "allocatePesForContainer", Container.class, List.class);
+
+    /** Tells if a subclass overrides {@link #allocatePesForContainer(String, List)}. */
+    private static final OverrideCheck ALLOCATE_PES_BY_UID = new OverrideCheck(ContainerSchedulerTimeShared.class,
+            "allocatePesForContainer", String.class, List.class);
+
     /**
      * The mips map requested.
      */
-    private Map<String, List<Double>> mipsMapRequested;
+    private LongObjectHashMap<double[]> mipsMapRequested;
 
     /**
      * The pes in use.
@@ -29,12 +42,35 @@ public class ContainerSchedulerTimeShared extends ContainerScheduler {
      */
     public ContainerSchedulerTimeShared(List<? extends ContainerPe> pelist) {
         super(pelist);
-        setMipsMapRequested(new HashMap<String, List<Double>>());
+        setRequestedMipsKeyMap(new LongObjectHashMap<double[]>());
     }
 
 
     @Override
     public boolean allocatePesForContainer(Container container, List<Double> mipsShareRequested) {
+        double[] share = MathUtil.listToArray(mipsShareRequested);
+        if (ALLOCATE_PES.isOverriddenBy(this)) {
+            return allocatePes(container, share);
+        }
+        return allocatePesForContainerWithArray(container, share);
+    }
+
+    @Override
+    public boolean allocatePesForContainerWithArray(Container container, double[] mipsShareRequested) {
+        if (ALLOCATE_PES.isOverriddenBy(this)) {
+            return allocatePesForContainer(container, MathUtil.arrayToList(mipsShareRequested));
+        }
+        return allocatePes(container, mipsShareRequested);
+    }
+
+    /**
+     * Allocates PEs for a container, whichever overload was called.
+     *
+     * @param container          the container
+     * @param mipsShareRequested the mips share requested by each virtual PE
+     * @return true, if successful
+     */
+    private boolean allocatePes(Container container, double[] mipsShareRequested) {
         /**
          * TODO: add the same to RAM and BW provisioners
          */
@@ -48,7 +84,7 @@ public class ContainerSchedulerTimeShared extends ContainerScheduler {
 //                getContainersMigratingOut().remove(container.getUid());
 //            }
 //        }
-        boolean result = allocatePesForContainer(container.getUid(), mipsShareRequested);
+        boolean result = allocatePesForContainerKey(container.getKey(), mipsShareRequested);
         updatePeProvisioning();
         return result;
     }
@@ -58,7 +94,7 @@ public class ContainerSchedulerTimeShared extends ContainerScheduler {
      */
     protected void updatePeProvisioning() {
 //        Log.printLine("VmSchedulerTimeShared: update the pe provisioning......");
-        getPeMap().clear();
+        getPeKeyMap().clear();
         for (ContainerPe pe : getPeList()) {
             pe.getContainerPeProvisioner().deallocateMipsForAllContainers();
         }
@@ -68,28 +104,30 @@ public class ContainerSchedulerTimeShared extends ContainerScheduler {
         ContainerPeProvisioner containerPeProvisioner = pe.getContainerPeProvisioner();
         double availableMips = containerPeProvisioner.getAvailableMips();
 
-        for (Map.Entry<String, List<Double>> entry : getMipsMap().entrySet()) {
-            String containerUid = entry.getKey();
-            getPeMap().put(containerUid, new LinkedList<ContainerPe>());
+        for (int i = 0; i < getMipsKeyMap().size(); i++) {
+            long containerKey = getMipsKeyMap().keyAt(i);
+            List<ContainerPe> containerPes = new LinkedList<ContainerPe>();
+            getPeKeyMap().put(containerKey, containerPes);
 
-            for (double mips : entry.getValue()) {
+            for (double mips : getMipsKeyMap().valueAt(i)) {
                 while (mips >= 0.1) {
                     if (availableMips >= mips) {
-                        containerPeProvisioner.allocateMipsForContainer(containerUid, mips);
-                        getPeMap().get(containerUid).add(pe);
+                        containerPeProvisioner.allocateMipsForContainer(containerKey, mips);
+                        containerPes.add(pe);
                         availableMips -= mips;
                         break;
                     } else {
-                        containerPeProvisioner.allocateMipsForContainer(containerUid, availableMips);
+                        containerPeProvisioner.allocateMipsForContainer(containerKey, availableMips);
                         if (availableMips != 0) {
-                            getPeMap().get(containerUid).add(pe);
+                            containerPes.add(pe);
                         }
                         mips -= availableMips;
                         if (mips <= 0.1) {
                             break;
                         }
                         if (!peIterator.hasNext()) {
-                            Log.printConcatLine("There is no enough MIPS (", mips, ") to accommodate VM ", containerUid);
+                            Log.printConcatLine("There is no enough MIPS (", mips, ") to accommodate VM ",
+                                    Vm.getUid((int) (containerKey >>> 32), (int) containerKey));
                             // System.exit(0);
                         }
                         pe = peIterator.next();
@@ -103,17 +141,44 @@ public class ContainerSchedulerTimeShared extends ContainerScheduler {
 
 
     /**
-     * Allocate pes for vm.
+     * Allocate pes for vm. If a subclass overrides this overload, the scheduler calls it
+     * instead of {@link #allocatePesForContainer(long, double[])}.
      *
      * @param containerUid       the containerUid
      * @param mipsShareRequested the mips share requested
      * @return true, if successful
      */
     protected boolean allocatePesForContainer(String containerUid, List<Double> mipsShareRequested) {
+        return allocatePesForContainer(Vm.getKey(containerUid), MathUtil.listToArray(mipsShareRequested));
+    }
+
+    /**
+     * Allocates pes for a container through {@link #allocatePesForContainer(long, double[])},
+     * or through {@link #allocatePesForContainer(String, List)} if a subclass overrides it.
+     *
+     * @param containerKey       the container key
+     * @param mipsShareRequested the mips share requested by each virtual PE
+     * @return true, if successful
+     */
+    private boolean allocatePesForContainerKey(long containerKey, double[] mipsShareRequested) {
+        if (ALLOCATE_PES_BY_UID.isOverriddenBy(this)) {
+            return allocatePesForContainer(Vm.getUid(containerKey), MathUtil.arrayToList(mipsShareRequested));
+        }
+        return allocatePesForContainer(containerKey, mipsShareRequested);
+    }
+
+    /**
+     * Allocate pes for a container.
+     *
+     * @param containerKey       the container key
+     * @param mipsShareRequested the mips share requested by each virtual PE
+     * @return true, if successful
+     */
+    protected boolean allocatePesForContainer(long containerKey, double[] mipsShareRequested) {
 //        Log.printLine("ContainerSchedulerTimeShared: allocatePesForContainerVm for containerUid......"+containerUid);
         double totalRequestedMips = 0;
         double peMips = getPeCapacity();
-        for (Double mips : mipsShareRequested) {
+        for (double mips : mipsShareRequested) {
             // each virtual PE of a VM must require not more than the capacity of a physical PE
             if (mips > peMips) {
                 return false;
@@ -126,29 +191,31 @@ public class ContainerSchedulerTimeShared extends ContainerScheduler {
             return false;
         }
 
-        getMipsMapRequested().put(containerUid, mipsShareRequested);
-        setPesInUse(getPesInUse() + mipsShareRequested.size());
+        getRequestedMipsKeyMap().put(containerKey, mipsShareRequested.clone());
+        setPesInUse(getPesInUse() + mipsShareRequested.length);
 
-        if (getContainersMigratingIn().contains(containerUid)) {
+        boolean migratingIn = getContainerKeysMigratingIn().contains(containerKey);
+        if (migratingIn) {
             // the destination host only experience nothing of the migrating Containers MIPS
             totalRequestedMips = 0;
 //            totalRequestedMips *= 0.1;
         }
 
-        List<Double> mipsShareAllocated = new ArrayList<Double>();
-        for (Double mipsRequested : mipsShareRequested) {
+        double[] mipsShareAllocated = new double[mipsShareRequested.length];
+        for (int i = 0; i < mipsShareRequested.length; i++) {
+            double mipsRequested = mipsShareRequested[i];
 //            if (getContainersMigratingOut().contains(containerUid)) {
 //                // It should handle the container load fully
 ////                mipsRequested *= 0.9;
 //            } else
-            if (getContainersMigratingIn().contains(containerUid)) {
+            if (migratingIn) {
                 // not responsible for those moving in
                 mipsRequested = 0.0;
             }
-            mipsShareAllocated.add(mipsRequested);
+            mipsShareAllocated[i] = mipsRequested;
         }
 
-        getMipsMap().put(containerUid, mipsShareAllocated);
+        getMipsKeyMap().put(containerKey, mipsShareAllocated);
         setAvailableMips(getAvailableMips() - totalRequestedMips);
 
         return true;
@@ -157,17 +224,17 @@ public class ContainerSchedulerTimeShared extends ContainerScheduler {
     @Override
     public void deallocatePesForContainer(Container container) {
 //        Log.printLine("containerSchedulerTimeShared: deallocatePesForContainer.....");
-        getMipsMapRequested().remove(container.getUid());
+        getRequestedMipsKeyMap().remove(container.getKey());
         setPesInUse(0);
-        getMipsMap().clear();
+        getMipsKeyMap().clear();
         setAvailableMips(ContainerPeList.getTotalMips(getPeList()));
 
         for (ContainerPe pe : getPeList()) {
             pe.getContainerPeProvisioner().deallocateMipsForContainer(container);
         }
 //        Log.printLine("SchedulerTimeShared: deallocatePesForContainerVm. allocates again acording to the left!!!!!!!....");
-        for (Map.Entry<String, List<Double>> entry : getMipsMapRequested().entrySet()) {
-            allocatePesForContainer(entry.getKey(), entry.getValue());
+        for (int i = 0; i < getRequestedMipsKeyMap().size(); i++) {
+            allocatePesForContainerKey(getRequestedMipsKeyMap().keyAt(i), getRequestedMipsKeyMap().valueAt(i));
         }
 
         updatePeProvisioning();
@@ -178,7 +245,7 @@ public class ContainerSchedulerTimeShared extends ContainerScheduler {
     @Override
     public void deallocatePesForAllContainers() {
         super.deallocatePesForAllContainers();
-        getMipsMapRequested().clear();
+        getRequestedMipsKeyMap().clear();
         setPesInUse(0);
     }
 
@@ -211,7 +278,7 @@ public class ContainerSchedulerTimeShared extends ContainerScheduler {
      *
      * @return the mips map requested
      */
-    protected Map<String, List<Double>> getMipsMapRequested() {
+    protected LongObjectHashMap<double[]> getRequestedMipsKeyMap() {
         return mipsMapRequested;
     }
 
@@ -220,9 +287,34 @@ public class ContainerSchedulerTimeShared extends ContainerScheduler {
      *
      * @param mipsMapRequested the mips map requested
      */
-    protected void setMipsMapRequested(Map<String, List<Double>> mipsMapRequested) {
+    protected void setRequestedMipsKeyMap(LongObjectHashMap<double[]> mipsMapRequested) {
         this.mipsMapRequested = mipsMapRequested;
     }
 
+    /**
+     * Gets the mips map requested, as a view of {@link #getRequestedMipsKeyMap()}. The lists
+     * of the view are copies of the requested MIPS: they are stored back only when put into the view.
+     *
+     * @return the mips map requested, keyed by uid
+     * @deprecated Use {@link #getRequestedMipsKeyMap()}, which is keyed by the numeric keys.
+     */
+    @Deprecated
+    protected Map<String, List<Double>> getMipsMapRequested() {
+        return UidMapView.ofMips(getRequestedMipsKeyMap());
+    }
+
+    /**
+     * Sets the mips map requested.
+     *
+     * @param mipsMapRequested the mips map requested, keyed by uid
+     * @deprecated Use {@link #setRequestedMipsKeyMap(LongObjectHashMap)}.
+     */
+    @Deprecated
+    protected void setMipsMapRequested(Map<String, List<Double>> mipsMapRequested) {
+        LongObjectHashMap<double[]> requestedMipsKeyMap = new LongObjectHashMap<>();
+        UidMapView.ofMips(requestedMipsKeyMap).putAll(mipsMapRequested);
+        setRequestedMipsKeyMap(requestedMipsKeyMap);
+    }
+
 
 }
@@ -3,10 +3,7 @@ package org.cloudbus.cloudsim.container.schedulers;
 import org.cloudbus.cloudsim.container.containerProvisioners.ContainerPe;
 import org.cloudbus.cloudsim.container.lists.ContainerPeList;
 
-import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 
 /**
  * Created by sareh on 22/07/15.
@@ -23,50 +20,42 @@ public class ContainerSchedulerTimeSharedOverSubscription extends ContainerSched
 
 
     @Override
-    public boolean allocatePesForContainer(String containerUid, List<Double> mipsShareRequested) {
+    public boolean allocatePesForContainer(long containerKey, double[] mipsShareRequested) {
         double totalRequestedMips = 0;
 
         // if the requested mips is bigger than the capacity of a single PE, we cap
         // the request to the PE's capacity
-        List<Double> mipsShareRequestedCapped = new ArrayList<Double>();
+        double[] mipsShareRequestedCapped = new double[mipsShareRequested.length];
         double peMips = getPeCapacity();
-        for (Double mips : mipsShareRequested) {
-            if (mips > peMips) {
-                mipsShareRequestedCapped.add(peMips);
-                totalRequestedMips += peMips;
-            } else {
-                mipsShareRequestedCapped.add(mips);
-                totalRequestedMips += mips;
-            }
+        for (int i = 0; i < mipsShareRequested.length; i++) {
+            double mips = Math.min(mipsShareRequested[i], peMips);
+            mipsShareRequestedCapped[i] = mips;
+            totalRequestedMips += mips;
         }
 
 
 
-        if (getContainersMigratingIn().contains(containerUid)) {
+        boolean migratingIn = getContainerKeysMigratingIn().contains(containerKey);
+        if (migratingIn) {
             // the destination host only experience 10% of the migrating VM's MIPS
             totalRequestedMips = 0.0;
         }else {
 
-            getMipsMapRequested().put(containerUid, mipsShareRequested);
-            setPesInUse(getPesInUse() + mipsShareRequested.size());
+            getRequestedMipsKeyMap().put(containerKey, mipsShareRequested.clone());
+            setPesInUse(getPesInUse() + mipsShareRequested.length);
 
         }
 
         if (getAvailableMips() >= totalRequestedMips) {
-            List<Double> mipsShareAllocated = new ArrayList<Double>();
-            for (Double mipsRequested : mipsShareRequestedCapped) {
-//                if (getContainersMigratingOut().contains(containerUid)) {
-//                    // performance degradation due to migration = 10% MIPS
-//                    mipsRequested *= 0.9;
-//                } else
-                if (!getContainersMigratingIn().contains(containerUid)) {
-                    // the destination host only experience 10% of the migrating VM's MIPS
-                    mipsShareAllocated.add(mipsRequested);
-                }
-            }
+//            if (getContainersMigratingOut().contains(containerUid)) {
+//                // performance degradation due to migration = 10% MIPS
+//                mipsRequested *= 0.9;
+//            } else
+            // the destination host only experience 10% of the migrating VM's MIPS
+            double[] mipsShareAllocated = migratingIn ? new double[0] : mipsShareRequestedCapped;
 
-            getMipsMap().put(containerUid, mipsShareAllocated);
-//            getMipsMap().put(containerUid, mipsShareRequestedCapped);
+            getMipsKeyMap().put(containerKey, mipsShareAllocated);
+//            getMipsKeyMap().put(containerUid, mipsShareRequestedCapped);
             setAvailableMips(getAvailableMips() - totalRequestedMips);
         } else {
             redistributeMipsDueToOverSubscription();
@@ -84,26 +73,14 @@ public class ContainerSchedulerTimeSharedOverSubscription extends ContainerSched
         // proportionally
         double totalRequiredMipsByAllVms = 0;
 
-        Map<String, List<Double>> mipsMapCapped = new HashMap<String, List<Double>>();
-        for (Map.Entry<String, List<Double>> entry : getMipsMapRequested().entrySet()) {
+        double peMips = getPeCapacity();
+        for (int i = 0; i < getRequestedMipsKeyMap().size(); i++) {
 
             double requiredMipsByThisContainer = 0.0;
-            String vmId = entry.getKey();
-            List<Double> mipsShareRequested = entry.getValue();
-            List<Double> mipsShareRequestedCapped = new ArrayList<Double>();
-            double peMips = getPeCapacity();
-            for (Double mips : mipsShareRequested) {
-                if (mips > peMips) {
-                    mipsShareRequestedCapped.add(peMips);
-                    requiredMipsByThisContainer += peMips;
-                } else {
-                    mipsShareRequestedCapped.add(mips);
-                    requiredMipsByThisContainer += mips;
-                }
+            for (double mips : getRequestedMipsKeyMap().valueAt(i)) {
+                requiredMipsByThisContainer += Math.min(mips, peMips);
             }
 
-            mipsMapCapped.put(vmId, mipsShareRequestedCapped);
-
 //            if (getContainersMigratingIn().contains(entry.getKey())) {
 //                // the destination host only experience 10% of the migrating VM's MIPS
 //                requiredMipsByThisContainer *= 0.1;
@@ -115,41 +92,37 @@ public class ContainerSchedulerTimeSharedOverSubscription extends ContainerSched
         double scalingFactor = totalAvailableMips / totalRequiredMipsByAllVms;
 
         // Clear the old MIPS allocation
-        getMipsMap().clear();
+        getMipsKeyMap().clear();
 
         // Update the actual MIPS allocated to the VMs
-        for (Map.Entry<String, List<Double>> entry : mipsMapCapped.entrySet()) {
-            String vmUid = entry.getKey();
-            List<Double> requestedMips = entry.getValue();
-
-            List<Double> updatedMipsAllocation = new ArrayList<Double>();
-            for (Double mips : requestedMips) {
+        for (int i = 0; i < getRequestedMipsKeyMap().size(); i++) {
+            long containerKey = getRequestedMipsKeyMap().keyAt(i);
+            double[] requestedMips = getRequestedMipsKeyMap().valueAt(i);
+            boolean migratingIn = getContainerKeysMigratingIn().contains(containerKey);
+
+            double[] updatedMipsAllocation = new double[migratingIn ? 0 : requestedMips.length];
+            for (int j = 0; j < updatedMipsAllocation.length; j++) {
+                // the request is capped to the PE's capacity
+                double mips = Math.min(requestedMips[j], peMips);
 //                if (getContainersMigratingOut().contains(vmUid)) {
                     // the original amount is scaled
 //                    mips *= scalingFactor;
                     // performance degradation due to migration = 10% MIPS
 //                    mips *= 0.9;
 //                } else
-                if (!getContainersMigratingIn().contains(vmUid)) {
-                    // the destination host only experiences 10% of the migrating VM's MIPS
-                    mips *= scalingFactor;
-
-                    updatedMipsAllocation.add(Math.floor(mips));
-                    // the final 10% of the requested MIPS are scaled
-//                    mips *= scalingFactor;
-                }
-
+                // the destination host only experiences 10% of the migrating VM's MIPS
+                mips *= scalingFactor;
 
+                updatedMipsAllocation[j] = Math.floor(mips);
+                // the final 10% of the requested MIPS are scaled
+//                mips *= scalingFactor;
             }
 
-            requestedMips.clear();
-
             // add in the new map
-            getMipsMap().put(vmUid, updatedMipsAllocation);
+            getMipsKeyMap().put(containerKey, updatedMipsAllocation);
 
         }
 
-        mipsMapCapped.clear();
         // As the host is oversubscribed, there no more available MIPS
         setAvailableMips(0);
     }
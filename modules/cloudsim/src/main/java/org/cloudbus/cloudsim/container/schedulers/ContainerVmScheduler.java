@@ -5,10 +5,13 @@ import org.cloudbus.cloudsim.container.containerVmProvisioners.ContainerVmPe;
 import org.cloudbus.cloudsim.container.lists.ContainerVmPeList;
 import org.cloudbus.cloudsim.container.core.ContainerVm;
 import org.cloudbus.cloudsim.Log;
+import org.cloudbus.cloudsim.util.LongHashSet;
+import org.cloudbus.cloudsim.util.LongObjectHashMap;
+import org.cloudbus.cloudsim.util.MathUtil;
+import org.cloudbus.cloudsim.util.UidListView;
+import org.cloudbus.cloudsim.util.UidMapView;
 
 
-import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -39,12 +42,12 @@ public abstract class ContainerVmScheduler {
     /**
      * The map of VMs to PEs.
      */
-    private Map<String, List<ContainerVmPe>> peMap;
+    private LongObjectHashMap<List<ContainerVmPe>> peMap;
 
     /**
      * The MIPS that are currently allocated to the VMs.
      */
-    private Map<String, List<Double>> mipsMap;
+    private LongObjectHashMap<double[]> mipsMap;
 
     /**
      * The total available mips.
@@ -54,12 +57,12 @@ public abstract class ContainerVmScheduler {
     /**
      * The VMs migrating in.
      */
-    private List<String> vmsMigratingIn;
+    private LongHashSet vmsMigratingIn;
 
     /**
      * The VMs migrating out.
      */
-    private List<String> vmsMigratingOut;
+    private LongHashSet vmsMigratingOut;
 
     /**
      * Creates a new HostAllocationPolicy.
@@ -70,11 +73,11 @@ public abstract class ContainerVmScheduler {
      */
     public ContainerVmScheduler(List<? extends ContainerVmPe> pelist) {
         setPeList(pelist);
-        setPeMap(new HashMap<String, List<ContainerVmPe>>());
-        setMipsMap(new HashMap<String, List<Double>>());
+        setPeKeyMap(new LongObjectHashMap<List<ContainerVmPe>>());
+        setMipsKeyMap(new LongObjectHashMap<double[]>());
         setAvailableMips(ContainerVmPeList.getTotalMips(getPeList()));
-        setVmsMigratingIn(new ArrayList<String>());
-        setVmsMigratingOut(new ArrayList<String>());
+        setVmKeysMigratingIn(new LongHashSet());
+        setVmKeysMigratingOut(new LongHashSet());
     }
 
     /**
@@ -88,6 +91,20 @@ public abstract class ContainerVmScheduler {
      */
     public abstract boolean allocatePesForVm(ContainerVm vm, List<Double> mipsShare);
 
+    /**
+     * Allocates PEs for a VM, given the MIPS share as a primitive array. This is the method
+     * called by the hosts. By default, the request is adapted to
+     * {@link #allocatePesForVm(ContainerVm, List)}; the schedulers of CloudSim override it so that
+     * no list is created, unless a subclass of them overrides the list overload.
+     *
+     * @param vm        the vm
+     * @param mipsShare the mips share of each virtual PE
+     * @return $true if this policy allows a new VM in the host, $false otherwise
+     */
+    public boolean allocatePesForVmWithArray(ContainerVm vm, double[] mipsShare) {
+        return allocatePesForVm(vm, MathUtil.arrayToList(mipsShare));
+    }
+
     /**
      * Releases PEs allocated to a VM.
      *
@@ -104,7 +121,7 @@ public abstract class ContainerVmScheduler {
      * @post $none
      */
     public void deallocatePesForAllContainerVms() {
-        getMipsMap().clear();
+        getMipsKeyMap().clear();
         setAvailableMips(ContainerVmPeList.getTotalMips(getPeList()));
         for (ContainerVmPe pe : getPeList()) {
             pe.getContainerVmPeProvisioner().deallocateMipsForAllContainerVms();
@@ -118,7 +135,7 @@ public abstract class ContainerVmScheduler {
      * @return the pes allocated for vm
      */
     public List<ContainerVmPe> getPesAllocatedForContainerVM(ContainerVm vm) {
-        return getPeMap().get(vm.getUid());
+        return getPeKeyMap().get(vm.getKey());
     }
 
     /**
@@ -130,7 +147,18 @@ public abstract class ContainerVmScheduler {
      * @post $none
      */
     public List<Double> getAllocatedMipsForContainerVm(ContainerVm vm) {
-        return getMipsMap().get(vm.getUid());
+        return MathUtil.arrayToList(getAllocatedMipsArrayForContainerVm(vm));
+    }
+
+    /**
+     * Returns the MIPS share of each Pe that is allocated to a given VM, without
+     * copying it. The array belongs to the scheduler and must not be modified.
+     *
+     * @param vm the vm
+     * @return the amount of MIPS of each pe that is available to the VM, or null
+     */
+    public double[] getAllocatedMipsArrayForContainerVm(ContainerVm vm) {
+        return getMipsKeyMap().get(vm.getKey());
     }
 
     /**
@@ -141,7 +169,7 @@ public abstract class ContainerVmScheduler {
      */
     public double getTotalAllocatedMipsForContainerVm(ContainerVm vm) {
         double allocated = 0;
-        List<Double> mipsMap = getAllocatedMipsForContainerVm(vm);
+        double[] mipsMap = getAllocatedMipsArrayForContainerVm(vm);
         if (mipsMap != null) {
             for (double mips : mipsMap) {
                 allocated += mips;
@@ -211,7 +239,7 @@ public abstract class ContainerVmScheduler {
      *
      * @return the mips map
      */
-    protected Map<String, List<Double>> getMipsMap() {
+    protected LongObjectHashMap<double[]> getMipsKeyMap() {
         return mipsMap;
     }
 
@@ -220,10 +248,35 @@ public abstract class ContainerVmScheduler {
      *
      * @param mipsMap the mips map
      */
-    protected void setMipsMap(Map<String, List<Double>> mipsMap) {
+    protected void setMipsKeyMap(LongObjectHashMap<double[]> mipsMap) {
         this.mipsMap = mipsMap;
     }
 
+    /**
+     * Gets the mips map, as a view of {@link #getMipsKeyMap()}. The lists of the view are
+     * copies of the allocated MIPS: they are stored back only when put into the view.
+     *
+     * @return the mips map, keyed by uid
+     * @deprecated Use {@link #getMipsKeyMap()}, which is keyed by the numeric keys.
+     */
+    @Deprecated
+    protected Map<String, List<Double>> getMipsMap() {
+        return UidMapView.ofMips(getMipsKeyMap());
+    }
+
+    /**
+     * Sets the mips map.
+     *
+     * @param mipsMap the mips map, keyed by uid
+     * @deprecated Use {@link #setMipsKeyMap(LongObjectHashMap)}.
+     */
+    @Deprecated
+    protected void setMipsMap(Map<String, List<Double>> mipsMap) {
+        LongObjectHashMap<double[]> mipsKeyMap = new LongObjectHashMap<double[]>();
+        UidMapView.ofMips(mipsKeyMap).putAll(mipsMap);
+        setMipsKeyMap(mipsKeyMap);
+    }
+
     /**
      * Gets the free mips.
      *
@@ -247,7 +300,7 @@ public abstract class ContainerVmScheduler {
      *
      * @return the vms in migration
      */
-    public List<String> getVmsMigratingOut() {
+    public LongHashSet getVmKeysMigratingOut() {
         return vmsMigratingOut;
     }
 
@@ -256,16 +309,40 @@ public abstract class ContainerVmScheduler {
      *
      * @param vmsInMigration the new vms migrating out
      */
-    protected void setVmsMigratingOut(List<String> vmsInMigration) {
+    protected void setVmKeysMigratingOut(LongHashSet vmsInMigration) {
         vmsMigratingOut = vmsInMigration;
     }
 
+    /**
+     * Gets the vms in migration, as a live view of {@link #getVmKeysMigratingOut()}.
+     *
+     * @return the uids of the vms in migration
+     * @deprecated Use {@link #getVmKeysMigratingOut()}, which holds the keys of the vms.
+     */
+    @Deprecated
+    public List<String> getVmsMigratingOut() {
+        return UidListView.of(getVmKeysMigratingOut());
+    }
+
+    /**
+     * Sets the vms in migration.
+     *
+     * @param uids the uids of the vms in migration
+     * @deprecated Use {@link #setVmKeysMigratingOut(LongHashSet)}.
+     */
+    @Deprecated
+    protected void setVmsMigratingOut(List<String> uids) {
+        LongHashSet keys = new LongHashSet();
+        UidListView.of(keys).addAll(uids);
+        setVmKeysMigratingOut(keys);
+    }
+
     /**
      * Gets the vms migrating in.
      *
      * @return the vms migrating in
      */
-    public List<String> getVmsMigratingIn() {
+    public LongHashSet getVmKeysMigratingIn() {
         return vmsMigratingIn;
     }
 
@@ -274,16 +351,40 @@ public abstract class ContainerVmScheduler {
      *
      * @param vmsMigratingIn the new vms migrating in
      */
-    protected void setVmsMigratingIn(List<String> vmsMigratingIn) {
+    protected void setVmKeysMigratingIn(LongHashSet vmsMigratingIn) {
         this.vmsMigratingIn = vmsMigratingIn;
     }
 
+    /**
+     * Gets the vms migrating in, as a live view of {@link #getVmKeysMigratingIn()}.
+     *
+     * @return the uids of the vms migrating in
+     * @deprecated Use {@link #getVmKeysMigratingIn()}, which holds the keys of the vms.
+     */
+    @Deprecated
+    public List<String> getVmsMigratingIn() {
+        return UidListView.of(getVmKeysMigratingIn());
+    }
+
+    /**
+     * Sets the vms migrating in.
+     *
+     * @param uids the uids of the vms migrating in
+     * @deprecated Use {@link #setVmKeysMigratingIn(LongHashSet)}.
+     */
+    @Deprecated
+    protected void setVmsMigratingIn(List<String> uids) {
+        LongHashSet keys = new LongHashSet();
+        UidListView.of(keys).addAll(uids);
+        setVmKeysMigratingIn(keys);
+    }
+
     /**
      * Gets the pe map.
      *
      * @return the pe map
      */
-    public Map<String, List<ContainerVmPe>> getPeMap() {
+    public LongObjectHashMap<List<ContainerVmPe>> getPeKeyMap() {
         return peMap;
     }
 
@@ -292,10 +393,34 @@ public abstract class ContainerVmScheduler {
      *
      * @param peMap the pe map
      */
-    protected void setPeMap(Map<String, List<ContainerVmPe>> peMap) {
+    protected void setPeKeyMap(LongObjectHashMap<List<ContainerVmPe>> peMap) {
         this.peMap = peMap;
     }
 
+    /**
+     * Gets the pe map, as a live view of {@link #getPeKeyMap()}.
+     *
+     * @return the pe map, keyed by uid
+     * @deprecated Use {@link #getPeKeyMap()}, which is keyed by the numeric keys.
+     */
+    @Deprecated
+    public Map<String, List<ContainerVmPe>> getPeMap() {
+        return UidMapView.of(getPeKeyMap());
+    }
+
+    /**
+     * Sets the pe map.
+     *
+     * @param peMap the pe map, keyed by uid
+     * @deprecated Use {@link #setPeKeyMap(LongObjectHashMap)}.
+     */
+    @Deprecated
+    protected void setPeMap(Map<String, List<ContainerVmPe>> peMap) {
+        LongObjectHashMap<List<ContainerVmPe>> peKeyMap = new LongObjectHashMap<>();
+        UidMapView.of(peKeyMap).putAll(peMap);
+        setPeKeyMap(peKeyMap);
+    }
+
 }
 
 
@@ -5,6 +5,11 @@ import org.cloudbus.cloudsim.container.lists.ContainerVmPeList;
 import org.cloudbus.cloudsim.container.containerVmProvisioners.ContainerVmPeProvisioner;
 import org.cloudbus.cloudsim.container.core.ContainerVm;
 import org.cloudbus.cloudsim.Log;
+import org.cloudbus.cloudsim.Vm;
+import org.cloudbus.cloudsim.util.LongObjectHashMap;
+import org.cloudbus.cloudsim.util.MathUtil;
+import org.cloudbus.cloudsim.util.OverrideCheck;
+import org.cloudbus.cloudsim.util.UidMapView;
 
 import java.util.*;
 
@@ -12,12 +17,33 @@ import java.util.*;
  * Created by sareh on 14/07/15.
  */
 public class ContainerVmSchedulerTimeShared extends ContainerVmScheduler {
+    /** Tells if a subclass overrides {@link #allocatePesForVm(ContainerVm, List)}. */
+    private static final OverrideCheck ALLOCATE_PES = new OverrideCheck(ContainerVmSchedulerTimeShared.class,
+            "allocatePesForVm", ContainerVm.class, List.class);
+
+    /** Tells if a subclass overrides {@link #allocatePesForVm(String, List)}. */
+    private static final OverrideCheck ALLOCATE_PES_BY_UID = new OverrideCheck(ContainerVmSchedulerTimeShared.class,
+            "allocatePesForVm", String.class, List.class);
+
     /** The mips map requested. */
-    private Map<String, List<Double>> mipsMapRequested;
+    private LongObjectHashMap<double[]> mipsMapRequested;
 
     /** The pes in use. */
     private int pesInUse;
 
+    /** The placement of each VM's MIPS on the PEs made by the last {@link #updatePeProvisioning()},
+     * in the order of the {@link #getMipsKeyMap()}. */
+    private ProvisionedVm[] provisionedVms;
+
+    /** The number of VMs in {@link #provisionedVms}, or -1 if the PEs have to be provisioned from scratch. */
+    private int provisionedVmCount;
+
+    /** The index of the PE where the placement of the next VM would start. */
+    private int provisionedEndPe;
+
+    /** The MIPS available in the PE where the placement of the next VM would start. */
+    private double provisionedEndAvailableMips;
+
     /**
      * Instantiates a new vm scheduler time shared.
      *
@@ -25,38 +51,89 @@ public class ContainerVmSchedulerTimeShared extends ContainerVmScheduler {
      */
     public ContainerVmSchedulerTimeShared(List<? extends ContainerVmPe> pelist) {
         super(pelist);
-        setMipsMapRequested(new HashMap<String, List<Double>>());
+        setRequestedMipsKeyMap(new LongObjectHashMap<double[]>());
+        provisionedVms = new ProvisionedVm[0];
+        provisionedVmCount = -1;
     }
 
     @Override
     public boolean allocatePesForVm(ContainerVm containerVm, List<Double> mipsShare) {
+        double[] share = MathUtil.listToArray(mipsShare);
+        if (ALLOCATE_PES.isOverriddenBy(this)) {
+            return allocatePes(containerVm, share);
+        }
+        return allocatePesForVmWithArray(containerVm, share);
+    }
+
+    @Override
+    public boolean allocatePesForVmWithArray(ContainerVm containerVm, double[] mipsShare) {
+        if (ALLOCATE_PES.isOverriddenBy(this)) {
+            return allocatePesForVm(containerVm, MathUtil.arrayToList(mipsShare));
+        }
+        return allocatePes(containerVm, mipsShare);
+    }
+
+    /**
+     * Allocates PEs for a VM, whichever overload was called.
+     *
+     * @param containerVm the vm
+     * @param mipsShare the mips share of each virtual PE
+     * @return true, if successful
+     */
+    private boolean allocatePes(ContainerVm containerVm, double[] mipsShare) {
         //Log.printLine("VmSchedulerTimeShared: allocatePesForVm with mips share size......" + mipsShare.size());
+        long vmKey = containerVm.getKey();
         if (containerVm.isInMigration()) {
-            if (!getVmsMigratingIn().contains(containerVm.getUid()) && !getVmsMigratingOut().contains(containerVm.getUid())) {
-                getVmsMigratingOut().add(containerVm.getUid());
+            if (!getVmKeysMigratingIn().contains(vmKey)) {
+                getVmKeysMigratingOut().add(vmKey);
             }
         } else {
-            if (getVmsMigratingOut().contains(containerVm.getUid())) {
-                getVmsMigratingOut().remove(containerVm.getUid());
-            }
+            getVmKeysMigratingOut().remove(vmKey);
         }
-        boolean result = allocatePesForVm(containerVm.getUid(), mipsShare);
+        boolean result = allocatePesForVmKey(vmKey, mipsShare);
         updatePeProvisioning();
         return result;
     }
 
     /**
-     * Allocate pes for vm.
+     * Allocate pes for vm. If a subclass overrides this overload, the scheduler calls it
+     * instead of {@link #allocatePesForVm(long, double[])}.
      *
      * @param vmUid the vm uid
      * @param mipsShareRequested the mips share requested
      * @return true, if successful
      */
     protected boolean allocatePesForVm(String vmUid, List<Double> mipsShareRequested) {
+        return allocatePesForVm(Vm.getKey(vmUid), MathUtil.listToArray(mipsShareRequested));
+    }
+
+    /**
+     * Allocates pes for vm through {@link #allocatePesForVm(long, double[])}, or through
+     * {@link #allocatePesForVm(String, List)} if a subclass overrides it.
+     *
+     * @param vmKey the vm key
+     * @param mipsShareRequested the mips share requested by each virtual PE
+     * @return true, if successful
+     */
+    private boolean allocatePesForVmKey(long vmKey, double[] mipsShareRequested) {
+        if (ALLOCATE_PES_BY_UID.isOverriddenBy(this)) {
+            return allocatePesForVm(Vm.getUid(vmKey), MathUtil.arrayToList(mipsShareRequested));
+        }
+        return allocatePesForVm(vmKey, mipsShareRequested);
+    }
+
+    /**
+     * Allocate pes for vm.
+     *
+     * @param vmKey the vm key
+     * @param mipsShareRequested the mips share requested by each virtual PE
+     * @return true, if successful
+     */
+    protected boolean allocatePesForVm(long vmKey, double[] mipsShareRequested) {
         //Log.printLine("VmSchedulerTimeShared: allocatePesForVm for Vmuid......"+vmUid);
         double totalRequestedMips = 0;
         double peMips = getPeCapacity();
-        for (Double mips : mipsShareRequested) {
+        for (double mips : mipsShareRequested) {
             // each virtual PE of a VM must require not more than the capacity of a physical PE
             if (mips > peMips) {
                 return false;
@@ -69,27 +146,30 @@ public class ContainerVmSchedulerTimeShared extends ContainerVmScheduler {
             return false;
         }
 
-        getMipsMapRequested().put(vmUid, mipsShareRequested);
-        setPesInUse(getPesInUse() + mipsShareRequested.size());
+        getRequestedMipsKeyMap().put(vmKey, mipsShareRequested.clone());
+        setPesInUse(getPesInUse() + mipsShareRequested.length);
 
-        if (getVmsMigratingIn().contains(vmUid)) {
+        boolean migratingOut = getVmKeysMigratingOut().contains(vmKey);
+        boolean migratingIn = getVmKeysMigratingIn().contains(vmKey);
+        if (migratingIn) {
             // the destination host only experience 10% of the migrating VM's MIPS
             totalRequestedMips *= 0.1;
         }
 
-        List<Double> mipsShareAllocated = new ArrayList<Double>();
-        for (Double mipsRequested : mipsShareRequested) {
-            if (getVmsMigratingOut().contains(vmUid)) {
+        double[] mipsShareAllocated = new double[mipsShareRequested.length];
+        for (int i = 0; i < mipsShareRequested.length; i++) {
+            double mipsRequested = mipsShareRequested[i];
+            if (migratingOut) {
                 // performance degradation due to migration = 10% MIPS
                 mipsRequested *= 0.9;
-            } else if (getVmsMigratingIn().contains(vmUid)) {
+            } else if (migratingIn) {
                 // the destination host only experience 10% of the migrating VM's MIPS
                 mipsRequested *= 0.1;
             }
-            mipsShareAllocated.add(mipsRequested);
+            mipsShareAllocated[i] = mipsRequested;
         }
 
-        getMipsMap().put(vmUid, mipsShareAllocated);
+        getMipsKeyMap().put(vmKey, mipsShareAllocated);
         setAvailableMips(getAvailableMips() - totalRequestedMips);
 
         return true;
@@ -97,48 +177,90 @@ public class ContainerVmSchedulerTimeShared extends ContainerVmScheduler {
 
     /**
      * Update allocation of VMs on PEs.
+     * Only the VMs from the first one that changed since the last update are placed again,
+     * from the PE where that VM started, which gives the same result as placing all the VMs from scratch.
      */
     protected void updatePeProvisioning() {
         //Log.printLine("VmSchedulerTimeShared: update the pe provisioning......");
-        getPeMap().clear();
-//        Log.printConcatLine("The Pe Map is being cleared ");
-        for (ContainerVmPe pe : getPeList()) {
-            pe.getContainerVmPeProvisioner().deallocateMipsForAllContainerVms();
+        LongObjectHashMap<double[]> mipsMap = getMipsKeyMap();
+        int previousCount = provisionedVmCount;
+        int first = 0;
+        int unchanged = Math.min(previousCount, mipsMap.size());
+        while (first < unchanged
+                && provisionedVms[first].isPlacementOf(mipsMap.keyAt(first), mipsMap.valueAt(first))) {
+            first++;
+        }
+        if (first == previousCount && first == mipsMap.size()) {
+            return;
+        }
+
+        int peIndex;
+        double availableMips;
+        if (first == 0) {
+            getPeKeyMap().clear();
+//            Log.printConcatLine("The Pe Map is being cleared ");
+            for (ContainerVmPe pe : getPeList()) {
+                pe.getContainerVmPeProvisioner().deallocateMipsForAllContainerVms();
+            }
+            peIndex = 0;
+            availableMips = getPeList().get(0).getContainerVmPeProvisioner().getAvailableMips();
+        } else if (first == previousCount) {
+            peIndex = provisionedEndPe;
+            availableMips = provisionedEndAvailableMips;
+        } else {
+            peIndex = provisionedVms[first].startPe;
+            availableMips = provisionedVms[first].startAvailableMips;
+            releasePes(first, previousCount, peIndex);
+        }
+
+        // if the placement fails, the next update starts from scratch
+        provisionedVmCount = -1;
+        if (provisionedVms.length < mipsMap.size()) {
+            provisionedVms = Arrays.copyOf(provisionedVms, Math.max(mipsMap.size(), provisionedVms.length * 2));
         }
 
-        Iterator<ContainerVmPe> peIterator = getPeList().iterator();
+        ListIterator<ContainerVmPe> peIterator = getPeList().listIterator(peIndex);
         ContainerVmPe pe = peIterator.next();
         ContainerVmPeProvisioner containerVmPeProvisioner = pe.getContainerVmPeProvisioner();
-        double availableMips = containerVmPeProvisioner.getAvailableMips();
 
-        for (Map.Entry<String, List<Double>> entry : getMipsMap().entrySet()) {
-            String vmUid = entry.getKey();
-            getPeMap().put(vmUid, new LinkedList<ContainerVmPe>());
+        for (int i = first; i < mipsMap.size(); i++) {
+            long vmKey = mipsMap.keyAt(i);
+            if (provisionedVms[i] == null) {
+                provisionedVms[i] = new ProvisionedVm();
+            }
+            ProvisionedVm provisionedVm = provisionedVms[i];
+            provisionedVm.start(vmKey, mipsMap.valueAt(i), peIndex, availableMips);
+            List<ContainerVmPe> vmPes = new LinkedList<ContainerVmPe>();
+            getPeKeyMap().put(vmKey, vmPes);
 
-            for (double mips : entry.getValue()) {
+            for (double mips : mipsMap.valueAt(i)) {
 //                Log.printConcatLine("The mips value is: ",mips);
                 while (mips >= 0.1) {
                     if (availableMips >= mips) {
-                        containerVmPeProvisioner.allocateMipsForContainerVm(vmUid, mips);
-                        getPeMap().get(vmUid).add(pe);
+                        containerVmPeProvisioner.allocateMipsForContainerVm(vmKey, mips);
+                        provisionedVm.add(peIndex, mips);
+                        vmPes.add(pe);
 //                        Log.formatLine("The allocated Mips is % f to Pe Id % d", mips, pe.getId());
                         availableMips -= mips;
 //                        Log.print(getPeMap().get(vmUid));
                         break;
                     } else {
-                        containerVmPeProvisioner.allocateMipsForContainerVm(vmUid, availableMips);
+                        containerVmPeProvisioner.allocateMipsForContainerVm(vmKey, availableMips);
+                        provisionedVm.add(peIndex, availableMips);
                         if(availableMips != 0){
-                        getPeMap().get(vmUid).add(pe);}
+                        vmPes.add(pe);}
                         mips -= availableMips;
 //                        Log.print(getPeMap().get(vmUid));
                         if (mips <= 0.1) {
                             break;
                         }
                         if (!peIterator.hasNext()) {
-                            Log.printConcatLine("There is no enough MIPS (", mips, ") to accommodate VM ", vmUid);
+                            Log.printConcatLine("There is no enough MIPS (", mips, ") to accommodate VM ",
+                                    Vm.getUid((int) (vmKey >>> 32), (int) vmKey));
                             // System.exit(0);
                         }
                         pe = peIterator.next();
+                        peIndex++;
                         containerVmPeProvisioner = pe.getContainerVmPeProvisioner();
                         availableMips = containerVmPeProvisioner.getAvailableMips();
                     }
@@ -147,7 +269,42 @@ public class ContainerVmSchedulerTimeShared extends ContainerVmScheduler {
         }
 //        Log.printConcatLine("These are the values",getPeMap().keySet());
 
+        provisionedVmCount = mipsMap.size();
+        provisionedEndPe = peIndex;
+        provisionedEndAvailableMips = availableMips;
+    }
+
+    /**
+     * Releases the PEs used by a range of the VMs placed by the last {@link #updatePeProvisioning()},
+     * leaving the PEs as they were before the first VM of the range was placed.
+     *
+     * @param first   the position of the first VM to release
+     * @param count   the number of VMs placed
+     * @param startPe the index of the PE where the first VM to release was placed from
+     */
+    private void releasePes(int first, int count, int startPe) {
+        for (int i = first; i < count; i++) {
+            getPeKeyMap().remove(provisionedVms[i].vmKey);
+        }
+        for (int i = startPe; i < getPeList().size(); i++) {
+            getPeList().get(i).getContainerVmPeProvisioner().deallocateMipsForAllContainerVms();
+        }
 
+        // the start PE may be shared with the last VMs before the range,
+        // whose allocations are made again in the same order
+        int from = first;
+        while (from > 0 && provisionedVms[from].startPe == startPe) {
+            from--;
+        }
+        ContainerVmPeProvisioner containerVmPeProvisioner = getPeList().get(startPe).getContainerVmPeProvisioner();
+        for (int i = from; i < first; i++) {
+            ProvisionedVm provisionedVm = provisionedVms[i];
+            for (int j = 0; j < provisionedVm.size; j++) {
+                if (provisionedVm.pes[j] == startPe) {
+                    containerVmPeProvisioner.allocateMipsForContainerVm(provisionedVm.vmKey, provisionedVm.mips[j]);
+                }
+            }
+        }
     }
 
 
@@ -156,17 +313,17 @@ public class ContainerVmSchedulerTimeShared extends ContainerVmScheduler {
     @Override
     public void deallocatePesForVm(ContainerVm containerVm) {
         //Log.printLine("VmSchedulerTimeShared: deallocatePesForVm.....");
-        getMipsMapRequested().remove(containerVm.getUid());
+        getRequestedMipsKeyMap().remove(containerVm.getKey());
         setPesInUse(0);
-        getMipsMap().clear();
+        getMipsKeyMap().clear();
         setAvailableMips(ContainerVmPeList.getTotalMips(getPeList()));
 
         for (ContainerVmPe pe : getPeList()) {
             pe.getContainerVmPeProvisioner().deallocateMipsForContainerVm(containerVm);
         }
         //Log.printLine("VmSchedulerTimeShared: deallocatePesForVm. allocates again!!!!!!!....");
-        for (Map.Entry<String, List<Double>> entry : getMipsMapRequested().entrySet()) {
-            allocatePesForVm(entry.getKey(), entry.getValue());
+        for (int i = 0; i < getRequestedMipsKeyMap().size(); i++) {
+            allocatePesForVmKey(getRequestedMipsKeyMap().keyAt(i), getRequestedMipsKeyMap().valueAt(i));
         }
 
         updatePeProvisioning();
@@ -182,8 +339,9 @@ public class ContainerVmSchedulerTimeShared extends ContainerVmScheduler {
     @Override
     public void deallocatePesForAllContainerVms() {
         super.deallocatePesForAllContainerVms();
-        getMipsMapRequested().clear();
+        getRequestedMipsKeyMap().clear();
         setPesInUse(0);
+        provisionedVmCount = -1;
     }
     /**
      * Returns maximum available MIPS among all the PEs. For the time shared policy it is just all
@@ -197,14 +355,39 @@ public class ContainerVmSchedulerTimeShared extends ContainerVmScheduler {
     }
 
 
-    public Map<String, List<Double>> getMipsMapRequested() {
+    public LongObjectHashMap<double[]> getRequestedMipsKeyMap() {
         return mipsMapRequested;
     }
 
-    public void setMipsMapRequested(Map<String, List<Double>> mipsMapRequested) {
+    public void setRequestedMipsKeyMap(LongObjectHashMap<double[]> mipsMapRequested) {
         this.mipsMapRequested = mipsMapRequested;
     }
 
+    /**
+     * Gets the mips map requested, as a view of {@link #getRequestedMipsKeyMap()}. The lists
+     * of the view are copies of the requested MIPS: they are stored back only when put into the view.
+     *
+     * @return the mips map requested, keyed by uid
+     * @deprecated Use {@link #getRequestedMipsKeyMap()}, which is keyed by the numeric keys.
+     */
+    @Deprecated
+    public Map<String, List<Double>> getMipsMapRequested() {
+        return UidMapView.ofMips(getRequestedMipsKeyMap());
+    }
+
+    /**
+     * Sets the mips map requested.
+     *
+     * @param mipsMapRequested the mips map requested, keyed by uid
+     * @deprecated Use {@link #setRequestedMipsKeyMap(LongObjectHashMap)}.
+     */
+    @Deprecated
+    public void setMipsMapRequested(Map<String, List<Double>> mipsMapRequested) {
+        LongObjectHashMap<double[]> requestedMipsKeyMap = new LongObjectHashMap<>();
+        UidMapView.ofMips(requestedMipsKeyMap).putAll(mipsMapRequested);
+        setRequestedMipsKeyMap(requestedMipsKeyMap);
+    }
+
     public int getPesInUse() {
         return pesInUse;
     }
@@ -212,4 +395,56 @@ public class ContainerVmSchedulerTimeShared extends ContainerVmScheduler {
     public void setPesInUse(int pesInUse) {
         this.pesInUse = pesInUse;
     }
+
+    /**
+     * The placement of the MIPS of a VM on the PEs, recorded by the {@link #updatePeProvisioning()}.
+     */
+    private static final class ProvisionedVm {
+
+        /** The VM key. */
+        long vmKey;
+
+        /** A copy of the MIPS share that was placed. */
+        double[] mipsShare = new double[0];
+
+        /** The index of the PE where the placement started. */
+        int startPe;
+
+        /** The MIPS available in that PE before the placement. */
+        double startAvailableMips;
+
+        /** The index of the PE of each allocation made to the VM. */
+        int[] pes = new int[4];
+
+        /** The MIPS of each allocation made to the VM. */
+        double[] mips = new double[4];
+
+        /** The number of allocations made to the VM. */
+        int size;
+
+        void start(long vmKey, double[] mipsShare, int startPe, double startAvailableMips) {
+            this.vmKey = vmKey;
+            if (this.mipsShare.length != mipsShare.length) {
+                this.mipsShare = new double[mipsShare.length];
+            }
+            System.arraycopy(mipsShare, 0, this.mipsShare, 0, mipsShare.length);
+            this.startPe = startPe;
+            this.startAvailableMips = startAvailableMips;
+            size = 0;
+        }
+
+        void add(int pe, double allocatedMips) {
+            if (size == pes.length) {
+                pes = Arrays.copyOf(pes, size * 2);
+                mips = Arrays.copyOf(mips, size * 2);
+            }
+            pes[size] = pe;
+            mips[size] = allocatedMips;
+            size++;
+        }
+
+        boolean isPlacementOf(long vmKey, double[] mipsShare) {
+            return this.vmKey == vmKey && Arrays.equals(this.mipsShare, mipsShare);
+        }
+    }
 }
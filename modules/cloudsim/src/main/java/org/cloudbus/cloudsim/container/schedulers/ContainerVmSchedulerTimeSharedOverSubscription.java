@@ -3,10 +3,7 @@ package org.cloudbus.cloudsim.container.schedulers;
 import org.cloudbus.cloudsim.container.containerVmProvisioners.ContainerVmPe;
 import org.cloudbus.cloudsim.container.lists.ContainerVmPeList;
 
-import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 
 /**
  * Created by sareh on 23/07/15.
@@ -17,51 +14,46 @@ public class ContainerVmSchedulerTimeSharedOverSubscription extends  ContainerVm
     }
 
     @Override
-    public boolean allocatePesForVm(String vmUid, List<Double> mipsShareRequested) {
+    public boolean allocatePesForVm(long vmKey, double[] mipsShareRequested) {
         double totalRequestedMips = 0;
 
         // if the requested mips is bigger than the capacity of a single PE, we cap
         // the request to the PE's capacity
-        List<Double> mipsShareRequestedCapped = new ArrayList<Double>();
+        double[] mipsShareRequestedCapped = new double[mipsShareRequested.length];
         double peMips = getPeCapacity();
-        for (Double mips : mipsShareRequested) {
-            if (mips > peMips) {
-                mipsShareRequestedCapped.add(peMips);
-                totalRequestedMips += peMips;
-            } else {
-                mipsShareRequestedCapped.add(mips);
-                totalRequestedMips += mips;
-            }
+        for (int i = 0; i < mipsShareRequested.length; i++) {
+            double mips = Math.min(mipsShareRequested[i], peMips);
+            mipsShareRequestedCapped[i] = mips;
+            totalRequestedMips += mips;
         }
 
-        getMipsMapRequested().put(vmUid, mipsShareRequested);
-        setPesInUse(getPesInUse() + mipsShareRequested.size());
+        getRequestedMipsKeyMap().put(vmKey, mipsShareRequested.clone());
+        setPesInUse(getPesInUse() + mipsShareRequested.length);
 
-        if (getVmsMigratingIn().contains(vmUid)) {
+        boolean migratingOut = getVmKeysMigratingOut().contains(vmKey);
+        boolean migratingIn = getVmKeysMigratingIn().contains(vmKey);
+        if (migratingIn) {
             // the destination host only experience 10% of the migrating VM's MIPS
             totalRequestedMips *= 0.1;
         }
 
         if (getAvailableMips() >= totalRequestedMips) {
-            List<Double> mipsShareAllocated = new ArrayList<>();
-            for (Double mipsRequested : mipsShareRequestedCapped) {
-                if (getVmsMigratingOut().contains(vmUid)) {
+            for (int i = 0; i < mipsShareRequestedCapped.length; i++) {
+                if (migratingOut) {
                     // performance degradation due to migration = 10% MIPS
-                    mipsRequested *= 0.9;
-                } else if (getVmsMigratingIn().contains(vmUid)) {
+                    mipsShareRequestedCapped[i] *= 0.9;
+                } else if (migratingIn) {
                     // the destination host only experience 10% of the migrating VM's MIPS
-                    mipsRequested *= 0.1;
+                    mipsShareRequestedCapped[i] *= 0.1;
                 }
-                mipsShareAllocated.add(mipsRequested);
             }
 
-            getMipsMap().put(vmUid, mipsShareAllocated);
+            getMipsKeyMap().put(vmKey, mipsShareRequestedCapped);
             setAvailableMips(getAvailableMips() - totalRequestedMips);
         } else {
             redistributeMipsDueToOverSubscription();
         }
 
-        mipsShareRequestedCapped.clear();
         return true;
     }
 
@@ -74,27 +66,16 @@ public class ContainerVmSchedulerTimeSharedOverSubscription extends  ContainerVm
         // proportionally
         double totalRequiredMipsByAllVms = 0;
 
-        Map<String, List<Double>> mipsMapCapped = new HashMap<String, List<Double>>();
-        for (Map.Entry<String, List<Double>> entry : getMipsMapRequested().entrySet()) {
+        double peMips = getPeCapacity();
+        for (int i = 0; i < getRequestedMipsKeyMap().size(); i++) {
 
             double requiredMipsByThisVm = 0.0;
-            String vmId = entry.getKey();
-            List<Double> mipsShareRequested = entry.getValue();
-            List<Double> mipsShareRequestedCapped = new ArrayList<>();
-            double peMips = getPeCapacity();
-            for (Double mips : mipsShareRequested) {
-                if (mips > peMips) {
-                    mipsShareRequestedCapped.add(peMips);
-                    requiredMipsByThisVm += peMips;
-                } else {
-                    mipsShareRequestedCapped.add(mips);
-                    requiredMipsByThisVm += mips;
-                }
+            long vmKey = getRequestedMipsKeyMap().keyAt(i);
+            for (double mips : getRequestedMipsKeyMap().valueAt(i)) {
+                requiredMipsByThisVm += Math.min(mips, peMips);
             }
 
-            mipsMapCapped.put(vmId, mipsShareRequestedCapped);
-
-            if (getVmsMigratingIn().contains(entry.getKey())) {
+            if (getVmKeysMigratingIn().contains(vmKey)) {
                 // the destination host only experience 10% of the migrating VM's MIPS
                 requiredMipsByThisVm *= 0.1;
             }
@@ -105,21 +86,25 @@ public class ContainerVmSchedulerTimeSharedOverSubscription extends  ContainerVm
         double scalingFactor = totalAvailableMips / totalRequiredMipsByAllVms;
 
         // Clear the old MIPS allocation
-        getMipsMap().clear();
+        getMipsKeyMap().clear();
 
         // Update the actual MIPS allocated to the VMs
-        for (Map.Entry<String, List<Double>> entry : mipsMapCapped.entrySet()) {
-            String vmUid = entry.getKey();
-            List<Double> requestedMips = entry.getValue();
-
-            List<Double> updatedMipsAllocation = new ArrayList<>();
-            for (Double mips : requestedMips) {
-                if (getVmsMigratingOut().contains(vmUid)) {
+        for (int i = 0; i < getRequestedMipsKeyMap().size(); i++) {
+            long vmKey = getRequestedMipsKeyMap().keyAt(i);
+            double[] requestedMips = getRequestedMipsKeyMap().valueAt(i);
+            boolean migratingOut = getVmKeysMigratingOut().contains(vmKey);
+            boolean migratingIn = getVmKeysMigratingIn().contains(vmKey);
+
+            double[] updatedMipsAllocation = new double[requestedMips.length];
+            for (int j = 0; j < requestedMips.length; j++) {
+                // the request is capped to the PE's capacity
+                double mips = Math.min(requestedMips[j], peMips);
+                if (migratingOut) {
                     // the original amount is scaled
                     mips *= scalingFactor;
                     // performance degradation due to migration = 10% MIPS
                     mips *= 0.9;
-                } else if (getVmsMigratingIn().contains(vmUid)) {
+                } else if (migratingIn) {
                     // the destination host only experiences 10% of the migrating VM's MIPS
                     mips *= 0.1;
                     // the final 10% of the requested MIPS are scaled
@@ -128,16 +113,14 @@ public class ContainerVmSchedulerTimeSharedOverSubscription extends  ContainerVm
                     mips *= scalingFactor;
                 }
 
-                updatedMipsAllocation.add(Math.floor(mips));
+                updatedMipsAllocation[j] = Math.floor(mips);
             }
 
             // add in the new map
-            getMipsMap().put(vmUid, updatedMipsAllocation);
+            getMipsKeyMap().put(vmKey, updatedMipsAllocation);
 
         }
 
-        mipsMapCapped.clear();
-
         // As the host is oversubscribed, there no more available MIPS
         setAvailableMips(0);
     }
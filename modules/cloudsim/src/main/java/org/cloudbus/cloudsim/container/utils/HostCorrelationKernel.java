@@ -0,0 +1,354 @@
+package org.cloudbus.cloudsim.container.utils;
+
+import org.cloudbus.cloudsim.container.core.PowerContainerHostUtilizationHistory;
+import org.cloudbus.cloudsim.container.core.PowerContainerVm;
+import org.cloudbus.cloudsim.util.DoubleRingBuffer;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+/**
+ * Scores candidate hosts by the correlation of their utilization history with the history
+ * of a container or VM to place, giving the same correlations as {@link Correlation#getCor(double[], double[])}.
+ *
+ * The history of each host, and the sums of its values and of their squares, are kept from one
+ * placement to the next while the VMs of the host and their histories stay the same, so that
+ * a placement only computes the cross products of the histories, in one pass over primitive arrays.
+ * Large sets of candidates can be scored by several threads of the common fork-join pool;
+ * each thread finds the best host of a contiguous range and the ranges are combined in order,
+ * so the selected host is the same as with a single thread.
+ */
+public class HostCorrelationKernel {
+
+    /**
+     * The minimum number of candidate hosts scored by each thread.
+     */
+    public static final int MIN_HOSTS_PER_TASK = 1024;
+
+    /**
+     * The cached utilization of each host.
+     */
+    private final Map<PowerContainerHostUtilizationHistory, HostUtilization> hostUtilizations = new HashMap<>();
+
+    /**
+     * The maximum number of threads that score the hosts.
+     */
+    private int parallelism = 1;
+
+    /**
+     * Finds the host whose utilization history has the minimum correlation with a given history.
+     * Hosts whose correlation is not a number are never selected.
+     *
+     * @param hosts              the candidate hosts
+     * @param utilizationHistory the utilization history of the container or VM to place
+     * @param minHistoryLength   the minimum history length of the hosts to score, the others being skipped
+     * @return the index of the host with the minimum correlation, the first one on ties, or -1 if none
+     */
+    public int getMinimumCorrelationIndex(List<? extends PowerContainerHostUtilizationHistory> hosts,
+                                          double[] utilizationHistory, int minHistoryLength) {
+        int size = hosts.size();
+        HostUtilization[] utilizations = new HostUtilization[size];
+        int k = utilizationHistory.length;
+        double[] sumsY = new double[k + 1];
+        double[] sumsYY = new double[k + 1];
+        boolean[] computed = new boolean[k + 1];
+        for (int i = 0; i < size; i++) {
+            HostUtilization utilization = getHostUtilization(hosts.get(i));
+            int length = utilization.history.length;
+            if (length < minHistoryLength) {
+                continue;
+            }
+            int n = Math.min(length, k);
+            utilization.computeSums(n);
+            if (!computed[n]) {
+                double sy = 0.0;
+                double syy = 0.0;
+                for (int j = k - n; j < k; j++) {
+                    sy += utilizationHistory[j];
+                    syy += utilizationHistory[j] * utilizationHistory[j];
+                }
+                sumsY[n] = sy;
+                sumsYY[n] = syy;
+                computed[n] = true;
+            }
+            utilizations[i] = utilization;
+        }
+
+        int tasks = Math.min(getParallelism(), size / MIN_HOSTS_PER_TASK);
+        if (tasks <= 1) {
+            return score(utilizations, utilizationHistory, sumsY, sumsYY, 0, size).index;
+        }
+        List<Future<Score>> futures = new ArrayList<>(tasks);
+        for (int task = 0; task < tasks; task++) {
+            futures.add(ForkJoinPool.commonPool().submit(new ScoreTask(
+                    utilizations, utilizationHistory, sumsY, sumsYY, size * task / tasks, size * (task + 1) / tasks)));
+        }
+        Score best = new Score();
+        for (Future<Score> future : futures) {
+            Score score;
+            try {
+                score = future.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while scoring the hosts.", e);
+            } catch (ExecutionException e) {
+                throw new IllegalStateException("Failed to score the hosts.", e.getCause());
+            }
+            if (score.correlation < best.correlation) {
+                best = score;
+            }
+        }
+        return best.index;
+    }
+
+    /**
+     * Gets the maximum number of threads that score the hosts.
+     *
+     * @return the parallelism
+     */
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    /**
+     * Sets the maximum number of threads that score the hosts. Each thread scores at least
+     * {@link #MIN_HOSTS_PER_TASK} hosts.
+     *
+     * @param parallelism the parallelism, 1 to score the hosts in the calling thread
+     */
+    public void setParallelism(int parallelism) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("The parallelism must be at least 1.");
+        }
+        this.parallelism = parallelism;
+    }
+
+    /**
+     * Gets the cached utilization of a host, computing it again if the VMs of the host
+     * or their histories changed.
+     *
+     * @param host the host
+     * @return the utilization of the host
+     */
+    private HostUtilization getHostUtilization(PowerContainerHostUtilizationHistory host) {
+        HostUtilization utilization = hostUtilizations.get(host);
+        if (utilization == null || !utilization.isValid(host)) {
+            utilization = new HostUtilization(host);
+            hostUtilizations.put(host, utilization);
+        }
+        return utilization;
+    }
+
+    /**
+     * Finds the host with the minimum correlation in a range of hosts.
+     *
+     * @param utilizations       the utilization of each host, null for the skipped hosts
+     * @param utilizationHistory the utilization history of the container or VM to place
+     * @param sumsY              the sum of the last n values of the history, by n
+     * @param sumsYY             the sum of the squares of the last n values of the history, by n
+     * @param from               the first host of the range
+     * @param to                 the host after the last one of the range
+     * @return the score of the host with the minimum correlation in the range
+     */
+    private static Score score(HostUtilization[] utilizations, double[] utilizationHistory,
+                               double[] sumsY, double[] sumsYY, int from, int to) {
+        Score best = new Score();
+        int k = utilizationHistory.length;
+        for (int i = from; i < to; i++) {
+            HostUtilization utilization = utilizations[i];
+            if (utilization == null) {
+                continue;
+            }
+            double[] xs = utilization.history;
+            int n = utilization.sumsLength;
+            int offsetX = xs.length - n;
+            int offsetY = k - n;
+            double sxy = 0.0;
+            for (int j = 0; j < n; j++) {
+                sxy += xs[offsetX + j] * utilizationHistory[offsetY + j];
+            }
+            double sx = utilization.sumX;
+            double sxx = utilization.sumXX;
+            double sy = sumsY[n];
+            double syy = sumsYY[n];
+            // the same operations as Correlation.getCor
+            double cov = sxy / n - sx * sy / n / n;
+            double sigmax = Math.sqrt(sxx / n - sx * sx / n / n);
+            double sigmay = Math.sqrt(syy / n - sy * sy / n / n);
+            double cor = cov / sigmax / sigmay;
+            if (cor < best.correlation) {
+                best.correlation = cor;
+                best.index = i;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * The host with the minimum correlation found so far.
+     */
+    private static final class Score {
+
+        /**
+         * The minimum correlation.
+         */
+        private double correlation = Double.MAX_VALUE;
+
+        /**
+         * The index of the host, -1 if none.
+         */
+        private int index = -1;
+
+    }
+
+    /**
+     * Scores a range of hosts in another thread.
+     */
+    private static final class ScoreTask implements Callable<Score> {
+
+        private final HostUtilization[] utilizations;
+
+        private final double[] utilizationHistory;
+
+        private final double[] sumsY;
+
+        private final double[] sumsYY;
+
+        private final int from;
+
+        private final int to;
+
+        ScoreTask(HostUtilization[] utilizations, double[] utilizationHistory,
+                  double[] sumsY, double[] sumsYY, int from, int to) {
+            this.utilizations = utilizations;
+            this.utilizationHistory = utilizationHistory;
+            this.sumsY = sumsY;
+            this.sumsYY = sumsYY;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        public Score call() {
+            return score(utilizations, utilizationHistory, sumsY, sumsYY, from, to);
+        }
+
+    }
+
+    /**
+     * The utilization history of a host and the VM state it was computed from.
+     */
+    private static final class HostUtilization {
+
+        /**
+         * The utilization history of the host.
+         */
+        private final double[] history;
+
+        /**
+         * The VMs of the host.
+         */
+        private final PowerContainerVm[] vms;
+
+        /**
+         * The MIPS of each VM.
+         */
+        private final double[] vmMips;
+
+        /**
+         * The number of values added to the history of each VM.
+         */
+        private final long[] addCounts;
+
+        /**
+         * The history size of each VM.
+         */
+        private final int[] sizes;
+
+        /**
+         * The total MIPS of the host.
+         */
+        private final double hostMips;
+
+        /**
+         * The number of last values of the history that {@link #sumX} and {@link #sumXX} sum, -1 if none.
+         */
+        private int sumsLength = -1;
+
+        /**
+         * The sum of the last {@link #sumsLength} values of the history.
+         */
+        private double sumX;
+
+        /**
+         * The sum of the squares of the last {@link #sumsLength} values of the history.
+         */
+        private double sumXX;
+
+        HostUtilization(PowerContainerHostUtilizationHistory host) {
+            List<PowerContainerVm> vmList = host.getVmList();
+            vms = vmList.toArray(new PowerContainerVm[vmList.size()]);
+            vmMips = new double[vms.length];
+            addCounts = new long[vms.length];
+            sizes = new int[vms.length];
+            for (int i = 0; i < vms.length; i++) {
+                DoubleRingBuffer vmUtilization = vms[i].getUtilizationHistoryBuffer();
+                vmMips[i] = vms[i].getMips();
+                addCounts[i] = vmUtilization.getAddCount();
+                sizes[i] = vmUtilization.size();
+            }
+            hostMips = host.getTotalMips();
+            history = host.getUtilizationHistory();
+        }
+
+        /**
+         * Checks if the history is still that of a host.
+         *
+         * @param host the host
+         * @return true if the VMs of the host and their histories are the same
+         */
+        boolean isValid(PowerContainerHostUtilizationHistory host) {
+            List<PowerContainerVm> vmList = host.getVmList();
+            if (vmList.size() != vms.length || host.getTotalMips() != hostMips) {
+                return false;
+            }
+            for (int i = 0; i < vms.length; i++) {
+                PowerContainerVm vm = vmList.get(i);
+                DoubleRingBuffer vmUtilization = vm.getUtilizationHistoryBuffer();
+                if (vm != vms[i] || vm.getMips() != vmMips[i] || vmUtilization.getAddCount() != addCounts[i]
+                        || vmUtilization.size() != sizes[i]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        /**
+         * Computes the sums of the last values of the history, in the order of {@link Correlation#getCor}.
+         *
+         * @param n the number of last values
+         */
+        void computeSums(int n) {
+            if (n == sumsLength) {
+                return;
+            }
+            double sx = 0.0;
+            double sxx = 0.0;
+            for (int j = history.length - n; j < history.length; j++) {
+                sx += history[j];
+                sxx += history[j] * history[j];
+            }
+            sumX = sx;
+            sumXX = sxx;
+            sumsLength = n;
+        }
+
+    }
+
+}
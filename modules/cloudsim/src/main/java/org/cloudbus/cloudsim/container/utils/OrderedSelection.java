@@ -0,0 +1,166 @@
+package org.cloudbus.cloudsim.container.utils;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * Gives the elements of a list in increasing or decreasing order of a value, and in the order of the
+ * list on ties, leaving out the excluded elements. This is the order in which a policy scanning the
+ * whole list for the element with the smallest (or largest) value chooses the elements when each chosen
+ * element is excluded before the next scan, as the placement loops do until they find a suitable
+ * element.
+ * <p>
+ * The value of each element is read once, before the first element is given, and the elements are kept
+ * in a binary heap built in linear time, so that each next element is then found in O(log n) time instead
+ * of scanning the list again. The excluded elements are checked when the heap is built and
+ * again when an element is taken out of the heap, so that elements excluded meanwhile are skipped too.
+ * <p>
+ * A selection is built for each placement, because the values change as the schedulers allocate
+ * resources and nothing tells the policies about it. A placement thus still costs O(n) to build the
+ * heap, plus O(log n) for each element tried: only the retries get cheaper, and placing as many
+ * containers as there are VMs is still O(n<sup>2</sup>) overall.
+ *
+ * @param <T> the type of the elements
+ */
+public abstract class OrderedSelection<T> implements Iterator<T> {
+
+    /** The selected elements. */
+    private final List<? extends T> list;
+
+    /** The excluded elements. */
+    private final Set<? extends T> excludedSet;
+
+    /** The elements of the list, at their positions. */
+    private final Object[] elements;
+
+    /** The heap of the positions of the elements in the list. */
+    private final int[] heap;
+
+    /** The value of each element, at the position of the element in the list, negated if decreasing. */
+    private final double[] keys;
+
+    /** Whether the decreasing order of value is used. */
+    private final boolean decreasing;
+
+    /** The number of positions in the heap. */
+    private int size = -1;
+
+    /** The next element, or null if it was not found yet. */
+    private T next;
+
+    /**
+     * Creates a new selection of the elements of a list.
+     *
+     * @param list        the list of the elements
+     * @param excludedSet the excluded elements
+     * @param decreasing  whether the elements are given in decreasing order of value
+     */
+    public OrderedSelection(List<? extends T> list, Set<? extends T> excludedSet, boolean decreasing) {
+        this.list = list;
+        this.excludedSet = excludedSet;
+        this.decreasing = decreasing;
+        elements = new Object[list.size()];
+        heap = new int[list.size()];
+        keys = new double[list.size()];
+    }
+
+    /**
+     * Reads the values of the elements that are not excluded, and builds the heap.
+     */
+    private void build() {
+        size = 0;
+        int i = 0;
+        for (T element : list) {
+            elements[i] = element;
+            if (!excludedSet.contains(element)) {
+                double value = getValue(element);
+                if (!Double.isNaN(value)) {
+                    keys[i] = decreasing ? -value : value;
+                    heap[size++] = i;
+                }
+            }
+            i++;
+        }
+        for (int j = size / 2 - 1; j >= 0; j--) {
+            siftDown(j);
+        }
+    }
+
+    /**
+     * Gets the value of an element, by which the elements are ordered.
+     *
+     * @param element the element
+     * @return the value of the element, or {@link Double#NaN} if the element is never selected
+     */
+    protected abstract double getValue(T element);
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public boolean hasNext() {
+        if (size < 0) {
+            build();
+        }
+        while (next == null && size > 0) {
+            T element = (T) elements[heap[0]];
+            heap[0] = heap[--size];
+            siftDown(0);
+            if (!excludedSet.contains(element)) {
+                next = element;
+            }
+        }
+        return next != null;
+    }
+
+    @Override
+    public T next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        T element = next;
+        next = null;
+        return element;
+    }
+
+    @Override
+    public void remove() {
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     * Moves the position at a given place of the heap down, until it is before its children.
+     *
+     * @param place the place in the heap
+     */
+    private void siftDown(int place) {
+        int position = heap[place];
+        while (true) {
+            int child = 2 * place + 1;
+            if (child >= size) {
+                break;
+            }
+            if (child + 1 < size && isBefore(heap[child + 1], heap[child])) {
+                child++;
+            }
+            if (!isBefore(heap[child], position)) {
+                break;
+            }
+            heap[place] = heap[child];
+            place = child;
+        }
+        heap[place] = position;
+    }
+
+    /**
+     * Checks whether an element comes before another one.
+     *
+     * @param a the position of the first element in the list
+     * @param b the position of the other element in the list
+     * @return true, if the first element comes before the other one
+     */
+    private boolean isBefore(int a, int b) {
+        return keys[a] < keys[b] || keys[a] == keys[b] && a < b;
+    }
+
+}
@@ -272,6 +272,18 @@ public class CloudSimTags {
 
 	public static final int NextCycle = BASE + 48;
 
+	/**
+	 * Denotes a request to create a list of VMs in a {@link Datacenter}, which places them
+	 * together and sends back a single {@link #VM_CREATE_BATCH_ACK} for the whole list.
+	 */
+	public static final int VM_CREATE_BATCH = BASE + 49;
+
+	/**
+	 * Denotes the acknowledgement information sent by a {@link Datacenter} for a
+	 * {@link #VM_CREATE_BATCH} request, with the result of the creation of each VM.
+	 */
+	public static final int VM_CREATE_BATCH_ACK = BASE + 50;
+
 	/** Private Constructor. */
 	private CloudSimTags() {
 		throw new UnsupportedOperationException("CloudSimTags cannot be instantiated");
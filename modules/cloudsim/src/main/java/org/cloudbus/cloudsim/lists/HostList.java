@@ -69,7 +69,7 @@ public class HostList {
 	public static <T extends Host> int getNumberOfFreePes(List<T> hostList) {
 		int numberOfFreePes = 0;
 		for (T host : hostList) {
-			numberOfFreePes += PeList.getNumberOfFreePes(host.getPeList());
+			numberOfFreePes += host.getNumberOfFreePes();
 		}
 		return numberOfFreePes;
 	}
@@ -86,7 +86,7 @@ public class HostList {
 	public static <T extends Host> int getNumberOfBusyPes(List<T> hostList) {
 		int numberOfBusyPes = 0;
 		for (T host : hostList) {
-			numberOfBusyPes += PeList.getNumberOfBusyPes(host.getPeList());
+			numberOfBusyPes += host.getNumberOfBusyPes();
 		}
 		return numberOfBusyPes;
 	}
@@ -116,7 +116,7 @@ public class HostList {
 	 */
 	public static <T extends Host> T getHostWithFreePe(List<T> hostList, int pesNumber) {
 		for (T host : hostList) {
-			if (PeList.getNumberOfFreePes(host.getPeList()) >= pesNumber) {
+			if (host.getNumberOfFreePes() >= pesNumber) {
 				return host;
 			}
 		}
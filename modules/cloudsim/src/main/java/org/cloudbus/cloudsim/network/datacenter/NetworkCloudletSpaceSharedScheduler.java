@@ -19,6 +19,8 @@ import org.cloudbus.cloudsim.CloudletScheduler;
 import org.cloudbus.cloudsim.ResCloudlet;
 import org.cloudbus.cloudsim.core.CloudSim;
 import org.cloudbus.cloudsim.core.CloudSimTags;
+import org.cloudbus.cloudsim.util.MathUtil;
+import org.cloudbus.cloudsim.util.OverrideCheck;
 
 /**
  * CloudletSchedulerSpaceShared implements a policy of scheduling performed by a virtual machine
@@ -36,6 +38,15 @@ import org.cloudbus.cloudsim.core.CloudSimTags;
  * @todo Attributes should be private
  */
 public class NetworkCloudletSpaceSharedScheduler extends CloudletScheduler {
+
+	/** Tells if a subclass overrides {@link #updateVmProcessing(double, List)}. */
+	private static final OverrideCheck UPDATE_PROCESSING = new OverrideCheck(
+			NetworkCloudletSpaceSharedScheduler.class, "updateVmProcessing", double.class, List.class);
+
+	/** Tells if a subclass overrides {@link #getCurrentRequestedMips()}. */
+	private static final OverrideCheck REQUESTED_MIPS = new OverrideCheck(
+			NetworkCloudletSpaceSharedScheduler.class, "getCurrentRequestedMips");
+
 	/** The current CPUs. */
 	protected int currentCpus;
 
@@ -75,13 +86,37 @@ public class NetworkCloudletSpaceSharedScheduler extends CloudletScheduler {
 
 	@Override
 	public double updateVmProcessing(double currentTime, List<Double> mipsShare) {
+		double[] share = MathUtil.listToArray(mipsShare);
+		if (UPDATE_PROCESSING.isOverriddenBy(this)) {
+			return updateProcessing(currentTime, share);
+		}
+		return updateVmProcessingWithArray(currentTime, share);
+	}
+
+	@Override
+	public double updateVmProcessingWithArray(double currentTime, double[] mipsShare) {
+		if (UPDATE_PROCESSING.isOverriddenBy(this)) {
+			return updateVmProcessing(currentTime, MathUtil.arrayToList(mipsShare));
+		}
+		return updateProcessing(currentTime, mipsShare);
+	}
+
+	/**
+	 * Updates the processing of the cloudlets, whichever overload was called.
+	 * 
+	 * @param currentTime current simulation time
+	 * @param mipsShare MIPS share of each Pe available to the scheduler
+	 * @return the predicted completion time of the earliest finishing cloudlet, or 0 if there is no
+	 *         next events
+	 */
+	private double updateProcessing(double currentTime, double[] mipsShare) {
                 /*@todo Method to long. Several "extract method" refactorings may be performed.*/
 		setCurrentMipsShare(mipsShare);
 		// update
 		double capacity = 0.0;
 		int cpus = 0;
 
-		for (Double mips : mipsShare) { // count the CPUs available to the VMM
+		for (double mips : mipsShare) { // count the CPUs available to the VMM
 			capacity += mips;
 			if (mips > 0) {
 				cpus++;
@@ -413,7 +448,7 @@ public class NetworkCloudletSpaceSharedScheduler extends CloudletScheduler {
 				// calculate the expected time for cloudlet completion
 				double capacity = 0.0;
 				int cpus = 0;
-				for (Double mips : getCurrentMipsShare()) {
+				for (double mips : getCurrentMipsShareArray()) {
 					capacity += mips;
 					if (mips > 0) {
 						cpus++;
@@ -468,7 +503,7 @@ public class NetworkCloudletSpaceSharedScheduler extends CloudletScheduler {
 		// calculate the expected time for cloudlet completion
 		double capacity = 0.0;
 		int cpus = 0;
-		for (Double mips : getCurrentMipsShare()) {
+		for (double mips : getCurrentMipsShareArray()) {
 			capacity += mips;
 			if (mips > 0) {
 				cpus++;
@@ -555,14 +590,25 @@ public class NetworkCloudletSpaceSharedScheduler extends CloudletScheduler {
 	@Override
 	public List<Double> getCurrentRequestedMips() {
 		List<Double> mipsShare = new ArrayList<Double>();
-		if (getCurrentMipsShare() != null) {
-			for (Double mips : getCurrentMipsShare()) {
+		if (getCurrentMipsShareArray() != null) {
+			for (double mips : getCurrentMipsShareArray()) {
 				mipsShare.add(mips);
 			}
 		}
 		return mipsShare;
 	}
 
+	@Override
+	public double[] getCurrentRequestedMipsArray() {
+		if (REQUESTED_MIPS.isOverriddenBy(this)) {
+			return super.getCurrentRequestedMipsArray();
+		}
+		if (getCurrentMipsShareArray() != null) {
+			return getCurrentMipsShareArray();
+		}
+		return new double[0];
+	}
+
 	@Override
 	public double getTotalCurrentAvailableMipsForCloudlet(ResCloudlet rcl, List<Double> mipsShare) {
                 /*@todo The param rcl is not being used.*/
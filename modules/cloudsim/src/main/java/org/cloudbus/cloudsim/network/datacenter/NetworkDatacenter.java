@@ -144,8 +144,8 @@ public class NetworkDatacenter extends Datacenter {
 
 			getVmList().add(vm);
 
-			vm.updateVmProcessing(CloudSim.clock(), getVmAllocationPolicy().getHost(vm).getVmScheduler()
-					.getAllocatedMipsForVm(vm));
+			vm.updateVmProcessingWithArray(CloudSim.clock(), getVmAllocationPolicy().getHost(vm).getVmScheduler()
+					.getAllocatedMipsArrayForVm(vm));
 		}
 		return result;
 	}
@@ -97,8 +97,8 @@ public class NetworkHost extends Host {
 		// insert in each vm packet recieved
 		recvpackets();
 		for (Vm vm : super.getVmList()) {
-			double time = ((NetworkVm) vm).updateVmProcessing(currentTime, getVmScheduler()
-					.getAllocatedMipsForVm(vm));
+			double time = ((NetworkVm) vm).updateVmProcessingWithArray(currentTime, getVmScheduler()
+					.getAllocatedMipsArrayForVm(vm));
 			if (time > 0.0 && time < smallerTime) {
 				smallerTime = time;
 			}
@@ -178,7 +178,7 @@ public class NetworkHost extends Host {
 		}
 		if (flag) {
                     for (Vm vm : super.getVmList()) {
-                        vm.updateVmProcessing(CloudSim.clock(), getVmScheduler().getAllocatedMipsForVm(vm));
+                        vm.updateVmProcessingWithArray(CloudSim.clock(), getVmScheduler().getAllocatedMipsArrayForVm(vm));
                     }
 		}
 
@@ -9,7 +9,6 @@
 package org.cloudbus.cloudsim.network.datacenter;
 
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -18,6 +17,9 @@ import org.cloudbus.cloudsim.Log;
 import org.cloudbus.cloudsim.Vm;
 import org.cloudbus.cloudsim.VmAllocationPolicy;
 import org.cloudbus.cloudsim.core.CloudSim;
+import org.cloudbus.cloudsim.util.LongLongHashMap;
+import org.cloudbus.cloudsim.util.LongObjectHashMap;
+import org.cloudbus.cloudsim.util.UidMapView;
 
 /**
  * NetworkVmAllocationPolicy is an {@link VmAllocationPolicy} that chooses, 
@@ -30,13 +32,13 @@ import org.cloudbus.cloudsim.core.CloudSim;
  */
 public class NetworkVmAllocationPolicy extends VmAllocationPolicy {
 
-	/** The vm map where each key is a VM id and
+	/** The vm map where each key is a VM key and
          * each value is the host where the VM is placed. */
-	private Map<String, Host> vmTable;
+	private LongObjectHashMap<Host> vmTable;
 
 	/** The used PEs map, where each key is a VM id
          * and each value is the number of required PEs the VM is using. */
-	private Map<String, Integer> usedPes;
+	private LongLongHashMap usedPes;
 
 	/** The free pes. */
 	private List<Integer> freePes;
@@ -58,8 +60,8 @@ public class NetworkVmAllocationPolicy extends VmAllocationPolicy {
 
 		}
 
-		setVmTable(new HashMap<String, Host>());
-		setUsedPes(new HashMap<String, Integer>());
+		setVmKeyTable(new LongObjectHashMap<Host>());
+		setUsedPesKeyMap(new LongLongHashMap());
 	}
 
 	/**
@@ -83,7 +85,7 @@ public class NetworkVmAllocationPolicy extends VmAllocationPolicy {
 			freePesTmp.add(freePes);
 		}
 
-		if (!getVmTable().containsKey(vm.getUid())) { // if this vm was not created
+		if (!getVmKeyTable().containsKey(vm.getKey())) { // if this vm was not created
 			do {// we still trying until we find a host or until we try all of them
 				int moreFree = Integer.MIN_VALUE;
 				int idx = -1;
@@ -100,8 +102,8 @@ public class NetworkVmAllocationPolicy extends VmAllocationPolicy {
 				result = host.vmCreate(vm);
 
 				if (result) { // if vm were succesfully created in the host
-					getVmTable().put(vm.getUid(), host);
-					getUsedPes().put(vm.getUid(), requiredPes);
+					getVmKeyTable().put(vm.getKey(), host);
+					getUsedPesKeyMap().put(vm.getKey(), requiredPes);
 					getFreePes().set(idx, getFreePes().get(idx) - requiredPes);
 					result = true;
 					break;
@@ -147,9 +149,9 @@ public class NetworkVmAllocationPolicy extends VmAllocationPolicy {
 
 	@Override
 	public void deallocateHostForVm(Vm vm) {
-		Host host = getVmTable().remove(vm.getUid());
+		Host host = getVmKeyTable().remove(vm.getKey());
 		int idx = getHostList().indexOf(host);
-		int pes = getUsedPes().remove(vm.getUid());
+		int pes = (int) getUsedPesKeyMap().remove(vm.getKey(), 0);
 		if (host != null) {
 			host.vmDestroy(vm);
 			getFreePes().set(idx, getFreePes().get(idx) + pes);
@@ -158,12 +160,12 @@ public class NetworkVmAllocationPolicy extends VmAllocationPolicy {
 
 	@Override
 	public Host getHost(Vm vm) {
-		return getVmTable().get(vm.getUid());
+		return getVmKeyTable().get(vm.getKey());
 	}
 
 	@Override
 	public Host getHost(int vmId, int userId) {
-		return getVmTable().get(Vm.getUid(userId, vmId));
+		return getVmKeyTable().get(Vm.getKey(userId, vmId));
 	}
 
 	/**
@@ -171,7 +173,7 @@ public class NetworkVmAllocationPolicy extends VmAllocationPolicy {
 	 * 
 	 * @return the vm table
 	 */
-	public Map<String, Host> getVmTable() {
+	public LongObjectHashMap<Host> getVmKeyTable() {
 		return vmTable;
 	}
 
@@ -180,16 +182,40 @@ public class NetworkVmAllocationPolicy extends VmAllocationPolicy {
 	 * 
 	 * @param vmTable the vm table
 	 */
-	protected void setVmTable(Map<String, Host> vmTable) {
+	protected void setVmKeyTable(LongObjectHashMap<Host> vmTable) {
 		this.vmTable = vmTable;
 	}
 
+	/**
+	 * Gets the vm table, as a live view of {@link #getVmKeyTable()}.
+	 * 
+	 * @return the vm table, keyed by uid
+	 * @deprecated Use {@link #getVmKeyTable()}, which is keyed by the numeric keys.
+	 */
+	@Deprecated
+	public Map<String, Host> getVmTable() {
+		return UidMapView.of(getVmKeyTable());
+	}
+
+	/**
+	 * Sets the vm table.
+	 * 
+	 * @param vmTable the vm table, keyed by uid
+	 * @deprecated Use {@link #setVmKeyTable(LongObjectHashMap)}.
+	 */
+	@Deprecated
+	protected void setVmTable(Map<String, Host> vmTable) {
+		LongObjectHashMap<Host> keyTable = new LongObjectHashMap<Host>();
+		UidMapView.of(keyTable).putAll(vmTable);
+		setVmKeyTable(keyTable);
+	}
+
 	/**
 	 * Gets the used pes.
 	 * 
 	 * @return the used pes
 	 */
-	protected Map<String, Integer> getUsedPes() {
+	protected LongLongHashMap getUsedPesKeyMap() {
 		return usedPes;
 	}
 
@@ -198,10 +224,34 @@ public class NetworkVmAllocationPolicy extends VmAllocationPolicy {
 	 * 
 	 * @param usedPes the used pes
 	 */
-	protected void setUsedPes(Map<String, Integer> usedPes) {
+	protected void setUsedPesKeyMap(LongLongHashMap usedPes) {
 		this.usedPes = usedPes;
 	}
 
+	/**
+	 * Gets the used pes, as a live view of {@link #getUsedPesKeyMap()}.
+	 * 
+	 * @return the used pes, keyed by uid
+	 * @deprecated Use {@link #getUsedPesKeyMap()}, which is keyed by the numeric keys.
+	 */
+	@Deprecated
+	protected Map<String, Integer> getUsedPes() {
+		return UidMapView.ofIntegers(getUsedPesKeyMap());
+	}
+
+	/**
+	 * Sets the used pes.
+	 * 
+	 * @param usedPes the used pes, keyed by uid
+	 * @deprecated Use {@link #setUsedPesKeyMap(LongLongHashMap)}.
+	 */
+	@Deprecated
+	protected void setUsedPes(Map<String, Integer> usedPes) {
+		LongLongHashMap keyTable = new LongLongHashMap();
+		UidMapView.ofIntegers(keyTable).putAll(usedPes);
+		setUsedPesKeyMap(keyTable);
+	}
+
 	/**
 	 * Gets the free pes.
 	 * 
@@ -230,11 +280,11 @@ public class NetworkVmAllocationPolicy extends VmAllocationPolicy {
 	@Override
 	public boolean allocateHostForVm(Vm vm, Host host) {
 		if (host.vmCreate(vm)) { // if vm has been succesfully created in the host
-			getVmTable().put(vm.getUid(), host);
+			getVmKeyTable().put(vm.getKey(), host);
 
 			int requiredPes = vm.getNumberOfPes();
 			int idx = getHostList().indexOf(host);
-			getUsedPes().put(vm.getUid(), requiredPes);
+			getUsedPesKeyMap().put(vm.getKey(), requiredPes);
 			getFreePes().set(idx, getFreePes().get(idx) - requiredPes);
 
 			Log.formatLine(
@@ -0,0 +1,341 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.power;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * AdaptiveSchedulingInterval stretches the scheduling interval of a power-aware datacenter over the
+ * wake-ups at which nothing material would change. At each wake-up, the utilization of every host is
+ * predicted at the next wake-ups of the fixed scheduling interval from the utilization traces of its
+ * workload, and the datacenter next wakes up at the first of them where the predicted utilization of a
+ * host is further than a threshold from the one predicted at the current time, which is a change point
+ * of the traces, or where a host would be switched on or off, or after a maximum number of skipped
+ * wake-ups.
+ *
+ * <p>The energy of a host over a stretched interval is integrated over the utilization predicted at
+ * each skipped wake-up, as the fixed scheduling interval would have read it, instead of interpolating
+ * linearly between the two ends of the interval. Since the VMs keep the allocation of the last wake-up
+ * until the next one, the energy of the hosts at this held utilization differs from the integrated one
+ * by about as much as the threshold allows; the difference is summed as the utilization-drift energy.
+ * It is an estimate of the effect of the stretched intervals on the energy, not a bound of the
+ * difference with the fixed scheduling interval: as the cloudlets also progress at the held
+ * allocation, their completions, and so the later utilization of the hosts, may drift from the ones
+ * of the fixed scheduling interval, which the estimate does not account for.</p>
+ *
+ * @param <H> the type of the hosts
+ * @since CloudSim Toolkit 4.0
+ */
+public abstract class AdaptiveSchedulingInterval<H> {
+
+	/** The fixed scheduling interval, at which the skipped wake-ups would take place. */
+	private final double schedulingInterval;
+
+	/** The change of the utilization of a host that ends a stretched interval. */
+	private final double utilizationThreshold;
+
+	/** The maximum number of consecutive wake-ups that are skipped. */
+	private final int maxSkippedIntervals;
+
+	/** The time of the last wake-up, from which the skipped wake-ups are spaced. */
+	private double lastTime;
+
+	/** The predictions since the last wake-up, by host in the order of the hosts of the datacenter. */
+	private final Map<H, Prediction> predictions = new LinkedHashMap<H, Prediction>();
+
+	/** The number of wake-ups that were skipped. */
+	private int skippedIntervals;
+
+	/** The utilization-drift energy of the intervals before the last wake-up, in W*sec. */
+	private double utilizationDriftEnergy;
+
+	/**
+	 * Creates a new AdaptiveSchedulingInterval.
+	 *
+	 * @param schedulingInterval the fixed scheduling interval
+	 * @param utilizationThreshold the change of the utilization of a host that ends a stretched
+	 *            interval
+	 * @param maxSkippedIntervals the maximum number of consecutive wake-ups that are skipped
+	 * @pre schedulingInterval > 0
+	 * @pre utilizationThreshold >= 0
+	 * @pre maxSkippedIntervals >= 0
+	 * @throws IllegalArgumentException if an argument is out of range
+	 */
+	public AdaptiveSchedulingInterval(
+			double schedulingInterval,
+			double utilizationThreshold,
+			int maxSkippedIntervals) {
+		if (schedulingInterval <= 0) {
+			throw new IllegalArgumentException("The scheduling interval must be positive");
+		}
+		if (!(utilizationThreshold >= 0)) {
+			throw new IllegalArgumentException("The utilization threshold must not be negative");
+		}
+		if (maxSkippedIntervals < 0) {
+			throw new IllegalArgumentException("The maximum number of skipped intervals must not be negative");
+		}
+		this.schedulingInterval = schedulingInterval;
+		this.utilizationThreshold = utilizationThreshold;
+		this.maxSkippedIntervals = maxSkippedIntervals;
+	}
+
+	/**
+	 * Gets the utilization of the CPU of a host at a future time, as predicted from the utilization
+	 * traces of its workload.
+	 *
+	 * @param host the host
+	 * @param time the time
+	 * @return the predicted utilization
+	 */
+	protected abstract double getPredictedUtilization(H host, double time);
+
+	/**
+	 * Gets the power of a host at a given utilization.
+	 *
+	 * @param host the host
+	 * @param utilization the utilization
+	 * @return the power, in Watts
+	 */
+	protected abstract double getPower(H host, double utilization);
+
+	/**
+	 * Gets the time to the next wake-up of the datacenter, and predicts the utilization of the hosts at
+	 * the wake-ups that are skipped.
+	 *
+	 * @param hostList the hosts of the datacenter
+	 * @param currentTime the current time
+	 * @param minTime the expected time of completion of the next cloudlet, or {@link Double#MAX_VALUE}
+	 * @param stretchable whether the interval may be stretched, which is not the case while VMs are
+	 *            migrating
+	 * @return the time to the next wake-up, a multiple of the fixed scheduling interval
+	 */
+	public double getNextInterval(
+			List<? extends H> hostList,
+			double currentTime,
+			double minTime,
+			boolean stretchable) {
+		reducePredictions();
+		lastTime = currentTime;
+		int steps = 1;
+		if (!stretchable) {
+			return schedulingInterval;
+		}
+		int maxSteps = maxSkippedIntervals + 1;
+		if (minTime != Double.MAX_VALUE) {
+			// the completion of a cloudlet is seen at the same wake-up as with the fixed interval
+			double stepsToCompletion = Math.ceil((minTime - currentTime) / schedulingInterval);
+			maxSteps = (int) Math.max(1, Math.min(maxSteps, stepsToCompletion));
+		}
+		double[] currentUtilizations = new double[hostList.size()];
+		for (int i = 0; i < hostList.size(); i++) {
+			currentUtilizations[i] = getPredictedUtilization(hostList.get(i), currentTime);
+		}
+		double[][] predicted = new double[hostList.size()][maxSteps - 1];
+		for (; steps < maxSteps; steps++) {
+			double time = currentTime + steps * schedulingInterval;
+			if (isChanged(hostList, time, currentUtilizations, predicted, steps - 1)) {
+				break;
+			}
+		}
+		if (steps > 1) {
+			for (int i = 0; i < hostList.size(); i++) {
+				predictions.put(hostList.get(i), new Prediction(Arrays.copyOf(predicted[i], steps - 1)));
+			}
+			skippedIntervals += steps - 1;
+		}
+		return steps * schedulingInterval;
+	}
+
+	/**
+	 * Predicts the utilization of the hosts at a wake-up, and checks whether it changed further than
+	 * the threshold for any of them, or whether any of them is switched on or off.
+	 *
+	 * @param hostList the hosts
+	 * @param time the time of the wake-up
+	 * @param currentUtilizations the utilizations predicted at the current time, by host
+	 * @param predicted the predicted utilizations, by host and skipped wake-up
+	 * @param step the index of the skipped wake-up
+	 * @return true, if the utilization of a host changed, or the traces cannot be read that far
+	 */
+	private boolean isChanged(
+			List<? extends H> hostList,
+			double time,
+			double[] currentUtilizations,
+			double[][] predicted,
+			int step) {
+		for (int i = 0; i < hostList.size(); i++) {
+			H host = hostList.get(i);
+			double utilization;
+			try {
+				utilization = getPredictedUtilization(host, time);
+			} catch (IndexOutOfBoundsException e) {
+				// the end of a trace
+				return true;
+			}
+			if (Math.abs(utilization - currentUtilizations[i]) > utilizationThreshold
+					|| (utilization == 0) != (currentUtilizations[i] == 0)) {
+				// the workload of the host changed, or the host is switched on or off
+				return true;
+			}
+			predicted[i][step] = utilization;
+		}
+		return false;
+	}
+
+	/**
+	 * Gets the energy of a host over the time frame since the last processing, integrated over the
+	 * utilization predicted at the wake-ups that were skipped within it. A host that was switched off
+	 * at the last processing consumes no energy, as its VMs had no allocation until now.
+	 *
+	 * @param host the host
+	 * @param previousUtilization the utilization of the host at the last processing
+	 * @param utilization the current utilization of the host
+	 * @param lastProcessTime the time of the last processing
+	 * @param currentTime the current time
+	 * @return the energy, in W*sec
+	 */
+	public double getEnergy(
+			H host,
+			double previousUtilization,
+			double utilization,
+			double lastProcessTime,
+			double currentTime) {
+		if (previousUtilization == 0) {
+			// the host was switched off at the last processing
+			return 0;
+		}
+		double energy = 0;
+		double heldEnergy = 0;
+		double time = lastProcessTime;
+		double fromUtilization = previousUtilization;
+		Prediction prediction = predictions.get(host);
+		if (prediction != null) {
+			double[] predicted = prediction.utilizations;
+			double heldPower = getPower(host, previousUtilization);
+			for (int i = 0; i < predicted.length; i++) {
+				double skippedTime = lastTime + (i + 1) * schedulingInterval;
+				if (skippedTime <= lastProcessTime) {
+					continue;
+				}
+				if (skippedTime >= currentTime) {
+					break;
+				}
+				energy += getEnergy(host, fromUtilization, predicted[i], skippedTime - time);
+				heldEnergy += heldPower * (skippedTime - time);
+				time = skippedTime;
+				fromUtilization = predicted[i];
+			}
+		}
+		if (time > lastProcessTime) {
+			// only the thread processing the host writes its prediction
+			prediction.utilizationDriftEnergy += Math.abs(energy - heldEnergy);
+		}
+		return energy + getEnergy(host, fromUtilization, utilization, currentTime - time);
+	}
+
+	/**
+	 * Gets the energy of a host whose utilization changes linearly over a time frame. A host without
+	 * utilization at the beginning of the time frame is switched off and consumes no energy.
+	 *
+	 * @param host the host
+	 * @param fromUtilization the utilization at the beginning of the time frame
+	 * @param toUtilization the utilization at the end of the time frame
+	 * @param time the length of the time frame
+	 * @return the energy, in W*sec
+	 */
+	private double getEnergy(H host, double fromUtilization, double toUtilization, double time) {
+		if (fromUtilization == 0) {
+			return 0;
+		}
+		double fromPower = getPower(host, fromUtilization);
+		double toPower = getPower(host, toUtilization);
+		return (fromPower + (toPower - fromPower) / 2) * time;
+	}
+
+	/**
+	 * Adds the utilization-drift energy of the hosts since the last wake-up to the total, in the order
+	 * of the hosts, so that the total does not depend on the order in which the hosts were processed,
+	 * and forgets the predictions.
+	 */
+	private void reducePredictions() {
+		for (Prediction prediction : predictions.values()) {
+			utilizationDriftEnergy += prediction.utilizationDriftEnergy;
+		}
+		predictions.clear();
+	}
+
+	/**
+	 * Gets the number of wake-ups that were skipped.
+	 *
+	 * @return the number of skipped wake-ups
+	 */
+	public int getSkippedIntervals() {
+		return skippedIntervals;
+	}
+
+	/**
+	 * Gets the utilization-drift energy estimate, which is the difference between the energy integrated
+	 * over the predicted utilization of the hosts and their energy at the utilization held over the
+	 * stretched intervals, summed over all the hosts and stretched intervals. It is not a bound of the
+	 * difference with the energy of the fixed scheduling interval.
+	 *
+	 * @return the utilization-drift energy, in W*sec
+	 */
+	public double getUtilizationDriftEnergy() {
+		double energy = utilizationDriftEnergy;
+		for (Prediction prediction : predictions.values()) {
+			energy += prediction.utilizationDriftEnergy;
+		}
+		return energy;
+	}
+
+	/**
+	 * Gets the change of the utilization of a host that ends a stretched interval.
+	 *
+	 * @return the utilization threshold
+	 */
+	public double getUtilizationThreshold() {
+		return utilizationThreshold;
+	}
+
+	/**
+	 * Gets the maximum number of consecutive wake-ups that are skipped.
+	 *
+	 * @return the maximum number of skipped wake-ups
+	 */
+	public int getMaxSkippedIntervals() {
+		return maxSkippedIntervals;
+	}
+
+	/**
+	 * The prediction of a host over the wake-ups skipped since the last wake-up.
+	 */
+	private static final class Prediction {
+
+		/** The predicted utilization of the host at each skipped wake-up. */
+		final double[] utilizations;
+
+		/** The utilization-drift energy of the host since the last wake-up, in W*sec. */
+		double utilizationDriftEnergy;
+
+		/**
+		 * Instantiates a new prediction.
+		 *
+		 * @param utilizations the predicted utilization of the host at each skipped wake-up
+		 */
+		Prediction(double[] utilizations) {
+			this.utilizations = utilizations;
+		}
+
+	}
+
+}
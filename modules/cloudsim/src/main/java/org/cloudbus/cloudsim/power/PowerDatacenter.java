@@ -52,6 +52,9 @@ public class PowerDatacenter extends Datacenter {
 	/** The VM migration count. */
 	private int migrationCount;
 
+	/** The adaptive scheduling interval, or null if the scheduling interval is fixed. */
+	private AdaptiveSchedulingInterval<PowerHost> adaptiveSchedulingInterval;
+
 	/**
 	 * Instantiates a new PowerDatacenter.
 	 * 
@@ -90,12 +93,14 @@ public class PowerDatacenter extends Datacenter {
 			System.out.print(currentTime + " ");
 
 			double minTime = updateCloudetProcessingWithoutSchedulingFutureEventsForce();
+			boolean migrationsStarted = false;
 
 			if (!isDisableMigrations()) {
 				List<Map<String, Object>> migrationMap = getVmAllocationPolicy().optimizeAllocation(
 						getVmList());
 
 				if (migrationMap != null) {
+					migrationsStarted = !migrationMap.isEmpty();
 					for (Map<String, Object> migrate : migrationMap) {
 						Vm vm = (Vm) migrate.get("vm");
 						PowerHost targetHost = (PowerHost) migrate.get("host");
@@ -135,13 +140,36 @@ public class PowerDatacenter extends Datacenter {
 			// schedules an event to the next time
 			if (minTime != Double.MAX_VALUE) {
 				CloudSim.cancelAll(getId(), new PredicateType(CloudSimTags.VM_DATACENTER_EVENT));
-				send(getId(), getSchedulingInterval(), CloudSimTags.VM_DATACENTER_EVENT);
+				send(
+						getId(),
+						getNextSchedulingInterval(currentTime, minTime, migrationsStarted),
+						CloudSimTags.VM_DATACENTER_EVENT);
 			}
 
 			setLastProcessTime(currentTime);
 		}
 	}
 
+	/**
+	 * Gets the time to the next wake-up of the datacenter. It is the scheduling interval, unless the
+	 * adaptive scheduling interval is enabled and no VM is migrating.
+	 * 
+	 * @param currentTime the current time
+	 * @param minTime the expected time of completion of the next cloudlet
+	 * @param migrationsStarted whether VM migrations were started at the current time
+	 * @return the time to the next wake-up
+	 */
+	protected double getNextSchedulingInterval(double currentTime, double minTime, boolean migrationsStarted) {
+		if (getAdaptiveSchedulingInterval() == null) {
+			return getSchedulingInterval();
+		}
+		return getAdaptiveSchedulingInterval().getNextInterval(
+				this.<PowerHost> getHostList(),
+				currentTime,
+				minTime,
+				!migrationsStarted && !isInMigration());
+	}
+
 	/**
 	 * Update cloudet processing without scheduling future events.
 	 * 
@@ -167,27 +195,34 @@ public class PowerDatacenter extends Datacenter {
 	 *         {@link Double#MAX_VALUE} if there is no future events expected in this host
 	 */
 	protected double updateCloudetProcessingWithoutSchedulingFutureEventsForce() {
-		double currentTime = CloudSim.clock();
+		final double currentTime = CloudSim.clock();
 		double minTime = Double.MAX_VALUE;
-		double timeDiff = currentTime - getLastProcessTime();
+		final double timeDiff = currentTime - getLastProcessTime();
+		final double lastProcessTime = getLastProcessTime();
 		double timeFrameDatacenterEnergy = 0.0;
 
 		Log.printLine("\n\n--------------------------------------------------------------\n\n");
 		Log.formatLine("New resource usage for the time frame starting at %.2f:", currentTime);
 
-		for (PowerHost host : this.<PowerHost> getHostList()) {
-			Log.printLine();
+		double[] times = processHosts(this.<PowerHost> getHostList(), new HostFunction<PowerHost>() {
+			@Override
+			public double apply(PowerHost host) {
+				Log.printLine();
+
+				double time = host.updateVmsProcessing(currentTime); // inform VMs to update processing
 
-			double time = host.updateVmsProcessing(currentTime); // inform VMs to update processing
+				Log.formatLine(
+						"%.2f: [Host #%d] utilization is %.2f%%",
+						currentTime,
+						host.getId(),
+						host.getUtilizationOfCpu() * 100);
+				return time;
+			}
+		});
+		for (double time : times) {
 			if (time < minTime) {
 				minTime = time;
 			}
-
-			Log.formatLine(
-					"%.2f: [Host #%d] utilization is %.2f%%",
-					currentTime,
-					host.getId(),
-					host.getUtilizationOfCpu() * 100);
 		}
 
 		if (timeDiff > 0) {
@@ -196,28 +231,46 @@ public class PowerDatacenter extends Datacenter {
 					getLastProcessTime(),
 					currentTime);
 
-			for (PowerHost host : this.<PowerHost> getHostList()) {
-				double previousUtilizationOfCpu = host.getPreviousUtilizationOfCpu();
-				double utilizationOfCpu = host.getUtilizationOfCpu();
-				double timeFrameHostEnergy = host.getEnergyLinearInterpolation(
-						previousUtilizationOfCpu,
-						utilizationOfCpu,
-						timeDiff);
-				timeFrameDatacenterEnergy += timeFrameHostEnergy;
+			double[] energies = processHosts(this.<PowerHost> getHostList(), new HostFunction<PowerHost>() {
+				@Override
+				public double apply(PowerHost host) {
+					double previousUtilizationOfCpu = host.getPreviousUtilizationOfCpu();
+					double utilizationOfCpu = host.getUtilizationOfCpu();
+					double timeFrameHostEnergy;
+					if (getAdaptiveSchedulingInterval() == null) {
+						timeFrameHostEnergy = host.getEnergyLinearInterpolation(
+								previousUtilizationOfCpu,
+								utilizationOfCpu,
+								timeDiff);
+					} else {
+						// the utilization at the skipped wake-ups is accounted for
+						timeFrameHostEnergy = getAdaptiveSchedulingInterval().getEnergy(
+								host,
+								previousUtilizationOfCpu,
+								utilizationOfCpu,
+								lastProcessTime,
+								currentTime);
+					}
 
-				Log.printLine();
-				Log.formatLine(
-						"%.2f: [Host #%d] utilization at %.2f was %.2f%%, now is %.2f%%",
-						currentTime,
-						host.getId(),
-						getLastProcessTime(),
-						previousUtilizationOfCpu * 100,
-						utilizationOfCpu * 100);
-				Log.formatLine(
-						"%.2f: [Host #%d] energy is %.2f W*sec",
-						currentTime,
-						host.getId(),
-						timeFrameHostEnergy);
+					Log.printLine();
+					Log.formatLine(
+							"%.2f: [Host #%d] utilization at %.2f was %.2f%%, now is %.2f%%",
+							currentTime,
+							host.getId(),
+							lastProcessTime,
+							previousUtilizationOfCpu * 100,
+							utilizationOfCpu * 100);
+					Log.formatLine(
+							"%.2f: [Host #%d] energy is %.2f W*sec",
+							currentTime,
+							host.getId(),
+							timeFrameHostEnergy);
+					return timeFrameHostEnergy;
+				}
+			});
+			// the energy is summed in the order of the hosts, so the result doesn't depend on the update being parallel
+			for (double timeFrameHostEnergy : energies) {
+				timeFrameDatacenterEnergy += timeFrameHostEnergy;
 			}
 
 			Log.formatLine(
@@ -356,4 +409,47 @@ public class PowerDatacenter extends Datacenter {
 		setMigrationCount(getMigrationCount() + 1);
 	}
 
+	/**
+	 * Enables the adaptive scheduling interval, which skips the wake-ups at which the utilization of
+	 * the hosts, as predicted from the utilization of the cloudlets of their VMs, does not change by
+	 * more than a threshold.
+	 * 
+	 * @param utilizationThreshold the change of the utilization of a host that ends a stretched
+	 *            interval
+	 * @param maxSkippedIntervals the maximum number of consecutive wake-ups that are skipped
+	 * @see AdaptiveSchedulingInterval
+	 */
+	public void setAdaptiveSchedulingInterval(double utilizationThreshold, int maxSkippedIntervals) {
+		adaptiveSchedulingInterval = new AdaptiveSchedulingInterval<PowerHost>(
+				getSchedulingInterval(),
+				utilizationThreshold,
+				maxSkippedIntervals) {
+
+			@Override
+			protected double getPredictedUtilization(PowerHost host, double time) {
+				double utilizationMips = 0;
+				for (Vm vm : host.getVmList()) {
+					utilizationMips += Math.min(vm.getTotalUtilizationOfCpu(time), 1) * vm.getMips()
+							* vm.getNumberOfPes();
+				}
+				return Math.min(utilizationMips / host.getTotalMips(), 1);
+			}
+
+			@Override
+			protected double getPower(PowerHost host, double utilization) {
+				return host.getPower(utilization);
+			}
+
+		};
+	}
+
+	/**
+	 * Gets the adaptive scheduling interval.
+	 * 
+	 * @return the adaptive scheduling interval, or null if the scheduling interval is fixed
+	 */
+	public AdaptiveSchedulingInterval<PowerHost> getAdaptiveSchedulingInterval() {
+		return adaptiveSchedulingInterval;
+	}
+
 }
@@ -103,11 +103,15 @@ public class PowerDatacenterNonPowerAware extends PowerDatacenter {
 
 			Log.printLine("\n\n--------------------------------------------------------------\n\n");
 
-			for (PowerHost host : this.<PowerHost> getHostList()) {
-				Log.formatLine("\n%.2f: Host #%d", CloudSim.clock(), host.getId());
+			double[] times = processHosts(this.<PowerHost> getHostList(), new HostFunction<PowerHost>() {
+				@Override
+				public double apply(PowerHost host) {
+					Log.formatLine("\n%.2f: Host #%d", currentTime, host.getId());
 
-				double time = host.updateVmsProcessing(currentTime); // inform VMs to update
-																		// processing
+					return host.updateVmsProcessing(currentTime); // inform VMs to update processing
+				}
+			});
+			for (double time : times) {
 				if (time < minTime) {
 					minTime = time;
 				}
@@ -38,6 +38,12 @@ public class PowerHost extends HostDynamicWorkload {
 	/** The power model used by the host. */
 	private PowerModel powerModel;
 
+	/** The last utilization the power of the host was computed for, and that power,
+	 * kept in a single array so that hosts checked in parallel always read a
+	 * consistent pair.
+	 * @see #getPower() */
+	private volatile double[] lastPower;
+
 	/**
 	 * Instantiates a new PowerHost.
 	 * 
@@ -62,11 +68,14 @@ public class PowerHost extends HostDynamicWorkload {
 
 	/**
 	 * Gets the power. For this moment only consumed by all PEs.
+	 * The power is computed again only when the utilization changed since the last time
+	 * the power of the host was computed, so that scoring the host as a candidate for
+	 * VMs takes a single lookup.
 	 * 
 	 * @return the power
 	 */
 	public double getPower() {
-		return getPower(getUtilizationOfCpu());
+		return getLastPower(getUtilizationOfCpu());
 	}
 
 	/**
@@ -115,11 +124,28 @@ public class PowerHost extends HostDynamicWorkload {
 		if (fromUtilization == 0) {
 			return 0;
 		}
-		double fromPower = getPower(fromUtilization);
-		double toPower = getPower(toUtilization);
+		double fromPower = getLastPower(fromUtilization);
+		double toPower = getLastPower(toUtilization);
 		return (fromPower + (toPower - fromPower) / 2) * time;
 	}
 
+	/**
+	 * Gets the power for a given utilization, which is the last power computed
+	 * if the utilization is the last one.
+	 * 
+	 * @param utilization the utilization percentage (between [0 and 1])
+	 * @return the power consumption
+	 */
+	private double getLastPower(double utilization) {
+		double[] last = lastPower;
+		if (last != null && last[0] == utilization) {
+			return last[1];
+		}
+		double power = getPower(utilization);
+		lastPower = new double[] { utilization, power };
+		return power;
+	}
+
 	/**
 	 * Sets the power model.
 	 * 
@@ -127,6 +153,7 @@ public class PowerHost extends HostDynamicWorkload {
 	 */
 	protected void setPowerModel(PowerModel powerModel) {
 		this.powerModel = powerModel;
+		lastPower = null;
 	}
 
 	/**
@@ -15,7 +15,9 @@ import org.cloudbus.cloudsim.VmScheduler;
 import org.cloudbus.cloudsim.power.models.PowerModel;
 import org.cloudbus.cloudsim.provisioners.BwProvisioner;
 import org.cloudbus.cloudsim.provisioners.RamProvisioner;
+import org.cloudbus.cloudsim.util.DoubleRingBuffer;
 import org.cloudbus.cloudsim.util.MathUtil;
+import org.cloudbus.cloudsim.util.SlidingWindowStatistics;
 
 /**
  * A host that stores its CPU utilization percentage history. The history is used by VM allocation
@@ -36,6 +38,35 @@ import org.cloudbus.cloudsim.util.MathUtil;
  */
 public class PowerHostUtilizationHistory extends PowerHost {
 
+	/** The number of most recent utilization values in the regression of the local regression policies. */
+	public static final int REGRESSION_LENGTH = 10;
+
+	/**
+	 * The statistics of the host CPU utilization percentage history. They are updated
+	 * incrementally while the VMs on the host are the same and each of them added one value
+	 * to its history since the last update, and computed again from the VMs otherwise.
+	 */
+	private final SlidingWindowStatistics utilizationStatistics =
+			new SlidingWindowStatistics(PowerVm.HISTORY_LENGTH, REGRESSION_LENGTH);
+
+	/** The VMs the {@link #utilizationStatistics} were last updated from, null if never. */
+	private PowerVm[] statisticsVms;
+
+	/** The MIPS of each of the {@link #statisticsVms} at the last update. */
+	private double[] statisticsVmMips;
+
+	/** The number of values added to the history of each of the {@link #statisticsVms} at the last update. */
+	private long[] statisticsAddCounts;
+
+	/** The history size of each of the {@link #statisticsVms} at the last update. */
+	private int[] statisticsSizes;
+
+	/** The total MIPS of the host at the last update. */
+	private double statisticsHostMips;
+
+	/** The number of times the {@link #utilizationStatistics} changed. */
+	private long statisticsVersion;
+
 	/**
 	 * Instantiates a new PowerHostUtilizationHistory.
 	 * 
@@ -64,14 +95,90 @@ public class PowerHostUtilizationHistory extends PowerHost {
 	 * @return the host CPU utilization percentage history
 	 */
 	protected double[] getUtilizationHistory() {
-		double[] utilizationHistory = new double[PowerVm.HISTORY_LENGTH];
+		return getUtilizationStatistics().toArray();
+	}
+
+	/**
+	 * Gets the statistics of the host CPU utilization percentage history, whose values
+	 * are those of {@link #getUtilizationHistory()}.
+	 * 
+	 * @return the statistics of the host CPU utilization percentage history
+	 */
+	protected SlidingWindowStatistics getUtilizationStatistics() {
+		List<PowerVm> vms = getVmList();
 		double hostMips = getTotalMips();
-		for (PowerVm vm : this.<PowerVm> getVmList()) {
-			for (int i = 0; i < vm.getUtilizationHistory().size(); i++) {
-				utilizationHistory[i] += vm.getUtilizationHistory().get(i) * vm.getMips() / hostMips;
+		boolean sameVms = statisticsVms != null && statisticsVms.length == vms.size()
+				&& statisticsHostMips == hostMips;
+		boolean unchanged = sameVms;
+		boolean shifted = sameVms && !vms.isEmpty();
+		for (int i = 0; sameVms && i < vms.size(); i++) {
+			PowerVm vm = vms.get(i);
+			DoubleRingBuffer vmUtilization = vm.getUtilizationHistoryBuffer();
+			if (vm != statisticsVms[i] || vm.getMips() != statisticsVmMips[i]) {
+				sameVms = false;
+			} else {
+				long added = vmUtilization.getAddCount() - statisticsAddCounts[i];
+				unchanged &= added == 0 && vmUtilization.size() == statisticsSizes[i];
+				shifted &= added == 1
+						&& vmUtilization.size() == Math.min(statisticsSizes[i] + 1, vmUtilization.getCapacity());
 			}
 		}
-		return MathUtil.trimZeroTail(utilizationHistory);
+
+		if (sameVms && unchanged) {
+			return utilizationStatistics;
+		}
+		statisticsVersion++;
+		if (sameVms && shifted) {
+			// every value of the host history gets one step older, and the new one is the sum
+			// of the new values of the VMs, as it would be when summing the whole histories
+			double utilization = 0;
+			for (PowerVm vm : vms) {
+				utilization += vm.getUtilizationHistoryBuffer().getDouble(0) * vm.getMips() / hostMips;
+			}
+			utilizationStatistics.addFirst(utilization);
+			while (utilizationStatistics.size() > 0 && utilizationStatistics.getLast() == 0) {
+				utilizationStatistics.removeLast();
+			}
+		} else {
+			double[] utilizationHistory = new double[PowerVm.HISTORY_LENGTH];
+			for (PowerVm vm : vms) {
+				DoubleRingBuffer vmUtilization = vm.getUtilizationHistoryBuffer();
+				for (int i = 0; i < vmUtilization.size(); i++) {
+					utilizationHistory[i] += vmUtilization.getDouble(i) * vm.getMips() / hostMips;
+				}
+			}
+			utilizationHistory = MathUtil.trimZeroTail(utilizationHistory);
+			utilizationStatistics.clear();
+			for (int i = utilizationHistory.length - 1; i >= 0; i--) {
+				utilizationStatistics.addFirst(utilizationHistory[i]);
+			}
+		}
+
+		if (!sameVms) {
+			statisticsVms = vms.toArray(new PowerVm[vms.size()]);
+			statisticsVmMips = new double[vms.size()];
+			statisticsAddCounts = new long[vms.size()];
+			statisticsSizes = new int[vms.size()];
+			statisticsHostMips = hostMips;
+		}
+		for (int i = 0; i < statisticsVms.length; i++) {
+			DoubleRingBuffer vmUtilization = statisticsVms[i].getUtilizationHistoryBuffer();
+			statisticsVmMips[i] = statisticsVms[i].getMips();
+			statisticsAddCounts[i] = vmUtilization.getAddCount();
+			statisticsSizes[i] = vmUtilization.size();
+		}
+		return utilizationStatistics;
+	}
+
+	/**
+	 * Gets the number of times the {@link #getUtilizationStatistics() utilization statistics}
+	 * changed, either because the VMs on the host changed or because they added values
+	 * to their histories. Values derived from the statistics are still valid while it is the same.
+	 * 
+	 * @return the version of the utilization statistics, as of their last access
+	 */
+	protected long getUtilizationStatisticsVersion() {
+		return statisticsVersion;
 	}
 
 }
@@ -0,0 +1,205 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.power;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+/**
+ * PowerHostUtilizationIndex sorts a list of power hosts by their CPU utilization, as
+ * read by {@link #update()}, into the pool of the switched off hosts, which have no utilization,
+ * and the pool of the active hosts, which are kept in increasing order of utilization, and in the
+ * order of the host list on ties. Since the utilization of a host only changes when the host updates
+ * the processing of its VMs, the index is read once and then lets the hosts be visited from the least
+ * utilized one, the hosts that are not candidates anymore being removed from the index as they are
+ * left out, so that finding the least utilized hosts one after another takes O(H log H) time
+ * rather than O(H<sup>2</sup>).
+ *
+ * @since CloudSim Toolkit 4.0
+ */
+public class PowerHostUtilizationIndex {
+
+	/** The indexed hosts. */
+	private final List<? extends PowerHost> hostList;
+
+	/** The switched off hosts, in the order of the host list. */
+	private final List<PowerHost> switchedOffHosts = new ArrayList<PowerHost>();
+
+	/** The active hosts, in increasing order of utilization. */
+	private PowerHost[] activeHosts = new PowerHost[0];
+
+	/** The utilization of each active host, at the same position as the host. */
+	private double[] utilizations = new double[0];
+
+	/** Whether each active host was removed from the index, at the same position as the host. */
+	private boolean[] removed = new boolean[0];
+
+	/** The position of each active host in {@link #activeHosts}. */
+	private final Map<PowerHost, Integer> positions = new HashMap<PowerHost, Integer>();
+
+	/** The position of the first active host that may not be removed. */
+	private int first;
+
+	/**
+	 * Creates a new PowerHostUtilizationIndex. The index is empty until it is updated.
+	 *
+	 * @param hostList the hosts to index
+	 */
+	public PowerHostUtilizationIndex(List<? extends PowerHost> hostList) {
+		this.hostList = hostList;
+	}
+
+	/**
+	 * Reads the utilization of all the hosts again and puts all of them back into the index.
+	 */
+	public void update() {
+		switchedOffHosts.clear();
+		final double[] hostUtilizations = new double[hostList.size()];
+		List<Integer> active = new ArrayList<Integer>();
+		for (int i = 0; i < hostList.size(); i++) {
+			PowerHost host = hostList.get(i);
+			hostUtilizations[i] = host.getUtilizationOfCpu();
+			if (hostUtilizations[i] == 0) {
+				switchedOffHosts.add(host);
+			} else if (hostUtilizations[i] > 0) {
+				active.add(i);
+			}
+		}
+		Integer[] order = active.toArray(new Integer[active.size()]);
+		Arrays.sort(order, new Comparator<Integer>() {
+
+			@Override
+			public int compare(Integer a, Integer b) {
+				int result = Double.compare(hostUtilizations[a], hostUtilizations[b]);
+				return result != 0 ? result : a.compareTo(b);
+			}
+
+		});
+		activeHosts = new PowerHost[order.length];
+		utilizations = new double[order.length];
+		removed = new boolean[order.length];
+		for (int i = 0; i < order.length; i++) {
+			activeHosts[i] = hostList.get(order[i]);
+			utilizations[i] = hostUtilizations[order[i]];
+		}
+		reset();
+	}
+
+	/**
+	 * Puts back the hosts removed since the last update, without reading their utilization again.
+	 */
+	public void reset() {
+		positions.clear();
+		Arrays.fill(removed, false);
+		first = 0;
+		for (int i = 0; i < activeHosts.length; i++) {
+			if (!positions.containsKey(activeHosts[i])) {
+				positions.put(activeHosts[i], i);
+			}
+		}
+	}
+
+	/**
+	 * Removes an active host from the index, until it is updated or reset.
+	 *
+	 * @param host the host
+	 */
+	public void remove(PowerHost host) {
+		Integer position = positions.remove(host);
+		if (position == null) {
+			return;
+		}
+		removed[position] = true;
+		while (first < removed.length && removed[first]) {
+			first++;
+		}
+	}
+
+	/**
+	 * Gets the active hosts that were not removed, in increasing order of the utilization they had
+	 * when the index was updated.
+	 *
+	 * @return the active hosts
+	 */
+	public Iterable<PowerHost> getActiveHosts() {
+		return new Iterable<PowerHost>() {
+
+			@Override
+			public Iterator<PowerHost> iterator() {
+				return new Iterator<PowerHost>() {
+
+					private int next = skipRemoved(first);
+
+					@Override
+					public boolean hasNext() {
+						return next < activeHosts.length;
+					}
+
+					@Override
+					public PowerHost next() {
+						if (!hasNext()) {
+							throw new NoSuchElementException();
+						}
+						PowerHost host = activeHosts[next];
+						next = skipRemoved(next + 1);
+						return host;
+					}
+
+					@Override
+					public void remove() {
+						throw new UnsupportedOperationException();
+					}
+
+				};
+			}
+
+		};
+	}
+
+	/**
+	 * Gets the utilization an active host had when the index was updated.
+	 *
+	 * @param host the host
+	 * @return the utilization of the host, or -1 if it is not an active host of the index
+	 */
+	public double getUtilization(PowerHost host) {
+		Integer position = positions.get(host);
+		return position == null ? -1 : utilizations[position];
+	}
+
+	/**
+	 * Gets the hosts that were switched off, having no utilization, when the index was updated.
+	 *
+	 * @return the switched off hosts, in the order of the host list
+	 */
+	public List<PowerHost> getSwitchedOffHosts() {
+		return Collections.unmodifiableList(switchedOffHosts);
+	}
+
+	/**
+	 * Gets the position of the first active host that was not removed, from a given position.
+	 *
+	 * @param position the position to start from
+	 * @return the position of the host, or the number of active hosts if there is none
+	 */
+	private int skipRemoved(int position) {
+		while (position < removed.length && removed[position]) {
+			position++;
+		}
+		return position;
+	}
+
+}
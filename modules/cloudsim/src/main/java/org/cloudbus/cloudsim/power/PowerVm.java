@@ -8,12 +8,12 @@
 
 package org.cloudbus.cloudsim.power;
 
-import java.util.LinkedList;
 import java.util.List;
 
 import org.cloudbus.cloudsim.CloudletScheduler;
 import org.cloudbus.cloudsim.Vm;
 import org.cloudbus.cloudsim.core.CloudSim;
+import org.cloudbus.cloudsim.util.DoubleRingBuffer;
 import org.cloudbus.cloudsim.util.MathUtil;
 
 /**
@@ -38,8 +38,8 @@ public class PowerVm extends Vm {
 	/** The Constant HISTORY_LENGTH. */
 	public static final int HISTORY_LENGTH = 30;
 
-	/** The CPU utilization percentage history. */
-	private final List<Double> utilizationHistory = new LinkedList<Double>();
+	/** The CPU utilization percentage history, the most recent value first. */
+	private final DoubleRingBuffer utilizationHistory = new DoubleRingBuffer(HISTORY_LENGTH);
 
 	/** The previous time that cloudlets were processed. */
 	private double previousTime;
@@ -80,8 +80,8 @@ public class PowerVm extends Vm {
 	}
 
 	@Override
-	public double updateVmProcessing(final double currentTime, final List<Double> mipsShare) {
-		double time = super.updateVmProcessing(currentTime, mipsShare);
+	public double updateVmProcessingWithArray(final double currentTime, final double[] mipsShare) {
+		double time = super.updateVmProcessingWithArray(currentTime, mipsShare);
 		if (currentTime > getPreviousTime() && (currentTime - 0.1) % getSchedulingInterval() == 0) {
 			double utilization = getTotalUtilizationOfCpu(getCloudletScheduler().getPreviousTime());
 			if (CloudSim.clock() != 0 || utilization != 0) {
@@ -98,20 +98,7 @@ public class PowerVm extends Vm {
 	 * @return the utilization MAD in MIPS
 	 */
 	public double getUtilizationMad() {
-		double mad = 0;
-		if (!getUtilizationHistory().isEmpty()) {
-			int n = HISTORY_LENGTH;
-			if (HISTORY_LENGTH > getUtilizationHistory().size()) {
-				n = getUtilizationHistory().size();
-			}
-			double median = MathUtil.median(getUtilizationHistory());
-			double[] deviationSum = new double[n];
-			for (int i = 0; i < n; i++) {
-				deviationSum[i] = Math.abs(median - getUtilizationHistory().get(i));
-			}
-			mad = MathUtil.median(deviationSum);
-		}
-		return mad;
+		return MathUtil.mad(getUtilizationHistoryBuffer().toDoubleArray());
 	}
 
 	/**
@@ -120,18 +107,7 @@ public class PowerVm extends Vm {
 	 * @return the utilization mean in MIPS
 	 */
 	public double getUtilizationMean() {
-		double mean = 0;
-		if (!getUtilizationHistory().isEmpty()) {
-			int n = HISTORY_LENGTH;
-			if (HISTORY_LENGTH > getUtilizationHistory().size()) {
-				n = getUtilizationHistory().size();
-			}
-			for (int i = 0; i < n; i++) {
-				mean += getUtilizationHistory().get(i);
-			}
-			mean /= n;
-		}
-		return mean * getMips();
+		return getUtilizationHistoryBuffer().getMean() * getMips();
 	}
 
 	/**
@@ -140,20 +116,7 @@ public class PowerVm extends Vm {
 	 * @return the utilization variance in MIPS
 	 */
 	public double getUtilizationVariance() {
-		double mean = getUtilizationMean();
-		double variance = 0;
-		if (!getUtilizationHistory().isEmpty()) {
-			int n = HISTORY_LENGTH;
-			if (HISTORY_LENGTH > getUtilizationHistory().size()) {
-				n = getUtilizationHistory().size();
-			}
-			for (int i = 0; i < n; i++) {
-				double tmp = getUtilizationHistory().get(i) * getMips() - mean;
-				variance += tmp * tmp;
-			}
-			variance /= n;
-		}
-		return variance;
+		return getUtilizationHistoryBuffer().getVariance() * getMips() * getMips();
 	}
 
 	/**
@@ -162,14 +125,11 @@ public class PowerVm extends Vm {
 	 * @param utilization the CPU utilization percentage to add
 	 */
 	public void addUtilizationHistoryValue(final double utilization) {
-		getUtilizationHistory().add(0, utilization);
-		if (getUtilizationHistory().size() > HISTORY_LENGTH) {
-			getUtilizationHistory().remove(HISTORY_LENGTH);
-		}
+		getUtilizationHistoryBuffer().addFirst(utilization);
 	}
 
 	/**
-	 * Gets the CPU utilization percentage history.
+	 * Gets the CPU utilization percentage history, the most recent value first.
 	 * 
 	 * @return the CPU utilization percentage history
 	 */
@@ -177,6 +137,16 @@ public class PowerVm extends Vm {
 		return utilizationHistory;
 	}
 
+	/**
+	 * Gets the utilization history as the ring buffer that holds it, the most recent
+	 * value first, whose statistics are computed without boxing the values.
+	 * 
+	 * @return the utilization history
+	 */
+	protected DoubleRingBuffer getUtilizationHistoryBuffer() {
+		return utilizationHistory;
+	}
+
 	/**
 	 * Gets the previous time.
 	 * 
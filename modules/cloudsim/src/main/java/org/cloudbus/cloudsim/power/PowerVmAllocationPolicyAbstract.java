@@ -8,7 +8,6 @@
 
 package org.cloudbus.cloudsim.power;
 
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -17,6 +16,8 @@ import org.cloudbus.cloudsim.Log;
 import org.cloudbus.cloudsim.Vm;
 import org.cloudbus.cloudsim.VmAllocationPolicy;
 import org.cloudbus.cloudsim.core.CloudSim;
+import org.cloudbus.cloudsim.util.LongObjectHashMap;
+import org.cloudbus.cloudsim.util.UidMapView;
 
 /**
  * An abstract power-aware VM allocation policy.
@@ -36,9 +37,9 @@ import org.cloudbus.cloudsim.core.CloudSim;
  */
 public abstract class PowerVmAllocationPolicyAbstract extends VmAllocationPolicy {
 
-	/** The map map where each key is a VM id and
+	/** The map map where each key is a VM key and
          * each value is the host where the VM is placed. */
-	private final Map<String, Host> vmTable = new HashMap<String, Host>();
+	private final LongObjectHashMap<Host> vmTable = new LongObjectHashMap<Host>();
 
 	/**
 	 * Instantiates a new PowerVmAllocationPolicyAbstract.
@@ -61,7 +62,7 @@ public abstract class PowerVmAllocationPolicyAbstract extends VmAllocationPolicy
 			return false;
 		}
 		if (host.vmCreate(vm)) { // if vm has been succesfully created in the host
-			getVmTable().put(vm.getUid(), host);
+			getVmKeyTable().put(vm.getKey(), host);
 			Log.formatLine(
 					"%.2f: VM #" + vm.getId() + " has been allocated to the host #" + host.getId(),
 					CloudSim.clock());
@@ -90,7 +91,7 @@ public abstract class PowerVmAllocationPolicyAbstract extends VmAllocationPolicy
 
 	@Override
 	public void deallocateHostForVm(Vm vm) {
-		Host host = getVmTable().remove(vm.getUid());
+		Host host = getVmKeyTable().remove(vm.getKey());
 		if (host != null) {
 			host.vmDestroy(vm);
 		}
@@ -98,12 +99,12 @@ public abstract class PowerVmAllocationPolicyAbstract extends VmAllocationPolicy
 
 	@Override
 	public Host getHost(Vm vm) {
-		return getVmTable().get(vm.getUid());
+		return getVmKeyTable().get(vm.getKey());
 	}
 
 	@Override
 	public Host getHost(int vmId, int userId) {
-		return getVmTable().get(Vm.getUid(userId, vmId));
+		return getVmKeyTable().get(Vm.getKey(userId, vmId));
 	}
 
 	/**
@@ -111,8 +112,19 @@ public abstract class PowerVmAllocationPolicyAbstract extends VmAllocationPolicy
 	 * 
 	 * @return the vm table
 	 */
-	public Map<String, Host> getVmTable() {
+	public LongObjectHashMap<Host> getVmKeyTable() {
 		return vmTable;
 	}
 
+	/**
+	 * Gets the vm table, as a live view of {@link #getVmKeyTable()}.
+	 * 
+	 * @return the vm table, keyed by uid
+	 * @deprecated Use {@link #getVmKeyTable()}, which is keyed by the numeric keys.
+	 */
+	@Deprecated
+	public Map<String, Host> getVmTable() {
+		return UidMapView.of(getVmKeyTable());
+	}
+
 }
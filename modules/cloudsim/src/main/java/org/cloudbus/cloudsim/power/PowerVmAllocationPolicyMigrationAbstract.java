@@ -15,14 +15,18 @@ import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
 
 import org.cloudbus.cloudsim.Host;
 import org.cloudbus.cloudsim.HostDynamicWorkload;
 import org.cloudbus.cloudsim.Log;
 import org.cloudbus.cloudsim.Vm;
+import org.cloudbus.cloudsim.VmMigration;
 import org.cloudbus.cloudsim.core.CloudSim;
 import org.cloudbus.cloudsim.power.lists.PowerVmList;
 import org.cloudbus.cloudsim.util.ExecutionTimeMeasurer;
+import org.cloudbus.cloudsim.util.OverrideCheck;
 
 /**
  * An abstract power-aware VM allocation policy that dynamically optimizes the VM
@@ -46,12 +50,11 @@ public abstract class PowerVmAllocationPolicyMigrationAbstract extends PowerVmAl
 	/** The vm selection policy. */
 	private PowerVmSelectionPolicy vmSelectionPolicy;
 
-	/** A list of maps between a VM and the host where it is place.
-         * @todo This list of map is implemented in the worst way.
-         * It should be used just a Map<Vm, Host> to find out 
-         * what PM is hosting a given VM.
-         */
-	private final List<Map<String, Object>> savedAllocation = new ArrayList<Map<String, Object>>();
+	/** The VMs of each host, other than the ones migrating in, when the
+	 * optimization of the allocation started.
+	 * @see #saveAllocation()
+	 */
+	private final Map<Host, List<Vm>> savedAllocation = new HashMap<Host, List<Vm>>();
 
 	/** A map of CPU utilization history (in percentage) for each host,
          where each key is a host id and each value is the CPU utilization percentage history.*/
@@ -94,6 +97,32 @@ public abstract class PowerVmAllocationPolicyMigrationAbstract extends PowerVmAl
          */
 	private final List<Double> executionTimeHistoryTotal = new LinkedList<Double>();
 
+	/** The pool where the candidate hosts for a VM are evaluated in parallel,
+	 * or null if they are evaluated sequentially (the default).
+	 * @see #findHostForVm(org.cloudbus.cloudsim.Vm, java.util.Set) */
+	private ForkJoinPool hostSearchPool;
+
+	/** The minimum number of hosts a policy has to have for them to be evaluated in parallel. */
+	private static final int MIN_HOSTS_FOR_PARALLEL_SEARCH = 64;
+
+	/** The index of the hosts by utilization, updated at the beginning of each optimization
+	 * of the allocation, and when it is used at another simulation time.
+	 * @see #getUnderUtilizedHost(java.util.Set)
+	 * @see #getSwitchedOffHosts() */
+	private final PowerHostUtilizationIndex hostUtilizationIndex;
+
+	/** Tells if a subclass overrides {@link #isHostOverUtilizedAfterAllocationWithoutPlacement(PowerHost, Vm)}. */
+	private static final OverrideCheck OVER_UTILIZATION_WITHOUT_PLACEMENT = new OverrideCheck(
+			PowerVmAllocationPolicyMigrationAbstract.class, "isHostOverUtilizedAfterAllocationWithoutPlacement",
+			PowerHost.class, Vm.class);
+
+	/** Tells if a subclass overrides {@link #getUnderUtilizedHost(Set)}. */
+	private static final OverrideCheck UNDER_UTILIZED_HOST = new OverrideCheck(
+			PowerVmAllocationPolicyMigrationAbstract.class, "getUnderUtilizedHost", Set.class);
+
+	/** The simulation time of the last update of the host utilization index, -1 if none. */
+	private double hostUtilizationIndexTime = -1;
+
 	/**
 	 * Instantiates a new PowerVmAllocationPolicyMigrationAbstract.
 	 * 
@@ -105,6 +134,7 @@ public abstract class PowerVmAllocationPolicyMigrationAbstract extends PowerVmAl
 			PowerVmSelectionPolicy vmSelectionPolicy) {
 		super(hostList);
 		setVmSelectionPolicy(vmSelectionPolicy);
+		hostUtilizationIndex = new PowerHostUtilizationIndex(this.<PowerHost> getHostList());
 	}
 
 	/**
@@ -119,6 +149,7 @@ public abstract class PowerVmAllocationPolicyMigrationAbstract extends PowerVmAl
 		ExecutionTimeMeasurer.start("optimizeAllocationTotal");
 
 		ExecutionTimeMeasurer.start("optimizeAllocationHostSelection");
+		updateHostUtilizationIndex();
 		List<PowerHostUtilizationHistory> overUtilizedHosts = getOverUtilizedHosts();
 		getExecutionTimeHistoryHostSelection().add(
 				ExecutionTimeMeasurer.end("optimizeAllocationHostSelection"));
@@ -172,42 +203,49 @@ public abstract class PowerVmAllocationPolicyMigrationAbstract extends PowerVmAl
 
 		int numberOfHosts = getHostList().size();
 
-		while (true) {
-			if (numberOfHosts == excludedHostsForFindingUnderUtilizedHost.size()) {
-				break;
-			}
+		try {
+			while (true) {
+				if (numberOfHosts == excludedHostsForFindingUnderUtilizedHost.size()) {
+					break;
+				}
 
-			PowerHost underUtilizedHost = getUnderUtilizedHost(excludedHostsForFindingUnderUtilizedHost);
-			if (underUtilizedHost == null) {
-				break;
-			}
+				PowerHost underUtilizedHost = UNDER_UTILIZED_HOST.isOverriddenBy(this)
+						? getUnderUtilizedHost(excludedHostsForFindingUnderUtilizedHost)
+						: removeUnderUtilizedHost(excludedHostsForFindingUnderUtilizedHost);
+				if (underUtilizedHost == null) {
+					break;
+				}
 
-			Log.printConcatLine("Under-utilized host: host #", underUtilizedHost.getId(), "\n");
+				Log.printConcatLine("Under-utilized host: host #", underUtilizedHost.getId(), "\n");
 
-			excludedHostsForFindingUnderUtilizedHost.add(underUtilizedHost);
-			excludedHostsForFindingNewVmPlacement.add(underUtilizedHost);
+				excludedHostsForFindingUnderUtilizedHost.add(underUtilizedHost);
+				excludedHostsForFindingNewVmPlacement.add(underUtilizedHost);
 
-			List<? extends Vm> vmsToMigrateFromUnderUtilizedHost = getVmsToMigrateFromUnderUtilizedHost(underUtilizedHost);
-			if (vmsToMigrateFromUnderUtilizedHost.isEmpty()) {
-				continue;
-			}
+				List<? extends Vm> vmsToMigrateFromUnderUtilizedHost = getVmsToMigrateFromUnderUtilizedHost(underUtilizedHost);
+				if (vmsToMigrateFromUnderUtilizedHost.isEmpty()) {
+					continue;
+				}
 
-			Log.print("Reallocation of VMs from the under-utilized host: ");
-			if (!Log.isDisabled()) {
-				for (Vm vm : vmsToMigrateFromUnderUtilizedHost) {
-					Log.print(vm.getId() + " ");
+				Log.print("Reallocation of VMs from the under-utilized host: ");
+				if (!Log.isDisabled()) {
+					for (Vm vm : vmsToMigrateFromUnderUtilizedHost) {
+						Log.print(vm.getId() + " ");
+					}
 				}
-			}
-			Log.printLine();
+				Log.printLine();
 
-			List<Map<String, Object>> newVmPlacement = getNewVmPlacementFromUnderUtilizedHost(
-					vmsToMigrateFromUnderUtilizedHost,
-					excludedHostsForFindingNewVmPlacement);
+				List<Map<String, Object>> newVmPlacement = getNewVmPlacementFromUnderUtilizedHost(
+						vmsToMigrateFromUnderUtilizedHost,
+						excludedHostsForFindingNewVmPlacement);
 
-			excludedHostsForFindingUnderUtilizedHost.addAll(extractHostListFromMigrationMap(newVmPlacement));
+				excludedHostsForFindingUnderUtilizedHost.addAll(extractHostListFromMigrationMap(newVmPlacement));
 
-			migrationMap.addAll(newVmPlacement);
-			Log.printLine();
+				migrationMap.addAll(newVmPlacement);
+				Log.printLine();
+			}
+		} finally {
+			// puts back the hosts removed while finding the under utilized hosts
+			hostUtilizationIndex.reset();
 		}
 
 		return migrationMap;
@@ -234,37 +272,210 @@ public abstract class PowerVmAllocationPolicyMigrationAbstract extends PowerVmAl
          * The selected host will be that one with most efficient
          * power usage for the given VM.
 	 * 
+	 * <p>If a {@link #getHostSearchPool() host search pool} was set, there are enough hosts and
+	 * the policy overrides {@link #isHostOverUtilizedAfterAllocationWithoutPlacement(PowerHost, Vm)},
+	 * the hosts are evaluated in parallel, each worker evaluating a contiguous range of
+	 * hosts and deferring the {@link Log} messages of each host. Only the hosts whose over
+	 * utilization can be checked
+	 * {@link #isHostOverUtilizedAfterAllocationWithoutPlacement(PowerHost, Vm) without placing the VM}
+	 * are evaluated by the workers; the others are evaluated afterwards, one after the other, as the
+	 * check places the VM on them, which sets the host of the VM. The power increases are then
+	 * reduced in the order of the hosts, keeping the first lowest one, and the messages printed
+	 * in that order too, so that the host found and the output are the same as the ones
+	 * of the sequential search.</p>
+	 * 
 	 * @param vm the VM
 	 * @param excludedHosts the excluded hosts
 	 * @return the host found to host the VM
 	 */
 	public PowerHost findHostForVm(Vm vm, Set<? extends Host> excludedHosts) {
+		List<PowerHost> hosts = this.<PowerHost> getHostList();
+		double[] powerDiffs = null;
+		String[] output = null;
+		ForkJoinPool pool = getHostSearchPool();
+		// placing the VM on a host to check it sets the host of the VM, which the evaluation of
+		// the current host of the VM depends on, so that this host has to be checked in order
+		if (pool != null && hosts.size() >= MIN_HOSTS_FOR_PARALLEL_SEARCH
+				&& (vm.getHost() == null || excludedHosts.contains(vm.getHost()))
+				&& OVER_UTILIZATION_WITHOUT_PLACEMENT.isOverriddenBy(this)) {
+			powerDiffs = new double[hosts.size()];
+			output = Log.isDisabled() ? null : new String[hosts.size()];
+			getPowerDiffsAfterAllocation(pool, hosts, vm, excludedHosts, powerDiffs, output);
+		}
+
 		double minPower = Double.MAX_VALUE;
 		PowerHost allocatedHost = null;
+		for (int i = 0; i < hosts.size(); i++) {
+			PowerHost host = hosts.get(i);
+			double powerDiff;
+			if (powerDiffs == null || Double.isNaN(powerDiffs[i])) {
+				// not evaluated by the workers, as the VM has to be placed on the host
+				powerDiff = getPowerDiffAfterAllocation(host, vm, excludedHosts);
+			} else {
+				powerDiff = powerDiffs[i];
+				if (output != null && !output[i].isEmpty()) {
+					Log.print(output[i]);
+				}
+			}
+			if (powerDiff < minPower) {
+				minPower = powerDiff;
+				allocatedHost = host;
+			}
+		}
+		return allocatedHost;
+	}
 
-		for (PowerHost host : this.<PowerHost> getHostList()) {
-			if (excludedHosts.contains(host)) {
-				continue;
+	/**
+	 * Gets the increase of the power consumption of a host after placement of a candidate VM,
+	 * if the host can receive the VM without being over utilized.
+	 * 
+	 * @param host the host
+	 * @param vm the candidate VM
+	 * @param excludedHosts the hosts that can't receive the VM
+	 * @return the power increase, or {@link Double#MAX_VALUE} if the host can't receive the VM
+	 */
+	private double getPowerDiffAfterAllocation(PowerHost host, Vm vm, Set<? extends Host> excludedHosts) {
+		if (excludedHosts.contains(host) || !host.isSuitableForVm(vm)) {
+			return Double.MAX_VALUE;
+		}
+		if (getUtilizationOfCpuMips(host) != 0 && isHostOverUtilizedAfterAllocation(host, vm)) {
+			return Double.MAX_VALUE;
+		}
+		return getPowerDiffOfSuitableHost(host, vm);
+	}
+
+	/**
+	 * Gets the increase of the power consumption of a host after placement of a candidate VM,
+	 * without placing the VM on the host, so that several hosts can be evaluated at the same time.
+	 * 
+	 * @param host the host
+	 * @param vm the candidate VM
+	 * @param excludedHosts the hosts that can't receive the VM
+	 * @return the power increase, {@link Double#MAX_VALUE} if the host can't receive the VM,
+	 *         or {@link Double#NaN} if the VM has to be placed on the host to know it
+	 * @see #getPowerDiffAfterAllocation(PowerHost, Vm, Set)
+	 */
+	private double getPowerDiffAfterAllocationWithoutPlacement(PowerHost host, Vm vm,
+			Set<? extends Host> excludedHosts) {
+		if (excludedHosts.contains(host) || !host.isSuitableForVm(vm)) {
+			return Double.MAX_VALUE;
+		}
+		if (getUtilizationOfCpuMips(host) != 0) {
+			Boolean overUtilized = isHostOverUtilizedAfterAllocationWithoutPlacement(host, vm);
+			if (overUtilized == null) {
+				return Double.NaN;
 			}
-			if (host.isSuitableForVm(vm)) {
-				if (getUtilizationOfCpuMips(host) != 0 && isHostOverUtilizedAfterAllocation(host, vm)) {
-					continue;
-				}
+			if (overUtilized) {
+				return Double.MAX_VALUE;
+			}
+		}
+		return getPowerDiffOfSuitableHost(host, vm);
+	}
+
+	/**
+	 * Gets the increase of the power consumption of a host that can receive a candidate VM.
+	 * 
+	 * @param host the host
+	 * @param vm the candidate VM
+	 * @return the power increase, or {@link Double#MAX_VALUE} if it cannot be computed
+	 */
+	private double getPowerDiffOfSuitableHost(PowerHost host, Vm vm) {
+		try {
+			double powerAfterAllocation = getPowerAfterAllocation(host, vm);
+			if (powerAfterAllocation != -1) {
+				return powerAfterAllocation - host.getPower();
+			}
+		} catch (Exception e) {
+		}
+		return Double.MAX_VALUE;
+	}
+
+	/**
+	 * Gets the power increase of each host after placement of a candidate VM,
+	 * evaluating the hosts in parallel.
+	 * 
+	 * @param pool the pool where the hosts are evaluated
+	 * @param hosts the hosts
+	 * @param vm the candidate VM
+	 * @param excludedHosts the hosts that can't receive the VM
+	 * @param powerDiffs the power increases, in the order of the hosts, being {@link Double#NaN}
+	 *            for the hosts that could not be evaluated without placing the VM
+	 * @param output the deferred log messages of each host, or null if the log is disabled
+	 * @see #getPowerDiffAfterAllocationWithoutPlacement(PowerHost, Vm, Set)
+	 */
+	private void getPowerDiffsAfterAllocation(ForkJoinPool pool, List<PowerHost> hosts, Vm vm,
+			Set<? extends Host> excludedHosts, double[] powerDiffs, String[] output) {
+		// the requested resources of the VM are cached by its cloudlet scheduler at the first
+		// request, which is done here, so that the workers only read them
+		vm.getCurrentRequestedMaxMips();
+		vm.getCurrentRequestedMipsArray();
+		vm.getCurrentRequestedRam();
+		vm.getCurrentRequestedBw();
+
+		int grain = Math.max(1, hosts.size() / (pool.getParallelism() * 8));
+		pool.invoke(new HostSearchAction(hosts, vm, excludedHosts, powerDiffs, output, 0, hosts.size(), grain));
+	}
+
+	/**
+	 * The task that evaluates a range of candidate hosts for a VM, splitting the range
+	 * between several tasks while it has more hosts than the grain.
+	 */
+	private final class HostSearchAction extends RecursiveAction {
+
+		private static final long serialVersionUID = 1L;
+
+		private final List<PowerHost> hosts;
+
+		private final Vm vm;
 
+		private final Set<? extends Host> excludedHosts;
+
+		private final double[] powerDiffs;
+
+		/** The deferred log output of each host, or null if the log is disabled. */
+		private final String[] output;
+
+		private final int from;
+
+		private final int to;
+
+		private final int grain;
+
+		HostSearchAction(List<PowerHost> hosts, Vm vm, Set<? extends Host> excludedHosts,
+				double[] powerDiffs, String[] output, int from, int to, int grain) {
+			this.hosts = hosts;
+			this.vm = vm;
+			this.excludedHosts = excludedHosts;
+			this.powerDiffs = powerDiffs;
+			this.output = output;
+			this.from = from;
+			this.to = to;
+			this.grain = grain;
+		}
+
+		@Override
+		protected void compute() {
+			if (to - from > grain) {
+				int middle = (from + to) >>> 1;
+				invokeAll(
+						new HostSearchAction(hosts, vm, excludedHosts, powerDiffs, output, from, middle, grain),
+						new HostSearchAction(hosts, vm, excludedHosts, powerDiffs, output, middle, to, grain));
+				return;
+			}
+
+			for (int i = from; i < to; i++) {
+				if (output != null) {
+					Log.startDeferring();
+				}
 				try {
-					double powerAfterAllocation = getPowerAfterAllocation(host, vm);
-					if (powerAfterAllocation != -1) {
-						double powerDiff = powerAfterAllocation - host.getPower();
-						if (powerDiff < minPower) {
-							minPower = powerDiff;
-							allocatedHost = host;
-						}
+					powerDiffs[i] = getPowerDiffAfterAllocationWithoutPlacement(hosts.get(i), vm, excludedHosts);
+				} finally {
+					if (output != null) {
+						output[i] = Log.stopDeferring();
 					}
-				} catch (Exception e) {
 				}
 			}
 		}
-		return allocatedHost;
 	}
 
 	/**
@@ -283,6 +494,25 @@ public abstract class PowerVmAllocationPolicyMigrationAbstract extends PowerVmAl
 		return isHostOverUtilizedAfterAllocation;
 	}
 
+	/**
+	 * Checks if a host will be over utilized after placing of a candidate VM, without placing it,
+	 * so that several hosts can be checked at the same time by the
+	 * {@link #getHostSearchPool() host search pool}. The check must only read the host, the VM
+	 * and the state of the policy, which another thread may be checking at the same time.
+	 * The default implementation returns null, as
+	 * {@link #isHostOverUtilizedAfterAllocation(PowerHost, Vm)} places the VM on the host,
+	 * which sets the host of the VM, and {@link #isHostOverUtilized(PowerHost)} may record
+	 * history entries.
+	 * 
+	 * @param host the host to verify
+	 * @param vm the candidate vm
+	 * @return whether the host will be over utilized after VM placement, or null if the
+	 *         VM has to be placed on the host to know it
+	 */
+	protected Boolean isHostOverUtilizedAfterAllocationWithoutPlacement(PowerHost host, Vm vm) {
+		return null;
+	}
+
 	@Override
 	public PowerHost findHostForVm(Vm vm) {
 		Set<Host> excludedHosts = new HashSet<Host>();
@@ -324,10 +554,7 @@ public abstract class PowerVmAllocationPolicyMigrationAbstract extends PowerVmAl
 				allocatedHost.vmCreate(vm);
 				Log.printConcatLine("VM #", vm.getId(), " allocated to host #", allocatedHost.getId());
 
-				Map<String, Object> migrate = new HashMap<String, Object>();
-				migrate.put("vm", vm);
-				migrate.put("host", allocatedHost);
-				migrationMap.add(migrate);
+				migrationMap.add(new VmMigration(vm, allocatedHost));
 			}
 		}
 		return migrationMap;
@@ -351,10 +578,7 @@ public abstract class PowerVmAllocationPolicyMigrationAbstract extends PowerVmAl
 				allocatedHost.vmCreate(vm);
 				Log.printConcatLine("VM #", vm.getId(), " allocated to host #", allocatedHost.getId());
 
-				Map<String, Object> migrate = new HashMap<String, Object>();
-				migrate.put("vm", vm);
-				migrate.put("host", allocatedHost);
-				migrationMap.add(migrate);
+				migrationMap.add(new VmMigration(vm, allocatedHost));
 			} else {
 				Log.printLine("Not all VMs can be reallocated from the host, reallocation cancelled");
 				for (Map<String, Object> map : migrationMap) {
@@ -424,39 +648,64 @@ public abstract class PowerVmAllocationPolicyMigrationAbstract extends PowerVmAl
 	}
 
 	/**
-	 * Gets the switched off hosts.
+	 * Gets the switched off hosts, from the {@link #getHostUtilizationIndex() host utilization index}.
 	 * 
 	 * @return the switched off hosts
 	 */
 	protected List<PowerHost> getSwitchedOffHosts() {
-		List<PowerHost> switchedOffHosts = new LinkedList<PowerHost>();
-		for (PowerHost host : this.<PowerHost> getHostList()) {
-			if (host.getUtilizationOfCpu() == 0) {
-				switchedOffHosts.add(host);
-			}
-		}
-		return switchedOffHosts;
+		return new LinkedList<PowerHost>(getHostUtilizationIndex().getSwitchedOffHosts());
 	}
 
 	/**
-	 * Gets the most under utilized host.
+	 * Gets the most under utilized host, visiting the active hosts of the
+	 * {@link #getHostUtilizationIndex() host utilization index} from the least utilized one.
+	 * The utilization of the hosts is the one they had when the index was last updated, which
+	 * is the current one: the utilization of a host only changes when the host updates the
+	 * processing of its VMs, and the index is updated at each optimization of the allocation
+	 * and when it is used at another simulation time. The index is not changed.
 	 * 
 	 * @param excludedHosts the excluded hosts
 	 * @return the most under utilized host
 	 */
 	protected PowerHost getUnderUtilizedHost(Set<? extends Host> excludedHosts) {
-		double minUtilization = 1;
+		PowerHostUtilizationIndex index = getHostUtilizationIndex();
+		for (PowerHost host : index.getActiveHosts()) {
+			if (!(index.getUtilization(host) < 1)) {
+				break;
+			}
+			if (!excludedHosts.contains(host) && !areAllVmsMigratingOutOrAnyVmMigratingIn(host)) {
+				return host;
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Gets the most under utilized host as {@link #getUnderUtilizedHost(Set)} does, but removes
+	 * the hosts it passes over from the host utilization index, so that the consolidation of the
+	 * under utilized hosts does not check them again. Each call must exclude at least the hosts
+	 * excluded by the previous ones, until the index is {@link PowerHostUtilizationIndex#reset()
+	 * reset}.
+	 * 
+	 * @param excludedHosts the excluded hosts, including those of the previous calls
+	 * @return the most under utilized host
+	 */
+	private PowerHost removeUnderUtilizedHost(Set<? extends Host> excludedHosts) {
+		PowerHostUtilizationIndex index = getHostUtilizationIndex();
+		List<PowerHost> visitedHosts = new ArrayList<PowerHost>();
 		PowerHost underUtilizedHost = null;
-		for (PowerHost host : this.<PowerHost> getHostList()) {
-			if (excludedHosts.contains(host)) {
-				continue;
+		for (PowerHost host : index.getActiveHosts()) {
+			if (!(index.getUtilization(host) < 1)) {
+				break;
 			}
-			double utilization = host.getUtilizationOfCpu();
-			if (utilization > 0 && utilization < minUtilization
-					&& !areAllVmsMigratingOutOrAnyVmMigratingIn(host)) {
-				minUtilization = utilization;
+			if (!excludedHosts.contains(host) && !areAllVmsMigratingOutOrAnyVmMigratingIn(host)) {
 				underUtilizedHost = host;
+				break;
 			}
+			visitedHosts.add(host);
+		}
+		for (PowerHost host : visitedHosts) {
+			index.remove(host);
 		}
 		return underUtilizedHost;
 	}
@@ -493,7 +742,7 @@ public abstract class PowerVmAllocationPolicyMigrationAbstract extends PowerVmAl
 	 * @param host the host to add metric history entries
 	 * @param metric the metric to be added to the metric history map
 	 */
-	protected void addHistoryEntry(HostDynamicWorkload host, double metric) {
+	protected synchronized void addHistoryEntry(HostDynamicWorkload host, double metric) {
 		int hostId = host.getId();
 		if (!getTimeHistory().containsKey(hostId)) {
 			getTimeHistory().put(hostId, new LinkedList<Double>());
@@ -512,42 +761,82 @@ public abstract class PowerVmAllocationPolicyMigrationAbstract extends PowerVmAl
 	}
 
 	/**
-	 * Updates the list of maps between a VM and the host where it is place.
+	 * Saves the VMs of each host, other than the ones migrating in, before the optimization
+	 * of the allocation places VMs on the hosts and removes VMs from them to plan the migrations.
+	 * Only the lists of VMs are copied; the resources of the hosts are left as they are.
          * @see #savedAllocation
 	 */
 	protected void saveAllocation() {
 		getSavedAllocation().clear();
 		for (Host host : getHostList()) {
+			List<Vm> vms = new ArrayList<Vm>(host.getVmList().size());
 			for (Vm vm : host.getVmList()) {
-				if (host.getVmsMigratingIn().contains(vm)) {
-					continue;
+				if (!host.getVmsMigratingIn().contains(vm)) {
+					vms.add(vm);
 				}
-				Map<String, Object> map = new HashMap<String, Object>();
-				map.put("host", host);
-				map.put("vm", vm);
-				getSavedAllocation().add(map);
 			}
+			getSavedAllocation().put(host, vms);
 		}
 	}
 
 	/**
-	 * Restore VM allocation from the allocation history.
+	 * Restores the VM allocation saved by {@link #saveAllocation()}. Only the hosts whose
+	 * VMs were changed by the plan have their VMs destroyed and created again; the other
+	 * hosts keep their resources as they are, the VMs checked on other hosts just getting
+	 * their host back.
          * @see #savedAllocation
 	 */
 	protected void restoreAllocation() {
+		List<Host> changedHosts = new ArrayList<Host>();
 		for (Host host : getHostList()) {
+			if (isAllocationChanged(host, getSavedAllocation().get(host))) {
+				changedHosts.add(host);
+			}
+		}
+		for (Host host : changedHosts) {
 			host.vmDestroyAll();
 			host.reallocateMigratingInVms();
 		}
-		for (Map<String, Object> map : getSavedAllocation()) {
-			Vm vm = (Vm) map.get("vm");
-			PowerHost host = (PowerHost) map.get("host");
-			if (!host.vmCreate(vm)) {
-				Log.printConcatLine("Couldn't restore VM #", vm.getId(), " on host #", host.getId());
-				System.exit(0);
+		for (Host host : changedHosts) {
+			for (Vm vm : getSavedAllocation().get(host)) {
+				if (!host.vmCreate(vm)) {
+					Log.printConcatLine("Couldn't restore VM #", vm.getId(), " on host #", host.getId());
+					System.exit(0);
+				}
+				getVmKeyTable().put(vm.getKey(), host);
 			}
-			getVmTable().put(vm.getUid(), host);
 		}
+		for (Host host : getHostList()) {
+			// checking a host for a VM places the VM on it and destroys it afterwards
+			for (Vm vm : getSavedAllocation().get(host)) {
+				vm.setHost(host);
+			}
+		}
+		getSavedAllocation().clear();
+	}
+
+	/**
+	 * Checks if the VMs of a host are not the saved ones anymore, other than the ones migrating in.
+	 * 
+	 * @param host the host
+	 * @param savedVms the VMs saved for the host
+	 * @return true if VMs were placed on the host or removed from it
+	 */
+	private static boolean isAllocationChanged(Host host, List<Vm> savedVms) {
+		if (savedVms == null) {
+			return false;
+		}
+		int i = 0;
+		for (Vm vm : host.getVmList()) {
+			if (host.getVmsMigratingIn().contains(vm)) {
+				continue;
+			}
+			if (i == savedVms.size() || savedVms.get(i) != vm) {
+				return true;
+			}
+			i++;
+		}
+		return i != savedVms.size();
 	}
 
 	/**
@@ -608,12 +897,34 @@ public abstract class PowerVmAllocationPolicyMigrationAbstract extends PowerVmAl
 		return hostUtilizationMips;
 	}
 
+	/**
+	 * Gets the index of the hosts by utilization, updating it first if it was last updated
+	 * at another simulation time.
+	 * 
+	 * @return the host utilization index
+	 */
+	protected PowerHostUtilizationIndex getHostUtilizationIndex() {
+		if (CloudSim.clock() != hostUtilizationIndexTime) {
+			updateHostUtilizationIndex();
+		}
+		return hostUtilizationIndex;
+	}
+
+	/**
+	 * Reads the utilization of all the hosts again into the index of the hosts by utilization.
+	 */
+	protected void updateHostUtilizationIndex() {
+		hostUtilizationIndex.update();
+		hostUtilizationIndexTime = CloudSim.clock();
+	}
+
 	/**
 	 * Gets the saved allocation.
 	 * 
-	 * @return the saved allocation
+	 * @return the VMs of each host, other than the ones migrating in, when the
+	 * allocation was saved
 	 */
-	protected List<Map<String, Object>> getSavedAllocation() {
+	protected Map<Host, List<Vm>> getSavedAllocation() {
 		return savedAllocation;
 	}
 
@@ -698,4 +1009,30 @@ public abstract class PowerVmAllocationPolicyMigrationAbstract extends PowerVmAl
 		return executionTimeHistoryTotal;
 	}
 
+	/**
+	 * Gets the pool where the candidate hosts for a VM are evaluated in parallel.
+	 * 
+	 * @return the host search pool, or null if the hosts are evaluated sequentially
+	 */
+	public ForkJoinPool getHostSearchPool() {
+		return hostSearchPool;
+	}
+
+	/**
+	 * Sets the pool where the candidate hosts for a VM are evaluated in parallel
+	 * when {@link #findHostForVm(org.cloudbus.cloudsim.Vm, java.util.Set)} looks for
+	 * the host with the lowest power increase. Only the hosts that
+	 * {@link #isHostOverUtilizedAfterAllocationWithoutPlacement(PowerHost, Vm) can be checked
+	 * without placing the VM} are evaluated in parallel, which is the case of the local
+	 * regression policies once the hosts have enough history. The policies that don't override
+	 * that check, such as the threshold, MAD and IQR ones, don't use the pool. The requested resources of the VM
+	 * and the power models are read by several threads at the same time, so objects shared
+	 * between hosts, such as a power model, have to be thread-safe when the search is parallel.
+	 * 
+	 * @param hostSearchPool the host search pool, or null to evaluate the hosts sequentially
+	 */
+	public void setHostSearchPool(ForkJoinPool hostSearchPool) {
+		this.hostSearchPool = hostSearchPool;
+	}
+
 }
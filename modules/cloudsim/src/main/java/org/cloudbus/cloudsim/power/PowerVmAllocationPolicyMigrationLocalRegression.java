@@ -9,10 +9,14 @@
 package org.cloudbus.cloudsim.power;
 
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.cloudbus.cloudsim.Host;
 import org.cloudbus.cloudsim.Vm;
+import org.cloudbus.cloudsim.util.DoubleRingBuffer;
 import org.cloudbus.cloudsim.util.MathUtil;
+import org.cloudbus.cloudsim.util.SlidingWindowStatistics;
 
 /**
  * A VM allocation policy that uses Local Regression (LR) to predict host utilization (load)
@@ -57,6 +61,19 @@ public class PowerVmAllocationPolicyMigrationLocalRegression extends PowerVmAllo
          * data to be computed. */
 	private PowerVmAllocationPolicyMigrationAbstract fallbackVmAllocationPolicy;
 
+	/**
+	 * The regressions of the hosts computed while searching hosts for the VMs to migrate.
+	 * The histories of the hosts only change when VMs are placed on or removed from them
+	 * during an {@link #optimizeAllocation(List) optimization}, thus each host is fitted once
+	 * per optimization and again only after its VMs change. The map is concurrent since the
+	 * hosts may be {@link #setHostSearchPool(java.util.concurrent.ForkJoinPool) checked in parallel}.
+	 */
+	private final Map<PowerHostUtilizationHistory, Regression> hostRegressions =
+			new ConcurrentHashMap<PowerHostUtilizationHistory, Regression>();
+
+	/** The regressions of the histories of the VMs to migrate, computed during an optimization. */
+	private final Map<PowerVm, Regression> vmRegressions = new ConcurrentHashMap<PowerVm, Regression>();
+
 	/**
 	 * Instantiates a new PowerVmAllocationPolicyMigrationLocalRegression.
 	 * 
@@ -99,6 +116,18 @@ public class PowerVmAllocationPolicyMigrationLocalRegression extends PowerVmAllo
 		setFallbackVmAllocationPolicy(fallbackVmAllocationPolicy);
 	}
 
+	@Override
+	public List<Map<String, Object>> optimizeAllocation(List<? extends Vm> vmList) {
+		hostRegressions.clear();
+		vmRegressions.clear();
+		try {
+			return super.optimizeAllocation(vmList);
+		} finally {
+			hostRegressions.clear();
+			vmRegressions.clear();
+		}
+	}
+
 	/**
 	 * Checks if a host is over utilized.
 	 * 
@@ -108,18 +137,14 @@ public class PowerVmAllocationPolicyMigrationLocalRegression extends PowerVmAllo
 	@Override
 	protected boolean isHostOverUtilized(PowerHost host) {
 		PowerHostUtilizationHistory _host = (PowerHostUtilizationHistory) host;
-		double[] utilizationHistory = _host.getUtilizationHistory();
-		int length = 10; // we use 10 to make the regression responsive enough to latest values
-		if (utilizationHistory.length < length) {
+		// we use 10 values to make the regression responsive enough to latest values
+		int length = PowerHostUtilizationHistory.REGRESSION_LENGTH;
+		if (_host.getUtilizationStatistics().size() < length) {
 			return getFallbackVmAllocationPolicy().isHostOverUtilized(host);
 		}
-		double[] utilizationHistoryReversed = new double[length];
-		for (int i = 0; i < length; i++) {
-			utilizationHistoryReversed[i] = utilizationHistory[length - i - 1];
-		}
 		double[] estimates = null;
 		try {
-			estimates = getParameterEstimates(utilizationHistoryReversed);
+			estimates = getParameterEstimates(_host);
 		} catch (IllegalArgumentException e) {
 			return getFallbackVmAllocationPolicy().isHostOverUtilized(host);
 		}
@@ -132,6 +157,150 @@ public class PowerVmAllocationPolicyMigrationLocalRegression extends PowerVmAllo
 		return predictedUtilization >= 1;
 	}
 
+	/**
+	 * Checks if a host will be over utilized after placing a candidate VM, without placing it.
+	 * The host history after the placement is the current one plus the scaled VM history,
+	 * so the regression after the placement is adjusted from the
+	 * {@link #getParameterEstimatesAfterAllocation(PowerHostUtilizationHistory, PowerVm) regression of the host},
+	 * instead of placing the VM, computing the host history again and fitting it.
+	 * The VM is placed on the host as by the super class when the host has too few values for
+	 * the regression, so that the fallback policy decides.
+	 * 
+	 * @param host the host to verify
+	 * @param vm the candidate vm
+	 * @return true, if the host will be over utilized after VM placement; false otherwise
+	 */
+	@Override
+	protected boolean isHostOverUtilizedAfterAllocation(PowerHost host, Vm vm) {
+		Boolean overUtilized = isHostOverUtilizedAfterAllocationWithoutPlacement(host, vm);
+		if (overUtilized == null) {
+			return super.isHostOverUtilizedAfterAllocation(host, vm);
+		}
+		return overUtilized;
+	}
+
+	/**
+	 * Checks if a host will be over utilized after placing a candidate VM, from the
+	 * {@link #getParameterEstimatesAfterAllocation(PowerHostUtilizationHistory, PowerVm) regression
+	 * of the host after the placement}, which only reads the host and the VM.
+	 * 
+	 * @param host the host to verify
+	 * @param vm the candidate vm
+	 * @return whether the host will be over utilized after VM placement, or null if the host has
+	 *         too few values for the regression, or the regression cannot be fitted
+	 */
+	@Override
+	protected Boolean isHostOverUtilizedAfterAllocationWithoutPlacement(PowerHost host, Vm vm) {
+		if (!(host instanceof PowerHostUtilizationHistory) || !(vm instanceof PowerVm) || vm.getHost() == host
+				|| !host.isSuitableForVm(vm) || host.getStorage() < vm.getSize()) {
+			return null;
+		}
+		PowerHostUtilizationHistory _host = (PowerHostUtilizationHistory) host;
+		int length = PowerHostUtilizationHistory.REGRESSION_LENGTH;
+		if (_host.getUtilizationStatistics().size() < length) {
+			return null;
+		}
+		double[] estimates = null;
+		try {
+			estimates = getParameterEstimatesAfterAllocation(_host, (PowerVm) vm);
+		} catch (IllegalArgumentException e) {
+			return null;
+		}
+		double maximumVmMigrationTime = Math.max(getMaximumVmMigrationTime(host), getVmMigrationTime(host, vm));
+		double migrationIntervals = Math.ceil(maximumVmMigrationTime / getSchedulingInterval());
+		double predictedUtilization = estimates[0] + estimates[1] * (length + migrationIntervals);
+		predictedUtilization *= getSafetyParameter();
+
+		return predictedUtilization >= 1;
+	}
+
+	/**
+	 * Gets the utilization estimates of a host as if a VM were placed on it.
+	 * The regression of {@link #getParameterEstimates(PowerHostUtilizationHistory)} is linear
+	 * in the utilization values, so the estimates are those of the host plus those of the VM history
+	 * scaled to the host capacity, both computed once per optimization.
+	 * Subclasses whose regression is not linear in the values must override this method as well.
+	 * 
+	 * @param host the host, with at least {@link PowerHostUtilizationHistory#REGRESSION_LENGTH} values
+	 * @param vm the VM, which is not on the host
+	 * @return the utilization estimates after placing the VM on the host
+	 */
+	protected double[] getParameterEstimatesAfterAllocation(PowerHostUtilizationHistory host, PowerVm vm) {
+		Regression hostRegression = hostRegressions.get(host);
+		host.getUtilizationStatistics();
+		long version = host.getUtilizationStatisticsVersion();
+		if (hostRegression == null || hostRegression.getVersion() != version) {
+			hostRegression = new Regression(version, getParameterEstimates(host));
+			hostRegressions.put(host, hostRegression);
+		}
+
+		DoubleRingBuffer vmUtilization = vm.getUtilizationHistoryBuffer();
+		Regression vmRegression = vmRegressions.get(vm);
+		if (vmRegression == null || vmRegression.getVersion() != vmUtilization.getAddCount()) {
+			vmRegression = new Regression(vmUtilization.getAddCount(), getParameterEstimates(vm));
+			vmRegressions.put(vm, vmRegression);
+		}
+
+		double scale = vm.getMips() / host.getTotalMips();
+		double[] hostEstimates = hostRegression.getEstimates();
+		double[] vmEstimates = vmRegression.getEstimates();
+		return new double[] {
+				hostEstimates[0] + vmEstimates[0] * scale,
+				hostEstimates[1] + vmEstimates[1] * scale };
+	}
+
+	/**
+	 * Gets the estimates of the ordinary least squares regression over the
+	 * {@link PowerHostUtilizationHistory#REGRESSION_LENGTH} most recent values of the history of a VM,
+	 * the oldest of them being at x = 1 and the missing ones being 0, as they are in the host history.
+	 * 
+	 * @param vm the VM
+	 * @return the intercept and the slope
+	 */
+	private double[] getParameterEstimates(PowerVm vm) {
+		DoubleRingBuffer vmUtilization = vm.getUtilizationHistoryBuffer();
+		double n = PowerHostUtilizationHistory.REGRESSION_LENGTH;
+		double center = (n + 1) / 2;
+		double sumY = 0;
+		double sumXY = 0;
+		for (int i = 0; i < n && i < vmUtilization.size(); i++) {
+			double y = vmUtilization.getDouble(i);
+			sumY += y;
+			sumXY += (n - i - center) * y;
+		}
+		double slope = sumXY / (n * (n * n - 1) / 12);
+		return new double[] { sumY / n - slope * center, slope };
+	}
+
+	/**
+	 * Gets the utilization estimates of a host, from the regression sums kept by
+	 * its {@link PowerHostUtilizationHistory#getUtilizationStatistics() utilization statistics}.
+	 * They are those of {@link #getParameterEstimates(double[])}, whose loess weights
+	 * are not applied to {@link PowerHostUtilizationHistory#REGRESSION_LENGTH} values.
+	 * 
+	 * @param host the host
+	 * @return the utilization estimates
+	 */
+	protected double[] getParameterEstimates(PowerHostUtilizationHistory host) {
+		return host.getUtilizationStatistics().getRegressionEstimates();
+	}
+
+	/**
+	 * Gets the utilization history of a host in reverse order, for the regression.
+	 * 
+	 * @param host the host
+	 * @return the {@link PowerHostUtilizationHistory#REGRESSION_LENGTH} most recent values, the oldest first
+	 */
+	protected double[] getUtilizationHistoryReversed(PowerHostUtilizationHistory host) {
+		SlidingWindowStatistics statistics = host.getUtilizationStatistics();
+		int length = PowerHostUtilizationHistory.REGRESSION_LENGTH;
+		double[] utilizationHistoryReversed = new double[length];
+		for (int i = 0; i < length; i++) {
+			utilizationHistoryReversed[i] = statistics.get(length - i - 1);
+		}
+		return utilizationHistoryReversed;
+	}
+
 	/**
 	 * Gets utilization estimates.
 	 * 
@@ -159,6 +328,17 @@ public class PowerVmAllocationPolicyMigrationLocalRegression extends PowerVmAllo
 		return maxRam / ((double) host.getBw() / (2 * 8000));
 	}
 
+	/**
+	 * Gets the time to migrate a VM to or from a host.
+	 * 
+	 * @param host the host
+	 * @param vm the VM
+	 * @return the vm migration time
+	 */
+	protected double getVmMigrationTime(PowerHost host, Vm vm) {
+		return vm.getRam() / ((double) host.getBw() / (2 * 8000));
+	}
+
 	/**
 	 * Sets the scheduling interval.
 	 * 
@@ -204,4 +384,46 @@ public class PowerVmAllocationPolicyMigrationLocalRegression extends PowerVmAllo
 		this.safetyParameter = safetyParameter;
 	}
 
+	/**
+	 * Regression estimates cached along with the version of the history they were computed from.
+	 */
+	private static final class Regression {
+
+		/** The version of the history. */
+		private final long version;
+
+		/** The intercept and the slope. */
+		private final double[] estimates;
+
+		/**
+		 * Instantiates a new Regression.
+		 * 
+		 * @param version the version of the history
+		 * @param estimates the intercept and the slope
+		 */
+		Regression(long version, double[] estimates) {
+			this.version = version;
+			this.estimates = estimates;
+		}
+
+		/**
+		 * Gets the version of the history.
+		 * 
+		 * @return the version
+		 */
+		long getVersion() {
+			return version;
+		}
+
+		/**
+		 * Gets the estimates.
+		 * 
+		 * @return the intercept and the slope
+		 */
+		double[] getEstimates() {
+			return estimates;
+		}
+
+	}
+
 }
@@ -11,6 +11,7 @@ package org.cloudbus.cloudsim.power;
 import java.util.List;
 
 import org.cloudbus.cloudsim.Host;
+import org.cloudbus.cloudsim.util.DoubleRingBuffer;
 import org.cloudbus.cloudsim.util.MathUtil;
 
 /**
@@ -75,6 +76,40 @@ public class PowerVmAllocationPolicyMigrationLocalRegressionRobust extends
 		super(hostList, vmSelectionPolicy, safetyParameter, schedulingInterval, fallbackVmAllocationPolicy);
 	}
 
+	/**
+	 * Gets the utilization estimates of a host, computing the robust regression
+	 * over its most recent utilization values, since its weights depend on the residuals.
+	 * 
+	 * @param host the host
+	 * @return the utilization estimates
+	 */
+	@Override
+	protected double[] getParameterEstimates(PowerHostUtilizationHistory host) {
+		return getParameterEstimates(getUtilizationHistoryReversed(host));
+	}
+
+	/**
+	 * Gets the utilization estimates of a host as if a VM were placed on it. The weights of the
+	 * robust regression depend on the residuals, so it is computed again over the most recent
+	 * values of the host plus those of the VM scaled to the host capacity, as they would be
+	 * in the host history after the placement.
+	 * 
+	 * @param host the host, with at least {@link PowerHostUtilizationHistory#REGRESSION_LENGTH} values
+	 * @param vm the VM, which is not on the host
+	 * @return the utilization estimates after placing the VM on the host
+	 */
+	@Override
+	protected double[] getParameterEstimatesAfterAllocation(PowerHostUtilizationHistory host, PowerVm vm) {
+		double[] utilizationHistoryReversed = getUtilizationHistoryReversed(host);
+		DoubleRingBuffer vmUtilization = vm.getUtilizationHistoryBuffer();
+		double hostMips = host.getTotalMips();
+		int length = utilizationHistoryReversed.length;
+		for (int i = 0; i < length && i < vmUtilization.size(); i++) {
+			utilizationHistoryReversed[length - i - 1] += vmUtilization.getDouble(i) * vm.getMips() / hostMips;
+		}
+		return getParameterEstimates(utilizationHistoryReversed);
+	}
+
 	/**
 	 * Gets the utilization estimates.
 	 * 
@@ -8,12 +8,12 @@
 
 package org.cloudbus.cloudsim.power;
 
-import java.util.LinkedList;
+import java.util.ArrayList;
 import java.util.List;
 
-import org.apache.commons.math3.linear.Array2DRowRealMatrix;
 import org.cloudbus.cloudsim.Vm;
-import org.cloudbus.cloudsim.util.MathUtil;
+import org.cloudbus.cloudsim.util.DoubleRingBuffer;
+import org.cloudbus.cloudsim.util.MultipleCorrelation;
 
 /**
  * A VM selection policy that selects for migration the VM with the Maximum Correlation Coefficient (MCC) among 
@@ -38,6 +38,9 @@ public class PowerVmSelectionPolicyMaximumCorrelation extends PowerVmSelectionPo
          * the  Maximum Correlation policy doesn't have data to be computed. */
 	private PowerVmSelectionPolicy fallbackPolicy;
 
+	/** The engine that computes the correlation coefficients. */
+	private final MultipleCorrelation multipleCorrelation = new MultipleCorrelation();
+
 	/**
 	 * Instantiates a new PowerVmSelectionPolicyMaximumCorrelation.
 	 * 
@@ -90,9 +93,9 @@ public class PowerVmSelectionPolicyMaximumCorrelation extends PowerVmSelectionPo
 		int m = getMinUtilizationHistorySize(vmList);
 		double[][] utilization = new double[n][m];
 		for (int i = 0; i < n; i++) {
-			List<Double> vmUtilization = vmList.get(i).getUtilizationHistory();
+			DoubleRingBuffer vmUtilization = vmList.get(i).getUtilizationHistoryBuffer();
 			for (int j = 0; j < vmUtilization.size(); j++) {
-				utilization[i][j] = vmUtilization.get(j);
+				utilization[i][j] = vmUtilization.getDouble(j);
 			}
 		}
 		return utilization;
@@ -116,34 +119,30 @@ public class PowerVmSelectionPolicyMaximumCorrelation extends PowerVmSelectionPo
 	}
 
 	/**
-	 * Gets the correlation coefficients.
+	 * Gets the correlation coefficients, which are the coefficients of determination
+	 * of the regression of each utilization history on the other ones.
 	 * 
 	 * @param data the data
 	 * @return the correlation coefficients
 	 */
 	protected List<Double> getCorrelationCoefficients(final double[][] data) {
-		int n = data.length;
-		int m = data[0].length;
-		List<Double> correlationCoefficients = new LinkedList<Double>();
-		for (int i = 0; i < n; i++) {
-			double[][] x = new double[n - 1][m];
-			int k = 0;
-			for (int j = 0; j < n; j++) {
-				if (j != i) {
-					x[k++] = data[j];
-				}
-			}
-
-			// Transpose the matrix so that it fits the linear model
-			double[][] xT = new Array2DRowRealMatrix(x).transpose().getData();
-
-			// RSquare is the "coefficient of determination"
-			correlationCoefficients.add(MathUtil.createLinearRegression(xT,
-					data[i]).calculateRSquared());
+		double[] coefficients = getMultipleCorrelation().getCoefficientsOfDetermination(data);
+		List<Double> correlationCoefficients = new ArrayList<Double>(coefficients.length);
+		for (double coefficient : coefficients) {
+			correlationCoefficients.add(coefficient);
 		}
 		return correlationCoefficients;
 	}
 
+	/**
+	 * Gets the engine that computes the correlation coefficients.
+	 * 
+	 * @return the multiple correlation
+	 */
+	protected MultipleCorrelation getMultipleCorrelation() {
+		return multipleCorrelation;
+	}
+
 	/**
 	 * Gets the fallback policy.
 	 * 
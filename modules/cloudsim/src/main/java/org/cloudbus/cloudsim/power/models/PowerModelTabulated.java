@@ -0,0 +1,154 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.power.models;
+
+import java.lang.ref.WeakReference;
+import java.util.Collections;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * Implements a power model that looks up the power consumption of another power model in a table,
+ * computed once for utilization steps of a fixed size, and interpolates linearly between the steps.
+ * The power of models such as {@link PowerModelSpecPower}, {@link PowerModelCubic} or
+ * {@link PowerModelSqrt} is then found without their interpolation step or their
+ * <tt>Math.pow</tt> and <tt>Math.sqrt</tt> calls.
+ *
+ * <p>The steps where the interpolation is further than a given error from the tabulated model,
+ * checked at the middle of each step, fall back to the tabulated model itself. This is the case of
+ * the first step of the models that consume no power at all when the utilization is zero, and of
+ * every step if the maximum error is zero, the power being then the exact one.</p>
+ *
+ * <p>A table is usually shared by all the hosts having the same power model, by getting it from
+ * {@link #getInstance(PowerModel)}. The shared tables are held weakly: a table is dropped once no host
+ * uses it, and its entry once the power model is not used either, since a table refers to its power
+ * model.</p>
+ *
+ * @since CloudSim Toolkit 4.0
+ */
+public class PowerModelTabulated implements PowerModel {
+
+	/** The default number of steps of the utilization in the table. */
+	public static final int DEFAULT_STEPS = 1000;
+
+	/** The default maximum error of the power found in the table, in Watts. */
+	public static final double DEFAULT_MAX_ERROR = 0.01;
+
+	/** The tables of the power models, with the default steps and error, by power model. The tables
+	 * are weak references, since a table strongly referred by the map would keep its power model,
+	 * which is the weak key of the map, and the entry would never be cleared. */
+	private static final Map<PowerModel, WeakReference<PowerModelTabulated>> INSTANCES =
+			Collections.synchronizedMap(new WeakHashMap<PowerModel, WeakReference<PowerModelTabulated>>());
+
+	/** The tabulated power model. */
+	private final PowerModel powerModel;
+
+	/** The number of steps of the utilization. */
+	private final int steps;
+
+	/** The power at the beginning of each step, and at full utilization. */
+	private final double[] powers;
+
+	/** Whether each step falls back to the tabulated power model. */
+	private final boolean[] exact;
+
+	/**
+	 * Instantiates a new tabulated power model.
+	 *
+	 * @param powerModel the power model to tabulate
+	 * @param steps the number of steps of the utilization, from 0 to 1
+	 * @param maxError the maximum error of the power found in the table, in Watts
+	 * @pre steps > 0
+	 * @pre maxError >= 0
+	 */
+	public PowerModelTabulated(PowerModel powerModel, int steps, double maxError) {
+		if (steps <= 0) {
+			throw new IllegalArgumentException("The number of steps must be positive");
+		}
+		this.powerModel = powerModel;
+		this.steps = steps;
+		powers = new double[steps + 1];
+		exact = new boolean[steps];
+		for (int i = 0; i <= steps; i++) {
+			powers[i] = powerModel.getPower(i == steps ? 1 : (double) i / steps);
+		}
+		for (int i = 0; i < steps; i++) {
+			double middlePower = powerModel.getPower((i + 0.5) / steps);
+			exact[i] = !(Math.abs((powers[i] + powers[i + 1]) / 2 - middlePower) <= maxError);
+		}
+	}
+
+	/**
+	 * Gets the table of a power model, with the default steps and maximum error, which is
+	 * computed at the first call for the power model and shared by the next ones, as long as
+	 * the table is used.
+	 *
+	 * @param powerModel the power model
+	 * @return the table of the power model, or the power model itself if it is already a table
+	 */
+	public static PowerModelTabulated getInstance(PowerModel powerModel) {
+		if (powerModel instanceof PowerModelTabulated) {
+			return (PowerModelTabulated) powerModel;
+		}
+		synchronized (INSTANCES) {
+			WeakReference<PowerModelTabulated> reference = INSTANCES.get(powerModel);
+			PowerModelTabulated instance = reference == null ? null : reference.get();
+			if (instance == null) {
+				instance = new PowerModelTabulated(powerModel, DEFAULT_STEPS, DEFAULT_MAX_ERROR);
+				INSTANCES.put(powerModel, new WeakReference<PowerModelTabulated>(instance));
+			}
+			return instance;
+		}
+	}
+
+	/**
+	 * Gets the weak reference by which a shared table of a power model is held.
+	 *
+	 * @param powerModel the power model
+	 * @return the reference to the table of the power model, or null if there is none
+	 */
+	static WeakReference<PowerModelTabulated> getSharedReference(PowerModel powerModel) {
+		return INSTANCES.get(powerModel);
+	}
+
+	@Override
+	public double getPower(double utilization) throws IllegalArgumentException {
+		if (utilization < 0 || utilization > 1) {
+			throw new IllegalArgumentException("Utilization value must be between 0 and 1");
+		}
+		double position = utilization * steps;
+		int step = (int) position;
+		if (step >= steps) {
+			return powers[steps];
+		}
+		if (exact[step]) {
+			return powerModel.getPower(utilization);
+		}
+		return powers[step] + (powers[step + 1] - powers[step]) * (position - step);
+	}
+
+	/**
+	 * Gets the tabulated power model.
+	 *
+	 * @return the tabulated power model
+	 */
+	public PowerModel getPowerModel() {
+		return powerModel;
+	}
+
+	/**
+	 * Gets the number of steps of the utilization.
+	 *
+	 * @return the number of steps
+	 */
+	public int getSteps() {
+		return steps;
+	}
+
+}
@@ -8,10 +8,8 @@
 
 package org.cloudbus.cloudsim.provisioners;
 
-import java.util.HashMap;
-import java.util.Map;
-
 import org.cloudbus.cloudsim.Vm;
+import org.cloudbus.cloudsim.util.LongLongHashMap;
 
 /**
  * BwProvisionerSimple is an extension of {@link BwProvisioner} which uses a best-effort policy to
@@ -25,9 +23,9 @@ import org.cloudbus.cloudsim.Vm;
  */
 public class BwProvisionerSimple extends BwProvisioner {
 
-	/** The BW map, where each key is a VM id and each value
+	/** The BW map, where each key is a VM key and each value
          * is the amount of BW allocated to that VM. */
-	private Map<String, Long> bwTable;
+	private LongLongHashMap bwTable;
 
 	/**
 	 * Instantiates a new bw provisioner simple.
@@ -36,7 +34,7 @@ public class BwProvisionerSimple extends BwProvisioner {
 	 */
 	public BwProvisionerSimple(long bw) {
 		super(bw);
-		setBwTable(new HashMap<String, Long>());
+		setBwTable(new LongLongHashMap());
 	}
 
 	@Override
@@ -45,7 +43,7 @@ public class BwProvisionerSimple extends BwProvisioner {
 
 		if (getAvailableBw() >= bw) {
 			setAvailableBw(getAvailableBw() - bw);
-			getBwTable().put(vm.getUid(), bw);
+			getBwTable().put(vm.getKey(), bw);
 			vm.setCurrentAllocatedBw(getAllocatedBwForVm(vm));
 			return true;
 		}
@@ -56,16 +54,13 @@ public class BwProvisionerSimple extends BwProvisioner {
 
 	@Override
 	public long getAllocatedBwForVm(Vm vm) {
-		if (getBwTable().containsKey(vm.getUid())) {
-			return getBwTable().get(vm.getUid());
-		}
-		return 0;
+		return getBwTable().get(vm.getKey(), 0);
 	}
 
 	@Override
 	public void deallocateBwForVm(Vm vm) {
-		if (getBwTable().containsKey(vm.getUid())) {
-			long amountFreed = getBwTable().remove(vm.getUid());
+		if (getBwTable().containsKey(vm.getKey())) {
+			long amountFreed = getBwTable().remove(vm.getKey(), 0);
 			setAvailableBw(getAvailableBw() + amountFreed);
 			vm.setCurrentAllocatedBw(0);
 		}
@@ -93,7 +88,7 @@ public class BwProvisionerSimple extends BwProvisioner {
 	 * 
 	 * @return the bw map
 	 */
-	protected Map<String, Long> getBwTable() {
+	protected LongLongHashMap getBwTable() {
 		return bwTable;
 	}
 
@@ -102,7 +97,7 @@ public class BwProvisionerSimple extends BwProvisioner {
 	 * 
 	 * @param bwTable the bw map
 	 */
-	protected void setBwTable(Map<String, Long> bwTable) {
+	protected void setBwTable(LongLongHashMap bwTable) {
 		this.bwTable = bwTable;
 	}
 
@@ -11,6 +11,7 @@ package org.cloudbus.cloudsim.provisioners;
 import java.util.List;
 import org.cloudbus.cloudsim.DatacenterCharacteristics;
 
+import org.cloudbus.cloudsim.Pe;
 import org.cloudbus.cloudsim.Vm;
 
 /**
@@ -34,6 +35,9 @@ public abstract class PeProvisioner {
 	/** The available mips. */
 	private double availableMips;
 
+	/** The PE that uses the provisioner, which is told when the MIPS change, or null. */
+	private Pe pe;
+
 	/**
 	 * Creates a new PeProvisioner.
 	 * 
@@ -74,7 +78,23 @@ public abstract class PeProvisioner {
 	 * @post $none
          * @see #allocateMipsForVm(org.cloudbus.cloudsim.Vm, double) 
 	 */
-	public abstract boolean allocateMipsForVm(String vmUid, double mips);
+	public boolean allocateMipsForVm(String vmUid, double mips) {
+		return allocateMipsForVm(Vm.getKey(vmUid), mips);
+	}
+
+	/**
+	 * Allocates a new virtual PE with a specific capacity for a given VM.
+	 * 
+	 * @param vmKey the key of the virtual machine for which the new virtual PE is being allocated
+	 * @param mips the mips to be allocated to the virtual PE of the given VM
+	 * 
+	 * @return $true if the virtual PE could be allocated; $false otherwise
+	 * 
+	 * @pre $none
+	 * @post $none
+         * @see Vm#getKey() 
+	 */
+	public abstract boolean allocateMipsForVm(long vmKey, double mips);
 
 	/**
 	 * Allocates a new set of virtual PEs with a specific capacity for a given VM.
@@ -168,6 +188,28 @@ public abstract class PeProvisioner {
 	 */
 	public void setMips(double mips) {
 		this.mips = mips;
+		if (pe != null) {
+			pe.updateMips();
+		}
+	}
+
+	/**
+	 * Gets the PE that uses the provisioner.
+	 * 
+	 * @return the PE, or null
+	 */
+	public Pe getPe() {
+		return pe;
+	}
+
+	/**
+	 * Sets the PE that uses the provisioner, which is told when the MIPS change.
+	 * A provisioner is used by a single PE.
+	 * 
+	 * @param pe the PE, or null
+	 */
+	public void setPe(Pe pe) {
+		this.pe = pe;
 	}
 
 	/**
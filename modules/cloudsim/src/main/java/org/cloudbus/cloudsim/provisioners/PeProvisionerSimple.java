@@ -8,12 +8,12 @@
 
 package org.cloudbus.cloudsim.provisioners;
 
-import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.Arrays;
 import java.util.List;
-import java.util.Map;
 
 import org.cloudbus.cloudsim.Vm;
+import org.cloudbus.cloudsim.util.LongObjectHashMap;
+import org.cloudbus.cloudsim.util.MathUtil;
 
 /**
  * PeProvisionerSimple is an extension of {@link PeProvisioner} which uses a best-effort policy to
@@ -26,10 +26,9 @@ import org.cloudbus.cloudsim.Vm;
  */
 public class PeProvisionerSimple extends PeProvisioner {
 
-	/** The PE map, where each key is a VM id and each value
-         * is the list of PEs (in terms of their amount of MIPS) 
-         * allocated to that VM. */
-	private Map<String, List<Double>> peTable;
+	/** The PE map, where each key is a VM key and each value
+         * is the MIPS allocated from this PE to each virtual PE of that VM. */
+	private LongObjectHashMap<double[]> peTable;
 
 	/**
 	 * Instantiates a new pe provisioner simple.
@@ -41,32 +40,31 @@ public class PeProvisionerSimple extends PeProvisioner {
 	 */
 	public PeProvisionerSimple(double availableMips) {
 		super(availableMips);
-		setPeTable(new HashMap<String, ArrayList<Double>>());
+		setPeTable(new LongObjectHashMap<double[]>());
 	}
 
 	@Override
 	public boolean allocateMipsForVm(Vm vm, double mips) {
-		return allocateMipsForVm(vm.getUid(), mips);
+		return allocateMipsForVm(vm.getKey(), mips);
 	}
 
 	@Override
-	public boolean allocateMipsForVm(String vmUid, double mips) {
+	public boolean allocateMipsForVm(long vmKey, double mips) {
 		if (getAvailableMips() < mips) {
 			return false;
 		}
 
-		List<Double> allocatedMips;
+		double[] allocatedMips = getPeTable().get(vmKey);
 
-		if (getPeTable().containsKey(vmUid)) {
-			allocatedMips = getPeTable().get(vmUid);
+		if (allocatedMips == null) {
+			allocatedMips = new double[] { mips };
 		} else {
-			allocatedMips = new ArrayList<Double>();
+			allocatedMips = Arrays.copyOf(allocatedMips, allocatedMips.length + 1);
+			allocatedMips[allocatedMips.length - 1] = mips;
 		}
-
-		allocatedMips.add(mips);
+		getPeTable().put(vmKey, allocatedMips);
 
 		setAvailableMips(getAvailableMips() - mips);
-		getPeTable().put(vmUid, allocatedMips);
 
 		return true;
 	}
@@ -84,7 +82,7 @@ public class PeProvisionerSimple extends PeProvisioner {
 
 		setAvailableMips(getAvailableMips() + getTotalAllocatedMipsForVm(vm) - totalMipsToAllocate);
 
-		getPeTable().put(vm.getUid(), mips);
+		getPeTable().put(vm.getKey(), MathUtil.listToArray(mips));
 
 		return true;
 	}
@@ -97,28 +95,24 @@ public class PeProvisionerSimple extends PeProvisioner {
 
 	@Override
 	public double getAllocatedMipsForVmByVirtualPeId(Vm vm, int peId) {
-		if (getPeTable().containsKey(vm.getUid())) {
-			try {
-				return getPeTable().get(vm.getUid()).get(peId);
-			} catch (Exception e) {
-			}
+		double[] allocatedMips = getPeTable().get(vm.getKey());
+		if (allocatedMips != null && peId >= 0 && peId < allocatedMips.length) {
+			return allocatedMips[peId];
 		}
 		return 0;
 	}
 
 	@Override
 	public List<Double> getAllocatedMipsForVm(Vm vm) {
-		if (getPeTable().containsKey(vm.getUid())) {
-			return getPeTable().get(vm.getUid());
-		}
-		return null;
+		return MathUtil.arrayToList(getPeTable().get(vm.getKey()));
 	}
 
 	@Override
 	public double getTotalAllocatedMipsForVm(Vm vm) {
-		if (getPeTable().containsKey(vm.getUid())) {
+		double[] allocatedMips = getPeTable().get(vm.getKey());
+		if (allocatedMips != null) {
 			double totalAllocatedMips = 0.0;
-			for (double mips : getPeTable().get(vm.getUid())) {
+			for (double mips : allocatedMips) {
 				totalAllocatedMips += mips;
 			}
 			return totalAllocatedMips;
@@ -128,11 +122,11 @@ public class PeProvisionerSimple extends PeProvisioner {
 
 	@Override
 	public void deallocateMipsForVm(Vm vm) {
-		if (getPeTable().containsKey(vm.getUid())) {
-			for (double mips : getPeTable().get(vm.getUid())) {
+		double[] allocatedMips = getPeTable().remove(vm.getKey());
+		if (allocatedMips != null) {
+			for (double mips : allocatedMips) {
 				setAvailableMips(getAvailableMips() + mips);
 			}
-			getPeTable().remove(vm.getUid());
 		}
 	}
 
@@ -141,7 +135,7 @@ public class PeProvisionerSimple extends PeProvisioner {
 	 * 
 	 * @return the pe map
 	 */
-	protected Map<String, List<Double>> getPeTable() {
+	protected LongObjectHashMap<double[]> getPeTable() {
 		return peTable;
 	}
 
@@ -150,9 +144,8 @@ public class PeProvisionerSimple extends PeProvisioner {
 	 * 
 	 * @param peTable the peTable to set
 	 */
-	@SuppressWarnings("unchecked")
-	protected void setPeTable(Map<String, ? extends List<Double>> peTable) {
-		this.peTable = (Map<String, List<Double>>) peTable;
+	protected void setPeTable(LongObjectHashMap<double[]> peTable) {
+		this.peTable = peTable;
 	}
 
 }
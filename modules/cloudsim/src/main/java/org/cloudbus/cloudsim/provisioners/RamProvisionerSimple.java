@@ -8,10 +8,8 @@
 
 package org.cloudbus.cloudsim.provisioners;
 
-import java.util.HashMap;
-import java.util.Map;
-
 import org.cloudbus.cloudsim.Vm;
+import org.cloudbus.cloudsim.util.LongLongHashMap;
 
 /**
  * RamProvisionerSimple is an extension of {@link RamProvisioner} which uses a best-effort policy to
@@ -24,9 +22,9 @@ import org.cloudbus.cloudsim.Vm;
  */
 public class RamProvisionerSimple extends RamProvisioner {
 
-	/** The RAM map, where each key is a VM id and each value
+	/** The RAM map, where each key is a VM key and each value
          * is the amount of RAM allocated to that VM. */
-	private Map<String, Integer> ramTable;
+	private LongLongHashMap ramTable;
 
 	/**
 	 * Instantiates a new ram provisioner simple.
@@ -35,7 +33,7 @@ public class RamProvisionerSimple extends RamProvisioner {
 	 */
 	public RamProvisionerSimple(int availableRam) {
 		super(availableRam);
-		setRamTable(new HashMap<String, Integer>());
+		setRamTable(new LongLongHashMap());
 	}
 
 	@Override
@@ -52,7 +50,7 @@ public class RamProvisionerSimple extends RamProvisioner {
 
 		if (getAvailableRam() >= ram) {
 			setAvailableRam(getAvailableRam() - ram);
-			getRamTable().put(vm.getUid(), ram);
+			getRamTable().put(vm.getKey(), ram);
 			vm.setCurrentAllocatedRam(getAllocatedRamForVm(vm));
 			return true;
 		}
@@ -64,16 +62,13 @@ public class RamProvisionerSimple extends RamProvisioner {
 
 	@Override
 	public int getAllocatedRamForVm(Vm vm) {
-		if (getRamTable().containsKey(vm.getUid())) {
-			return getRamTable().get(vm.getUid());
-		}
-		return 0;
+		return (int) getRamTable().get(vm.getKey(), 0);
 	}
 
 	@Override
 	public void deallocateRamForVm(Vm vm) {
-		if (getRamTable().containsKey(vm.getUid())) {
-			int amountFreed = getRamTable().remove(vm.getUid());
+		if (getRamTable().containsKey(vm.getKey())) {
+			int amountFreed = (int) getRamTable().remove(vm.getKey(), 0);
 			setAvailableRam(getAvailableRam() + amountFreed);
 			vm.setCurrentAllocatedRam(0);
 		}
@@ -101,7 +96,7 @@ public class RamProvisionerSimple extends RamProvisioner {
 	 * 
 	 * @return the ram map
 	 */
-	protected Map<String, Integer> getRamTable() {
+	protected LongLongHashMap getRamTable() {
 		return ramTable;
 	}
 
@@ -110,7 +105,7 @@ public class RamProvisionerSimple extends RamProvisioner {
 	 * 
 	 * @param ramTable the ram map
 	 */
-	protected void setRamTable(Map<String, Integer> ramTable) {
+	protected void setRamTable(LongLongHashMap ramTable) {
 		this.ramTable = ramTable;
 	}
 
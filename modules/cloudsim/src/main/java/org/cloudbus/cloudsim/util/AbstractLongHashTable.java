@@ -0,0 +1,280 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.util;
+
+import java.util.Arrays;
+
+/**
+ * Base class of the primitive long-keyed hash tables.
+ *
+ * Entries are kept in dense arrays, in the order they were inserted, and an
+ * open-addressing (linear probing) index maps each key to its position in
+ * those arrays. Lookups thus don't box the key nor compute String hashes,
+ * and the entries can be iterated through {@link #keyAt(int)} without allocating
+ * an iterator. When an entry is removed, the last entry takes its position.
+ *
+ * @since CloudSim Toolkit 4.0
+ */
+abstract class AbstractLongHashTable {
+
+	/** The default initial capacity of the table. */
+	protected static final int DEFAULT_CAPACITY = 8;
+
+	/** The keys of the table, in the order they were inserted. */
+	private long[] keys;
+
+	/** The open-addressing index, where each slot stores the position of an
+	 * entry in {@link #keys} plus one, being 0 an empty slot. */
+	private int[] slots;
+
+	/** The number of entries in the table. */
+	private int size;
+
+	/**
+	 * Instantiates a new table.
+	 *
+	 * @param capacity the expected number of entries
+	 */
+	protected AbstractLongHashTable(int capacity) {
+		capacity = Math.max(capacity, 2);
+		keys = new long[capacity];
+		slots = new int[slotsFor(capacity)];
+	}
+
+	/**
+	 * Gets the number of entries in the table.
+	 *
+	 * @return the number of entries
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Checks whether the table is empty.
+	 *
+	 * @return true, if there is no entry
+	 */
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	/**
+	 * Checks whether the table has an entry for a given key.
+	 *
+	 * @param key the key
+	 * @return true, if the key is in the table
+	 */
+	public boolean containsKey(long key) {
+		return indexOf(key) >= 0;
+	}
+
+	/**
+	 * Gets the key stored at a given position of the table.
+	 *
+	 * @param index the position, between 0 and {@link #size()} - 1
+	 * @return the key at that position
+	 */
+	public long keyAt(int index) {
+		if (index >= size) {
+			throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+		}
+		return keys[index];
+	}
+
+	/**
+	 * Removes all the entries of the table.
+	 */
+	public void clear() {
+		Arrays.fill(slots, 0);
+		clearValues(0, size);
+		size = 0;
+	}
+
+	/**
+	 * Gets the position of a key in the table.
+	 *
+	 * @param key the key
+	 * @return the position of the key or -1 if it is not in the table
+	 */
+	protected int indexOf(long key) {
+		int mask = slots.length - 1;
+		int slot = hash(key) & mask;
+		int entry;
+		while ((entry = slots[slot]) != 0) {
+			if (keys[entry - 1] == key) {
+				return entry - 1;
+			}
+			slot = (slot + 1) & mask;
+		}
+		return -1;
+	}
+
+	/**
+	 * Gets the position of a key, inserting it at the end of the table if it is absent.
+	 *
+	 * @param key the key
+	 * @return the position of the key if it was already in the table,
+	 * or {@code -(position + 1)} if it has just been inserted
+	 */
+	protected int insert(long key) {
+		int mask = slots.length - 1;
+		int slot = hash(key) & mask;
+		int entry;
+		while ((entry = slots[slot]) != 0) {
+			if (keys[entry - 1] == key) {
+				return entry - 1;
+			}
+			slot = (slot + 1) & mask;
+		}
+
+		if (size == keys.length) {
+			int capacity = keys.length * 2;
+			keys = Arrays.copyOf(keys, capacity);
+			growValues(capacity);
+			if (slotsFor(capacity) > slots.length) {
+				rehash(slotsFor(capacity));
+				return insert(key);
+			}
+		}
+
+		int index = size++;
+		keys[index] = key;
+		slots[slot] = index + 1;
+		return -(index + 1);
+	}
+
+	/**
+	 * Removes a key from the table, moving the last entry to the freed position.
+	 *
+	 * @param key the key
+	 * @return the position the key had, or -1 if it was not in the table.
+	 * The subclass has to read the removed value before calling this method.
+	 */
+	protected int delete(long key) {
+		int mask = slots.length - 1;
+		int slot = hash(key) & mask;
+		int entry;
+		while ((entry = slots[slot]) != 0) {
+			if (keys[entry - 1] == key) {
+				break;
+			}
+			slot = (slot + 1) & mask;
+		}
+		if (entry == 0) {
+			return -1;
+		}
+
+		int index = entry - 1;
+		deleteSlot(slot);
+
+		int last = --size;
+		if (index != last) {
+			long lastKey = keys[last];
+			keys[index] = lastKey;
+			moveValue(last, index);
+			int lastSlot = hash(lastKey) & mask;
+			while (slots[lastSlot] != last + 1) {
+				lastSlot = (lastSlot + 1) & mask;
+			}
+			slots[lastSlot] = index + 1;
+		}
+		clearValues(last, last + 1);
+		return index;
+	}
+
+	/**
+	 * Empties a slot of the index, shifting back the entries of the same probe
+	 * sequence so that no tombstone is needed.
+	 *
+	 * @param slot the slot to empty
+	 */
+	private void deleteSlot(int slot) {
+		int mask = slots.length - 1;
+		int hole = slot;
+		int next = slot;
+		while (true) {
+			next = (next + 1) & mask;
+			int entry = slots[next];
+			if (entry == 0) {
+				break;
+			}
+			int home = hash(keys[entry - 1]) & mask;
+			boolean movable = hole <= next ? (home <= hole || home > next) : (home <= hole && home > next);
+			if (movable) {
+				slots[hole] = entry;
+				hole = next;
+			}
+		}
+		slots[hole] = 0;
+	}
+
+	/**
+	 * Rebuilds the index with a new number of slots.
+	 *
+	 * @param slotCount the new number of slots (a power of 2)
+	 */
+	private void rehash(int slotCount) {
+		slots = new int[slotCount];
+		int mask = slotCount - 1;
+		for (int i = 0; i < size; i++) {
+			int slot = hash(keys[i]) & mask;
+			while (slots[slot] != 0) {
+				slot = (slot + 1) & mask;
+			}
+			slots[slot] = i + 1;
+		}
+	}
+
+	/**
+	 * Grows the value arrays of the subclass.
+	 *
+	 * @param capacity the new capacity
+	 */
+	protected abstract void growValues(int capacity);
+
+	/**
+	 * Moves a value from a position to another one of the value arrays.
+	 *
+	 * @param from the position of the value to move
+	 * @param to the new position of the value
+	 */
+	protected abstract void moveValue(int from, int to);
+
+	/**
+	 * Releases the values stored in a range of positions.
+	 *
+	 * @param from the first position (inclusive)
+	 * @param to the last position (exclusive)
+	 */
+	protected abstract void clearValues(int from, int to);
+
+	/**
+	 * Gets the number of slots of an index able to hold a given number of entries
+	 * with a load factor of at most 0.5.
+	 *
+	 * @param capacity the number of entries
+	 * @return the number of slots
+	 */
+	private static int slotsFor(int capacity) {
+		return Integer.highestOneBit(capacity * 2 - 1) << 1;
+	}
+
+	/**
+	 * Spreads the bits of a key.
+	 *
+	 * @param key the key
+	 * @return the hash
+	 */
+	private static int hash(long key) {
+		long h = key * 0x9E3779B97F4A7C15L;
+		return (int) (h ^ (h >>> 32));
+	}
+
+}
@@ -0,0 +1,111 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.util;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * Reads the tasks of the <i>batch_task</i> table of the
+ * <a href="https://github.com/alibaba/clusterdata">Alibaba cluster traces</a> (2018 format).
+ * Each instance of a terminated task becomes a Cloudlet, submitted at the start time of the task
+ * and running until its end time, with the CPUs planned for the task (100 being one CPU).
+ *
+ * The job ID of a Cloudlet is the number of the job name ({@code j_<number>}) and
+ * its task index is the first number of the task name (e.g. 2 for {@code R2_1}),
+ * or 0 if the name has no number.
+ *
+ * @since CloudSim Toolkit 4.0
+ */
+public class AlibabaTraceReader extends ClusterTraceReader {
+
+	/** The column of the task name. */
+	private static final int TASK_NAME_COLUMN = 0;
+
+	/** The column of the number of instances. */
+	private static final int INSTANCE_NUM_COLUMN = 1;
+
+	/** The column of the job name. */
+	private static final int JOB_NAME_COLUMN = 2;
+
+	/** The column of the status. */
+	private static final int STATUS_COLUMN = 4;
+
+	/** The column of the start time, in seconds. */
+	private static final int START_TIME_COLUMN = 5;
+
+	/** The column of the end time, in seconds. */
+	private static final int END_TIME_COLUMN = 6;
+
+	/** The column of the planned CPUs, 100 being one CPU. */
+	private static final int PLAN_CPU_COLUMN = 7;
+
+	/** The status of the tasks that ended. */
+	private static final String TERMINATED = "Terminated";
+
+	/**
+	 * Creates a new reader of an Alibaba trace.
+	 *
+	 * @param fileName a batch_task CSV file, or a folder of them, in ASCII text or gz
+	 * @param rating the PE rating (in MIPS) of the Cloudlets
+	 * @throws FileNotFoundException if the trace doesn't exist
+	 * @pre fileName != null
+	 * @pre rating > 0
+	 * @post $none
+	 */
+	public AlibabaTraceReader(String fileName, int rating) throws FileNotFoundException {
+		super(fileName, rating);
+	}
+
+	@Override
+	protected void parseLine(String[] fields, TaskRecords records) throws IOException {
+		if (fields.length <= PLAN_CPU_COLUMN) {
+			throw new IOException("Invalid batch task " + Arrays.toString(fields));
+		}
+		if (!TERMINATED.equals(fields[STATUS_COLUMN])) {
+			return;
+		}
+		try {
+			double startTime = Double.parseDouble(fields[START_TIME_COLUMN]);
+			double endTime = Double.parseDouble(fields[END_TIME_COLUMN]);
+			if (startTime <= 0 || endTime < startTime) {
+				return; // the times of the task are missing
+			}
+			double cpu = fields[PLAN_CPU_COLUMN].isEmpty() ? 0 : Double.parseDouble(fields[PLAN_CPU_COLUMN]) / 100;
+			int instances = fields[INSTANCE_NUM_COLUMN].isEmpty() ? 1 : Integer.parseInt(fields[INSTANCE_NUM_COLUMN]);
+			long jobId = parseNumber(fields[JOB_NAME_COLUMN]);
+			int taskIndex = (int) parseNumber(fields[TASK_NAME_COLUMN]);
+			for (int i = 0; i < instances; i++) {
+				records.add(jobId, taskIndex, startTime, endTime - startTime, cpu);
+			}
+		} catch (NumberFormatException e) {
+			throw new IOException("Invalid batch task " + Arrays.toString(fields), e);
+		}
+	}
+
+	/**
+	 * Gets the first number of a name.
+	 *
+	 * @param name the name of a job or task
+	 * @return the first number, or 0 if the name has no number
+	 */
+	private static long parseNumber(String name) {
+		int start = 0;
+		while (start < name.length() && !Character.isDigit(name.charAt(start))) {
+			start++;
+		}
+		int end = start;
+		while (end < name.length() && Character.isDigit(name.charAt(end))) {
+			end++;
+		}
+		return start == end ? 0 : Long.parseLong(name.substring(start, end));
+	}
+
+}
@@ -0,0 +1,892 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.util;
+
+import java.io.BufferedReader;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.zip.GZIPInputStream;
+
+import org.cloudbus.cloudsim.Cloudlet;
+import org.cloudbus.cloudsim.Log;
+import org.cloudbus.cloudsim.UtilizationModel;
+import org.cloudbus.cloudsim.UtilizationModelFull;
+
+/**
+ * A workload model that reads the tasks of a cluster trace from CSV files
+ * and creates a {@link Cloudlet} per task. The CSV file, or the folder of CSV files
+ * (optionally gzipped), is read line by line and the lines are parsed
+ * in blocks by several threads, so that traces with millions of rows
+ * neither are kept whole in memory as text nor are parsed by a single core.
+ *
+ * The parsed tasks are cached in a binary file next to the trace, keeping each
+ * field in its own column. The following readers of the same trace load that file instead of
+ * parsing the trace again, while the trace is not modified.
+ *
+ * The Cloudlets are created in order of submit time, their IDs being their
+ * position in that order. The length of a Cloudlet is the run time of its task times the
+ * {@link #getRating() rating} of the PEs, as in {@link WorkloadFileReader}.
+ * Since a Cloudlet only gets its submission time when it is submitted to a datacenter,
+ * the submit time of each task in the trace is given by {@link #getSubmitTime(int)}.
+ *
+ * @since CloudSim Toolkit 4.0
+ * @see GoogleTraceReader
+ * @see AlibabaTraceReader
+ */
+public abstract class ClusterTraceReader implements WorkloadModel {
+
+	/** The magic number at the beginning of the cache file. */
+	private static final int MAGIC = 0x43534354;
+
+	/** The version of the cache file format. */
+	private static final int VERSION = 1;
+
+	/** The number of lines parsed together by a thread. */
+	private static final int BLOCK_SIZE = 16384;
+
+	/** The size of the buffer through which the cache file is read and written. */
+	private static final int CACHE_BUFFER_SIZE = 1 << 20;
+
+	/** The extension of the cache file. */
+	public static final String CACHE_EXTENSION = ".cloudlets";
+
+	/** The trace file or folder. */
+	private final File file;
+
+	/** The PE rating (in MIPS) of the Cloudlets. */
+	private final int rating;
+
+	/** The number of threads that parse the trace. */
+	private int parallelism = Runtime.getRuntime().availableProcessors();
+
+	/** Indicates if the parsed tasks are cached next to the trace. */
+	private boolean cacheEnabled = true;
+
+	/** The tasks of the trace, in order of submit time, or null if not read yet. */
+	private TaskRecords tasks;
+
+	/** The Cloudlets created from the {@link #tasks}. */
+	private ArrayList<Cloudlet> jobs;
+
+	/**
+	 * Creates a new reader of a cluster trace.
+	 *
+	 * @param fileName the trace file, or a folder of trace files, in ASCII text or gz
+	 * @param rating the PE rating (in MIPS) of the Cloudlets
+	 * @throws FileNotFoundException if the trace doesn't exist
+	 * @throws IllegalArgumentException if the file name is null or empty or the rating is not positive
+	 * @pre fileName != null
+	 * @pre rating > 0
+	 * @post $none
+	 */
+	protected ClusterTraceReader(String fileName, int rating) throws FileNotFoundException {
+		if (fileName == null || fileName.length() == 0) {
+			throw new IllegalArgumentException("Invalid trace file name.");
+		} else if (rating <= 0) {
+			throw new IllegalArgumentException("Resource PE rating must be > 0.");
+		}
+
+		file = new File(fileName);
+		if (!file.exists()) {
+			throw new FileNotFoundException("Workload trace " + fileName + " does not exist");
+		}
+		this.rating = rating;
+	}
+
+	/**
+	 * Reads the tasks of the trace, or of its cache, and creates the respective Cloudlets.
+	 *
+	 * @return the Cloudlets in order of submit time; <code>null</code> in case of failure
+	 */
+	@Override
+	public ArrayList<Cloudlet> generateWorkload() {
+		if (jobs == null) {
+			try {
+				readTasks();
+			} catch (IOException e) {
+				Log.printConcatLine("Cannot read the workload trace ", file, ": ", e.getMessage());
+				return null;
+			}
+
+			jobs = new ArrayList<Cloudlet>(tasks.size);
+			UtilizationModel utilizationModel = new UtilizationModelFull();
+			for (int i = 0; i < tasks.size; i++) {
+				long runTime = Math.max(1, Math.round(tasks.runTimes[i]));
+				jobs.add(new Cloudlet(i, runTime * rating, getPes(tasks.cpus[i]), 0, 0,
+						utilizationModel, utilizationModel, utilizationModel));
+			}
+		}
+		return jobs;
+	}
+
+	/**
+	 * Gets the submit time of the task of a Cloudlet.
+	 *
+	 * @param cloudletId the ID of a Cloudlet created by {@link #generateWorkload()}
+	 * @return the submit time, in seconds since the start of the trace
+	 */
+	public double getSubmitTime(int cloudletId) {
+		return tasks.submitTimes[cloudletId];
+	}
+
+	/**
+	 * Gets the ID that the trace gives to the job of the task of a Cloudlet.
+	 *
+	 * @param cloudletId the ID of a Cloudlet created by {@link #generateWorkload()}
+	 * @return the job ID in the trace
+	 */
+	public long getJobId(int cloudletId) {
+		return tasks.ids[cloudletId];
+	}
+
+	/**
+	 * Gets the index that the trace gives to the task of a Cloudlet within its job.
+	 *
+	 * @param cloudletId the ID of a Cloudlet created by {@link #generateWorkload()}
+	 * @return the task index in the trace
+	 */
+	public int getTaskIndex(int cloudletId) {
+		return tasks.taskIndexes[cloudletId];
+	}
+
+	/**
+	 * Gets the PE rating of the Cloudlets.
+	 *
+	 * @return the rating (in MIPS)
+	 */
+	public int getRating() {
+		return rating;
+	}
+
+	/**
+	 * Gets the number of threads that parse the trace.
+	 *
+	 * @return the parallelism
+	 */
+	public int getParallelism() {
+		return parallelism;
+	}
+
+	/**
+	 * Sets the number of threads that parse the trace.
+	 *
+	 * @param parallelism the parallelism, 1 to parse the trace in the calling thread
+	 */
+	public void setParallelism(int parallelism) {
+		if (parallelism < 1) {
+			throw new IllegalArgumentException("The parallelism must be at least 1.");
+		}
+		this.parallelism = parallelism;
+	}
+
+	/**
+	 * Checks if the parsed tasks are cached next to the trace.
+	 *
+	 * @return true, if the cache is enabled
+	 */
+	public boolean isCacheEnabled() {
+		return cacheEnabled;
+	}
+
+	/**
+	 * Sets if the parsed tasks are cached next to the trace.
+	 *
+	 * @param cacheEnabled true to read and write the cache file, false to always parse the trace
+	 */
+	public void setCacheEnabled(boolean cacheEnabled) {
+		this.cacheEnabled = cacheEnabled;
+	}
+
+	/**
+	 * Gets the cache file of the trace.
+	 *
+	 * @return the file next to the trace where the parsed tasks are cached
+	 */
+	public File getCacheFile() {
+		return new File(file.getAbsoluteFile().getParentFile(), file.getName() + CACHE_EXTENSION);
+	}
+
+	/**
+	 * Parses a line of the trace, adding the records it describes.
+	 * This method is called by several threads at the same time, thus
+	 * it must not change the state of the reader.
+	 *
+	 * @param fields the comma-separated fields of the line
+	 * @param records the records of the block of lines the line belongs to
+	 * @throws IOException if the line is not valid
+	 */
+	protected abstract void parseLine(String[] fields, TaskRecords records) throws IOException;
+
+	/**
+	 * Turns the records parsed from the trace, in the order of the lines, into
+	 * tasks. By default each record is already a task.
+	 *
+	 * @param records the parsed records
+	 * @return the tasks, in any order
+	 */
+	protected TaskRecords toTasks(TaskRecords records) {
+		return records;
+	}
+
+	/**
+	 * Gets the number of PEs of a Cloudlet.
+	 *
+	 * @param cpus the CPUs requested by the task, as given by the trace
+	 * @return the number of PEs
+	 */
+	protected int getPes(double cpus) {
+		return Math.max(1, (int) Math.ceil(cpus - 1e-9));
+	}
+
+	/**
+	 * Reads the tasks from the cache file if it is up to date, or from the trace otherwise.
+	 *
+	 * @throws IOException if the trace cannot be read
+	 */
+	private void readTasks() throws IOException {
+		File[] files = listFiles();
+		long lastModified = 0;
+		long length = 0;
+		for (File traceFile : files) {
+			lastModified = Math.max(lastModified, traceFile.lastModified());
+			length += traceFile.length();
+		}
+
+		File cacheFile = getCacheFile();
+		if (cacheEnabled && cacheFile.isFile()) {
+			tasks = readCache(cacheFile, lastModified, length);
+			if (tasks != null) {
+				return;
+			}
+		}
+
+		tasks = toTasks(parse(files));
+		tasks.sortBySubmitTime();
+		if (cacheEnabled) {
+			try {
+				writeCache(cacheFile, lastModified, length);
+			} catch (IOException e) {
+				Log.printConcatLine("Cannot cache the workload trace in ", cacheFile, ": ", e.getMessage());
+			}
+		}
+	}
+
+	/**
+	 * Lists the trace files.
+	 *
+	 * @return the trace file, or the files of the trace folder sorted by name
+	 */
+	private File[] listFiles() {
+		if (!file.isDirectory()) {
+			return new File[] { file };
+		}
+		List<File> traceFiles = new ArrayList<File>();
+		File[] files = file.listFiles();
+		if (files != null) {
+			for (File traceFile : files) {
+				if (traceFile.isFile() && !traceFile.getName().endsWith(CACHE_EXTENSION)) {
+					traceFiles.add(traceFile);
+				}
+			}
+		}
+		File[] result = traceFiles.toArray(new File[traceFiles.size()]);
+		Arrays.sort(result, new Comparator<File>() {
+			@Override
+			public int compare(File file1, File file2) {
+				return file1.getName().compareTo(file2.getName());
+			}
+		});
+		return result;
+	}
+
+	/**
+	 * Parses the trace files, in blocks of lines parsed by up to {@link #parallelism} threads.
+	 * The blocks are read ahead by at most twice the parallelism, and the records
+	 * are appended in the order of the lines.
+	 *
+	 * @param files the trace files
+	 * @return the records of all the lines
+	 * @throws IOException if a file cannot be read or has an invalid line
+	 */
+	private TaskRecords parse(File[] files) throws IOException {
+		TaskRecords records = new TaskRecords();
+		ExecutorService executor = parallelism > 1 ? Executors.newFixedThreadPool(parallelism) : null;
+		ArrayDeque<Future<TaskRecords>> pending = new ArrayDeque<Future<TaskRecords>>();
+		try {
+			for (File traceFile : files) {
+				BufferedReader reader = openReader(traceFile);
+				try {
+					String[] block = new String[BLOCK_SIZE];
+					int size = 0;
+					String line;
+					while ((line = reader.readLine()) != null) {
+						block[size++] = line;
+						if (size == BLOCK_SIZE) {
+							parseBlock(block, size, executor, pending, records);
+							block = new String[BLOCK_SIZE];
+							size = 0;
+						}
+					}
+					parseBlock(block, size, executor, pending, records);
+				} finally {
+					reader.close();
+				}
+			}
+			while (!pending.isEmpty()) {
+				records.addAll(await(pending.poll()));
+			}
+		} finally {
+			if (executor != null) {
+				executor.shutdownNow();
+			}
+		}
+		return records;
+	}
+
+	/**
+	 * Parses a block of lines, in the calling thread or submitting it to an executor.
+	 *
+	 * @param block the lines
+	 * @param size the number of lines in the block
+	 * @param executor the executor, or null to parse the block in the calling thread
+	 * @param pending the blocks being parsed by the executor, in the order of the lines
+	 * @param records the records of the blocks already parsed
+	 * @throws IOException if a line is not valid
+	 */
+	private void parseBlock(final String[] block, final int size, ExecutorService executor,
+			ArrayDeque<Future<TaskRecords>> pending, TaskRecords records) throws IOException {
+		if (executor == null) {
+			records.addAll(parseBlock(block, size));
+			return;
+		}
+		pending.add(executor.submit(new Callable<TaskRecords>() {
+			@Override
+			public TaskRecords call() throws IOException {
+				return parseBlock(block, size);
+			}
+		}));
+		while (pending.size() > 2 * parallelism) {
+			records.addAll(await(pending.poll()));
+		}
+	}
+
+	/**
+	 * Parses a block of lines.
+	 *
+	 * @param block the lines
+	 * @param size the number of lines in the block
+	 * @return the records of the lines
+	 * @throws IOException if a line is not valid
+	 */
+	private TaskRecords parseBlock(String[] block, int size) throws IOException {
+		TaskRecords records = new TaskRecords();
+		for (int i = 0; i < size; i++) {
+			if (!block[i].isEmpty()) {
+				parseLine(block[i].split(",", -1), records);
+			}
+		}
+		return records;
+	}
+
+	/**
+	 * Waits for a block of lines to be parsed.
+	 *
+	 * @param future the parsing of the block
+	 * @return the records of the block
+	 * @throws IOException if a line is not valid
+	 */
+	private static TaskRecords await(Future<TaskRecords> future) throws IOException {
+		try {
+			return future.get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IOException("Interrupted while parsing the workload trace", e);
+		} catch (ExecutionException e) {
+			if (e.getCause() instanceof IOException) {
+				throw (IOException) e.getCause();
+			}
+			throw new IllegalStateException(e.getCause());
+		}
+	}
+
+	/**
+	 * Reads the tasks from a cache file.
+	 *
+	 * @param cacheFile the cache file
+	 * @param lastModified the last modification time of the trace
+	 * @param length the size of the trace
+	 * @return the tasks, or null if the cache file is not of this trace or is out of date
+	 * @throws IOException if the cache file cannot be read
+	 */
+	private TaskRecords readCache(File cacheFile, long lastModified, long length) throws IOException {
+		RandomAccessFile input = new RandomAccessFile(cacheFile, "r");
+		try {
+			FileChannel channel = input.getChannel();
+			ByteBuffer buffer = ByteBuffer.allocate(CACHE_BUFFER_SIZE);
+			buffer.limit(28);
+			if (!readFully(channel, buffer)) {
+				return null;
+			}
+			buffer.flip();
+			if (buffer.getInt() != MAGIC || buffer.getInt() != VERSION
+					|| buffer.getLong() != lastModified || buffer.getLong() != length) {
+				return null;
+			}
+			int readerLength = buffer.getInt();
+			if (readerLength < 0 || readerLength + 4 > Math.min(channel.size() - 28, buffer.capacity())) {
+				return null;
+			}
+			buffer.clear();
+			buffer.limit(readerLength + 4);
+			if (!readFully(channel, buffer)) {
+				return null;
+			}
+			buffer.flip();
+			byte[] reader = new byte[readerLength];
+			buffer.get(reader);
+			if (!getClass().getName().equals(new String(reader, StandardCharsets.UTF_8))) {
+				return null;
+			}
+			int size = buffer.getInt();
+			if (size < 0 || channel.size() - channel.position() != 32L * size) {
+				return null;
+			}
+			TaskRecords records = new TaskRecords(size);
+			records.size = size;
+			for (int i = 0; i < size;) {
+				int n = readChunk(channel, buffer, size - i, 8);
+				buffer.asLongBuffer().get(records.ids, i, n);
+				i += n;
+			}
+			for (int i = 0; i < size;) {
+				int n = readChunk(channel, buffer, size - i, 4);
+				buffer.asIntBuffer().get(records.taskIndexes, i, n);
+				i += n;
+			}
+			for (int i = 0; i < size;) {
+				int n = readChunk(channel, buffer, size - i, 8);
+				buffer.asDoubleBuffer().get(records.submitTimes, i, n);
+				i += n;
+			}
+			for (int i = 0; i < size;) {
+				int n = readChunk(channel, buffer, size - i, 8);
+				buffer.asDoubleBuffer().get(records.runTimes, i, n);
+				i += n;
+			}
+			for (int i = 0; i < size;) {
+				int n = readChunk(channel, buffer, size - i, 4);
+				buffer.asFloatBuffer().get(records.cpus, i, n);
+				i += n;
+			}
+			return records;
+		} finally {
+			input.close();
+		}
+	}
+
+	/**
+	 * Writes the {@link #tasks} into a cache file, under a temporary name
+	 * that is then renamed, so that other readers never see a partially written file.
+	 * The file is written through a buffer of fixed size, as it can be larger than 2 GB
+	 * for traces of tens of millions of tasks.
+	 *
+	 * @param cacheFile the cache file
+	 * @param lastModified the last modification time of the trace
+	 * @param length the size of the trace
+	 * @throws IOException if the cache file cannot be written
+	 */
+	private void writeCache(File cacheFile, long lastModified, long length) throws IOException {
+		byte[] reader = getClass().getName().getBytes(StandardCharsets.UTF_8);
+		int size = tasks.size;
+		ByteBuffer buffer = ByteBuffer.allocate(Math.max(CACHE_BUFFER_SIZE, 32 + reader.length));
+
+		File temporaryFile = File.createTempFile(cacheFile.getName(), ".tmp", cacheFile.getParentFile());
+		RandomAccessFile output = new RandomAccessFile(temporaryFile, "rw");
+		boolean written = false;
+		try {
+			FileChannel channel = output.getChannel();
+			buffer.putInt(MAGIC).putInt(VERSION).putLong(lastModified).putLong(length);
+			buffer.putInt(reader.length).put(reader);
+			buffer.putInt(size);
+			writeChunk(channel, buffer);
+			for (int i = 0; i < size;) {
+				int n = Math.min(size - i, buffer.capacity() / 8);
+				buffer.asLongBuffer().put(tasks.ids, i, n);
+				buffer.position(8 * n);
+				writeChunk(channel, buffer);
+				i += n;
+			}
+			for (int i = 0; i < size;) {
+				int n = Math.min(size - i, buffer.capacity() / 4);
+				buffer.asIntBuffer().put(tasks.taskIndexes, i, n);
+				buffer.position(4 * n);
+				writeChunk(channel, buffer);
+				i += n;
+			}
+			for (int i = 0; i < size;) {
+				int n = Math.min(size - i, buffer.capacity() / 8);
+				buffer.asDoubleBuffer().put(tasks.submitTimes, i, n);
+				buffer.position(8 * n);
+				writeChunk(channel, buffer);
+				i += n;
+			}
+			for (int i = 0; i < size;) {
+				int n = Math.min(size - i, buffer.capacity() / 8);
+				buffer.asDoubleBuffer().put(tasks.runTimes, i, n);
+				buffer.position(8 * n);
+				writeChunk(channel, buffer);
+				i += n;
+			}
+			for (int i = 0; i < size;) {
+				int n = Math.min(size - i, buffer.capacity() / 4);
+				buffer.asFloatBuffer().put(tasks.cpus, i, n);
+				buffer.position(4 * n);
+				writeChunk(channel, buffer);
+				i += n;
+			}
+			written = true;
+		} finally {
+			output.close();
+			if (!written) {
+				temporaryFile.delete();
+			}
+		}
+		if (!temporaryFile.renameTo(cacheFile)) {
+			cacheFile.delete();
+			if (!temporaryFile.renameTo(cacheFile)) {
+				temporaryFile.delete();
+				throw new IOException("Cannot rename " + temporaryFile);
+			}
+		}
+	}
+
+	/**
+	 * Writes the content of a buffer, from its beginning up to its position, and clears it.
+	 *
+	 * @param channel the channel to write to
+	 * @param buffer the buffer
+	 * @throws IOException if the channel cannot be written
+	 */
+	private static void writeChunk(FileChannel channel, ByteBuffer buffer) throws IOException {
+		buffer.flip();
+		while (buffer.hasRemaining()) {
+			channel.write(buffer);
+		}
+		buffer.clear();
+	}
+
+	/**
+	 * Reads into a buffer as many values of a column as fit, up to a given count.
+	 *
+	 * @param channel the channel to read from
+	 * @param buffer the buffer, which holds the values from its beginning afterwards
+	 * @param count the number of values left to read
+	 * @param bytesPerValue the size of the values
+	 * @return the number of values read
+	 * @throws IOException if the channel cannot be read or ends before the values
+	 */
+	private static int readChunk(FileChannel channel, ByteBuffer buffer, int count, int bytesPerValue)
+			throws IOException {
+		int n = Math.min(count, buffer.capacity() / bytesPerValue);
+		buffer.clear();
+		buffer.limit(n * bytesPerValue);
+		if (!readFully(channel, buffer)) {
+			throw new EOFException("Truncated workload cache");
+		}
+		buffer.flip();
+		return n;
+	}
+
+	/**
+	 * Reads from a channel until a buffer is full.
+	 *
+	 * @param channel the channel to read from
+	 * @param buffer the buffer, read up to its limit
+	 * @return false if the channel ended before
+	 * @throws IOException if the channel cannot be read
+	 */
+	private static boolean readFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+		while (buffer.hasRemaining()) {
+			if (channel.read(buffer) < 0) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Opens a text file, decompressing it if its name ends with {@code .gz}.
+	 *
+	 * @param file the file
+	 * @return the reader of the file
+	 * @throws IOException if the file cannot be opened
+	 */
+	private static BufferedReader openReader(File file) throws IOException {
+		InputStream input = new FileInputStream(file);
+		if (file.getName().endsWith(".gz")) {
+			input = new GZIPInputStream(input, 65536);
+		}
+		return new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8), 65536);
+	}
+
+	/**
+	 * Records parsed from a trace, kept as columns of primitive values.
+	 * Each record is a task, or an event of a task that {@link ClusterTraceReader#toTasks(TaskRecords)}
+	 * turns into a task.
+	 */
+	protected static final class TaskRecords {
+
+		/** The job IDs. */
+		long[] ids;
+
+		/** The task indexes within the jobs. */
+		int[] taskIndexes;
+
+		/** The submit or event times, in seconds. */
+		double[] submitTimes;
+
+		/** The run times, in seconds. */
+		double[] runTimes;
+
+		/** The requested CPUs. */
+		float[] cpus;
+
+		/** The event types, only kept until the records are turned into tasks. */
+		int[] events;
+
+		/** The number of records. */
+		int size;
+
+		/**
+		 * Creates empty records.
+		 */
+		public TaskRecords() {
+			this(64);
+		}
+
+		/**
+		 * Creates empty records with a given capacity.
+		 *
+		 * @param capacity the initial capacity
+		 */
+		TaskRecords(int capacity) {
+			ids = new long[capacity];
+			taskIndexes = new int[capacity];
+			submitTimes = new double[capacity];
+			runTimes = new double[capacity];
+			cpus = new float[capacity];
+		}
+
+		/**
+		 * Adds a task.
+		 *
+		 * @param id the job ID
+		 * @param taskIndex the task index within the job
+		 * @param submitTime the submit time, in seconds
+		 * @param runTime the run time, in seconds
+		 * @param cpu the requested CPUs
+		 */
+		public void add(long id, int taskIndex, double submitTime, double runTime, double cpu) {
+			add(id, taskIndex, submitTime, runTime, cpu, 0);
+		}
+
+		/**
+		 * Adds an event of a task.
+		 *
+		 * @param id the job ID
+		 * @param taskIndex the task index within the job
+		 * @param time the time of the event, in seconds
+		 * @param runTime the run time, in seconds, if known
+		 * @param cpu the requested CPUs
+		 * @param event the type of the event, as defined by the reader
+		 */
+		public void add(long id, int taskIndex, double time, double runTime, double cpu, int event) {
+			if (size == ids.length) {
+				grow(size + 1);
+			}
+			if (event != 0 && events == null) {
+				events = new int[ids.length];
+			}
+			ids[size] = id;
+			taskIndexes[size] = taskIndex;
+			submitTimes[size] = time;
+			runTimes[size] = runTime;
+			cpus[size] = (float) cpu;
+			if (events != null) {
+				events[size] = event;
+			}
+			size++;
+		}
+
+		/**
+		 * Gets the number of records.
+		 *
+		 * @return the size
+		 */
+		public int size() {
+			return size;
+		}
+
+		/**
+		 * Gets the job ID of a record.
+		 *
+		 * @param index the index of the record
+		 * @return the job ID
+		 */
+		public long getId(int index) {
+			return ids[index];
+		}
+
+		/**
+		 * Gets the task index of a record.
+		 *
+		 * @param index the index of the record
+		 * @return the task index within the job
+		 */
+		public int getTaskIndex(int index) {
+			return taskIndexes[index];
+		}
+
+		/**
+		 * Gets the submit or event time of a record.
+		 *
+		 * @param index the index of the record
+		 * @return the time, in seconds
+		 */
+		public double getTime(int index) {
+			return submitTimes[index];
+		}
+
+		/**
+		 * Gets the run time of a record.
+		 *
+		 * @param index the index of the record
+		 * @return the run time, in seconds
+		 */
+		public double getRunTime(int index) {
+			return runTimes[index];
+		}
+
+		/**
+		 * Gets the requested CPUs of a record.
+		 *
+		 * @param index the index of the record
+		 * @return the CPUs
+		 */
+		public double getCpu(int index) {
+			return cpus[index];
+		}
+
+		/**
+		 * Gets the event type of a record.
+		 *
+		 * @param index the index of the record
+		 * @return the event type, 0 for tasks
+		 */
+		public int getEvent(int index) {
+			return events == null ? 0 : events[index];
+		}
+
+		/**
+		 * Appends other records.
+		 *
+		 * @param other the records to append
+		 */
+		void addAll(TaskRecords other) {
+			if (size + other.size > ids.length) {
+				grow(size + other.size);
+			}
+			if (other.events != null && events == null) {
+				events = new int[ids.length];
+			}
+			System.arraycopy(other.ids, 0, ids, size, other.size);
+			System.arraycopy(other.taskIndexes, 0, taskIndexes, size, other.size);
+			System.arraycopy(other.submitTimes, 0, submitTimes, size, other.size);
+			System.arraycopy(other.runTimes, 0, runTimes, size, other.size);
+			System.arraycopy(other.cpus, 0, cpus, size, other.size);
+			if (other.events != null) {
+				System.arraycopy(other.events, 0, events, size, other.size);
+			}
+			size += other.size;
+		}
+
+		/**
+		 * Sorts the records by submit time, keeping the order of the records
+		 * with the same submit time, and drops the event types.
+		 */
+		void sortBySubmitTime() {
+			Integer[] order = new Integer[size];
+			for (int i = 0; i < size; i++) {
+				order[i] = i;
+			}
+			Arrays.sort(order, new Comparator<Integer>() {
+				@Override
+				public int compare(Integer index1, Integer index2) {
+					return Double.compare(submitTimes[index1], submitTimes[index2]);
+				}
+			});
+			long[] sortedIds = new long[size];
+			int[] sortedTaskIndexes = new int[size];
+			double[] sortedSubmitTimes = new double[size];
+			double[] sortedRunTimes = new double[size];
+			float[] sortedCpus = new float[size];
+			for (int i = 0; i < size; i++) {
+				sortedIds[i] = ids[order[i]];
+				sortedTaskIndexes[i] = taskIndexes[order[i]];
+				sortedSubmitTimes[i] = submitTimes[order[i]];
+				sortedRunTimes[i] = runTimes[order[i]];
+				sortedCpus[i] = cpus[order[i]];
+			}
+			ids = sortedIds;
+			taskIndexes = sortedTaskIndexes;
+			submitTimes = sortedSubmitTimes;
+			runTimes = sortedRunTimes;
+			cpus = sortedCpus;
+			events = null;
+		}
+
+		/**
+		 * Grows the columns.
+		 *
+		 * @param capacity the minimum capacity
+		 */
+		private void grow(int capacity) {
+			int length = Math.max(capacity, ids.length * 2);
+			ids = Arrays.copyOf(ids, length);
+			taskIndexes = Arrays.copyOf(taskIndexes, length);
+			submitTimes = Arrays.copyOf(submitTimes, length);
+			runTimes = Arrays.copyOf(runTimes, length);
+			cpus = Arrays.copyOf(cpus, length);
+			if (events != null) {
+				events = Arrays.copyOf(events, length);
+			}
+		}
+
+	}
+
+}
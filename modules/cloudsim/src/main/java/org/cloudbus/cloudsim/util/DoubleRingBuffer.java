@@ -0,0 +1,214 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.util;
+
+import java.util.AbstractList;
+import java.util.RandomAccess;
+
+/**
+ * A bounded history of double values, kept in a ring buffer of primitive values.
+ * The most recent value is at index 0, thus {@link #addFirst(double) adding} a value
+ * shifts the older ones by one position and drops the oldest one when the buffer is full,
+ * in constant time. The sum and the sum of squares of the values are kept
+ * as they are added and dropped, so that their mean and variance take constant time too.
+ *
+ * It is also a read-only {@link java.util.List} of the values, most recent first,
+ * so it can replace a {@code LinkedList<Double>} history updated with {@code add(0, value)}.
+ *
+ * @since CloudSim Toolkit 4.0
+ */
+public class DoubleRingBuffer extends AbstractList<Double> implements RandomAccess {
+
+	/** The values, the most recent at {@link #head}. */
+	private final double[] values;
+
+	/** The position of the most recent value. */
+	private int head;
+
+	/** The number of values. */
+	private int size;
+
+	/** The number of values added since the buffer was created. */
+	private long addCount;
+
+	/** The sum of the values. */
+	private double sum;
+
+	/** The sum of the squares of the values. */
+	private double sumOfSquares;
+
+	/**
+	 * The number of values dropped since the sums were last computed from scratch,
+	 * which is done once per capacity to bound the rounding errors of
+	 * subtracting the dropped values.
+	 */
+	private int dropped;
+
+	/**
+	 * Creates an empty ring buffer.
+	 *
+	 * @param capacity the maximum number of values
+	 * @pre capacity > 0
+	 */
+	public DoubleRingBuffer(int capacity) {
+		if (capacity <= 0) {
+			throw new IllegalArgumentException("The capacity must be > 0.");
+		}
+		values = new double[capacity];
+	}
+
+	/**
+	 * Adds a value as the most recent one, dropping the oldest one if the buffer is full.
+	 *
+	 * @param value the value
+	 */
+	public void addFirst(double value) {
+		addCount++;
+		head = head == 0 ? values.length - 1 : head - 1;
+		if (size == values.length) {
+			double oldest = values[head];
+			sum -= oldest;
+			sumOfSquares -= oldest * oldest;
+			values[head] = value;
+			if (++dropped == values.length) {
+				recomputeSums();
+				return;
+			}
+		} else {
+			values[head] = value;
+			size++;
+		}
+		sum += value;
+		sumOfSquares += value * value;
+	}
+
+	/**
+	 * Gets a value.
+	 *
+	 * @param index the index of the value, 0 being the most recent one
+	 * @return the value
+	 */
+	public double getDouble(int index) {
+		if (index < 0 || index >= size) {
+			throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+		}
+		int position = head + index;
+		return values[position < values.length ? position : position - values.length];
+	}
+
+	@Override
+	public Double get(int index) {
+		return getDouble(index);
+	}
+
+	/**
+	 * Adds a value as the most recent one, the only position where values can be added.
+	 *
+	 * @param index the position of the value, which must be 0
+	 * @param value the value
+	 */
+	@Override
+	public void add(int index, Double value) {
+		if (index != 0) {
+			throw new UnsupportedOperationException("Values can only be added at index 0.");
+		}
+		addFirst(value);
+	}
+
+	@Override
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Gets the number of values added since the buffer was created, including those already
+	 * dropped or cleared. It tells how many values were added since another moment.
+	 *
+	 * @return the number of added values
+	 */
+	public long getAddCount() {
+		return addCount;
+	}
+
+	/**
+	 * Gets the maximum number of values.
+	 *
+	 * @return the capacity
+	 */
+	public int getCapacity() {
+		return values.length;
+	}
+
+	@Override
+	public void clear() {
+		head = 0;
+		size = 0;
+		sum = 0;
+		sumOfSquares = 0;
+		dropped = 0;
+	}
+
+	/**
+	 * Gets the sum of the values.
+	 *
+	 * @return the sum
+	 */
+	public double getSum() {
+		return sum;
+	}
+
+	/**
+	 * Gets the mean of the values.
+	 *
+	 * @return the mean, or 0 if there are no values
+	 */
+	public double getMean() {
+		return size == 0 ? 0 : sum / size;
+	}
+
+	/**
+	 * Gets the population variance of the values.
+	 *
+	 * @return the variance, or 0 if there are no values
+	 */
+	public double getVariance() {
+		if (size == 0) {
+			return 0;
+		}
+		double mean = sum / size;
+		return Math.max(0, sumOfSquares / size - mean * mean);
+	}
+
+	/**
+	 * Copies the values to an array.
+	 *
+	 * @return the values, the most recent first
+	 */
+	public double[] toDoubleArray() {
+		double[] array = new double[size];
+		int first = Math.min(size, values.length - head);
+		System.arraycopy(values, head, array, 0, first);
+		System.arraycopy(values, 0, array, first, size - first);
+		return array;
+	}
+
+	/**
+	 * Computes the sums from the values.
+	 */
+	private void recomputeSums() {
+		sum = 0;
+		sumOfSquares = 0;
+		for (int i = 0; i < size; i++) {
+			sum += values[i];
+			sumOfSquares += values[i] * values[i];
+		}
+		dropped = 0;
+	}
+
+}
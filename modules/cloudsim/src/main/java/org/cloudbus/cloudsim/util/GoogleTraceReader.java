@@ -0,0 +1,232 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.util;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * Reads the tasks of the <i>task_events</i> table of the
+ * <a href="https://github.com/google/cluster-data">Google cluster-usage traces</a>
+ * (2011 format). The submit time of a task is the time of its first SUBMIT event, and its run time is
+ * the time between its last SCHEDULE event and the FINISH, FAIL, KILL, EVICT or LOST event that
+ * ends that execution. The tasks that never end an execution are ignored.
+ *
+ * The CPU request of the trace is normalized to the capacity of the largest machine,
+ * thus the number of PEs of a Cloudlet is that request times the PEs of such a machine,
+ * rounded up.
+ *
+ * @since CloudSim Toolkit 4.0
+ */
+public class GoogleTraceReader extends ClusterTraceReader {
+
+	/** The column of the timestamp, in microseconds. */
+	private static final int TIMESTAMP_COLUMN = 0;
+
+	/** The column of the job ID. */
+	private static final int JOB_ID_COLUMN = 2;
+
+	/** The column of the task index. */
+	private static final int TASK_INDEX_COLUMN = 3;
+
+	/** The column of the event type. */
+	private static final int EVENT_TYPE_COLUMN = 5;
+
+	/** The column of the normalized CPU request. */
+	private static final int CPU_REQUEST_COLUMN = 9;
+
+	/** The SUBMIT event of the trace. */
+	private static final int SUBMIT = 0;
+
+	/** The SCHEDULE event of the trace. */
+	private static final int SCHEDULE = 1;
+
+	/** The LOST event of the trace, the last of those that end an execution. */
+	private static final int LOST = 6;
+
+	/** The record of a SUBMIT event. */
+	private static final int SUBMIT_RECORD = 1;
+
+	/** The record of a SCHEDULE event. */
+	private static final int SCHEDULE_RECORD = 2;
+
+	/** The record of an event that ends an execution. */
+	private static final int END_RECORD = 3;
+
+	/** The PEs of the largest machine. */
+	private final int machinePes;
+
+	/**
+	 * Creates a new reader of a Google trace, where each task gets one PE.
+	 *
+	 * @param fileName a task_events CSV file, or a folder of them, in ASCII text or gz
+	 * @param rating the PE rating (in MIPS) of the Cloudlets
+	 * @throws FileNotFoundException if the trace doesn't exist
+	 * @pre fileName != null
+	 * @pre rating > 0
+	 * @post $none
+	 */
+	public GoogleTraceReader(String fileName, int rating) throws FileNotFoundException {
+		this(fileName, rating, 1);
+	}
+
+	/**
+	 * Creates a new reader of a Google trace.
+	 *
+	 * @param fileName a task_events CSV file, or a folder of them, in ASCII text or gz
+	 * @param rating the PE rating (in MIPS) of the Cloudlets
+	 * @param machinePes the PEs of the largest machine, to which the CPU requests are normalized
+	 * @throws FileNotFoundException if the trace doesn't exist
+	 * @pre fileName != null
+	 * @pre rating > 0
+	 * @pre machinePes > 0
+	 * @post $none
+	 */
+	public GoogleTraceReader(String fileName, int rating, int machinePes) throws FileNotFoundException {
+		super(fileName, rating);
+		if (machinePes <= 0) {
+			throw new IllegalArgumentException("The PEs of a machine must be > 0.");
+		}
+		this.machinePes = machinePes;
+	}
+
+	/**
+	 * Gets the PEs of the largest machine.
+	 *
+	 * @return the PEs to which the CPU requests are normalized
+	 */
+	public int getMachinePes() {
+		return machinePes;
+	}
+
+	@Override
+	protected void parseLine(String[] fields, TaskRecords records) throws IOException {
+		if (fields.length <= EVENT_TYPE_COLUMN) {
+			throw new IOException("Invalid task event " + Arrays.toString(fields));
+		}
+		int record;
+		try {
+			int event = Integer.parseInt(fields[EVENT_TYPE_COLUMN]);
+			if (event == SUBMIT) {
+				record = SUBMIT_RECORD;
+			} else if (event == SCHEDULE) {
+				record = SCHEDULE_RECORD;
+			} else if (event <= LOST) {
+				record = END_RECORD;
+			} else {
+				return; // an update of a task
+			}
+			double cpu = fields.length > CPU_REQUEST_COLUMN && !fields[CPU_REQUEST_COLUMN].isEmpty()
+					? Double.parseDouble(fields[CPU_REQUEST_COLUMN]) : 0;
+			records.add(Long.parseLong(fields[JOB_ID_COLUMN]),
+					Integer.parseInt(fields[TASK_INDEX_COLUMN]),
+					Long.parseLong(fields[TIMESTAMP_COLUMN]) / 1000000.0, 0, cpu, record);
+		} catch (NumberFormatException e) {
+			throw new IOException("Invalid task event " + Arrays.toString(fields), e);
+		}
+	}
+
+	/**
+	 * Pairs the events of each task, which are expected in time order.
+	 */
+	@Override
+	protected TaskRecords toTasks(TaskRecords records) {
+		LongObjectHashMap<JobEvents> jobs = new LongObjectHashMap<JobEvents>();
+		for (int i = 0; i < records.size(); i++) {
+			JobEvents job = jobs.get(records.getId(i));
+			if (job == null) {
+				job = new JobEvents();
+				jobs.put(records.getId(i), job);
+			}
+			job.add(records.getTaskIndex(i), records.getTime(i), records.getCpu(i), records.getEvent(i));
+		}
+
+		TaskRecords tasks = new TaskRecords();
+		for (int i = 0; i < jobs.size(); i++) {
+			JobEvents job = jobs.valueAt(i);
+			for (int task = 0; task < job.runTimes.length; task++) {
+				if (!Double.isNaN(job.runTimes[task])) {
+					double submitTime = Double.isNaN(job.submitTimes[task]) ? job.startTimes[task] : job.submitTimes[task];
+					tasks.add(jobs.keyAt(i), task, submitTime, job.runTimes[task], job.cpus[task]);
+				}
+			}
+		}
+		return tasks;
+	}
+
+	@Override
+	protected int getPes(double cpus) {
+		return super.getPes(cpus * machinePes);
+	}
+
+	/**
+	 * The events of the tasks of a job, by task index.
+	 */
+	private static final class JobEvents {
+
+		/** The time of the first SUBMIT event, NaN if none. */
+		private double[] submitTimes = new double[0];
+
+		/** The time of the last SCHEDULE event not yet ended, NaN if none. */
+		private double[] startTimes = new double[0];
+
+		/** The time of the last execution, NaN if none. */
+		private double[] runTimes = new double[0];
+
+		/** The last CPU request. */
+		private double[] cpus = new double[0];
+
+		/**
+		 * Adds an event of a task.
+		 *
+		 * @param task the task index
+		 * @param time the time of the event
+		 * @param cpu the CPU request of the event
+		 * @param record the type of the event record
+		 */
+		void add(int task, double time, double cpu, int record) {
+			if (task >= runTimes.length) {
+				int length = Math.max(task + 1, runTimes.length * 2);
+				submitTimes = grow(submitTimes, length);
+				startTimes = grow(startTimes, length);
+				runTimes = grow(runTimes, length);
+				cpus = Arrays.copyOf(cpus, length);
+			}
+			if (cpu > 0) {
+				cpus[task] = cpu;
+			}
+			if (record == SUBMIT_RECORD) {
+				if (Double.isNaN(submitTimes[task])) {
+					submitTimes[task] = time;
+				}
+			} else if (record == SCHEDULE_RECORD) {
+				startTimes[task] = time;
+			} else if (!Double.isNaN(startTimes[task])) {
+				runTimes[task] = time - startTimes[task];
+				startTimes[task] = Double.NaN;
+			}
+		}
+
+		/**
+		 * Grows an array of times, filling the new positions with NaN.
+		 *
+		 * @param times the times
+		 * @param length the new length
+		 * @return the new array
+		 */
+		private static double[] grow(double[] times, int length) {
+			double[] result = Arrays.copyOf(times, length);
+			Arrays.fill(result, times.length, length, Double.NaN);
+			return result;
+		}
+
+	}
+
+}
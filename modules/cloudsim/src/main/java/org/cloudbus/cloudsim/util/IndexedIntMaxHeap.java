@@ -0,0 +1,229 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.util;
+
+/**
+ * A binary max-heap of the elements 0 to capacity - 1, each with an int key that can be
+ * changed while the element is in the heap. The top of the heap is the element with the greatest
+ * key, the lowest element among those with the same key, which is the element a linear scan
+ * keeping the first greatest key would find. Adding, removing and changing the key of an element
+ * take O(log n) time; getting the top takes constant time.
+ *
+ * @since CloudSim Toolkit 4.0
+ */
+public class IndexedIntMaxHeap {
+
+	/** The key of each element, whether it is in the heap or not. */
+	private final int[] keys;
+
+	/** The elements in the heap, in heap order. */
+	private final int[] heap;
+
+	/** The position of each element in {@link #heap}, -1 if it is not in the heap. */
+	private final int[] positions;
+
+	/** The number of elements in the heap. */
+	private int size;
+
+	/**
+	 * Creates an empty heap.
+	 *
+	 * @param capacity the number of elements, which are 0 to capacity - 1
+	 * @pre capacity >= 0
+	 */
+	public IndexedIntMaxHeap(int capacity) {
+		if (capacity < 0) {
+			throw new IllegalArgumentException("The capacity must be >= 0.");
+		}
+		keys = new int[capacity];
+		heap = new int[capacity];
+		positions = new int[capacity];
+		for (int i = 0; i < capacity; i++) {
+			positions[i] = -1;
+		}
+	}
+
+	/**
+	 * Adds an element to the heap, or changes its key if it is already in the heap.
+	 *
+	 * @param element the element
+	 * @param key the key of the element
+	 */
+	public void add(int element, int key) {
+		if (positions[element] != -1) {
+			setKey(element, key);
+			return;
+		}
+		keys[element] = key;
+		heap[size] = element;
+		positions[element] = size;
+		siftUp(size++);
+	}
+
+	/**
+	 * Removes an element from the heap.
+	 *
+	 * @param element the element
+	 * @return true if the element was in the heap
+	 */
+	public boolean remove(int element) {
+		int position = positions[element];
+		if (position == -1) {
+			return false;
+		}
+		positions[element] = -1;
+		size--;
+		if (position < size) {
+			int last = heap[size];
+			heap[position] = last;
+			positions[last] = position;
+			siftDown(position);
+			siftUp(positions[last]);
+		}
+		return true;
+	}
+
+	/**
+	 * Changes the key of an element, moving it in the heap if it is in the heap.
+	 *
+	 * @param element the element
+	 * @param key the new key of the element
+	 */
+	public void setKey(int element, int key) {
+		int previous = keys[element];
+		keys[element] = key;
+		int position = positions[element];
+		if (position == -1 || key == previous) {
+			return;
+		} else if (key > previous) {
+			siftUp(position);
+		} else {
+			siftDown(position);
+		}
+	}
+
+	/**
+	 * Gets the key of an element.
+	 *
+	 * @param element the element
+	 * @return the key of the element
+	 */
+	public int getKey(int element) {
+		return keys[element];
+	}
+
+	/**
+	 * Gets the element with the greatest key, the lowest one on ties.
+	 *
+	 * @return the element, or -1 if the heap is empty
+	 */
+	public int peek() {
+		return size == 0 ? -1 : heap[0];
+	}
+
+	/**
+	 * Removes the element with the greatest key, the lowest one on ties.
+	 *
+	 * @return the element, or -1 if the heap is empty
+	 */
+	public int poll() {
+		int top = peek();
+		if (top != -1) {
+			remove(top);
+		}
+		return top;
+	}
+
+	/**
+	 * Checks if an element is in the heap.
+	 *
+	 * @param element the element
+	 * @return true if the element is in the heap
+	 */
+	public boolean contains(int element) {
+		return positions[element] != -1;
+	}
+
+	/**
+	 * Gets the number of elements in the heap.
+	 *
+	 * @return the size
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Checks if the heap is empty.
+	 *
+	 * @return true if there are no elements in the heap
+	 */
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	/**
+	 * Checks if an element goes above another one in the heap.
+	 *
+	 * @param a an element
+	 * @param b another element
+	 * @return true if a has a greater key than b, or the same key and is lower than b
+	 */
+	private boolean isAbove(int a, int b) {
+		return keys[a] > keys[b] || keys[a] == keys[b] && a < b;
+	}
+
+	/**
+	 * Moves the element at a position up until its parent is above it.
+	 *
+	 * @param position the position
+	 */
+	private void siftUp(int position) {
+		int element = heap[position];
+		while (position > 0) {
+			int parentPosition = (position - 1) >>> 1;
+			int parent = heap[parentPosition];
+			if (!isAbove(element, parent)) {
+				break;
+			}
+			heap[position] = parent;
+			positions[parent] = position;
+			position = parentPosition;
+		}
+		heap[position] = element;
+		positions[element] = position;
+	}
+
+	/**
+	 * Moves the element at a position down until it is above its children.
+	 *
+	 * @param position the position
+	 */
+	private void siftDown(int position) {
+		int element = heap[position];
+		while (true) {
+			int child = 2 * position + 1;
+			if (child >= size) {
+				break;
+			}
+			if (child + 1 < size && isAbove(heap[child + 1], heap[child])) {
+				child++;
+			}
+			if (!isAbove(heap[child], element)) {
+				break;
+			}
+			heap[position] = heap[child];
+			positions[heap[child]] = position;
+			position = child;
+		}
+		heap[position] = element;
+		positions[element] = position;
+	}
+
+}
@@ -0,0 +1,72 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.util;
+
+/**
+ * A set of primitive long values, backed by an open-addressing hash table.
+ * It offers constant-time membership checks for sets of VM keys,
+ * such as the VMs migrating in or out of a host.
+ * 
+ * The elements can be iterated by position, from 0 to {@link #size()} - 1,
+ * using {@link #keyAt(int)}.
+ * 
+ * @since CloudSim Toolkit 4.0
+ */
+public class LongHashSet extends AbstractLongHashTable {
+
+	/**
+	 * Instantiates a new empty set.
+	 */
+	public LongHashSet() {
+		super(DEFAULT_CAPACITY);
+	}
+
+	/**
+	 * Checks whether an element is in the set.
+	 * 
+	 * @param key the element
+	 * @return true, if the set contains the element
+	 */
+	public boolean contains(long key) {
+		return containsKey(key);
+	}
+
+	/**
+	 * Adds an element to the set.
+	 * 
+	 * @param key the element
+	 * @return true, if the element was not already in the set
+	 */
+	public boolean add(long key) {
+		return insert(key) < 0;
+	}
+
+	/**
+	 * Removes an element from the set.
+	 * 
+	 * @param key the element
+	 * @return true, if the element was in the set
+	 */
+	public boolean remove(long key) {
+		return delete(key) >= 0;
+	}
+
+	@Override
+	protected void growValues(int capacity) {
+	}
+
+	@Override
+	protected void moveValue(int from, int to) {
+	}
+
+	@Override
+	protected void clearValues(int from, int to) {
+	}
+
+}
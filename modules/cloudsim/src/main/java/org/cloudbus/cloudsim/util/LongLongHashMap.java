@@ -0,0 +1,111 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.util;
+
+import java.util.Arrays;
+
+/**
+ * A map from primitive long keys to primitive long values, backed by an open-addressing
+ * hash table. It is used to store amounts of resources (such as RAM, BW or number of PEs)
+ * allocated to each VM, indexed by the VM key, without boxing.
+ * 
+ * The entries can be iterated by position, from 0 to {@link #size()} - 1,
+ * using {@link #keyAt(int)} and {@link #valueAt(int)}.
+ * 
+ * @since CloudSim Toolkit 4.0
+ */
+public class LongLongHashMap extends AbstractLongHashTable {
+
+	/** The values of the map, at the same positions of their keys. */
+	private long[] values;
+
+	/**
+	 * Instantiates a new empty map.
+	 */
+	public LongLongHashMap() {
+		this(DEFAULT_CAPACITY);
+	}
+
+	/**
+	 * Instantiates a new empty map.
+	 * 
+	 * @param capacity the expected number of entries
+	 */
+	public LongLongHashMap(int capacity) {
+		super(capacity);
+		values = new long[Math.max(capacity, 2)];
+	}
+
+	/**
+	 * Gets the value associated to a key.
+	 * 
+	 * @param key the key
+	 * @param defaultValue the value to return if the key is not in the map
+	 * @return the value associated to the key, or the default value
+	 */
+	public long get(long key, long defaultValue) {
+		int index = indexOf(key);
+		return index < 0 ? defaultValue : values[index];
+	}
+
+	/**
+	 * Associates a value to a key.
+	 * 
+	 * @param key the key
+	 * @param value the value
+	 */
+	public void put(long key, long value) {
+		int index = insert(key);
+		values[index < 0 ? -index - 1 : index] = value;
+	}
+
+	/**
+	 * Removes a key from the map.
+	 * 
+	 * @param key the key
+	 * @param defaultValue the value to return if the key is not in the map
+	 * @return the value that was associated to the key, or the default value
+	 */
+	public long remove(long key, long defaultValue) {
+		int index = indexOf(key);
+		if (index < 0) {
+			return defaultValue;
+		}
+		long value = values[index];
+		delete(key);
+		return value;
+	}
+
+	/**
+	 * Gets the value stored at a given position of the map.
+	 * 
+	 * @param index the position, between 0 and {@link #size()} - 1
+	 * @return the value at that position
+	 */
+	public long valueAt(int index) {
+		keyAt(index);
+		return values[index];
+	}
+
+	@Override
+	protected void growValues(int capacity) {
+		values = Arrays.copyOf(values, capacity);
+	}
+
+	@Override
+	protected void moveValue(int from, int to) {
+		values[to] = values[from];
+	}
+
+	@Override
+	protected void clearValues(int from, int to) {
+		Arrays.fill(values, from, to, 0);
+	}
+
+}
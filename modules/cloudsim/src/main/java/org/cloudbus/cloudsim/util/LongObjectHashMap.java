@@ -0,0 +1,116 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.util;
+
+import java.util.Arrays;
+
+/**
+ * A map from primitive long keys to objects, backed by an open-addressing hash table.
+ * It is used instead of a {@code Map<String, V>} indexed by VM UIDs,
+ * so that the tables of schedulers and provisioners neither hash Strings nor box keys.
+ * 
+ * The entries can be iterated by position, from 0 to {@link #size()} - 1,
+ * using {@link #keyAt(int)} and {@link #valueAt(int)}.
+ * 
+ * @param <V> the type of the values
+ * @since CloudSim Toolkit 4.0
+ */
+public class LongObjectHashMap<V> extends AbstractLongHashTable {
+
+	/** The values of the map, at the same positions of their keys. */
+	private Object[] values;
+
+	/**
+	 * Instantiates a new empty map.
+	 */
+	public LongObjectHashMap() {
+		this(DEFAULT_CAPACITY);
+	}
+
+	/**
+	 * Instantiates a new empty map.
+	 * 
+	 * @param capacity the expected number of entries
+	 */
+	public LongObjectHashMap(int capacity) {
+		super(capacity);
+		values = new Object[Math.max(capacity, 2)];
+	}
+
+	/**
+	 * Gets the value associated to a key.
+	 * 
+	 * @param key the key
+	 * @return the value or null if the key is not in the map
+	 */
+	@SuppressWarnings("unchecked")
+	public V get(long key) {
+		int index = indexOf(key);
+		return index < 0 ? null : (V) values[index];
+	}
+
+	/**
+	 * Associates a value to a key.
+	 * 
+	 * @param key the key
+	 * @param value the value
+	 * @return the previous value associated to the key, or null if there was none
+	 */
+	@SuppressWarnings("unchecked")
+	public V put(long key, V value) {
+		int index = insert(key);
+		if (index < 0) {
+			values[-index - 1] = value;
+			return null;
+		}
+		V previous = (V) values[index];
+		values[index] = value;
+		return previous;
+	}
+
+	/**
+	 * Removes a key from the map.
+	 * 
+	 * @param key the key
+	 * @return the value that was associated to the key, or null if there was none
+	 */
+	public V remove(long key) {
+		V value = get(key);
+		delete(key);
+		return value;
+	}
+
+	/**
+	 * Gets the value stored at a given position of the map.
+	 * 
+	 * @param index the position, between 0 and {@link #size()} - 1
+	 * @return the value at that position
+	 */
+	@SuppressWarnings("unchecked")
+	public V valueAt(int index) {
+		keyAt(index);
+		return (V) values[index];
+	}
+
+	@Override
+	protected void growValues(int capacity) {
+		values = Arrays.copyOf(values, capacity);
+	}
+
+	@Override
+	protected void moveValue(int from, int to) {
+		values[to] = values[from];
+	}
+
+	@Override
+	protected void clearValues(int from, int to) {
+		Arrays.fill(values, from, to, null);
+	}
+
+}
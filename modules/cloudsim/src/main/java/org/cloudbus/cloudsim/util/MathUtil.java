@@ -8,6 +8,7 @@
 
 package org.cloudbus.cloudsim.util;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 
@@ -54,6 +55,23 @@ public class MathUtil {
 		return array;
 	}
 
+	/**
+	 * Converts an array to a List.
+	 *
+	 * @param array the array of numbers
+	 * @return a new list with the numbers of the array, or null if the array is null
+	 */
+	public static List<Double> arrayToList(final double[] array) {
+		if (array == null) {
+			return null;
+		}
+		List<Double> list = new ArrayList<Double>(array.length);
+		for (double value : array) {
+			list.add(value);
+		}
+		return list;
+	}
+
 	/**
 	 * Gets the median from a list of numbers.
 	 * 
@@ -379,4 +397,4 @@ public class MathUtil {
 		return result;
 	}
 
-}
\ No newline at end of file
+}
\ No newline at end of file
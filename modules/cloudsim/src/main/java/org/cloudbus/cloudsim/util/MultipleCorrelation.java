@@ -0,0 +1,179 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.util;
+
+import org.apache.commons.math3.linear.Array2DRowRealMatrix;
+
+/**
+ * Computes how well each of a set of series is explained by all the others, as the
+ * coefficient of determination (R²) of the ordinary least squares regression, with intercept,
+ * of each series on the other ones. It is used by the Maximum Correlation selection policies.
+ *
+ * Instead of fitting one regression per series, the covariance matrix of the series is computed
+ * and inverted once: the R² of the series i is {@code 1 - 1 / (S[i][i] * inverse(S)[i][i])},
+ * the diagonal of the inverse being the reciprocal of the Schur complement of S[i][i], that is
+ * the residual sum of squares of the series i on the others. It takes O(n²·m + n³) time for
+ * n series of m values, instead of O(n²·m·n) for the n regressions.
+ * When the covariance matrix is singular, the regressions are fitted one by one as they were before.
+ *
+ * The buffers are kept from one computation to the next, so an instance must not be
+ * used by several threads at the same time.
+ *
+ * @since CloudSim Toolkit 4.0
+ */
+public class MultipleCorrelation {
+
+	/**
+	 * The pivot of the inversion below which the covariance matrix is taken as singular,
+	 * relative to the variance of the series.
+	 */
+	private static final double SINGULARITY_THRESHOLD = 1e-12;
+
+	/** The series minus their means, one after the other. */
+	private double[] centered = new double[0];
+
+	/** The covariance matrix of the series, then its inverse, by rows. */
+	private double[] matrix = new double[0];
+
+	/** The diagonal of the covariance matrix. */
+	private double[] variances = new double[0];
+
+	/**
+	 * Computes the coefficient of determination of the regression of each series on the other ones,
+	 * as {@link MathUtil#createLinearRegression(double[][], double[])} would.
+	 *
+	 * @param data the series, each row being a series of the same number of values
+	 * @return the coefficient of determination of each series
+	 * @throws IllegalArgumentException if there are fewer than 2 series or fewer values than series,
+	 *             as the degrees of freedom of the regressions must be greater than zero, or if
+	 *             a regression is singular
+	 */
+	public double[] getCoefficientsOfDetermination(final double[][] data) {
+		int n = data.length;
+		int m = n == 0 ? 0 : data[0].length;
+		if (n < 2 || m < n) {
+			throw new IllegalArgumentException("There are " + m + " values for " + n
+					+ " series, the regressions need at least 2 series and as many values as series.");
+		}
+		ensureCapacity(n, m);
+
+		for (int i = 0; i < n; i++) {
+			double[] series = data[i];
+			double mean = 0;
+			for (int t = 0; t < m; t++) {
+				mean += series[t];
+			}
+			mean /= m;
+			int offset = i * m;
+			for (int t = 0; t < m; t++) {
+				centered[offset + t] = series[t] - mean;
+			}
+		}
+		for (int i = 0; i < n; i++) {
+			for (int j = 0; j <= i; j++) {
+				double covariance = 0;
+				int offsetI = i * m;
+				int offsetJ = j * m;
+				for (int t = 0; t < m; t++) {
+					covariance += centered[offsetI + t] * centered[offsetJ + t];
+				}
+				matrix[i * n + j] = covariance;
+				matrix[j * n + i] = covariance;
+			}
+			variances[i] = matrix[i * n + i];
+		}
+
+		if (!invert(n)) {
+			return getCoefficientsOfDeterminationByRegression(data);
+		}
+		double[] coefficients = new double[n];
+		for (int i = 0; i < n; i++) {
+			coefficients[i] = 1 - 1 / (variances[i] * matrix[i * n + i]);
+		}
+		return coefficients;
+	}
+
+	/**
+	 * Inverts the covariance matrix in place by Gauss-Jordan elimination, which needs
+	 * no pivoting since the matrix is symmetric positive semi-definite. Each pivot is the
+	 * residual sum of squares of a series on the previous ones.
+	 *
+	 * @param n the number of series
+	 * @return true if the matrix was inverted, false if it is singular
+	 */
+	private boolean invert(int n) {
+		for (int k = 0; k < n; k++) {
+			int rowK = k * n;
+			double pivot = matrix[rowK + k];
+			if (!(pivot > SINGULARITY_THRESHOLD * variances[k])) {
+				return false;
+			}
+			matrix[rowK + k] = 1;
+			for (int j = 0; j < n; j++) {
+				matrix[rowK + j] /= pivot;
+			}
+			for (int i = 0; i < n; i++) {
+				if (i == k) {
+					continue;
+				}
+				int rowI = i * n;
+				double factor = matrix[rowI + k];
+				if (factor == 0) {
+					continue;
+				}
+				matrix[rowI + k] = 0;
+				for (int j = 0; j < n; j++) {
+					matrix[rowI + j] -= factor * matrix[rowK + j];
+				}
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Computes the coefficient of determination of each series by fitting its regression
+	 * on the other ones.
+	 *
+	 * @param data the series
+	 * @return the coefficient of determination of each series
+	 */
+	private double[] getCoefficientsOfDeterminationByRegression(final double[][] data) {
+		int n = data.length;
+		double[] coefficients = new double[n];
+		double[][] x = new double[n - 1][];
+		for (int i = 0; i < n; i++) {
+			int k = 0;
+			for (int j = 0; j < n; j++) {
+				if (j != i) {
+					x[k++] = data[j];
+				}
+			}
+			double[][] xT = new Array2DRowRealMatrix(x, false).transpose().getData();
+			coefficients[i] = MathUtil.createLinearRegression(xT, data[i]).calculateRSquared();
+		}
+		return coefficients;
+	}
+
+	/**
+	 * Grows the buffers if they are too small for a computation.
+	 *
+	 * @param n the number of series
+	 * @param m the number of values of each series
+	 */
+	private void ensureCapacity(int n, int m) {
+		if (centered.length < n * m) {
+			centered = new double[n * m];
+		}
+		if (matrix.length < n * n) {
+			matrix = new double[n * n];
+			variances = new double[n];
+		}
+	}
+
+}
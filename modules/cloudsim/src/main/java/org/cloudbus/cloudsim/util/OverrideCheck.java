@@ -0,0 +1,74 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.util;
+
+/**
+ * Checks if the class of an object overrides a method of a given base class.
+ * The schedulers, VMs and containers use it to keep their {@code List<Double>} overloads
+ * overridable: when a subclass overrides the list overload, the primitive array overload
+ * that CloudSim calls forwards to it, and otherwise both overloads do the work of the base class.
+ * The answer is computed once per class.
+ *
+ * @since CloudSim Toolkit 4.0
+ */
+public final class OverrideCheck {
+
+	/** The class whose method is checked. */
+	private final Class<?> base;
+
+	/** The name of the method. */
+	private final String name;
+
+	/** The parameter types of the method. */
+	private final Class<?>[] parameterTypes;
+
+	/** Tells, for each class, if the method is declared below the base class. */
+	private final ClassValue<Boolean> overridden = new ClassValue<Boolean>() {
+
+		@Override
+		protected Boolean computeValue(Class<?> type) {
+			for (Class<?> declaring = type; declaring != null && declaring != base; declaring = declaring
+					.getSuperclass()) {
+				try {
+					declaring.getDeclaredMethod(name, parameterTypes);
+					return Boolean.TRUE;
+				} catch (NoSuchMethodException e) {
+					// not declared by this class, look at its superclass
+				}
+			}
+			return Boolean.FALSE;
+		}
+
+	};
+
+	/**
+	 * Instantiates a new override check.
+	 *
+	 * @param base the class whose method is checked
+	 * @param name the name of the method
+	 * @param parameterTypes the parameter types of the method
+	 */
+	public OverrideCheck(Class<?> base, String name, Class<?>... parameterTypes) {
+		this.base = base;
+		this.name = name;
+		this.parameterTypes = parameterTypes.clone();
+	}
+
+	/**
+	 * Checks if the class of an object, or a superclass of it below the base class,
+	 * declares the method again.
+	 *
+	 * @param object an instance of the base class
+	 * @return true, if the method is overridden
+	 */
+	public boolean isOverriddenBy(Object object) {
+		return overridden.get(object.getClass());
+	}
+
+}
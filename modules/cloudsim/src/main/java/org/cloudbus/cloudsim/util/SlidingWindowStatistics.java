@@ -0,0 +1,414 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.util;
+
+/**
+ * Statistics of a sliding window of values that are updated as values enter and leave
+ * the window, instead of being computed again from all the values. The window keeps
+ * the most recent value at index 0; values {@link #addFirst(double) enter} at the front
+ * and {@link #removeLast() leave} from the back.
+ *
+ * The values are also kept sorted, so that the median, the median absolute deviation (MAD)
+ * and the quartiles are found by binary search. They give the same results as
+ * {@link MathUtil#median(double[])}, {@link MathUtil#mad(double[])} and
+ * {@link MathUtil#iqr(double[])} over the values of the window.
+ * The sums of an ordinary least squares regression over the most recent values are also kept,
+ * the oldest of those values being at x = 1, as in {@link MathUtil#getLoessParameterEstimates(double[])}
+ * over the reversed window when its weights are not applied.
+ *
+ * @since CloudSim Toolkit 4.0
+ */
+public class SlidingWindowStatistics {
+
+	/** The values, the most recent at {@link #head}. */
+	private final double[] values;
+
+	/** The values in ascending order, in the first {@link #size} positions. */
+	private final double[] sorted;
+
+	/** The position of the most recent value. */
+	private int head;
+
+	/** The number of values. */
+	private int size;
+
+	/** The number of most recent values in the regression. */
+	private final int regressionLength;
+
+	/** The sum of the values in the regression. */
+	private double regressionSumY;
+
+	/** The sum of the values in the regression times their centered x. */
+	private double regressionSumXY;
+
+	/** The number of regression updates since its sums were last computed from scratch. */
+	private int regressionUpdates;
+
+	/**
+	 * Creates an empty window.
+	 *
+	 * @param capacity the maximum number of values
+	 * @param regressionLength the number of most recent values in the regression
+	 * @pre capacity > 0
+	 * @pre regressionLength > 1
+	 */
+	public SlidingWindowStatistics(int capacity, int regressionLength) {
+		if (capacity <= 0) {
+			throw new IllegalArgumentException("The capacity must be > 0.");
+		} else if (regressionLength < 2) {
+			throw new IllegalArgumentException("The regression needs at least two values.");
+		}
+		values = new double[capacity];
+		sorted = new double[capacity];
+		this.regressionLength = regressionLength;
+	}
+
+	/**
+	 * Adds a value as the most recent one, dropping the oldest one if the window is full.
+	 *
+	 * @param value the value, which must not be NaN
+	 */
+	public void addFirst(double value) {
+		if (Double.isNaN(value)) {
+			throw new IllegalArgumentException("The value must not be NaN.");
+		}
+		if (size == values.length) {
+			removeLast();
+		}
+		head = head == 0 ? values.length - 1 : head - 1;
+		values[head] = value;
+		insertSorted(value);
+		size++;
+
+		if (size == regressionLength || size > regressionLength && ++regressionUpdates == regressionLength) {
+			computeRegressionSums();
+		} else if (size > regressionLength) {
+			// the values in the regression get one step older and the one at x = 1 leaves
+			double center = (regressionLength + 1) / 2.0;
+			double leaving = get(regressionLength);
+			regressionSumXY -= (1 - center) * leaving;
+			regressionSumY -= leaving;
+			regressionSumXY -= regressionSumY;
+			regressionSumXY += (regressionLength - center) * value;
+			regressionSumY += value;
+		}
+	}
+
+	/**
+	 * Removes the oldest value.
+	 *
+	 * @return the removed value
+	 */
+	public double removeLast() {
+		double value = getLast();
+		removeSorted(value);
+		size--;
+		return value;
+	}
+
+	/**
+	 * Removes all the values.
+	 */
+	public void clear() {
+		head = 0;
+		size = 0;
+	}
+
+	/**
+	 * Gets the number of values.
+	 *
+	 * @return the size
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Gets the maximum number of values.
+	 *
+	 * @return the capacity
+	 */
+	public int getCapacity() {
+		return values.length;
+	}
+
+	/**
+	 * Gets a value.
+	 *
+	 * @param index the index of the value, 0 being the most recent one
+	 * @return the value
+	 */
+	public double get(int index) {
+		if (index < 0 || index >= size) {
+			throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+		}
+		int position = head + index;
+		return values[position < values.length ? position : position - values.length];
+	}
+
+	/**
+	 * Gets the oldest value.
+	 *
+	 * @return the value
+	 */
+	public double getLast() {
+		return get(size - 1);
+	}
+
+	/**
+	 * Copies the values to an array.
+	 *
+	 * @return the values, the most recent first
+	 */
+	public double[] toArray() {
+		double[] array = new double[size];
+		for (int i = 0; i < size; i++) {
+			array[i] = get(i);
+		}
+		return array;
+	}
+
+	/**
+	 * Gets the k-th smallest value.
+	 *
+	 * @param k the rank of the value, 0 being the smallest one
+	 * @return the value
+	 */
+	public double getOrderStatistic(int k) {
+		if (k < 0 || k >= size) {
+			throw new IndexOutOfBoundsException("Rank: " + k + ", Size: " + size);
+		}
+		return sorted[k];
+	}
+
+	/**
+	 * Gets the median of the values, as estimated by {@link MathUtil#median(double[])}.
+	 *
+	 * @return the median, or NaN if there are no values
+	 */
+	public double getMedian() {
+		return percentile(0.5, new OrderStatistics() {
+			@Override
+			public double get(int k) {
+				return sorted[k];
+			}
+		});
+	}
+
+	/**
+	 * Gets the median absolute deviation of the values, as computed by {@link MathUtil#mad(double[])}.
+	 * The deviations from the median are two sorted sequences, those of the values below the
+	 * median and those of the values above it, so the median of the deviations is found
+	 * by binary search over both sequences.
+	 *
+	 * @return the MAD, or 0 if there are no values
+	 */
+	public double getMad() {
+		if (size == 0) {
+			return 0;
+		}
+		final double median = getMedian();
+		final int split = lowerBound(median);
+		return percentile(0.5, new OrderStatistics() {
+			@Override
+			public double get(int k) {
+				return selectDeviation(median, split, k);
+			}
+		});
+	}
+
+	/**
+	 * Gets the interquartile range of the values, as computed by {@link MathUtil#iqr(double[])}.
+	 *
+	 * @return the IQR
+	 */
+	public double getIqr() {
+		int q1 = (int) Math.round(0.25 * (size + 1)) - 1;
+		int q3 = (int) Math.round(0.75 * (size + 1)) - 1;
+		return sorted[q3] - sorted[q1];
+	}
+
+	/**
+	 * Gets the number of most recent values in the regression.
+	 *
+	 * @return the regression length
+	 */
+	public int getRegressionLength() {
+		return regressionLength;
+	}
+
+	/**
+	 * Gets the parameters of the ordinary least squares regression over the
+	 * {@link #getRegressionLength() most recent values}, the oldest of them being at x = 1.
+	 *
+	 * @return the intercept and the slope
+	 * @throws IllegalStateException if there are fewer values than the regression length
+	 */
+	public double[] getRegressionEstimates() {
+		if (size < regressionLength) {
+			throw new IllegalStateException("There are " + size + " values, the regression needs "
+					+ regressionLength + ".");
+		}
+		double n = regressionLength;
+		double center = (n + 1) / 2;
+		double sumXX = n * (n * n - 1) / 12; // the sum of the squares of the centered x
+		double slope = regressionSumXY / sumXX;
+		double intercept = regressionSumY / n - slope * center;
+		return new double[] { intercept, slope };
+	}
+
+	/**
+	 * Computes the sums of the regression from the values.
+	 */
+	private void computeRegressionSums() {
+		double center = (regressionLength + 1) / 2.0;
+		regressionSumY = 0;
+		regressionSumXY = 0;
+		for (int i = 0; i < regressionLength; i++) {
+			double y = get(i);
+			regressionSumY += y;
+			regressionSumXY += (regressionLength - i - center) * y;
+		}
+		regressionUpdates = 0;
+	}
+
+	/**
+	 * Gets the k-th smallest absolute deviation from the median.
+	 *
+	 * @param median the median
+	 * @param split the number of values below the median
+	 * @param k the rank of the deviation, 0 being the smallest one
+	 * @return the deviation
+	 */
+	private double selectDeviation(double median, int split, int k) {
+		// the deviations below the median are ascending from split - 1 down to 0, and
+		// those above it from split up to size - 1; find how many of the k + 1 smallest are below
+		int low = Math.max(0, k + 1 - (size - split));
+		int high = Math.min(k + 1, split);
+		while (low < high) {
+			int below = (low + high) >>> 1;
+			if (deviationBelow(median, split, below) < deviationAbove(median, split, k - below)) {
+				low = below + 1;
+			} else {
+				high = below;
+			}
+		}
+		int above = k + 1 - low;
+		double lastBelow = low > 0 ? deviationBelow(median, split, low - 1) : Double.NEGATIVE_INFINITY;
+		double lastAbove = above > 0 ? deviationAbove(median, split, above - 1) : Double.NEGATIVE_INFINITY;
+		return Math.max(lastBelow, lastAbove);
+	}
+
+	/**
+	 * Gets the i-th smallest deviation of the values below the median.
+	 *
+	 * @param median the median
+	 * @param split the number of values below the median
+	 * @param i the rank of the deviation among those below the median
+	 * @return the deviation
+	 */
+	private double deviationBelow(double median, int split, int i) {
+		return Math.abs(median - sorted[split - 1 - i]);
+	}
+
+	/**
+	 * Gets the i-th smallest deviation of the values not below the median.
+	 *
+	 * @param median the median
+	 * @param split the number of values below the median
+	 * @param i the rank of the deviation among those not below the median
+	 * @return the deviation
+	 */
+	private double deviationAbove(double median, int split, int i) {
+		return Math.abs(median - sorted[split + i]);
+	}
+
+	/**
+	 * Estimates a percentile from order statistics, as the default (legacy)
+	 * estimation of the Apache Commons Math {@code Percentile} used by {@link MathUtil}.
+	 *
+	 * @param p the percentile, between 0 and 1
+	 * @param statistics the order statistics of {@link #size} values
+	 * @return the percentile, or NaN if there are no values
+	 */
+	private double percentile(double p, OrderStatistics statistics) {
+		if (size == 0) {
+			return Double.NaN;
+		} else if (size == 1) {
+			return statistics.get(0);
+		}
+		double position = p * (size + 1);
+		double floor = Math.floor(position);
+		if (position < 1) {
+			return statistics.get(0);
+		} else if (position >= size) {
+			return statistics.get(size - 1);
+		}
+		double lower = statistics.get((int) floor - 1);
+		double upper = statistics.get((int) floor);
+		return lower + (position - floor) * (upper - lower);
+	}
+
+	/**
+	 * Gets the position of the first sorted value that is not below a value.
+	 *
+	 * @param value the value
+	 * @return the number of sorted values below the value
+	 */
+	private int lowerBound(double value) {
+		int low = 0;
+		int high = size;
+		while (low < high) {
+			int middle = (low + high) >>> 1;
+			if (sorted[middle] < value) {
+				low = middle + 1;
+			} else {
+				high = middle;
+			}
+		}
+		return low;
+	}
+
+	/**
+	 * Inserts a value into the sorted values.
+	 *
+	 * @param value the value
+	 */
+	private void insertSorted(double value) {
+		int position = lowerBound(value);
+		System.arraycopy(sorted, position, sorted, position + 1, size - position);
+		sorted[position] = value;
+	}
+
+	/**
+	 * Removes a value from the sorted values.
+	 *
+	 * @param value the value
+	 */
+	private void removeSorted(double value) {
+		int position = lowerBound(value);
+		System.arraycopy(sorted, position + 1, sorted, position, size - position - 1);
+	}
+
+	/**
+	 * Order statistics of a set of values.
+	 */
+	private interface OrderStatistics {
+
+		/**
+		 * Gets the k-th smallest value.
+		 *
+		 * @param k the rank of the value, 0 being the smallest one
+		 * @return the value
+		 */
+		double get(int k);
+
+	}
+
+}
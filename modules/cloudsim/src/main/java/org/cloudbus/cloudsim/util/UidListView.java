@@ -0,0 +1,91 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.util;
+
+import java.util.AbstractList;
+import java.util.List;
+
+import org.cloudbus.cloudsim.Vm;
+
+/**
+ * A live {@code List<String>} view of a set of VM (or container) keys, whose elements are
+ * the string uids of the VMs, as the lists of VMs migrating in or out of a host used to be.
+ * It backs the String-based accessors that are kept for compatibility: the elements added
+ * or removed through the view are added to or removed from the underlying set. As the set,
+ * the view holds each uid once.
+ *
+ * @see UidMapView
+ * @since CloudSim Toolkit 4.0
+ */
+public class UidListView extends AbstractList<String> {
+
+	/** The underlying set. */
+	private final LongHashSet set;
+
+	/**
+	 * Instantiates a new view of a set of keys.
+	 *
+	 * @param set the set
+	 */
+	private UidListView(LongHashSet set) {
+		this.set = set;
+	}
+
+	/**
+	 * Gets a view of a set of keys.
+	 *
+	 * @param set the set
+	 * @return the view of the set
+	 */
+	public static List<String> of(LongHashSet set) {
+		return new UidListView(set);
+	}
+
+	@Override
+	public String get(int index) {
+		return Vm.getUid(set.keyAt(index));
+	}
+
+	@Override
+	public int size() {
+		return set.size();
+	}
+
+	@Override
+	public boolean add(String uid) {
+		set.add(Vm.getKey(uid));
+		return true;
+	}
+
+	@Override
+	public boolean contains(Object uid) {
+		Long key = UidMapView.toKey(uid);
+		return key != null && set.contains(key);
+	}
+
+	@Override
+	public boolean remove(Object uid) {
+		Long key = UidMapView.toKey(uid);
+		return key != null && set.remove(key);
+	}
+
+	@Override
+	public String remove(int index) {
+		// the last element of the set takes the position of the removed one
+		long key = set.keyAt(index);
+		set.remove(key);
+		return Vm.getUid(key);
+	}
+
+	@Override
+	public void clear() {
+		set.clear();
+	}
+
+}
@@ -0,0 +1,350 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.util;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+import org.cloudbus.cloudsim.Vm;
+
+/**
+ * A live {@code Map<String, V>} view of a table keyed by VM (or container) keys, whose
+ * keys are the string uids of the VMs, as the tables of the schedulers, provisioners and
+ * allocation policies used to be. It backs the String-based accessors that are kept for
+ * compatibility: reads and writes through the view go to the underlying table, translating
+ * each uid into its key.
+ *
+ * @param <V> the type of the values seen through the view
+ * @see Vm#getKey(String)
+ * @see Vm#getUid(long)
+ * @since CloudSim Toolkit 4.0
+ */
+public abstract class UidMapView<V> extends AbstractMap<String, V> {
+
+	/** The view of the entries, created on first use. */
+	private Set<Map.Entry<String, V>> entrySet;
+
+	/**
+	 * Instantiates a new view, through the factory methods only.
+	 */
+	UidMapView() {
+	}
+
+	/**
+	 * Gets a view of a map from keys to objects.
+	 *
+	 * @param <V> the type of the values
+	 * @param table the table
+	 * @return the view of the table
+	 */
+	public static <V> Map<String, V> of(final LongObjectHashMap<V> table) {
+		return new UidMapView<V>() {
+
+			@Override
+			AbstractLongHashTable getTable() {
+				return table;
+			}
+
+			@Override
+			V valueAt(int index) {
+				return table.valueAt(index);
+			}
+
+			@Override
+			V get(long key) {
+				return table.get(key);
+			}
+
+			@Override
+			V put(long key, V value) {
+				return table.put(key, value);
+			}
+
+			@Override
+			V remove(long key) {
+				return table.remove(key);
+			}
+
+		};
+	}
+
+	/**
+	 * Gets a view of a map from keys to numbers of PEs.
+	 *
+	 * @param table the table
+	 * @return the view of the table
+	 */
+	public static Map<String, Integer> ofIntegers(final LongLongHashMap table) {
+		return new UidMapView<Integer>() {
+
+			@Override
+			AbstractLongHashTable getTable() {
+				return table;
+			}
+
+			@Override
+			Integer valueAt(int index) {
+				return (int) table.valueAt(index);
+			}
+
+			@Override
+			Integer get(long key) {
+				return table.containsKey(key) ? (int) table.get(key, 0) : null;
+			}
+
+			@Override
+			Integer put(long key, Integer value) {
+				Integer previous = get(key);
+				table.put(key, value);
+				return previous;
+			}
+
+			@Override
+			Integer remove(long key) {
+				Integer previous = get(key);
+				table.remove(key, 0);
+				return previous;
+			}
+
+		};
+	}
+
+	/**
+	 * Gets a view of a map from keys to MIPS shares, seen as lists.
+	 *
+	 * @param table the table
+	 * @return the view of the table
+	 */
+	public static Map<String, List<Double>> ofMips(final LongObjectHashMap<double[]> table) {
+		return new UidMapView<List<Double>>() {
+
+			@Override
+			AbstractLongHashTable getTable() {
+				return table;
+			}
+
+			@Override
+			List<Double> valueAt(int index) {
+				return toList(table.valueAt(index));
+			}
+
+			@Override
+			List<Double> get(long key) {
+				return toList(table.get(key));
+			}
+
+			@Override
+			List<Double> put(long key, List<Double> value) {
+				return toList(table.put(key, toArray(value)));
+			}
+
+			@Override
+			List<Double> remove(long key) {
+				return toList(table.remove(key));
+			}
+
+		};
+	}
+
+	/**
+	 * Gets the underlying table.
+	 *
+	 * @return the table
+	 */
+	abstract AbstractLongHashTable getTable();
+
+	/**
+	 * Gets the value at a given position of the underlying table.
+	 *
+	 * @param index the position
+	 * @return the value
+	 */
+	abstract V valueAt(int index);
+
+	/**
+	 * Gets the value of a key in the underlying table.
+	 *
+	 * @param key the key
+	 * @return the value, or null if the key is not in the table
+	 */
+	abstract V get(long key);
+
+	/**
+	 * Associates a value to a key in the underlying table.
+	 *
+	 * @param key the key
+	 * @param value the value
+	 * @return the previous value, or null if there was none
+	 */
+	abstract V put(long key, V value);
+
+	/**
+	 * Removes a key from the underlying table.
+	 *
+	 * @param key the key
+	 * @return the previous value, or null if there was none
+	 */
+	abstract V remove(long key);
+
+	@Override
+	public int size() {
+		return getTable().size();
+	}
+
+	@Override
+	public boolean containsKey(Object uid) {
+		Long key = toKey(uid);
+		return key != null && getTable().containsKey(key);
+	}
+
+	@Override
+	public V get(Object uid) {
+		Long key = toKey(uid);
+		return key == null ? null : get(key.longValue());
+	}
+
+	@Override
+	public V put(String uid, V value) {
+		return put(Vm.getKey(uid), value);
+	}
+
+	@Override
+	public V remove(Object uid) {
+		Long key = toKey(uid);
+		return key == null ? null : remove(key.longValue());
+	}
+
+	@Override
+	public void clear() {
+		getTable().clear();
+	}
+
+	@Override
+	public Set<Map.Entry<String, V>> entrySet() {
+		if (entrySet == null) {
+			entrySet = new AbstractSet<Map.Entry<String, V>>() {
+
+				@Override
+				public int size() {
+					return UidMapView.this.size();
+				}
+
+				@Override
+				public Iterator<Map.Entry<String, V>> iterator() {
+					return new Iterator<Map.Entry<String, V>>() {
+
+						/** The position of the next entry in the table. */
+						private int next;
+
+						/** The key of the last entry returned, or null. */
+						private Long last;
+
+						@Override
+						public boolean hasNext() {
+							return next < getTable().size();
+						}
+
+						@Override
+						public Map.Entry<String, V> next() {
+							if (!hasNext()) {
+								throw new NoSuchElementException();
+							}
+							final long key = getTable().keyAt(next);
+							last = key;
+							V value = valueAt(next++);
+							return new AbstractMap.SimpleEntry<String, V>(Vm.getUid(key), value) {
+
+								private static final long serialVersionUID = 1L;
+
+								@Override
+								public V setValue(V value) {
+									super.setValue(value);
+									return put(key, value);
+								}
+
+							};
+						}
+
+						@Override
+						public void remove() {
+							if (last == null) {
+								throw new IllegalStateException();
+							}
+							// the last entry of the table takes the position of the removed one
+							UidMapView.this.remove(last.longValue());
+							last = null;
+							next--;
+						}
+
+					};
+				}
+
+			};
+		}
+		return entrySet;
+	}
+
+	/**
+	 * Converts a uid into a key.
+	 *
+	 * @param uid the uid
+	 * @return the key, or null if the object is not a valid uid
+	 */
+	static Long toKey(Object uid) {
+		if (!(uid instanceof String)) {
+			return null;
+		}
+		try {
+			return Vm.getKey((String) uid);
+		} catch (RuntimeException e) {
+			return null;
+		}
+	}
+
+	/**
+	 * Converts a MIPS share into a list.
+	 *
+	 * @param mips the MIPS share, or null
+	 * @return the list, or null
+	 */
+	private static List<Double> toList(double[] mips) {
+		if (mips == null) {
+			return null;
+		}
+		List<Double> list = new ArrayList<Double>(mips.length);
+		for (double value : mips) {
+			list.add(value);
+		}
+		return list;
+	}
+
+	/**
+	 * Converts a list into a MIPS share.
+	 *
+	 * @param list the list, or null
+	 * @return the MIPS share, or null
+	 */
+	private static double[] toArray(List<Double> list) {
+		if (list == null) {
+			return null;
+		}
+		double[] mips = new double[list.size()];
+		for (int i = 0; i < mips.length; i++) {
+			mips[i] = list.get(i);
+		}
+		return mips;
+	}
+
+}
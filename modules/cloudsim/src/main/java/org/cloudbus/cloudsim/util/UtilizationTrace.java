@@ -0,0 +1,92 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.util;
+
+import java.nio.ByteBuffer;
+
+/**
+ * A read-only view of one utilization trace of a {@link UtilizationTraceStore}.
+ * The samples are read directly from the memory-mapped file of the store,
+ * thus the view doesn't copy them.
+ *
+ * @since CloudSim Toolkit 4.0
+ */
+public final class UtilizationTrace {
+
+	/** The buffer of the store. */
+	private final ByteBuffer buffer;
+
+	/** The position of the first sample in the {@link #buffer}. */
+	private final int offset;
+
+	/** The number of samples. */
+	private final int size;
+
+	/** Indicates if each sample takes two bytes instead of one. */
+	private final boolean wide;
+
+	/** The samples per unit of utilization. */
+	private final int resolution;
+
+	/**
+	 * Instantiates a new view.
+	 *
+	 * @param buffer the buffer of the store
+	 * @param offset the position of the first sample in the buffer
+	 * @param size the number of samples
+	 * @param wide true if each sample takes two bytes, false if it takes one byte
+	 * @param resolution the samples per unit of utilization
+	 */
+	UtilizationTrace(ByteBuffer buffer, int offset, int size, boolean wide, int resolution) {
+		this.buffer = buffer;
+		this.offset = offset;
+		this.size = size;
+		this.wide = wide;
+		this.resolution = resolution;
+	}
+
+	/**
+	 * Gets the number of samples of the trace.
+	 *
+	 * @return the number of samples
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Gets a sample of the trace.
+	 *
+	 * @param index the index of the sample, between 0 and {@link #size()} - 1
+	 * @return the utilization, between 0 and 1 for percentages up to 100%
+	 */
+	public double get(int index) {
+		if (index < 0 || index >= size) {
+			throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+		}
+		if (wide) {
+			return buffer.getChar(offset + 2 * index) / (double) resolution;
+		}
+		return (buffer.get(offset + index) & 0xFF) / (double) resolution;
+	}
+
+	/**
+	 * Copies the samples of the trace to a new array.
+	 *
+	 * @return the utilization samples, between 0 and 1 for percentages up to 100%
+	 */
+	public double[] toArray() {
+		double[] array = new double[size];
+		for (int i = 0; i < size; i++) {
+			array[i] = get(i);
+		}
+		return array;
+	}
+
+}
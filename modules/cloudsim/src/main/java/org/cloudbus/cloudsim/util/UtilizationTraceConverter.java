@@ -0,0 +1,380 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.util;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Converts CPU utilization traces into the binary format of a {@link UtilizationTraceStore},
+ * which is then opened in constant time by {@link UtilizationTraceStore#load(String)}.
+ * The supported trace formats are:
+ * <ul>
+ * <li><b>planetlab</b>: a folder with a file per VM, having one utilization percentage per line,
+ * as in the <a href="https://github.com/beloglazov/planetlab-workload-traces">PlanetLab
+ * workload traces</a>;</li>
+ * <li><b>bitbrains</b>: a folder with a CSV file per VM, as in the
+ * <a href="http://gwa.ewi.tudelft.nl/datasets/gwa-t-12-bitbrains">Bitbrains traces</a>,
+ * whose fifth column is the CPU usage percentage;</li>
+ * <li><b>google</b>: a <i>task_usage</i> CSV file, or a folder of them (optionally gzipped),
+ * of the <a href="https://github.com/google/cluster-data">Google cluster-usage traces</a>,
+ * with a trace per task whose samples are the mean CPU usage of the task
+ * averaged over each interval.</li>
+ * </ul>
+ *
+ * Usage: {@code UtilizationTraceConverter <planetlab|bitbrains|google> <input> <output> [interval]},
+ * where the interval between samples defaults to 300 seconds.
+ *
+ * @since CloudSim Toolkit 4.0
+ */
+public final class UtilizationTraceConverter {
+
+	/** The default time between samples, in seconds. */
+	public static final double DEFAULT_INTERVAL = 300;
+
+	/** The column of the CPU usage percentage in the Bitbrains traces. */
+	private static final int BITBRAINS_CPU_USAGE_COLUMN = 4;
+
+	/** The column of the start time, in microseconds, in the Google task usage traces. */
+	private static final int GOOGLE_START_TIME_COLUMN = 0;
+
+	/** The column of the job ID in the Google task usage traces. */
+	private static final int GOOGLE_JOB_ID_COLUMN = 2;
+
+	/** The column of the task index in the Google task usage traces. */
+	private static final int GOOGLE_TASK_INDEX_COLUMN = 3;
+
+	/** The column of the mean CPU usage in the Google task usage traces. */
+	private static final int GOOGLE_CPU_RATE_COLUMN = 5;
+
+	/**
+	 * Not to be instantiated.
+	 */
+	private UtilizationTraceConverter() {
+	}
+
+	/**
+	 * Converts the traces given by the command-line arguments.
+	 *
+	 * @param args the format of the traces, the input file or folder, the binary file to write
+	 * and optionally the interval between samples
+	 * @throws IOException if the traces cannot be parsed or the binary file cannot be written
+	 */
+	public static void main(String[] args) throws IOException {
+		if (args.length < 3 || args.length > 4) {
+			System.err.println("Usage: UtilizationTraceConverter <planetlab|bitbrains|google> <input> <output> [interval]");
+			System.exit(1);
+		}
+		double interval = args.length == 4 ? Double.parseDouble(args[3]) : DEFAULT_INTERVAL;
+		File binaryFile = new File(args[2]);
+		convert(args[0], new File(args[1]), binaryFile, interval);
+
+		UtilizationTraceStore store = UtilizationTraceStore.load(binaryFile.getPath());
+		System.out.println("Converted " + store.getTraceCount() + " traces of " + store.getSampleCount()
+				+ " samples into " + binaryFile);
+	}
+
+	/**
+	 * Converts traces into a binary file.
+	 *
+	 * @param format the format of the traces: planetlab, bitbrains or google
+	 * @param input the file or folder of the traces
+	 * @param binaryFile the binary file to write
+	 * @param interval the time between samples
+	 * @throws IOException if the traces cannot be parsed or the binary file cannot be written
+	 */
+	public static void convert(String format, File input, File binaryFile, double interval) throws IOException {
+		SortedMap<String, double[]> traces;
+		if ("planetlab".equalsIgnoreCase(format)) {
+			traces = readPlanetLab(input);
+		} else if ("bitbrains".equalsIgnoreCase(format)) {
+			traces = readBitbrains(input);
+		} else if ("google".equalsIgnoreCase(format)) {
+			traces = readGoogle(input, interval);
+		} else {
+			throw new IllegalArgumentException("Unknown trace format " + format);
+		}
+		UtilizationTraceStore.write(binaryFile, traces, interval, input.lastModified());
+	}
+
+	/**
+	 * Reads the PlanetLab traces of a folder.
+	 *
+	 * @param folder the folder with a file per VM, having one utilization percentage per line
+	 * @return the utilization values of each trace, by file name
+	 * @throws IOException if a file cannot be read or has an invalid percentage
+	 */
+	public static SortedMap<String, double[]> readPlanetLab(File folder) throws IOException {
+		SortedMap<String, double[]> traces = new TreeMap<String, double[]>();
+		for (File file : listTraceFiles(folder)) {
+			BufferedReader input = new BufferedReader(new FileReader(file));
+			try {
+				double[] values = new double[288]; // a day of 5-minute samples
+				int size = 0;
+				String line;
+				while ((line = input.readLine()) != null) {
+					line = line.trim();
+					if (line.isEmpty()) {
+						continue;
+					}
+					int value;
+					try {
+						value = Integer.parseInt(line);
+					} catch (NumberFormatException e) {
+						throw new IOException("Invalid utilization " + line + " in " + file, e);
+					}
+					if (size == values.length) {
+						values = Arrays.copyOf(values, size * 2);
+					}
+					values[size++] = value / 100.0;
+				}
+				traces.put(file.getName(), Arrays.copyOf(values, size));
+			} finally {
+				input.close();
+			}
+		}
+		return traces;
+	}
+
+	/**
+	 * Reads the Bitbrains traces of a folder.
+	 *
+	 * @param folder the folder with a CSV file per VM, whose fifth column is the CPU usage percentage
+	 * @return the utilization values of each trace, by file name
+	 * @throws IOException if a file cannot be read or has an invalid percentage
+	 */
+	public static SortedMap<String, double[]> readBitbrains(File folder) throws IOException {
+		SortedMap<String, double[]> traces = new TreeMap<String, double[]>();
+		for (File file : listTraceFiles(folder)) {
+			BufferedReader input = openReader(file);
+			try {
+				double[] values = new double[8640]; // a month of 5-minute samples
+				int size = 0;
+				String line;
+				while ((line = input.readLine()) != null) {
+					String[] columns = line.split(";");
+					if (columns.length <= BITBRAINS_CPU_USAGE_COLUMN) {
+						continue;
+					}
+					String column = columns[BITBRAINS_CPU_USAGE_COLUMN].trim();
+					if (column.isEmpty() || !Character.isDigit(column.charAt(column.length() - 1))) {
+						continue; // the header
+					}
+					double value;
+					try {
+						value = Double.parseDouble(column);
+					} catch (NumberFormatException e) {
+						throw new IOException("Invalid utilization " + column + " in " + file, e);
+					}
+					if (size == values.length) {
+						values = Arrays.copyOf(values, size * 2);
+					}
+					values[size++] = value / 100;
+				}
+				traces.put(file.getName(), Arrays.copyOf(values, size));
+			} finally {
+				input.close();
+			}
+		}
+		return traces;
+	}
+
+	/**
+	 * Reads Google task usage traces. The records of each task are averaged over each interval
+	 * since the earliest record, and the intervals without records of the task are idle.
+	 * All the traces end at the last interval with records, so that the tasks that ended
+	 * earlier stay idle, rather than being padded with their last sample by
+	 * {@link UtilizationTraceStore#write(File, SortedMap, double, long)}.
+	 *
+	 * @param input a task usage CSV file, or a folder of them, optionally gzipped
+	 * @param interval the time between samples, in seconds
+	 * @return the utilization values of each task, by job ID and task index separated by a dash
+	 * @throws IOException if a file cannot be read or has an invalid record
+	 */
+	public static SortedMap<String, double[]> readGoogle(File input, double interval) throws IOException {
+		File[] files = input.isDirectory() ? listTraceFiles(input) : new File[] { input };
+		long intervalMicros = Math.round(interval * 1000000);
+		if (intervalMicros <= 0) {
+			throw new IllegalArgumentException("The interval must be positive");
+		}
+
+		Map<String, TaskUsage> tasks = new TreeMap<String, TaskUsage>();
+		long firstSlot = Long.MAX_VALUE;
+		long lastSlot = Long.MIN_VALUE;
+		for (File file : files) {
+			BufferedReader reader = openReader(file);
+			try {
+				String line;
+				while ((line = reader.readLine()) != null) {
+					String[] columns = line.split(",", -1);
+					if (columns.length <= GOOGLE_CPU_RATE_COLUMN || columns[GOOGLE_CPU_RATE_COLUMN].isEmpty()) {
+						continue;
+					}
+					long slot;
+					double rate;
+					try {
+						slot = Long.parseLong(columns[GOOGLE_START_TIME_COLUMN]) / intervalMicros;
+						rate = Double.parseDouble(columns[GOOGLE_CPU_RATE_COLUMN]);
+					} catch (NumberFormatException e) {
+						throw new IOException("Invalid record " + line + " in " + file, e);
+					}
+					String name = columns[GOOGLE_JOB_ID_COLUMN] + "-" + columns[GOOGLE_TASK_INDEX_COLUMN];
+					TaskUsage task = tasks.get(name);
+					if (task == null) {
+						task = new TaskUsage(slot);
+						tasks.put(name, task);
+					}
+					task.add(slot, rate);
+					firstSlot = Math.min(firstSlot, slot);
+					lastSlot = Math.max(lastSlot, slot);
+				}
+			} finally {
+				reader.close();
+			}
+		}
+
+		SortedMap<String, double[]> traces = new TreeMap<String, double[]>();
+		for (Map.Entry<String, TaskUsage> task : tasks.entrySet()) {
+			traces.put(task.getKey(), task.getValue().toArray(firstSlot, lastSlot));
+		}
+		return traces;
+	}
+
+	/**
+	 * Lists the files of a folder.
+	 *
+	 * @param folder the folder
+	 * @return the files, sorted by name, or an empty array if the folder cannot be listed
+	 */
+	static File[] listTraceFiles(File folder) {
+		File[] files = folder.listFiles();
+		if (files == null) {
+			return new File[0];
+		}
+		List<File> traceFiles = new ArrayList<File>(files.length);
+		for (File file : files) {
+			if (file.isFile()) {
+				traceFiles.add(file);
+			}
+		}
+		File[] result = traceFiles.toArray(new File[traceFiles.size()]);
+		Arrays.sort(result, new Comparator<File>() {
+			@Override
+			public int compare(File file1, File file2) {
+				return file1.getName().compareTo(file2.getName());
+			}
+		});
+		return result;
+	}
+
+	/**
+	 * Opens a text file, decompressing it if its name ends with {@code .gz}.
+	 *
+	 * @param file the file
+	 * @return the reader of the file
+	 * @throws IOException if the file cannot be opened
+	 */
+	private static BufferedReader openReader(File file) throws IOException {
+		InputStream input = new FileInputStream(file);
+		if (file.getName().endsWith(".gz")) {
+			input = new GZIPInputStream(input);
+		}
+		return new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+	}
+
+
+	/**
+	 * The CPU usage records of a task, summed by interval.
+	 */
+	private static final class TaskUsage {
+
+		/** The interval of the first position of the arrays. */
+		private long firstSlot;
+
+		/** The sum of the CPU usage of the records of each interval. */
+		private double[] sums = new double[16];
+
+		/** The number of records of each interval. */
+		private int[] counts = new int[16];
+
+		/** The number of intervals since the first one, up to the last one with records. */
+		private int size;
+
+		/**
+		 * Instantiates the usage of a task.
+		 *
+		 * @param firstSlot the interval of the first record
+		 */
+		TaskUsage(long firstSlot) {
+			this.firstSlot = firstSlot;
+		}
+
+		/**
+		 * Adds a record.
+		 *
+		 * @param slot the interval of the record
+		 * @param rate the CPU usage of the record
+		 */
+		void add(long slot, double rate) {
+			if (slot < firstSlot) {
+				// the records are usually in time order, so this is rare
+				int shift = (int) (firstSlot - slot);
+				double[] newSums = new double[Math.max(sums.length, size + shift)];
+				int[] newCounts = new int[newSums.length];
+				System.arraycopy(sums, 0, newSums, shift, size);
+				System.arraycopy(counts, 0, newCounts, shift, size);
+				sums = newSums;
+				counts = newCounts;
+				size += shift;
+				firstSlot = slot;
+			}
+			int index = (int) (slot - firstSlot);
+			if (index >= sums.length) {
+				int length = Math.max(index + 1, sums.length * 2);
+				sums = Arrays.copyOf(sums, length);
+				counts = Arrays.copyOf(counts, length);
+			}
+			sums[index] += rate;
+			counts[index]++;
+			size = Math.max(size, index + 1);
+		}
+
+		/**
+		 * Gets the average CPU usage of each interval, being zero for the intervals without records.
+		 *
+		 * @param traceFirstSlot the interval of the first sample
+		 * @param traceLastSlot the interval of the last sample
+		 * @return the samples
+		 */
+		double[] toArray(long traceFirstSlot, long traceLastSlot) {
+			int shift = (int) (firstSlot - traceFirstSlot);
+			double[] values = new double[(int) (traceLastSlot - traceFirstSlot + 1)];
+			for (int i = 0; i < size; i++) {
+				values[shift + i] = counts[i] == 0 ? 0 : sums[i] / counts[i];
+			}
+			return values;
+		}
+
+	}
+
+}
@@ -0,0 +1,487 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.util;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.SortedMap;
+
+import org.cloudbus.cloudsim.UtilizationModelPlanetLabInMemory;
+
+/**
+ * A store of utilization traces in a binary file, with one column of samples per VM.
+ * The file is memory-mapped and the traces are handed out as read-only
+ * {@link UtilizationTrace views} of the mapping, thus opening a store takes
+ * constant time no matter how many traces it has.
+ *
+ * A store can be packed from a <a href="https://www.planet-lab.org">PlanetLab</a>
+ * workload folder the first time the folder is opened, being reused by later runs while
+ * none of its files is added, removed or modified. Other trace formats are converted by the
+ * {@link UtilizationTraceConverter}. A store is shared by all the simulations of a JVM that open
+ * the same binary file, so they also share the same pages.
+ *
+ * The binary file starts with a header (magic number, format version, stamp of the source
+ * of the traces, number of traces, number of samples per trace,
+ * bytes per sample, samples per unit of utilization and time between samples), followed by
+ * the position of each trace in the file, the names of the traces in ascending order
+ * and the samples of the traces in that order. Each sample is an unsigned integer
+ * of one or two bytes, being the utilization the sample divided by the samples per unit.
+ *
+ * @since CloudSim Toolkit 4.0
+ */
+public final class UtilizationTraceStore {
+
+	/** The magic number at the beginning of the binary file. */
+	private static final int MAGIC = 0x43535554;
+
+	/** The version of the binary file format. */
+	private static final int VERSION = 3;
+
+	/** The size of the header of the binary file. */
+	private static final int HEADER_SIZE = 40;
+
+	/** The interval between samples of the PlanetLab traces. */
+	private static final double PLANETLAB_INTERVAL = 300;
+
+	/** The stores already opened, by the canonical path of their binary file. */
+	private static final Map<String, UtilizationTraceStore> STORES = new HashMap<String, UtilizationTraceStore>();
+
+	/** The memory-mapped binary file. */
+	private final ByteBuffer buffer;
+
+	/** The number of traces. */
+	private final int traceCount;
+
+	/** The number of samples of each trace. */
+	private final int sampleCount;
+
+	/** Indicates if each sample takes two bytes instead of one. */
+	private final boolean wide;
+
+	/** The samples per unit of utilization. */
+	private final int resolution;
+
+	/** The time between samples. */
+	private final double interval;
+
+	/** The names of the traces, in ascending order, decoded the first time they are needed. */
+	private String[] names;
+
+	/**
+	 * Instantiates a new store from a memory-mapped binary file.
+	 *
+	 * @param buffer the mapped binary file
+	 * @throws IOException if the file is not a valid trace store
+	 */
+	private UtilizationTraceStore(ByteBuffer buffer) throws IOException {
+		this.buffer = buffer;
+		if (buffer.capacity() < HEADER_SIZE || buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION) {
+			throw new IOException("Not a utilization trace store");
+		}
+		traceCount = buffer.getInt(16);
+		sampleCount = buffer.getInt(20);
+		wide = buffer.getInt(24) == 2;
+		resolution = buffer.getInt(28);
+		interval = buffer.getDouble(32);
+		if ((long) HEADER_SIZE + 4L * traceCount > buffer.capacity()
+				|| traceCount > 0 && (long) getTraceOffset(traceCount - 1)
+						+ (long) sampleCount * (wide ? 2 : 1) > buffer.capacity()) {
+			throw new IOException("Truncated utilization trace store");
+		}
+	}
+
+	/**
+	 * Opens the store of the PlanetLab traces of a folder, keeping its binary file
+	 * in the temporary directory of the system.
+	 *
+	 * @param folderName the folder of trace files
+	 * @return the store
+	 * @throws IOException if the traces cannot be parsed or the binary file cannot be written or mapped
+	 * @see #open(String, String)
+	 */
+	public static UtilizationTraceStore open(String folderName) throws IOException {
+		File folder = new File(folderName).getCanonicalFile();
+		String binaryName = "cloudsim-" + folder.getName() + "-"
+				+ Integer.toHexString(folder.getPath().hashCode()) + ".trace";
+		return open(folderName, new File(System.getProperty("java.io.tmpdir"), binaryName).getPath());
+	}
+
+	/**
+	 * Opens the store of the PlanetLab traces of a folder. The folder is packed into the
+	 * binary file if that file doesn't exist yet or a file of the folder was added,
+	 * removed or modified since it was packed. If the folder doesn't exist, the binary file is used as is.
+	 *
+	 * @param folderName the folder of trace files
+	 * @param binaryFileName the binary file of the store
+	 * @return the store, which is the same object for all the calls with the same binary file
+	 * @throws IOException if the traces cannot be parsed or the binary file cannot be written or mapped
+	 */
+	public static synchronized UtilizationTraceStore open(String folderName, String binaryFileName)
+			throws IOException {
+		File folder = new File(folderName);
+		File binaryFile = new File(binaryFileName).getCanonicalFile();
+		UtilizationTraceStore store = STORES.get(binaryFile.getPath());
+		if (store != null && (!folder.isDirectory() || store.isUpToDate(folder))) {
+			return store;
+		}
+
+		if (folder.isDirectory() && (!binaryFile.isFile() || !isUpToDate(binaryFile, folder))) {
+			pack(folder, binaryFile);
+		}
+		store = new UtilizationTraceStore(map(binaryFile));
+		STORES.put(binaryFile.getPath(), store);
+		return store;
+	}
+
+	/**
+	 * Opens a binary file written by {@link #write(File, SortedMap, double, long)},
+	 * for instance by the {@link UtilizationTraceConverter}.
+	 *
+	 * @param binaryFileName the binary file of the store
+	 * @return the store, which is the same object for all the calls with the same binary file
+	 * @throws IOException if the file is not a valid trace store or cannot be mapped
+	 */
+	public static synchronized UtilizationTraceStore load(String binaryFileName) throws IOException {
+		File binaryFile = new File(binaryFileName).getCanonicalFile();
+		UtilizationTraceStore store = STORES.get(binaryFile.getPath());
+		if (store == null) {
+			store = new UtilizationTraceStore(map(binaryFile));
+			STORES.put(binaryFile.getPath(), store);
+		}
+		return store;
+	}
+
+	/**
+	 * Parses the PlanetLab traces of a folder and writes them into a binary file.
+	 *
+	 * @param folder the folder of trace files
+	 * @param binaryFile the binary file to write
+	 * @throws IOException if the traces cannot be parsed or the binary file cannot be written
+	 */
+	public static void pack(File folder, File binaryFile) throws IOException {
+		write(binaryFile, UtilizationTraceConverter.readPlanetLab(folder), PLANETLAB_INTERVAL,
+				getFolderStamp(UtilizationTraceConverter.listTraceFiles(folder)));
+	}
+
+	/**
+	 * Gets the stamp of the trace files of a folder, which changes when a file is added, removed,
+	 * renamed, resized or touched, even if the modification time of the folder itself doesn't.
+	 *
+	 * @param files the trace files of the folder, sorted by name
+	 * @return the hash of the name, length and last modification time of the files
+	 */
+	private static long getFolderStamp(File[] files) {
+		long stamp = 1;
+		for (File file : files) {
+			stamp = 31 * stamp + file.getName().hashCode();
+			stamp = 31 * stamp + file.length();
+			stamp = 31 * stamp + file.lastModified();
+		}
+		return stamp;
+	}
+
+	/**
+	 * Writes utilization traces into a binary file. Each sample takes one byte if all
+	 * the utilization values are whole percentages up to 255%, or two bytes otherwise, with
+	 * a resolution of a hundredth of a percent if the values are not whole percentages.
+	 * Shorter traces are padded with their last sample; traces that must be padded otherwise,
+	 * such as the idle end of the Google tasks, are given with the same length.
+	 * The file is written under a temporary name and then renamed,
+	 * so that other runs never see a partially written file.
+	 *
+	 * @param binaryFile the binary file to write
+	 * @param traces the utilization values of each trace (between 0 and 1 for
+	 * up to 100% of utilization), by name
+	 * @param interval the time between samples
+	 * @param sourceStamp the stamp of the source of the traces, such as its last modification time,
+	 * which tells if the binary file is still up to date
+	 * @throws IOException if some utilization value cannot be stored or the binary file cannot be written
+	 */
+	public static void write(File binaryFile, SortedMap<String, double[]> traces, double interval,
+			long sourceStamp) throws IOException {
+		int sampleCount = 0;
+		boolean wholePercentages = true;
+		double maxValue = 0;
+		for (Map.Entry<String, double[]> trace : traces.entrySet()) {
+			sampleCount = Math.max(sampleCount, trace.getValue().length);
+			for (double value : trace.getValue()) {
+				if (!(value >= 0)) {
+					throw new IOException("Invalid utilization " + value + " in " + trace.getKey());
+				}
+				maxValue = Math.max(maxValue, value);
+				if (wholePercentages && Math.abs(value * 100 - Math.rint(value * 100)) > 1e-6) {
+					wholePercentages = false;
+				}
+			}
+		}
+		int resolution = wholePercentages ? 100 : 10000;
+		long maxSample = Math.round(maxValue * resolution);
+		if (maxSample > 0xFFFF) {
+			throw new IOException("Utilization " + maxValue + " out of range");
+		}
+		int bytesPerSample = maxSample > 0xFF ? 2 : 1;
+
+		File parent = binaryFile.getAbsoluteFile().getParentFile();
+		if (parent != null) {
+			parent.mkdirs();
+		}
+		File temporaryFile = File.createTempFile(binaryFile.getName(), ".tmp", parent);
+		DataOutputStream output = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(temporaryFile)));
+		try {
+			output.writeInt(MAGIC);
+			output.writeInt(VERSION);
+			output.writeLong(sourceStamp);
+			output.writeInt(traces.size());
+			output.writeInt(sampleCount);
+			output.writeInt(bytesPerSample);
+			output.writeInt(resolution);
+			output.writeDouble(interval);
+
+			byte[][] names = new byte[traces.size()][];
+			int i = 0;
+			long namesSize = 0;
+			for (String name : traces.keySet()) {
+				names[i] = name.getBytes(StandardCharsets.UTF_8);
+				namesSize += 4 + names[i].length;
+				i++;
+			}
+			long offset = HEADER_SIZE + 4L * names.length + namesSize;
+			if (offset + (long) names.length * sampleCount * bytesPerSample > Integer.MAX_VALUE) {
+				throw new IOException("Too many utilization samples");
+			}
+			for (i = 0; i < names.length; i++) {
+				output.writeInt((int) offset);
+				offset += (long) sampleCount * bytesPerSample;
+			}
+			for (byte[] name : names) {
+				output.writeInt(name.length);
+				output.write(name);
+			}
+
+			for (double[] trace : traces.values()) {
+				for (i = 0; i < sampleCount; i++) {
+					double value = trace.length == 0 ? 0 : trace[Math.min(i, trace.length - 1)];
+					int sample = (int) Math.round(value * resolution);
+					if (bytesPerSample == 2) {
+						output.writeChar(sample);
+					} else {
+						output.writeByte(sample);
+					}
+				}
+			}
+		} finally {
+			output.close();
+		}
+
+		if (!temporaryFile.renameTo(binaryFile)) {
+			binaryFile.delete();
+			if (!temporaryFile.renameTo(binaryFile)) {
+				temporaryFile.delete();
+				throw new IOException("Cannot write the utilization trace store " + binaryFile);
+			}
+		}
+	}
+
+	/**
+	 * Gets the number of traces in the store.
+	 *
+	 * @return the number of traces
+	 */
+	public int getTraceCount() {
+		return traceCount;
+	}
+
+	/**
+	 * Gets the number of samples of each trace.
+	 *
+	 * @return the number of samples
+	 */
+	public int getSampleCount() {
+		return sampleCount;
+	}
+
+	/**
+	 * Gets the time between samples.
+	 *
+	 * @return the interval
+	 */
+	public double getInterval() {
+		return interval;
+	}
+
+	/**
+	 * Gets the name of a trace, that is the name of the file or VM it was read from.
+	 *
+	 * @param index the index of the trace, between 0 and {@link #getTraceCount()} - 1
+	 * @return the name of the trace
+	 */
+	public String getTraceName(int index) {
+		return getNames()[index];
+	}
+
+	/**
+	 * Gets the index of a trace.
+	 *
+	 * @param name the name of the trace, that is the name of the file or VM it was read from
+	 * @return the index of the trace, or a negative number if there is no trace with that name
+	 */
+	public int indexOf(String name) {
+		return Arrays.binarySearch(getNames(), name);
+	}
+
+	/**
+	 * Gets a read-only view of a trace.
+	 *
+	 * @param index the index of the trace, between 0 and {@link #getTraceCount()} - 1
+	 * @return the trace
+	 */
+	public UtilizationTrace getTrace(int index) {
+		if (index < 0 || index >= traceCount) {
+			throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + traceCount);
+		}
+		return new UtilizationTrace(buffer, getTraceOffset(index), sampleCount, wide, resolution);
+	}
+
+	/**
+	 * Gets a read-only view of a trace.
+	 *
+	 * @param name the name of the trace, that is the name of the file or VM it was read from
+	 * @return the trace
+	 * @throws IllegalArgumentException if there is no trace with that name
+	 */
+	public UtilizationTrace getTrace(String name) {
+		int index = indexOf(name);
+		if (index < 0) {
+			throw new IllegalArgumentException("There is no utilization trace " + name);
+		}
+		return getTrace(index);
+	}
+
+	/**
+	 * Creates a utilization model that follows a trace, taking the
+	 * {@link #getInterval() interval} of the store as the time between samples.
+	 *
+	 * @param index the index of the trace, between 0 and {@link #getTraceCount()} - 1
+	 * @return the utilization model
+	 */
+	public UtilizationModelPlanetLabInMemory createUtilizationModel(int index) {
+		return new UtilizationModelPlanetLabInMemory(getTrace(index), getInterval());
+	}
+
+	/**
+	 * Creates a utilization model that follows a trace, taking the
+	 * {@link #getInterval() interval} of the store as the time between samples.
+	 *
+	 * @param name the name of the trace, that is the name of the file or VM it was read from
+	 * @return the utilization model
+	 * @throws IllegalArgumentException if there is no trace with that name
+	 */
+	public UtilizationModelPlanetLabInMemory createUtilizationModel(String name) {
+		return new UtilizationModelPlanetLabInMemory(getTrace(name), getInterval());
+	}
+
+	/**
+	 * Gets the position of a trace in the binary file.
+	 *
+	 * @param index the index of the trace
+	 * @return the position of its first sample
+	 */
+	private int getTraceOffset(int index) {
+		return buffer.getInt(HEADER_SIZE + 4 * index);
+	}
+
+	/**
+	 * Gets the names of the traces, decoding them the first time.
+	 *
+	 * @return the names, in ascending order
+	 */
+	private synchronized String[] getNames() {
+		if (names == null) {
+			String[] decoded = new String[traceCount];
+			int position = HEADER_SIZE + 4 * traceCount;
+			for (int i = 0; i < traceCount; i++) {
+				int length = buffer.getInt(position);
+				byte[] name = new byte[length];
+				for (int j = 0; j < length; j++) {
+					name[j] = buffer.get(position + 4 + j);
+				}
+				decoded[i] = new String(name, StandardCharsets.UTF_8);
+				position += 4 + length;
+			}
+			names = decoded;
+		}
+		return names;
+	}
+
+	/**
+	 * Checks if the store still corresponds to the contents of a folder.
+	 *
+	 * @param folder the folder the store was packed from
+	 * @return true, if no file of the folder was added, removed or modified since the store was packed
+	 */
+	private boolean isUpToDate(File folder) {
+		File[] files = UtilizationTraceConverter.listTraceFiles(folder);
+		return traceCount == files.length && buffer.getLong(8) == getFolderStamp(files);
+	}
+
+	/**
+	 * Checks if a binary file still corresponds to the contents of a folder.
+	 *
+	 * @param binaryFile the binary file
+	 * @param folder the folder the binary file was packed from
+	 * @return true, if the binary file is valid and no file of the folder was added, removed or
+	 * modified since it was packed
+	 * @throws IOException if the binary file cannot be read
+	 */
+	private static boolean isUpToDate(File binaryFile, File folder) throws IOException {
+		File[] files = UtilizationTraceConverter.listTraceFiles(folder);
+		RandomAccessFile file = new RandomAccessFile(binaryFile, "r");
+		try {
+			return file.length() >= HEADER_SIZE
+					&& file.readInt() == MAGIC
+					&& file.readInt() == VERSION
+					&& file.readLong() == getFolderStamp(files)
+					&& file.readInt() == files.length;
+		} finally {
+			file.close();
+		}
+	}
+
+	/**
+	 * Maps a binary file into memory.
+	 *
+	 * @param binaryFile the binary file
+	 * @return the read-only mapping of the whole file
+	 * @throws IOException if the file cannot be mapped
+	 */
+	private static ByteBuffer map(File binaryFile) throws IOException {
+		RandomAccessFile file = new RandomAccessFile(binaryFile, "r");
+		try {
+			FileChannel channel = file.getChannel();
+			if (channel.size() > Integer.MAX_VALUE) {
+				throw new IOException("The utilization trace store " + binaryFile + " is too large");
+			}
+			// the mapping stays valid after the channel is closed
+			return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+		} finally {
+			file.close();
+		}
+	}
+
+}
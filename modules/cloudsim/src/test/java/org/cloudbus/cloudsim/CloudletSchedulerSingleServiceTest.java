@@ -101,6 +101,41 @@ public class CloudletSchedulerSingleServiceTest {
 		assertEquals(requestedMips, vmScheduler.getCurrentRequestedMips());
 	}
 
+	@Test
+	public void testGetCurrentRequestedMipsArrayWithListOverride() {
+		final List<Double> requestedMips = new ArrayList<Double>();
+		requestedMips.add(MIPS / 2);
+		requestedMips.add(MIPS / 4);
+		CloudletScheduler scheduler = new CloudletSchedulerTimeShared() {
+
+			@Override
+			public List<Double> getCurrentRequestedMips() {
+				return requestedMips;
+			}
+		};
+
+		double[] requestedMipsArray = scheduler.getCurrentRequestedMipsArray();
+		assertEquals(2, requestedMipsArray.length);
+		assertEquals(MIPS / 2, requestedMipsArray[0], 0);
+		assertEquals(MIPS / 4, requestedMipsArray[1], 0);
+	}
+
+	@Test
+	public void testGetCurrentMipsShareView() {
+		assertEquals(null, vmScheduler.getCurrentMipsShare());
+
+		List<Double> mipsShare = new ArrayList<Double>();
+		mipsShare.add(MIPS);
+		mipsShare.add(MIPS);
+		vmScheduler.setCurrentMipsShare(mipsShare);
+
+		List<Double> currentMipsShare = vmScheduler.getCurrentMipsShare();
+		assertSame(currentMipsShare, vmScheduler.getCurrentMipsShare());
+		currentMipsShare.set(1, MIPS / 2);
+		assertEquals(MIPS / 2, vmScheduler.getCurrentMipsShareArray()[1], 0);
+		assertEquals(MIPS / 2, vmScheduler.getCurrentMipsShare().get(1), 0);
+	}
+
 	@Test
 	public void testGetTotalUtilization() {
 		UtilizationModelStochastic utilizationModel = new UtilizationModelStochastic();
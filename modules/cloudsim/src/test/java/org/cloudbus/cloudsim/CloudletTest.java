@@ -92,4 +92,29 @@ public class CloudletTest {
 		testGetUtilizationOfBw();
 	}
 
+	@Test
+	public void testUtilizationComputedOncePerTime() {
+		final int[] calls = new int[1];
+		UtilizationModel countingModel = new UtilizationModel() {
+			@Override
+			public double getUtilization(double time) {
+				calls[0]++;
+				return time / 10;
+			}
+		};
+		// the model is asked at each request unless it is cached
+		cloudlet.setUtilizationModelCpu(countingModel);
+		assertEquals(0.1, cloudlet.getUtilizationOfCpu(1), 0);
+		assertEquals(0.1, cloudlet.getUtilizationOfCpu(1), 0);
+		assertEquals(2, calls[0]);
+
+		calls[0] = 0;
+		cloudlet.setUtilizationModelCpu(new UtilizationModelCached(countingModel));
+		assertEquals(0.1, cloudlet.getUtilizationOfCpu(1), 0);
+		assertEquals(0.1, cloudlet.getUtilizationOfCpu(1), 0);
+		assertEquals(1, calls[0]);
+		assertEquals(0.2, cloudlet.getUtilizationOfCpu(2), 0);
+		assertEquals(2, calls[0]);
+	}
+
 }
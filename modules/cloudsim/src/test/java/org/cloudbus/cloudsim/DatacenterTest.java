@@ -0,0 +1,248 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Calendar;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+
+import org.cloudbus.cloudsim.core.CloudSim;
+import org.cloudbus.cloudsim.core.CloudSimTags;
+import org.cloudbus.cloudsim.core.SimEntity;
+import org.cloudbus.cloudsim.core.SimEvent;
+import org.cloudbus.cloudsim.provisioners.BwProvisionerSimple;
+import org.cloudbus.cloudsim.provisioners.PeProvisionerSimple;
+import org.cloudbus.cloudsim.provisioners.RamProvisionerSimple;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * @since		CloudSim Toolkit 4.0
+ */
+public class DatacenterTest {
+
+	private static final int HOSTS_NUMBER = 500;
+
+	private static final ByteArrayOutputStream OUTPUT = new ByteArrayOutputStream();
+
+	private Datacenter datacenter;
+
+	private List<Host> hostList;
+
+	@Before
+	public void setUp() throws Exception {
+		CloudSim.init(1, Calendar.getInstance(), false);
+
+		hostList = new ArrayList<Host>();
+		for (int i = 0; i < HOSTS_NUMBER; i++) {
+			List<Pe> peList = new ArrayList<Pe>();
+			peList.add(new Pe(0, new PeProvisionerSimple(1000)));
+			hostList.add(new Host(
+					i,
+					new RamProvisionerSimple(1024),
+					new BwProvisionerSimple(10000),
+					Consts.MILLION,
+					peList,
+					new VmSchedulerTimeShared(peList)));
+		}
+		DatacenterCharacteristics characteristics = new DatacenterCharacteristics(
+				"x86", "Linux", "Xen", hostList, 10.0, 3.0, 0.05, 0.001, 0.0);
+		datacenter = new Datacenter(
+				"Datacenter",
+				characteristics,
+				new VmAllocationPolicySimple(hostList),
+				new ArrayList<Storage>(),
+				0);
+
+		Log.setOutput(OUTPUT);
+		OUTPUT.reset();
+	}
+
+	@After
+	public void tearDown() {
+		Log.setOutput(null);
+	}
+
+	@Test
+	public void testProcessHostsInParallel() {
+		Datacenter.HostFunction<Host> function = new Datacenter.HostFunction<Host>() {
+			@Override
+			public double apply(Host host) {
+				Log.printConcatLine("Host #", host.getId());
+				return host.getId() * 2;
+			}
+		};
+
+		double[] expected = datacenter.processHosts(hostList, function);
+		String expectedOutput = OUTPUT.toString();
+		OUTPUT.reset();
+
+		ForkJoinPool pool = new ForkJoinPool(4);
+		try {
+			datacenter.setHostUpdatePool(pool);
+			for (int i = 0; i < 10; i++) {
+				assertArrayEquals(expected, datacenter.processHosts(hostList, function), 0);
+				assertEquals(expectedOutput, OUTPUT.toString());
+				OUTPUT.reset();
+			}
+		} finally {
+			pool.shutdown();
+		}
+		assertEquals(HOSTS_NUMBER * 2 - 2, expected[HOSTS_NUMBER - 1], 0);
+	}
+
+	@Test
+	public void testVmCreateBatch() throws Exception {
+		Map<Integer, Integer> expectedHosts = new HashMap<Integer, Integer>();
+		int[] expectedEvents = new int[2];
+		runSimulation(false, expectedHosts, expectedEvents);
+		Map<Integer, Integer> hosts = new HashMap<Integer, Integer>();
+		int[] events = new int[2];
+		runSimulation(true, hosts, events);
+
+		assertEquals(expectedHosts, hosts);
+		// more VMs than hosts, so that some of them fail
+		assertEquals(HOSTS_NUMBER, hosts.size());
+		assertEquals(HOSTS_NUMBER + 20, expectedEvents[0]);
+		assertEquals(0, expectedEvents[1]);
+		assertEquals(0, events[0]);
+		assertEquals(1, events[1]);
+	}
+
+	@Test
+	public void testVmCreateBatchAckToUser() throws Exception {
+		assertFalse(new DatacenterBroker("Broker").isVmCreationBatched());
+
+		final List<Integer> acks = new ArrayList<Integer>();
+		final SimEntity user = new SimEntity("User") {
+
+			@Override
+			public void startEntity() {
+			}
+
+			@Override
+			public void processEvent(SimEvent ev) {
+				acks.add(ev.getTag());
+			}
+
+			@Override
+			public void shutdownEntity() {
+			}
+
+		};
+		// another entity requests the VMs of the user, as a datacenter forwarding them would do
+		new SimEntity("Sender") {
+
+			@Override
+			public void startEntity() {
+				List<Vm> vmList = new ArrayList<Vm>();
+				for (int i = 0; i < 2; i++) {
+					vmList.add(new Vm(i, user.getId(), 1000, 1, 512, 1000, 1000, "Xen",
+							new CloudletSchedulerTimeShared()));
+				}
+				sendNow(datacenter.getId(), CloudSimTags.VM_CREATE_BATCH, vmList);
+			}
+
+			@Override
+			public void processEvent(SimEvent ev) {
+				acks.add(-ev.getTag());
+			}
+
+			@Override
+			public void shutdownEntity() {
+			}
+
+		};
+
+		CloudSim.startSimulation();
+		CloudSim.stopSimulation();
+		assertEquals(Arrays.asList(CloudSimTags.VM_CREATE_BATCH_ACK), acks);
+	}
+
+	/**
+	 * Runs a simulation where a broker creates more VMs than there are hosts.
+	 * 
+	 * @param batched whether the broker creates the VMs in a batch
+	 * @param hosts the id of the host of each VM that was created, by VM id
+	 * @param events the number of VM_CREATE_ACK and of VM_CREATE_BATCH events of the datacenter
+	 */
+	private static void runSimulation(boolean batched, final Map<Integer, Integer> hosts, final int[] events)
+			throws Exception {
+		CloudSim.init(1, Calendar.getInstance(), false);
+		List<Host> hostList = new ArrayList<Host>();
+		for (int i = 0; i < HOSTS_NUMBER; i++) {
+			List<Pe> peList = new ArrayList<Pe>();
+			peList.add(new Pe(0, new PeProvisionerSimple(1000)));
+			hostList.add(new Host(
+					i,
+					new RamProvisionerSimple(1024),
+					new BwProvisionerSimple(10000),
+					Consts.MILLION,
+					peList,
+					new VmSchedulerTimeShared(peList)));
+		}
+		DatacenterCharacteristics characteristics = new DatacenterCharacteristics(
+				"x86", "Linux", "Xen", hostList, 10.0, 3.0, 0.05, 0.001, 0.0);
+		VmAllocationPolicy policy = new VmAllocationPolicySimple(hostList) {
+
+			@Override
+			public boolean allocateHostForVm(Vm vm) {
+				boolean result = super.allocateHostForVm(vm);
+				if (result) {
+					hosts.put(vm.getId(), getHost(vm).getId());
+				}
+				return result;
+			}
+
+		};
+		new Datacenter("Datacenter", characteristics, policy, new ArrayList<Storage>(), 0) {
+
+			@Override
+			public void processEvent(SimEvent ev) {
+				if (ev.getTag() == CloudSimTags.VM_CREATE_ACK) {
+					events[0]++;
+				} else if (ev.getTag() == CloudSimTags.VM_CREATE_BATCH) {
+					events[1]++;
+				}
+				super.processEvent(ev);
+			}
+
+		};
+
+		DatacenterBroker broker = new DatacenterBroker("Broker");
+		broker.setVmCreationBatched(batched);
+		List<Vm> vmList = new ArrayList<Vm>();
+		List<Cloudlet> cloudletList = new ArrayList<Cloudlet>();
+		for (int i = 0; i < HOSTS_NUMBER + 20; i++) {
+			vmList.add(new Vm(i, broker.getId(), 1000, 1, 512, 1000, 1000, "Xen",
+					new CloudletSchedulerTimeShared()));
+			Cloudlet cloudlet = new Cloudlet(i, 1000, 1, 300, 300, new UtilizationModelFull(),
+					new UtilizationModelFull(), new UtilizationModelFull());
+			cloudlet.setUserId(broker.getId());
+			cloudletList.add(cloudlet);
+		}
+		broker.submitVmList(vmList);
+		broker.submitCloudletList(cloudletList.subList(0, HOSTS_NUMBER));
+
+		CloudSim.startSimulation();
+		CloudSim.stopSimulation();
+		assertEquals(HOSTS_NUMBER, broker.getCloudletReceivedList().size());
+	}
+
+}
@@ -117,6 +117,116 @@ public class HostTest {
 		assertEquals(MIPS * 2, host.getVmScheduler().getAvailableMips(), 0);
 	}
 
+	@Test
+	public void testPeCounters() {
+		assertEquals(2, host.getNumberOfFreePes());
+		assertEquals(0, host.getNumberOfBusyPes());
+		assertEquals((int) MIPS * 2, host.getTotalMips());
+		assertSame(peList.get(0), host.getFreePe());
+
+		peList.get(0).setStatusBusy();
+		assertEquals(1, host.getNumberOfFreePes());
+		assertEquals(1, host.getNumberOfBusyPes());
+		assertSame(peList.get(1), host.getFreePe());
+
+		peList.get(1).setStatusFailed();
+		assertEquals(0, host.getNumberOfFreePes());
+		assertEquals(1, host.getNumberOfBusyPes());
+		assertNull(host.getFreePe());
+
+		peList.get(1).setStatusFree();
+		peList.get(1).setMips(MIPS / 2);
+		assertEquals(1, host.getNumberOfFreePes());
+		assertEquals((int) (MIPS * 1.5), host.getTotalMips());
+	}
+
+	@Test
+	public void testDatacenterCharacteristicsAggregates() {
+		List<Pe> peList2 = new ArrayList<Pe>();
+		peList2.add(new Pe(0, new PeProvisionerSimple(MIPS)));
+		Host host2 = new Host(
+			ID + 1,
+			new RamProvisionerSimple(RAM),
+			new BwProvisionerSimple(BW),
+			STORAGE,
+			peList2,
+			new VmSchedulerTimeShared(peList2)
+		);
+		List<Host> hostList = new ArrayList<Host>();
+		hostList.add(host);
+		hostList.add(host2);
+		DatacenterCharacteristics characteristics = new DatacenterCharacteristics(
+				"x86", "Linux", "Xen", hostList, 10.0, 3.0, 0.05, 0.001, 0.0);
+
+		assertEquals(3, characteristics.getNumberOfPes());
+		assertEquals(3, characteristics.getNumberOfFreePes());
+		assertSame(host, characteristics.getHostWithFreePe());
+
+		peList.get(0).setStatusBusy();
+		peList.get(1).setStatusBusy();
+		assertEquals(1, characteristics.getNumberOfFreePes());
+		assertEquals(2, characteristics.getNumberOfBusyPes());
+		assertSame(host2, characteristics.getHostWithFreePe());
+		assertSame(host2, characteristics.getHostWithFreePe(1));
+		assertNull(characteristics.getHostWithFreePe(2));
+
+		assertTrue(characteristics.setPeStatus(Pe.FREE, ID, 1));
+		assertSame(host, characteristics.getHostWithFreePe());
+		assertEquals(2, characteristics.getNumberOfFreePes());
+
+		assertTrue(characteristics.isWorking());
+		host2.setFailed(true);
+		assertEquals(1, characteristics.getNumberOfFailedHosts());
+		assertEquals(1, characteristics.getNumberOfFreePes());
+		host2.setFailed(false);
+		assertEquals(0, characteristics.getNumberOfFailedHosts());
+
+		peList2.get(0).setMips(MIPS * 2);
+		characteristics.setAllocationPolicy(DatacenterCharacteristics.SPACE_SHARED);
+		assertEquals((int) MIPS * 4, characteristics.getMips());
+	}
+
+	@Test
+	public void testDatacenterCharacteristicsAfterHostChanges() {
+		List<Host> hostList = new ArrayList<Host>();
+		hostList.add(host);
+		DatacenterCharacteristics characteristics = new DatacenterCharacteristics(
+				"x86", "Linux", "Xen", hostList, 10.0, 3.0, 0.05, 0.001, 0.0);
+		characteristics.setAllocationPolicy(DatacenterCharacteristics.SPACE_SHARED);
+		assertEquals(2, characteristics.getNumberOfPes());
+		assertEquals((int) MIPS * 2, characteristics.getMips());
+
+		// a PE added to the list of the host
+		peList.add(new Pe(2, new PeProvisionerSimple(MIPS)));
+		assertEquals(3, host.getNumberOfFreePes());
+		assertEquals(3, characteristics.getNumberOfPes());
+		assertEquals(3, characteristics.getNumberOfFreePes());
+		assertEquals((int) MIPS * 3, characteristics.getMips());
+
+		// the MIPS of a PE changed through its provisioner
+		peList.get(2).getPeProvisioner().setMips(MIPS * 2);
+		assertEquals((int) MIPS * 4, host.getTotalMips());
+		assertEquals((int) MIPS * 4, characteristics.getMips());
+
+		// a host replaced in the list
+		List<Pe> peList2 = new ArrayList<Pe>();
+		peList2.add(new Pe(0, new PeProvisionerSimple(MIPS)));
+		Host host2 = new Host(
+			ID + 1,
+			new RamProvisionerSimple(RAM),
+			new BwProvisionerSimple(BW),
+			STORAGE,
+			peList2,
+			new VmSchedulerTimeShared(peList2)
+		);
+		hostList.set(0, host2);
+		assertEquals(1, characteristics.getNumberOfPes());
+		assertEquals((int) MIPS, characteristics.getMips());
+		assertSame(host2, characteristics.getHostWithFreePe());
+		peList2.get(0).setStatusBusy();
+		assertNull(characteristics.getHostWithFreePe());
+	}
+
 	@Ignore
 	@Test
 	public void testUpdateVmsProcessing() {
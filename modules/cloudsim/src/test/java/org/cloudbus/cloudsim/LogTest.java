@@ -175,4 +175,18 @@ public class LogTest {
 		OUTPUT.reset();
 	}
 
+	@Test
+	public void testDeferring() throws IOException {
+		Log.startDeferring();
+		Log.print("test ");
+		Log.printConcatLine("test", 1);
+		assertEquals("", OUTPUT.toString());
+		assertEquals("test test1" + LINE_SEPARATOR, Log.stopDeferring());
+		assertEquals("", Log.stopDeferring());
+
+		Log.print("test test");
+		assertEquals("test test", OUTPUT.toString());
+		OUTPUT.reset();
+	}
+
 }
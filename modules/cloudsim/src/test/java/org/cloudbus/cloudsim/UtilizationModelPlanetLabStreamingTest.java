@@ -0,0 +1,144 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Random;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * @since		CloudSim Toolkit 4.0
+ */
+public class UtilizationModelPlanetLabStreamingTest {
+
+	public static final double SCHEDULING_INTERVAL = 300;
+
+	public static final String FILE = "146-179_surfsnel_dsl_internl_net_colostate_557.dat";
+
+	private String path;
+
+	private UtilizationModelPlanetLabInMemory expected;
+
+	@Rule
+	public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+	@Before
+	public void setUp() throws Exception {
+		path = getClass().getClassLoader().getResource(FILE).getPath();
+		expected = new UtilizationModelPlanetLabInMemory(path, SCHEDULING_INTERVAL);
+	}
+
+	@Test
+	public void testForward() throws FileNotFoundException {
+		// 288 samples are an exact number of chunks of 8 samples, but not of 11 samples
+		for (int windowSize : new int[] { 16, 22, UtilizationModelPlanetLabStreaming.DEFAULT_WINDOW_SIZE }) {
+			UtilizationModelPlanetLabStreaming model = new UtilizationModelPlanetLabStreaming(
+					path, SCHEDULING_INTERVAL, windowSize);
+			for (double time = 0; time <= 288 * SCHEDULING_INTERVAL; time += SCHEDULING_INTERVAL / 3) {
+				assertEquals(expected.getUtilization(time), model.getUtilization(time), 0);
+			}
+			// after the end of the trace, the last sample is repeated
+			assertEquals(0.51, model.getUtilization(1000 * SCHEDULING_INTERVAL), 0);
+		}
+	}
+
+	@Test
+	public void testChunkBoundary() throws FileNotFoundException {
+		UtilizationModelPlanetLabStreaming model = new UtilizationModelPlanetLabStreaming(
+				path, SCHEDULING_INTERVAL, 16);
+		for (double time = 0; time <= 288 * SCHEDULING_INTERVAL; time += SCHEDULING_INTERVAL / 3) {
+			for (int i = 0; i < 3; i++) {
+				assertEquals(expected.getUtilization(time), model.getUtilization(time), 0);
+			}
+		}
+		// interpolating across a chunk boundary doesn't read the previous chunk again
+		assertEquals(288 / 8, model.getChunkReads());
+	}
+
+	@Test
+	public void testRandomAccess() throws FileNotFoundException {
+		UtilizationModelPlanetLabStreaming model = new UtilizationModelPlanetLabStreaming(
+				path, SCHEDULING_INTERVAL, 10);
+		Random random = new Random(0);
+		for (int i = 0; i < 500; i++) {
+			double time = random.nextDouble() * 288 * SCHEDULING_INTERVAL;
+			assertEquals(expected.getUtilization(time), model.getUtilization(time), 0);
+		}
+	}
+
+	@Test
+	public void testWhiteSpace() throws IOException {
+		File file = write(" 10\r\n20\t\n\n30  \n");
+		UtilizationModelPlanetLabStreaming model = new UtilizationModelPlanetLabStreaming(
+				file.getPath(), SCHEDULING_INTERVAL, 2);
+		assertEquals(0.1, model.getUtilization(0), 0);
+		assertEquals(0.2, model.getUtilization(SCHEDULING_INTERVAL), 0);
+		assertEquals(0.3, model.getUtilization(2 * SCHEDULING_INTERVAL), 0);
+	}
+
+	@Test
+	public void testInvalidCharacter() throws IOException {
+		// the error is in the second chunk, after a blank line
+		File file = write("10\n20\n\n30\n4O\n");
+		UtilizationModelPlanetLabStreaming model = new UtilizationModelPlanetLabStreaming(
+				file.getPath(), SCHEDULING_INTERVAL, 4);
+		assertEquals(0.1, model.getUtilization(0), 0);
+		try {
+			model.getUtilization(3 * SCHEDULING_INTERVAL);
+			fail();
+		} catch (IllegalStateException e) {
+			assertTrue(e.getCause() instanceof IOException);
+			String message = e.getCause().getMessage();
+			assertTrue(message, message.contains("line 5"));
+			assertTrue(message, message.contains(file.getPath()));
+		}
+	}
+
+	@Test
+	public void testDecimalValue() throws IOException {
+		File file = write("10\n20.5\n");
+		UtilizationModelPlanetLabStreaming model = new UtilizationModelPlanetLabStreaming(
+				file.getPath(), SCHEDULING_INTERVAL, 16);
+		try {
+			model.getUtilization(0);
+			fail();
+		} catch (IllegalStateException e) {
+			assertTrue(e.getCause().getMessage(), e.getCause().getMessage().contains("line 2"));
+		}
+	}
+
+	private File write(String content) throws IOException {
+		File file = temporaryFolder.newFile();
+		Writer writer = new FileWriter(file);
+		try {
+			writer.write(content);
+		} finally {
+			writer.close();
+		}
+		return file;
+	}
+
+	@Test(expected = FileNotFoundException.class)
+	public void testMissingFile() throws FileNotFoundException {
+		new UtilizationModelPlanetLabStreaming(path + ".missing", SCHEDULING_INTERVAL);
+	}
+
+}
@@ -45,4 +45,17 @@ public class UtilizationModelStochasticTest {
 		assertEquals(utilization1, utilizationModel.getUtilization(1), 0);
 	}
 
+	@Test
+	public void testHistoryLimit() {
+		utilizationModel = new UtilizationModelStochastic(1, 3);
+		UtilizationModelStochastic unbounded = new UtilizationModelStochastic(1);
+		for (int time = 0; time < 10; time++) {
+			assertEquals(unbounded.getUtilization(time), utilizationModel.getUtilization(time), 0);
+			assertEquals(unbounded.getUtilization(time), utilizationModel.getUtilization(time), 0);
+		}
+		assertEquals(3, utilizationModel.getHistory().size());
+		assertEquals(10, unbounded.getHistory().size());
+		assertEquals(unbounded.getUtilization(8), utilizationModel.getUtilization(8), 0);
+	}
+
 }
@@ -0,0 +1,292 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import org.cloudbus.cloudsim.provisioners.BwProvisionerSimple;
+import org.cloudbus.cloudsim.provisioners.PeProvisionerSimple;
+import org.cloudbus.cloudsim.provisioners.RamProvisionerSimple;
+import org.junit.Test;
+
+/**
+ * @since		CloudSim Toolkit 4.0
+ */
+public class VmAllocationPolicyBinPackingTest {
+
+	private interface Factory {
+
+		VmAllocationPolicyBinPacking create(List<Host> hosts);
+
+	}
+
+	private static final Factory FIRST_FIT = new Factory() {
+
+		@Override
+		public VmAllocationPolicyBinPacking create(List<Host> hosts) {
+			return new VmAllocationPolicyFirstFit(hosts);
+		}
+
+	};
+
+	private static final Factory BEST_FIT = new Factory() {
+
+		@Override
+		public VmAllocationPolicyBinPacking create(List<Host> hosts) {
+			return new VmAllocationPolicyBestFit(hosts);
+		}
+
+	};
+
+	private static final Factory DOT_PRODUCT = new Factory() {
+
+		@Override
+		public VmAllocationPolicyBinPacking create(List<Host> hosts) {
+			return new VmAllocationPolicyDotProduct(hosts);
+		}
+
+	};
+
+	private static final Factory L2_NORM = new Factory() {
+
+		@Override
+		public VmAllocationPolicyBinPacking create(List<Host> hosts) {
+			return new VmAllocationPolicyL2Norm(hosts);
+		}
+
+	};
+
+	@Test
+	public void testFirstFitSamePlacementsAsLinearScan() {
+		assertSamePlacementsAsLinearScan(FIRST_FIT);
+	}
+
+	@Test
+	public void testBestFitSamePlacementsAsLinearScan() {
+		assertSamePlacementsAsLinearScan(BEST_FIT);
+	}
+
+	@Test
+	public void testDotProductSamePlacementsAsLinearScan() {
+		assertSamePlacementsAsLinearScan(DOT_PRODUCT);
+	}
+
+	@Test
+	public void testL2NormSamePlacementsAsLinearScan() {
+		assertSamePlacementsAsLinearScan(L2_NORM);
+	}
+
+	@Test
+	public void testFirstFitPlacesOnFirstSuitableHost() {
+		List<Host> hosts = createHosts(3);
+		VmAllocationPolicyBinPacking policy = new VmAllocationPolicyFirstFit(hosts);
+		Vm vm = createVm(0, 1, 500, 128);
+		assertEquals(true, policy.allocateHostForVm(vm));
+		assertSame(hosts.get(0), policy.getHost(vm));
+		assertSame(hosts.get(0), policy.getHost(vm.getId(), vm.getUserId()));
+		assertFalse(policy.allocateHostForVm(vm));
+
+		policy.deallocateHostForVm(vm);
+		assertNull(policy.getHost(vm));
+		assertEquals(0, hosts.get(0).getVmList().size());
+	}
+
+	@Test
+	public void testHostChangedByOtherMeans() {
+		List<Host> hosts = createHosts(3);
+		VmAllocationPolicyBinPacking policy = new VmAllocationPolicyFirstFit(hosts);
+		Vm vm = createVm(0, 1, 250, hosts.get(0).getRamProvisioner().getAvailableRam());
+		assertEquals(true, policy.allocateHostForVm(vm));
+		assertSame(hosts.get(0), policy.getHost(vm));
+
+		// the host is freed without the policy, at the same simulation time
+		hosts.get(0).vmDestroy(vm);
+		Vm other = createVm(1, 1, 250, 128);
+		assertEquals(true, policy.allocateHostForVm(other));
+		assertSame(hosts.get(0), policy.getHost(other));
+	}
+
+	@Test
+	public void testUpdateChangedReadsChangedHostsOnly() {
+		final int[] reads = new int[4];
+		List<Host> hosts = new ArrayList<Host>();
+		for (int i = 0; i < reads.length; i++) {
+			List<Pe> peList = new ArrayList<Pe>();
+			peList.add(new Pe(0, new PeProvisionerSimple(1000)));
+			hosts.add(new Host(i, new RamProvisionerSimple(1024), new BwProvisionerSimple(10000), 10000, peList,
+					new VmSchedulerTimeShared(peList)) {
+
+				@Override
+				public long getStorage() {
+					reads[getId()]++;
+					return super.getStorage();
+				}
+			});
+		}
+		HostCapacityIndex index = new HostCapacityIndex(hosts);
+		assertEquals(0, index.updateChanged());
+
+		assertEquals(true, hosts.get(2).vmCreate(createVm(0, 1, 250, 128)));
+		Arrays.fill(reads, 0);
+		assertEquals(1, index.updateChanged());
+		assertEquals(0, reads[0]);
+		assertEquals(0, reads[1]);
+		assertEquals(0, reads[3]);
+		assertEquals(true, reads[2] > 0);
+
+		Arrays.fill(reads, 0);
+		assertEquals(0, index.updateChanged());
+		assertEquals(0, reads[2]);
+	}
+
+	@Test
+	public void testAllocateHostsForVmsFromGreatest() {
+		List<Host> hosts = createHosts(50);
+		List<Host> expectedHosts = createHosts(50);
+		VmAllocationPolicyBinPacking policy = new VmAllocationPolicyBestFit(hosts);
+		VmAllocationPolicyBinPacking expectedPolicy = new VmAllocationPolicyBestFit(expectedHosts);
+
+		Random random = new Random(3);
+		List<Vm> vms = new ArrayList<Vm>();
+		List<Vm> expectedVms = new ArrayList<Vm>();
+		for (int i = 0; i < 300; i++) {
+			int pes = 1 + random.nextInt(4);
+			double mips = 250 * (1 + random.nextInt(4));
+			int ram = 128 * (1 + random.nextInt(16));
+			vms.add(createVm(i, pes, mips, ram));
+			expectedVms.add(createVm(i, pes, mips, ram));
+		}
+		Log.disable();
+		boolean[] results;
+		List<Vm> sortedVms = new ArrayList<Vm>(expectedVms);
+		try {
+			results = policy.allocateHostsForVms(vms);
+			sortedVms.sort(expectedPolicy.getVmComparator());
+			for (Vm vm : sortedVms) {
+				expectedPolicy.allocateHostForVm(vm);
+			}
+		} finally {
+			Log.enable();
+		}
+		for (int i = 1; i < sortedVms.size(); i++) {
+			assertFalse(expectedPolicy.getSize(sortedVms.get(i - 1)) < expectedPolicy.getSize(sortedVms.get(i)));
+		}
+		for (int i = 0; i < vms.size(); i++) {
+			Host expectedHost = expectedPolicy.getHost(expectedVms.get(i));
+			assertEquals(expectedHost != null, results[i]);
+			assertEquals(expectedHosts.indexOf(expectedHost), hosts.indexOf(policy.getHost(vms.get(i))));
+		}
+	}
+
+	private void assertSamePlacementsAsLinearScan(Factory factory) {
+		// the failed VM creations are logged
+		Log.disable();
+		try {
+			List<Host> hosts = createHosts(300);
+			List<Host> expectedHosts = createHosts(300);
+			VmAllocationPolicyBinPacking policy = factory.create(hosts);
+			VmAllocationPolicyBinPacking scorer = factory.create(expectedHosts);
+			HostCapacityIndex capacityIndex = new HostCapacityIndex(expectedHosts);
+
+			Random random = new Random(9);
+			List<Vm> vms = new ArrayList<Vm>();
+			List<Vm> expectedVms = new ArrayList<Vm>();
+			for (int i = 0; i < 3000; i++) {
+				if (!vms.isEmpty() && random.nextInt(4) == 0) {
+					int index = random.nextInt(vms.size());
+					policy.deallocateHostForVm(vms.remove(index));
+					Vm expectedVm = expectedVms.remove(index);
+					if (expectedVm.getHost() != null) {
+						expectedVm.getHost().vmDestroy(expectedVm);
+					}
+					continue;
+				}
+				int pes = 1 + random.nextInt(4);
+				double mips = 250 * (1 + random.nextInt(4));
+				int ram = 128 * (1 + random.nextInt(16));
+				Vm vm = createVm(i, pes, mips, ram);
+				Vm expectedVm = createVm(i, pes, mips, ram);
+				boolean allocated = policy.allocateHostForVm(vm);
+				int expectedIdx = allocate(expectedHosts, capacityIndex, scorer, expectedVm);
+				assertEquals(expectedIdx != -1, allocated);
+				assertEquals(expectedIdx, hosts.indexOf(policy.getHost(vm)));
+				vms.add(vm);
+				expectedVms.add(expectedVm);
+			}
+		} finally {
+			Log.enable();
+		}
+	}
+
+	/**
+	 * Allocates a VM on the suitable host with the lowest score, the first one on ties,
+	 * checking each host. The index only reads the residual capacities of the hosts.
+	 */
+	private static int allocate(List<Host> hosts, HostCapacityIndex index,
+			VmAllocationPolicyBinPacking scorer, Vm vm) {
+		index.updateAll();
+		double[] demand = index.getDemand(vm);
+		double[] residual = new double[HostCapacityIndex.DIMENSIONS];
+		double bestScore = Double.POSITIVE_INFINITY;
+		int bestIdx = -1;
+		for (int i = 0; i < hosts.size(); i++) {
+			Host host = hosts.get(i);
+			if (!host.isSuitableForVm(vm) || host.getStorage() < vm.getSize()) {
+				continue;
+			}
+			for (int k = 0; k < residual.length; k++) {
+				residual[k] = index.getResidual(i, k);
+			}
+			double score = scorer.getScore(residual, 0, demand);
+			if (score < bestScore) {
+				bestScore = score;
+				bestIdx = i;
+			}
+		}
+		if (bestIdx != -1 && !hosts.get(bestIdx).vmCreate(vm)) {
+			throw new AssertionError(Arrays.toString(demand));
+		}
+		return bestIdx;
+	}
+
+	private static List<Host> createHosts(int count) {
+		Random random = new Random(4);
+		List<Host> hosts = new ArrayList<Host>();
+		for (int i = 0; i < count; i++) {
+			List<Pe> peList = new ArrayList<Pe>();
+			int pes = 1 + random.nextInt(8);
+			double mips = 1000 * (1 + random.nextInt(3));
+			for (int j = 0; j < pes; j++) {
+				peList.add(new Pe(j, new PeProvisionerSimple(mips)));
+			}
+			hosts.add(new Host(
+					i,
+					new RamProvisionerSimple(1024 * (1 + random.nextInt(8))),
+					new BwProvisionerSimple(10000 * (1 + random.nextInt(4))),
+					10000 * (1 + random.nextInt(4)),
+					peList,
+					new VmSchedulerTimeShared(peList)));
+		}
+		return hosts;
+	}
+
+	private static Vm createVm(int id, int pes, double mips, int ram) {
+		return new Vm(id, 0, mips, pes, ram, 1000 * (1 + id % 5), 2500 * (1 + id % 3), "Xen",
+				new CloudletSchedulerTimeShared());
+	}
+
+}
@@ -0,0 +1,134 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.cloudbus.cloudsim.provisioners.BwProvisionerSimple;
+import org.cloudbus.cloudsim.provisioners.PeProvisionerSimple;
+import org.cloudbus.cloudsim.provisioners.RamProvisionerSimple;
+import org.junit.Test;
+
+/**
+ * @since		CloudSim Toolkit 4.0
+ */
+public class VmAllocationPolicySimpleTest {
+
+	private static final double MIPS = 1000;
+
+	@Test
+	public void testSamePlacementsAsLinearScan() {
+		// the failed VM creations are logged
+		Log.disable();
+		try {
+			assertSamePlacementsAsLinearScan();
+		} finally {
+			Log.enable();
+		}
+	}
+
+	private void assertSamePlacementsAsLinearScan() {
+		List<Host> hosts = createHosts(200);
+		List<Host> expectedHosts = createHosts(200);
+		VmAllocationPolicySimple policy = new VmAllocationPolicySimple(hosts);
+		List<Integer> freePes = new ArrayList<Integer>();
+		for (Host host : expectedHosts) {
+			freePes.add(host.getNumberOfPes());
+		}
+
+		Random random = new Random(9);
+		List<Vm> vms = new ArrayList<Vm>();
+		List<Vm> expectedVms = new ArrayList<Vm>();
+		for (int i = 0; i < 2000; i++) {
+			if (!vms.isEmpty() && random.nextInt(4) == 0) {
+				int index = random.nextInt(vms.size());
+				policy.deallocateHostForVm(vms.remove(index));
+				Vm expectedVm = expectedVms.remove(index);
+				int idx = expectedHosts.indexOf(expectedVm.getHost());
+				if (idx != -1) {
+					expectedVm.getHost().vmDestroy(expectedVm);
+					freePes.set(idx, freePes.get(idx) + expectedVm.getNumberOfPes());
+				}
+				continue;
+			}
+			int pes = 1 + random.nextInt(3);
+			int ram = 128 * (1 + random.nextInt(8));
+			Vm vm = createVm(i, pes, ram);
+			Vm expectedVm = createVm(i, pes, ram);
+			boolean allocated = policy.allocateHostForVm(vm);
+			int expectedIdx = allocate(expectedHosts, freePes, expectedVm);
+			assertEquals(expectedIdx != -1, allocated);
+			assertEquals(expectedIdx, hosts.indexOf(policy.getHost(vm)));
+			vms.add(vm);
+			expectedVms.add(expectedVm);
+		}
+		for (int i = 0; i < hosts.size(); i++) {
+			assertEquals(freePes.get(i), policy.getFreePes().get(i));
+		}
+		for (Vm vm : vms) {
+			if (policy.getHost(vm) != null) {
+				// a VM is created once
+				assertFalse(policy.allocateHostForVm(vm));
+			}
+		}
+	}
+
+	/**
+	 * Allocates a VM as the linear scan over a copy of the free PEs did.
+	 */
+	private static int allocate(List<Host> hosts, List<Integer> freePes, Vm vm) {
+		List<Integer> freePesTmp = new ArrayList<Integer>(freePes);
+		for (int tries = 0; tries < freePes.size(); tries++) {
+			int moreFree = Integer.MIN_VALUE;
+			int idx = -1;
+			for (int i = 0; i < freePesTmp.size(); i++) {
+				if (freePesTmp.get(i) > moreFree) {
+					moreFree = freePesTmp.get(i);
+					idx = i;
+				}
+			}
+			if (hosts.get(idx).vmCreate(vm)) {
+				freePes.set(idx, freePes.get(idx) - vm.getNumberOfPes());
+				return idx;
+			}
+			freePesTmp.set(idx, Integer.MIN_VALUE);
+		}
+		return -1;
+	}
+
+	private static List<Host> createHosts(int count) {
+		Random random = new Random(4);
+		List<Host> hosts = new ArrayList<Host>();
+		for (int i = 0; i < count; i++) {
+			List<Pe> peList = new ArrayList<Pe>();
+			int pes = 1 + random.nextInt(8);
+			for (int j = 0; j < pes; j++) {
+				peList.add(new Pe(j, new PeProvisionerSimple(MIPS)));
+			}
+			hosts.add(new Host(
+					i,
+					new RamProvisionerSimple(512 * (1 + random.nextInt(8))),
+					new BwProvisionerSimple(1000000),
+					Consts.MILLION,
+					peList,
+					new VmSchedulerTimeShared(peList)));
+		}
+		return hosts;
+	}
+
+	private static Vm createVm(int id, int pes, int ram) {
+		return new Vm(id, 0, MIPS, pes, ram, 1000, 1000, "Xen", new CloudletSchedulerTimeShared());
+	}
+
+}
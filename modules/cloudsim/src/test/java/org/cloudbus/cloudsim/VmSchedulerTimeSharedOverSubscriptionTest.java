@@ -242,4 +242,20 @@ public class VmSchedulerTimeSharedOverSubscriptionTest {
 		assertEquals(1000, vmScheduler.getMaxAvailableMips(), 0);
 	}
 
+	@Test
+	public void testIncrementalPeProvisioning() {
+		List<Pe> referencePeList = new ArrayList<Pe>();
+		referencePeList.add(new Pe(0, new PeProvisionerSimple(MIPS)));
+		referencePeList.add(new Pe(1, new PeProvisionerSimple(MIPS)));
+		VmSchedulerTimeSharedOverSubscription reference = new VmSchedulerTimeSharedOverSubscription(referencePeList) {
+
+			@Override
+			protected void updatePeProvisioning() {
+				VmSchedulerTimeSharedTest.rebuildPeProvisioning(this);
+			}
+		};
+
+		VmSchedulerTimeSharedTest.checkIncrementalPeProvisioning(vmScheduler, reference, MIPS);
+	}
+
 }
@@ -7,14 +7,19 @@
 
 package org.cloudbus.cloudsim;
 
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 
 import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedList;
 import java.util.List;
+import java.util.Random;
 
 import org.cloudbus.cloudsim.lists.PeList;
+import org.cloudbus.cloudsim.provisioners.PeProvisioner;
 import org.cloudbus.cloudsim.provisioners.PeProvisionerSimple;
 import org.junit.Before;
 import org.junit.Test;
@@ -56,6 +61,19 @@ public class VmSchedulerTimeSharedTest {
 		assertEquals(0, vmScheduler.getTotalAllocatedMipsForVm(vm1), 0);
 	}
 
+	@Test
+	@SuppressWarnings("deprecation")
+	public void testGetMipsMap() {
+		List<Double> mipsShare = new ArrayList<Double>();
+		mipsShare.add(MIPS / 4);
+		assertTrue(vmScheduler.allocatePesForVm(vm1, mipsShare));
+
+		// the deprecated map is a view of the map keyed by the VM keys
+		assertEquals(mipsShare, vmScheduler.getMipsMap().get(vm1.getUid()));
+		vmScheduler.getMipsMap().remove(vm1.getUid());
+		assertEquals(0, vmScheduler.getMipsKeyMap().size());
+	}
+
 	@Test
 	public void testAllocatePesForVm() {
 		List<Double> mipsShare1 = new ArrayList<Double>();
@@ -159,4 +177,170 @@ public class VmSchedulerTimeSharedTest {
 		assertEquals(0, vmScheduler.getTotalAllocatedMipsForVm(vm2), 0);
 	}
 
+	@Test
+	public void testAllocatePesForVmWithArray() {
+		double[] mipsShare = new double[] { MIPS / 2, MIPS / 8 };
+
+		assertTrue(vmScheduler.allocatePesForVmWithArray(vm2, mipsShare));
+		// the scheduler must keep its own copy of the requested share
+		mipsShare[0] = MIPS;
+
+		assertEquals(PeList.getTotalMips(peList) - MIPS / 2 - MIPS / 8, vmScheduler.getAvailableMips(), 0);
+		assertArrayEquals(new double[] { MIPS / 2, MIPS / 8 }, vmScheduler.getAllocatedMipsArrayForVm(vm2), 0);
+		assertEquals(2, vmScheduler.getAllocatedMipsForVm(vm2).size());
+		assertEquals(MIPS / 2, vmScheduler.getAllocatedMipsForVm(vm2).get(0), 0);
+		assertEquals(MIPS / 2 + MIPS / 8, vmScheduler.getTotalAllocatedMipsForVm(vm2), 0);
+
+		vmScheduler.deallocatePesForVm(vm2);
+
+		assertEquals(PeList.getTotalMips(peList), vmScheduler.getAvailableMips(), 0);
+		assertEquals(null, vmScheduler.getAllocatedMipsArrayForVm(vm2));
+	}
+
+	@Test
+	public void testAllocatePesForVmWithListOverrides() {
+		final List<String> calls = new ArrayList<String>();
+		VmSchedulerTimeShared scheduler = new VmSchedulerTimeShared(peList) {
+
+			@Override
+			public boolean allocatePesForVm(Vm vm, List<Double> mipsShareRequested) {
+				calls.add("vm");
+				return super.allocatePesForVm(vm, mipsShareRequested);
+			}
+
+			@Override
+			protected boolean allocatePesForVm(String vmUid, List<Double> mipsShareRequested) {
+				calls.add(vmUid);
+				return super.allocatePesForVm(vmUid, mipsShareRequested);
+			}
+		};
+
+		assertTrue(scheduler.allocatePesForVmWithArray(vm2, new double[] { MIPS / 2, MIPS / 8 }));
+
+		assertEquals(2, calls.size());
+		assertEquals("vm", calls.get(0));
+		assertEquals(vm2.getUid(), calls.get(1));
+		assertEquals(PeList.getTotalMips(peList) - MIPS / 2 - MIPS / 8, scheduler.getAvailableMips(), 0);
+	}
+
+	@Test
+	public void testIncrementalPeProvisioning() {
+		List<Pe> referencePeList = new ArrayList<Pe>();
+		referencePeList.add(new Pe(0, new PeProvisionerSimple(MIPS)));
+		referencePeList.add(new Pe(1, new PeProvisionerSimple(MIPS)));
+		VmSchedulerTimeShared reference = new VmSchedulerTimeShared(referencePeList) {
+
+			@Override
+			protected void updatePeProvisioning() {
+				rebuildPeProvisioning(this);
+			}
+		};
+
+		checkIncrementalPeProvisioning(vmScheduler, reference, MIPS);
+	}
+
+	/**
+	 * Applies the same random sequence of allocations and deallocations to two schedulers
+	 * and checks that they provision the PEs in the same way after each step.
+	 * 
+	 * @param scheduler the scheduler being tested
+	 * @param reference a scheduler that provisions the PEs with {@link #rebuildPeProvisioning(VmScheduler)}
+	 * @param peMips the MIPS of each PE
+	 */
+	static void checkIncrementalPeProvisioning(VmScheduler scheduler, VmScheduler reference, double peMips) {
+		Random random = new Random(0);
+		List<Vm> vms = new ArrayList<Vm>();
+		for (int i = 0; i < 8; i++) {
+			vms.add(new Vm(i, 0, peMips, 1 + i % 3, 0, 0, 0, "", null));
+		}
+
+		for (int step = 0; step < 2000; step++) {
+			Vm vm = vms.get(random.nextInt(vms.size()));
+			int operation = random.nextInt(20);
+			if (operation == 0) {
+				scheduler.deallocatePesForAllVms();
+				reference.deallocatePesForAllVms();
+			} else if (operation < 7) {
+				scheduler.deallocatePesForVm(vm);
+				reference.deallocatePesForVm(vm);
+			} else {
+				vm.setInMigration(random.nextInt(4) == 0);
+				double[] mipsShare = new double[vm.getNumberOfPes()];
+				for (int i = 0; i < mipsShare.length; i++) {
+					mipsShare[i] = Math.floor(random.nextDouble() * peMips / 3);
+				}
+				assertEquals(reference.allocatePesForVmWithArray(vm, mipsShare), scheduler.allocatePesForVmWithArray(vm, mipsShare));
+			}
+
+			assertEquals(reference.getAvailableMips(), scheduler.getAvailableMips(), 0);
+			for (Vm other : vms) {
+				assertArrayEquals(
+						reference.getAllocatedMipsArrayForVm(other),
+						scheduler.getAllocatedMipsArrayForVm(other),
+						0);
+				List<Pe> expectedPes = reference.getPesAllocatedForVM(other);
+				List<Pe> pes = scheduler.getPesAllocatedForVM(other);
+				assertEquals(expectedPes == null, pes == null);
+				if (expectedPes != null) {
+					assertEquals(expectedPes.size(), pes.size());
+					for (int i = 0; i < pes.size(); i++) {
+						assertEquals(expectedPes.get(i).getId(), pes.get(i).getId());
+					}
+				}
+			}
+			for (int i = 0; i < scheduler.getPeList().size(); i++) {
+				PeProvisioner expected = reference.getPeList().get(i).getPeProvisioner();
+				PeProvisioner actual = scheduler.getPeList().get(i).getPeProvisioner();
+				assertEquals(expected.getAvailableMips(), actual.getAvailableMips(), 0);
+				for (Vm other : vms) {
+					assertEquals(expected.getAllocatedMipsForVm(other), actual.getAllocatedMipsForVm(other));
+				}
+			}
+		}
+	}
+
+	/**
+	 * Provisions the PEs of a scheduler from scratch, as the {@link VmSchedulerTimeShared} used to do.
+	 * 
+	 * @param scheduler the scheduler
+	 */
+	static void rebuildPeProvisioning(VmScheduler scheduler) {
+		scheduler.getPeKeyMap().clear();
+		for (Pe pe : scheduler.getPeList()) {
+			pe.getPeProvisioner().deallocateMipsForAllVms();
+		}
+
+		Iterator<Pe> peIterator = scheduler.getPeList().iterator();
+		Pe pe = peIterator.next();
+		PeProvisioner peProvisioner = pe.getPeProvisioner();
+		double availableMips = peProvisioner.getAvailableMips();
+
+		for (int i = 0; i < scheduler.getMipsKeyMap().size(); i++) {
+			long vmKey = scheduler.getMipsKeyMap().keyAt(i);
+			List<Pe> vmPes = new LinkedList<Pe>();
+			scheduler.getPeKeyMap().put(vmKey, vmPes);
+
+			for (double mips : scheduler.getMipsKeyMap().valueAt(i)) {
+				while (mips >= 0.1) {
+					if (availableMips >= mips) {
+						peProvisioner.allocateMipsForVm(vmKey, mips);
+						vmPes.add(pe);
+						availableMips -= mips;
+						break;
+					} else {
+						peProvisioner.allocateMipsForVm(vmKey, availableMips);
+						vmPes.add(pe);
+						mips -= availableMips;
+						if (mips <= 0.1) {
+							break;
+						}
+						pe = peIterator.next();
+						peProvisioner = pe.getPeProvisioner();
+						availableMips = peProvisioner.getAvailableMips();
+					}
+				}
+			}
+		}
+	}
+
 }
@@ -0,0 +1,205 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.container.resourceAllocatorMigrationEnabled;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertSame;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.cloudbus.cloudsim.container.containerProvisioners.ContainerBwProvisionerSimple;
+import org.cloudbus.cloudsim.container.containerProvisioners.ContainerPe;
+import org.cloudbus.cloudsim.container.containerProvisioners.ContainerRamProvisionerSimple;
+import org.cloudbus.cloudsim.container.containerProvisioners.CotainerPeProvisionerSimple;
+import org.cloudbus.cloudsim.container.containerVmProvisioners.ContainerVmBwProvisionerSimple;
+import org.cloudbus.cloudsim.container.containerVmProvisioners.ContainerVmPe;
+import org.cloudbus.cloudsim.container.containerVmProvisioners.ContainerVmPeProvisionerSimple;
+import org.cloudbus.cloudsim.container.containerVmProvisioners.ContainerVmRamProvisionerSimple;
+import org.cloudbus.cloudsim.container.core.Container;
+import org.cloudbus.cloudsim.container.core.ContainerHost;
+import org.cloudbus.cloudsim.container.core.ContainerVm;
+import org.cloudbus.cloudsim.container.core.PowerContainerHost;
+import org.cloudbus.cloudsim.container.schedulers.ContainerCloudletSchedulerTimeShared;
+import org.cloudbus.cloudsim.container.schedulers.ContainerSchedulerTimeShared;
+import org.cloudbus.cloudsim.container.schedulers.ContainerVmSchedulerTimeShared;
+import org.cloudbus.cloudsim.power.models.PowerModelLinear;
+import org.junit.Test;
+
+/**
+ * @since		CloudSim Toolkit 4.0
+ */
+public class PowerContainerVmAllocationPolicyMigrationAbstractContainerAddedTest {
+
+	@Test
+	public void testFindAvailableHostForContainerOnOwnVms() {
+		// the container adds less power on the second host, which has the larger capacity
+		PowerContainerHost host0 = createHost(0, 1000);
+		PowerContainerHost host1 = createHost(1, 4000);
+		ContainerVm vm0 = createVm(0, host0);
+		ContainerVm vm1 = createVm(1, host1);
+		List<ContainerHost> hostList = new ArrayList<ContainerHost>();
+		hostList.add(host0);
+		hostList.add(host1);
+
+		List<Map<String, Object>> createdVm = new ArrayList<Map<String, Object>>();
+		createdVm.add(createEntry(host0, vm0));
+		createdVm.add(createEntry(host1, vm1));
+
+		Container container = new Container(0, 0, 250, 1, 128, 100, 100, "Docker",
+				new ContainerCloudletSchedulerTimeShared(), 300);
+		Map<String, Object> map = createPolicy(hostList).findAvailableHostForContainer(container, createdVm);
+		// the vm of the first host is not tried on the second one
+		assertSame(host1, map.get("host"));
+		assertSame(vm1, map.get("vm"));
+	}
+
+	@Test
+	public void testFindAvailableHostForContainerWithUtilizationOverride() {
+		final PowerContainerHost host0 = createHost(0, 1000);
+		PowerContainerHost host1 = createHost(1, 4000);
+		ContainerVm vm0 = createVm(0, host0);
+		ContainerVm vm1 = createVm(1, host1);
+		List<ContainerHost> hostList = new ArrayList<ContainerHost>();
+		hostList.add(host0);
+		hostList.add(host1);
+
+		List<Map<String, Object>> createdVm = new ArrayList<Map<String, Object>>();
+		createdVm.add(createEntry(host0, vm0));
+		createdVm.add(createEntry(host1, vm1));
+
+		PowerContainerVmAllocationPolicyMigrationAbstractContainerAdded policy =
+				new PowerContainerVmAllocationPolicyMigrationAbstractContainerAdded(hostList, null, null,
+						0, new int[0], new float[0], 0, 0, new double[0]) {
+
+			@Override
+			protected boolean isHostOverUtilized(PowerContainerHost host) {
+				return false;
+			}
+
+			@Override
+			protected boolean isHostUnderUtilized(PowerContainerHost host) {
+				return false;
+			}
+
+			@Override
+			protected double getMaxUtilizationAfterContainerAllocation(PowerContainerHost host,
+					Container container, ContainerVm containerVm) {
+				return host == host0 ? 0 : 1;
+			}
+
+		};
+		Container container = new Container(0, 0, 250, 1, 128, 100, 100, "Docker",
+				new ContainerCloudletSchedulerTimeShared(), 300);
+		Map<String, Object> map = policy.findAvailableHostForContainer(container, createdVm);
+		// the override is used although the utilization of each host is read once
+		assertSame(host0, map.get("host"));
+		assertSame(vm0, map.get("vm"));
+	}
+
+	@Test
+	public void testRestoreAllocationOfUnchangedHosts() {
+		final int[] rebuilds = new int[1];
+		List<ContainerHost> hostList = new ArrayList<ContainerHost>();
+		List<ContainerVm> vms = new ArrayList<ContainerVm>();
+		List<Container> containers = new ArrayList<Container>();
+		for (int i = 0; i < 2; i++) {
+			List<ContainerVmPe> peList = new ArrayList<ContainerVmPe>();
+			peList.add(new ContainerVmPe(0, new ContainerVmPeProvisionerSimple(4000)));
+			PowerContainerHost host = new PowerContainerHost(i, new ContainerVmRamProvisionerSimple(4096),
+					new ContainerVmBwProvisionerSimple(100000), 1000000, peList,
+					new ContainerVmSchedulerTimeShared(peList), new PowerModelLinear(250, 0.7)) {
+
+				@Override
+				public void containerVmDestroyAll() {
+					rebuilds[0]++;
+					super.containerVmDestroyAll();
+				}
+			};
+			ContainerVm vm = createVm(i, null);
+			assertEquals(true, host.containerVmCreate(vm));
+			Container container = new Container(i, 0, 250, 1, 128, 100, 100, "Docker",
+					new ContainerCloudletSchedulerTimeShared(), 300);
+			assertEquals(true, vm.containerCreate(container));
+			hostList.add(host);
+			vms.add(vm);
+			containers.add(container);
+		}
+		PowerContainerVmAllocationPolicyMigrationAbstractContainerAdded policy = createPolicy(hostList);
+
+		policy.saveAllocation();
+		// checking a placement on another VM clears the VM of the container
+		containers.get(0).setVm(null);
+		vms.get(1).setHost(null);
+		policy.restoreAllocation();
+
+		assertEquals(0, rebuilds[0]);
+		for (int i = 0; i < 2; i++) {
+			assertSame(hostList.get(i), vms.get(i).getHost());
+			assertSame(vms.get(i), containers.get(i).getVm());
+			assertEquals(1, vms.get(i).getContainerList().size());
+			assertNotNull(vms.get(i).getContainerScheduler().getAllocatedMipsArrayForContainer(containers.get(i)));
+			assertEquals(1000 - 250, vms.get(i).getContainerScheduler().getAvailableMips(), 0);
+		}
+	}
+
+	private static Map<String, Object> createEntry(ContainerHost host, ContainerVm vm) {
+		Map<String, Object> map = new HashMap<String, Object>();
+		map.put("host", host);
+		map.put("vm", vm);
+		return map;
+	}
+
+	private static PowerContainerVmAllocationPolicyMigrationAbstractContainerAdded createPolicy(
+			List<ContainerHost> hostList) {
+		return new PowerContainerVmAllocationPolicyMigrationAbstractContainerAdded(hostList, null, null,
+				0, new int[0], new float[0], 0, 0, new double[0]) {
+
+			@Override
+			protected boolean isHostOverUtilized(PowerContainerHost host) {
+				return false;
+			}
+
+			@Override
+			protected boolean isHostUnderUtilized(PowerContainerHost host) {
+				return false;
+			}
+
+		};
+	}
+
+	private static PowerContainerHost createHost(int id, double mips) {
+		List<ContainerVmPe> peList = new ArrayList<ContainerVmPe>();
+		peList.add(new ContainerVmPe(0, new ContainerVmPeProvisionerSimple(mips)));
+		return new PowerContainerHost(
+				id,
+				new ContainerVmRamProvisionerSimple(4096),
+				new ContainerVmBwProvisionerSimple(100000),
+				1000000,
+				peList,
+				new ContainerVmSchedulerTimeShared(peList),
+				new PowerModelLinear(250, 0.7));
+	}
+
+	private static ContainerVm createVm(int id, ContainerHost host) {
+		List<ContainerPe> peList = new ArrayList<ContainerPe>();
+		peList.add(new ContainerPe(0, new CotainerPeProvisionerSimple(1000)));
+		ContainerVm vm = new ContainerVm(id, 0, 1000, 1024, 1000, 1000, "Xen",
+				new ContainerSchedulerTimeShared(peList),
+				new ContainerRamProvisionerSimple(1024),
+				new ContainerBwProvisionerSimple(1000),
+				peList);
+		vm.setHost(host);
+		return vm;
+	}
+
+}
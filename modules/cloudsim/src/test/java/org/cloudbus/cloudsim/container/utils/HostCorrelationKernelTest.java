@@ -0,0 +1,185 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.container.utils;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import org.cloudbus.cloudsim.container.containerProvisioners.ContainerBwProvisionerSimple;
+import org.cloudbus.cloudsim.container.containerProvisioners.ContainerPe;
+import org.cloudbus.cloudsim.container.containerProvisioners.ContainerRamProvisionerSimple;
+import org.cloudbus.cloudsim.container.containerProvisioners.CotainerPeProvisionerSimple;
+import org.cloudbus.cloudsim.container.containerVmProvisioners.ContainerVmBwProvisionerSimple;
+import org.cloudbus.cloudsim.container.containerVmProvisioners.ContainerVmPe;
+import org.cloudbus.cloudsim.container.containerVmProvisioners.ContainerVmPeProvisionerSimple;
+import org.cloudbus.cloudsim.container.containerVmProvisioners.ContainerVmRamProvisionerSimple;
+import org.cloudbus.cloudsim.container.core.ContainerVm;
+import org.cloudbus.cloudsim.container.core.PowerContainerHostUtilizationHistory;
+import org.cloudbus.cloudsim.container.core.PowerContainerVm;
+import org.cloudbus.cloudsim.container.schedulers.ContainerSchedulerTimeShared;
+import org.cloudbus.cloudsim.container.schedulers.ContainerVmSchedulerTimeShared;
+import org.cloudbus.cloudsim.power.models.PowerModelLinear;
+import org.junit.Test;
+
+/**
+ * @since		CloudSim Toolkit 4.0
+ */
+public class HostCorrelationKernelTest {
+
+	private static final int MIN_HISTORY_LENGTH = 6;
+
+	@Test
+	public void testMinimumCorrelationIndex() {
+		Random random = new Random(1);
+		List<PowerContainerHostUtilizationHistory> hosts = new ArrayList<PowerContainerHostUtilizationHistory>();
+		for (int i = 0; i < 200; i++) {
+			PowerContainerHostUtilizationHistory host = createHost(i, 1000 * (1 + random.nextInt(4)));
+			int vms = random.nextInt(4);
+			for (int j = 0; j < vms; j++) {
+				addVm(host, random, random.nextInt(PowerContainerVm.HISTORY_LENGTH + 1));
+			}
+			hosts.add(host);
+		}
+
+		HostCorrelationKernel kernel = new HostCorrelationKernel();
+		for (int round = 0; round < 50; round++) {
+			double[] history = createHistory(random, 1 + random.nextInt(PowerContainerVm.HISTORY_LENGTH));
+			int expected = getMinimumCorrelationIndex(hosts, history);
+			assertEquals(expected, kernel.getMinimumCorrelationIndex(hosts, history, MIN_HISTORY_LENGTH));
+
+			// the VMs of some hosts and their histories change between the placements
+			for (int i = 0; i < 10; i++) {
+				PowerContainerHostUtilizationHistory host = hosts.get(random.nextInt(hosts.size()));
+				List<ContainerVm> vmList = host.getVmList();
+				switch (random.nextInt(3)) {
+				case 0:
+					addVm(host, random, random.nextInt(PowerContainerVm.HISTORY_LENGTH + 1));
+					break;
+				case 1:
+					if (!vmList.isEmpty()) {
+						vmList.remove(random.nextInt(vmList.size()));
+					}
+					break;
+				default:
+					for (ContainerVm vm : vmList) {
+						((PowerContainerVm) vm).addUtilizationHistoryValue(random.nextDouble());
+					}
+				}
+			}
+		}
+	}
+
+	@Test
+	public void testMinimumCorrelationIndexInParallelWithTies() {
+		Random random = new Random(2);
+		// a few distinct histories, so that many hosts have the same correlation
+		double[][] histories = new double[5][];
+		for (int i = 0; i < histories.length; i++) {
+			histories[i] = createHistory(random, PowerContainerVm.HISTORY_LENGTH);
+		}
+		// a constant history, whose correlation is not a number
+		histories[0] = new double[PowerContainerVm.HISTORY_LENGTH];
+		Arrays.fill(histories[0], 0.5);
+
+		int size = 4 * HostCorrelationKernel.MIN_HOSTS_PER_TASK + 7;
+		List<PowerContainerHostUtilizationHistory> hosts = new ArrayList<PowerContainerHostUtilizationHistory>();
+		for (int i = 0; i < size; i++) {
+			PowerContainerHostUtilizationHistory host = createHost(i, 1000);
+			PowerContainerVm vm = createVm(1000);
+			double[] history = histories[random.nextInt(histories.length)];
+			for (int j = history.length - 1; j >= 0; j--) {
+				vm.addUtilizationHistoryValue(history[j]);
+			}
+			host.getVmList().add(vm);
+			hosts.add(host);
+		}
+
+		HostCorrelationKernel kernel = new HostCorrelationKernel();
+		kernel.setParallelism(4);
+		for (int round = 0; round < 10; round++) {
+			// at least two values, so that the history is not constant
+			double[] history = createHistory(random, 2 + random.nextInt(PowerContainerVm.HISTORY_LENGTH - 1));
+			int expected = getMinimumCorrelationIndex(hosts, history);
+			assertTrue(expected >= 0);
+			assertEquals(expected, kernel.getMinimumCorrelationIndex(hosts, history, MIN_HISTORY_LENGTH));
+
+			// the host selected first is removed, so that the next one of the tie is selected
+			hosts.get(expected).getVmList().clear();
+			assertEquals(getMinimumCorrelationIndex(hosts, history),
+					kernel.getMinimumCorrelationIndex(hosts, history, MIN_HISTORY_LENGTH));
+		}
+	}
+
+	/**
+	 * Finds the host with the minimum correlation as the minimum correlation host selection
+	 * policy did before the kernel, with a correlation per host.
+	 */
+	private static int getMinimumCorrelationIndex(List<PowerContainerHostUtilizationHistory> hosts,
+			double[] history) {
+		Correlation correlation = new Correlation();
+		double minCor = Double.MAX_VALUE;
+		int index = -1;
+		for (int i = 0; i < hosts.size(); i++) {
+			double[] hostUtilization = hosts.get(i).getUtilizationHistory();
+			if (hostUtilization.length >= MIN_HISTORY_LENGTH) {
+				double cor = correlation.getCor(hostUtilization, history);
+				if (cor < minCor) {
+					minCor = cor;
+					index = i;
+				}
+			}
+		}
+		return index;
+	}
+
+	private static double[] createHistory(Random random, int length) {
+		double[] history = new double[length];
+		for (int i = 0; i < length; i++) {
+			history[i] = random.nextDouble();
+		}
+		return history;
+	}
+
+	private static PowerContainerHostUtilizationHistory createHost(int id, double mips) {
+		List<ContainerVmPe> peList = new ArrayList<ContainerVmPe>();
+		peList.add(new ContainerVmPe(0, new ContainerVmPeProvisionerSimple(mips)));
+		return new PowerContainerHostUtilizationHistory(
+				id,
+				new ContainerVmRamProvisionerSimple(4096),
+				new ContainerVmBwProvisionerSimple(100000),
+				1000000,
+				peList,
+				new ContainerVmSchedulerTimeShared(peList),
+				new PowerModelLinear(250, 0.7));
+	}
+
+	private static PowerContainerVm createVm(double mips) {
+		List<ContainerPe> peList = new ArrayList<ContainerPe>();
+		peList.add(new ContainerPe(0, new CotainerPeProvisionerSimple(mips)));
+		return new PowerContainerVm(0, 0, mips, 1024, 1000, 1000, "Xen",
+				new ContainerSchedulerTimeShared(peList),
+				new ContainerRamProvisionerSimple(1024),
+				new ContainerBwProvisionerSimple(1000),
+				peList, 300);
+	}
+
+	private static void addVm(PowerContainerHostUtilizationHistory host, Random random, int historyLength) {
+		PowerContainerVm vm = createVm(250 * (1 + random.nextInt(4)));
+		for (int i = 0; i < historyLength; i++) {
+			vm.addUtilizationHistoryValue(random.nextDouble());
+		}
+		host.getVmList().add(vm);
+	}
+
+}
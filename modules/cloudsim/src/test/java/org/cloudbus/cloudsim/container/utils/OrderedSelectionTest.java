@@ -0,0 +1,241 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.container.utils;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import org.cloudbus.cloudsim.container.containerPlacementPolicies.ContainerPlacementPolicy;
+import org.cloudbus.cloudsim.container.containerPlacementPolicies.ContainerPlacementPolicyFirstFit;
+import org.cloudbus.cloudsim.container.containerPlacementPolicies.ContainerPlacementPolicyLeastFull;
+import org.cloudbus.cloudsim.container.containerPlacementPolicies.ContainerPlacementPolicyMostFull;
+import org.cloudbus.cloudsim.container.containerProvisioners.ContainerBwProvisionerSimple;
+import org.cloudbus.cloudsim.container.containerProvisioners.ContainerPe;
+import org.cloudbus.cloudsim.container.containerProvisioners.ContainerRamProvisionerSimple;
+import org.cloudbus.cloudsim.container.containerProvisioners.CotainerPeProvisionerSimple;
+import org.cloudbus.cloudsim.container.containerVmProvisioners.ContainerVmBwProvisionerSimple;
+import org.cloudbus.cloudsim.container.containerVmProvisioners.ContainerVmPe;
+import org.cloudbus.cloudsim.container.containerVmProvisioners.ContainerVmPeProvisionerSimple;
+import org.cloudbus.cloudsim.container.containerVmProvisioners.ContainerVmRamProvisionerSimple;
+import org.cloudbus.cloudsim.container.core.ContainerHost;
+import org.cloudbus.cloudsim.container.core.ContainerVm;
+import org.cloudbus.cloudsim.container.core.PowerContainerHostUtilizationHistory;
+import org.cloudbus.cloudsim.container.hostSelectionPolicies.HostSelectionPolicy;
+import org.cloudbus.cloudsim.container.hostSelectionPolicies.HostSelectionPolicyFirstFit;
+import org.cloudbus.cloudsim.container.hostSelectionPolicies.HostSelectionPolicyLeastFull;
+import org.cloudbus.cloudsim.container.hostSelectionPolicies.HostSelectionPolicyMostFull;
+import org.cloudbus.cloudsim.container.schedulers.ContainerSchedulerTimeShared;
+import org.cloudbus.cloudsim.container.schedulers.ContainerVmSchedulerTimeShared;
+import org.cloudbus.cloudsim.core.CloudSim;
+import org.cloudbus.cloudsim.core.SimEntity;
+import org.cloudbus.cloudsim.core.SimEvent;
+import org.cloudbus.cloudsim.power.models.PowerModelLinear;
+import org.junit.Test;
+
+/**
+ * @since		CloudSim Toolkit 4.0
+ */
+public class OrderedSelectionTest {
+
+	/** The available MIPS of the VMs, with ties, and none for the VMs that Most-Full never selects. */
+	private static final double[] VM_MIPS = { 0, 250, 500, 500, 1000 };
+
+	/** The utilization of the hosts, with ties; -1 for the hosts without utilization history. */
+	private static final double[] HOST_UTILIZATIONS = { -1, 0, 0.25, 0.5, 0.5 };
+
+	@Test
+	public void testContainerPlacementPolicies() {
+		Random random = new Random(1);
+		List<ContainerVm> vmList = new ArrayList<ContainerVm>();
+		for (int i = 0; i < 200; i++) {
+			vmList.add(createVm(i, VM_MIPS[random.nextInt(VM_MIPS.length)]));
+		}
+		ContainerPlacementPolicy[] policies = {
+				new ContainerPlacementPolicyFirstFit(),
+				new ContainerPlacementPolicyLeastFull(),
+				new ContainerPlacementPolicyMostFull() };
+		for (ContainerPlacementPolicy policy : policies) {
+			for (int round = 0; round < 20; round++) {
+				assertSameVmOrder(policy, vmList, random);
+			}
+		}
+	}
+
+	@Test
+	public void testHostSelectionPolicies() {
+		Random random = new Random(2);
+		List<ContainerHost> hostList = createHosts(random);
+		HostSelectionPolicy[] policies = {
+				new HostSelectionPolicyFirstFit(),
+				new HostSelectionPolicyLeastFull(),
+				new HostSelectionPolicyMostFull() };
+		for (HostSelectionPolicy policy : policies) {
+			for (int round = 0; round < 20; round++) {
+				assertSameHostOrder(policy, hostList, random);
+			}
+		}
+	}
+
+	@Test
+	public void testHostSelectionPolicyMostFullDuringSimulation() {
+		final Random random = new Random(3);
+		final List<ContainerHost> hostList = createHosts(random);
+		final List<AssertionError> errors = new ArrayList<AssertionError>();
+		CloudSim.init(1, Calendar.getInstance(), false);
+		// Most-Full orders the hosts by utilization only after the first second of the simulation
+		new SimEntity("Selector") {
+
+			@Override
+			public void startEntity() {
+				schedule(getId(), 2, 0);
+			}
+
+			@Override
+			public void processEvent(SimEvent ev) {
+				assertTrue(CloudSim.clock() > 1.0);
+				try {
+					for (int round = 0; round < 20; round++) {
+						assertSameHostOrder(new HostSelectionPolicyMostFull(), hostList, random);
+					}
+				} catch (AssertionError e) {
+					errors.add(e);
+				}
+			}
+
+			@Override
+			public void shutdownEntity() {
+			}
+
+		};
+		CloudSim.startSimulation();
+		if (!errors.isEmpty()) {
+			throw errors.get(0);
+		}
+	}
+
+	@Test
+	public void testAllExcluded() {
+		List<ContainerVm> vmList = new ArrayList<ContainerVm>();
+		vmList.add(createVm(0, 1000));
+		Set<ContainerVm> excludedVms = new HashSet<ContainerVm>(vmList);
+		ContainerPlacementPolicy policy = new ContainerPlacementPolicyLeastFull();
+		assertNull(policy.getContainerVm(vmList, null, excludedVms));
+		assertFalse(policy.getContainerVms(vmList, null, excludedVms).hasNext());
+	}
+
+	/**
+	 * Checks that the VMs given by a policy come in the order of repeated calls to
+	 * {@link ContainerPlacementPolicy#getContainerVm}, each chosen VM being excluded before the next
+	 * call, while other VMs are excluded before the iteration and during it.
+	 */
+	private static void assertSameVmOrder(ContainerPlacementPolicy policy, List<ContainerVm> vmList,
+			Random random) {
+		Set<ContainerVm> excludedVms = new HashSet<ContainerVm>();
+		for (int i = random.nextInt(10); i > 0; i--) {
+			excludedVms.add(vmList.get(random.nextInt(vmList.size())));
+		}
+		Iterator<ContainerVm> vms = policy.getContainerVms(vmList, null, excludedVms);
+		while (true) {
+			ContainerVm expected = policy.getContainerVm(vmList, null, excludedVms);
+			if (expected == null) {
+				assertFalse(vms.hasNext());
+				return;
+			}
+			assertSame(expected, vms.next());
+			excludedVms.add(expected);
+			if (random.nextInt(4) == 0) {
+				excludedVms.add(vmList.get(random.nextInt(vmList.size())));
+			}
+		}
+	}
+
+	/**
+	 * Checks that the hosts given by a policy come in the order of repeated calls to
+	 * {@link HostSelectionPolicy#getHost}, each chosen host being excluded before the next call,
+	 * while other hosts are excluded before the iteration and during it.
+	 */
+	private static void assertSameHostOrder(HostSelectionPolicy policy, List<ContainerHost> hostList,
+			Random random) {
+		Set<ContainerHost> excludedHosts = new HashSet<ContainerHost>();
+		for (int i = random.nextInt(10); i > 0; i--) {
+			excludedHosts.add(hostList.get(random.nextInt(hostList.size())));
+		}
+		Iterator<ContainerHost> hosts = policy.getHosts(hostList, null, excludedHosts);
+		while (true) {
+			ContainerHost expected = policy.getHost(hostList, null, excludedHosts);
+			if (expected == null) {
+				assertFalse(hosts.hasNext());
+				return;
+			}
+			assertSame(expected, hosts.next());
+			excludedHosts.add(expected);
+			if (random.nextInt(4) == 0) {
+				excludedHosts.add(hostList.get(random.nextInt(hostList.size())));
+			}
+		}
+	}
+
+	private static List<ContainerHost> createHosts(Random random) {
+		List<ContainerHost> hostList = new ArrayList<ContainerHost>();
+		for (int i = 0; i < 200; i++) {
+			hostList.add(createHost(i, HOST_UTILIZATIONS[random.nextInt(HOST_UTILIZATIONS.length)]));
+		}
+		return hostList;
+	}
+
+	private static ContainerVm createVm(int id, double mips) {
+		List<ContainerPe> peList = new ArrayList<ContainerPe>();
+		peList.add(new ContainerPe(0, new CotainerPeProvisionerSimple(mips)));
+		return new ContainerVm(id, 0, mips, 1024, 1000, 1000, "Xen",
+				new ContainerSchedulerTimeShared(peList),
+				new ContainerRamProvisionerSimple(1024),
+				new ContainerBwProvisionerSimple(1000),
+				peList);
+	}
+
+	private static ContainerHost createHost(int id, final double utilization) {
+		List<ContainerVmPe> peList = new ArrayList<ContainerVmPe>();
+		peList.add(new ContainerVmPe(0, new ContainerVmPeProvisionerSimple(1000)));
+		if (utilization < 0) {
+			return new ContainerHost(
+					id,
+					new ContainerVmRamProvisionerSimple(4096),
+					new ContainerVmBwProvisionerSimple(100000),
+					1000000,
+					peList,
+					new ContainerVmSchedulerTimeShared(peList));
+		}
+		return new PowerContainerHostUtilizationHistory(
+				id,
+				new ContainerVmRamProvisionerSimple(4096),
+				new ContainerVmBwProvisionerSimple(100000),
+				1000000,
+				peList,
+				new ContainerVmSchedulerTimeShared(peList),
+				new PowerModelLinear(250, 0.7)) {
+
+			@Override
+			public double getUtilizationOfCpu() {
+				return utilization;
+			}
+
+		};
+	}
+
+}
@@ -0,0 +1,148 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.power;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+
+/**
+ * @since		CloudSim Toolkit 4.0
+ */
+public class AdaptiveSchedulingIntervalTest {
+
+	private static final double SCHEDULING_INTERVAL = 300;
+
+	private static final List<Integer> HOSTS = Arrays.asList(0, 1);
+
+	@Test
+	public void testGetNextIntervalNotStretchable() {
+		AdaptiveSchedulingInterval<Integer> interval = createInterval(0.1, 3, new double[][] {
+				{ 0.5, 0.5, 0.5, 0.5, 0.5 },
+				{ 0.5, 0.5, 0.5, 0.5, 0.5 } });
+		assertEquals(SCHEDULING_INTERVAL, interval.getNextInterval(HOSTS, 0, Double.MAX_VALUE, false), 0);
+		assertEquals(0, interval.getSkippedIntervals());
+	}
+
+	@Test
+	public void testGetNextIntervalStable() {
+		AdaptiveSchedulingInterval<Integer> interval = createInterval(0.1, 3, new double[][] {
+				{ 0.5, 0.55, 0.45, 0.5, 0.5, 0.5 },
+				{ 0.2, 0.2, 0.2, 0.2, 0.2, 0.2 } });
+		assertEquals(4 * SCHEDULING_INTERVAL, interval.getNextInterval(HOSTS, 0, Double.MAX_VALUE, true), 0);
+		assertEquals(3, interval.getSkippedIntervals());
+	}
+
+	@Test
+	public void testGetNextIntervalChangePoint() {
+		AdaptiveSchedulingInterval<Integer> interval = createInterval(0.1, 5, new double[][] {
+				{ 0.5, 0.5, 0.5, 0.5, 0.5, 0.5, 0.5 },
+				{ 0.2, 0.25, 0.2, 0.4, 0.4, 0.4, 0.4 } });
+		assertEquals(3 * SCHEDULING_INTERVAL, interval.getNextInterval(HOSTS, 0, Double.MAX_VALUE, true), 0);
+		assertEquals(2, interval.getSkippedIntervals());
+	}
+
+	@Test
+	public void testGetNextIntervalSwitchedOn() {
+		AdaptiveSchedulingInterval<Integer> interval = createInterval(0.1, 5, new double[][] {
+				{ 0.5, 0.5, 0.5, 0.5, 0.5, 0.5, 0.5 },
+				{ 0, 0, 0.01, 0.01, 0.01, 0.01, 0.01 } });
+		assertEquals(2 * SCHEDULING_INTERVAL, interval.getNextInterval(HOSTS, 0, Double.MAX_VALUE, true), 0);
+		assertEquals(1, interval.getSkippedIntervals());
+	}
+
+	@Test
+	public void testGetNextIntervalCloudletCompletion() {
+		AdaptiveSchedulingInterval<Integer> interval = createInterval(0.1, 5, new double[][] {
+				{ 0.5, 0.5, 0.5, 0.5, 0.5, 0.5, 0.5 },
+				{ 0.2, 0.2, 0.2, 0.2, 0.2, 0.2, 0.2 } });
+		assertEquals(3 * SCHEDULING_INTERVAL, interval.getNextInterval(HOSTS, 0, 700, true), 0);
+		assertEquals(SCHEDULING_INTERVAL, interval.getNextInterval(HOSTS, 900, 950, true), 0);
+		assertEquals(2, interval.getSkippedIntervals());
+	}
+
+	@Test
+	public void testGetNextIntervalEndOfTrace() {
+		AdaptiveSchedulingInterval<Integer> interval = createInterval(0.1, 5, new double[][] {
+				{ 0.5, 0.5, 0.5 },
+				{ 0.2, 0.2, 0.2 } });
+		assertEquals(3 * SCHEDULING_INTERVAL, interval.getNextInterval(HOSTS, 0, Double.MAX_VALUE, true), 0);
+		assertEquals(2, interval.getSkippedIntervals());
+	}
+
+	@Test
+	public void testGetEnergy() {
+		AdaptiveSchedulingInterval<Integer> interval = createInterval(1, 2, new double[][] {
+				{ 0.2, 0.4, 0.6, 0.8 },
+				{ 0, 0.5, 0.5, 0.5 } });
+		assertEquals(SCHEDULING_INTERVAL, interval.getNextInterval(HOSTS, 0, Double.MAX_VALUE, true), 0);
+
+		interval = createInterval(1, 2, new double[][] {
+				{ 0.2, 0.4, 0.6, 0.8 },
+				{ 0.5, 0.5, 0.5, 0.5 } });
+		assertEquals(3 * SCHEDULING_INTERVAL, interval.getNextInterval(HOSTS, 0, Double.MAX_VALUE, true), 0);
+		// the power is 100 + 100 * utilization, integrated over 0.2, 0.4, 0.6 and 0.8
+		assertEquals(39000 + 45000 + 51000, interval.getEnergy(0, 0.2, 0.8, 0, 900), 1e-9);
+		// the held utilization of 0.2 is 120 W over the two skipped wake-ups
+		assertEquals(84000 - 72000, interval.getUtilizationDriftEnergy(), 1e-9);
+		assertEquals(150 * 900, interval.getEnergy(1, 0.5, 0.5, 0, 900), 1e-9);
+		assertEquals(84000 - 72000, interval.getUtilizationDriftEnergy(), 1e-9);
+		// the host is switched off at the last processing
+		assertEquals(0, interval.getEnergy(0, 0, 0.8, 0, 900), 0);
+
+		// the time frame starts after the first skipped wake-up, when a VM migrated in
+		assertEquals(45000 + 51000, interval.getEnergy(0, 0.4, 0.8, 300, 900), 1e-9);
+
+		// the skipped wake-ups are forgotten at the next wake-up
+		interval.getNextInterval(HOSTS, 900, Double.MAX_VALUE, false);
+		assertEquals(150 * 300, interval.getEnergy(0, 0.5, 0.5, 900, 1200), 1e-9);
+		// but not their utilization-drift energy
+		assertEquals(84000 - 72000 + 45000 - 42000, interval.getUtilizationDriftEnergy(), 1e-9);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testNegativeMaxSkippedIntervals() {
+		createInterval(0.1, -2, new double[0][]);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testNegativeUtilizationThreshold() {
+		createInterval(-0.1, 3, new double[0][]);
+	}
+
+	/**
+	 * Creates an adaptive scheduling interval over the utilization traces of the hosts, read at each
+	 * fixed scheduling interval.
+	 */
+	private static AdaptiveSchedulingInterval<Integer> createInterval(
+			double utilizationThreshold,
+			int maxSkippedIntervals,
+			final double[][] traces) {
+		return new AdaptiveSchedulingInterval<Integer>(
+				SCHEDULING_INTERVAL,
+				utilizationThreshold,
+				maxSkippedIntervals) {
+
+			@Override
+			protected double getPredictedUtilization(Integer host, double time) {
+				return traces[host][(int) Math.round(time / SCHEDULING_INTERVAL)];
+			}
+
+			@Override
+			protected double getPower(Integer host, double utilization) {
+				return 100 + 100 * utilization;
+			}
+
+		};
+	}
+
+}
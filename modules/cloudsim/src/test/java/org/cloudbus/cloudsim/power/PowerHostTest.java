@@ -15,6 +15,7 @@ import java.util.ArrayList;
 import java.util.List;
 
 import org.cloudbus.cloudsim.Pe;
+import org.cloudbus.cloudsim.power.models.PowerModel;
 import org.cloudbus.cloudsim.power.models.PowerModelLinear;
 import org.cloudbus.cloudsim.provisioners.PeProvisionerSimple;
 import org.junit.Before;
@@ -58,4 +59,29 @@ public class PowerHostTest {
 		assertEquals(expectedEnergy, host.getEnergyLinearInterpolation(0.2, 0.9, TIME), 0);
 	}
 
+	@Test
+	public void testGetPowerOnlyOncePerUtilization() {
+		final PowerModel powerModel = new PowerModelLinear(MAX_POWER, STATIC_POWER_PERCENT);
+		final int[] calls = new int[1];
+		host.setPowerModel(new PowerModel() {
+
+			@Override
+			public double getPower(double utilization) throws IllegalArgumentException {
+				calls[0]++;
+				return powerModel.getPower(utilization);
+			}
+
+		});
+		double energy = host.getEnergyLinearInterpolation(0.2, 0.9, TIME);
+		assertEquals(2, calls[0]);
+		// the power at the end of an interval is the one at the beginning of the next one
+		host.getEnergyLinearInterpolation(0.9, 0.5, TIME);
+		assertEquals(3, calls[0]);
+		assertEquals(powerModel.getPower(0.5), host.getPower(0.5), 0);
+		assertEquals(4, calls[0]);
+
+		host.setPowerModel(powerModel);
+		assertEquals(energy, host.getEnergyLinearInterpolation(0.2, 0.9, TIME), 0);
+	}
+
 }
@@ -0,0 +1,85 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.power;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.cloudbus.cloudsim.Pe;
+import org.cloudbus.cloudsim.power.models.PowerModelLinear;
+import org.cloudbus.cloudsim.provisioners.PeProvisionerSimple;
+import org.cloudbus.cloudsim.util.DoubleRingBuffer;
+import org.cloudbus.cloudsim.util.MathUtil;
+import org.junit.Test;
+
+/**
+ * @since		CloudSim Toolkit 4.0
+ */
+public class PowerHostUtilizationHistoryTest {
+
+	private static final double MIPS = 1000;
+
+	@Test
+	public void testIncrementalHistoryMatchesVmHistories() {
+		List<Pe> peList = new ArrayList<Pe>();
+		peList.add(new Pe(0, new PeProvisionerSimple(MIPS)));
+		peList.add(new Pe(1, new PeProvisionerSimple(MIPS)));
+		PowerHostUtilizationHistory host = new PowerHostUtilizationHistory(
+				0, null, null, 0, peList, null, new PowerModelLinear(200, 0.3));
+		PowerVm[] vms = new PowerVm[3];
+		for (int i = 0; i < vms.length; i++) {
+			vms[i] = new PowerVm(i, 0, 250 * (i + 1), 1, 128, 1000, 1000, 0, "Xen", null, 300);
+		}
+		host.getVmList().add(vms[0]);
+		host.getVmList().add(vms[1]);
+
+		Random random = new Random(3);
+		for (int step = 0; step < 200; step++) {
+			for (PowerVm vm : host.<PowerVm> getVmList()) {
+				// some idle intervals make zeros in the host history
+				vm.addUtilizationHistoryValue(random.nextInt(8) == 0 ? 0 : random.nextDouble());
+			}
+			if (step % 50 == 49) {
+				// a migration changes the VMs of the host
+				host.getVmList().add(vms[2]);
+			} else if (step % 50 == 20) {
+				host.getVmList().remove(vms[2]);
+			} else if (step % 30 == 0) {
+				// a VM that skips an interval
+				vms[0].addUtilizationHistoryValue(0.5);
+			}
+
+			double[] expected = getUtilizationHistory(host);
+			assertArrayEquals(expected, host.getUtilizationHistory(), 0);
+			if (expected.length > 0) {
+				assertEquals(MathUtil.mad(expected), host.getUtilizationStatistics().getMad(), 0);
+			}
+		}
+	}
+
+	/**
+	 * The host history summed from the whole VM histories.
+	 */
+	private static double[] getUtilizationHistory(PowerHostUtilizationHistory host) {
+		double[] utilizationHistory = new double[PowerVm.HISTORY_LENGTH];
+		double hostMips = host.getTotalMips();
+		for (PowerVm vm : host.<PowerVm> getVmList()) {
+			DoubleRingBuffer vmUtilization = vm.getUtilizationHistoryBuffer();
+			for (int i = 0; i < vmUtilization.size(); i++) {
+				utilizationHistory[i] += vmUtilization.getDouble(i) * vm.getMips() / hostMips;
+			}
+		}
+		return MathUtil.trimZeroTail(utilizationHistory);
+	}
+
+}
@@ -0,0 +1,180 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.power;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import org.cloudbus.cloudsim.CloudletSchedulerDynamicWorkload;
+import org.cloudbus.cloudsim.Host;
+import org.cloudbus.cloudsim.Log;
+import org.cloudbus.cloudsim.Pe;
+import org.cloudbus.cloudsim.VmSchedulerTimeSharedOverSubscription;
+import org.cloudbus.cloudsim.power.models.PowerModelLinear;
+import org.cloudbus.cloudsim.provisioners.BwProvisionerSimple;
+import org.cloudbus.cloudsim.provisioners.PeProvisionerSimple;
+import org.cloudbus.cloudsim.provisioners.RamProvisionerSimple;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * @since		CloudSim Toolkit 4.0
+ */
+public class PowerHostUtilizationIndexTest {
+
+	private List<PowerHostUtilizationHistory> hosts;
+
+	@Before
+	public void setUp() {
+		Log.disable();
+		Random random = new Random(3);
+		hosts = new ArrayList<PowerHostUtilizationHistory>();
+		int vmId = 0;
+		for (int i = 0; i < 200; i++) {
+			List<Pe> peList = new ArrayList<Pe>();
+			peList.add(new Pe(0, new PeProvisionerSimple(1000)));
+			peList.add(new Pe(1, new PeProvisionerSimple(1000)));
+			PowerHostUtilizationHistory host = new PowerHostUtilizationHistory(
+					i,
+					new RamProvisionerSimple(8192),
+					new BwProvisionerSimple(1000000),
+					1000000,
+					peList,
+					new VmSchedulerTimeSharedOverSubscription(peList),
+					new PowerModelLinear(200, 0.3));
+			hosts.add(host);
+			// few VM sizes, so that many hosts have the same utilization
+			int vmsNumber = random.nextInt(5);
+			for (int j = 0; j < vmsNumber; j++) {
+				double mips = 250 * (1 + random.nextInt(4));
+				host.vmCreate(new PowerVm(vmId++, 0, mips, 1, 1024, 1000, 1000, 0, "Xen",
+						new CloudletSchedulerDynamicWorkload(mips, 1), 300));
+			}
+			host.updateVmsProcessing(0);
+		}
+	}
+
+	@After
+	public void tearDown() {
+		Log.enable();
+	}
+
+	@Test
+	public void testUpdate() {
+		PowerHostUtilizationIndex index = new PowerHostUtilizationIndex(hosts);
+		index.update();
+
+		List<PowerHost> switchedOffHosts = new ArrayList<PowerHost>();
+		int activeHostsNumber = 0;
+		for (PowerHost host : hosts) {
+			if (host.getUtilizationOfCpu() == 0) {
+				switchedOffHosts.add(host);
+			} else {
+				activeHostsNumber++;
+				assertEquals(host.getUtilizationOfCpu(), index.getUtilization(host), 0);
+			}
+		}
+		assertEquals(switchedOffHosts, index.getSwitchedOffHosts());
+		assertTrue(!switchedOffHosts.isEmpty());
+
+		PowerHost previous = null;
+		int visited = 0;
+		for (PowerHost host : index.getActiveHosts()) {
+			if (previous != null) {
+				assertTrue(previous.getUtilizationOfCpu() < host.getUtilizationOfCpu()
+						|| previous.getUtilizationOfCpu() == host.getUtilizationOfCpu()
+						&& previous.getId() < host.getId());
+			}
+			previous = host;
+			visited++;
+		}
+		assertEquals(activeHostsNumber, visited);
+
+		PowerHost removed = index.getActiveHosts().iterator().next();
+		index.remove(removed);
+		assertEquals(-1, index.getUtilization(removed), 0);
+		for (PowerHost host : index.getActiveHosts()) {
+			assertTrue(host != removed);
+		}
+		index.reset();
+		assertEquals(removed, index.getActiveHosts().iterator().next());
+		index.remove(removed);
+		index.update();
+		assertEquals(removed, index.getActiveHosts().iterator().next());
+	}
+
+	@Test
+	public void testGetUnderUtilizedHost() {
+		PowerVmAllocationPolicyMigrationAbstract policy = new PowerVmAllocationPolicyMigrationStaticThreshold(
+				hosts, new PowerVmSelectionPolicyMinimumMigrationTime(), 0.8);
+		// the index is updated at the first use, without an optimization of the allocation
+		assertEquals(getSwitchedOffHosts(), policy.getSwitchedOffHosts());
+
+		Set<Host> excludedHosts = new HashSet<Host>();
+		for (int i = 0; i < hosts.size(); i += 9) {
+			excludedHosts.add(hosts.get(i));
+		}
+		Random random = new Random(4);
+		int found = 0;
+		while (true) {
+			PowerHost expected = getUnderUtilizedHost(excludedHosts);
+			PowerHost host = policy.getUnderUtilizedHost(excludedHosts);
+			assertEquals(expected, host);
+			if (host == null) {
+				break;
+			}
+			found++;
+			excludedHosts.add(host);
+			// hosts chosen to receive VMs are excluded too
+			excludedHosts.add(hosts.get(random.nextInt(hosts.size())));
+		}
+		assertTrue(found > 10);
+
+		// the hosts passed over are not removed from the index
+		excludedHosts.clear();
+		assertEquals(getUnderUtilizedHost(excludedHosts), policy.getUnderUtilizedHost(excludedHosts));
+	}
+
+	/**
+	 * Finds the most under utilized host by checking all the hosts.
+	 */
+	private PowerHost getUnderUtilizedHost(Set<? extends Host> excludedHosts) {
+		double minUtilization = 1;
+		PowerHost underUtilizedHost = null;
+		for (PowerHost host : hosts) {
+			if (excludedHosts.contains(host)) {
+				continue;
+			}
+			double utilization = host.getUtilizationOfCpu();
+			if (utilization > 0 && utilization < minUtilization) {
+				minUtilization = utilization;
+				underUtilizedHost = host;
+			}
+		}
+		return underUtilizedHost;
+	}
+
+	private List<PowerHost> getSwitchedOffHosts() {
+		List<PowerHost> switchedOffHosts = new ArrayList<PowerHost>();
+		for (PowerHost host : hosts) {
+			if (host.getUtilizationOfCpu() == 0) {
+				switchedOffHosts.add(host);
+			}
+		}
+		return switchedOffHosts;
+	}
+
+}
@@ -0,0 +1,290 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.power;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import org.cloudbus.cloudsim.CloudletSchedulerDynamicWorkload;
+import org.cloudbus.cloudsim.Host;
+import org.cloudbus.cloudsim.Log;
+import org.cloudbus.cloudsim.Pe;
+import org.cloudbus.cloudsim.Vm;
+import org.cloudbus.cloudsim.VmMigration;
+import org.cloudbus.cloudsim.VmSchedulerTimeSharedOverSubscription;
+import org.cloudbus.cloudsim.power.models.PowerModelLinear;
+import org.cloudbus.cloudsim.provisioners.BwProvisionerSimple;
+import org.cloudbus.cloudsim.provisioners.PeProvisionerSimple;
+import org.cloudbus.cloudsim.provisioners.RamProvisionerSimple;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * @since		CloudSim Toolkit 4.0
+ */
+public class PowerVmAllocationPolicyMigrationAbstractTest {
+
+	private static final int HOSTS_NUMBER = 300;
+
+	private static final ByteArrayOutputStream OUTPUT = new ByteArrayOutputStream();
+
+	private interface Factory {
+
+		PowerVmAllocationPolicyMigrationAbstract create(List<PowerHostUtilizationHistory> hosts);
+
+	}
+
+	private static final Factory STATIC_THRESHOLD = new Factory() {
+
+		@Override
+		public PowerVmAllocationPolicyMigrationAbstract create(List<PowerHostUtilizationHistory> hosts) {
+			return new PowerVmAllocationPolicyMigrationStaticThreshold(
+					hosts, new PowerVmSelectionPolicyMinimumMigrationTime(), 0.8);
+		}
+
+	};
+
+	private static final Factory MEDIAN_ABSOLUTE_DEVIATION = new Factory() {
+
+		@Override
+		public PowerVmAllocationPolicyMigrationAbstract create(List<PowerHostUtilizationHistory> hosts) {
+			PowerVmSelectionPolicy selectionPolicy = new PowerVmSelectionPolicyMinimumMigrationTime();
+			return new PowerVmAllocationPolicyMigrationMedianAbsoluteDeviation(hosts, selectionPolicy, 2.5,
+					new PowerVmAllocationPolicyMigrationStaticThreshold(hosts, selectionPolicy, 0.8));
+		}
+
+	};
+
+	private static final Factory LOCAL_REGRESSION = new Factory() {
+
+		@Override
+		public PowerVmAllocationPolicyMigrationAbstract create(List<PowerHostUtilizationHistory> hosts) {
+			PowerVmSelectionPolicy selectionPolicy = new PowerVmSelectionPolicyMinimumMigrationTime();
+			return new PowerVmAllocationPolicyMigrationLocalRegression(hosts, selectionPolicy, 1.2, 300,
+					new PowerVmAllocationPolicyMigrationStaticThreshold(hosts, selectionPolicy, 0.8));
+		}
+
+	};
+
+	private ForkJoinPool pool;
+
+	@Before
+	public void setUp() {
+		pool = new ForkJoinPool(4);
+		Log.setOutput(OUTPUT);
+		OUTPUT.reset();
+	}
+
+	@After
+	public void tearDown() {
+		pool.shutdown();
+		Log.setOutput(null);
+	}
+
+	@Test
+	public void testStaticThresholdParallelSearch() {
+		assertSameHostsFound(STATIC_THRESHOLD);
+		assertSameOptimization(STATIC_THRESHOLD);
+	}
+
+	@Test
+	public void testMedianAbsoluteDeviationParallelSearch() {
+		assertSameHostsFound(MEDIAN_ABSOLUTE_DEVIATION);
+		assertSameOptimization(MEDIAN_ABSOLUTE_DEVIATION);
+	}
+
+	@Test
+	public void testLocalRegressionParallelSearch() {
+		assertSameHostsFound(LOCAL_REGRESSION);
+		assertSameOptimization(LOCAL_REGRESSION);
+	}
+
+	@Test
+	public void testParallelSearchNeedsPredictor() {
+		Random random = new Random(5);
+		List<PowerHostUtilizationHistory> hosts = createHosts(random);
+		PowerVmAllocationPolicyMigrationAbstract policy = STATIC_THRESHOLD.create(hosts);
+		policy.setHostSearchPool(pool);
+		policy.findHostForVm(createVm(10000, 500, random), new HashSet<Host>());
+		// the static threshold can only check a host by placing the VM, so the pool is not used
+		assertEquals(0, pool.getPoolSize());
+
+		policy = LOCAL_REGRESSION.create(hosts);
+		policy.setHostSearchPool(pool);
+		policy.findHostForVm(createVm(10001, 500, random), new HashSet<Host>());
+		assertTrue(pool.getPoolSize() > 0);
+	}
+
+	@Test
+	public void testOptimizeAllocationRestoresHosts() {
+		List<PowerHostUtilizationHistory> hosts = createHosts(new Random(8));
+		PowerVmAllocationPolicyMigrationAbstract policy = STATIC_THRESHOLD.create(hosts);
+		List<Vm> vms = new ArrayList<Vm>();
+		List<List<Vm>> vmLists = new ArrayList<List<Vm>>();
+		List<Double> availableMips = new ArrayList<Double>();
+		for (PowerHostUtilizationHistory host : hosts) {
+			host.updateVmsProcessing(0);
+			for (Vm vm : host.getVmList()) {
+				policy.getVmKeyTable().put(vm.getKey(), host);
+				vms.add(vm);
+			}
+			vmLists.add(new ArrayList<Vm>(host.getVmList()));
+			availableMips.add(host.getAvailableMips());
+		}
+
+		List<Map<String, Object>> migrations = policy.optimizeAllocation(vms);
+		assertFalse(migrations.isEmpty());
+		for (Map<String, Object> migrate : migrations) {
+			assertTrue(migrate instanceof VmMigration);
+			VmMigration migration = (VmMigration) migrate;
+			assertSame(migration.getVm(), migrate.get(VmMigration.VM));
+			assertSame(migration.getHost(), migrate.get(VmMigration.HOST));
+		}
+		for (int i = 0; i < hosts.size(); i++) {
+			PowerHostUtilizationHistory host = hosts.get(i);
+			assertEquals(vmLists.get(i), host.getVmList());
+			assertEquals(availableMips.get(i), host.getAvailableMips(), 0);
+			for (Vm vm : host.getVmList()) {
+				assertSame(host, vm.getHost());
+				assertSame(host, policy.getHost(vm));
+			}
+		}
+	}
+
+	/**
+	 * Checks that the hosts found for VMs that are not placed yet are the same
+	 * with and without a host search pool, as well as the history of the hosts.
+	 */
+	private void assertSameHostsFound(Factory factory) {
+		Random random = new Random(5);
+		List<PowerHostUtilizationHistory> hosts = createHosts(random);
+		List<PowerVm> vms = new ArrayList<PowerVm>();
+		for (int i = 0; i < 50; i++) {
+			vms.add(createVm(10000 + i, 250 * (1 + random.nextInt(4)), random));
+		}
+		PowerVmAllocationPolicyMigrationAbstract policy = factory.create(hosts);
+		PowerVmAllocationPolicyMigrationAbstract parallelPolicy = factory.create(hosts);
+		parallelPolicy.setHostSearchPool(pool);
+
+		HashSet<Host> excludedHosts = new HashSet<Host>();
+		for (int i = 0; i < hosts.size(); i += 7) {
+			excludedHosts.add(hosts.get(i));
+		}
+		int found = 0;
+		for (PowerVm vm : vms) {
+			PowerHost expectedHost = policy.findHostForVm(vm, excludedHosts);
+			String expectedOutput = OUTPUT.toString();
+			OUTPUT.reset();
+			assertEquals(expectedHost, parallelPolicy.findHostForVm(vm, excludedHosts));
+			assertEquals(expectedOutput, OUTPUT.toString());
+			OUTPUT.reset();
+			assertNull(vm.getHost());
+			if (expectedHost != null) {
+				found++;
+				assertFalse(excludedHosts.contains(expectedHost));
+				expectedHost.vmCreate(vm);
+			}
+		}
+		assertEquals(true, found > 0);
+		assertEquals(policy.getTimeHistory(), parallelPolicy.getTimeHistory());
+		assertEquals(policy.getUtilizationHistory(), parallelPolicy.getUtilizationHistory());
+		assertEquals(policy.getMetricHistory(), parallelPolicy.getMetricHistory());
+	}
+
+	/**
+	 * Checks that an optimization of the allocation gives the same migrations
+	 * and output with and without a host search pool.
+	 */
+	private void assertSameOptimization(Factory factory) {
+		String[] expected = optimizeAllocation(factory, null);
+		String[] actual = optimizeAllocation(factory, pool);
+		assertEquals(expected[0], actual[0]);
+		assertEquals(expected[1], actual[1]);
+		assertFalse(expected[0].isEmpty());
+	}
+
+	/**
+	 * Optimizes the allocation of the VMs of new hosts.
+	 *
+	 * @return the migrations and the output of the optimization
+	 */
+	private static String[] optimizeAllocation(Factory factory, ForkJoinPool pool) {
+		List<PowerHostUtilizationHistory> hosts = createHosts(new Random(8));
+		PowerVmAllocationPolicyMigrationAbstract policy = factory.create(hosts);
+		policy.setHostSearchPool(pool);
+		List<Vm> vms = new ArrayList<Vm>();
+		for (PowerHostUtilizationHistory host : hosts) {
+			for (Vm vm : host.getVmList()) {
+				policy.getVmKeyTable().put(vm.getKey(), host);
+				vms.add(vm);
+			}
+		}
+		OUTPUT.reset();
+		StringBuilder migrations = new StringBuilder();
+		for (Map<String, Object> migrate : policy.optimizeAllocation(vms)) {
+			migrations.append(((Vm) migrate.get("vm")).getId()).append(">")
+					.append(((Host) migrate.get("host")).getId()).append(" ");
+		}
+		String output = OUTPUT.toString();
+		OUTPUT.reset();
+		return new String[] { migrations.toString(), output };
+	}
+
+	/**
+	 * Creates hosts of two kinds, with VMs of various sizes, some of the hosts
+	 * having the same VMs so that they tie.
+	 */
+	private static List<PowerHostUtilizationHistory> createHosts(Random random) {
+		List<PowerHostUtilizationHistory> hosts = new ArrayList<PowerHostUtilizationHistory>();
+		int vmId = 0;
+		for (int i = 0; i < HOSTS_NUMBER; i++) {
+			double mips = i % 2 == 0 ? 1000 : 2000;
+			List<Pe> peList = new ArrayList<Pe>();
+			peList.add(new Pe(0, new PeProvisionerSimple(mips)));
+			peList.add(new Pe(1, new PeProvisionerSimple(mips)));
+			PowerHostUtilizationHistory host = new PowerHostUtilizationHistory(
+					i,
+					new RamProvisionerSimple(8192),
+					new BwProvisionerSimple(1000000),
+					1000000,
+					peList,
+					new VmSchedulerTimeSharedOverSubscription(peList),
+					new PowerModelLinear(i % 2 == 0 ? 200 : 250, 0.3));
+			hosts.add(host);
+			int vmsNumber = i % 10 < 3 ? 0 : i % 10 < 6 ? 1 : random.nextInt(5);
+			for (int j = 0; j < vmsNumber; j++) {
+				host.vmCreate(createVm(vmId++, 250 * (1 + random.nextInt(4)), random));
+			}
+		}
+		return hosts;
+	}
+
+	private static PowerVm createVm(int id, double mips, Random random) {
+		PowerVm vm = new PowerVm(id, 0, mips, 1, 1024, 1000, 1000, 0, "Xen",
+				new CloudletSchedulerDynamicWorkload(mips, 1), 300);
+		int historyLength = random.nextInt(PowerVm.HISTORY_LENGTH);
+		for (int i = 0; i < historyLength; i++) {
+			vm.addUtilizationHistoryValue(random.nextDouble());
+		}
+		return vm;
+	}
+
+}
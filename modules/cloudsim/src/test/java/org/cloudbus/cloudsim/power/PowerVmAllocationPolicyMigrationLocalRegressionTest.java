@@ -0,0 +1,166 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.power;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.cloudbus.cloudsim.CloudletSchedulerDynamicWorkload;
+import org.cloudbus.cloudsim.Pe;
+import org.cloudbus.cloudsim.VmSchedulerTimeSharedOverSubscription;
+import org.cloudbus.cloudsim.power.models.PowerModelLinear;
+import org.cloudbus.cloudsim.provisioners.BwProvisionerSimple;
+import org.cloudbus.cloudsim.provisioners.PeProvisionerSimple;
+import org.cloudbus.cloudsim.provisioners.RamProvisionerSimple;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * @since		CloudSim Toolkit 4.0
+ */
+public class PowerVmAllocationPolicyMigrationLocalRegressionTest {
+
+	private static final double MIPS = 1000;
+
+	private List<PowerHostUtilizationHistory> hostList;
+
+	private List<PowerVm> candidateVms;
+
+	private Random random;
+
+	@Before
+	public void setUp() {
+		random = new Random(11);
+		hostList = new ArrayList<PowerHostUtilizationHistory>();
+		int vmId = 0;
+		for (int i = 0; i < 4; i++) {
+			List<Pe> peList = new ArrayList<Pe>();
+			peList.add(new Pe(0, new PeProvisionerSimple(MIPS)));
+			peList.add(new Pe(1, new PeProvisionerSimple(MIPS)));
+			PowerHostUtilizationHistory host = new PowerHostUtilizationHistory(
+					i,
+					new RamProvisionerSimple(16384),
+					new BwProvisionerSimple(1000000),
+					1000000,
+					peList,
+					new VmSchedulerTimeSharedOverSubscription(peList),
+					new PowerModelLinear(200, 0.3));
+			hostList.add(host);
+			for (int j = 0; j <= i % 3; j++) {
+				PowerVm vm = createVm(vmId++, 250 * (j + 1), 5 + 10 * i);
+				assertTrue(host.vmCreate(vm));
+			}
+		}
+
+		candidateVms = new ArrayList<PowerVm>();
+		candidateVms.add(createVm(vmId++, 250, 4));
+		candidateVms.add(createVm(vmId++, 500, 10));
+		candidateVms.add(createVm(vmId++, 1000, PowerVm.HISTORY_LENGTH));
+	}
+
+	@Test
+	public void testLocalRegressionAfterAllocation() {
+		PowerVmAllocationPolicyMigrationLocalRegression policy = new PowerVmAllocationPolicyMigrationLocalRegression(
+				hostList, null, 1.2, 300, new PowerVmAllocationPolicyMigrationStaticThreshold(hostList, null, 0.9));
+		assertAfterAllocation(policy);
+	}
+
+	@Test
+	public void testLocalRegressionRobustAfterAllocation() {
+		PowerVmAllocationPolicyMigrationLocalRegression policy = new PowerVmAllocationPolicyMigrationLocalRegressionRobust(
+				hostList, null, 1.2, 300, new PowerVmAllocationPolicyMigrationStaticThreshold(hostList, null, 0.9));
+		assertAfterAllocation(policy);
+	}
+
+	@Test
+	public void testRegressionFollowsHostChanges() {
+		PowerVmAllocationPolicyMigrationLocalRegression policy = new PowerVmAllocationPolicyMigrationLocalRegression(
+				hostList, null, 1.2, 300, new PowerVmAllocationPolicyMigrationStaticThreshold(hostList, null, 0.9));
+		PowerHostUtilizationHistory host = hostList.get(2);
+		PowerVm vm = candidateVms.get(1);
+		assertArrayEquals(getEstimatesAfterPlacing(policy, host, vm),
+				policy.getParameterEstimatesAfterAllocation(host, vm), 1e-12);
+
+		// a VM placed on the host during the search
+		PowerVm placed = candidateVms.get(0);
+		assertTrue(host.vmCreate(placed));
+		assertArrayEquals(getEstimatesAfterPlacing(policy, host, vm),
+				policy.getParameterEstimatesAfterAllocation(host, vm), 1e-12);
+
+		// new values in the histories
+		for (PowerVm hostVm : host.<PowerVm> getVmList()) {
+			hostVm.addUtilizationHistoryValue(random.nextDouble());
+		}
+		vm.addUtilizationHistoryValue(random.nextDouble());
+		assertArrayEquals(getEstimatesAfterPlacing(policy, host, vm),
+				policy.getParameterEstimatesAfterAllocation(host, vm), 1e-12);
+	}
+
+	private void assertAfterAllocation(PowerVmAllocationPolicyMigrationLocalRegression policy) {
+		for (PowerHostUtilizationHistory host : hostList) {
+			for (PowerVm vm : candidateVms) {
+				if (host.getUtilizationStatistics().size() >= PowerHostUtilizationHistory.REGRESSION_LENGTH) {
+					assertArrayEquals(getEstimatesAfterPlacing(policy, host, vm),
+							policy.getParameterEstimatesAfterAllocation(host, vm), 1e-12);
+					host.getUtilizationStatistics();
+					long version = host.getUtilizationStatisticsVersion();
+					policy.isHostOverUtilizedAfterAllocation(host, vm);
+					host.getUtilizationStatistics();
+					if (host.isSuitableForVm(vm)) {
+						// the VM was not placed on the host to check it
+						assertEquals(version, host.getUtilizationStatisticsVersion());
+					}
+				}
+				for (double safetyParameter = 0.5; safetyParameter < 3; safetyParameter += 0.1) {
+					policy.setSafetyParameter(safetyParameter);
+					assertEquals(isHostOverUtilizedAfterPlacing(policy, host, vm),
+							policy.isHostOverUtilizedAfterAllocation(host, vm));
+				}
+				assertTrue(host.getVmList().indexOf(vm) == -1);
+			}
+		}
+	}
+
+	private PowerVm createVm(int id, double mips, int historyLength) {
+		PowerVm vm = new PowerVm(id, 0, mips, 1, 1024, 1000, 1000, 0, "Xen",
+				new CloudletSchedulerDynamicWorkload(mips, 1), 300);
+		for (int i = 0; i < historyLength; i++) {
+			vm.addUtilizationHistoryValue(random.nextDouble());
+		}
+		return vm;
+	}
+
+	private static double[] getEstimatesAfterPlacing(
+			PowerVmAllocationPolicyMigrationLocalRegression policy,
+			PowerHostUtilizationHistory host,
+			PowerVm vm) {
+		assertTrue(host.vmCreate(vm));
+		double[] estimates = policy instanceof PowerVmAllocationPolicyMigrationLocalRegressionRobust
+				? policy.getParameterEstimates(policy.getUtilizationHistoryReversed(host))
+				: policy.getParameterEstimates(host);
+		host.vmDestroy(vm);
+		return estimates;
+	}
+
+	private static boolean isHostOverUtilizedAfterPlacing(
+			PowerVmAllocationPolicyMigrationLocalRegression policy,
+			PowerHostUtilizationHistory host,
+			PowerVm vm) {
+		assertTrue(host.vmCreate(vm));
+		boolean isHostOverUtilized = policy.isHostOverUtilized(host);
+		host.vmDestroy(vm);
+		return isHostOverUtilized;
+	}
+
+}
@@ -0,0 +1,100 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.power.models;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import java.lang.ref.WeakReference;
+import java.util.Random;
+
+import org.junit.Test;
+
+/**
+ * @since		CloudSim Toolkit 4.0
+ */
+public class PowerModelTabulatedTest {
+
+	private static final double MAX_POWER = 200;
+	private static final double STATIC_POWER_PERCENT = 0.3;
+
+	@Test (expected = IllegalArgumentException.class)
+	public void testGetPowerArgumentLessThenZero() throws IllegalArgumentException {
+		PowerModelTabulated.getInstance(new PowerModelCubic(MAX_POWER, STATIC_POWER_PERCENT)).getPower(-1);
+	}
+
+	@Test (expected = IllegalArgumentException.class)
+	public void testGetPowerArgumentLargerThenOne() throws IllegalArgumentException {
+		PowerModelTabulated.getInstance(new PowerModelCubic(MAX_POWER, STATIC_POWER_PERCENT)).getPower(2);
+	}
+
+	@Test
+	public void testGetPower() {
+		assertGetPower(new PowerModelCubic(MAX_POWER, STATIC_POWER_PERCENT));
+		assertGetPower(new PowerModelSqrt(MAX_POWER, STATIC_POWER_PERCENT));
+		assertGetPower(new PowerModelSquare(MAX_POWER, STATIC_POWER_PERCENT));
+		assertGetPower(new PowerModelLinear(MAX_POWER, STATIC_POWER_PERCENT));
+		assertGetPower(new PowerModelSpecPowerIbmX3550XeonX5675());
+	}
+
+	@Test
+	public void testGetPowerExact() {
+		PowerModel powerModel = new PowerModelCubic(MAX_POWER, STATIC_POWER_PERCENT);
+		PowerModel tabulated = new PowerModelTabulated(powerModel, 100, 0);
+		Random random = new Random(1);
+		for (int i = 0; i < 1000; i++) {
+			double utilization = random.nextDouble();
+			assertEquals(powerModel.getPower(utilization), tabulated.getPower(utilization), 0);
+		}
+	}
+
+	@Test
+	public void testGetInstance() {
+		PowerModel powerModel = new PowerModelSpecPowerIbmX3550XeonX5675();
+		PowerModelTabulated tabulated = PowerModelTabulated.getInstance(powerModel);
+		assertSame(tabulated, PowerModelTabulated.getInstance(powerModel));
+		assertSame(tabulated, PowerModelTabulated.getInstance(tabulated));
+		assertSame(powerModel, tabulated.getPowerModel());
+		assertNotSame(tabulated, PowerModelTabulated.getInstance(new PowerModelSpecPowerIbmX3550XeonX5675()));
+	}
+
+	@Test
+	public void testGetInstanceHeldWeakly() {
+		PowerModel powerModel = new PowerModelCubic(MAX_POWER, STATIC_POWER_PERCENT);
+		assertNull(PowerModelTabulated.getSharedReference(powerModel));
+		PowerModelTabulated tabulated = PowerModelTabulated.getInstance(powerModel);
+		WeakReference<PowerModelTabulated> reference = PowerModelTabulated.getSharedReference(powerModel);
+		assertSame(tabulated, reference.get());
+
+		// a table dropped by the garbage collector is computed again
+		reference.clear();
+		PowerModelTabulated computedAgain = PowerModelTabulated.getInstance(powerModel);
+		assertNotSame(tabulated, computedAgain);
+		assertSame(computedAgain, PowerModelTabulated.getSharedReference(powerModel).get());
+	}
+
+	private static void assertGetPower(PowerModel powerModel) {
+		PowerModel tabulated = PowerModelTabulated.getInstance(powerModel);
+		assertEquals(powerModel.getPower(0), tabulated.getPower(0), 0);
+		assertEquals(powerModel.getPower(1), tabulated.getPower(1), 0);
+		assertEquals(powerModel.getPower(0.0001), tabulated.getPower(0.0001), 0);
+		Random random = new Random(2);
+		for (int i = 0; i < 10000; i++) {
+			double utilization = random.nextDouble();
+			assertEquals(powerModel.getPower(utilization), tabulated.getPower(utilization),
+					PowerModelTabulated.DEFAULT_MAX_ERROR);
+		}
+		for (int i = 0; i <= 100; i++) {
+			assertEquals(powerModel.getPower(i / 100.0), tabulated.getPower(i / 100.0), 1e-9);
+		}
+	}
+
+}
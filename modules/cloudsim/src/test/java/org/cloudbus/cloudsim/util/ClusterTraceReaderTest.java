@@ -0,0 +1,130 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+import org.cloudbus.cloudsim.Cloudlet;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * @since		CloudSim Toolkit 4.0
+ */
+public class ClusterTraceReaderTest {
+
+	private static final int RATING = 1000;
+
+	@Rule
+	public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+	@Test
+	public void testGoogleTrace() throws IOException {
+		File file = temporaryFolder.newFile("part-00000-of-00500.csv.gz");
+		write(file, true,
+				"0,2,3418309,0,4155527081,0,70s3v5qRyCO/1PCdI6fVXnrW8FU/w+5CKRSa72xgcIo=,3,9,0.125,0.07446,0.0004244,0",
+				"0,2,3418309,1,4155527081,0,70s3v5qRyCO/1PCdI6fVXnrW8FU/w+5CKRSa72xgcIo=,3,9,0.125,0.07446,0.0004244,0",
+				"5000000,,3418309,0,4155527081,1,70s3v5qRyCO/1PCdI6fVXnrW8FU/w+5CKRSa72xgcIo=,3,9,0.125,0.07446,0.0004244,0",
+				"6000000,,3418309,1,4155527081,1,70s3v5qRyCO/1PCdI6fVXnrW8FU/w+5CKRSa72xgcIo=,3,9,0.125,0.07446,0.0004244,0",
+				"8000000,,3418309,1,4155527081,2,70s3v5qRyCO/1PCdI6fVXnrW8FU/w+5CKRSa72xgcIo=,3,9,0.125,0.07446,0.0004244,0",
+				"9000000,,3418309,1,4155527081,1,70s3v5qRyCO/1PCdI6fVXnrW8FU/w+5CKRSa72xgcIo=,3,9,0.125,0.07446,0.0004244,0",
+				"25000000,,3418309,0,4155527081,4,70s3v5qRyCO/1PCdI6fVXnrW8FU/w+5CKRSa72xgcIo=,3,9,0.125,0.07446,0.0004244,0",
+				"30000000,,3418309,1,4155527081,4,70s3v5qRyCO/1PCdI6fVXnrW8FU/w+5CKRSa72xgcIo=,3,9,0.125,0.07446,0.0004244,0",
+				"1000000,,6251812952,0,,0,huUxs6yoLfnoFiDY1bzGPS2+5aLDJp14eyBmEKDxUv4=,0,2,0.5,0.01,0,0");
+
+		GoogleTraceReader reader = new GoogleTraceReader(file.getPath(), RATING, 16);
+		reader.setCacheEnabled(false);
+		List<Cloudlet> cloudlets = reader.generateWorkload();
+
+		// the task that was never scheduled is ignored
+		assertEquals(2, cloudlets.size());
+		assertEquals(0, reader.getSubmitTime(0), 0);
+		assertEquals(3418309, reader.getJobId(0));
+		assertEquals(0, reader.getTaskIndex(0));
+		assertEquals(20 * RATING, cloudlets.get(0).getCloudletLength());
+		assertEquals(2, cloudlets.get(0).getNumberOfPes());
+		// the evicted task runs again from its last schedule
+		assertEquals(1, reader.getTaskIndex(1));
+		assertEquals(21 * RATING, cloudlets.get(1).getCloudletLength());
+		assertFalse(reader.getCacheFile().exists());
+	}
+
+	@Test
+	public void testAlibabaTraceInParallelAndCached() throws IOException {
+		File file = temporaryFolder.newFile("batch_task.csv");
+		// enough tasks for the cache to be written and read in several chunks
+		String[] lines = new String[100000];
+		for (int i = 0; i < lines.length; i++) {
+			lines[i] = "R" + (i % 7) + "_1," + (1 + i % 2) + ",j_" + i + ",1,"
+					+ (i % 10 == 0 ? "Waiting" : "Terminated") + "," + (187000 - i) + "," + (187100 - i % 50) + ",150,0.59";
+		}
+		write(file, false, lines);
+
+		AlibabaTraceReader sequential = new AlibabaTraceReader(file.getPath(), RATING);
+		sequential.setParallelism(1);
+		sequential.setCacheEnabled(false);
+		List<Cloudlet> expected = sequential.generateWorkload();
+		assertEquals(140000, expected.size());
+
+		AlibabaTraceReader parallel = new AlibabaTraceReader(file.getPath(), RATING);
+		parallel.setParallelism(4);
+		assertSameWorkload(sequential, expected, parallel, parallel.generateWorkload());
+		assertTrue(parallel.getCacheFile().isFile());
+
+		// the cache is used instead of the trace while the trace is not modified
+		File cacheFile = parallel.getCacheFile();
+		long cacheModified = cacheFile.lastModified();
+		AlibabaTraceReader cached = new AlibabaTraceReader(file.getPath(), RATING);
+		assertSameWorkload(sequential, expected, cached, cached.generateWorkload());
+		assertEquals(cacheModified, cacheFile.lastModified());
+
+		assertEquals(187000 - 99999, sequential.getSubmitTime(0), 0);
+		assertEquals(99999, sequential.getJobId(0));
+		assertEquals(99999 % 7, sequential.getTaskIndex(0));
+		assertEquals(2, expected.get(0).getNumberOfPes());
+	}
+
+	private static void assertSameWorkload(ClusterTraceReader expectedReader, List<Cloudlet> expected,
+			ClusterTraceReader actualReader, List<Cloudlet> actual) {
+		assertEquals(expected.size(), actual.size());
+		for (int i = 0; i < expected.size(); i++) {
+			assertEquals(expected.get(i).getCloudletId(), actual.get(i).getCloudletId());
+			assertEquals(expected.get(i).getCloudletLength(), actual.get(i).getCloudletLength());
+			assertEquals(expected.get(i).getNumberOfPes(), actual.get(i).getNumberOfPes());
+			assertEquals(expectedReader.getSubmitTime(i), actualReader.getSubmitTime(i), 0);
+			assertEquals(expectedReader.getJobId(i), actualReader.getJobId(i));
+			assertEquals(expectedReader.getTaskIndex(i), actualReader.getTaskIndex(i));
+		}
+	}
+
+	private static void write(File file, boolean compressed, String... lines) throws IOException {
+		OutputStream output = new FileOutputStream(file);
+		if (compressed) {
+			output = new GZIPOutputStream(output);
+		}
+		PrintWriter writer = new PrintWriter(new OutputStreamWriter(output, "UTF-8"));
+		for (String line : lines) {
+			writer.println(line);
+		}
+		writer.close();
+	}
+
+}
@@ -0,0 +1,81 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.util;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+/**
+ * @since		CloudSim Toolkit 4.0
+ */
+public class DoubleRingBufferTest {
+
+	private static final int CAPACITY = 30;
+
+	@Test
+	public void testSameAsBoundedLinkedList() {
+		DoubleRingBuffer buffer = new DoubleRingBuffer(CAPACITY);
+		List<Double> list = new LinkedList<Double>();
+		Random random = new Random(42);
+		for (int i = 0; i < 1000; i++) {
+			double value = random.nextDouble();
+			buffer.addFirst(value);
+			list.add(0, value);
+			if (list.size() > CAPACITY) {
+				list.remove(CAPACITY);
+			}
+
+			assertEquals(list, buffer);
+			double[] array = MathUtil.listToArray(list);
+			assertArrayEquals(array, buffer.toDoubleArray(), 0);
+			assertEquals(MathUtil.mean(list), buffer.getMean(), 1e-12);
+			double variance = 0;
+			for (double element : array) {
+				variance += (element - buffer.getMean()) * (element - buffer.getMean());
+			}
+			assertEquals(variance / array.length, buffer.getVariance(), 1e-12);
+		}
+	}
+
+	@Test
+	public void testAddAtIndexZeroAndClear() {
+		DoubleRingBuffer buffer = new DoubleRingBuffer(2);
+		assertEquals(0, buffer.getMean(), 0);
+		assertEquals(0, buffer.getVariance(), 0);
+
+		buffer.add(0, 1.0);
+		buffer.add(0, 2.0);
+		buffer.add(0, 3.0);
+		assertEquals(2, buffer.size());
+		assertEquals(3.0, buffer.getDouble(0), 0);
+		assertEquals(2.0, buffer.getDouble(1), 0);
+		assertEquals(5.0, buffer.getSum(), 0);
+		assertEquals(0.25, buffer.getVariance(), 0);
+
+		buffer.clear();
+		assertTrue(buffer.isEmpty());
+		buffer.addFirst(4);
+		assertArrayEquals(new double[] { 4 }, buffer.toDoubleArray(), 0);
+	}
+
+	@Test(expected = UnsupportedOperationException.class)
+	public void testAddAtOtherIndex() {
+		DoubleRingBuffer buffer = new DoubleRingBuffer(2);
+		buffer.addFirst(1);
+		buffer.add(1, 2.0);
+	}
+
+}
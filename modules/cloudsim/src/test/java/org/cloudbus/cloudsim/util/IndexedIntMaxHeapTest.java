@@ -0,0 +1,91 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+/**
+ * @since		CloudSim Toolkit 4.0
+ */
+public class IndexedIntMaxHeapTest {
+
+	private static final int CAPACITY = 100;
+
+	@Test
+	public void testSameTopAsLinearScan() {
+		IndexedIntMaxHeap heap = new IndexedIntMaxHeap(CAPACITY);
+		int[] keys = new int[CAPACITY];
+		boolean[] contained = new boolean[CAPACITY];
+		Random random = new Random(7);
+		for (int i = 0; i < 20000; i++) {
+			int element = random.nextInt(CAPACITY);
+			// few distinct keys, so that there are many ties
+			int key = random.nextInt(10) - 2;
+			switch (random.nextInt(4)) {
+			case 0:
+				heap.add(element, key);
+				keys[element] = key;
+				contained[element] = true;
+				break;
+			case 1:
+				assertEquals(contained[element], heap.remove(element));
+				contained[element] = false;
+				break;
+			case 2:
+				heap.setKey(element, key);
+				keys[element] = key;
+				break;
+			default:
+				int top = heap.poll();
+				assertEquals(getTop(keys, contained), top);
+				if (top != -1) {
+					contained[top] = false;
+				}
+			}
+			assertEquals(getTop(keys, contained), heap.peek());
+			assertEquals(contained[element], heap.contains(element));
+			assertEquals(keys[element], heap.getKey(element));
+		}
+	}
+
+	@Test
+	public void testEmpty() {
+		IndexedIntMaxHeap heap = new IndexedIntMaxHeap(2);
+		assertTrue(heap.isEmpty());
+		assertEquals(-1, heap.peek());
+		assertEquals(-1, heap.poll());
+		heap.add(1, 5);
+		heap.add(0, 5);
+		assertEquals(2, heap.size());
+		assertEquals(0, heap.poll());
+		assertEquals(1, heap.poll());
+		assertFalse(heap.remove(1));
+		assertTrue(heap.isEmpty());
+	}
+
+	/**
+	 * The first element with the greatest key.
+	 */
+	private static int getTop(int[] keys, boolean[] contained) {
+		int top = -1;
+		for (int i = 0; i < keys.length; i++) {
+			if (contained[i] && (top == -1 || keys[i] > keys[top])) {
+				top = i;
+			}
+		}
+		return top;
+	}
+
+}
@@ -0,0 +1,88 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import org.cloudbus.cloudsim.Vm;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * @since		CloudSim Toolkit 4.0
+ */
+public class LongObjectHashMapTest {
+
+	private LongObjectHashMap<String> map;
+
+	@Before
+	public void setUp() throws Exception {
+		map = new LongObjectHashMap<String>();
+	}
+
+	@Test
+	public void testPutGetRemove() {
+		assertTrue(map.isEmpty());
+		assertNull(map.put(Vm.getKey(1, 0), "a"));
+		assertNull(map.put(Vm.getKey(-1, 0), "b"));
+		assertEquals("a", map.put(Vm.getKey(1, 0), "c"));
+		assertEquals(2, map.size());
+		assertEquals("c", map.get(Vm.getKey(1, 0)));
+		assertEquals("b", map.get(Vm.getKey(-1, 0)));
+		assertNull(map.get(Vm.getKey(0, 1)));
+
+		assertEquals("c", map.remove(Vm.getKey(1, 0)));
+		assertNull(map.remove(Vm.getKey(1, 0)));
+		assertFalse(map.containsKey(Vm.getKey(1, 0)));
+		assertEquals(1, map.size());
+		assertEquals(Vm.getKey(-1, 0), map.keyAt(0));
+		assertEquals("b", map.valueAt(0));
+
+		map.clear();
+		assertTrue(map.isEmpty());
+		assertNull(map.get(Vm.getKey(-1, 0)));
+	}
+
+	@Test
+	public void testKeyFromUid() {
+		assertEquals(Vm.getKey(3, 7), Vm.getKey(Vm.getUid(3, 7)));
+		assertEquals(Vm.getKey(-2, 7), Vm.getKey(Vm.getUid(-2, 7)));
+	}
+
+	@Test
+	public void testAgainstHashMap() {
+		Map<Long, String> expected = new HashMap<Long, String>();
+		Random random = new Random(0);
+		for (int i = 0; i < 10000; i++) {
+			long key = Vm.getKey(random.nextInt(4), random.nextInt(200));
+			if (random.nextInt(3) == 0) {
+				assertEquals(expected.remove(key), map.remove(key));
+			} else {
+				String value = String.valueOf(i);
+				assertEquals(expected.put(key, value), map.put(key, value));
+			}
+			assertEquals(expected.size(), map.size());
+		}
+
+		for (Map.Entry<Long, String> entry : expected.entrySet()) {
+			assertEquals(entry.getValue(), map.get(entry.getKey()));
+		}
+		for (int i = 0; i < map.size(); i++) {
+			assertEquals(expected.get(map.keyAt(i)), map.valueAt(i));
+		}
+	}
+
+}
@@ -0,0 +1,79 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.util;
+
+import static org.junit.Assert.assertArrayEquals;
+
+import java.util.Random;
+
+import org.apache.commons.math3.linear.Array2DRowRealMatrix;
+import org.junit.Test;
+
+/**
+ * @since		CloudSim Toolkit 4.0
+ */
+public class MultipleCorrelationTest {
+
+	@Test
+	public void testSameAsRegressions() {
+		MultipleCorrelation correlation = new MultipleCorrelation();
+		Random random = new Random(5);
+		// the sizes change so that the buffers are reused and grown
+		int[][] sizes = { { 2, 30 }, { 8, 30 }, { 3, 3 }, { 12, 25 }, { 5, 30 } };
+		for (int[] size : sizes) {
+			double[][] data = new double[size[0]][size[1]];
+			for (int i = 0; i < data.length; i++) {
+				for (int j = 0; j < data[i].length; j++) {
+					// correlated series
+					data[i][j] = random.nextDouble() + (i % 3) * (i > 0 ? data[i - 1][j] : 0);
+				}
+			}
+			assertArrayEquals(getCoefficientsOfDetermination(data),
+					correlation.getCoefficientsOfDetermination(data), 1e-9);
+		}
+	}
+
+	@Test
+	public void testCollinearSeries() {
+		double[][] data = { { 1, 2, 2, 4, 3, 6 }, { 2, 4, 4, 8, 6, 12 }, { 4, 4, 7, 7, 10, 10 } };
+		assertArrayEquals(getCoefficientsOfDetermination(data),
+				new MultipleCorrelation().getCoefficientsOfDetermination(data), 1e-9);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testFewerValuesThanSeries() {
+		new MultipleCorrelation().getCoefficientsOfDetermination(new double[][] { { 1, 2 }, { 2, 1 }, { 3, 5 } });
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testSingleSeries() {
+		new MultipleCorrelation().getCoefficientsOfDetermination(new double[][] { { 1, 2, 3 } });
+	}
+
+	/**
+	 * The coefficients of determination of the regressions of each series on the others.
+	 */
+	private static double[] getCoefficientsOfDetermination(double[][] data) {
+		int n = data.length;
+		double[] coefficients = new double[n];
+		for (int i = 0; i < n; i++) {
+			double[][] x = new double[n - 1][];
+			int k = 0;
+			for (int j = 0; j < n; j++) {
+				if (j != i) {
+					x[k++] = data[j];
+				}
+			}
+			double[][] xT = new Array2DRowRealMatrix(x).transpose().getData();
+			coefficients[i] = MathUtil.createLinearRegression(xT, data[i]).calculateRSquared();
+		}
+		return coefficients;
+	}
+
+}
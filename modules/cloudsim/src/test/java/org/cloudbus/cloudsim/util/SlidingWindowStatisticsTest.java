@@ -0,0 +1,79 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.util;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+/**
+ * @since		CloudSim Toolkit 4.0
+ */
+public class SlidingWindowStatisticsTest {
+
+	private static final int CAPACITY = 30;
+
+	private static final int REGRESSION_LENGTH = 10;
+
+	@Test
+	public void testSameAsMathUtil() {
+		SlidingWindowStatistics statistics = new SlidingWindowStatistics(CAPACITY, REGRESSION_LENGTH);
+		Random random = new Random(7);
+		for (int i = 0; i < 2000; i++) {
+			// a few distinct values so that there are ties
+			double value = random.nextInt(4) == 0 ? random.nextInt(5) / 4.0 : random.nextDouble();
+			statistics.addFirst(value);
+			if (random.nextInt(10) == 0) {
+				statistics.removeLast();
+			}
+			if (statistics.size() == 0) {
+				continue;
+			}
+
+			double[] data = statistics.toArray();
+			assertEquals(MathUtil.median(data), statistics.getMedian(), 0);
+			assertEquals(MathUtil.mad(data), statistics.getMad(), 0);
+			if (data.length >= 12) { // as the interquartile range policy
+				assertEquals(MathUtil.iqr(data.clone()), statistics.getIqr(), 0);
+			}
+
+			if (data.length >= REGRESSION_LENGTH) {
+				double[] reversed = new double[REGRESSION_LENGTH];
+				for (int j = 0; j < REGRESSION_LENGTH; j++) {
+					reversed[j] = data[REGRESSION_LENGTH - j - 1];
+				}
+				assertArrayEquals(MathUtil.getLoessParameterEstimates(reversed),
+						statistics.getRegressionEstimates(), 1e-12);
+			}
+		}
+	}
+
+	@Test
+	public void testSmallWindows() {
+		SlidingWindowStatistics statistics = new SlidingWindowStatistics(3, 2);
+		assertEquals(0, statistics.getMad(), 0);
+		statistics.addFirst(0.5);
+		assertEquals(0.5, statistics.getMedian(), 0);
+		assertEquals(0, statistics.getMad(), 0);
+
+		statistics.addFirst(0.1);
+		statistics.addFirst(0.3);
+		statistics.addFirst(0.9);
+		assertArrayEquals(new double[] { 0.9, 0.3, 0.1 }, statistics.toArray(), 0);
+		assertEquals(0.1, statistics.getOrderStatistic(0), 0);
+		assertEquals(0.3, statistics.getMedian(), 0);
+		assertEquals(0.2, statistics.getMad(), 1e-15);
+		// the oldest of the regression values is at x = 1
+		assertArrayEquals(new double[] { -0.3, 0.6 }, statistics.getRegressionEstimates(), 1e-12);
+	}
+
+}
@@ -0,0 +1,122 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.util;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+import org.cloudbus.cloudsim.Vm;
+import org.junit.Test;
+
+/**
+ * @since		CloudSim Toolkit 4.0
+ */
+public class UidMapViewTest {
+
+	@Test
+	public void testMapView() {
+		LongObjectHashMap<String> table = new LongObjectHashMap<String>();
+		Map<String, String> view = UidMapView.of(table);
+		assertNull(view.put("1-2", "a"));
+		assertNull(view.put("-1-3", "b"));
+		assertEquals("a", table.get(Vm.getKey(1, 2)));
+		assertEquals("b", table.get(Vm.getKey(-1, 3)));
+
+		table.put(Vm.getKey(4, 5), "c");
+		assertEquals(3, view.size());
+		assertEquals("c", view.get("4-5"));
+		assertTrue(view.containsKey("-1-3"));
+		assertFalse(view.containsKey("2-1"));
+		assertFalse(view.containsKey("vm"));
+		assertNull(view.get(Integer.valueOf(1)));
+
+		Map<String, String> expected = new HashMap<String, String>();
+		expected.put("1-2", "a");
+		expected.put("-1-3", "b");
+		expected.put("4-5", "c");
+		assertEquals(expected, new HashMap<String, String>(view));
+
+		assertEquals("b", view.remove("-1-3"));
+		assertFalse(table.containsKey(Vm.getKey(-1, 3)));
+		assertNull(view.remove("-1-3"));
+	}
+
+	@Test
+	public void testMapViewIteratorRemove() {
+		LongObjectHashMap<String> table = new LongObjectHashMap<String>();
+		for (int i = 0; i < 10; i++) {
+			table.put(Vm.getKey(0, i), "vm" + i);
+		}
+		Map<String, String> view = UidMapView.of(table);
+		for (Iterator<Map.Entry<String, String>> it = view.entrySet().iterator(); it.hasNext();) {
+			Map.Entry<String, String> entry = it.next();
+			if (Integer.parseInt(entry.getKey().substring(2)) % 2 == 0) {
+				it.remove();
+			} else {
+				entry.setValue(entry.getValue() + "'");
+			}
+		}
+		assertEquals(5, table.size());
+		for (int i = 0; i < 10; i++) {
+			assertEquals(i % 2 == 0 ? null : "vm" + i + "'", table.get(Vm.getKey(0, i)));
+		}
+	}
+
+	@Test
+	public void testIntegerAndMipsViews() {
+		LongLongHashMap pes = new LongLongHashMap();
+		Map<String, Integer> pesView = UidMapView.ofIntegers(pes);
+		assertNull(pesView.put("1-1", 4));
+		assertEquals(Integer.valueOf(4), pesView.put("1-1", 2));
+		assertEquals(2, pes.get(Vm.getKey(1, 1), 0));
+		assertNull(pesView.get("1-2"));
+
+		LongObjectHashMap<double[]> mips = new LongObjectHashMap<double[]>();
+		Map<String, List<Double>> mipsView = UidMapView.ofMips(mips);
+		mipsView.put("1-1", Arrays.asList(100.0, 50.0));
+		assertArrayEquals(new double[] { 100, 50 }, mips.get(Vm.getKey(1, 1)), 0);
+		mips.put(Vm.getKey(1, 2), new double[] { 10 });
+		assertEquals(Arrays.asList(10.0), mipsView.get("1-2"));
+	}
+
+	@Test
+	public void testListView() {
+		LongHashSet set = new LongHashSet();
+		List<String> view = UidListView.of(set);
+		assertTrue(view.add("1-2"));
+		assertTrue(view.add("3-4"));
+		view.add("1-2");
+		assertEquals(2, view.size());
+		assertTrue(set.contains(Vm.getKey(3, 4)));
+		assertTrue(view.contains("1-2"));
+		assertFalse(view.contains("2-1"));
+		assertEquals(new HashSet<String>(Arrays.asList("1-2", "3-4")), new HashSet<String>(view));
+
+		set.add(Vm.getKey(5, 6));
+		assertTrue(view.contains("5-6"));
+		assertTrue(view.remove("1-2"));
+		assertFalse(set.contains(Vm.getKey(1, 2)));
+		for (Iterator<String> it = view.iterator(); it.hasNext();) {
+			it.next();
+			it.remove();
+		}
+		assertTrue(set.isEmpty());
+	}
+
+}
@@ -0,0 +1,113 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.util;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.util.SortedMap;
+import java.util.zip.GZIPOutputStream;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * @since		CloudSim Toolkit 4.0
+ */
+public class UtilizationTraceConverterTest {
+
+	@Rule
+	public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+	@Test
+	public void testReadBitbrains() throws IOException {
+		File folder = temporaryFolder.newFolder("bitbrains");
+		write(new File(folder, "1.csv"), false,
+				"Timestamp [ms];\tCPU cores;\tCPU capacity provisioned [MHZ];\tCPU usage [MHZ];\tCPU usage [%]",
+				"1376314846;\t4;\t11703.99;\t1053.36;\t9.0",
+				"1376315146;\t4;\t11703.99;\t2926.0;\t25.0");
+
+		SortedMap<String, double[]> traces = UtilizationTraceConverter.readBitbrains(folder);
+		assertEquals(1, traces.size());
+		assertArrayEquals(new double[] { 0.09, 0.25 }, traces.get("1.csv"), 1e-12);
+	}
+
+	@Test
+	public void testReadGoogle() throws IOException {
+		File folder = temporaryFolder.newFolder("google");
+		write(new File(folder, "part-00000.csv.gz"), true,
+				"600000000,900000000,10,0,5,0.02,0.1",
+				"600000000,900000000,10,1,6,0.04,0.1",
+				"700000000,900000000,10,0,5,0.04,0.1");
+		write(new File(folder, "part-00001.csv"), false,
+				"1500000000,1800000000,10,1,6,0.06,0.1",
+				"1500000000,1800000000,11,0,5,,0.1");
+
+		SortedMap<String, double[]> traces = UtilizationTraceConverter.readGoogle(folder, 300);
+		assertEquals(2, traces.size());
+		// the intervals without records are idle, including those after the task ended
+		assertArrayEquals(new double[] { 0.03, 0, 0, 0 }, traces.get("10-0"), 1e-12);
+		assertArrayEquals(new double[] { 0.04, 0, 0, 0.06 }, traces.get("10-1"), 1e-12);
+	}
+
+	@Test
+	public void testConvertGoogle() throws IOException {
+		File input = new File(temporaryFolder.getRoot(), "task_usage.csv");
+		write(input, false,
+				"0,300000000,10,0,5,0.5,0.1",
+				"300000000,600000000,10,0,5,0.25,0.1",
+				"0,300000000,20,0,5,0.1,0.1",
+				"300000000,600000000,20,0,5,0.2,0.1",
+				"600000000,900000000,20,0,5,0.3,0.1",
+				"900000000,1200000000,20,0,5,0.4,0.1");
+		File binaryFile = new File(temporaryFolder.getRoot(), "google.trace");
+		UtilizationTraceConverter.convert("google", input, binaryFile, 300);
+
+		UtilizationTraceStore store = UtilizationTraceStore.load(binaryFile.getPath());
+		assertEquals(2, store.getTraceCount());
+		assertEquals(4, store.getSampleCount());
+		// the shorter task is idle after it ended, not held at its last sample
+		assertArrayEquals(new double[] { 0.5, 0.25, 0, 0 }, store.getTrace("10-0").toArray(), 0);
+		assertArrayEquals(new double[] { 0.1, 0.2, 0.3, 0.4 }, store.getTrace("20-0").toArray(), 0);
+		assertEquals(0, store.createUtilizationModel("10-0").getUtilization(900), 0);
+	}
+
+	@Test
+	public void testConvert() throws IOException {
+		File folder = temporaryFolder.newFolder("planetlab");
+		write(new File(folder, "vm"), false, "5", "15");
+		File binaryFile = new File(temporaryFolder.getRoot(), "planetlab.trace");
+		UtilizationTraceConverter.convert("planetlab", folder, binaryFile, 300);
+
+		UtilizationTraceStore store = UtilizationTraceStore.load(binaryFile.getPath());
+		assertEquals(1, store.getTraceCount());
+		assertArrayEquals(new double[] { 0.05, 0.15 }, store.getTrace("vm").toArray(), 0);
+		assertEquals(0.1, store.createUtilizationModel("vm").getUtilization(150), 1e-12);
+	}
+
+	private static void write(File file, boolean compressed, String... lines) throws IOException {
+		OutputStream output = new FileOutputStream(file);
+		if (compressed) {
+			output = new GZIPOutputStream(output);
+		}
+		PrintWriter writer = new PrintWriter(new OutputStreamWriter(output, "UTF-8"));
+		for (String line : lines) {
+			writer.println(line);
+		}
+		writer.close();
+	}
+
+}
@@ -0,0 +1,156 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.util;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.file.Files;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+import org.cloudbus.cloudsim.UtilizationModelPlanetLabInMemory;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * @since		CloudSim Toolkit 4.0
+ */
+public class UtilizationTraceStoreTest {
+
+	private static final double SCHEDULING_INTERVAL = 300;
+
+	private static final String FILE = "146-179_surfsnel_dsl_internl_net_colostate_557.dat";
+
+	@Rule
+	public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+	@Test
+	public void testSameUtilizationAsTraceFile() throws IOException {
+		File file = new File(getClass().getClassLoader().getResource(FILE).getPath());
+		File folder = temporaryFolder.newFolder("planetlab");
+		copy(file, new File(folder, FILE));
+		writeTrace(new File(folder, "other"), 1, 2, 3);
+
+		UtilizationTraceStore store = UtilizationTraceStore.open(
+				folder.getPath(), new File(temporaryFolder.getRoot(), "planetlab.trace").getPath());
+		assertEquals(2, store.getTraceCount());
+		assertEquals(288, store.getSampleCount());
+		assertEquals(FILE, store.getTraceName(0));
+		assertEquals(1, store.indexOf("other"));
+		assertEquals(SCHEDULING_INTERVAL, store.getInterval(), 0);
+
+		UtilizationModelPlanetLabInMemory expected = new UtilizationModelPlanetLabInMemory(
+				file.getPath(), SCHEDULING_INTERVAL);
+		UtilizationModelPlanetLabInMemory actual = new UtilizationModelPlanetLabInMemory(
+				store.getTrace(FILE), SCHEDULING_INTERVAL);
+		for (double time = 0; time <= 288 * SCHEDULING_INTERVAL; time += SCHEDULING_INTERVAL / 4) {
+			assertEquals(expected.getUtilization(time), actual.getUtilization(time), 0);
+		}
+		assertArrayEquals(expected.getData(), actual.getData(), 0);
+		assertArrayEquals(expected.getData(), store.createUtilizationModel(FILE).getData(), 0);
+
+		// the shorter trace is padded with its last sample
+		UtilizationTrace other = store.getTrace("other");
+		assertEquals(0.03, other.get(3), 0);
+		assertEquals(0.03, other.get(287), 0);
+	}
+
+	@Test
+	public void testSharedAndRepacked() throws IOException {
+		File folder = temporaryFolder.newFolder("traces");
+		writeTrace(new File(folder, "a"), 10, 300);
+		String binaryFile = new File(temporaryFolder.getRoot(), "traces.trace").getPath();
+
+		UtilizationTraceStore store = UtilizationTraceStore.open(folder.getPath(), binaryFile);
+		assertSame(store, UtilizationTraceStore.open(folder.getPath(), binaryFile));
+		// percentages that don't fit in a byte take two bytes
+		assertEquals(3.0, store.getTrace(0).get(1), 0);
+
+		writeTrace(new File(folder, "b"), 20);
+		assertTrue(folder.setLastModified(folder.lastModified() + 1000));
+		UtilizationTraceStore repacked = UtilizationTraceStore.open(folder.getPath(), binaryFile);
+		assertNotSame(store, repacked);
+		assertEquals(2, repacked.getTraceCount());
+		assertEquals(0.2, repacked.getTrace("b").get(1), 0);
+
+		// the binary file can be used without the folder
+		assertSame(repacked, UtilizationTraceStore.open(new File(folder, "missing").getPath(), binaryFile));
+	}
+
+	@Test
+	public void testRepackedWhenFileModified() throws IOException {
+		File folder = temporaryFolder.newFolder("modified");
+		File file = new File(folder, "a");
+		writeTrace(file, 10, 20);
+		String binaryFile = new File(temporaryFolder.getRoot(), "modified.trace").getPath();
+		UtilizationTraceStore store = UtilizationTraceStore.open(folder.getPath(), binaryFile);
+
+		// rewriting a file in place doesn't change the folder, nor the number of files
+		long folderModified = folder.lastModified();
+		writeTrace(file, 30, 40);
+		assertTrue(file.setLastModified(file.lastModified() + 1000));
+		assertTrue(folder.setLastModified(folderModified));
+		UtilizationTraceStore repacked = UtilizationTraceStore.open(folder.getPath(), binaryFile);
+		assertNotSame(store, repacked);
+		assertEquals(0.4, repacked.getTrace("a").get(1), 0);
+		assertSame(repacked, UtilizationTraceStore.open(folder.getPath(), binaryFile));
+	}
+
+	@Test
+	public void testWriteAndLoad() throws IOException {
+		SortedMap<String, double[]> traces = new TreeMap<String, double[]>();
+		traces.put("vm-1", new double[] { 0.1234, 0.5 });
+		traces.put("vm-0", new double[] { 1, 0, 0.25 });
+		File binaryFile = new File(temporaryFolder.getRoot(), "written.trace");
+		UtilizationTraceStore.write(binaryFile, traces, 60, 0);
+
+		UtilizationTraceStore store = UtilizationTraceStore.load(binaryFile.getPath());
+		assertSame(store, UtilizationTraceStore.load(binaryFile.getPath()));
+		assertEquals(2, store.getTraceCount());
+		assertEquals(3, store.getSampleCount());
+		assertEquals(60, store.getInterval(), 0);
+		assertEquals("vm-0", store.getTraceName(0));
+		assertArrayEquals(new double[] { 1, 0, 0.25 }, store.getTrace(0).toArray(), 0);
+		// utilization below a percent is kept, and the shorter trace is padded
+		assertArrayEquals(new double[] { 0.1234, 0.5, 0.5 }, store.getTrace("vm-1").toArray(), 0);
+
+		UtilizationModelPlanetLabInMemory model = store.createUtilizationModel(1);
+		assertEquals(0.1234, model.getUtilization(0), 0);
+		assertEquals((0.1234 + 0.5) / 2, model.getUtilization(30), 1e-12);
+	}
+
+	@Test(expected = IOException.class)
+	public void testUtilizationOutOfRange() throws IOException {
+		SortedMap<String, double[]> traces = new TreeMap<String, double[]>();
+		traces.put("vm", new double[] { 700 });
+		UtilizationTraceStore.write(new File(temporaryFolder.getRoot(), "invalid.trace"), traces, 300, 0);
+	}
+
+	private static void writeTrace(File file, int... percentages) throws IOException {
+		PrintWriter writer = new PrintWriter(new FileWriter(file));
+		for (int percentage : percentages) {
+			writer.println(percentage);
+		}
+		writer.close();
+	}
+
+	private static void copy(File from, File to) throws IOException {
+		Files.copy(from.toPath(), to.toPath());
+	}
+
+}